@@ -0,0 +1,44 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.Version;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the usual JMH command line options, writing the results in JSON format to
+ * <tt>target/jmh-results-[version].json</tt> unless another result file or format is specified. The result files of
+ * two releases can then be compared to spot regressions.
+ * <p>
+ * For instance, <tt>java -jar target/benchmarks.jar DataContainer -t 4</tt> runs the data container benchmarks with 4
+ * threads.
+ *
+ * @since 7.0
+ */
+public class BenchmarkRunner {
+
+   public static void main(String[] args) throws Exception {
+      CommandLineOptions commandLine = new CommandLineOptions(args);
+      if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+            || commandLine.shouldListResultFormats()) {
+         // nothing is run, JMH only prints some information
+         Main.main(args);
+         return;
+      }
+
+      OptionsBuilder options = new OptionsBuilder();
+      options.parent(commandLine);
+      ResultFormatType format = ResultFormatType.JSON;
+      if (commandLine.getResultFormat().hasValue()) {
+         format = commandLine.getResultFormat().get();
+      } else {
+         options.resultFormat(format);
+      }
+      if (!commandLine.getResult().hasValue()) {
+         options.result("target/jmh-results-" + Version.VERSION + "." + format.toString().toLowerCase());
+      }
+      new Runner(options.build()).run();
+   }
+}
@@ -0,0 +1,63 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a {@link BoundedConcurrentHashMap} on its own under contention, with the LRU and LIRS eviction strategies.
+ * The map holds half of the keys, so that writes keep evicting entries. Compared with {@link DataContainerBenchmark}
+ * this shows the cost the data container adds on top of the map.
+ *
+ * @since 7.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+public class BoundedConcurrentHashMapBenchmark {
+
+   private static final int CONCURRENCY_LEVEL = 32;
+
+   @Param({"LRU", "LIRS"})
+   BoundedConcurrentHashMap.Eviction eviction;
+
+   private BoundedConcurrentHashMap<String, String> map;
+   private final Keys keys = new Keys(Keys.DEFAULT_KEY_COUNT);
+
+   @Setup
+   public void setUp() {
+      map = new BoundedConcurrentHashMap<String, String>(keys.size() / 2, CONCURRENCY_LEVEL, eviction,
+            AnyEquivalence.STRING, AnyEquivalence.STRING);
+      for (String key : keys.all()) {
+         map.put(key, key);
+      }
+   }
+
+   @Benchmark
+   public String get(KeySequence sequence) {
+      return map.get(keys.get(sequence.next()));
+   }
+
+   @Benchmark
+   public String put(KeySequence sequence) {
+      String key = keys.get(sequence.next());
+      return map.put(key, key);
+   }
+}
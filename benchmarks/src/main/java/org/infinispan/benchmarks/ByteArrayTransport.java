@@ -0,0 +1,128 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import static org.infinispan.commons.io.UnsignedNumeric.readUnsignedInt;
+import static org.infinispan.commons.io.UnsignedNumeric.readUnsignedLong;
+import static org.infinispan.commons.io.UnsignedNumeric.writeUnsignedInt;
+import static org.infinispan.commons.io.UnsignedNumeric.writeUnsignedLong;
+
+/**
+ * Hot Rod client transport writing requests to memory and reading responses from a fixed buffer, so that the client
+ * codec can be measured without any network I/O.
+ *
+ * @since 7.0
+ */
+final class ByteArrayTransport extends AbstractTransport {
+
+   private static final SocketAddress ADDRESS = InetSocketAddress.createUnresolved("localhost", 11222);
+
+   private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+   private final ByteArrayInputStream in;
+
+   /**
+    * @param response the bytes read by the codec after each {@link #reset()}
+    */
+   ByteArrayTransport(byte[] response) {
+      super(null);
+      in = new ByteArrayInputStream(response);
+   }
+
+   /**
+    * Discards the bytes written so far and rewinds the response.
+    */
+   void reset() {
+      out.reset();
+      in.reset();
+   }
+
+   byte[] written() {
+      return out.toByteArray();
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      out.write(toAppend, 0, toAppend.length);
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      out.write(toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vint) {
+      try {
+         writeUnsignedInt(out, vint);
+      } catch (IOException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      try {
+         writeUnsignedLong(out, l);
+      } catch (IOException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Override
+   public long readVLong() {
+      try {
+         return readUnsignedLong(in);
+      } catch (IOException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Override
+   public int readVInt() {
+      try {
+         return readUnsignedInt(in);
+      } catch (IOException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Override
+   public short readByte() {
+      return (short) in.read();
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      byte[] result = new byte[size];
+      in.read(result, 0, size);
+      return result;
+   }
+
+   @Override
+   public void flush() {
+   }
+
+   @Override
+   public void release() {
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      return new byte[0];
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return ADDRESS;
+   }
+
+   @Override
+   public void invalidate() {
+   }
+}
@@ -0,0 +1,82 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.TransactionMode;
+import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures local reads and writes going through the whole interceptor chain of non transactional, optimistic and
+ * pessimistic caches. Transactional writes use an implicit transaction each.
+ *
+ * @since 7.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CacheOperationsBenchmark {
+
+   public enum CacheMode {
+      NON_TRANSACTIONAL, OPTIMISTIC, PESSIMISTIC
+   }
+
+   @Param({"NON_TRANSACTIONAL", "OPTIMISTIC", "PESSIMISTIC"})
+   CacheMode mode;
+
+   private EmbeddedCacheManager cacheManager;
+   private Cache<String, String> cache;
+   private final Keys keys = new Keys(Keys.DEFAULT_KEY_COUNT);
+
+   @Setup
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (mode != CacheMode.NON_TRANSACTIONAL) {
+         builder.transaction()
+               .transactionMode(TransactionMode.TRANSACTIONAL)
+               .transactionManagerLookup(new DummyTransactionManagerLookup())
+               .lockingMode(mode == CacheMode.OPTIMISTIC ? LockingMode.OPTIMISTIC : LockingMode.PESSIMISTIC);
+      }
+      cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().build(), builder.build());
+      cache = cacheManager.getCache();
+      for (String key : keys.all()) {
+         cache.put(key, key);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public String get(KeySequence sequence) {
+      return cache.get(keys.get(sequence.next()));
+   }
+
+   @Benchmark
+   public String put(KeySequence sequence) {
+      String key = keys.get(sequence.next());
+      return cache.put(key, key);
+   }
+}
@@ -0,0 +1,79 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link org.infinispan.container.DefaultDataContainer} of a cache under contention, when unbounded and
+ * when bounded with the LRU and LIRS eviction strategies. Bounded containers hold half of the keys, so that writes
+ * keep evicting entries.
+ *
+ * @since 7.0
+ * @see BoundedConcurrentHashMapBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+public class DataContainerBenchmark {
+
+   @Param({"NONE", "LRU", "LIRS"})
+   EvictionStrategy eviction;
+
+   private EmbeddedCacheManager cacheManager;
+   private DataContainer<String, String> dataContainer;
+   private final Metadata metadata = new EmbeddedMetadata.Builder().build();
+   private final Keys keys = new Keys(Keys.DEFAULT_KEY_COUNT);
+
+   @Setup
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.eviction().strategy(eviction).maxEntries(keys.size() / 2);
+      cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().build(), builder.build());
+      dataContainer = cacheManager.<String, String>getCache().getAdvancedCache().getDataContainer();
+      for (String key : keys.all()) {
+         dataContainer.put(key, key, metadata);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public InternalCacheEntry<String, String> get(KeySequence sequence) {
+      return dataContainer.get(keys.get(sequence.next()));
+   }
+
+   @Benchmark
+   public void put(KeySequence sequence) {
+      String key = keys.get(sequence.next());
+      dataContainer.put(key, key, metadata);
+   }
+}
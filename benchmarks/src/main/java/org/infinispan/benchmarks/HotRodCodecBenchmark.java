@@ -0,0 +1,82 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.client.hotrod.impl.protocol.Codec20;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the Hot Rod 2.0 client codec encoding a put request and decoding a get response, the same way the put and
+ * get operations do, against an in-memory transport.
+ *
+ * @since 7.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HotRodCodecBenchmark {
+
+   private static final int KEY_SIZE = 16;
+   private static final int VALUE_SIZE = 256;
+
+   private final Codec20 codec = new Codec20();
+   private final AtomicInteger topologyId = new AtomicInteger();
+   private final byte[] cacheName = new byte[0];
+   private final byte[] key = new byte[KEY_SIZE];
+   private final byte[] value = new byte[VALUE_SIZE];
+   private ByteArrayTransport requestTransport;
+   private ByteArrayTransport responseTransport;
+
+   @Setup
+   public void setUp() {
+      requestTransport = new ByteArrayTransport(new byte[0]);
+
+      // get response: magic, message id (0 matches any request), opcode, status, no topology change, value
+      ByteArrayTransport response = new ByteArrayTransport(new byte[0]);
+      response.writeByte(HotRodConstants.RESPONSE_MAGIC);
+      response.writeVLong(0);
+      response.writeByte(HotRodConstants.GET_RESPONSE);
+      response.writeByte(HotRodConstants.NO_ERROR_STATUS);
+      response.writeByte((short) 0);
+      response.writeArray(value);
+      responseTransport = new ByteArrayTransport(response.written());
+   }
+
+   @Benchmark
+   public ByteArrayTransport encodePut() {
+      requestTransport.reset();
+      codec.writeHeader(requestTransport, headerParams(HotRodConstants.PUT_REQUEST));
+      requestTransport.writeArray(key);
+      requestTransport.writeVInt(0);
+      requestTransport.writeVInt(0);
+      requestTransport.writeArray(value);
+      return requestTransport;
+   }
+
+   @Benchmark
+   public byte[] decodeGet() {
+      responseTransport.reset();
+      codec.readHeader(responseTransport, headerParams(HotRodConstants.GET_REQUEST));
+      return responseTransport.readArray();
+   }
+
+   private HeaderParams headerParams(byte opCode) {
+      return new HeaderParams().opCode(opCode).cacheName(cacheName).flags(null)
+            .clientIntel(HotRodConstants.CLIENT_INTELLIGENCE_BASIC).topologyId(topologyId);
+   }
+}
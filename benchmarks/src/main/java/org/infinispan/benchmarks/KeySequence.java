@@ -0,0 +1,25 @@
+package org.infinispan.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Per thread sequence of key indexes. The indexes are scattered so that concurrent threads don't access the same keys
+ * in the same order.
+ *
+ * @since 7.0
+ */
+@State(Scope.Thread)
+public class KeySequence {
+
+   // odd, so that every index is visited before the sequence repeats
+   private static final int STRIDE = 0x9E3779B9;
+
+   private int index = new Random().nextInt();
+
+   int next() {
+      return index += STRIDE;
+   }
+}
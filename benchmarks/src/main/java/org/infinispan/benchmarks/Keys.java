@@ -0,0 +1,44 @@
+package org.infinispan.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed set of keys, created up front so that benchmarks don't measure the creation of the keys.
+ *
+ * @since 7.0
+ */
+final class Keys {
+
+   static final int DEFAULT_KEY_COUNT = 1 << 14;
+
+   private final String[] keys;
+   private final int mask;
+
+   /**
+    * @param count the number of keys, rounded up to a power of two
+    */
+   Keys(int count) {
+      int size = Integer.highestOneBit(Math.max(count - 1, 1)) << 1;
+      keys = new String[size];
+      for (int i = 0; i < size; i++) {
+         keys[i] = "key-" + i;
+      }
+      mask = size - 1;
+   }
+
+   /**
+    * Returns a key for any index, wrapping around the set of keys.
+    */
+   String get(int index) {
+      return keys[index & mask];
+   }
+
+   int size() {
+      return keys.length;
+   }
+
+   List<String> all() {
+      return Arrays.asList(keys);
+   }
+}
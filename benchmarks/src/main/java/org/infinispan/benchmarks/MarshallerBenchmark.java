@@ -0,0 +1,84 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures marshalling and unmarshalling, with the global marshaller and its externalizer table, of the commands and
+ * entries most commonly sent to other nodes.
+ *
+ * @since 7.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   private EmbeddedCacheManager cacheManager;
+   private StreamingMarshaller marshaller;
+   private ReplicableCommand putCommand;
+   private ReplicableCommand clusteredGetCommand;
+   private ImmortalCacheEntry entry;
+
+   @Setup
+   public void setUp() {
+      cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().build(), new ConfigurationBuilder().build());
+      ComponentRegistry registry = cacheManager.getCache().getAdvancedCache().getComponentRegistry();
+      marshaller = registry.getGlobalComponentRegistry().getComponent(StreamingMarshaller.class,
+            KnownComponentNames.GLOBAL_MARSHALLER);
+      CommandsFactory commandsFactory = registry.getComponent(CommandsFactory.class);
+      Set<Flag> flags = Collections.emptySet();
+      putCommand = commandsFactory.buildSingleRpcCommand(commandsFactory.buildPutKeyValueCommand("key", "value",
+            new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.HOURS).build(), flags));
+      clusteredGetCommand = commandsFactory.buildClusteredGetCommand("key", flags, false, null);
+      entry = new ImmortalCacheEntry("key", "value");
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public Object putCommandRoundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(putCommand));
+   }
+
+   @Benchmark
+   public Object clusteredGetCommandRoundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(clusteredGetCommand));
+   }
+
+   @Benchmark
+   public Object cacheEntryRoundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(entry));
+   }
+}
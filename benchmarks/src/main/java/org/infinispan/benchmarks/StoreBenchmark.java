@@ -0,0 +1,118 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.persistence.leveldb.configuration.LevelDBStoreConfiguration;
+import org.infinispan.persistence.leveldb.configuration.LevelDBStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reads and writes of the {@link org.infinispan.persistence.file.SingleFileStore} and of the
+ * {@link org.infinispan.persistence.leveldb.LevelDBStore}, the latter with its pure Java implementation. The stores
+ * are called directly, bypassing the cache and the persistence manager.
+ *
+ * @since 7.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StoreBenchmark {
+
+   public enum StoreType {
+      SINGLE_FILE, LEVELDB
+   }
+
+   private static final int VALUE_SIZE = 256;
+
+   @Param({"SINGLE_FILE", "LEVELDB"})
+   StoreType store;
+
+   private File location;
+   private EmbeddedCacheManager cacheManager;
+   private AdvancedLoadWriteStore<String, byte[]> loadWriteStore;
+   private MarshalledEntry<String, byte[]>[] entries;
+   private final Keys keys = new Keys(Keys.DEFAULT_KEY_COUNT);
+
+   @Setup
+   @SuppressWarnings("unchecked")
+   public void setUp() throws IOException {
+      location = File.createTempFile("infinispan-benchmark-", "");
+      if (!location.delete() || !location.mkdirs())
+         throw new IOException("Unable to create directory " + location);
+
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      switch (store) {
+         case SINGLE_FILE:
+            builder.persistence().addSingleFileStore().location(location.getPath());
+            break;
+         case LEVELDB:
+            builder.persistence().addStore(LevelDBStoreConfigurationBuilder.class)
+                  .location(new File(location, "data").getPath())
+                  .expiredLocation(new File(location, "expired").getPath())
+                  .implementationType(LevelDBStoreConfiguration.ImplementationType.JAVA);
+            break;
+      }
+      cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().build(), builder.build());
+      ComponentRegistry registry = cacheManager.getCache().getAdvancedCache().getComponentRegistry();
+      loadWriteStore = registry.getComponent(PersistenceManager.class).getStores(AdvancedLoadWriteStore.class)
+            .iterator().next();
+
+      MarshalledEntryFactory<String, byte[]> entryFactory = registry.getComponent(MarshalledEntryFactory.class);
+      entries = new MarshalledEntry[keys.size()];
+      for (int i = 0; i < entries.length; i++) {
+         entries[i] = entryFactory.newMarshalledEntry(keys.get(i), new byte[VALUE_SIZE], null);
+         loadWriteStore.write(entries[i]);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+      delete(location);
+   }
+
+   @Benchmark
+   public MarshalledEntry<String, byte[]> load(KeySequence sequence) {
+      return loadWriteStore.load(keys.get(sequence.next()));
+   }
+
+   @Benchmark
+   public void write(KeySequence sequence) {
+      loadWriteStore.write(entries[sequence.next() & (entries.length - 1)]);
+   }
+
+   private static void delete(File file) {
+      File[] children = file.listFiles();
+      if (children != null) {
+         for (File child : children) {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+}
@@ -8,7 +8,8 @@
 import org.infinispan.cli.shell.Completer;
 
 public class Site extends AbstractServerCommand {
-   private static final List<String> OPTIONS = Arrays.asList("--status", "--online", "--offline");
+   private static final List<String> OPTIONS = Arrays.asList("--status", "--online", "--offline", "--push", "--resumepush",
+                                                                 "--cancelpush", "--pushstatus");
 
    @Override
    public String getName() {
@@ -22,7 +22,7 @@ public class SiteStatement implements Statement {
    private static final Log log = LogFactory.getLog(SiteStatement.class, Log.class);
 
    static enum Options {
-      OFFLINE, ONLINE, STATUS,
+      OFFLINE, ONLINE, STATUS, PUSH, RESUMEPUSH, CANCELPUSH, PUSHSTATUS,
    };
 
    final private SiteData siteData;
@@ -58,6 +58,34 @@ public Result execute(Session session) throws StatementException {
                throw log.siteNameNotSpecified();
             }
          }
+         case PUSH: {
+            if (siteName != null) {
+               return new StringResult(xsiteAdmin.pushState(siteName));
+            } else {
+               throw log.siteNameNotSpecified();
+            }
+         }
+         case RESUMEPUSH: {
+            if (siteName != null) {
+               return new StringResult(xsiteAdmin.resumePushState(siteName));
+            } else {
+               throw log.siteNameNotSpecified();
+            }
+         }
+         case CANCELPUSH: {
+            if (siteName != null) {
+               return new StringResult(xsiteAdmin.cancelPushState(siteName));
+            } else {
+               throw log.siteNameNotSpecified();
+            }
+         }
+         case PUSHSTATUS: {
+            if (siteName != null) {
+               return new StringResult(xsiteAdmin.getPushStateProgress(siteName));
+            } else {
+               throw log.siteNameNotSpecified();
+            }
+         }
          }
       }
 
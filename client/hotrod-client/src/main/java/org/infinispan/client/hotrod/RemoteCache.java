@@ -24,10 +24,11 @@
  * is returned instead. E.g. {@link java.util.Map#put(Object, Object)} returns the previous value associated to the
  * supplied key. In case of RemoteCache, this returns null.
  * <p/>
- * <b>Synthetic operations</b>: aggregate operations are being implemented based on other Hot Rod operations. E.g. all
- * the {@link java.util.Map#putAll(java.util.Map)} is implemented through multiple individual puts. This means that the
- * these operations are not atomic and that they are costly, e.g. as the number of network round-trips is not one, but
- * the size of the added map. All these synthetic operations are documented as such.
+ * <b>Synthetic operations</b>: aggregate operations are being implemented based on other Hot Rod operations. E.g. with
+ * protocol versions older than 2.0, the {@link java.util.Map#putAll(java.util.Map)} is implemented through multiple
+ * individual puts. This means that the these operations are not atomic and that they are costly, e.g. as the number of
+ * network round-trips is not one, but the size of the added map. All these synthetic operations are documented as
+ * such.
  * <p/>
  * <b>changing default behavior through {@link org.infinispan.client.hotrod.Flag}s</b>: it is possible to change the
  * default cache behaviour by using flags on an per invocation basis. E.g.
@@ -189,9 +190,12 @@
    Set<Entry<K, V>> entrySet();
 
    /**
-    * Synthetic operation. The client iterates over the set of keys and calls put for each one of them. This results in
-    * operation not being atomic (if a failure happens after few puts it is not rolled back) and costly (for each key in
-    * the parameter map a remote call is performed).
+    * Adds or overrides each specified entry in the remote cache. The entries are grouped by the server owning them and
+    * each group is sent in a single request, the requests to different servers being executed in parallel. The
+    * operation is not atomic: if a failure happens after some of the entries were written they are not rolled back.
+    * <p/>
+    * Synthetic operation with protocol versions older than 2.0: the client iterates over the set of keys and calls put
+    * for each one of them, so a remote call is performed for each key in the parameter map.
     */
    @Override
    void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit unit);
@@ -271,6 +275,54 @@
     */
    Map<K, V> getBulk(int size);
 
+   /**
+    * Retrieves all of the entries for the provided keys. The keys are grouped by the server owning them and each group
+    * is requested in a single call, the calls to different servers being executed in parallel. A key will not be
+    * present in the resulting map if the entry was not found in the cache.
+    * <p/>
+    * Synthetic operation with protocol versions older than 2.0: the client calls get for each one of the keys.
+    *
+    * @param keys the keys to retrieve
+    * @return an unmodifiable map of the entries that were found
+    * @since 7.0
+    */
+   Map<K, V> getAll(Set<? extends K> keys);
+
+
+   /**
+    * Registers a listener for the events of this cache on the servers. The listener must be annotated with
+    * {@link org.infinispan.client.hotrod.annotation.ClientListener}, which names the filter and converter factories
+    * deployed in the servers that the listener uses, if any.
+    * <p/>
+    * The events are pushed by one of the servers over a connection dedicated to the listener, so the listener receives
+    * the events raised by any node of the cluster without polling. Requires version 2.0 of the protocol.
+    *
+    * @since 7.0
+    */
+   void addClientListener(Object listener);
+
+   /**
+    * Same as {@link #addClientListener(Object)}, but passes parameters to the filter and converter factories of the
+    * listener. The parameters are marshalled with the marshaller of the {@link RemoteCacheManager}, and the factories
+    * receive them as byte arrays.
+    *
+    * @since 7.0
+    */
+   void addClientListener(Object listener, Object[] filterFactoryParams, Object[] converterFactoryParams);
+
+   /**
+    * Removes a listener added with {@link #addClientListener(Object)}, which does not receive any more events.
+    *
+    * @since 7.0
+    */
+   void removeClientListener(Object listener);
+
+   /**
+    * Returns the client listeners registered with this cache.
+    *
+    * @since 7.0
+    */
+   Set<Object> getListeners();
 
    /**
     * Returns the HotRod protocol version supported by this RemoteCache implementation
@@ -12,10 +12,14 @@
 
 import org.infinispan.client.hotrod.configuration.Configuration;
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
 import org.infinispan.client.hotrod.configuration.ServerConfiguration;
+import org.infinispan.client.hotrod.event.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.InvalidatedNearRemoteCache;
 import org.infinispan.client.hotrod.impl.RemoteCacheImpl;
+import org.infinispan.client.hotrod.impl.near.NearCacheService;
 import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
 import org.infinispan.client.hotrod.impl.operations.PingOperation.PingResult;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
@@ -146,6 +150,7 @@ public class RemoteCacheManager implements BasicCacheContainer {
    private Marshaller marshaller;
    private TransportFactory transportFactory;
    private ExecutorService asyncExecutorService;
+   private ClientListenerNotifier listenerNotifier;
 
    /**
     *
@@ -566,6 +571,8 @@ public void start() {
          asyncExecutorService = executorFactory.getExecutor(configuration.asyncExecutorFactory().properties());
       }
 
+      listenerNotifier = new ClientListenerNotifier(codec, marshaller, transportFactory);
+
       synchronized (cacheName2RemoteCache) {
          for (RemoteCacheHolder rcc : cacheName2RemoteCache.values()) {
             startRemoteCache(rcc);
@@ -581,6 +588,7 @@ public void start() {
    @Override
    public void stop() {
       if (isStarted()) {
+         listenerNotifier.stop();
          transportFactory.destroy();
          asyncExecutorService.shutdownNow();
       }
@@ -605,7 +613,7 @@ private Properties loadFromStream(InputStream stream) {
    private <K, V> RemoteCache<K, V> createRemoteCache(String cacheName, Boolean forceReturnValueOverride) {
       synchronized (cacheName2RemoteCache) {
          if (!cacheName2RemoteCache.containsKey(cacheName)) {
-            RemoteCacheImpl<K, V> result = new RemoteCacheImpl<K, V>(this, cacheName);
+            RemoteCacheImpl<K, V> result = createRemoteCacheImpl(cacheName);
             RemoteCacheHolder rcc = new RemoteCacheHolder(result, forceReturnValueOverride == null ? configuration.forceReturnValues() : forceReturnValueOverride);
             startRemoteCache(rcc);
             if (configuration.pingOnStartup()) {
@@ -625,6 +633,14 @@ private <K, V> RemoteCache<K, V> createRemoteCache(String cacheName, Boolean for
       }
    }
 
+   private <K, V> RemoteCacheImpl<K, V> createRemoteCacheImpl(String cacheName) {
+      if (configuration.nearCache().mode() == NearCacheMode.INVALIDATED) {
+         return new InvalidatedNearRemoteCache<K, V>(this, cacheName,
+               NearCacheService.<K, V>create(configuration.nearCache()));
+      }
+      return new RemoteCacheImpl<K, V>(this, cacheName);
+   }
+
    private <K, V> PingResult ping(RemoteCacheImpl<K, V> cache) {
       if (transportFactory == null) {
          return PingResult.FAIL;
@@ -637,7 +653,8 @@ private void startRemoteCache(RemoteCacheHolder remoteCacheHolder) {
       RemoteCacheImpl<?, ?> remoteCache = remoteCacheHolder.remoteCache;
       OperationsFactory operationsFactory = new OperationsFactory(
             transportFactory, remoteCache.getName(), topologyId, remoteCacheHolder.forceReturnValue, codec);
-      remoteCache.init(marshaller, asyncExecutorService, operationsFactory, configuration.keySizeEstimate(), configuration.valueSizeEstimate());
+      remoteCache.init(marshaller, asyncExecutorService, operationsFactory, listenerNotifier,
+            configuration.keySizeEstimate(), configuration.valueSizeEstimate());
    }
 
    public Marshaller getMarshaller() {
@@ -0,0 +1,20 @@
+package org.infinispan.client.hotrod.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation should be used on methods of a {@link ClientListener} that need to be notified when a cache entry is
+ * removed on the server. Methods annotated with this annotation should be public and take in a single parameter, a
+ * {@link org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent}, or a
+ * {@link org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent} if the listener uses a converter.
+ *
+ * @see ClientListener
+ * @since 7.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ClientCacheEntryRemoved {
+}
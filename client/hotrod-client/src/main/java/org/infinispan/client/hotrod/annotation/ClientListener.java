@@ -0,0 +1,37 @@
+package org.infinispan.client.hotrod.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Class-level annotation used to annotate an object as being a valid remote cache listener, registered with
+ * {@link org.infinispan.client.hotrod.RemoteCache#addClientListener(Object)}. Its methods are annotated with
+ * {@link ClientCacheEntryCreated}, {@link ClientCacheEntryModified} and {@link ClientCacheEntryRemoved}.
+ * <p/>
+ * The events are generated by the server, and are pushed to the client over a connection of their own. The methods
+ * of a listener are invoked by a single thread, in the order the server sent the events.
+ * <p/>
+ * Filters and converters are deployed in the server, and are referred to by the names of their factories. Only the
+ * events accepted by the filter are sent to the client, and when a converter is used, the client receives
+ * {@link org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent}s carrying whatever the converter produced.
+ *
+ * @since 7.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ClientListener {
+
+   /**
+    * The name of the {@code KeyValueFilterFactory} deployed in the server that creates
+    * the filter of this listener, or an empty string if all the events are of interest.
+    */
+   String filterFactoryName() default "";
+
+   /**
+    * The name of the {@code ConverterFactory} deployed in the server that creates the
+    * converter of this listener, or an empty string if the events are not converted.
+    */
+   String converterFactoryName() default "";
+}
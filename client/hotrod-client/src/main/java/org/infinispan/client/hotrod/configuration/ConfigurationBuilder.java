@@ -53,6 +53,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private int keySizeEstimate = ConfigurationProperties.DEFAULT_KEY_SIZE;
    private Class<? extends Marshaller> marshallerClass = GenericJBossMarshaller.class;
    private Marshaller marshaller;
+   private final NearCacheConfigurationBuilder nearCache;
    private boolean pingOnStartup = true;
    private String protocolVersion = ConfigurationProperties.DEFAULT_PROTOCOL_VERSION;
    private List<ServerConfigurationBuilder> servers = new ArrayList<ServerConfigurationBuilder>();
@@ -69,6 +70,7 @@ public ConfigurationBuilder() {
       this.connectionPool = new ConnectionPoolConfigurationBuilder(this);
       this.asyncExecutorFactory = new ExecutorFactoryConfigurationBuilder(this);
       this.ssl = new SslConfigurationBuilder(this);
+      this.nearCache = new NearCacheConfigurationBuilder(this);
    }
 
    @Override
@@ -179,6 +181,11 @@ public ConfigurationBuilder marshaller(Marshaller marshaller) {
       return this;
    }
 
+   @Override
+   public NearCacheConfigurationBuilder nearCache() {
+      return nearCache;
+   }
+
    @Override
    public ConfigurationBuilder pingOnStartup(boolean pingOnStartup) {
       this.pingOnStartup = pingOnStartup;
@@ -251,6 +258,7 @@ public ConfigurationBuilder withProperties(Properties properties) {
       if (typed.containsKey(ConfigurationProperties.MARSHALLER)) {
          this.marshaller(typed.getProperty(ConfigurationProperties.MARSHALLER));
       }
+      this.nearCache.withNearCacheProperties(typed);
       this.pingOnStartup(typed.getBooleanProperty(ConfigurationProperties.PING_ON_STARTUP, pingOnStartup));
       this.protocolVersion(typed.getProperty(ConfigurationProperties.PROTOCOL_VERSION, protocolVersion));
       this.servers.clear();
@@ -270,6 +278,10 @@ public void validate() {
       connectionPool.validate();
       asyncExecutorFactory.validate();
       ssl.validate();
+      nearCache.validate();
+      if (nearCache.create().mode().enabled() && protocolVersion.compareTo(ConfigurationProperties.PROTOCOL_VERSION_20) < 0) {
+         throw log.nearCacheRequiresClientListeners(protocolVersion);
+      }
       if (maxRetries < 0) {
          throw log.invalidMaxRetries(maxRetries);
       }
@@ -287,11 +299,11 @@ public Configuration create() {
       }
       if (marshaller == null) {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, nearCache.create(), pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
                valueSizeEstimate, maxRetries);
       } else {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, nearCache.create(), pingOnStartup, protocolVersion, servers, socketTimeout, ssl.create(), tcpNoDelay, transportFactory,
                valueSizeEstimate, maxRetries);
       }
    }
@@ -322,6 +334,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.keySizeEstimate = template.keySizeEstimate();
       this.marshaller = template.marshaller();
       this.marshallerClass = template.marshallerClass();
+      this.nearCache.read(template.nearCache());
       this.pingOnStartup = template.pingOnStartup();
       this.protocolVersion = template.protocolVersion();
       this.servers.clear();
@@ -102,6 +102,11 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder marshaller(Marshaller marshaller);
 
+   /**
+    * Configures the near cache, which keeps the entries read local to the client
+    */
+   NearCacheConfigurationBuilder nearCache();
+
    /**
     * If true, a ping request is sent to a back end server in order to fetch cluster's topology.
     */
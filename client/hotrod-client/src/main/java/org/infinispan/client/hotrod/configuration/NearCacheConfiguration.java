@@ -0,0 +1,35 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * NearCacheConfiguration.
+ *
+ * @since 7.0
+ */
+public class NearCacheConfiguration {
+   private final NearCacheMode mode;
+   private final int maxEntries;
+   private final NearCacheEvictionStrategy strategy;
+
+   NearCacheConfiguration(NearCacheMode mode, int maxEntries, NearCacheEvictionStrategy strategy) {
+      this.mode = mode;
+      this.maxEntries = maxEntries;
+      this.strategy = strategy;
+   }
+
+   public NearCacheMode mode() {
+      return mode;
+   }
+
+   public int maxEntries() {
+      return maxEntries;
+   }
+
+   public NearCacheEvictionStrategy strategy() {
+      return strategy;
+   }
+
+   @Override
+   public String toString() {
+      return "NearCacheConfiguration [mode=" + mode + ", maxEntries=" + maxEntries + ", strategy=" + strategy + "]";
+   }
+}
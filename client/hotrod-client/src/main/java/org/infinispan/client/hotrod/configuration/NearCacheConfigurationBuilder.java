@@ -0,0 +1,85 @@
+package org.infinispan.client.hotrod.configuration;
+
+import java.util.Properties;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.TypedProperties;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.configuration.Builder;
+
+/**
+ * NearCacheConfigurationBuilder. Configures the near cache, which keeps the entries read by the remote caches local
+ * to the client, so that reading them again does not need a request to the server.
+ *
+ * @since 7.0
+ */
+public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<NearCacheConfiguration> {
+   private static final Log log = LogFactory.getLog(NearCacheConfigurationBuilder.class, Log.class);
+
+   private NearCacheMode mode = NearCacheMode.DISABLED;
+   private int maxEntries = -1;
+   private NearCacheEvictionStrategy strategy = NearCacheEvictionStrategy.LIRS;
+
+   NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
+      super(builder);
+   }
+
+   /**
+    * Specifies whether the remote caches use a near cache, and how it is kept consistent with the server. Defaults to
+    * {@link NearCacheMode#DISABLED}.
+    */
+   public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
+      this.mode = mode;
+      return this;
+   }
+
+   /**
+    * Specifies the maximum number of entries kept in the near cache of each remote cache. It is required when the
+    * near cache is enabled, so that it does not take all the memory of the client.
+    */
+   public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+      return this;
+   }
+
+   /**
+    * Specifies which entries are evicted when the near cache is full. Defaults to {@link NearCacheEvictionStrategy#LIRS}.
+    */
+   public NearCacheConfigurationBuilder strategy(NearCacheEvictionStrategy strategy) {
+      this.strategy = strategy;
+      return this;
+   }
+
+   /**
+    * Configures the near cache according to properties
+    */
+   public NearCacheConfigurationBuilder withNearCacheProperties(Properties properties) {
+      TypedProperties typed = TypedProperties.toTypedProperties(properties);
+      mode(NearCacheMode.valueOf(typed.getProperty(ConfigurationProperties.NEAR_CACHE_MODE, mode.name()).toUpperCase()));
+      maxEntries(typed.getIntProperty(ConfigurationProperties.NEAR_CACHE_MAX_ENTRIES, maxEntries));
+      strategy(NearCacheEvictionStrategy.valueOf(typed.getProperty(ConfigurationProperties.NEAR_CACHE_EVICTION_STRATEGY, strategy.name()).toUpperCase()));
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (mode.enabled() && maxEntries <= 0) {
+         throw log.invalidNearCacheMaxEntries(maxEntries);
+      }
+   }
+
+   @Override
+   public NearCacheConfiguration create() {
+      return new NearCacheConfiguration(mode, maxEntries, strategy);
+   }
+
+   @Override
+   public NearCacheConfigurationBuilder read(NearCacheConfiguration template) {
+      mode = template.mode();
+      maxEntries = template.maxEntries();
+      strategy = template.strategy();
+      return this;
+   }
+
+}
@@ -0,0 +1,18 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * Decides which entries are evicted from a near cache when it is full.
+ *
+ * @since 7.0
+ */
+public enum NearCacheEvictionStrategy {
+   /**
+    * Evicts the least recently used entry.
+    */
+   LRU,
+   /**
+    * Low Inter-reference Recency Set, which evicts the entries that are not read again soon, so that a scan of many
+    * entries read only once does not evict the ones read often.
+    */
+   LIRS
+}
@@ -0,0 +1,22 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * Decides whether the entries read by a remote cache are kept in a near cache, local to the client.
+ *
+ * @since 7.0
+ */
+public enum NearCacheMode {
+   /**
+    * Every read goes to the server.
+    */
+   DISABLED,
+   /**
+    * The entries read are kept in the near cache until they are modified, removed or evicted. The client registers a
+    * listener in the server, which tells it about the modified and removed entries, so that it stops using them.
+    */
+   INVALIDATED;
+
+   public boolean enabled() {
+      return this != DISABLED;
+   }
+}
@@ -0,0 +1,18 @@
+package org.infinispan.client.hotrod.event;
+
+/**
+ * Received when a cache entry is created on the server.
+ *
+ * @see org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated
+ * @since 7.0
+ */
+public interface ClientCacheEntryCreatedEvent<K> extends ClientEvent {
+
+   K getKey();
+
+   /**
+    * @return the version of the entry that was created, as returned by
+    *         {@link org.infinispan.client.hotrod.RemoteCache#getVersioned(Object)}
+    */
+   long getVersion();
+}
@@ -0,0 +1,13 @@
+package org.infinispan.client.hotrod.event;
+
+/**
+ * Received instead of the other events by the listeners that use a converter. The data of the event is produced by the
+ * converter on the server, and is unmarshalled with the marshaller of the
+ * {@link org.infinispan.client.hotrod.RemoteCacheManager}.
+ *
+ * @since 7.0
+ */
+public interface ClientCacheEntryCustomEvent<T> extends ClientEvent {
+
+   T getEventData();
+}
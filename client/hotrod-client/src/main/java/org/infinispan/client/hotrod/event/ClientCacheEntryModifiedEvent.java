@@ -0,0 +1,18 @@
+package org.infinispan.client.hotrod.event;
+
+/**
+ * Received when a cache entry is modified on the server.
+ *
+ * @see org.infinispan.client.hotrod.annotation.ClientCacheEntryModified
+ * @since 7.0
+ */
+public interface ClientCacheEntryModifiedEvent<K> extends ClientEvent {
+
+   K getKey();
+
+   /**
+    * @return the new version of the entry, as returned by
+    *         {@link org.infinispan.client.hotrod.RemoteCache#getVersioned(Object)}
+    */
+   long getVersion();
+}
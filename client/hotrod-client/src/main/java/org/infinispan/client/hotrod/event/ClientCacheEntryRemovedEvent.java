@@ -0,0 +1,12 @@
+package org.infinispan.client.hotrod.event;
+
+/**
+ * Received when a cache entry is removed on the server.
+ *
+ * @see org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved
+ * @since 7.0
+ */
+public interface ClientCacheEntryRemovedEvent<K> extends ClientEvent {
+
+   K getKey();
+}
@@ -0,0 +1,21 @@
+package org.infinispan.client.hotrod.event;
+
+/**
+ * An event received from the server by a {@link org.infinispan.client.hotrod.annotation.ClientListener}.
+ *
+ * @since 7.0
+ */
+public interface ClientEvent {
+
+   enum Type {
+      CLIENT_CACHE_ENTRY_CREATED,
+      CLIENT_CACHE_ENTRY_MODIFIED,
+      CLIENT_CACHE_ENTRY_REMOVED
+   }
+
+   /**
+    * @return the type of the modification that raised the event. Custom events have the type of the event that was
+    *         converted.
+    */
+   Type getType();
+}
@@ -0,0 +1,252 @@
+package org.infinispan.client.hotrod.event;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.operations.AddClientListenerOperation;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+
+/**
+ * Delivers the events pushed by the servers to the client listeners of a
+ * {@link org.infinispan.client.hotrod.RemoteCacheManager}.
+ * <p>
+ * Each listener receives its events over a connection of its own, which is read by a thread of its own. That thread
+ * invokes the listener methods, so the events of a listener are delivered in the order the server sent them, and a
+ * slow listener does not delay the others.
+ *
+ * @since 7.0
+ */
+public class ClientListenerNotifier {
+
+   private static final Log log = LogFactory.getLog(ClientListenerNotifier.class, Log.class);
+
+   private static final Map<Class<? extends Annotation>, ClientEvent.Type> EVENT_TYPES;
+
+   static {
+      Map<Class<? extends Annotation>, ClientEvent.Type> eventTypes = new HashMap<Class<? extends Annotation>, ClientEvent.Type>(4);
+      eventTypes.put(ClientCacheEntryCreated.class, ClientEvent.Type.CLIENT_CACHE_ENTRY_CREATED);
+      eventTypes.put(ClientCacheEntryModified.class, ClientEvent.Type.CLIENT_CACHE_ENTRY_MODIFIED);
+      eventTypes.put(ClientCacheEntryRemoved.class, ClientEvent.Type.CLIENT_CACHE_ENTRY_REMOVED);
+      EVENT_TYPES = Collections.unmodifiableMap(eventTypes);
+   }
+
+   private final ConcurrentMap<Object, EventDispatcher> dispatchers = new ConcurrentHashMap<Object, EventDispatcher>();
+   private final Codec codec;
+   private final Marshaller marshaller;
+   private final TransportFactory transportFactory;
+   private final ExecutorService executor;
+
+   public ClientListenerNotifier(Codec codec, Marshaller marshaller, TransportFactory transportFactory) {
+      this.codec = codec;
+      this.marshaller = marshaller;
+      this.transportFactory = transportFactory;
+      this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+         private final AtomicInteger threadCounter = new AtomicInteger();
+
+         @Override
+         public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "HotRod-client-listener-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+   }
+
+   /**
+    * @throws IllegalArgumentException if the listener is not annotated with {@link ClientListener}
+    */
+   public static ClientListener getClientListenerAnnotation(Object listener) {
+      ClientListener annotation = listener.getClass().getAnnotation(ClientListener.class);
+      if (annotation == null) {
+         throw new IllegalArgumentException(String.format(
+               "Class %s is not annotated with @ClientListener", listener.getClass().getName()));
+      }
+      return annotation;
+   }
+
+   /**
+    * Adds the listener to the server with the given operation, and starts delivering its events.
+    */
+   public void addClientListener(String cacheName, Object listener, AddClientListenerOperation op) {
+      EventDispatcher dispatcher = new EventDispatcher(cacheName, listener, findListenerMethods(listener), op.listenerId);
+      if (dispatchers.putIfAbsent(listener, dispatcher) != null) {
+         throw new IllegalArgumentException("The listener is already registered: " + listener);
+      }
+      try {
+         Transport transport = op.execute();
+         dispatcher.start(transport, op.getServerAddress());
+      } catch (RuntimeException e) {
+         dispatchers.remove(listener);
+         throw e;
+      }
+   }
+
+   public void removeClientListener(String cacheName, Object listener, OperationsFactory operationsFactory) {
+      EventDispatcher dispatcher = dispatchers.get(listener);
+      if (dispatcher == null || !dispatcher.cacheName.equals(cacheName) || !dispatchers.remove(listener, dispatcher)) {
+         return;
+      }
+      dispatcher.stopped = true;
+      try {
+         operationsFactory.newRemoveClientListenerOperation(dispatcher.listenerId, dispatcher.serverAddress).execute();
+      } catch (HotRodClientException e) {
+         // The server also removes the listener when its connection is closed
+         log.tracef(e, "Unable to remove client listener %s from %s", listener, dispatcher.serverAddress);
+      } finally {
+         dispatcher.closeTransport();
+      }
+   }
+
+   /**
+    * @return whether the listener is registered in a server and receiving its events
+    */
+   public boolean isListenerConnected(Object listener) {
+      EventDispatcher dispatcher = dispatchers.get(listener);
+      return dispatcher != null && dispatcher.transport != null;
+   }
+
+   public Set<Object> getListeners(String cacheName) {
+      Set<Object> listeners = new HashSet<Object>();
+      for (EventDispatcher dispatcher : dispatchers.values()) {
+         if (dispatcher.cacheName.equals(cacheName)) {
+            listeners.add(dispatcher.listener);
+         }
+      }
+      return Collections.unmodifiableSet(listeners);
+   }
+
+   public void stop() {
+      for (EventDispatcher dispatcher : dispatchers.values()) {
+         dispatcher.stopped = true;
+         dispatcher.closeTransport();
+      }
+      dispatchers.clear();
+      executor.shutdownNow();
+   }
+
+   private static Map<ClientEvent.Type, List<Method>> findListenerMethods(Object listener) {
+      Map<ClientEvent.Type, List<Method>> methods = new EnumMap<ClientEvent.Type, List<Method>>(ClientEvent.Type.class);
+      for (Method method : listener.getClass().getMethods()) {
+         for (Map.Entry<Class<? extends Annotation>, ClientEvent.Type> eventType : EVENT_TYPES.entrySet()) {
+            if (method.isAnnotationPresent(eventType.getKey())) {
+               if (method.getParameterTypes().length != 1) {
+                  throw new IllegalArgumentException(String.format(
+                        "Method %s must take a single event parameter", method));
+               }
+               // The listener class itself may not be public
+               method.setAccessible(true);
+               List<Method> typeMethods = methods.get(eventType.getValue());
+               if (typeMethods == null) {
+                  typeMethods = new ArrayList<Method>(2);
+                  methods.put(eventType.getValue(), typeMethods);
+               }
+               typeMethods.add(method);
+            }
+         }
+      }
+      return methods;
+   }
+
+   private final class EventDispatcher implements Runnable {
+      final String cacheName;
+      final Object listener;
+      final Map<ClientEvent.Type, List<Method>> methods;
+      final byte[] listenerId;
+      volatile Transport transport;
+      volatile SocketAddress serverAddress;
+      volatile boolean stopped;
+
+      EventDispatcher(String cacheName, Object listener, Map<ClientEvent.Type, List<Method>> methods, byte[] listenerId) {
+         this.cacheName = cacheName;
+         this.listener = listener;
+         this.methods = methods;
+         this.listenerId = listenerId;
+      }
+
+      void start(Transport transport, SocketAddress serverAddress) {
+         this.transport = transport;
+         this.serverAddress = serverAddress;
+         executor.submit(this);
+      }
+
+      @Override
+      public void run() {
+         try {
+            while (!stopped) {
+               ClientEvent event;
+               try {
+                  event = codec.readEvent(transport, listenerId, marshaller);
+               } catch (TransportException e) {
+                  // No events for a while
+                  if (!stopped && e.getCause() instanceof SocketTimeoutException) {
+                     continue;
+                  }
+                  throw e;
+               }
+               invokeListener(event);
+            }
+         } catch (RuntimeException e) {
+            if (!stopped && dispatchers.remove(listener, this)) {
+               log.clientListenerConnectionLost(listener, serverAddress, e);
+               closeTransport();
+            }
+         }
+      }
+
+      void closeTransport() {
+         Transport t = transport;
+         // Not started yet if the listener is still being added
+         if (t != null) {
+            transportFactory.invalidateTransport(serverAddress, t);
+         }
+      }
+
+      private void invokeListener(ClientEvent event) {
+         List<Method> typeMethods = methods.get(event.getType());
+         if (typeMethods == null) {
+            return;
+         }
+         for (Method method : typeMethods) {
+            // Listeners with a converter receive custom events
+            if (method.getParameterTypes()[0].isInstance(event)) {
+               try {
+                  method.invoke(listener, event);
+               } catch (InvocationTargetException e) {
+                  log.unexpectedErrorInvokingClientListener(method, e.getCause());
+               } catch (IllegalAccessException e) {
+                  log.unexpectedErrorInvokingClientListener(method, e);
+               }
+            }
+         }
+      }
+   }
+}
@@ -41,6 +41,9 @@ public class ConfigurationProperties {
    public static final String TRUST_STORE_FILE_NAME = "infinispan.client.hotrod.trust_store_file_name";
    public static final String TRUST_STORE_PASSWORD = "infinispan.client.hotrod.trust_store_password";
    public static final String MAX_RETRIES = "infinispan.client.hotrod.max_retries";
+   public static final String NEAR_CACHE_MODE = "infinispan.client.hotrod.near_cache.mode";
+   public static final String NEAR_CACHE_MAX_ENTRIES = "infinispan.client.hotrod.near_cache.max_entries";
+   public static final String NEAR_CACHE_EVICTION_STRATEGY = "infinispan.client.hotrod.near_cache.eviction_strategy";
 
    // defaults
 
@@ -0,0 +1,232 @@
+package org.infinispan.client.hotrod.impl;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.impl.near.NearCacheService;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+
+/**
+ * Remote cache serving the reads from a near cache, invalidated by the events the server sends to a client listener.
+ * <p>
+ * The near cache is only used while that listener is connected, and it is cleared whenever the listener has to be
+ * registered again, as the events sent in between are lost. The writes done through this remote cache invalidate the
+ * entry as soon as they complete, so that reading it afterwards never returns the previous value.
+ *
+ * @since 7.0
+ */
+public class InvalidatedNearRemoteCache<K, V> extends RemoteCacheImpl<K, V> {
+
+   private static final Log log = LogFactory.getLog(InvalidatedNearRemoteCache.class, Log.class);
+
+   private final NearCacheService<K, V> nearCache;
+   private volatile ClientListenerNotifier listenerNotifier;
+   private volatile boolean connectFailed;
+
+   public InvalidatedNearRemoteCache(RemoteCacheManager rcm, String name, NearCacheService<K, V> nearCache) {
+      super(rcm, name);
+      this.nearCache = nearCache;
+   }
+
+   @Override
+   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory,
+                    ClientListenerNotifier listenerNotifier, int estimateKeySize, int estimateValueSize) {
+      super.init(marshaller, executorService, operationsFactory, listenerNotifier, estimateKeySize, estimateValueSize);
+      this.listenerNotifier = listenerNotifier;
+      nearCache.clear();
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public V get(Object key) {
+      VersionedValue<V> value = getNear((K) key);
+      return value == null ? null : value.getValue();
+   }
+
+   @Override
+   public VersionedValue<V> getVersioned(K key) {
+      return getNear(key);
+   }
+
+   private VersionedValue<V> getNear(K key) {
+      assertRemoteCacheManagerIsStarted();
+      // The flags of the read would otherwise be applied to the next operation
+      if (getOperationsFactory().hasFlags() || !connectNearCache()) {
+         return super.getVersioned(key);
+      }
+      VersionedValue<V> value = nearCache.get(key);
+      if (value == null) {
+         Object token = nearCache.startRead(key);
+         MetadataValue<V> metadataValue = super.getWithMetadata(key);
+         nearCache.endRead(key, token, metadataValue);
+         value = metadataValue;
+      }
+      return value;
+   }
+
+   private boolean connectNearCache() {
+      Object listener = nearCache.getListener();
+      if (listenerNotifier.isListenerConnected(listener)) {
+         return true;
+      }
+      synchronized (this) {
+         if (listenerNotifier.isListenerConnected(listener)) {
+            return true;
+         }
+         // The entries may have been modified while the listener was disconnected
+         nearCache.clear();
+         try {
+            addClientListener(listener);
+            connectFailed = false;
+            return true;
+         } catch (HotRodClientException e) {
+            if (!connectFailed) {
+               log.unableToConnectNearCache(getName(), e);
+               connectFailed = true;
+            }
+            return false;
+         }
+      }
+   }
+
+   @Override
+   public V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      try {
+         return super.put(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      } finally {
+         nearCache.invalidate(key);
+      }
+   }
+
+   @Override
+   public V putIfAbsent(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      try {
+         return super.putIfAbsent(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      } finally {
+         nearCache.invalidate(key);
+      }
+   }
+
+   @Override
+   public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      try {
+         return super.replace(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      } finally {
+         nearCache.invalidate(key);
+      }
+   }
+
+   @Override
+   public boolean replaceWithVersion(K key, V newValue, long version, int lifespanSeconds, int maxIdleTimeSeconds) {
+      try {
+         return super.replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleTimeSeconds);
+      } finally {
+         nearCache.invalidate(key);
+      }
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public V remove(Object key) {
+      try {
+         return super.remove(key);
+      } finally {
+         nearCache.invalidate((K) key);
+      }
+   }
+
+   @Override
+   public boolean removeWithVersion(K key, long version) {
+      try {
+         return super.removeWithVersion(key, version);
+      } finally {
+         nearCache.invalidate(key);
+      }
+   }
+
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      try {
+         super.putAll(map, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      } finally {
+         for (K key : map.keySet()) {
+            nearCache.invalidate(key);
+         }
+      }
+   }
+
+   @Override
+   public void clear() {
+      try {
+         super.clear();
+      } finally {
+         nearCache.clear();
+      }
+   }
+
+   @Override
+   public NotifyingFuture<V> putAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
+      return invalidateWhenDone(key, super.putAsync(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+   }
+
+   @Override
+   public NotifyingFuture<V> putIfAbsentAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
+      return invalidateWhenDone(key, super.putIfAbsentAsync(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+   }
+
+   @Override
+   public NotifyingFuture<V> replaceAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
+      return invalidateWhenDone(key, super.replaceAsync(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+   }
+
+   @Override
+   public NotifyingFuture<Boolean> replaceWithVersionAsync(K key, V newValue, long version, int lifespanSeconds, int maxIdleSeconds) {
+      return invalidateWhenDone(key, super.replaceWithVersionAsync(key, newValue, version, lifespanSeconds, maxIdleSeconds));
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public NotifyingFuture<V> removeAsync(Object key) {
+      return invalidateWhenDone((K) key, super.removeAsync(key));
+   }
+
+   @Override
+   public NotifyingFuture<Boolean> removeWithVersionAsync(K key, long version) {
+      return invalidateWhenDone(key, super.removeWithVersionAsync(key, version));
+   }
+
+   @Override
+   public NotifyingFuture<Void> putAllAsync(final Map<? extends K, ? extends V> data, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
+      for (K key : data.keySet()) {
+         nearCache.invalidate(key);
+      }
+      return super.putAllAsync(data, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+   }
+
+   /**
+    * Invalidates the key now, in case the write has already been applied by the time the caller reads the key, and
+    * once more when it completes, in case it has been read in between.
+    */
+   private <T> NotifyingFuture<T> invalidateWhenDone(final K key, NotifyingFuture<T> future) {
+      nearCache.invalidate(key);
+      future.attachListener(new FutureListener<T>() {
+         @Override
+         public void futureDone(Future<T> future) {
+            nearCache.invalidate(key);
+         }
+      });
+      return future;
+   }
+}
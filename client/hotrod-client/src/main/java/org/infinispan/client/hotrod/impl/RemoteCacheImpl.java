@@ -9,6 +9,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -20,12 +22,16 @@
 import org.infinispan.client.hotrod.ServerStatistics;
 import org.infinispan.client.hotrod.Version;
 import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
 import org.infinispan.client.hotrod.impl.operations.*;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
 
@@ -42,6 +48,7 @@
    private final RemoteCacheManager remoteCacheManager;
    private volatile ExecutorService executorService;
    private OperationsFactory operationsFactory;
+   private ClientListenerNotifier listenerNotifier;
    private int estimateKeySize;
    private int estimateValueSize;
 
@@ -54,10 +61,12 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
       this.remoteCacheManager = rcm;
    }
 
-   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize) {
+   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory,
+                    ClientListenerNotifier listenerNotifier, int estimateKeySize, int estimateValueSize) {
       this.marshaller = marshaller;
       this.executorService = executorService;
       this.operationsFactory = operationsFactory;
+      this.listenerNotifier = listenerNotifier;
       this.estimateKeySize = estimateKeySize;
       this.estimateValueSize = estimateValueSize;
    }
@@ -82,30 +91,8 @@ public boolean removeWithVersion(K key, long version) {
    @Override
    public NotifyingFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            try {
-               boolean removed = removeWithVersion(key, version);
-               try {
-                  result.notifyDone(removed);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return removed;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(obj2bytes(key, true), version);
+      return new UpdatedResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
@@ -119,30 +106,8 @@ public boolean replaceWithVersion(K key, V newValue, long version, int lifespanS
    @Override
    public NotifyingFuture<Boolean> replaceWithVersionAsync(final K key, final V newValue, final long version, final int lifespanSeconds, final int maxIdleSeconds) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            try {
-               boolean removed = replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleSeconds);
-               try {
-                  result.notifyDone(removed);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return removed;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(obj2bytes(key, true), obj2bytes(newValue, false), lifespanSeconds, maxIdleSeconds, version);
+      return new UpdatedResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
@@ -164,9 +129,27 @@ public MetadataValue<V> getWithMetadata(K key) {
    @Override
    public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (!operationsFactory.isBulkOperationSupported()) {
+         for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         }
+         return;
+      }
+      if (map.isEmpty()) {
+         return;
+      }
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdleTime);
+      if (log.isTraceEnabled()) {
+         log.tracef("About to putAll %d entries, lifespanSecs:%d, maxIdleSecs:%d", map.size(), lifespanSecs, maxIdleSecs);
+      }
+      Map<byte[], byte[]> byteMap = new HashMap<byte[], byte[]>(map.size());
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-         put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         byteMap.put(obj2bytes(entry.getKey(), true), obj2bytes(entry.getValue(), false));
       }
+      PutAllParallelOperation op = operationsFactory.newPutAllOperation(byteMap, lifespanSecs, maxIdleSecs, executorService);
+      op.execute();
    }
 
    @Override
@@ -266,30 +249,11 @@ public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxI
    @Override
    public NotifyingFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V prevValue = put(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(prevValue);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return prevValue;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdle, maxIdleUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdle);
+      PutOperation op = operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
+      return new ValueResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
@@ -324,88 +288,28 @@ public Void call() throws Exception {
    @Override
    public NotifyingFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V prevValue = putIfAbsent(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(prevValue);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return prevValue;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdle, maxIdleUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdle);
+      PutIfAbsentOperation op = operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
+      return new ValueResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V toReturn = remove(key);
-               try {
-                  result.notifyDone(toReturn);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return toReturn;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      RemoveOperation op = operationsFactory.newRemoveOperation(obj2bytes(key, true));
+      return new ValueResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V old = replace(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(old);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return old;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdle, maxIdleUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdle);
+      ReplaceOperation op = operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
+      return new ValueResult().listenTo(op.executeAsync(executorService));
    }
 
    @Override
@@ -449,6 +353,35 @@ public Map<K, V> getBulk(int size) {
       return Collections.unmodifiableMap(toReturn);
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Map<K, V> getAll(Set<? extends K> keys) {
+      assertRemoteCacheManagerIsStarted();
+      Map<K, V> toReturn = new HashMap<K, V>(keys.size());
+      if (!operationsFactory.isBulkOperationSupported()) {
+         for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+               toReturn.put(key, value);
+            }
+         }
+         return Collections.unmodifiableMap(toReturn);
+      }
+      if (keys.isEmpty()) {
+         return Collections.emptyMap();
+      }
+      Set<byte[]> byteKeys = new HashSet<byte[]>(keys.size());
+      for (K key : keys) {
+         byteKeys.add(obj2bytes(key, true));
+      }
+      GetAllParallelOperation op = operationsFactory.newGetAllOperation(byteKeys, executorService);
+      Map<byte[], byte[]> result = op.execute();
+      for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
+         toReturn.put((K) bytes2obj(entry.getKey()), (V) bytes2obj(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(toReturn);
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public V remove(Object key) {
@@ -505,30 +438,29 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    @Override
    public NotifyingFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V toReturn = get(key);
-               try {
-                  result.notifyDone(toReturn);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return toReturn;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      GetOperation op = operationsFactory.newGetKeyOperation(obj2bytes(key, true));
+      return new ValueResult().listenTo(op.executeAsync(executorService));
+   }
+
+   @Override
+   public void addClientListener(Object listener, Object[] filterFactoryParams, Object[] converterFactoryParams) {
+      assertRemoteCacheManagerIsStarted();
+      ClientListener annotation = ClientListenerNotifier.getClientListenerAnnotation(listener);
+      AddClientListenerOperation op = operationsFactory.newAddClientListenerOperation(
+            annotation.filterFactoryName(), params2bytes(filterFactoryParams),
+            annotation.converterFactoryName(), params2bytes(converterFactoryParams));
+      listenerNotifier.addClientListener(name, listener, op);
+   }
+
+   @Override
+   public void removeClientListener(Object listener) {
+      assertRemoteCacheManagerIsStarted();
+      listenerNotifier.removeClientListener(name, listener, operationsFactory);
+   }
+
+   @Override
+   public Set<Object> getListeners() {
+      return listenerNotifier.getListeners(name);
    }
 
    public PingOperation.PingResult ping() {
@@ -547,6 +479,15 @@ private byte[] obj2bytes(Object o, boolean isKey) {
       }
    }
 
+   private byte[][] params2bytes(Object[] params) {
+      if (params == null) return null;
+      byte[][] bytes = new byte[params.length][];
+      for (int i = 0; i < params.length; i++) {
+         bytes[i] = obj2bytes(params[i], false);
+      }
+      return bytes;
+   }
+
    private Object bytes2obj(byte[] bytes) {
       if (bytes == null) return null;
       try {
@@ -577,7 +518,7 @@ private int toSeconds(long duration, TimeUnit timeUnit) {
       return (int) timeUnit.toSeconds(duration);
    }
 
-   private void assertRemoteCacheManagerIsStarted() {
+   protected void assertRemoteCacheManagerIsStarted() {
       if (!remoteCacheManager.isStarted()) {
          String message = "Cannot perform operations on a cache associated with an unstarted RemoteCacheManager. Use RemoteCacheManager.start before using the remote cache.";
          if (log.isInfoEnabled()) {
@@ -617,4 +558,49 @@ public Set<K> keySet() {
        }
        return Collections.unmodifiableSet(toReturn);
    }
+
+   /**
+    * Converts the result of an asynchronous operation once it completes, on the thread that completed it.
+    */
+   private abstract static class AsyncResult<T, R> extends CompletableNotifyingFuture<R> implements FutureListener<T> {
+
+      NotifyingFuture<R> listenTo(NotifyingFuture<T> source) {
+         dependsOn(source);
+         source.attachListener(this);
+         return this;
+      }
+
+      @Override
+      public void futureDone(Future<T> future) {
+         try {
+            notifyDone(convert(future.get()));
+         } catch (ExecutionException e) {
+            notifyException(e.getCause());
+         } catch (CancellationException e) {
+            cancel(false);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            notifyException(e);
+         } catch (RuntimeException e) {
+            notifyException(e);
+         }
+      }
+
+      protected abstract R convert(T result);
+   }
+
+   private class ValueResult extends AsyncResult<byte[], V> {
+      @Override
+      @SuppressWarnings("unchecked")
+      protected V convert(byte[] result) {
+         return (V) bytes2obj(result);
+      }
+   }
+
+   private static class UpdatedResult extends AsyncResult<VersionedOperationResponse, Boolean> {
+      @Override
+      protected Boolean convert(VersionedOperationResponse result) {
+         return result.getCode().isUpdated();
+      }
+   }
 }
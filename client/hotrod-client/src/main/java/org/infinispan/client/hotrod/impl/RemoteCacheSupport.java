@@ -44,6 +44,11 @@ public NotifyingFuture<Void> putAllAsync(Map<? extends K, ? extends V> data, lon
       return putAllAsync(data, lifespan, unit, defaultMaxIdleTime, MILLISECONDS);
    }
 
+   @Override
+   public void addClientListener(Object listener) {
+      addClientListener(listener, null, null);
+   }
+
    @Override
    public void putAll(Map<? extends K, ? extends V> map) {
       putAll(map, defaultLifespan, MILLISECONDS, defaultMaxIdleTime, MILLISECONDS);
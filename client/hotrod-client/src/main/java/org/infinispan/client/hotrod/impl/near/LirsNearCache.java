@@ -0,0 +1,204 @@
+package org.infinispan.client.hotrod.impl.near;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.infinispan.client.hotrod.VersionedValue;
+
+/**
+ * Near cache evicting entries with the LIRS (Low Inter-reference Recency Set) algorithm.
+ * <p>
+ * Most of the entries are LIR entries, the ones read again soon after their previous read, which are only evicted
+ * when other entries prove to be read more often. The remaining few entries are HIR entries, the ones just added or
+ * read again a long time after their previous read, which are evicted first. So, unlike with LRU, reading many
+ * entries once does not evict the entries read often.
+ * <p>
+ * The recency stack orders the entries by their last read, and is pruned so that its bottom is always a LIR entry.
+ * HIR entries found in the stack when read again are promoted to LIR. The stack also keeps some HIR entries that have
+ * been evicted, without their value, so that their next read can promote them.
+ *
+ * @since 7.0
+ */
+public class LirsNearCache<K, V> implements NearCache<K, V> {
+
+   private final int maxLirEntries;
+   private final int maxHirEntries;
+   private final Map<K, Entry<V>> entries = new HashMap<K, Entry<V>>();
+   // Ordered from the least recently read to the most recently read
+   private final LinkedHashMap<K, Entry<V>> stack = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+   // Resident HIR entries, ordered from the first one to evict
+   private final LinkedHashMap<K, Entry<V>> queue = new LinkedHashMap<K, Entry<V>>();
+   // Evicted HIR entries still in the stack, ordered from the first one to forget
+   private final LinkedHashMap<K, Entry<V>> nonResident = new LinkedHashMap<K, Entry<V>>();
+   private int lirEntries;
+
+   public LirsNearCache(int maxEntries) {
+      this.maxHirEntries = Math.max(1, maxEntries / 10);
+      this.maxLirEntries = Math.max(1, maxEntries - maxHirEntries);
+   }
+
+   @Override
+   public synchronized VersionedValue<V> get(K key) {
+      Entry<V> entry = entries.get(key);
+      if (entry == null || entry.value == null) {
+         return null;
+      }
+      access(key, entry);
+      return entry.value;
+   }
+
+   @Override
+   public synchronized void put(K key, VersionedValue<V> value) {
+      Entry<V> entry = entries.get(key);
+      if (entry != null && entry.value != null) {
+         entry.value = value;
+         access(key, entry);
+         return;
+      }
+
+      if (entry == null) {
+         entry = new Entry<V>();
+         entries.put(key, entry);
+      } else {
+         nonResident.remove(key);
+      }
+      entry.value = value;
+      if (lirEntries < maxLirEntries) {
+         setLir(entry, true);
+         stack.put(key, entry);
+      } else if (stack.containsKey(key)) {
+         // Evicted recently enough to be read more often than the bottom of the stack
+         evictHir();
+         setLir(entry, true);
+         stack.put(key, entry);
+         demoteBottom();
+      } else {
+         evictHir();
+         stack.put(key, entry);
+         queue.put(key, entry);
+      }
+      forgetNonResident();
+   }
+
+   @Override
+   public synchronized void remove(K key) {
+      Entry<V> entry = entries.remove(key);
+      if (entry != null) {
+         stack.remove(key);
+         queue.remove(key);
+         nonResident.remove(key);
+         if (entry.lir) {
+            lirEntries--;
+            prune();
+         }
+      }
+   }
+
+   @Override
+   public synchronized void clear() {
+      entries.clear();
+      stack.clear();
+      queue.clear();
+      nonResident.clear();
+      lirEntries = 0;
+   }
+
+   @Override
+   public synchronized int size() {
+      return entries.size() - nonResident.size();
+   }
+
+   private void access(K key, Entry<V> entry) {
+      if (entry.lir) {
+         // Moves it to the top of the stack
+         stack.get(key);
+         prune();
+      } else if (stack.containsKey(key)) {
+         stack.get(key);
+         queue.remove(key);
+         setLir(entry, true);
+         demoteBottom();
+      } else {
+         stack.put(key, entry);
+         queue.remove(key);
+         queue.put(key, entry);
+      }
+   }
+
+   private void setLir(Entry<V> entry, boolean lir) {
+      if (entry.lir != lir) {
+         entry.lir = lir;
+         lirEntries += lir ? 1 : -1;
+      }
+   }
+
+   /**
+    * Turns the bottom of the stack into a resident HIR entry if there are too many LIR entries.
+    */
+   private void demoteBottom() {
+      prune();
+      if (lirEntries > maxLirEntries) {
+         Iterator<Map.Entry<K, Entry<V>>> it = stack.entrySet().iterator();
+         Map.Entry<K, Entry<V>> bottom = it.next();
+         it.remove();
+         setLir(bottom.getValue(), false);
+         queue.put(bottom.getKey(), bottom.getValue());
+         prune();
+      }
+   }
+
+   /**
+    * Removes the HIR entries from the bottom of the stack.
+    */
+   private void prune() {
+      Iterator<Map.Entry<K, Entry<V>>> it = stack.entrySet().iterator();
+      while (it.hasNext()) {
+         Map.Entry<K, Entry<V>> bottom = it.next();
+         if (bottom.getValue().lir) {
+            break;
+         }
+         it.remove();
+         if (bottom.getValue().value == null) {
+            nonResident.remove(bottom.getKey());
+            entries.remove(bottom.getKey());
+         }
+      }
+   }
+
+   /**
+    * Makes room for a new resident HIR entry.
+    */
+   private void evictHir() {
+      if (queue.size() >= maxHirEntries) {
+         Iterator<Map.Entry<K, Entry<V>>> it = queue.entrySet().iterator();
+         Map.Entry<K, Entry<V>> evicted = it.next();
+         it.remove();
+         evicted.getValue().value = null;
+         if (stack.containsKey(evicted.getKey())) {
+            nonResident.put(evicted.getKey(), evicted.getValue());
+         } else {
+            entries.remove(evicted.getKey());
+         }
+      }
+   }
+
+   /**
+    * Bounds the number of evicted entries remembered by the stack.
+    */
+   private void forgetNonResident() {
+      Iterator<Map.Entry<K, Entry<V>>> it = nonResident.entrySet().iterator();
+      while (nonResident.size() > maxLirEntries + maxHirEntries) {
+         K key = it.next().getKey();
+         it.remove();
+         stack.remove(key);
+         entries.remove(key);
+      }
+   }
+
+   private static final class Entry<V> {
+      VersionedValue<V> value;
+      boolean lir;
+   }
+}
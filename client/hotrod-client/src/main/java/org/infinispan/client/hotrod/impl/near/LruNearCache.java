@@ -0,0 +1,50 @@
+package org.infinispan.client.hotrod.impl.near;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.infinispan.client.hotrod.VersionedValue;
+
+/**
+ * Near cache evicting the least recently used entry when it is full.
+ *
+ * @since 7.0
+ */
+public class LruNearCache<K, V> implements NearCache<K, V> {
+
+   private final Map<K, VersionedValue<V>> entries;
+
+   public LruNearCache(final int maxEntries) {
+      this.entries = new LinkedHashMap<K, VersionedValue<V>>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<K, VersionedValue<V>> eldest) {
+            return size() > maxEntries;
+         }
+      };
+   }
+
+   @Override
+   public synchronized VersionedValue<V> get(K key) {
+      return entries.get(key);
+   }
+
+   @Override
+   public synchronized void put(K key, VersionedValue<V> value) {
+      entries.put(key, value);
+   }
+
+   @Override
+   public synchronized void remove(K key) {
+      entries.remove(key);
+   }
+
+   @Override
+   public synchronized void clear() {
+      entries.clear();
+   }
+
+   @Override
+   public synchronized int size() {
+      return entries.size();
+   }
+}
@@ -0,0 +1,27 @@
+package org.infinispan.client.hotrod.impl.near;
+
+import org.infinispan.client.hotrod.VersionedValue;
+
+/**
+ * Bounded storage of the entries kept local to the client by a near cache. Implementations are thread safe.
+ *
+ * @since 7.0
+ */
+public interface NearCache<K, V> {
+
+   /**
+    * @return the entry stored for the key, or null if there is none
+    */
+   VersionedValue<V> get(K key);
+
+   /**
+    * Stores an entry, evicting others if the near cache is full.
+    */
+   void put(K key, VersionedValue<V> value);
+
+   void remove(K key);
+
+   void clear();
+
+   int size();
+}
@@ -0,0 +1,114 @@
+package org.infinispan.client.hotrod.impl.near;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+
+/**
+ * Keeps the near cache of a remote cache consistent with the server.
+ * <p>
+ * The entries are invalidated when the server tells the {@link #getListener() listener} that they have been modified
+ * or removed. An entry read from the server is only stored if it has not been invalidated while it was being read,
+ * so that a reply overtaken by the invalidation does not store a stale value.
+ * <p>
+ * Entries with a lifespan or a max idle time are not stored, as the server does not tell the clients when they
+ * expire.
+ *
+ * @since 7.0
+ */
+public class NearCacheService<K, V> {
+
+   private final NearCache<K, V> cache;
+   private final ConcurrentMap<K, Object> pendingReads = new ConcurrentHashMap<K, Object>();
+   private final Object listener = new InvalidationListener();
+
+   public NearCacheService(NearCache<K, V> cache) {
+      this.cache = cache;
+   }
+
+   public static <K, V> NearCacheService<K, V> create(NearCacheConfiguration configuration) {
+      switch (configuration.strategy()) {
+         case LRU:
+            return new NearCacheService<K, V>(new LruNearCache<K, V>(configuration.maxEntries()));
+         case LIRS:
+            return new NearCacheService<K, V>(new LirsNearCache<K, V>(configuration.maxEntries()));
+         default:
+            throw new IllegalArgumentException("Unknown near cache eviction strategy " + configuration.strategy());
+      }
+   }
+
+   public VersionedValue<V> get(K key) {
+      return cache.get(key);
+   }
+
+   /**
+    * Called before reading an entry from the server.
+    *
+    * @return the token to pass to {@link #endRead(Object, Object, MetadataValue)}
+    */
+   public Object startRead(K key) {
+      Object token = new Object();
+      pendingReads.put(key, token);
+      return token;
+   }
+
+   /**
+    * Called with the entry read from the server, which is stored unless it has been invalidated since the read
+    * started.
+    */
+   public void endRead(K key, Object token, MetadataValue<V> value) {
+      if (value == null || value.getLifespan() >= 0 || value.getMaxIdle() >= 0) {
+         pendingReads.remove(key, token);
+         return;
+      }
+      cache.put(key, value);
+      // The invalidation removes the token before the entry, so either it has not started yet, or the entry is
+      // removed here
+      if (!pendingReads.remove(key, token)) {
+         cache.remove(key);
+      }
+   }
+
+   public void invalidate(K key) {
+      pendingReads.remove(key);
+      cache.remove(key);
+   }
+
+   public void clear() {
+      pendingReads.clear();
+      cache.clear();
+   }
+
+   public int size() {
+      return cache.size();
+   }
+
+   /**
+    * @return the client listener invalidating the entries, which has to be registered in the server before using the
+    *         near cache
+    */
+   public Object getListener() {
+      return listener;
+   }
+
+   @ClientListener
+   private class InvalidationListener {
+      @ClientCacheEntryModified
+      public void handleModifiedEvent(ClientCacheEntryModifiedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheEntryRemoved
+      public void handleRemovedEvent(ClientCacheEntryRemovedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+   }
+}
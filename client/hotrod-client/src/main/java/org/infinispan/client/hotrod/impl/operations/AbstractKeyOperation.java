@@ -2,17 +2,26 @@
 
 import java.net.SocketAddress;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import net.jcip.annotations.Immutable;
 import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
 import org.infinispan.client.hotrod.impl.VersionedOperationResponse;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransportFactory;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 import org.infinispan.commons.logging.BasicLogFactory;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.jboss.logging.BasicLogger;
 
 /**
@@ -43,14 +52,112 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
       }
    }
 
-   protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
-      // 1) write [header][key length][key]
-      HeaderParams params = writeHeader(transport, opCode);
-      transport.writeArray(key);
+   @Override
+   protected T executeOperation(Transport transport) {
+      HeaderParams params = writeRequest(transport);
       transport.flush();
+      return readResponse(transport, params);
+   }
+
+   /**
+    * Writes the whole request, without flushing the transport.
+    */
+   protected abstract HeaderParams writeRequest(Transport transport);
+
+   /**
+    * Reads the response to the request written by {@link #writeRequest(Transport)}, starting with the header. When the
+    * request is sent asynchronously this may be invoked several times, as described in
+    * {@link AsyncTransport.ResponseHandler#readResponse(Transport)}.
+    */
+   protected abstract T readResponse(Transport transport, HeaderParams params);
+
+   /**
+    * Executes the operation without blocking the caller. If the transport factory is an {@link AsyncTransportFactory},
+    * the request is sent from the caller's thread and the returned future is completed by the I/O thread that receives
+    * the response. Otherwise, or if the request fails because of the connection, {@link #execute()} is invoked with the
+    * given executor so that the operation is retried as usual: a transport is never checked out from a blocking pool
+    * on the caller's thread.
+    */
+   public NotifyingFuture<T> executeAsync(ExecutorService executor) {
+      CompletableNotifyingFuture<T> result = new CompletableNotifyingFuture<T>();
+      if (!(transportFactory instanceof AsyncTransportFactory)) {
+         executeInBackground(executor, result);
+         return result;
+      }
+      Transport transport = null;
+      try {
+         transport = getTransport(0, null);
+         HeaderParams params = writeRequest(transport);
+         ((AsyncTransport) transport).flush(new AsyncResponseHandler(params, result, executor));
+         return result;
+      } catch (TransportException e) {
+         if (transport != null) {
+            transportFactory.invalidateTransport(e.getServerAddress(), transport);
+         }
+         log.tracef(e, "Could not send the request asynchronously, executing it in the background");
+      } finally {
+         releaseTransport(transport);
+      }
+      executeInBackground(executor, result);
+      return result;
+   }
+
+   private void executeInBackground(ExecutorService executor, final CompletableNotifyingFuture<T> result) {
+      Future<T> future = executor.submit(new Callable<T>() {
+         @Override
+         public T call() throws Exception {
+            try {
+               T value = execute();
+               result.notifyDone(value);
+               return value;
+            } catch (RuntimeException e) {
+               result.notifyException(e);
+               throw e;
+            }
+         }
+      });
+      result.dependsOn(future);
+   }
+
+   private class AsyncResponseHandler implements AsyncTransport.ResponseHandler<T> {
 
-      // 2) now read the header
-      return readHeaderAndValidate(transport, params);
+      private final HeaderParams params;
+      private final CompletableNotifyingFuture<T> result;
+      private final ExecutorService executor;
+
+      AsyncResponseHandler(HeaderParams params, CompletableNotifyingFuture<T> result, ExecutorService executor) {
+         this.params = params;
+         this.result = result;
+         this.executor = executor;
+      }
+
+      @Override
+      public T readResponse(Transport transport) {
+         return AbstractKeyOperation.this.readResponse(transport, params);
+      }
+
+      @Override
+      public void completed(T value) {
+         result.notifyDone(value);
+      }
+
+      @Override
+      public void failed(Throwable cause) {
+         if ((cause instanceof TransportException || cause instanceof RemoteNodeSuspectException) && !result.isDone()) {
+            // The I/O thread must not block, so the retries are left to a background thread
+            log.tracef(cause, "Asynchronous request failed, retrying in the background");
+            executeInBackground(executor, result);
+         } else {
+            result.notifyException(cause);
+         }
+      }
+   }
+
+   protected HeaderParams writeKeyRequest(Transport transport, byte opCode) {
+      //[header][key length][key]
+      HeaderParams params = writeHeader(transport, opCode);
+      transport.writeArray(key);
+      return params;
    }
 
    protected byte[] returnPossiblePrevValue(Transport transport) {
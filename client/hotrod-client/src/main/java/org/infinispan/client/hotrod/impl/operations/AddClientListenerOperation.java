@@ -0,0 +1,102 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registers a client listener in one of the servers. The transport the request was sent with is not released, as the
+ * server pushes the events of the listener over its connection, so it is returned to the caller.
+ *
+ * @since 7.0
+ */
+public class AddClientListenerOperation extends RetryOnFailureOperation<Transport> {
+
+   private static final byte[][] NO_PARAMS = new byte[0][];
+
+   public final byte[] listenerId;
+   private final String filterFactoryName;
+   private final byte[][] filterParams;
+   private final String converterFactoryName;
+   private final byte[][] converterParams;
+
+   private SocketAddress serverAddress;
+   private Transport listenerTransport;
+
+   public AddClientListenerOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+            AtomicInteger topologyId, Flag[] flags, String filterFactoryName, byte[][] filterParams,
+            String converterFactoryName, byte[][] converterParams) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.listenerId = generateListenerId();
+      this.filterFactoryName = filterFactoryName;
+      this.filterParams = filterParams == null ? NO_PARAMS : filterParams;
+      this.converterFactoryName = converterFactoryName;
+      this.converterParams = converterParams == null ? NO_PARAMS : converterParams;
+   }
+
+   private static byte[] generateListenerId() {
+      UUID uuid = UUID.randomUUID();
+      return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+   }
+
+   /**
+    * @return the server the listener was added to
+    */
+   public SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      List<SocketAddress> servers = new ArrayList<SocketAddress>(transportFactory.getServers());
+      if (failedServers != null && servers.size() > failedServers.size()) {
+         servers.removeAll(failedServers);
+      }
+      // Spread the listeners over the servers
+      serverAddress = servers.get((Arrays.hashCode(listenerId) & Integer.MAX_VALUE) % servers.size());
+      return transportFactory.getAddressTransport(serverAddress);
+   }
+
+   @Override
+   protected Transport executeOperation(Transport transport) {
+      HeaderParams params = writeHeader(transport, ADD_CLIENT_LISTENER_REQUEST);
+      transport.writeArray(listenerId);
+      writeFactory(transport, filterFactoryName, filterParams);
+      writeFactory(transport, converterFactoryName, converterParams);
+      transport.flush();
+
+      readHeaderAndValidate(transport, params);
+      listenerTransport = transport;
+      return transport;
+   }
+
+   private void writeFactory(Transport transport, String factoryName, byte[][] params) {
+      transport.writeString(factoryName);
+      transport.writeByte((short) params.length);
+      for (byte[] param : params) {
+         transport.writeArray(param);
+      }
+   }
+
+   @Override
+   protected void releaseTransport(Transport transport) {
+      // The events are read from the transport of a successful request
+      if (transport != listenerTransport) {
+         super.releaseTransport(transport);
+      }
+   }
+}
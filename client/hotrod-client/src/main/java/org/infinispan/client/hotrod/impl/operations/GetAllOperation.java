@@ -0,0 +1,61 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a batch of keys in a single request. The request is sent to the server owning the first key of the batch, so
+ * callers are expected to group the keys by owner, see {@link GetAllParallelOperation}.
+ *
+ * @since 7.0
+ */
+@Immutable
+public class GetAllOperation extends RetryOnFailureOperation<Map<byte[], byte[]>> {
+
+   private final Collection<byte[]> keys;
+
+   public GetAllOperation(Codec codec, TransportFactory transportFactory, Collection<byte[]> keys, byte[] cacheName,
+                          AtomicInteger topologyId, Flag[] flags) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.keys = keys;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      if (retryCount == 0) {
+         return transportFactory.getTransport(keys.iterator().next(), failedServers);
+      } else {
+         return transportFactory.getTransport(failedServers);
+      }
+   }
+
+   //[header][key count][key length][key]...
+   @Override
+   protected Map<byte[], byte[]> executeOperation(Transport transport) {
+      HeaderParams params = writeHeader(transport, GET_ALL_REQUEST);
+      transport.writeVInt(keys.size());
+      for (byte[] key : keys) {
+         transport.writeArray(key);
+      }
+      transport.flush();
+
+      readHeaderAndValidate(transport, params);
+      int size = transport.readVInt();
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(size);
+      for (int i = 0; i < size; i++) {
+         result.put(transport.readArray(), transport.readArray());
+      }
+      return result;
+   }
+}
@@ -0,0 +1,49 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads several keys at a time, sending one {@link GetAllOperation} to each server owning some of the keys.
+ *
+ * @since 7.0
+ */
+public class GetAllParallelOperation extends ParallelHotRodOperation<Map<byte[], byte[]>, GetAllOperation> {
+
+   private final Set<byte[]> keys;
+
+   public GetAllParallelOperation(Codec codec, TransportFactory transportFactory, Set<byte[]> keys, byte[] cacheName,
+                                  AtomicInteger topologyId, Flag[] flags, ExecutorService executorService) {
+      super(codec, transportFactory, cacheName, topologyId, flags, executorService);
+      this.keys = keys;
+   }
+
+   @Override
+   protected List<GetAllOperation> mapOperations() {
+      List<GetAllOperation> operations = new ArrayList<GetAllOperation>();
+      for (List<byte[]> batch : splitKeys(keys)) {
+         operations.add(new GetAllOperation(codec, transportFactory, batch, cacheName, topologyId, flags));
+      }
+      return operations;
+   }
+
+   @Override
+   protected Map<byte[], byte[]> createCollector() {
+      return new HashMap<byte[], byte[]>(keys.size());
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   protected void combine(Map<byte[], byte[]> collector, Object result) {
+      collector.putAll((Map<byte[], byte[]>) result);
+   }
+}
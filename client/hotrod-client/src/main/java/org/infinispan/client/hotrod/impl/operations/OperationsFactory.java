@@ -5,13 +5,18 @@
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.Codec20;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.query.RemoteQuery;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -120,6 +125,26 @@ public BulkGetOperation newBulkGetOperation(int size) {
             codec, transportFactory, cacheNameBytes, topologyId, flags(), size);
    }
 
+   public GetAllParallelOperation newGetAllOperation(Set<byte[]> keys, ExecutorService executorService) {
+      return new GetAllParallelOperation(
+            codec, transportFactory, keys, cacheNameBytes, topologyId, flags(), executorService);
+   }
+
+   public PutAllParallelOperation newPutAllOperation(Map<byte[], byte[]> map,
+            int lifespanSecs, int maxIdleSecs, ExecutorService executorService) {
+      return new PutAllParallelOperation(
+            codec, transportFactory, map, cacheNameBytes, topologyId, flags(),
+            lifespanSecs, maxIdleSecs, executorService);
+   }
+
+   /**
+    * Returns whether the protocol version in use supports reading and writing several entries in a single request.
+    * Older versions fall back to one request per entry.
+    */
+   public boolean isBulkOperationSupported() {
+      return codec instanceof Codec20;
+   }
+
    public BulkGetKeysOperation newBulkGetKeysOperation(int scope) {
       return new BulkGetKeysOperation(
     		codec, transportFactory, cacheNameBytes, topologyId, flags(), scope);
@@ -152,6 +177,25 @@ public QueryOperation newQueryOperation(RemoteQuery remoteQuery) {
             codec, transportFactory, cacheNameBytes, topologyId, flags(), remoteQuery);
    }
 
+   public AddClientListenerOperation newAddClientListenerOperation(String filterFactoryName, byte[][] filterParams,
+            String converterFactoryName, byte[][] converterParams) {
+      return new AddClientListenerOperation(
+            codec, transportFactory, cacheNameBytes, topologyId, flags(),
+            filterFactoryName, filterParams, converterFactoryName, converterParams);
+   }
+
+   public RemoveClientListenerOperation newRemoveClientListenerOperation(byte[] listenerId, SocketAddress serverAddress) {
+      return new RemoveClientListenerOperation(
+            codec, transportFactory, cacheNameBytes, topologyId, flags(), listenerId, serverAddress);
+   }
+
+   /**
+    * @return whether flags have been set for the next operation of the current thread
+    */
+   public boolean hasFlags() {
+      return this.flagsMap.get() != null;
+   }
+
    private Flag[] flags() {
       List<Flag> flags = this.flagsMap.get();
       this.flagsMap.remove();
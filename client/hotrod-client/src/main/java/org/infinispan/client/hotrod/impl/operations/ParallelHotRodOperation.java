@@ -0,0 +1,123 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An operation that is split into several sub-operations, one for each batch of keys owned by the same server. The
+ * sub-operations are executed in parallel: the first one in the calling thread and the rest in the async executor.
+ * Sub-operations that the executor did not pick up by the time the calling thread is done with its own are run in
+ * the calling thread as well, so a saturated executor does not block the caller.
+ *
+ * @param <T> the return type of this operation
+ * @param <SUBOP> the type of the sub-operations
+ * @since 7.0
+ */
+public abstract class ParallelHotRodOperation<T, SUBOP extends HotRodOperation> extends HotRodOperation {
+
+   /**
+    * The maximum number of keys sent to a server in a single request.
+    */
+   static final int MAX_BATCH_SIZE = 1024;
+
+   protected final TransportFactory transportFactory;
+
+   private final ExecutorService executorService;
+
+   protected ParallelHotRodOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+                                     AtomicInteger topologyId, Flag[] flags, ExecutorService executorService) {
+      super(codec, flags, cacheName, topologyId);
+      this.transportFactory = transportFactory;
+      this.executorService = executorService;
+   }
+
+   @Override
+   public T execute() {
+      List<SUBOP> operations = mapOperations();
+      T result = createCollector();
+      if (operations.isEmpty()) {
+         return result;
+      }
+
+      List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>(operations.size() - 1);
+      for (final SUBOP operation : operations.subList(1, operations.size())) {
+         FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() {
+               return operation.execute();
+            }
+         });
+         try {
+            executorService.execute(task);
+         } catch (RejectedExecutionException e) {
+            // The task is run in the calling thread below
+         }
+         tasks.add(task);
+      }
+
+      combine(result, operations.get(0).execute());
+      for (FutureTask<Object> task : tasks) {
+         // No-op if the executor already started the task
+         task.run();
+         combine(result, getResult(task));
+      }
+      return result;
+   }
+
+   /**
+    * Splits the keys into batches of at most {@link #MAX_BATCH_SIZE} keys owned by the same server.
+    */
+   protected List<List<byte[]>> splitKeys(Collection<byte[]> keys) {
+      ConsistentHash consistentHash = transportFactory.getConsistentHash();
+      Map<SocketAddress, List<byte[]>> keysByServer = new HashMap<SocketAddress, List<byte[]>>();
+      List<List<byte[]>> batches = new ArrayList<List<byte[]>>();
+      for (byte[] key : keys) {
+         SocketAddress server = consistentHash == null ? null : consistentHash.getServer(key);
+         List<byte[]> batch = keysByServer.get(server);
+         if (batch == null || batch.size() == MAX_BATCH_SIZE) {
+            batch = new ArrayList<byte[]>(Math.min(keys.size(), MAX_BATCH_SIZE));
+            keysByServer.put(server, batch);
+            batches.add(batch);
+         }
+         batch.add(key);
+      }
+      return batches;
+   }
+
+   private Object getResult(FutureTask<Object> task) {
+      try {
+         return task.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new HotRodClientException(e);
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         }
+         throw new HotRodClientException(cause);
+      }
+   }
+
+   protected abstract List<SUBOP> mapOperations();
+
+   protected abstract T createCollector();
+
+   protected abstract void combine(T collector, Object result);
+}
@@ -0,0 +1,65 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a batch of entries in a single request. The request is sent to the server owning the first key of the batch,
+ * so callers are expected to group the entries by owner, see {@link PutAllParallelOperation}.
+ *
+ * @since 7.0
+ */
+@Immutable
+public class PutAllOperation extends RetryOnFailureOperation<Void> {
+
+   private final Map<byte[], byte[]> map;
+   private final int lifespan;
+   private final int maxIdle;
+
+   public PutAllOperation(Codec codec, TransportFactory transportFactory, Map<byte[], byte[]> map, byte[] cacheName,
+                          AtomicInteger topologyId, Flag[] flags, int lifespan, int maxIdle) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.map = map;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      if (retryCount == 0) {
+         return transportFactory.getTransport(map.keySet().iterator().next(), failedServers);
+      } else {
+         return transportFactory.getTransport(failedServers);
+      }
+   }
+
+   //[header][lifespan][max idle][entry count][key length][key][value length][value]...
+   @Override
+   protected Void executeOperation(Transport transport) {
+      HeaderParams params = writeHeader(transport, PUT_ALL_REQUEST);
+      transport.writeVInt(lifespan);
+      transport.writeVInt(maxIdle);
+      transport.writeVInt(map.size());
+      for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+         transport.writeArray(entry.getKey());
+         transport.writeArray(entry.getValue());
+      }
+      transport.flush();
+
+      short status = readHeaderAndValidate(transport, params);
+      if (status != NO_ERROR_STATUS) {
+         throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
+      }
+      return null;
+   }
+}
@@ -0,0 +1,57 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes several entries at a time, sending one {@link PutAllOperation} to each server owning some of the keys.
+ *
+ * @since 7.0
+ */
+public class PutAllParallelOperation extends ParallelHotRodOperation<Void, PutAllOperation> {
+
+   private final Map<byte[], byte[]> map;
+   private final int lifespan;
+   private final int maxIdle;
+
+   public PutAllParallelOperation(Codec codec, TransportFactory transportFactory, Map<byte[], byte[]> map,
+                                  byte[] cacheName, AtomicInteger topologyId, Flag[] flags, int lifespan, int maxIdle,
+                                  ExecutorService executorService) {
+      super(codec, transportFactory, cacheName, topologyId, flags, executorService);
+      this.map = map;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+   }
+
+   @Override
+   protected List<PutAllOperation> mapOperations() {
+      List<PutAllOperation> operations = new ArrayList<PutAllOperation>();
+      for (List<byte[]> batch : splitKeys(map.keySet())) {
+         Map<byte[], byte[]> entries = new HashMap<byte[], byte[]>(batch.size());
+         for (byte[] key : batch) {
+            entries.put(key, map.get(key));
+         }
+         operations.add(new PutAllOperation(codec, transportFactory, entries, cacheName, topologyId, flags,
+                                            lifespan, maxIdle));
+      }
+      return operations;
+   }
+
+   @Override
+   protected Void createCollector() {
+      return null;
+   }
+
+   @Override
+   protected void combine(Void collector, Object result) {
+      // Nothing to collect
+   }
+}
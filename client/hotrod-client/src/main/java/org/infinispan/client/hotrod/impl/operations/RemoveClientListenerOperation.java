@@ -0,0 +1,46 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Removes a client listener from the server it was added to.
+ *
+ * @since 7.0
+ */
+@Immutable
+public class RemoveClientListenerOperation extends RetryOnFailureOperation<Boolean> {
+
+   private final byte[] listenerId;
+   private final SocketAddress serverAddress;
+
+   public RemoveClientListenerOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+            AtomicInteger topologyId, Flag[] flags, byte[] listenerId, SocketAddress serverAddress) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.listenerId = listenerId;
+      this.serverAddress = serverAddress;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      // Only the server the listener was added to knows it
+      return transportFactory.getAddressTransport(serverAddress);
+   }
+
+   @Override
+   protected Boolean executeOperation(Transport transport) {
+      HeaderParams params = writeHeader(transport, REMOVE_CLIENT_LISTENER_REQUEST);
+      transport.writeArray(listenerId);
+      transport.flush();
+      short status = readHeaderAndValidate(transport, params);
+      return status == NO_ERROR_STATUS;
+   }
+}
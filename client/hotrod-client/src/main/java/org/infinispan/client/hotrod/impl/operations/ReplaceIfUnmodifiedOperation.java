@@ -27,7 +27,7 @@ public ReplaceIfUnmodifiedOperation(Codec codec, TransportFactory transportFacto
    }
 
    @Override
-   protected VersionedOperationResponse executeOperation(Transport transport) {
+   protected HeaderParams writeRequest(Transport transport) {
       // 1) write header
       HeaderParams params = writeHeader(transport, REPLACE_IF_UNMODIFIED_REQUEST);
 
@@ -37,8 +37,11 @@ protected VersionedOperationResponse executeOperation(Transport transport) {
       transport.writeVInt(maxIdle);
       transport.writeLong(version);
       transport.writeArray(value);
-      transport.flush();
+      return params;
+   }
 
+   @Override
+   protected VersionedOperationResponse readResponse(Transport transport, HeaderParams params) {
       return returnVersionedOperationResponse(transport, params);
    }
 }
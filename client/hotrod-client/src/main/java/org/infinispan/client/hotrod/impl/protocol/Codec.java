@@ -1,7 +1,9 @@
 package org.infinispan.client.hotrod.impl.protocol;
 
+import org.infinispan.client.hotrod.event.ClientEvent;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.commons.marshall.Marshaller;
 
 /**
  * A Hot Rod protocol encoder/decoder.
@@ -23,6 +25,12 @@ public interface Codec {
     */
    short readHeader(Transport transport, HeaderParams params);
 
+   /**
+    * Reads an event pushed by the server to the client listener with the given id, blocking until it is received. The
+    * keys and the custom event data are unmarshalled with the given marshaller.
+    */
+   ClientEvent readEvent(Transport transport, byte[] expectedListenerId, Marshaller marshaller);
+
    /**
     * Logger for Hot Rod client codec
     */
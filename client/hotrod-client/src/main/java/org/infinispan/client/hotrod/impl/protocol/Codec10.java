@@ -12,12 +12,14 @@
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.event.ClientEvent;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
 import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
 
 /**
  * A Hot Rod encoder/decoder for version 1.0 of the protocol.
@@ -107,6 +109,11 @@ public short readHeader(Transport transport, HeaderParams params) {
       return status;
    }
 
+   @Override
+   public ClientEvent readEvent(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      throw new UnsupportedOperationException("Client listeners require version 2.0 of the protocol");
+   }
+
    @Override
    public Log getLog() {
       return log;
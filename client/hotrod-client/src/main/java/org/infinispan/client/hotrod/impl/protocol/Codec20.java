@@ -1,11 +1,17 @@
 package org.infinispan.client.hotrod.impl.protocol;
 
+import org.infinispan.client.hotrod.event.ClientCacheEntryCreatedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+import org.infinispan.client.hotrod.event.ClientEvent;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
 import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -106,6 +112,65 @@ public short readHeader(Transport transport, HeaderParams params) {
       return status;
    }
 
+   @Override
+   public ClientEvent readEvent(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      // Magic | Message Id | Op code | Status | Topology Change Marker | Listener Id | Custom Marker | ...
+      short magic = transport.readByte();
+      if (magic != HotRodConstants.RESPONSE_MAGIC) {
+         getLog().invalidMagicNumber(HotRodConstants.RESPONSE_MAGIC, magic);
+         throw new InvalidResponseException(String.format(
+               "Invalid magic number. Expected %#x and received %#x", HotRodConstants.RESPONSE_MAGIC, magic));
+      }
+      // The message id is the one of the request that added the listener
+      transport.readVLong();
+      short eventOpCode = transport.readByte();
+      transport.readByte(); // Status
+      // Events never carry topology changes
+      transport.readByte();
+
+      ClientEvent.Type type;
+      switch (eventOpCode) {
+         case HotRodConstants.CACHE_ENTRY_CREATED_EVENT_RESPONSE:
+            type = ClientEvent.Type.CLIENT_CACHE_ENTRY_CREATED;
+            break;
+         case HotRodConstants.CACHE_ENTRY_MODIFIED_EVENT_RESPONSE:
+            type = ClientEvent.Type.CLIENT_CACHE_ENTRY_MODIFIED;
+            break;
+         case HotRodConstants.CACHE_ENTRY_REMOVED_EVENT_RESPONSE:
+            type = ClientEvent.Type.CLIENT_CACHE_ENTRY_REMOVED;
+            break;
+         default:
+            throw new InvalidResponseException(String.format("Invalid event operation: %#x", eventOpCode));
+      }
+
+      byte[] listenerId = transport.readArray();
+      if (!Arrays.equals(listenerId, expectedListenerId)) {
+         throw new InvalidResponseException("Received an event for another listener");
+      }
+      boolean isCustom = transport.readByte() == 1;
+      if (isCustom) {
+         Object eventData = unmarshall(transport.readArray(), marshaller);
+         return new CustomEvent<Object>(type, eventData);
+      }
+      Object key = unmarshall(transport.readArray(), marshaller);
+      switch (type) {
+         case CLIENT_CACHE_ENTRY_CREATED:
+            return new CreatedEvent<Object>(key, transport.readLong());
+         case CLIENT_CACHE_ENTRY_MODIFIED:
+            return new ModifiedEvent<Object>(key, transport.readLong());
+         default:
+            return new RemovedEvent<Object>(key);
+      }
+   }
+
+   private Object unmarshall(byte[] bytes, Marshaller marshaller) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (Exception e) {
+         throw new HotRodClientException("Unable to unmarshall byte stream", e);
+      }
+   }
+
    @Override
    public Log getLog() {
       return log;
@@ -206,4 +271,112 @@ protected void readNewTopologyAndHash(Transport transport, AtomicInteger topolog
       }
    }
 
+   private static final class CreatedEvent<K> implements ClientCacheEntryCreatedEvent<K> {
+      private final K key;
+      private final long version;
+
+      CreatedEvent(K key, long version) {
+         this.key = key;
+         this.version = version;
+      }
+
+      @Override
+      public K getKey() {
+         return key;
+      }
+
+      @Override
+      public long getVersion() {
+         return version;
+      }
+
+      @Override
+      public Type getType() {
+         return Type.CLIENT_CACHE_ENTRY_CREATED;
+      }
+
+      @Override
+      public String toString() {
+         return "ClientCacheEntryCreatedEvent(key=" + key + ", version=" + version + ")";
+      }
+   }
+
+   private static final class ModifiedEvent<K> implements ClientCacheEntryModifiedEvent<K> {
+      private final K key;
+      private final long version;
+
+      ModifiedEvent(K key, long version) {
+         this.key = key;
+         this.version = version;
+      }
+
+      @Override
+      public K getKey() {
+         return key;
+      }
+
+      @Override
+      public long getVersion() {
+         return version;
+      }
+
+      @Override
+      public Type getType() {
+         return Type.CLIENT_CACHE_ENTRY_MODIFIED;
+      }
+
+      @Override
+      public String toString() {
+         return "ClientCacheEntryModifiedEvent(key=" + key + ", version=" + version + ")";
+      }
+   }
+
+   private static final class RemovedEvent<K> implements ClientCacheEntryRemovedEvent<K> {
+      private final K key;
+
+      RemovedEvent(K key) {
+         this.key = key;
+      }
+
+      @Override
+      public K getKey() {
+         return key;
+      }
+
+      @Override
+      public Type getType() {
+         return Type.CLIENT_CACHE_ENTRY_REMOVED;
+      }
+
+      @Override
+      public String toString() {
+         return "ClientCacheEntryRemovedEvent(key=" + key + ")";
+      }
+   }
+
+   private static final class CustomEvent<T> implements ClientCacheEntryCustomEvent<T> {
+      private final Type type;
+      private final T eventData;
+
+      CustomEvent(Type type, T eventData) {
+         this.type = type;
+         this.eventData = eventData;
+      }
+
+      @Override
+      public T getEventData() {
+         return eventData;
+      }
+
+      @Override
+      public Type getType() {
+         return type;
+      }
+
+      @Override
+      public String toString() {
+         return "ClientCacheEntryCustomEvent(type=" + type + ", eventData=" + eventData + ")";
+      }
+   }
+
 }
@@ -91,6 +91,14 @@ private short toOpRespCode(short opCode) {
             return HotRodConstants.BULK_GET_KEYS_RESPONSE;
          case HotRodConstants.QUERY_REQUEST:
             return HotRodConstants.QUERY_RESPONSE;
+         case HotRodConstants.PUT_ALL_REQUEST:
+            return HotRodConstants.PUT_ALL_RESPONSE;
+         case HotRodConstants.GET_ALL_REQUEST:
+            return HotRodConstants.GET_ALL_RESPONSE;
+         case HotRodConstants.ADD_CLIENT_LISTENER_REQUEST:
+            return HotRodConstants.ADD_CLIENT_LISTENER_RESPONSE;
+         case HotRodConstants.REMOVE_CLIENT_LISTENER_REQUEST:
+            return HotRodConstants.REMOVE_CLIENT_LISTENER_RESPONSE;
          default:
             throw new IllegalStateException("Unknown operation code: " + opCode);
       }
@@ -36,6 +36,10 @@ public interface HotRodConstants {
    static final byte GET_WITH_METADATA = 0x1B;
    static final byte BULK_GET_KEYS_REQUEST = 0x1D;
    static final byte QUERY_REQUEST = 0x1F;
+   static final byte ADD_CLIENT_LISTENER_REQUEST = 0x25;
+   static final byte REMOVE_CLIENT_LISTENER_REQUEST = 0x27;
+   static final byte PUT_ALL_REQUEST = 0x2D;
+   static final byte GET_ALL_REQUEST = 0x2F;
 
 
    //responses
@@ -55,7 +59,14 @@ public interface HotRodConstants {
    static final byte GET_WITH_METADATA_RESPONSE = 0x1C;
    static final byte BULK_GET_KEYS_RESPONSE = 0x1E;
    static final byte QUERY_RESPONSE = 0x20;
+   static final byte ADD_CLIENT_LISTENER_RESPONSE = 0x26;
+   static final byte REMOVE_CLIENT_LISTENER_RESPONSE = 0x28;
+   static final byte PUT_ALL_RESPONSE = 0x2E;
+   static final byte GET_ALL_RESPONSE = 0x30;
    static final byte ERROR_RESPONSE = 0x50;
+   static final byte CACHE_ENTRY_CREATED_EVENT_RESPONSE = 0x60;
+   static final byte CACHE_ENTRY_MODIFIED_EVENT_RESPONSE = 0x61;
+   static final byte CACHE_ENTRY_REMOVED_EVENT_RESPONSE = 0x62;
 
    //response status
    static final byte NO_ERROR_STATUS = 0x00;
@@ -0,0 +1,39 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+/**
+ * A transport that can send a request without waiting for its response. The response is decoded by an I/O thread as
+ * soon as it has been received, so the caller's thread is never blocked.
+ *
+ * @since 7.0
+ */
+public interface AsyncTransport extends Transport {
+
+   /**
+    * Sends the request written so far. Once this method returns the transport must not be used any more, other than
+    * for being released.
+    */
+   <T> void flush(ResponseHandler<T> handler);
+
+   /**
+    * Decodes the response of a request sent with {@link AsyncTransport#flush(ResponseHandler)} and receives the
+    * outcome. All the methods are invoked by an I/O thread, so they must not block.
+    */
+   interface ResponseHandler<T> {
+
+      /**
+       * Reads the response from the given transport. If the response has not been received completely yet, this
+       * method is interrupted and invoked again from the beginning of the response when more data is available, so
+       * it must not have any side effect other than updating the cluster topology.
+       */
+      T readResponse(Transport transport);
+
+      void completed(T result);
+
+      /**
+       * Invoked with the exception thrown by {@link #readResponse(Transport)}, or with a
+       * {@link org.infinispan.client.hotrod.exceptions.TransportException} if the request could not be sent or the
+       * connection was closed before the response was received.
+       */
+      void failed(Throwable cause);
+   }
+}
@@ -0,0 +1,10 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+/**
+ * A {@link TransportFactory} whose transports are {@link AsyncTransport}s. Getting a transport from such a factory
+ * doesn't block, so the asynchronous operations can send their requests from the caller's thread.
+ *
+ * @since 7.0
+ */
+public interface AsyncTransportFactory extends TransportFactory {
+}
@@ -8,6 +8,7 @@
 import javax.net.ssl.SSLContext;
 
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 
@@ -36,8 +37,22 @@ public interface TransportFactory {
 
    ConsistentHashFactory getConsistentHashFactory();
 
+   /**
+    * Returns the consistent hash used for locating the server that owns a key, or <tt>null</tt> if the client is not
+    * aware of the key distribution (yet).
+    */
+   ConsistentHash getConsistentHash();
+
    Transport getTransport(byte[] key, Set<SocketAddress> failedServers);
 
+   /**
+    * Returns a transport to the given server that is not used by any other request until it is released, so that the
+    * caller may keep it for as long as it needs, e.g. to receive the events of a client listener.
+    */
+   Transport getAddressTransport(SocketAddress server);
+
+   Collection<SocketAddress> getServers();
+
    boolean isTcpNoDelay();
 
    int getMaxRetries();
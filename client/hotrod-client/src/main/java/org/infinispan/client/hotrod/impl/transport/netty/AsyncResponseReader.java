@@ -0,0 +1,67 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Signal;
+
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * Decodes a response on the event loop with an {@link AsyncTransport.ResponseHandler}. The handler reads the bytes
+ * received so far, and if they do not contain the whole response it is invoked again once more have been received.
+ *
+ * @since 7.0
+ */
+final class AsyncResponseReader<T> implements NettyConnection.ResponseReader {
+
+   private static final Log log = LogFactory.getLog(AsyncResponseReader.class, Log.class);
+
+   private final AsyncTransport.ResponseHandler<T> handler;
+   private final NettyConnection connection;
+   private final ByteBufTransport transport;
+
+   AsyncResponseReader(AsyncTransport.ResponseHandler<T> handler, NettyConnection connection,
+                       TransportFactory transportFactory) {
+      this.handler = handler;
+      this.connection = connection;
+      this.transport = new ByteBufTransport(connection, transportFactory);
+   }
+
+   @Override
+   public boolean read(ByteBuf received) {
+      int start = received.readerIndex();
+      transport.setReceived(received);
+      T result;
+      try {
+         result = handler.readResponse(transport);
+      } catch (Signal signal) {
+         signal.expect(ByteBufTransport.REPLAY);
+         received.readerIndex(start);
+         return false;
+      } catch (Throwable t) {
+         if (transport.isInvalid() || t instanceof InvalidResponseException) {
+            // The end of the response is unknown
+            connection.close(t);
+         }
+         handler.failed(t);
+         return true;
+      } finally {
+         transport.setReceived(null);
+      }
+      try {
+         handler.completed(result);
+      } catch (Throwable t) {
+         log.errorf(t, "Failed to complete the response of %s", connection);
+      }
+      return true;
+   }
+
+   @Override
+   public void failed(TransportException cause) {
+      handler.failed(cause);
+   }
+}
@@ -0,0 +1,127 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Signal;
+
+import java.net.SocketAddress;
+
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * A read-only transport over the bytes received so far by a {@link NettyConnection}, used for decoding a response on
+ * the event loop. If the response is incomplete, {@link #REPLAY} is thrown so that decoding can be attempted again
+ * from the beginning of the response once more bytes have been received.
+ *
+ * @since 7.0
+ */
+final class ByteBufTransport extends AbstractTransport {
+
+   static final Signal REPLAY = Signal.valueOf(ByteBufTransport.class.getName() + ".REPLAY");
+
+   private final NettyConnection connection;
+   private ByteBuf received;
+   private boolean invalid;
+
+   ByteBufTransport(NettyConnection connection, TransportFactory transportFactory) {
+      super(transportFactory);
+      this.connection = connection;
+   }
+
+   void setReceived(ByteBuf received) {
+      this.received = received;
+   }
+
+   boolean isInvalid() {
+      return invalid;
+   }
+
+   private void require(int size) {
+      if (received.readableBytes() < size) {
+         throw REPLAY;
+      }
+   }
+
+   @Override
+   public short readByte() {
+      require(1);
+      return received.readUnsignedByte();
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      require(size);
+      byte[] result = new byte[size];
+      received.readBytes(result);
+      return result;
+   }
+
+   @Override
+   public long readVLong() {
+      byte b = (byte) readByte();
+      long i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public int readVInt() {
+      byte b = (byte) readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      byte[] bytes = new byte[received.readableBytes()];
+      received.getBytes(received.readerIndex(), bytes);
+      return bytes;
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return connection.getRemoteSocketAddress();
+   }
+
+   @Override
+   public void invalidate() {
+      invalid = true;
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void writeVInt(int vint) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void flush() {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void release() {
+      // The received bytes are owned by the connection
+   }
+}
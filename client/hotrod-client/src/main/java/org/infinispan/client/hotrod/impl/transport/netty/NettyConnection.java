@@ -0,0 +1,298 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * A connection to a server shared by many concurrent requests. Requests are written as soon as they are flushed, without
+ * waiting for the responses to the previous ones. Each response is dispatched to its request according to its message
+ * id, so the server may respond in any order.
+ * <p>
+ * The length of a response depends on the request, so the received bytes are handed to the reader of the current
+ * response until it has consumed its whole response. Only then is the message id of the next response read.
+ * <p>
+ * A request decoded on the event loop whose response has not started arriving within the socket timeout is failed with
+ * a {@link SocketTimeoutException}. Its length is only known to its reader, so if its response arrives afterwards the
+ * connection is closed, like a socket whose read timed out.
+ *
+ * @since 7.0
+ */
+final class NettyConnection extends ChannelInboundHandlerAdapter {
+
+   private static final Log log = LogFactory.getLog(NettyConnection.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final SocketAddress serverAddress;
+   private final ConcurrentMap<Long, PendingResponse> pendingResponses = new ConcurrentHashMap<Long, PendingResponse>();
+   private volatile Channel channel;
+   private volatile boolean closed;
+
+   // Only accessed by the event loop of the channel
+   private final ByteBuf received = Unpooled.buffer();
+   private ResponseReader currentReader;
+
+   NettyConnection(SocketAddress serverAddress) {
+      this.serverAddress = serverAddress;
+   }
+
+   void setChannel(Channel channel) {
+      this.channel = channel;
+   }
+
+   SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   SocketAddress getRemoteSocketAddress() {
+      return channel.remoteAddress();
+   }
+
+   boolean isOpen() {
+      return !closed;
+   }
+
+   /**
+    * Writes a request, whose response will be passed to the given reader.
+    *
+    * @param timeout the time in milliseconds the reader waits for the response to start arriving, or 0 to wait
+    *                indefinitely, e.g. because the reader enforces a timeout of its own
+    * @throws TransportException if the connection is closed
+    */
+   void send(long messageId, ByteBuf request, ResponseReader reader, long timeout) {
+      PendingResponse pending = new PendingResponse(messageId, reader);
+      pendingResponses.put(messageId, pending);
+      // close() may not have seen the reader
+      if (closed && pendingResponses.remove(messageId) != null) {
+         request.release();
+         throw new TransportException("Connection closed", serverAddress);
+      }
+      if (timeout > 0) {
+         pending.timeout = channel.eventLoop().schedule(pending, timeout, TimeUnit.MILLISECONDS);
+      }
+      channel.writeAndFlush(request).addListener(new ChannelFutureListener() {
+         @Override
+         public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+               close(future.cause());
+            }
+         }
+      });
+   }
+
+   /**
+    * Invoked once a transport has read its whole response. The bytes it was given after its response belong to the
+    * next responses.
+    */
+   void responseRead(final NettyTransport transport) {
+      channel.eventLoop().execute(new Runnable() {
+         @Override
+         public void run() {
+            if (currentReader == transport) {
+               currentReader = null;
+               // Anything received in the meantime was given to the transport as well
+               received.clear();
+               received.writeBytes(transport.takeUnread());
+               dispatch();
+            } else {
+               transport.abandon();
+            }
+         }
+      });
+   }
+
+   /**
+    * Closes the connection, failing all the requests waiting for a response.
+    */
+   void close(Throwable cause) {
+      closed = true;
+      Channel ch = channel;
+      if (ch != null) {
+         ch.close();
+      }
+      if (trace) {
+         log.tracef(cause, "Closing connection to %s", serverAddress);
+      }
+      Iterator<PendingResponse> it = pendingResponses.values().iterator();
+      while (it.hasNext()) {
+         PendingResponse pending = it.next();
+         it.remove();
+         pending.cancelTimeout();
+         pending.reader.failed(new TransportException("Connection closed", cause, serverAddress));
+      }
+   }
+
+   @Override
+   public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ByteBuf data = (ByteBuf) msg;
+      try {
+         received.writeBytes(data);
+      } finally {
+         data.release();
+      }
+      dispatch();
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) {
+      ResponseReader reader = currentReader;
+      currentReader = null;
+      close(null);
+      if (reader != null) {
+         reader.failed(new TransportException("Connection closed", serverAddress));
+      }
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      close(cause);
+   }
+
+   private void dispatch() {
+      while (!closed) {
+         if (currentReader == null) {
+            currentReader = nextReader();
+            if (currentReader == null) {
+               break;
+            }
+         }
+         if (!currentReader.read(received)) {
+            break;
+         }
+         currentReader = null;
+      }
+      received.discardSomeReadBytes();
+   }
+
+   private ResponseReader nextReader() {
+      if (!received.isReadable()) {
+         return null;
+      }
+      short magic = received.getUnsignedByte(received.readerIndex());
+      if (magic != HotRodConstants.RESPONSE_MAGIC) {
+         // Let the codec of any request report the error
+         return anyPendingReader();
+      }
+      long messageId = getVLong(received, received.readerIndex() + 1);
+      if (messageId < 0) {
+         return null;
+      }
+      if (messageId == 0) {
+         // The server could not read the message id of a request, and only it knows which one
+         return anyPendingReader();
+      }
+      PendingResponse pending = pendingResponses.remove(messageId);
+      if (pending == null) {
+         log.unexpectedMessageId(messageId, serverAddress);
+         close(null);
+         return null;
+      }
+      pending.cancelTimeout();
+      return pending.reader;
+   }
+
+   private ResponseReader anyPendingReader() {
+      Long oldest = null;
+      for (Long messageId : pendingResponses.keySet()) {
+         if (oldest == null || messageId < oldest) {
+            oldest = messageId;
+         }
+      }
+      PendingResponse pending = oldest == null ? null : pendingResponses.remove(oldest);
+      if (pending == null) {
+         return null;
+      }
+      pending.cancelTimeout();
+      return pending.reader;
+   }
+
+   /**
+    * Reads a variable length long at the given index without moving the reader index.
+    *
+    * @return the value, or -1 if the buffer does not contain all its bytes
+    */
+   static long getVLong(ByteBuf buf, int index) {
+      long result = 0;
+      for (int shift = 0; index < buf.writerIndex(); shift += 7) {
+         byte b = buf.getByte(index++);
+         result |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return result;
+         }
+      }
+      return -1;
+   }
+
+   @Override
+   public String toString() {
+      return "NettyConnection{" +
+            "serverAddress=" + serverAddress +
+            ", channel=" + channel +
+            ", pendingResponses=" + pendingResponses.size() +
+            '}';
+   }
+
+   /**
+    * A request waiting for its response, failed by the event loop if the response does not start arriving in time.
+    */
+   private final class PendingResponse implements Runnable {
+      final long messageId;
+      final ResponseReader reader;
+      volatile ScheduledFuture<?> timeout;
+
+      PendingResponse(long messageId, ResponseReader reader) {
+         this.messageId = messageId;
+         this.reader = reader;
+      }
+
+      void cancelTimeout() {
+         ScheduledFuture<?> t = timeout;
+         if (t != null) {
+            t.cancel(false);
+         }
+      }
+
+      @Override
+      public void run() {
+         if (pendingResponses.remove(messageId, this)) {
+            if (trace) {
+               log.tracef("Request %d to %s timed out", messageId, serverAddress);
+            }
+            reader.failed(new TransportException(new SocketTimeoutException("Read timed out"), serverAddress));
+         }
+      }
+   }
+
+   /**
+    * Consumes the response to a request.
+    */
+   interface ResponseReader {
+
+      /**
+       * Reads the bytes of the response received so far, invoked by the event loop of the channel.
+       *
+       * @return true if the whole response has been read, false if more bytes are needed or if the end of the response
+       *         will be reported with {@link NettyConnection#responseRead(NettyTransport)}
+       */
+      boolean read(ByteBuf received);
+
+      void failed(TransportException cause);
+   }
+}
@@ -0,0 +1,282 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * A single request sent over a shared {@link NettyConnection}. The request is buffered until it is flushed, and the
+ * response is then either read by the calling thread, which blocks until enough bytes have been received, or decoded
+ * by the event loop if the request was flushed with {@link #flush(ResponseHandler)}.
+ * <p>
+ * Instances are cheap and are not reused, so a new one is obtained from the {@link NettyTransportFactory} for each
+ * request.
+ *
+ * @since 7.0
+ */
+public class NettyTransport extends AbstractTransport implements AsyncTransport, NettyConnection.ResponseReader {
+
+   private static final Log log = LogFactory.getLog(NettyTransport.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private static final int INITIAL_REQUEST_SIZE = 128;
+
+   private final NettyConnection connection;
+   private final boolean dedicated;
+   private final long soTimeoutNanos;
+   private ByteBuf request = Unpooled.buffer(INITIAL_REQUEST_SIZE);
+   private boolean flushed;
+   private boolean readsResponse;
+
+   // Guarded by this, as the response bytes are added by the event loop
+   private final ByteBuf response = Unpooled.buffer();
+   private TransportException failure;
+
+   // Only accessed by the event loop
+   private boolean abandoned;
+
+   private volatile boolean invalid;
+
+   NettyTransport(NettyConnection connection, NettyTransportFactory transportFactory, boolean dedicated) {
+      super(transportFactory);
+      this.connection = connection;
+      this.dedicated = dedicated;
+      this.soTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(transportFactory.getSoTimeout());
+   }
+
+   NettyConnection getConnection() {
+      return connection;
+   }
+
+   /**
+    * Whether the connection of the transport is only used by it, and is closed when the transport is released.
+    */
+   boolean isDedicated() {
+      return dedicated;
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      request.writeByte(toWrite);
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      request.writeBytes(toAppend);
+   }
+
+   @Override
+   public void writeVInt(int vInt) {
+      while ((vInt & ~0x7F) != 0) {
+         request.writeByte((vInt & 0x7F) | 0x80);
+         vInt >>>= 7;
+      }
+      request.writeByte(vInt);
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      while ((l & ~0x7FL) != 0) {
+         request.writeByte((int) ((l & 0x7F) | 0x80));
+         l >>>= 7;
+      }
+      request.writeByte((int) l);
+   }
+
+   @Override
+   public void flush() {
+      readsResponse = true;
+      // The calling thread times out on its own while awaiting the response
+      send(this, 0);
+   }
+
+   @Override
+   public <T> void flush(final ResponseHandler<T> handler) {
+      send(new AsyncResponseReader<T>(handler, connection, getTransportFactory()),
+           TimeUnit.NANOSECONDS.toMillis(soTimeoutNanos));
+   }
+
+   private void send(NettyConnection.ResponseReader reader, long timeout) {
+      if (flushed) {
+         throw new IllegalStateException("The request has already been sent");
+      }
+      flushed = true;
+      // Magic | Message Id | ...
+      long messageId = NettyConnection.getVLong(request, 1);
+      ByteBuf toSend = request;
+      request = null;
+      try {
+         connection.send(messageId, toSend, reader, timeout);
+      } catch (TransportException e) {
+         invalid = true;
+         throw e;
+      }
+      if (trace) {
+         log.tracef("Sent request %d over %s", messageId, connection);
+      }
+   }
+
+   @Override
+   public synchronized boolean read(ByteBuf received) {
+      if (abandoned) {
+         // Nobody will read the response, so the beginning of the next one is unknown
+         connection.close(null);
+         return false;
+      }
+      // A transport with a connection of its own may read from it indefinitely
+      response.discardSomeReadBytes();
+      response.writeBytes(received);
+      notifyAll();
+      return false;
+   }
+
+   @Override
+   public synchronized void failed(TransportException cause) {
+      failure = cause;
+      notifyAll();
+   }
+
+   /**
+    * Waits until the given number of bytes of the response are available.
+    */
+   private void awaitResponse(int size) {
+      if (response.readableBytes() >= size) {
+         return;
+      }
+      long remaining = soTimeoutNanos;
+      long deadline = System.nanoTime() + remaining;
+      while (response.readableBytes() < size) {
+         if (failure != null) {
+            invalid = true;
+            throw new TransportException(failure.getMessage(), failure, connection.getServerAddress());
+         }
+         if (soTimeoutNanos > 0 && remaining <= 0) {
+            invalid = true;
+            throw new TransportException(new SocketTimeoutException("Read timed out"), connection.getServerAddress());
+         }
+         try {
+            if (soTimeoutNanos > 0) {
+               TimeUnit.NANOSECONDS.timedWait(this, remaining);
+               remaining = deadline - System.nanoTime();
+            } else {
+               wait();
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            invalid = true;
+            throw new TransportException(e, connection.getServerAddress());
+         }
+      }
+   }
+
+   @Override
+   public synchronized short readByte() {
+      awaitResponse(1);
+      return response.readUnsignedByte();
+   }
+
+   @Override
+   public synchronized byte[] readByteArray(int size) {
+      awaitResponse(size);
+      byte[] result = new byte[size];
+      response.readBytes(result);
+      return result;
+   }
+
+   @Override
+   public synchronized long readVLong() {
+      byte b = (byte) readByte();
+      long i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public synchronized int readVInt() {
+      byte b = (byte) readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   /**
+    * Ends the request. If its response was read by the calling thread, the bytes received after it are handed back
+    * to the connection.
+    */
+   void responseConsumed() {
+      if (request != null) {
+         request.release();
+         request = null;
+      }
+      boolean handBack;
+      synchronized (this) {
+         handBack = readsResponse && !invalid && failure == null;
+      }
+      if (handBack) {
+         connection.responseRead(this);
+      }
+   }
+
+   /**
+    * Returns the bytes received after the response, invoked by the event loop once the response was read.
+    */
+   synchronized ByteBuf takeUnread() {
+      return response;
+   }
+
+   /**
+    * Invoked by the event loop if the transport was released before its response was received.
+    */
+   void abandon() {
+      abandoned = true;
+   }
+
+   @Override
+   public void release() {
+      responseConsumed();
+   }
+
+   @Override
+   public synchronized byte[] dumpStream() {
+      byte[] bytes = new byte[response.readableBytes()];
+      response.getBytes(response.readerIndex(), bytes);
+      return bytes;
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return connection.getRemoteSocketAddress();
+   }
+
+   @Override
+   public void invalidate() {
+      invalid = true;
+   }
+
+   boolean isValid() {
+      return !invalid;
+   }
+
+   @Override
+   public String toString() {
+      return "NettyTransport{" +
+            "connection=" + connection +
+            ", invalid=" + invalid +
+            '}';
+   }
+}
@@ -0,0 +1,418 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.configuration.ServerConfiguration;
+import org.infinispan.client.hotrod.configuration.SslConfiguration;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
+import org.infinispan.client.hotrod.impl.consistenthash.SegmentConsistentHash;
+import org.infinispan.client.hotrod.impl.operations.PingOperation;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransportFactory;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.tcp.RequestBalancingStrategy;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.SslContextFactory;
+import org.infinispan.commons.util.Util;
+
+/**
+ * A {@link TransportFactory} based on Netty, which multiplexes the requests over a few connections per server instead
+ * of using a connection per request. Requests are pipelined, and the responses are matched to them by message id.
+ * <p>
+ * The number of connections per server is {@link org.infinispan.client.hotrod.configuration.ConnectionPoolConfiguration#maxActive()}
+ * if it is positive, and {@value #DEFAULT_CONNECTIONS_PER_SERVER} otherwise. The connections are established lazily.
+ * <p>
+ * The transports returned by this factory implement {@link org.infinispan.client.hotrod.impl.transport.AsyncTransport},
+ * so the asynchronous operations of {@link org.infinispan.client.hotrod.RemoteCache} are completed by the I/O threads
+ * without using a thread per request.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public class NettyTransportFactory implements AsyncTransportFactory {
+
+   private static final Log log = LogFactory.getLog(NettyTransportFactory.class, Log.class);
+
+   public static final int DEFAULT_CONNECTIONS_PER_SERVER = 2;
+
+   private final Object lock = new Object();
+   private final ConcurrentMap<SocketAddress, NettyConnection[]> connections = new ConcurrentHashMap<SocketAddress, NettyConnection[]>();
+   private final AtomicInteger nextConnection = new AtomicInteger();
+   private RequestBalancingStrategy balancer;
+   private Collection<SocketAddress> servers;
+   private ConsistentHash consistentHash;
+   private final ConsistentHashFactory hashFactory = new ConsistentHashFactory();
+   private EventLoopGroup eventLoopGroup;
+
+   private volatile boolean tcpNoDelay;
+   private volatile int soTimeout;
+   private volatile int connectTimeout;
+   private volatile int maxRetries;
+   private volatile int connectionsPerServer;
+   private volatile SSLContext sslContext;
+
+   @Override
+   public void start(Codec codec, Configuration configuration, AtomicInteger topologyId) {
+      synchronized (lock) {
+         hashFactory.init(configuration);
+         servers = new ArrayList<SocketAddress>();
+         for (ServerConfiguration server : configuration.servers()) {
+            servers.add(new InetSocketAddress(server.host(), server.port()));
+         }
+         servers = Collections.unmodifiableCollection(servers);
+         balancer = Util.getInstance(configuration.balancingStrategy());
+         tcpNoDelay = configuration.tcpNoDelay();
+         soTimeout = configuration.socketTimeout();
+         connectTimeout = configuration.connectionTimeout();
+         maxRetries = configuration.maxRetries();
+         int maxActive = configuration.connectionPool().maxActive();
+         connectionsPerServer = maxActive > 0 ? maxActive : DEFAULT_CONNECTIONS_PER_SERVER;
+
+         if (configuration.ssl().enabled()) {
+            SslConfiguration ssl = configuration.ssl();
+            if (ssl.sslContext() != null) {
+               sslContext = ssl.sslContext();
+            } else {
+               sslContext = SslContextFactory.getContext(ssl.keyStoreFileName(), ssl.keyStorePassword(), ssl.trustStoreFileName(), ssl.trustStorePassword());
+            }
+         }
+
+         if (log.isDebugEnabled()) {
+            log.debugf("Statically configured servers: %s", servers);
+            log.debugf("Load balancer class: %s", balancer.getClass().getName());
+            log.debugf("Tcp no delay = %b; client socket timeout = %d ms; connect timeout = %d ms; connections per server = %d",
+                       tcpNoDelay, soTimeout, connectTimeout, connectionsPerServer);
+         }
+         eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("HotRodClient-IO", true));
+         balancer.setServers(servers);
+      }
+
+      if (configuration.pingOnStartup())
+         pingServers(codec, topologyId);
+   }
+
+   private void pingServers(Codec codec, AtomicInteger topologyId) {
+      for (SocketAddress addr : getServers()) {
+         Transport transport = null;
+         try {
+            // Go through all statically configured nodes and force a
+            // connection to be established and a ping message to be sent.
+            transport = getTransport(addr);
+            new PingOperation(codec, topologyId, transport).execute();
+         } catch (Exception e) {
+            // Ping's objective is to retrieve a potentially newer
+            // version of the Hot Rod cluster topology, so ignore
+            // exceptions from nodes that might not be up any more.
+            if (log.isTraceEnabled())
+               log.tracef(e, "Ignoring exception pinging configured server %s to establish a connection", addr);
+         } finally {
+            if (transport != null)
+               releaseTransport(transport);
+         }
+      }
+   }
+
+   @Override
+   public void destroy() {
+      EventLoopGroup group;
+      synchronized (lock) {
+         group = eventLoopGroup;
+      }
+      for (SocketAddress server : connections.keySet()) {
+         closeConnections(server);
+      }
+      if (group != null) {
+         group.shutdownGracefully().awaitUninterruptibly();
+      }
+   }
+
+   @Override
+   public void updateHashFunction(Map<SocketAddress, Set<Integer>> servers2Hash, int numKeyOwners, short hashFunctionVersion, int hashSpace) {
+      synchronized (lock) {
+         ConsistentHash hash = hashFactory.newConsistentHash(hashFunctionVersion);
+         if (hash == null) {
+            log.noHasHFunctionConfigured(hashFunctionVersion);
+         } else {
+            hash.init(servers2Hash, numKeyOwners, hashSpace);
+         }
+         consistentHash = hash;
+      }
+   }
+
+   @Override
+   public void updateHashFunction(SocketAddress[][] segmentOwners, int numSegments, short hashFunctionVersion) {
+      synchronized (lock) {
+         SegmentConsistentHash hash = hashFactory.newConsistentHash(hashFunctionVersion);
+         if (hash == null) {
+            log.noHasHFunctionConfigured(hashFunctionVersion);
+         } else {
+            hash.init(segmentOwners, numSegments);
+         }
+         consistentHash = hash;
+      }
+   }
+
+   @Override
+   public Transport getTransport(Set<SocketAddress> failedServers) {
+      SocketAddress server;
+      synchronized (lock) {
+         server = balancer.nextServer(failedServers);
+      }
+      return getTransport(server);
+   }
+
+   @Override
+   public Transport getTransport(byte[] key, Set<SocketAddress> failedServers) {
+      SocketAddress server;
+      synchronized (lock) {
+         if (consistentHash != null) {
+            server = consistentHash.getServer(key);
+            if (log.isTraceEnabled()) {
+               log.tracef("Using consistent hash for determining the server: %s", server);
+            }
+         } else {
+            server = balancer.nextServer(failedServers);
+            if (log.isTraceEnabled()) {
+               log.tracef("Using the balancer for determining the server: %s", server);
+            }
+         }
+      }
+      return getTransport(server);
+   }
+
+   private Transport getTransport(SocketAddress server) {
+      return new NettyTransport(getConnection(server), this, false);
+   }
+
+   @Override
+   public Transport getAddressTransport(SocketAddress server) {
+      // The caller may keep reading from the transport, so it gets a connection of its own
+      return new NettyTransport(connect(server), this, true);
+   }
+
+   private NettyConnection getConnection(SocketAddress server) {
+      NettyConnection[] serverConnections = connections.get(server);
+      if (serverConnections == null) {
+         serverConnections = new NettyConnection[connectionsPerServer];
+         NettyConnection[] existing = connections.putIfAbsent(server, serverConnections);
+         if (existing != null) {
+            serverConnections = existing;
+         }
+      }
+      int index = (nextConnection.getAndIncrement() & Integer.MAX_VALUE) % serverConnections.length;
+      NettyConnection connection = serverConnections[index];
+      if (connection != null && connection.isOpen()) {
+         return connection;
+      }
+      // Connecting is rare, so there is no need to allow connecting to several servers at the same time
+      synchronized (serverConnections) {
+         connection = serverConnections[index];
+         if (connection == null || !connection.isOpen()) {
+            connection = connect(server);
+            serverConnections[index] = connection;
+         }
+         return connection;
+      }
+   }
+
+   private NettyConnection connect(SocketAddress server) {
+      EventLoopGroup group;
+      synchronized (lock) {
+         group = eventLoopGroup;
+      }
+      final NettyConnection connection = new NettyConnection(server);
+      Bootstrap bootstrap = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+            .handler(new ChannelInitializer<SocketChannel>() {
+               @Override
+               protected void initChannel(SocketChannel ch) {
+                  connection.setChannel(ch);
+                  SSLContext ctx = sslContext;
+                  if (ctx != null) {
+                     SSLEngine sslEngine = ctx.createSSLEngine();
+                     sslEngine.setUseClientMode(true);
+                     ch.pipeline().addLast("ssl", new SslHandler(sslEngine));
+                  }
+                  ch.pipeline().addLast("connection", connection);
+               }
+            });
+      ChannelFuture future = bootstrap.connect(server).awaitUninterruptibly();
+      if (!future.isSuccess()) {
+         String message = "Could not connect to server";
+         log.debug(message, future.cause());
+         throw new TransportException(message, future.cause(), server);
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Created connection: %s", connection);
+      }
+      return connection;
+   }
+
+   private void closeConnections(SocketAddress server) {
+      NettyConnection[] serverConnections = connections.remove(server);
+      if (serverConnections != null) {
+         synchronized (serverConnections) {
+            for (NettyConnection connection : serverConnections) {
+               if (connection != null) {
+                  connection.close(null);
+               }
+            }
+         }
+      }
+   }
+
+   @Override
+   public void releaseTransport(Transport transport) {
+      NettyTransport nettyTransport = (NettyTransport) transport;
+      if (nettyTransport.isDedicated()) {
+         nettyTransport.getConnection().close(null);
+      } else if (!nettyTransport.isValid()) {
+         // The response may have been partially read, so the connection cannot be used any more
+         if (log.isTraceEnabled()) {
+            log.tracef("Dropping connection as it is no longer valid: %s", nettyTransport);
+         }
+         nettyTransport.getConnection().close(null);
+      } else {
+         nettyTransport.responseConsumed();
+      }
+   }
+
+   @Override
+   public void invalidateTransport(SocketAddress serverAddress, Transport transport) {
+      if (transport != null) {
+         transport.invalidate();
+         ((NettyTransport) transport).getConnection().close(null);
+      } else {
+         // All connections to the server address are invalidated
+         closeConnections(serverAddress);
+      }
+   }
+
+   @Override
+   public void updateServers(Collection<SocketAddress> newServers) {
+      // This is invoked while reading a response, possibly by an I/O thread, so nothing here may block
+      synchronized (lock) {
+         Set<SocketAddress> addedServers = new HashSet<SocketAddress>(newServers);
+         addedServers.removeAll(servers);
+         Set<SocketAddress> failedServers = new HashSet<SocketAddress>(servers);
+         failedServers.removeAll(newServers);
+         if (log.isTraceEnabled()) {
+            log.tracef("Current list: %s", servers);
+            log.tracef("New list: %s", newServers);
+            log.tracef("Added servers: %s", addedServers);
+            log.tracef("Removed servers: %s", failedServers);
+         }
+         if (failedServers.isEmpty() && newServers.isEmpty()) {
+            log.debug("Same list of servers, not changing the connections");
+            return;
+         }
+
+         // The connections to the new servers are established when they are first needed
+         for (SocketAddress server : addedServers) {
+            log.newServerAdded(server);
+         }
+
+         balancer.setServers(newServers);
+
+         for (SocketAddress server : failedServers) {
+            log.removingServer(server);
+            closeConnections(server);
+         }
+
+         servers = Collections.unmodifiableList(new ArrayList<SocketAddress>(newServers));
+      }
+   }
+
+   @Override
+   public Collection<SocketAddress> getServers() {
+      synchronized (lock) {
+         return servers;
+      }
+   }
+
+   /**
+    * Note that the returned <code>ConsistentHash</code> may not be thread-safe.
+    */
+   @Override
+   public ConsistentHash getConsistentHash() {
+      synchronized (lock) {
+         return consistentHash;
+      }
+   }
+
+   @Override
+   public ConsistentHashFactory getConsistentHashFactory() {
+      return hashFactory;
+   }
+
+   @Override
+   public boolean isTcpNoDelay() {
+      return tcpNoDelay;
+   }
+
+   @Override
+   public int getMaxRetries() {
+      if (Thread.currentThread().isInterrupted()) {
+         return -1;
+      }
+      return maxRetries;
+   }
+
+   @Override
+   public int getSoTimeout() {
+      return soTimeout;
+   }
+
+   @Override
+   public int getConnectTimeout() {
+      return connectTimeout;
+   }
+
+   @Override
+   public SSLContext getSSLContext() {
+      return sslContext;
+   }
+
+   /**
+    * Note that the returned <code>RequestBalancingStrategy</code> may not be thread-safe.
+    */
+   public RequestBalancingStrategy getBalancer() {
+      synchronized (lock) {
+         return balancer;
+      }
+   }
+}
@@ -198,6 +198,11 @@ public Transport getTransport(byte[] key, Set<SocketAddress> failedServers) {
       return borrowTransportFromPool(server);
    }
 
+   @Override
+   public Transport getAddressTransport(SocketAddress server) {
+      return borrowTransportFromPool(server);
+   }
+
    @Override
    public void releaseTransport(Transport transport) {
       // The invalidateObject()/returnObject() calls could take a long time, so we hold the lock only until we get the connection pool reference
@@ -279,6 +284,7 @@ public void updateServers(Collection<SocketAddress> newServers) {
       }
    }
 
+   @Override
    public Collection<SocketAddress> getServers() {
       synchronized (lock) {
          return servers;
@@ -310,6 +316,7 @@ private Transport borrowTransportFromPool(SocketAddress server) {
    /**
     * Note that the returned <code>ConsistentHash</code> may not be thread-safe.
     */
+   @Override
    public ConsistentHash getConsistentHash() {
       synchronized (lock) {
          return consistentHash;
@@ -127,4 +127,26 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Invalid max_retries (value=%s). Value should be greater or equal than zero.", id = 4029)
    CacheConfigurationException invalidMaxRetries(int retriesPerServer);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Received a response with an unexpected message id (%d) from %s, closing the connection", id = 4030)
+   void unexpectedMessageId(long messageId, SocketAddress server);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Client listener %s lost its connection to %s, it will not receive any more events", id = 4031)
+   void clientListenerConnectionLost(Object listener, SocketAddress server, @Cause Throwable cause);
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Unexpected error invoking client listener method %s", id = 4032)
+   void unexpectedErrorInvokingClientListener(Object method, @Cause Throwable cause);
+
+   @Message(value = "Invalid near cache max entries (value=%s). Value should be greater than zero when the near cache is enabled.", id = 4033)
+   CacheConfigurationException invalidNearCacheMaxEntries(int maxEntries);
+
+   @Message(value = "The near cache needs version 2.0 of the protocol or later, but version %s is configured", id = 4034)
+   CacheConfigurationException nearCacheRequiresClientListeners(String protocolVersion);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to register the near cache listener of cache '%s', entries will be read from the server", id = 4035)
+   void unableToConnectNearCache(String cacheName, @Cause Throwable cause);
 }
@@ -0,0 +1,100 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the GET_ALL and PUT_ALL operations, which read and write several entries with a single request per server.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional")
+public abstract class BaseGetAllPutAllTest extends MultipleCacheManagersTest {
+   protected HotRodServer[] hotrodServers;
+   protected RemoteCacheManager remoteCacheManager;
+   protected RemoteCache<Object, Object> remoteCache;
+
+   abstract protected int numberOfHotRodServers();
+
+   abstract protected ConfigurationBuilder clusterConfig();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      final int numServers = numberOfHotRodServers();
+      hotrodServers = new HotRodServer[numServers];
+
+      createCluster(hotRodCacheConfiguration(clusterConfig()), numberOfHotRodServers());
+
+      for (int i = 0; i < numServers; i++) {
+         EmbeddedCacheManager cm = cacheManagers.get(i);
+         hotrodServers[i] = TestHelper.startHotRodServer(cm);
+      }
+
+      String servers = TestHelper.getServersString(hotrodServers);
+
+      remoteCacheManager = new RemoteCacheManager(servers);
+      remoteCache = remoteCacheManager.getCache();
+   }
+
+   @AfterClass
+   public void release() {
+      killRemoteCacheManager(remoteCacheManager);
+      killServers(hotrodServers);
+   }
+
+   public void testPutAllGetAll() {
+      // More entries than fit in a single request
+      Map<Object, Object> data = new HashMap<Object, Object>();
+      for (int i = 0; i < 2500; i++) {
+         data.put("k" + i, "v" + i);
+      }
+      remoteCache.putAll(data);
+
+      for (int i = 0; i < 2500; i += 100) {
+         assertEquals("v" + i, remoteCache.get("k" + i));
+      }
+      assertEquals(data, remoteCache.getAll(data.keySet()));
+   }
+
+   public void testGetAllMissingKeys() {
+      remoteCache.put("a", "1");
+      remoteCache.put("b", "2");
+      Set<Object> keys = new HashSet<Object>();
+      keys.add("a");
+      keys.add("b");
+      keys.add("missing");
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      expected.put("a", "1");
+      expected.put("b", "2");
+      assertEquals(expected, remoteCache.getAll(keys));
+      assertTrue(remoteCache.getAll(Collections.singleton("missing")).isEmpty());
+      assertTrue(remoteCache.getAll(Collections.emptySet()).isEmpty());
+   }
+
+   public void testPutAllWithLifespan() {
+      Map<Object, Object> data = new HashMap<Object, Object>();
+      data.put("x", "1");
+      data.put("y", "2");
+      remoteCache.putAll(data, 1000, TimeUnit.SECONDS);
+      assertEquals(1000, remoteCache.getWithMetadata("x").getLifespan());
+      assertEquals(1000, remoteCache.getWithMetadata("y").getLifespan());
+      assertEquals(-1, remoteCache.getWithMetadata("y").getMaxIdle());
+   }
+}
@@ -0,0 +1,227 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCreatedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+import org.infinispan.client.hotrod.event.ClientEvent;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.Converter;
+import org.infinispan.notifications.ConverterFactory;
+import org.infinispan.notifications.KeyValueFilter;
+import org.infinispan.notifications.KeyValueFilterFactory;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the listeners that Hot Rod clients register in the server, including the ones using the filter and converter
+ * factories deployed in the server.
+ *
+ * @since 7.0
+ */
+@Test(testName = "client.hotrod.ClientListenerTest", groups = "functional")
+public class ClientListenerTest extends SingleCacheManagerTest {
+
+   private HotRodServer hotRodServer;
+   private RemoteCacheManager remoteCacheManager;
+   private RemoteCache<String, String> remoteCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      cacheManager = TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration());
+      cache = cacheManager.getCache();
+
+      hotRodServer = TestHelper.startHotRodServer(cacheManager);
+      hotRodServer.addKeyValueFilterFactory("key-filter", new KeyFilterFactory());
+      hotRodServer.addConverterFactory("value-converter", new ValueConverterFactory());
+
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            new org.infinispan.client.hotrod.configuration.ConfigurationBuilder();
+      clientBuilder.addServer().host("localhost").port(hotRodServer.getPort());
+      remoteCacheManager = new RemoteCacheManager(clientBuilder.build());
+      remoteCache = remoteCacheManager.getCache();
+      return cacheManager;
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      HotRodClientTestingUtil.killRemoteCacheManager(remoteCacheManager);
+      HotRodClientTestingUtil.killServers(hotRodServer);
+      super.destroyAfterClass();
+   }
+
+   public void testEntryEvents() throws Exception {
+      EventLogListener listener = new EventLogListener();
+      remoteCache.addClientListener(listener);
+      try {
+         assertEquals(1, remoteCache.getListeners().size());
+         remoteCache.put("k", "v1");
+         ClientCacheEntryCreatedEvent<String> created = listener.pollEvent(ClientCacheEntryCreatedEvent.class);
+         assertEquals("k", created.getKey());
+         remoteCache.put("k", "v2");
+         ClientCacheEntryModifiedEvent<String> modified = listener.pollEvent(ClientCacheEntryModifiedEvent.class);
+         assertEquals("k", modified.getKey());
+         assertEquals(remoteCache.getVersioned("k").getVersion(), modified.getVersion());
+         remoteCache.remove("k");
+         ClientCacheEntryRemovedEvent<String> removed = listener.pollEvent(ClientCacheEntryRemovedEvent.class);
+         assertEquals("k", removed.getKey());
+      } finally {
+         remoteCache.removeClientListener(listener);
+      }
+      assertTrue(remoteCache.getListeners().isEmpty());
+
+      remoteCache.put("k", "v3");
+      assertNull(listener.events.poll(500, TimeUnit.MILLISECONDS));
+      // The connection of the removed listener is not used by the other operations
+      assertEquals("v3", remoteCache.get("k"));
+   }
+
+   public void testFilteredEvents() throws Exception {
+      FilteredListener listener = new FilteredListener();
+      remoteCache.addClientListener(listener, new Object[]{"wanted"}, null);
+      try {
+         remoteCache.put("unwanted", "v");
+         remoteCache.put("wanted", "v");
+         ClientCacheEntryCreatedEvent<String> created = listener.pollEvent(ClientCacheEntryCreatedEvent.class);
+         assertEquals("wanted", created.getKey());
+         assertNull(listener.events.poll(500, TimeUnit.MILLISECONDS));
+      } finally {
+         remoteCache.removeClientListener(listener);
+      }
+   }
+
+   public void testConvertedEvents() throws Exception {
+      ConvertedListener listener = new ConvertedListener();
+      remoteCache.addClientListener(listener);
+      try {
+         remoteCache.put("ck", "cv1");
+         ClientCacheEntryCustomEvent<String> custom = listener.pollEvent(ClientCacheEntryCustomEvent.class);
+         assertEquals("cv1", custom.getEventData());
+         assertEquals(ClientEvent.Type.CLIENT_CACHE_ENTRY_CREATED, custom.getType());
+         remoteCache.put("ck", "cv2");
+         custom = listener.pollEvent(ClientCacheEntryCustomEvent.class);
+         assertEquals("cv2", custom.getEventData());
+         assertEquals(ClientEvent.Type.CLIENT_CACHE_ENTRY_MODIFIED, custom.getType());
+      } finally {
+         remoteCache.removeClientListener(listener);
+      }
+   }
+
+   public void testManyListeners() throws Exception {
+      EventLogListener first = new EventLogListener();
+      EventLogListener second = new EventLogListener();
+      remoteCache.addClientListener(first);
+      remoteCache.addClientListener(second);
+      try {
+         remoteCache.put("mk", "v");
+         assertEquals("mk", first.pollEvent(ClientCacheEntryCreatedEvent.class).getKey());
+         assertEquals("mk", second.pollEvent(ClientCacheEntryCreatedEvent.class).getKey());
+      } finally {
+         remoteCache.removeClientListener(first);
+      }
+      remoteCache.put("mk", "v2");
+      assertEquals("mk", second.pollEvent(ClientCacheEntryModifiedEvent.class).getKey());
+      assertNull(first.events.poll(500, TimeUnit.MILLISECONDS));
+      remoteCache.removeClientListener(second);
+   }
+
+   @Test(expectedExceptions = HotRodClientException.class)
+   public void testMissingFilterFactory() {
+      remoteCache.addClientListener(new MissingFilterListener());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testNotAnnotatedListener() {
+      remoteCache.addClientListener(new Object());
+   }
+
+   @ClientListener
+   public static class EventLogListener {
+      final BlockingQueue<ClientEvent> events = new LinkedBlockingQueue<ClientEvent>();
+
+      @ClientCacheEntryCreated
+      @ClientCacheEntryModified
+      @ClientCacheEntryRemoved
+      public void handleEvent(ClientEvent event) {
+         events.add(event);
+      }
+
+      @SuppressWarnings("unchecked")
+      <E extends ClientEvent> E pollEvent(Class<E> type) throws InterruptedException {
+         ClientEvent event = events.poll(10, TimeUnit.SECONDS);
+         assertTrue("Unexpected event " + event, type.isInstance(event));
+         return (E) event;
+      }
+   }
+
+   @ClientListener(filterFactoryName = "key-filter")
+   public static class FilteredListener extends EventLogListener {
+   }
+
+   @ClientListener(converterFactoryName = "value-converter")
+   public static class ConvertedListener extends EventLogListener {
+   }
+
+   @ClientListener(filterFactoryName = "missing-filter")
+   public static class MissingFilterListener extends EventLogListener {
+   }
+
+   static class KeyFilterFactory implements KeyValueFilterFactory {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> KeyValueFilter<K, V> getKeyValueFilter(Object[] params) {
+         return (KeyValueFilter<K, V>) new KeyFilter((byte[]) params[0]);
+      }
+   }
+
+   static class KeyFilter implements KeyValueFilter<byte[], byte[]>, Serializable {
+      private final byte[] key;
+
+      KeyFilter(byte[] key) {
+         this.key = key;
+      }
+
+      @Override
+      public boolean accept(byte[] key, byte[] value, Metadata metadata) {
+         return Arrays.equals(this.key, key);
+      }
+   }
+
+   static class ValueConverterFactory implements ConverterFactory {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V, C> Converter<K, V, C> getConverter(Object[] params) {
+         return (Converter<K, V, C>) new ValueConverter();
+      }
+   }
+
+   static class ValueConverter implements Converter<byte[], byte[], byte[]>, Serializable {
+      @Override
+      public byte[] convert(byte[] key, byte[] value, Metadata metadata) {
+         // The value is sent as it was marshalled by the client
+         return value;
+      }
+   }
+}
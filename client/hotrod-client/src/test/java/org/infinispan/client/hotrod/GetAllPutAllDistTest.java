@@ -0,0 +1,22 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * @since 7.0
+ */
+@Test(testName = "client.hotrod.GetAllPutAllDistTest", groups = "functional")
+public class GetAllPutAllDistTest extends BaseGetAllPutAllTest {
+
+   @Override
+   protected int numberOfHotRodServers() {
+      return 3;
+   }
+
+   @Override
+   protected ConfigurationBuilder clusterConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+}
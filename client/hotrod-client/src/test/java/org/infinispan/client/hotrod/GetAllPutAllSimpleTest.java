@@ -0,0 +1,22 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * @since 7.0
+ */
+@Test(testName = "client.hotrod.GetAllPutAllSimpleTest", groups = "functional")
+public class GetAllPutAllSimpleTest extends BaseGetAllPutAllTest {
+
+   @Override
+   protected int numberOfHotRodServers() {
+      return 1;
+   }
+
+   @Override
+   protected ConfigurationBuilder clusterConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+   }
+}
@@ -0,0 +1,89 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.impl.VersionedValueImpl;
+import org.infinispan.client.hotrod.impl.near.LirsNearCache;
+import org.infinispan.client.hotrod.impl.near.LruNearCache;
+import org.infinispan.client.hotrod.impl.near.NearCache;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the bounded storage of the near cache.
+ *
+ * @since 7.0
+ */
+@Test(groups = "unit", testName = "client.hotrod.NearCacheEvictionTest")
+public class NearCacheEvictionTest {
+
+   public void testLruEvictsLeastRecentlyUsed() {
+      NearCache<Integer, String> cache = new LruNearCache<Integer, String>(3);
+      put(cache, 1, 2, 3);
+      assertNotNull(cache.get(1));
+      put(cache, 4);
+      assertEquals(3, cache.size());
+      assertNull(cache.get(2));
+      assertNotNull(cache.get(1));
+      assertNotNull(cache.get(4));
+   }
+
+   public void testLirsKeepsHotEntriesDuringScan() {
+      NearCache<Integer, String> cache = new LirsNearCache<Integer, String>(20);
+      for (int i = 0; i < 10; i++) {
+         put(cache, i);
+      }
+      for (int i = 0; i < 10; i++) {
+         assertNotNull(cache.get(i));
+      }
+      // Many entries read only once
+      for (int i = 100; i < 1000; i++) {
+         put(cache, i);
+         assertTrue(cache.size() <= 20);
+      }
+      for (int i = 0; i < 10; i++) {
+         assertNotNull("Entry " + i + " evicted", cache.get(i));
+      }
+   }
+
+   public void testLirsPromotesEntriesReadAgain() {
+      NearCache<Integer, String> cache = new LirsNearCache<Integer, String>(10);
+      for (int i = 0; i < 9; i++) {
+         put(cache, i);
+      }
+      // Evicted from the single HIR slot, but read again soon
+      put(cache, 100);
+      put(cache, 101);
+      assertNull(cache.get(100));
+      put(cache, 100);
+      put(cache, 102);
+      assertNotNull(cache.get(100));
+      assertTrue(cache.size() <= 10);
+   }
+
+   public void testLirsRemoveAndClear() {
+      NearCache<Integer, String> cache = new LirsNearCache<Integer, String>(10);
+      for (int i = 0; i < 50; i++) {
+         put(cache, i);
+         if (i % 3 == 0) {
+            cache.remove(i);
+         }
+      }
+      assertTrue(cache.size() <= 10);
+      for (int i = 0; i < 50; i += 3) {
+         assertNull(cache.get(i));
+      }
+      cache.clear();
+      assertEquals(0, cache.size());
+      put(cache, 1);
+      assertEquals("v1", cache.get(1).getValue());
+   }
+
+   private void put(NearCache<Integer, String> cache, int... keys) {
+      for (int key : keys) {
+         cache.put(key, new VersionedValueImpl<String>(key, "v" + key));
+      }
+   }
+}
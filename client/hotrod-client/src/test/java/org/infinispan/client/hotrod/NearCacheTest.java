@@ -0,0 +1,130 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.NearCacheEvictionStrategy;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that the near cache serves the reads locally, and that it is invalidated by the writes of this client and of
+ * the other clients.
+ *
+ * @since 7.0
+ */
+@Test(testName = "client.hotrod.NearCacheTest", groups = "functional")
+public class NearCacheTest extends SingleCacheManagerTest {
+
+   private HotRodServer hotRodServer;
+   private RemoteCacheManager nearCacheManager;
+   private RemoteCacheManager otherCacheManager;
+   private RemoteCache<String, String> nearCache;
+   private RemoteCache<String, String> otherCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = hotRodCacheConfiguration();
+      builder.jmxStatistics().enable();
+      cacheManager = TestCacheManagerFactory.createCacheManager(builder);
+      cache = cacheManager.getCache();
+      hotRodServer = TestHelper.startHotRodServer(cacheManager);
+
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            new org.infinispan.client.hotrod.configuration.ConfigurationBuilder();
+      clientBuilder.addServer().host("localhost").port(hotRodServer.getPort())
+            .nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(100);
+      nearCacheManager = new RemoteCacheManager(clientBuilder.build());
+      nearCache = nearCacheManager.getCache();
+      otherCacheManager = new RemoteCacheManager("localhost", hotRodServer.getPort());
+      otherCache = otherCacheManager.getCache();
+      return cacheManager;
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      HotRodClientTestingUtil.killRemoteCacheManagers(nearCacheManager, otherCacheManager);
+      HotRodClientTestingUtil.killServers(hotRodServer);
+      super.destroyAfterClass();
+   }
+
+   public void testReadsServedLocally() {
+      otherCache.put("local", "v1");
+      assertEquals("v1", nearCache.get("local"));
+      long retrievals = cache.getAdvancedCache().getStats().getRetrievals();
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v1", nearCache.get("local"));
+         VersionedValue<String> versioned = nearCache.getVersioned("local");
+         assertEquals("v1", versioned.getValue());
+         assertEquals(otherCache.getVersioned("local").getVersion(), versioned.getVersion());
+      }
+      // Only the reads of the other client reached the server
+      assertEquals(retrievals + 10, cache.getAdvancedCache().getStats().getRetrievals());
+   }
+
+   public void testInvalidatedByOtherClients() throws Exception {
+      otherCache.put("other", "v1");
+      assertEquals("v1", nearCache.get("other"));
+      otherCache.put("other", "v2");
+      assertEventually("other", "v2");
+      otherCache.remove("other");
+      assertEventually("other", null);
+   }
+
+   public void testInvalidatedByOwnWrites() throws Exception {
+      nearCache.put("own", "v1");
+      assertEquals("v1", nearCache.get("own"));
+      nearCache.put("own", "v2");
+      assertEquals("v2", nearCache.get("own"));
+      long version = nearCache.getVersioned("own").getVersion();
+      nearCache.replaceWithVersion("own", "v3", version);
+      assertEquals("v3", nearCache.get("own"));
+      nearCache.replaceAsync("own", "v4").get(10, TimeUnit.SECONDS);
+      assertEquals("v4", nearCache.get("own"));
+      nearCache.remove("own");
+      assertNull(nearCache.get("own"));
+   }
+
+   public void testMortalEntriesNotCached() {
+      otherCache.put("mortal", "v1", 10, TimeUnit.MINUTES);
+      assertEquals("v1", nearCache.get("mortal"));
+      long retrievals = cache.getAdvancedCache().getStats().getRetrievals();
+      assertEquals("v1", nearCache.get("mortal"));
+      assertEquals(retrievals + 1, cache.getAdvancedCache().getStats().getRetrievals());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testMaxEntriesRequired() {
+      new org.infinispan.client.hotrod.configuration.ConfigurationBuilder()
+            .nearCache().mode(NearCacheMode.INVALIDATED).strategy(NearCacheEvictionStrategy.LRU).build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testProtocolVersionRequired() {
+      new org.infinispan.client.hotrod.configuration.ConfigurationBuilder().protocolVersion("1.3")
+            .nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(10).build();
+   }
+
+   private void assertEventually(final String key, final String expected) {
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            String value = nearCache.get(key);
+            return expected == null ? value == null : expected.equals(value);
+         }
+      });
+      assertEquals(expected, nearCache.get(key));
+   }
+}
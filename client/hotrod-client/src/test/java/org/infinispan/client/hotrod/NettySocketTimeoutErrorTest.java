@@ -0,0 +1,53 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.net.SocketTimeoutException;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the socket timeout of the requests sent with the {@link NettyTransportFactory}, whether their response is read
+ * by the calling thread or decoded on the event loop.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.NettySocketTimeoutErrorTest")
+public class NettySocketTimeoutErrorTest extends SocketTimeoutErrorTest {
+
+   @Override
+   protected Properties getClientProperties() {
+      Properties props = super.getClientProperties();
+      props.setProperty(ConfigurationProperties.TRANSPORT_FACTORY, NettyTransportFactory.class.getName());
+      // The request and its single retry time out before the response arrives, after 6 seconds
+      props.setProperty(ConfigurationProperties.SO_TIMEOUT, "1000");
+      props.setProperty(ConfigurationProperties.MAX_RETRIES, "0");
+      return props;
+   }
+
+   public void testErrorWhileDoingAsyncPut(Method m) throws Exception {
+      remoteCache = remoteCacheManager.getCache();
+
+      remoteCache.putAsync(k(m), v(m)).get(10, TimeUnit.SECONDS);
+      assertEquals(v(m), remoteCache.getAsync(k(m)).get(10, TimeUnit.SECONDS));
+
+      try {
+         remoteCache.putAsync("FailFailFail", "whatever...").get(10, TimeUnit.SECONDS);
+         fail("No exception was thrown.");
+      } catch (ExecutionException e) {
+         assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof TransportException);
+         assertTrue(String.valueOf(e.getCause().getCause()), e.getCause().getCause() instanceof SocketTimeoutException);
+      }
+   }
+}
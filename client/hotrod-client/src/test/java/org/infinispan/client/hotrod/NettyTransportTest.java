@@ -0,0 +1,165 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManagers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the {@link NettyTransportFactory}, pipelining the requests of many threads over a single connection per
+ * server.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.NettyTransportTest")
+public class NettyTransportTest extends MultiHotRodServersTest {
+
+   private static final int NUM_SERVERS = 3;
+
+   private RemoteCache<String, String> remoteCache;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = hotRodCacheConfiguration(
+            getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false));
+      createHotRodServers(NUM_SERVERS, builder);
+      remoteCache = client(0).getCache();
+   }
+
+   @Override
+   protected org.infinispan.client.hotrod.configuration.ConfigurationBuilder createHotRodClientConfigurationBuilder(int serverPort) {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder = super.createHotRodClientConfigurationBuilder(serverPort);
+      clientBuilder.pingOnStartup(true)
+            .forceReturnValues(true)
+            .transportFactory(NettyTransportFactory.class)
+            .connectionPool().maxActive(1);
+      return clientBuilder;
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroy() {
+      killRemoteCacheManagers(clients.toArray(new RemoteCacheManager[clients.size()]));
+      super.destroy();
+   }
+
+   public void testSyncOperations() {
+      assertNull(remoteCache.put("k", "v1"));
+      assertEquals("v1", remoteCache.get("k"));
+      assertEquals("v1", remoteCache.putIfAbsent("k", "v2"));
+      assertEquals("v1", remoteCache.replace("k", "v3"));
+      assertTrue(remoteCache.containsKey("k"));
+      VersionedValue<String> versioned = remoteCache.getVersioned("k");
+      assertEquals("v3", versioned.getValue());
+      assertFalse(remoteCache.replaceWithVersion("k", "v4", versioned.getVersion() + 1));
+      assertTrue(remoteCache.replaceWithVersion("k", "v4", versioned.getVersion()));
+      assertEquals("v4", remoteCache.remove("k"));
+      assertFalse(remoteCache.containsKey("k"));
+   }
+
+   public void testAsyncOperations() throws Exception {
+      assertNull(remoteCache.putAsync("ak", "v1").get(10, TimeUnit.SECONDS));
+      assertEquals("v1", remoteCache.getAsync("ak").get(10, TimeUnit.SECONDS));
+      assertEquals("v1", remoteCache.putIfAbsentAsync("ak", "v2").get(10, TimeUnit.SECONDS));
+      assertEquals("v1", remoteCache.replaceAsync("ak", "v3").get(10, TimeUnit.SECONDS));
+      long version = remoteCache.getVersioned("ak").getVersion();
+      assertFalse(remoteCache.replaceWithVersionAsync("ak", "v4", version + 1).get(10, TimeUnit.SECONDS));
+      assertTrue(remoteCache.replaceWithVersionAsync("ak", "v4", version).get(10, TimeUnit.SECONDS));
+      version = remoteCache.getVersioned("ak").getVersion();
+      assertTrue(remoteCache.removeWithVersionAsync("ak", version).get(10, TimeUnit.SECONDS));
+      assertNull(remoteCache.removeAsync("ak").get(10, TimeUnit.SECONDS));
+   }
+
+   public void testManyAsyncOperations() throws Exception {
+      int numKeys = 1000;
+      final CountDownLatch listenersNotified = new CountDownLatch(numKeys);
+      List<NotifyingFuture<String>> futures = new ArrayList<NotifyingFuture<String>>();
+      for (int i = 0; i < numKeys; i++) {
+         NotifyingFuture<String> future = remoteCache.putAsync("many" + i, "v" + i);
+         future.attachListener(new FutureListener<String>() {
+            @Override
+            public void futureDone(Future<String> future) {
+               listenersNotified.countDown();
+            }
+         });
+         futures.add(future);
+      }
+      for (NotifyingFuture<String> future : futures) {
+         assertNull(future.get(10, TimeUnit.SECONDS));
+      }
+      assertTrue(listenersNotified.await(10, TimeUnit.SECONDS));
+
+      futures.clear();
+      for (int i = 0; i < numKeys; i++) {
+         futures.add(remoteCache.getAsync("many" + i));
+      }
+      for (int i = 0; i < numKeys; i++) {
+         assertEquals("v" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+   public void testConcurrentThreads() throws Exception {
+      final int numThreads = 10;
+      final int numOps = 200;
+      ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+      try {
+         List<Future<Void>> results = new ArrayList<Future<Void>>();
+         for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            results.add(executor.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  for (int i = 0; i < numOps; i++) {
+                     String key = "t" + thread + "k" + i;
+                     if (i % 2 == 0) {
+                        remoteCache.put(key, key);
+                        assertEquals(key, remoteCache.get(key));
+                     } else {
+                        remoteCache.putAsync(key, key).get(10, TimeUnit.SECONDS);
+                        assertEquals(key, remoteCache.getAsync(key).get(10, TimeUnit.SECONDS));
+                     }
+                  }
+                  return null;
+               }
+            }));
+         }
+         for (Future<Void> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   public void testLargeValues() throws Exception {
+      // Values spanning many reads from the socket
+      char[] chars = new char[256 * 1024];
+      Arrays.fill(chars, 'x');
+      String large = new String(chars);
+      remoteCache.put("large", large);
+      assertEquals(large, remoteCache.get("large"));
+      assertEquals(large, remoteCache.getAsync("large").get(10, TimeUnit.SECONDS));
+      assertEquals(large, remoteCache.removeAsync("large").get(10, TimeUnit.SECONDS));
+   }
+}
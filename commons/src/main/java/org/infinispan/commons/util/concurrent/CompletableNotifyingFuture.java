@@ -0,0 +1,126 @@
+package org.infinispan.commons.util.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link NotifyingNotifiableFuture} completed directly by {@link #notifyDone(Object)} or
+ * {@link #notifyException(Throwable)}. Unlike {@link NotifyingFutureImpl} it does not wait for an underlying future,
+ * so it can be completed by the thread that received the result, e.g. the JGroups thread delivering the last response
+ * of a remote invocation or the I/O thread of a client receiving the response of an asynchronous operation. A future
+ * set with {@link #setFuture(Future)} or {@link #dependsOn(Future)} is only used to propagate the cancellation.
+ *
+ * @since 7.0
+ */
+public class CompletableNotifyingFuture<T> extends BaseNotifyingFuture<T> implements NotifyingNotifiableFuture<T> {
+
+   private final CountDownLatch latch = new CountDownLatch(1);
+   private volatile Future<?> future;
+   private volatile boolean cancelled;
+   private T result;
+   private Throwable exception;
+
+   public static <T> CompletableNotifyingFuture<T> completed(T result) {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      future.notifyDone(result);
+      return future;
+   }
+
+   public static <T> CompletableNotifyingFuture<T> failed(Throwable exception) {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      future.notifyException(exception);
+      return future;
+   }
+
+   @Override
+   public void setFuture(Future<T> future) {
+      dependsOn(future);
+   }
+
+   /**
+    * Sets the future this one depends on, which is cancelled if this future is.
+    */
+   public void dependsOn(Future<?> future) {
+      this.future = future;
+      if (cancelled) {
+         future.cancel(true);
+      }
+   }
+
+   @Override
+   public void notifyDone(T result) {
+      complete(result, null, false);
+   }
+
+   @Override
+   public void notifyException(Throwable exception) {
+      complete(null, exception, false);
+   }
+
+   /**
+    * @return {@code true} if this call completed the future, {@code false} if it was already completed
+    */
+   private boolean complete(T result, Throwable exception, boolean cancel) {
+      synchronized (this) {
+         if (latch.getCount() == 0) {
+            return false;
+         }
+         this.result = result;
+         this.exception = exception;
+         this.cancelled = cancel;
+         latch.countDown();
+      }
+      fireListeners();
+      return true;
+   }
+
+   @Override
+   public boolean cancel(boolean mayInterruptIfRunning) {
+      if (!complete(null, null, true)) {
+         return false;
+      }
+      Future<?> dependency = future;
+      if (dependency != null) {
+         dependency.cancel(mayInterruptIfRunning);
+      }
+      return true;
+   }
+
+   @Override
+   public boolean isCancelled() {
+      return cancelled;
+   }
+
+   @Override
+   public boolean isDone() {
+      return latch.getCount() == 0;
+   }
+
+   @Override
+   public T get() throws InterruptedException, ExecutionException {
+      latch.await();
+      return getResult();
+   }
+
+   @Override
+   public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      if (!latch.await(timeout, unit)) {
+         throw new TimeoutException();
+      }
+      return getResult();
+   }
+
+   private T getResult() throws ExecutionException {
+      if (cancelled) {
+         throw new CancellationException();
+      }
+      if (exception != null) {
+         throw new ExecutionException(exception);
+      }
+      return result;
+   }
+}
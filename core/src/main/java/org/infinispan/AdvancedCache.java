@@ -11,6 +11,7 @@
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -23,6 +24,8 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An advanced interface that exposes additional methods not available on {@link Cache}.
@@ -302,6 +305,18 @@
     */
    V put(K key, V value, Metadata metadata);
 
+   /**
+    * An overloaded form of {@link #putAll(Map)}, which takes in an instance of
+    * {@link Metadata} which can be used to provide metadata information for
+    * all the entries being stored, such as lifespan, version of value...etc.
+    *
+    * @param map the values to store
+    * @param metadata information to store alongside the values
+    *
+    * @since 7.0
+    */
+   void putAll(Map<? extends K, ? extends V> map, Metadata metadata);
+
    /**
     * An overloaded form of {@link #replace(K, V)}, which takes in an
     * instance of {@link Metadata} which can be used to provide metadata
@@ -382,4 +397,94 @@
     * @since 5.3
     */
    CacheEntry<K, V> getCacheEntry(K key);
+
+   /**
+    * Gets a collection of entries, returning them as {@link Map} of the values associated with the set of keys
+    * requested.
+    * <p>
+    * If the cache is configured read-through, and a get for a key would return null because an entry is missing from
+    * the cache, the Cache's {@link org.infinispan.persistence.spi.CacheLoader} is called in an attempt to load the
+    * entry. If an entry cannot be loaded for a given key, the returned Map will contain no entry for that key.
+    * <p>
+    * In clustered caches, the keys which are not available locally are grouped by owner and fetched with a single
+    * remote call per owner, the remote calls being issued in parallel.
+    *
+    * @param keys The keys whose associated values are to be returned.
+    * @return A map of entries that were found for the given keys. Keys not found in the cache are not present in the
+    *         returned map.
+    * @throws NullPointerException if keys is null or if keys contains a null
+    * @since 7.0
+    */
+   Map<K, V> getAll(Set<?> keys);
+
+   /**
+    * Gets a collection of entries from the {@link AdvancedCache}, returning them as {@link Map} of the cache entries
+    * associated with the set of keys requested. The keys are looked up in the same way as in {@link #getAll(Set)}, but
+    * the metadata of the entries, such as their version, is returned along with the values.
+    *
+    * @param keys The keys whose associated entries are to be returned.
+    * @return A map of the cache entries that were found for the given keys. Keys not found in the cache are not
+    *         present in the returned map.
+    * @throws NullPointerException if keys is null or if keys contains a null
+    * @since 7.0
+    */
+   Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys);
+
+   /**
+    * Applies a function to the entry associated with the key and returns the result of the function.
+    * <p>
+    * In clustered caches the function is sent to the primary owner of the key and executed there, while holding the
+    * lock of the key, so the value never has to be fetched by the caller: only the result of the function is sent
+    * back, and only the new value, if the function wrote one, is replicated to the backup owners.  In transactional
+    * caches the function is executed on the originator, as part of the transaction, and its outcome is applied to the
+    * owners when the transaction commits.
+    * <p>
+    * The function can read the value of the entry, update it or remove the entry.  The entry is written with the
+    * default metadata of the cache.
+    *
+    * @param key      the key of the entry
+    * @param function the function to apply, which must be marshallable in clustered caches
+    * @return the result of the function
+    * @throws NullPointerException if the key or the function is null
+    * @since 7.0
+    */
+   <R> R eval(K key, EntryFunction<K, V, R> function);
+
+   /**
+    * Applies a function to the entries associated with the given keys, as with {@link #eval(Object, EntryFunction)}.
+    * The function is applied to each key in turn, each application being atomic on its own.  In non-transactional
+    * synchronous clustered caches, the keys are grouped by primary owner and each owner applies the function to its
+    * keys with a single RPC.
+    *
+    * @param keys     the keys of the entries
+    * @param function the function to apply to each entry
+    * @return the results of the function, by key
+    * @throws NullPointerException if the keys or the function are null, or if the keys contain a null
+    * @since 7.0
+    */
+   <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function);
+
+   /**
+    * Applies a function which only writes, or removes, the entry associated with the key.  As the function doesn't see
+    * the previous value, it is never loaded from the cache store nor fetched from the other owners, and no result is
+    * returned to the caller.
+    *
+    * @param key      the key of the entry
+    * @param function the function to apply; {@link org.infinispan.functional.MutableEntry#getValue()} throws an
+    *                 {@link IllegalStateException} if called from it
+    * @throws NullPointerException if the key or the function is null
+    * @since 7.0
+    */
+   void evalWriteOnly(K key, EntryFunction<K, V, ?> function);
+
+   /**
+    * Applies a write-only function to the entries associated with the given keys, as with
+    * {@link #evalWriteOnly(Object, EntryFunction)}.
+    *
+    * @param keys     the keys of the entries
+    * @param function the function to apply to each entry
+    * @throws NullPointerException if the keys or the function are null, or if the keys contain a null
+    * @since 7.0
+    */
+   void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function);
 }
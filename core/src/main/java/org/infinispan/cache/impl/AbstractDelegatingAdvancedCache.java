@@ -11,6 +11,7 @@
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -25,6 +26,8 @@
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Similar to {@link org.infinispan.cache.impl.AbstractDelegatingCache}, but for {@link AdvancedCache}.
@@ -186,11 +189,46 @@ public CacheEntry getCacheEntry(K key) {
       return cache.getCacheEntry(key);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return cache.getAll(keys);
+   }
+
+   @Override
+   public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
+      return cache.getAllCacheEntries(keys);
+   }
+
+   @Override
+   public <R> R eval(K key, EntryFunction<K, V, R> function) {
+      return cache.eval(key, function);
+   }
+
+   @Override
+   public <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function) {
+      return cache.evalMany(keys, function);
+   }
+
+   @Override
+   public void evalWriteOnly(K key, EntryFunction<K, V, ?> function) {
+      cache.evalWriteOnly(key, function);
+   }
+
+   @Override
+   public void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function) {
+      cache.evalManyWriteOnly(keys, function);
+   }
+
    @Override
    public V put(K key, V value, Metadata metadata) {
       return cache.put(key, value, metadata);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      cache.putAll(map, metadata);
+   }
+
    @Override
    public V replace(K key, V value, Metadata metadata) {
       return cache.replace(key, value, metadata);
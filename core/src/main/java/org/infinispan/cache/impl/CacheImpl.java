@@ -15,9 +15,12 @@
 import javax.transaction.TransactionManager;
 import javax.transaction.xa.XAResource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -35,13 +38,16 @@
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.remote.ClusteredEvalManyCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
@@ -68,10 +74,12 @@
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
@@ -88,7 +96,12 @@
 import org.infinispan.notifications.KeyFilter;
 import org.infinispan.notifications.KeyValueFilter;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.stats.Stats;
 import org.infinispan.stats.impl.StatsImpl;
@@ -206,6 +219,23 @@ private void assertValueNotNull(Object value) {
       }
    }
 
+   private void assertKeysNotNull(Collection<?> keys) {
+      if (keys == null) {
+         throw new NullPointerException("Expected keys cannot be null");
+      }
+      for (Object key : keys) {
+         if (key == null) {
+            throw new NullPointerException("Null keys are not supported!");
+         }
+      }
+   }
+
+   private void assertFunctionNotNull(Object function) {
+      if (function == null) {
+         throw new NullPointerException("Null functions are not supported!");
+      }
+   }
+
    private void assertKeysNotNull(Map<?, ?> data) {
       if (data == null) {
          throw new NullPointerException("Expected map cannot be null");
@@ -401,6 +431,182 @@ public final CacheEntry getCacheEntry(K key) {
       return getCacheEntry(key, null, null);
    }
 
+   @Override
+   public final Map<K, V> getAll(Set<?> keys) {
+      return getAll(keys, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   final Map<K, V> getAll(Set<?> keys, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      assertKeysNotNull(keys);
+      InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, keys.size());
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags, false);
+      return (Map<K, V>) invoker.invoke(ctx, command);
+   }
+
+   @Override
+   public final Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
+      return getAllCacheEntries(keys, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   final Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys, EnumSet<Flag> explicitFlags,
+                                                     ClassLoader explicitClassLoader) {
+      assertKeysNotNull(keys);
+      InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, keys.size());
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags, true);
+      return (Map<K, CacheEntry<K, V>>) invoker.invoke(ctx, command);
+   }
+
+   @Override
+   public final <R> R eval(K key, EntryFunction<K, V, R> function) {
+      return eval(key, function, false, null, null);
+   }
+
+   @Override
+   public final <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function) {
+      return evalMany(keys, function, null, null);
+   }
+
+   @Override
+   public final void evalWriteOnly(K key, EntryFunction<K, V, ?> function) {
+      eval(key, function, true, null, null);
+   }
+
+   @Override
+   public final void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function) {
+      evalManyWriteOnly(keys, function, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   final <R> R eval(K key, EntryFunction<K, V, R> function, boolean writeOnly, EnumSet<Flag> explicitFlags,
+                    ClassLoader explicitClassLoader) {
+      assertKeyNotNull(key);
+      assertFunctionNotNull(function);
+      InvocationContext ctx = getInvocationContextWithImplicitTransaction(false, explicitClassLoader, 1);
+      EvalCommand command = commandsFactory.buildEvalCommand(key, function, writeOnly, defaultMetadata, explicitFlags);
+      return (R) executeCommandAndCommitIfNeeded(ctx, command);
+   }
+
+   final <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function,
+                                EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      assertKeysNotNull(keys);
+      assertFunctionNotNull(function);
+      Map<K, R> results = new HashMap<K, R>(keys.size());
+      if (isEvalManyGroupedByOwner(explicitFlags)) {
+         evalManyByOwner(keys, function, false, explicitFlags, explicitClassLoader, results);
+         return results;
+      }
+      for (K key : keys) {
+         results.put(key, eval(key, function, false, explicitFlags, explicitClassLoader));
+      }
+      return results;
+   }
+
+   final void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function,
+                                EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      assertKeysNotNull(keys);
+      assertFunctionNotNull(function);
+      if (isEvalManyGroupedByOwner(explicitFlags)) {
+         evalManyByOwner(keys, function, true, explicitFlags, explicitClassLoader, null);
+         return;
+      }
+      for (K key : keys) {
+         eval(key, function, true, explicitFlags, explicitClassLoader);
+      }
+   }
+
+   /**
+    * In non-transactional synchronous clustered caches, the keys of an evalMany are grouped by primary owner, so that
+    * a single RPC is sent to each owner. Transactional caches execute the function on the originator anyway.
+    */
+   private boolean isEvalManyGroupedByOwner(EnumSet<Flag> explicitFlags) {
+      return rpcManager != null && distributionManager != null
+            && !config.transaction().transactionMode().isTransactional()
+            && config.clustering().cacheMode().isSynchronous()
+            && (explicitFlags == null || !explicitFlags.contains(Flag.CACHE_MODE_LOCAL)
+                      && !explicitFlags.contains(FORCE_ASYNCHRONOUS));
+   }
+
+   /**
+    * Sends a {@link ClusteredEvalManyCommand} to the primary owner of each group of keys, and applies the function to
+    * the keys owned by this node while waiting for the responses. The keys of an owner which left the cluster or
+    * couldn't execute the command are then evaluated one by one.
+    *
+    * @param results the map receiving the results of the function, or {@code null} for a write-only function
+    */
+   @SuppressWarnings("unchecked")
+   private <R> void evalManyByOwner(Set<? extends K> keys, EntryFunction<K, V, ?> function, boolean writeOnly,
+                                    EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader, Map<K, R> results) {
+      ConsistentHash ch = distributionManager.getWriteConsistentHash();
+      Address self = rpcManager.getAddress();
+      Map<Address, List<K>> keysByOwner = new HashMap<Address, List<K>>();
+      for (K key : keys) {
+         Address owner = ch.locatePrimaryOwner(key);
+         List<K> ownerKeys = keysByOwner.get(owner);
+         if (ownerKeys == null) {
+            ownerKeys = new ArrayList<K>();
+            keysByOwner.put(owner, ownerKeys);
+         }
+         ownerKeys.add(key);
+      }
+      if (trace) log.tracef("Evaluating keys %s, grouped by primary owner: %s", keys, keysByOwner);
+
+      RpcOptions rpcOptions = rpcManager.getDefaultRpcOptions(true);
+      Map<Address, NotifyingFuture<Map<Address, Response>>> futures =
+            new HashMap<Address, NotifyingFuture<Map<Address, Response>>>(keysByOwner.size());
+      for (Map.Entry<Address, List<K>> e : keysByOwner.entrySet()) {
+         if (!e.getKey().equals(self)) {
+            ClusteredEvalManyCommand command = commandsFactory.buildClusteredEvalManyCommand(e.getValue(), function,
+                  writeOnly, defaultMetadata, explicitFlags);
+            futures.put(e.getKey(), rpcManager.invokeRemotelyAsync(Collections.singleton(e.getKey()), command, rpcOptions));
+         }
+      }
+
+      List<K> localKeys = keysByOwner.get(self);
+      if (localKeys != null) {
+         evalEach(localKeys, function, writeOnly, explicitFlags, explicitClassLoader, results);
+      }
+
+      for (Map.Entry<Address, NotifyingFuture<Map<Address, Response>>> e : futures.entrySet()) {
+         List<K> ownerKeys = keysByOwner.get(e.getKey());
+         Response response = null;
+         try {
+            response = e.getValue().get().get(e.getKey());
+         } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(ie);
+         } catch (ExecutionException ee) {
+            if (!(ee.getCause() instanceof SuspectException)) {
+               throw ee.getCause() instanceof RuntimeException ? (RuntimeException) ee.getCause()
+                     : new CacheException(ee.getCause());
+            }
+            if (trace) log.tracef("Owner %s was suspected, evaluating its keys one by one", e.getKey());
+         }
+         if (!(response instanceof SuccessfulResponse)) {
+            if (trace) log.tracef("Unsure or missing response %s from %s, evaluating keys %s one by one", response,
+                                  e.getKey(), ownerKeys);
+            evalEach(ownerKeys, function, writeOnly, explicitFlags, explicitClassLoader, results);
+         } else if (results != null) {
+            List<?> values = (List<?>) ((SuccessfulResponse) response).getResponseValue();
+            for (int i = 0; i < ownerKeys.size(); i++) {
+               results.put(ownerKeys.get(i), (R) values.get(i));
+            }
+         }
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private <R> void evalEach(List<K> keys, EntryFunction<K, V, ?> function, boolean writeOnly,
+                             EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader, Map<K, R> results) {
+      for (K key : keys) {
+         Object result = eval(key, function, writeOnly, explicitFlags, explicitClassLoader);
+         if (results != null) {
+            results.put(key, (R) result);
+         }
+      }
+   }
+
    @Override
    public final V remove(Object key) {
       return remove(key, null, null);
@@ -1464,6 +1670,11 @@ public V put(K key, V value, Metadata metadata) {
       return put(key, value, metadata, null, null);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      putAll(map, metadata, null, null);
+   }
+
    @Override
    public V replace(K key, V value, Metadata metadata) {
       return replace(key, value, metadata, null, null);
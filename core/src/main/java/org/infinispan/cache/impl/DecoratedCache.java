@@ -15,6 +15,7 @@
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.Flag;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.KeyFilter;
@@ -473,6 +474,11 @@ public V put(K key, V value, Metadata metadata) {
       return cacheImplementation.put(key, value, metadata, flags, classLoader.get());
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      cacheImplementation.putAll(map, metadata, flags, classLoader.get());
+   }
+
    @Override
    public NotifyingFuture<V> putAsync(K key, V value, Metadata metadata) {
       return cacheImplementation.putAsync(key, value, metadata, flags, classLoader.get());
@@ -498,4 +504,34 @@ public CacheEntry getCacheEntry(K key) {
       return cacheImplementation.getCacheEntry(key, flags, classLoader.get());
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return cacheImplementation.getAll(keys, flags, classLoader.get());
+   }
+
+   @Override
+   public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
+      return cacheImplementation.getAllCacheEntries(keys, flags, classLoader.get());
+   }
+
+   @Override
+   public <R> R eval(K key, EntryFunction<K, V, R> function) {
+      return cacheImplementation.eval(key, function, false, flags, classLoader.get());
+   }
+
+   @Override
+   public <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function) {
+      return cacheImplementation.evalMany(keys, function, flags, classLoader.get());
+   }
+
+   @Override
+   public void evalWriteOnly(K key, EntryFunction<K, V, ?> function) {
+      cacheImplementation.eval(key, function, true, flags, classLoader.get());
+   }
+
+   @Override
+   public void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function) {
+      cacheImplementation.evalManyWriteOnly(keys, function, flags, classLoader.get());
+   }
+
 }
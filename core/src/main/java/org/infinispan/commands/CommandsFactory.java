@@ -5,12 +5,16 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredEvalManyCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -29,6 +33,7 @@
 import org.infinispan.distexec.mapreduce.Reducer;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
@@ -115,6 +120,17 @@ public interface CommandsFactory {
     */
    ReplaceCommand buildReplaceCommand(Object key, Object oldValue, Object newValue, Metadata metadata, Set<Flag> flags);
 
+   /**
+    * Builds an EvalCommand
+    * @param key key of the entry the function is applied to
+    * @param function function to apply to the entry
+    * @param writeOnly true if the function doesn't read the previous value
+    * @param metadata metadata of the entry, if the function writes it
+    * @param flags Command flags provided by cache
+    * @return an EvalCommand
+    */
+   EvalCommand buildEvalCommand(Object key, EntryFunction function, boolean writeOnly, Metadata metadata, Set<Flag> flags);
+
    /**
     * Builds a SizeCommand
     * @param flags Command flags provided by cache
@@ -132,6 +148,16 @@ public interface CommandsFactory {
     */
    GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, boolean returnEntry);
 
+   /**
+    * Builds a GetAllCommand
+    * @param keys keys to get
+    * @param flags Command flags provided by cache
+    * @param returnEntries boolean indicating whether entire cache entries are
+    *                    returned, otherwise return just the value parts
+    * @return a GetAllCommand
+    */
+   GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries);
+
    /**
     * Builds a KeySetCommand
     * @param flags Command flags provided by cache
@@ -251,6 +277,21 @@ public interface CommandsFactory {
     */
    ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags, boolean acquireRemoteLock, GlobalTransaction gtx);
 
+   /**
+    * Builds a ClusteredGetAllCommand, which is a remote lookup command for several keys
+    * @param keys keys to look up
+    * @return a ClusteredGetAllCommand
+    */
+   ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags);
+
+   /**
+    * Builds a ClusteredEvalManyCommand, which applies a function to several keys on their primary owner
+    * @param keys keys owned by the target node
+    * @return a ClusteredEvalManyCommand
+    */
+   ClusteredEvalManyCommand buildClusteredEvalManyCommand(List<?> keys, EntryFunction function, boolean writeOnly,
+                                                         Metadata metadata, Set<Flag> flags);
+
    /**
     * Builds a LockControlCommand to control explicit remote locking
     *
@@ -328,6 +369,15 @@ <KIn, VIn, KOut, VOut> MapCombineCommand<KIn, VIn, KOut, VOut> buildMapCombineCo
    <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
             String destinationCache, Reducer<KOut, VOut> r, Collection<KOut> keys);
 
+   /**
+    * Builds a ShuffleCommand used to merge a batch of intermediate values of a MapReduce task on the node owning
+    * them in the intermediate cache.
+    *
+    * @param intermediateValues the marshalled intermediate keys and values
+    * @return created ShuffleCommand
+    */
+   ShuffleCommand buildShuffleCommand(String taskId, byte[] intermediateValues);
+
    /**
     * @see GetInDoubtTxInfoCommand
     */
@@ -8,12 +8,16 @@
 import org.infinispan.commands.module.ModuleCommandInitializer;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredEvalManyCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -33,6 +37,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
@@ -53,6 +58,7 @@
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.statetransfer.StateProvider;
 import org.infinispan.statetransfer.StateConsumer;
@@ -204,6 +210,11 @@ public ReplaceCommand buildReplaceCommand(Object key, Object oldValue, Object ne
       return new ReplaceCommand(key, oldValue, newValue, notifier, metadata, flags, configuration.dataContainer().valueEquivalence());
    }
 
+   @Override
+   public EvalCommand buildEvalCommand(Object key, EntryFunction function, boolean writeOnly, Metadata metadata, Set<Flag> flags) {
+      return new EvalCommand(key, function, writeOnly, notifier, metadata, flags);
+   }
+
    @Override
    public SizeCommand buildSizeCommand(Set<Flag> flags) {
       return new SizeCommand(dataContainer, flags);
@@ -229,6 +240,11 @@ public GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, b
       return new GetKeyValueCommand(key, flags, returnEntry);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return new GetAllCommand(keys, flags, returnEntries, configuration.dataContainer().keyEquivalence());
+   }
+
    @Override
    public PutMapCommand buildPutMapCommand(Map<?, ?> map, Metadata metadata, Set<Flag> flags) {
       return new PutMapCommand(map, notifier, metadata, flags);
@@ -289,6 +305,17 @@ public ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags,
             configuration.dataContainer().keyEquivalence());
    }
 
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags) {
+      return new ClusteredGetAllCommand(cacheName, keys, flags);
+   }
+
+   @Override
+   public ClusteredEvalManyCommand buildClusteredEvalManyCommand(List<?> keys, EntryFunction function, boolean writeOnly,
+                                                                Metadata metadata, Set<Flag> flags) {
+      return new ClusteredEvalManyCommand(cacheName, keys, function, writeOnly, metadata, flags);
+   }
+
    /**
     * @param isRemote true if the command is deserialized and is executed remote.
     */
@@ -302,6 +329,9 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
          case ReplaceCommand.COMMAND_ID:
             ((ReplaceCommand) c).init(notifier, configuration);
             break;
+         case EvalCommand.COMMAND_ID:
+            ((EvalCommand) c).init(notifier);
+            break;
          case PutMapCommand.COMMAND_ID:
             ((PutMapCommand) c).init(notifier);
             break;
@@ -372,6 +402,14 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
                   interceptorChain, distributionManager, txTable,
                   configuration.dataContainer().keyEquivalence());
             break;
+         case ClusteredGetAllCommand.COMMAND_ID:
+            ClusteredGetAllCommand clusteredGetAllCommand = (ClusteredGetAllCommand) c;
+            clusteredGetAllCommand.init(icf, this, entryFactory, interceptorChain);
+            break;
+         case ClusteredEvalManyCommand.COMMAND_ID:
+            ClusteredEvalManyCommand clusteredEvalManyCommand = (ClusteredEvalManyCommand) c;
+            clusteredEvalManyCommand.init(icf, this, interceptorChain);
+            break;
          case LockControlCommand.COMMAND_ID:
             LockControlCommand lcc = (LockControlCommand) c;
             lcc.init(interceptorChain, icf, txTable);
@@ -414,6 +452,10 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             ReduceCommand reduceCommand = (ReduceCommand)c;
             reduceCommand.init(mapReduceManager);
             break;
+         case ShuffleCommand.COMMAND_ID:
+            ShuffleCommand shuffleCommand = (ShuffleCommand)c;
+            shuffleCommand.init(mapReduceManager);
+            break;
          case DistributedExecuteCommand.COMMAND_ID:
             DistributedExecuteCommand dec = (DistributedExecuteCommand)c;
             dec.init(cache);
@@ -546,6 +588,11 @@ public <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
       return new ReduceCommand<KOut, VOut>(taskId, r, destintationCache, keys);
    }
 
+   @Override
+   public ShuffleCommand buildShuffleCommand(String taskId, byte[] intermediateValues) {
+      return new ShuffleCommand(taskId, cacheName, intermediateValues);
+   }
+
    @Override
    public CancelCommand buildCancelCommandCommand(UUID commandUUID) {
       return new CancelCommand(cacheName, commandUUID);
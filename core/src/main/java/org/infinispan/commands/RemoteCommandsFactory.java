@@ -7,7 +7,10 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredEvalManyCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -116,6 +119,9 @@ public ReplicableCommand fromStream(byte id, Object[] parameters, byte type) {
             case ApplyDeltaCommand.COMMAND_ID:
                command = new ApplyDeltaCommand();
                break;
+            case EvalCommand.COMMAND_ID:
+               command = new EvalCommand();
+               break;
             case CacheTopologyControlCommand.COMMAND_ID:
                command = new CacheTopologyControlCommand();
                break;
@@ -188,6 +194,12 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case ClusteredGetCommand.COMMAND_ID:
                command = new ClusteredGetCommand(cacheName);
                break;
+            case ClusteredGetAllCommand.COMMAND_ID:
+               command = new ClusteredGetAllCommand(cacheName);
+               break;
+            case ClusteredEvalManyCommand.COMMAND_ID:
+               command = new ClusteredEvalManyCommand(cacheName);
+               break;
             case StateRequestCommand.COMMAND_ID:
                command = new StateRequestCommand(cacheName);
                break;
@@ -210,6 +222,9 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case ReduceCommand.COMMAND_ID:
                command = new ReduceCommand(cacheName);
                break;
+            case ShuffleCommand.COMMAND_ID:
+               command = new ShuffleCommand(cacheName);
+               break;
             case DistributedExecuteCommand.COMMAND_ID:
                command = new DistributedExecuteCommand(cacheName);
                break;
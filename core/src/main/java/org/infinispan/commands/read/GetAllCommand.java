@@ -0,0 +1,157 @@
+package org.infinispan.commands.read;
+
+import org.infinispan.commands.AbstractFlagAffectedCommand;
+import org.infinispan.commands.LocalCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+/**
+ * Implements functionality defined by {@link org.infinispan.AdvancedCache#getAll(java.util.Set)}. The keys are looked
+ * up in a single pass through the interceptor chain, so that keys which are not available locally can be fetched from
+ * their owners with one RPC per owner instead of one RPC per key.
+ * <p/>
+ * The return value is a map containing only the keys that were found. If {@link #isReturnEntries()} is
+ * <tt>true</tt>, the map values are {@link CacheEntry} instances, otherwise they are the plain values.
+ *
+ * @since 7.0
+ */
+public class GetAllCommand extends AbstractFlagAffectedCommand implements LocalCommand {
+
+   private static final Log log = LogFactory.getLog(GetAllCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private Collection<?> keys;
+   private boolean returnEntries;
+   private Equivalence keyEquivalence;
+   private Map<Object, InternalCacheEntry> remotelyFetched;
+
+   public GetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries, Equivalence keyEquivalence) {
+      this.keys = keys;
+      this.flags = flags;
+      this.returnEntries = returnEntries;
+      this.keyEquivalence = keyEquivalence == null ? AnyEquivalence.getInstance() : keyEquivalence;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitGetAllCommand(ctx, this);
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public Map<Object, Object> perform(InvocationContext ctx) throws Throwable {
+      Map<Object, Object> map = CollectionFactory.makeMap(keys.size(), keyEquivalence,
+                                                          AnyEquivalence.getInstance());
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry == null || entry.isNull() || entry.isRemoved()) {
+            if (trace) {
+               log.tracef("Entry for key %s not found", toStr(key));
+            }
+            continue;
+         }
+         if (returnEntries) {
+            map.put(key, entry);
+         } else {
+            Object value = entry.getValue();
+            if (value != null) {
+               map.put(key, value);
+            }
+         }
+      }
+      if (trace) {
+         log.tracef("Found %d out of %d requested entries", map.size(), keys.size());
+      }
+      return map;
+   }
+
+   public Collection<?> getKeys() {
+      return keys;
+   }
+
+   public void setKeys(Collection<?> keys) {
+      this.keys = keys;
+   }
+
+   public boolean isReturnEntries() {
+      return returnEntries;
+   }
+
+   public Equivalence getKeyEquivalence() {
+      return keyEquivalence;
+   }
+
+   /**
+    * @see #getRemotelyFetched()
+    */
+   public void setRemotelyFetched(Map<Object, InternalCacheEntry> remotelyFetched) {
+      this.remotelyFetched = remotelyFetched;
+   }
+
+   /**
+    * If some of the keys had to be fetched from remote owners, the remote entries are stored in this map, keyed by
+    * the requested key.
+    */
+   public Map<Object, InternalCacheEntry> getRemotelyFetched() {
+      return remotelyFetched;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return 0;  // no-op, this command is never replicated
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[0];  // no-op
+   }
+
+   @Override
+   public void setParameters(int commandId, Object[] parameters) {
+      // no-op
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder(getClass().getSimpleName())
+            .append(" {keys=").append(toStr(keys))
+            .append(", returnEntries=").append(returnEntries)
+            .append(", flags=").append(flags)
+            .append("}")
+            .toString();
+   }
+}
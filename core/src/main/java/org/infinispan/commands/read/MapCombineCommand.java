@@ -99,12 +99,14 @@ public void setIntermediateCacheName(String intermediateCacheName) {
     * <p>
     * During execution of map/combine phase, number of intermediate keys/values collected in
     * Collector could potentially become very large. By limiting size of collector intermediate
-    * key/values are transferred to intermediate cache in batches before reduce phase is executed.
+    * key/values are combined, if a combiner is set, and spilled to disk in sorted runs, which are
+    * merged once the map phase is done. The master node also spills the intermediate key/values
+    * it receives when the reduce phase is not distributed.
     * <p>
     * The default value for max collector size is 1024.
     *
     * @param size
-    *           the number of key/value pairs for one batch transfer
+    *           the number of key/value pairs kept in memory
     *
     * @see Mapper#map(Object, Object, Collector)
     */
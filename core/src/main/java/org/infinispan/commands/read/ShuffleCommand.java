@@ -0,0 +1,99 @@
+package org.infinispan.commands.read;
+
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distexec.mapreduce.MapReduceManager;
+
+/**
+ * ShuffleCommand carries a batch of intermediate keys and values of a MapReduce task to the node
+ * owning them in the intermediate cache, where they are merged with the values already shuffled by
+ * the other nodes.
+ * <p>
+ * The batch is marshalled by the node executing the map phase, so that the number of bytes shuffled
+ * can be accounted for without marshalling the values twice.
+ *
+ * @since 7.0
+ */
+public class ShuffleCommand extends BaseRpcCommand {
+
+   public static final int COMMAND_ID = 44;
+   private String taskId;
+   private byte[] intermediateValues;
+   private MapReduceManager mrManager;
+
+   private ShuffleCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public ShuffleCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public ShuffleCommand(String taskId, String cacheName, byte[] intermediateValues) {
+      super(cacheName);
+      this.taskId = taskId;
+      this.intermediateValues = intermediateValues;
+   }
+
+   public void init(MapReduceManager mrManager) {
+      this.mrManager = mrManager;
+   }
+
+   /**
+    * Merges the intermediate values into the intermediate cache on assigned Infinispan node
+    *
+    * @param context
+    *           invocation context
+    * @return null
+    */
+   @Override
+   public Object perform(InvocationContext context) throws Throwable {
+      mrManager.mergeIntermediateValues(this);
+      return null;
+   }
+
+   public String getTaskId() {
+      return taskId;
+   }
+
+   /**
+    * @return the marshalled list of intermediate keys, each followed by a list of its values
+    */
+   public byte[] getIntermediateValues() {
+      return intermediateValues;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[] { taskId, intermediateValues };
+   }
+
+   @Override
+   public void setParameters(int commandId, Object[] args) {
+      if (commandId != COMMAND_ID)
+         throw new IllegalStateException("Invalid method id");
+      taskId = (String) args[0];
+      intermediateValues = (byte[]) args[1];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "ShuffleCommand [taskId=" + taskId + ", cacheName=" + cacheName + ", bytes="
+            + (intermediateValues == null ? 0 : intermediateValues.length) + "]";
+   }
+}
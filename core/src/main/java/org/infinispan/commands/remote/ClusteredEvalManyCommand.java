@@ -0,0 +1,133 @@
+package org.infinispan.commands.remote;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.EvalCommand;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.functional.EntryFunction;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies an {@link EntryFunction} to several keys on their primary owner. The originator of a
+ * {@link org.infinispan.AdvancedCache#evalMany(java.util.Set, EntryFunction)} groups the keys by primary owner and
+ * sends a single command to each owner, instead of an {@link EvalCommand} for each key.
+ * <p/>
+ * The owner applies the function to each key with an {@link EvalCommand} of its own, as if the operation was invoked
+ * locally: each key is locked, updated and replicated to its backup owners on its own, and a key whose primary owner
+ * changed in the meantime is forwarded to its new primary owner.
+ * <p/>
+ * The response is a {@link List} of the results of the function, in the same order as the keys, or <tt>null</tt> if
+ * the function is write-only.
+ *
+ * @since 7.0
+ */
+public class ClusteredEvalManyCommand extends BaseRpcCommand {
+
+   public static final byte COMMAND_ID = 43;
+   private static final Log log = LogFactory.getLog(ClusteredEvalManyCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private List<?> keys;
+   private EntryFunction function;
+   private boolean writeOnly;
+   private Metadata metadata;
+   private Set<Flag> flags;
+
+   private InvocationContextFactory icf;
+   private CommandsFactory commandsFactory;
+   private InterceptorChain invoker;
+
+   private ClusteredEvalManyCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public ClusteredEvalManyCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public ClusteredEvalManyCommand(String cacheName, List<?> keys, EntryFunction function, boolean writeOnly,
+                                   Metadata metadata, Set<Flag> flags) {
+      super(cacheName);
+      this.keys = keys;
+      this.function = function;
+      this.writeOnly = writeOnly;
+      this.metadata = metadata;
+      this.flags = flags;
+   }
+
+   public void init(InvocationContextFactory icf, CommandsFactory commandsFactory, InterceptorChain interceptorChain) {
+      this.icf = icf;
+      this.commandsFactory = commandsFactory;
+      this.invoker = interceptorChain;
+   }
+
+   /**
+    * Applies the function to each key in turn.
+    *
+    * @param context invocation context, ignored.
+    * @return the results of the function, in the order of the keys, or <tt>null</tt> for a write-only function
+    */
+   @Override
+   public List<Object> perform(InvocationContext context) throws Throwable {
+      List<Object> results = writeOnly ? null : new ArrayList<Object>(keys.size());
+      for (Object key : keys) {
+         EvalCommand command = commandsFactory.buildEvalCommand(key, function, writeOnly, metadata, flags);
+         Object result = invoker.invoke(icf.createSingleKeyNonTxInvocationContext(), command);
+         if (results != null) {
+            results.add(result);
+         }
+      }
+      if (trace) log.tracef("Applied function %s to %d keys", function, keys.size());
+      return results;
+   }
+
+   public List<?> getKeys() {
+      return keys;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[]{keys, function, writeOnly, metadata, Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] args) {
+      if (commandId != COMMAND_ID) throw new IllegalStateException("Invalid method id");
+      keys = (List<?>) args[0];
+      function = (EntryFunction) args[1];
+      writeOnly = (Boolean) args[2];
+      metadata = (Metadata) args[3];
+      flags = (Set<Flag>) args[4];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder()
+            .append("ClusteredEvalManyCommand{keys=").append(keys)
+            .append(", function=").append(function)
+            .append(", writeOnly=").append(writeOnly)
+            .append(", metadata=").append(metadata)
+            .append(", flags=").append(flags)
+            .append("}")
+            .toString();
+   }
+}
@@ -0,0 +1,202 @@
+package org.infinispan.commands.remote;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.MVCCEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Issues a remote lookup of several keys at once. This is the multi-key counterpart of {@link ClusteredGetCommand}:
+ * the originator groups the keys by owner and sends a single command to each owner.
+ * <p/>
+ * The response is a {@link List} of {@link InternalCacheValue}s, in the same order as the requested keys, with
+ * <tt>null</tt> elements for the keys that were not found.
+ *
+ * @since 7.0
+ */
+public class ClusteredGetAllCommand extends BaseRpcCommand implements FlagAffectedCommand {
+
+   public static final byte COMMAND_ID = 41;
+   private static final Log log = LogFactory.getLog(ClusteredGetAllCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private List<?> keys;
+   private Set<Flag> flags;
+   private int topologyId;
+
+   private InvocationContextFactory icf;
+   private CommandsFactory commandsFactory;
+   private InterceptorChain invoker;
+   private InternalEntryFactory entryFactory;
+
+   private ClusteredGetAllCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public ClusteredGetAllCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public ClusteredGetAllCommand(String cacheName, List<?> keys, Set<Flag> flags) {
+      super(cacheName);
+      this.keys = keys;
+      this.flags = flags;
+   }
+
+   public void init(InvocationContextFactory icf, CommandsFactory commandsFactory, InternalEntryFactory entryFactory,
+                    InterceptorChain interceptorChain) {
+      this.icf = icf;
+      this.commandsFactory = commandsFactory;
+      this.entryFactory = entryFactory;
+      this.invoker = interceptorChain;
+   }
+
+   /**
+    * Invokes a logical "getAll(keys)" on a remote cache and returns the values.
+    *
+    * @param context invocation context, ignored.
+    * @return a list of <code>InternalCacheValue</code>s, with <tt>null</tt> elements for the missing keys
+    */
+   @Override
+   public List<InternalCacheValue> perform(InvocationContext context) throws Throwable {
+      // make sure the get command doesn't perform a remote call
+      // as our caller is already calling the ClusteredGetAllCommand on all the relevant nodes
+      Set<Flag> commandFlags = EnumSet.of(Flag.SKIP_REMOTE_LOOKUP, Flag.CACHE_MODE_LOCAL);
+      if (this.flags != null) commandFlags.addAll(this.flags);
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, commandFlags, true);
+      InvocationContext invocationContext = icf.createRemoteInvocationContextForCommand(command, getOrigin());
+      Map<Object, Object> map = (Map<Object, Object>) invoker.invoke(invocationContext, command);
+      List<InternalCacheValue> values = new ArrayList<InternalCacheValue>(keys.size());
+      // iterate over the command's keys, the interceptors may have replaced them with their internal representation
+      for (Object key : command.getKeys()) {
+         CacheEntry entry = (CacheEntry) map.get(key);
+         InternalCacheValue value;
+         if (entry == null) {
+            value = null;
+         } else if (entry instanceof MVCCEntry) {
+            //this might happen if the value was fetched from a cache loader
+            value = entryFactory.createValue(entry);
+         } else {
+            value = ((InternalCacheEntry) entry).toInternalCacheValue();
+         }
+         values.add(value);
+      }
+      if (trace) log.tracef("Found %d out of %d keys", map.size(), keys.size());
+      return values;
+   }
+
+   public List<?> getKeys() {
+      return keys;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[]{keys, Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] args) {
+      if (commandId != COMMAND_ID) throw new IllegalStateException("Invalid method id");
+      keys = (List<?>) args[0];
+      flags = (Set<Flag>) args[1];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public Set<Flag> getFlags() {
+      return flags;
+   }
+
+   @Override
+   public void setFlags(Set<Flag> flags) {
+      this.flags = flags;
+   }
+
+   @Override
+   public void setFlags(Flag... flags) {
+      if (flags == null || flags.length == 0) return;
+      if (this.flags == null)
+         this.flags = EnumSet.copyOf(Arrays.asList(flags));
+      else
+         this.flags.addAll(Arrays.asList(flags));
+   }
+
+   @Override
+   public boolean hasFlag(Flag flag) {
+      return flags != null && flags.contains(flag);
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitUnknownCommand(ctx, this);
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return null;
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      // no-op
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder()
+            .append("ClusteredGetAllCommand{keys=").append(keys)
+            .append(", flags=").append(flags)
+            .append("}")
+            .toString();
+   }
+}
@@ -4,6 +4,7 @@
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
 import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -237,6 +238,7 @@ public Object[] getAffectedKeysToLock(boolean sort) {
             case PutKeyValueCommand.COMMAND_ID:
             case RemoveCommand.COMMAND_ID:
             case ReplaceCommand.COMMAND_ID:
+            case EvalCommand.COMMAND_ID:
                set.add(((DataWriteCommand) wc).getKey());
                break;
             case PutMapCommand.COMMAND_ID:
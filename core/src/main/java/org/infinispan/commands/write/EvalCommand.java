@@ -0,0 +1,340 @@
+package org.infinispan.commands.write;
+
+import org.infinispan.commands.MetadataAwareCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.compat.TypeConverter;
+import org.infinispan.container.entries.MVCCEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.functional.EntryFunction;
+import org.infinispan.functional.MutableEntry;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
+
+import java.util.Set;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+/**
+ * Applies an {@link EntryFunction} to the entry of a key and returns the result of the function.
+ * <p/>
+ * The function is only executed on the node which wraps the entry for writing: the primary owner in non-transactional
+ * caches, the originator in transactional ones.  The outcome of the function (the new value or the removal of the
+ * entry) is then kept in the command, so the backup owners, the transaction participants and the retries after a
+ * topology change apply that outcome instead of executing the function again.
+ * <p/>
+ * A write-only command doesn't give the function access to the previous value, so it doesn't need to fetch it from the
+ * remote owners or from the cache store.
+ * <p/>
+ * In compatibility mode, the type converter set by the compatibility interceptor is used to give the function the
+ * key and the values in the format of the caller, and to store the value written by the function in the format
+ * shared by all the endpoints.
+ *
+ * @since 7.0
+ */
+public class EvalCommand extends AbstractDataWriteCommand implements MetadataAwareCommand {
+   public static final byte COMMAND_ID = 42;
+
+   private static final byte NOT_COMPUTED = 0;
+   private static final byte UNCHANGED = 1;
+   private static final byte UPDATED = 2;
+   private static final byte REMOVED = 3;
+
+   private EntryFunction function;
+   private boolean writeOnly;
+   private Metadata metadata;
+   private ValueMatcher valueMatcher = ValueMatcher.MATCH_ALWAYS;
+   private byte outcome = NOT_COMPUTED;
+   private Object newValue;
+
+   private CacheNotifier notifier;
+   private TypeConverter<Object, Object, Object, Object> typeConverter;
+   private Object result;
+   private boolean successful = true;
+
+   public EvalCommand() {
+   }
+
+   public EvalCommand(Object key, EntryFunction function, boolean writeOnly, CacheNotifier notifier,
+                      Metadata metadata, Set<Flag> flags) {
+      super(key, flags);
+      this.function = function;
+      this.writeOnly = writeOnly;
+      this.notifier = notifier;
+      this.metadata = metadata;
+   }
+
+   public void init(CacheNotifier notifier) {
+      this.notifier = notifier;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitEvalCommand(ctx, this);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object perform(InvocationContext ctx) throws Throwable {
+      // It's not worth looking up the entry if we're never going to apply the change.
+      if (valueMatcher == ValueMatcher.MATCH_NEVER) {
+         successful = false;
+         return null;
+      }
+      MVCCEntry e = (MVCCEntry) ctx.lookupEntry(key);
+      //possible as in certain situations (e.g. when locking delegation is used) we don't wrap
+      if (e == null) return null;
+
+      if (outcome == NOT_COMPUTED) {
+         EntryView view = new EntryView(e);
+         result = function.apply(view);
+         view.valid = false;
+         outcome = view.outcome;
+         newValue = typeConverter != null && view.value != null ? typeConverter.boxValue(view.value) : view.value;
+      }
+
+      switch (outcome) {
+         case UPDATED:
+            Object previousValue = e.getValue();
+            if (!e.isCreated()) {
+               notifier.notifyCacheEntryModified(key, previousValue, previousValue == null, true, ctx, this);
+            }
+            e.setValue(newValue);
+            if (e.isRemoved()) {
+               e.setRemoved(false);
+               e.setValid(true);
+            }
+            e.setChanged(true);
+            successful = true;
+            break;
+         case REMOVED:
+            Object removedValue = e.getValue();
+            notifier.notifyCacheEntryRemoved(key, removedValue, removedValue, true, ctx, this);
+            e.setRemoved(true);
+            e.setValid(false);
+            e.setChanged(true);
+            successful = true;
+            break;
+         default:
+            successful = false;
+      }
+      return result;
+   }
+
+   /**
+    * Sets the converter between the format of the caller and the format of the stored keys and values. Only used in
+    * compatibility mode, it is not replicated with the command.
+    */
+   public void setTypeConverter(TypeConverter<Object, Object, Object, Object> typeConverter) {
+      this.typeConverter = typeConverter;
+   }
+
+   public EntryFunction getFunction() {
+      return function;
+   }
+
+   public boolean isWriteOnly() {
+      return writeOnly;
+   }
+
+   /**
+    * @return {@code true} once the function has been executed and its outcome is known
+    */
+   public boolean isComputed() {
+      return outcome != NOT_COMPUTED;
+   }
+
+   /**
+    * @return {@code true} if the function removed the entry
+    */
+   public boolean isRemoval() {
+      return outcome == REMOVED;
+   }
+
+   /**
+    * @return the value written by the function, or {@code null} if it didn't write any
+    */
+   public Object getNewValue() {
+      return outcome == UPDATED ? newValue : null;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      // Once computed, only the outcome is needed by the receiver
+      return new Object[]{key, outcome == NOT_COMPUTED ? function : null, writeOnly, metadata, valueMatcher, outcome,
+                          newValue, Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] parameters) {
+      if (commandId != COMMAND_ID) throw new IllegalArgumentException("Invalid method name");
+      key = parameters[0];
+      function = (EntryFunction) parameters[1];
+      writeOnly = (Boolean) parameters[2];
+      metadata = (Metadata) parameters[3];
+      valueMatcher = (ValueMatcher) parameters[4];
+      outcome = (Byte) parameters[5];
+      newValue = parameters[6];
+      flags = (Set<Flag>) parameters[7];
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      if (!super.equals(o)) return false;
+
+      EvalCommand that = (EvalCommand) o;
+
+      if (writeOnly != that.writeOnly) return false;
+      if (outcome != that.outcome) return false;
+      if (function != null ? !function.equals(that.function) : that.function != null) return false;
+      if (metadata != null ? !metadata.equals(that.metadata) : that.metadata != null) return false;
+      if (newValue != null ? !newValue.equals(that.newValue) : that.newValue != null) return false;
+
+      return true;
+   }
+
+   @Override
+   public int hashCode() {
+      int result = super.hashCode();
+      result = 31 * result + (function != null ? function.hashCode() : 0);
+      result = 31 * result + (writeOnly ? 1 : 0);
+      result = 31 * result + (metadata != null ? metadata.hashCode() : 0);
+      result = 31 * result + outcome;
+      result = 31 * result + (newValue != null ? newValue.hashCode() : 0);
+      return result;
+   }
+
+   @Override
+   public boolean isSuccessful() {
+      return successful;
+   }
+
+   @Override
+   public boolean isConditional() {
+      // The function decides what to write depending on the previous value
+      return !writeOnly;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return metadata;
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      this.metadata = metadata;
+   }
+
+   @Override
+   public ValueMatcher getValueMatcher() {
+      return valueMatcher;
+   }
+
+   @Override
+   public void setValueMatcher(ValueMatcher valueMatcher) {
+      this.valueMatcher = valueMatcher;
+   }
+
+   @Override
+   public void updateStatusFromRemoteResponse(Object remoteResponse) {
+      // The result of the function doesn't tell whether it changed the entry
+      successful = true;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      // The result of a read-write function is always returned, whatever the flags
+      return !writeOnly;
+   }
+
+   @Override
+   public String toString() {
+      return "EvalCommand{" +
+            "key=" + toStr(key) +
+            ", function=" + function +
+            ", writeOnly=" + writeOnly +
+            ", outcome=" + outcome +
+            ", newValue=" + toStr(newValue) +
+            ", metadata=" + metadata +
+            ", flags=" + flags +
+            ", successful=" + successful +
+            ", valueMatcher=" + valueMatcher +
+            '}';
+   }
+
+   /**
+    * The view of the entry passed to the function, which records the changes made by the function.
+    */
+   private class EntryView implements MutableEntry<Object, Object> {
+      private final MVCCEntry entry;
+      private byte outcome = UNCHANGED;
+      private Object value;
+      private boolean valid = true;
+
+      private EntryView(MVCCEntry entry) {
+         this.entry = entry;
+      }
+
+      @Override
+      public Object getKey() {
+         return typeConverter != null ? typeConverter.unboxKey(key) : key;
+      }
+
+      @Override
+      public Object getValue() {
+         checkReadable();
+         switch (outcome) {
+            case UPDATED:
+               return value;
+            case REMOVED:
+               return null;
+            default:
+               Object stored = entry.isRemoved() ? null : entry.getValue();
+               return typeConverter != null && stored != null ? typeConverter.unboxValue(stored) : stored;
+         }
+      }
+
+      @Override
+      public boolean isPresent() {
+         return getValue() != null;
+      }
+
+      @Override
+      public void setValue(Object value) {
+         checkValid();
+         if (value == null) throw new NullPointerException("Null values are not supported!");
+         this.value = value;
+         this.outcome = UPDATED;
+      }
+
+      @Override
+      public void remove() {
+         checkValid();
+         this.value = null;
+         // a read-write function knows when there is nothing to remove
+         this.outcome = writeOnly || entry.getValue() != null && !entry.isRemoved() ? REMOVED : UNCHANGED;
+      }
+
+      private void checkReadable() {
+         checkValid();
+         if (writeOnly) throw new IllegalStateException("The previous value is not available to write-only functions");
+      }
+
+      private void checkValid() {
+         if (!valid) throw new IllegalStateException("The entry can't be used once the function returned");
+      }
+
+      @Override
+      public String toString() {
+         return "EntryView{key=" + toStr(key) + ", outcome=" + outcome + ", value=" + toStr(value) + '}';
+      }
+   }
+}
@@ -15,9 +15,18 @@ public class BackupConfiguration {
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration stateTransferConfiguration;
    private final boolean enabled;
+   private final int batchSize;
+   private final long batchInterval;
 
    public BackupConfiguration(String site, BackupStrategy strategy, long timeout, BackupFailurePolicy backupFailurePolicy,
                               String failurePolicyClass, boolean useTwoPhaseCommit, TakeOfflineConfiguration takeOfflineConfiguration, XSiteStateTransferConfiguration stateTransferConfiguration, boolean enabled) {
+      this(site, strategy, timeout, backupFailurePolicy, failurePolicyClass, useTwoPhaseCommit, takeOfflineConfiguration,
+           stateTransferConfiguration, enabled, 0, 100);
+   }
+
+   public BackupConfiguration(String site, BackupStrategy strategy, long timeout, BackupFailurePolicy backupFailurePolicy,
+                              String failurePolicyClass, boolean useTwoPhaseCommit, TakeOfflineConfiguration takeOfflineConfiguration, XSiteStateTransferConfiguration stateTransferConfiguration, boolean enabled,
+                              int batchSize, long batchInterval) {
       this.site = site;
       this.strategy = strategy;
       this.timeout = timeout;
@@ -27,6 +36,8 @@ public BackupConfiguration(String site, BackupStrategy strategy, long timeout, B
       this.takeOfflineConfiguration = takeOfflineConfiguration;
       this.stateTransferConfiguration = stateTransferConfiguration;
       this.enabled = enabled;
+      this.batchSize = batchSize;
+      this.batchInterval = batchInterval;
    }
 
    /**
@@ -86,6 +97,27 @@ public XSiteStateTransferConfiguration stateTransfer() {
       return stateTransferConfiguration;
    }
 
+   /**
+    * @see BackupConfigurationBuilder#batchSize(int)
+    */
+   public int batchSize() {
+      return batchSize;
+   }
+
+   /**
+    * @see BackupConfigurationBuilder#batchInterval(long)
+    */
+   public long batchInterval() {
+      return batchInterval;
+   }
+
+   /**
+    * @return {@code true} if the writes to this site are queued and sent in batches
+    */
+   public boolean isBatchingEnabled() {
+      return isAsyncBackup() && batchSize > 0;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -101,6 +133,8 @@ public boolean equals(Object o) {
       if (useTwoPhaseCommit != that.useTwoPhaseCommit) return false;
       if (strategy != that.strategy) return false;
       if (enabled != that.enabled) return false;
+      if (batchSize != that.batchSize) return false;
+      if (batchInterval != that.batchInterval) return false;
       if (stateTransferConfiguration != null ?
             !stateTransferConfiguration.equals(that.stateTransferConfiguration) :
             that.stateTransferConfiguration != null)
@@ -118,6 +152,8 @@ public int hashCode() {
       result = 31 * result + (failurePolicyClass != null ? failurePolicyClass.hashCode() : 0);
       result = 31 * result + (stateTransferConfiguration != null ? stateTransferConfiguration.hashCode() : 0);
       result = 31 * result + (useTwoPhaseCommit ? 1 : 0);
+      result = 31 * result + batchSize;
+      result = 31 * result + (int) (batchInterval ^ (batchInterval >>> 32));
       return result;
    }
 
@@ -132,6 +168,8 @@ public String toString() {
             ", failurePolicyClass='" + failurePolicyClass + '\'' +
             ", stateTransferConfiguration=" + stateTransferConfiguration +
             ", enabled='" + enabled + '\'' +
+            ", batchSize=" + batchSize +
+            ", batchInterval=" + batchInterval +
             '}';
    }
 }
@@ -27,6 +27,10 @@ public class BackupConfigurationBuilder extends AbstractConfigurationChildBuilde
 
    private XSiteStateTransferConfigurationBuilder stateTransferBuilder;
 
+   private int batchSize = 0;
+
+   private long batchInterval = 100;
+
    public BackupConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
       takeOfflineBuilder = new TakeOfflineConfigurationBuilder(builder, this);
@@ -137,6 +141,26 @@ public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
 
+   /**
+    * If greater than 0, the writes of non-transactional caches to an
+    * {@link org.infinispan.configuration.cache.BackupConfiguration.BackupStrategy#ASYNC} backup are queued and sent to
+    * the site in batches of at most this many writes. Only the last queued write of each key is sent. Defaults to 0,
+    * i.e. each write is sent on its own.
+    */
+   public BackupConfigurationBuilder batchSize(int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+   }
+
+   /**
+    * The interval (millis) at which the queued writes are sent to the site, see {@link #batchSize(int)}. Defaults to
+    * 100.
+    */
+   public BackupConfigurationBuilder batchInterval(long batchInterval) {
+      this.batchInterval = batchInterval;
+      return this;
+   }
+
    @Override
    public void validate() {
       takeOfflineBuilder.validate();
@@ -147,12 +171,17 @@ public void validate() {
          throw new CacheConfigurationException("It is required to specify a 'failurePolicyClass' when using a " +
                                                 "custom backup failure policy!");
       }
+      if (batchSize < 0)
+         throw new CacheConfigurationException("The 'batchSize' of the backup to site '" + site + "' cannot be negative!");
+      if (batchSize > 0 && batchInterval <= 0)
+         throw new CacheConfigurationException("The 'batchInterval' of the backup to site '" + site + "' must be positive!");
    }
 
    @Override
    public BackupConfiguration create() {
       return new BackupConfiguration(site, strategy, replicationTimeout, backupFailurePolicy, failurePolicyClass,
-                                     useTwoPhaseCommit, takeOfflineBuilder.create(), stateTransferBuilder.create(), enabled);
+                                     useTwoPhaseCommit, takeOfflineBuilder.create(), stateTransferBuilder.create(), enabled,
+                                     batchSize, batchInterval);
    }
 
    @Override
@@ -166,6 +195,8 @@ public Builder read(BackupConfiguration template) {
       this.failurePolicyClass = template.failurePolicyClass();
       this.useTwoPhaseCommit = template.isTwoPhaseCommit();
       this.enabled = template.enabled();
+      this.batchSize = template.batchSize();
+      this.batchInterval = template.batchInterval();
       return this;
    }
 
@@ -186,6 +217,8 @@ public boolean equals(Object o) {
          return false;
       if (useTwoPhaseCommit != that.useTwoPhaseCommit) return false;
       if (enabled != that.enabled) return false;
+      if (batchSize != that.batchSize) return false;
+      if (batchInterval != that.batchInterval) return false;
       if (stateTransferBuilder != null ?
             !stateTransferBuilder.equals(that.stateTransferBuilder) :
             that.stateTransferBuilder != null)
@@ -204,6 +237,8 @@ public int hashCode() {
       result = 31 * result + (takeOfflineBuilder != null ? takeOfflineBuilder.hashCode() : 0);
       result = 31 * result + (stateTransferBuilder != null ? stateTransferBuilder.hashCode() : 0);
       result = 31 * result + (useTwoPhaseCommit ? 1 : 0);
+      result = 31 * result + batchSize;
+      result = 31 * result + (int) (batchInterval ^ (batchInterval >>> 32));
       return result;
    }
 
@@ -219,6 +254,8 @@ public String toString() {
             ", takeOfflineBuilder=" + takeOfflineBuilder +
             ", stateTransferBuilder=" + stateTransferBuilder +
             ", enabled=" + enabled +
+            ", batchSize=" + batchSize +
+            ", batchInterval=" + batchInterval +
             '}';
    }
 }
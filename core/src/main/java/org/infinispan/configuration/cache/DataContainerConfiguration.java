@@ -16,14 +16,16 @@ public class DataContainerConfiguration extends AbstractTypedPropertiesConfigura
    private final DataContainer dataContainer;
    private final Equivalence keyEquivalence;
    private final Equivalence valueEquivalence;
+   private final boolean offHeap;
 
    DataContainerConfiguration(DataContainer dataContainer,
          TypedProperties properties, Equivalence keyEquivalence,
-         Equivalence valueEquivalence) {
+         Equivalence valueEquivalence, boolean offHeap) {
       super(properties);
       this.dataContainer = dataContainer;
       this.keyEquivalence = keyEquivalence;
       this.valueEquivalence = valueEquivalence;
+      this.offHeap = offHeap;
    }
    
    /**
@@ -44,12 +46,20 @@ public <V> Equivalence<V> valueEquivalence() {
       return valueEquivalence;
    }
 
+   /**
+    * Whether the default data container stores the entries outside of the Java heap
+    */
+   public boolean offHeap() {
+      return offHeap;
+   }
+
    @Override
    public String toString() {
       return "DataContainerConfiguration{" +
             "dataContainer=" + dataContainer +
             ", keyEquivalence=" + keyEquivalence +
             ", valueEquivalence=" + valueEquivalence +
+            ", offHeap=" + offHeap +
             '}';
    }
 
@@ -61,6 +71,8 @@ public boolean equals(Object o) {
 
       DataContainerConfiguration that = (DataContainerConfiguration) o;
 
+      if (offHeap != that.offHeap)
+         return false;
       if (dataContainer != null ? !dataContainer.equals(that.dataContainer) : that.dataContainer != null)
          return false;
       if (keyEquivalence != null ? !keyEquivalence.equals(that.keyEquivalence) : that.keyEquivalence != null)
@@ -77,6 +89,7 @@ public int hashCode() {
       result = 31 * result + (dataContainer != null ? dataContainer.hashCode() : 0);
       result = 31 * result + (keyEquivalence != null ? keyEquivalence.hashCode() : 0);
       result = 31 * result + (valueEquivalence != null ? valueEquivalence.hashCode() : 0);
+      result = 31 * result + (offHeap ? 1 : 0);
       return result;
    }
 
@@ -20,6 +20,7 @@ public class DataContainerConfigurationBuilder extends AbstractConfigurationChil
    private DataContainer dataContainer;
    private Equivalence keyEquivalence = AnyEquivalence.getInstance();
    private Equivalence valueEquivalence = AnyEquivalence.getInstance();
+   private boolean offHeap = false;
    // TODO: What are properties used for? Is it just legacy?
    private Properties properties = new Properties();
 
@@ -90,6 +91,19 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * If true, the default data container marshalls the entries and stores them outside of the Java heap. Keys are
+    * then compared by their marshalled form rather than with the configured key equivalence. Ignored if a custom
+    * data container is specified.
+    *
+    * @param offHeap whether the entries are stored off-heap
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder offHeap(boolean offHeap) {
+      this.offHeap = offHeap;
+      return this;
+   }
+
    @Override
    public void validate() {
    }
@@ -98,7 +112,7 @@ public void validate() {
    public DataContainerConfiguration create() {
       return new DataContainerConfiguration(dataContainer,
             TypedProperties.toTypedProperties(properties), keyEquivalence,
-            valueEquivalence);
+            valueEquivalence, offHeap);
    }
 
    @Override
@@ -107,6 +121,7 @@ public DataContainerConfigurationBuilder read(DataContainerConfiguration templat
       this.properties = template.properties();
       this.keyEquivalence = template.keyEquivalence();
       this.valueEquivalence = template.valueEquivalence();
+      this.offHeap = template.offHeap();
 
       return this;
    }
@@ -118,6 +133,7 @@ public String toString() {
             ", properties=" + properties +
             ", keyEquivalence=" + keyEquivalence +
             ", valueEquivalence=" + valueEquivalence +
+            ", offHeap=" + offHeap +
             '}';
    }
 
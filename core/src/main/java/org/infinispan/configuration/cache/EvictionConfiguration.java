@@ -2,6 +2,7 @@
 
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 
 /**
  * Controls the eviction settings for the cache.
@@ -11,11 +12,16 @@ public class EvictionConfiguration {
    private final int maxEntries;
    private final EvictionStrategy strategy;
    private final EvictionThreadPolicy threadPolicy;
+   private final EvictionType type;
+   private final long size;
    
-   EvictionConfiguration(int maxEntries, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy) {
+   EvictionConfiguration(int maxEntries, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy,
+         EvictionType type, long size) {
       this.maxEntries = maxEntries;
       this.strategy = strategy;
       this.threadPolicy = threadPolicy;
+      this.type = type;
+      this.size = size;
    }
    
    /**
@@ -42,12 +48,31 @@ public int maxEntries() {
       return maxEntries;
    }
 
+   /**
+    * Whether the cache is bounded by the number of entries ({@link EvictionType#COUNT}, see {@link #maxEntries()})
+    * or by their estimated memory footprint ({@link EvictionType#MEMORY}, see {@link #size()}).
+    */
+   public EvictionType type() {
+      return type;
+   }
+
+   /**
+    * Maximum amount of memory, in bytes, taken by the entries of a cache instance when the eviction type is
+    * {@link EvictionType#MEMORY}. The memory taken by each entry is estimated, exactly so for keys and values
+    * stored in binary form.
+    */
+   public long size() {
+      return size;
+   }
+
    @Override
    public String toString() {
       return "EvictionConfiguration{" +
             "maxEntries=" + maxEntries +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
+            ", type=" + type +
+            ", size=" + size +
             '}';
    }
 
@@ -61,6 +86,8 @@ public boolean equals(Object o) {
       if (maxEntries != that.maxEntries) return false;
       if (strategy != that.strategy) return false;
       if (threadPolicy != that.threadPolicy) return false;
+      if (type != that.type) return false;
+      if (size != that.size) return false;
 
       return true;
    }
@@ -70,6 +97,8 @@ public int hashCode() {
       int result = maxEntries;
       result = 31 * result + (strategy != null ? strategy.hashCode() : 0);
       result = 31 * result + (threadPolicy != null ? threadPolicy.hashCode() : 0);
+      result = 31 * result + (type != null ? type.hashCode() : 0);
+      result = 31 * result + (int) (size ^ (size >>> 32));
       return result;
    }
 
@@ -4,6 +4,7 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -17,6 +18,8 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
    private int maxEntries = -1;
    private EvictionStrategy strategy = EvictionStrategy.NONE;
    private EvictionThreadPolicy threadPolicy = EvictionThreadPolicy.DEFAULT;
+   private EvictionType type = EvictionType.COUNT;
+   private long size = -1;
 
    EvictionConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -60,12 +63,45 @@ public EvictionConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Whether the cache is bounded by the number of entries ({@link EvictionType#COUNT}, the default, see
+    * {@link #maxEntries(int)}) or by their estimated memory footprint ({@link EvictionType#MEMORY}, see
+    * {@link #size(long)}).
+    *
+    * @param type
+    */
+   public EvictionConfigurationBuilder type(EvictionType type) {
+      this.type = type;
+      return this;
+   }
+
+   /**
+    * Maximum amount of memory, in bytes, taken by the entries of a cache instance when the eviction type is
+    * {@link EvictionType#MEMORY}. The memory taken by each entry is estimated, exactly so for keys and values
+    * stored in binary form, so this is best used with remote clients or with store as binary.
+    *
+    * @param size
+    */
+   public EvictionConfigurationBuilder size(long size) {
+      this.size = size;
+      return this;
+   }
+
    @Override
    public void validate() {
       if (!strategy.isEnabled() && getBuilder().persistence().passivation())
          log.passivationWithoutEviction();
       if(strategy == EvictionStrategy.FIFO)
          log.warnFifoStrategyIsDeprecated();
+      if (type == EvictionType.MEMORY) {
+         if (strategy.isEnabled() && size <= 0)
+            throw new CacheConfigurationException("Eviction size value cannot be less than or equal to zero if memory based eviction is enabled");
+         if (size > 0 && !strategy.isEnabled()) {
+            strategy = EvictionStrategy.LIRS;
+            log.debugf("Eviction size configured (%d) without eviction strategy. Eviction strategy overriden to %s", size, strategy);
+         }
+         return;
+      }
       if (strategy.isEnabled() && maxEntries <= 0)
          throw new CacheConfigurationException("Eviction maxEntries value cannot be less than or equal to zero if eviction is enabled");
       if (maxEntries > 0 && !strategy.isEnabled()) {
@@ -76,7 +112,7 @@ public void validate() {
 
    @Override
    public EvictionConfiguration create() {
-      return new EvictionConfiguration(maxEntries, strategy, threadPolicy);
+      return new EvictionConfiguration(maxEntries, strategy, threadPolicy, type, size);
    }
 
    @Override
@@ -84,6 +120,8 @@ public EvictionConfigurationBuilder read(EvictionConfiguration template) {
       this.maxEntries = template.maxEntries();
       this.strategy = template.strategy();
       this.threadPolicy = template.threadPolicy();
+      this.type = template.type();
+      this.size = template.size();
 
       return this;
    }
@@ -94,6 +132,8 @@ public String toString() {
             "maxEntries=" + maxEntries +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
+            ", type=" + type +
+            ", size=" + size +
             '}';
    }
 
@@ -14,15 +14,22 @@ public class StateTransferConfiguration {
    private int chunkSize;
    private boolean awaitInitialTransfer;
    private Boolean originalAwaitInitialTransfer;
+   private long chunkSizeBytes;
+   private int maxInFlightChunks;
+   private boolean compression;
 
    StateTransferConfiguration(boolean fetchInMemoryState, Boolean originalFetchInMemoryState, long timeout, int chunkSize,
-                              boolean awaitInitialTransfer, Boolean originalAwaitInitialTransfer) {
+                              boolean awaitInitialTransfer, Boolean originalAwaitInitialTransfer, long chunkSizeBytes,
+                              int maxInFlightChunks, boolean compression) {
       this.fetchInMemoryState = fetchInMemoryState;
       this.originalFetchInMemoryState = originalFetchInMemoryState;
       this.timeout = timeout;
       this.chunkSize = chunkSize;
       this.awaitInitialTransfer = awaitInitialTransfer;
       this.originalAwaitInitialTransfer = originalAwaitInitialTransfer;
+      this.chunkSizeBytes = chunkSizeBytes;
+      this.maxInFlightChunks = maxInFlightChunks;
+      this.compression = compression;
    }
 
    /**
@@ -69,6 +76,30 @@ public int chunkSize() {
       return chunkSize;
    }
 
+   /**
+    * If &gt; 0, a batch of cache entries is also sent as soon as its marshalled size reaches {@code chunkSizeBytes}
+    * bytes, even if it has less than {@link #chunkSize()} entries. The entries are then marshalled by the sender when
+    * they are added to the batch.
+    */
+   public long chunkSizeBytes() {
+      return chunkSizeBytes;
+   }
+
+   /**
+    * The maximum number of batches of cache entries sent to a node and not yet applied by it. With the default value
+    * of 1 the next batch is sent only after the previous one was applied.
+    */
+   public int maxInFlightChunks() {
+      return maxInFlightChunks;
+   }
+
+   /**
+    * If {@code true}, the marshalled cache entries of each batch are compressed before being sent.
+    */
+   public boolean compression() {
+      return compression;
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -97,6 +128,9 @@ public String toString() {
             ", timeout=" + timeout +
             ", awaitInitialTransfer=" + awaitInitialTransfer +
             ", originalAwaitInitialTransfer=" + originalAwaitInitialTransfer +
+            ", chunkSizeBytes=" + chunkSizeBytes +
+            ", maxInFlightChunks=" + maxInFlightChunks +
+            ", compression=" + compression +
             '}';
    }
 
@@ -115,6 +149,9 @@ public boolean equals(Object o) {
       if (awaitInitialTransfer != that.awaitInitialTransfer) return false;
       if (originalAwaitInitialTransfer != null ? !originalAwaitInitialTransfer.equals(that.originalAwaitInitialTransfer) : that.originalAwaitInitialTransfer != null)
          return false;
+      if (chunkSizeBytes != that.chunkSizeBytes) return false;
+      if (maxInFlightChunks != that.maxInFlightChunks) return false;
+      if (compression != that.compression) return false;
 
       return true;
    }
@@ -127,6 +164,9 @@ public int hashCode() {
       result = 31 * result + chunkSize;
       result = 31 * result + (awaitInitialTransfer ? 1 : 0);
       result = 31 * result + (originalAwaitInitialTransfer != null ? originalAwaitInitialTransfer.hashCode() : 0);
+      result = 31 * result + (int) (chunkSizeBytes ^ (chunkSizeBytes >>> 32));
+      result = 31 * result + maxInFlightChunks;
+      result = 31 * result + (compression ? 1 : 0);
       return result;
    }
 
@@ -22,6 +22,9 @@ public class StateTransferConfigurationBuilder extends
    private Boolean awaitInitialTransfer = null;
    private int chunkSize = 10000;
    private long timeout = TimeUnit.MINUTES.toMillis(4);
+   private long chunkSizeBytes = 0;
+   private int maxInFlightChunks = 1;
+   private boolean compression = false;
 
    StateTransferConfigurationBuilder(ClusteringConfigurationBuilder builder) {
       super(builder);
@@ -62,6 +65,33 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * If &gt; 0, a batch of cache entries is also sent as soon as its marshalled size reaches {@code chunkSizeBytes}
+    * bytes, even if it has less than {@link #chunkSize(int)} entries. The entries are then marshalled by the sender
+    * when they are added to the batch.
+    */
+   public StateTransferConfigurationBuilder chunkSizeBytes(long l) {
+      this.chunkSizeBytes = l;
+      return this;
+   }
+
+   /**
+    * The maximum number of batches of cache entries sent to a node and not yet applied by it. With the default value
+    * of 1 the next batch is sent only after the previous one was applied.
+    */
+   public StateTransferConfigurationBuilder maxInFlightChunks(int i) {
+      this.maxInFlightChunks = i;
+      return this;
+   }
+
+   /**
+    * If {@code true}, the marshalled cache entries of each batch are compressed before being sent.
+    */
+   public StateTransferConfigurationBuilder compression(boolean b) {
+      this.compression = b;
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -89,6 +119,8 @@ public void validate() {
             && !getClusteringBuilder().cacheMode().isReplicated() && !getClusteringBuilder().cacheMode().isDistributed())
          throw new CacheConfigurationException(
                "awaitInitialTransfer can be enabled only if cache mode is distributed or replicated.");
+      if (maxInFlightChunks < 1)
+         throw new CacheConfigurationException("maxInFlightChunks must be greater than 0.");
    }
 
    @Override
@@ -118,7 +150,7 @@ public  StateTransferConfiguration create() {
          _awaitInitialTransfer = false;
       }
       return new StateTransferConfiguration(_fetchInMemoryState, fetchInMemoryState,
-            timeout, chunkSize, _awaitInitialTransfer, awaitInitialTransfer);
+            timeout, chunkSize, _awaitInitialTransfer, awaitInitialTransfer, chunkSizeBytes, maxInFlightChunks, compression);
    }
 
    @Override
@@ -127,6 +159,9 @@ public StateTransferConfigurationBuilder read(StateTransferConfiguration templat
       this.awaitInitialTransfer = template.originalAwaitInitialTransfer();
       this.timeout = template.timeout();
       this.chunkSize = template.chunkSize();
+      this.chunkSizeBytes = template.chunkSizeBytes();
+      this.maxInFlightChunks = template.maxInFlightChunks();
+      this.compression = template.compression();
       return this;
    }
 
@@ -137,6 +172,9 @@ public String toString() {
             ", fetchInMemoryState=" + fetchInMemoryState +
             ", awaitInitialTransfer=" + awaitInitialTransfer +
             ", timeout=" + timeout +
+            ", chunkSizeBytes=" + chunkSizeBytes +
+            ", maxInFlightChunks=" + maxInFlightChunks +
+            ", compression=" + compression +
             '}';
    }
 
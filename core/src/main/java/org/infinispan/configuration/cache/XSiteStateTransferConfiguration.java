@@ -10,10 +10,16 @@ public class XSiteStateTransferConfiguration {
 
    private final int chunkSize;
    private final long timeout;
+   private final int maxInFlightChunks;
 
    public XSiteStateTransferConfiguration(int chunkSize, long timeout) {
+      this(chunkSize, timeout, XSiteStateTransferConfigurationBuilder.DEFAULT_MAX_IN_FLIGHT_CHUNKS);
+   }
+
+   public XSiteStateTransferConfiguration(int chunkSize, long timeout, int maxInFlightChunks) {
       this.chunkSize = chunkSize;
       this.timeout = timeout;
+      this.maxInFlightChunks = maxInFlightChunks;
    }
 
    public int chunkSize() {
@@ -24,11 +30,16 @@ public long timeout() {
       return timeout;
    }
 
+   public int maxInFlightChunks() {
+      return maxInFlightChunks;
+   }
+
    @Override
    public String toString() {
       return "XSiteStateTransferConfiguration{" +
             "chunkSize=" + chunkSize +
             ", timeout=" + timeout +
+            ", maxInFlightChunks=" + maxInFlightChunks +
             '}';
    }
 
@@ -40,7 +51,8 @@ public boolean equals(Object o) {
       XSiteStateTransferConfiguration that = (XSiteStateTransferConfiguration) o;
 
       return chunkSize == that.chunkSize &&
-            timeout == that.timeout;
+            timeout == that.timeout &&
+            maxInFlightChunks == that.maxInFlightChunks;
 
    }
 
@@ -48,6 +60,7 @@ public boolean equals(Object o) {
    public int hashCode() {
       int result = chunkSize;
       result = 31 * result + (int) (timeout ^ (timeout >>> 32));
+      result = 31 * result + maxInFlightChunks;
       return result;
    }
 }
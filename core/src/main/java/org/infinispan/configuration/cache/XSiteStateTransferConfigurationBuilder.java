@@ -18,6 +18,8 @@ public class XSiteStateTransferConfigurationBuilder extends AbstractConfiguratio
    private int chunkSize = DEFAULT_CHUNK_SIZE;
    public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(20);
    private long timeout = DEFAULT_TIMEOUT;
+   public static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 4;
+   private int maxInFlightChunks = DEFAULT_MAX_IN_FLIGHT_CHUNKS;
    private final BackupConfigurationBuilder backupConfigurationBuilder;
 
    public XSiteStateTransferConfigurationBuilder(ConfigurationBuilder builder,
@@ -51,19 +53,30 @@ public final XSiteStateTransferConfigurationBuilder timeout(long timeout) {
       return this;
    }
 
+   /**
+    * The maximum number of chunks sent by each node and not yet acknowledged by the backup site. The node stops
+    * reading its state until the oldest chunk is acknowledged, throttling the state transfer to the rate the backup
+    * site can apply it. If &lt;= 0, the chunks are sent without waiting. Defaults to 4.
+    */
+   public final XSiteStateTransferConfigurationBuilder maxInFlightChunks(int maxInFlightChunks) {
+      this.maxInFlightChunks = maxInFlightChunks;
+      return this;
+   }
+
    public final BackupConfigurationBuilder backup() {
       return backupConfigurationBuilder;
    }
 
    @Override
    public XSiteStateTransferConfiguration create() {
-      return new XSiteStateTransferConfiguration(chunkSize, timeout);
+      return new XSiteStateTransferConfiguration(chunkSize, timeout, maxInFlightChunks);
    }
 
    @Override
    public Builder<XSiteStateTransferConfiguration> read(XSiteStateTransferConfiguration template) {
       this.chunkSize = template.chunkSize();
       this.timeout = template.timeout();
+      this.maxInFlightChunks = template.maxInFlightChunks();
       return this;
    }
 
@@ -72,6 +85,7 @@ public String toString() {
       return "XSiteStateTransferConfigurationBuilder{" +
             "chunkSize=" + chunkSize +
             ", timeout=" + timeout +
+            ", maxInFlightChunks=" + maxInFlightChunks +
             '}';
    }
 
@@ -83,7 +97,8 @@ public boolean equals(Object o) {
       XSiteStateTransferConfigurationBuilder that = (XSiteStateTransferConfigurationBuilder) o;
 
       return chunkSize == that.chunkSize &&
-            timeout == that.timeout;
+            timeout == that.timeout &&
+            maxInFlightChunks == that.maxInFlightChunks;
 
    }
 
@@ -91,6 +106,7 @@ public boolean equals(Object o) {
    public int hashCode() {
       int result = chunkSize;
       result = 31 * result + (int) (timeout ^ (timeout >>> 32));
+      result = 31 * result + maxInFlightChunks;
       return result;
    }
 }
@@ -9,10 +9,12 @@
 public class GlobalSecurityConfiguration {
    private final GlobalAuthorizationConfiguration authorization;
    private final long securityCacheTimeout;
+   private final int securityCacheSize;
 
-   GlobalSecurityConfiguration(GlobalAuthorizationConfiguration roles, long securityCacheTimeout) {
+   GlobalSecurityConfiguration(GlobalAuthorizationConfiguration roles, long securityCacheTimeout, int securityCacheSize) {
       this.authorization = roles;
       this.securityCacheTimeout = securityCacheTimeout;
+      this.securityCacheSize = securityCacheSize;
    }
 
    public GlobalAuthorizationConfiguration authorization() {
@@ -23,10 +25,14 @@ public long securityCacheTimeout() {
       return securityCacheTimeout;
    }
 
+   public int securityCacheSize() {
+      return securityCacheSize;
+   }
+
    @Override
    public String toString() {
       return "GlobalSecurityConfiguration [authorization=" + authorization + ", securityCacheTimeout="
-            + securityCacheTimeout + "]";
+            + securityCacheTimeout + ", securityCacheSize=" + securityCacheSize + "]";
    }
 
 
@@ -12,6 +12,7 @@ public class GlobalSecurityConfigurationBuilder extends AbstractGlobalConfigurat
    private final GlobalAuthorizationConfigurationBuilder authorizationBuilder;
    private final boolean enabled = false;
    private long securityCacheTimeout = 30000;
+   private int securityCacheSize = 1000;
 
    public GlobalSecurityConfigurationBuilder(GlobalConfigurationBuilder builder) {
       super(builder);
@@ -29,6 +30,12 @@ public GlobalSecurityConfigurationBuilder securityCacheTimeout(long securityCach
       return this;
    }
 
+   @Override
+   public GlobalSecurityConfigurationBuilder securityCacheSize(int securityCacheSize) {
+      this.securityCacheSize = securityCacheSize;
+      return this;
+   }
+
    @Override
    public void validate() {
       authorizationBuilder.validate();
@@ -36,12 +43,14 @@ public void validate() {
 
    @Override
    public GlobalSecurityConfiguration create() {
-      return new GlobalSecurityConfiguration(authorizationBuilder.create(), securityCacheTimeout);
+      return new GlobalSecurityConfiguration(authorizationBuilder.create(), securityCacheTimeout, securityCacheSize);
    }
 
    @Override
    public GlobalSecurityConfigurationBuilder read(GlobalSecurityConfiguration template) {
       this.authorizationBuilder.read(template.authorization());
+      this.securityCacheTimeout = template.securityCacheTimeout();
+      this.securityCacheSize = template.securityCacheSize();
       return this;
    }
 
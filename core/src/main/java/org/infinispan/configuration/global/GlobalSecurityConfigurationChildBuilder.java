@@ -17,4 +17,10 @@ public interface GlobalSecurityConfigurationChildBuilder extends GlobalConfigura
     * @param securityCacheTimeout
     */
    GlobalSecurityConfigurationBuilder securityCacheTimeout(long securityCacheTimeout);
+   /**
+    * Defines the maximum number of subjects for which to cache the access roles. A value of zero disables the cache
+    *
+    * @param securityCacheSize
+    */
+   GlobalSecurityConfigurationBuilder securityCacheSize(int securityCacheSize);
 }
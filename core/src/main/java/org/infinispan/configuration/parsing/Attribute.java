@@ -23,12 +23,16 @@ public enum Attribute {
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
     BACKUP_FAILURE_POLICY("failure-policy"),
     BATCHING("batching"),
+    BATCH_INTERVAL("batch-interval"),
+    BATCH_SIZE("batch-size"),
     BEFORE("before"),
     CAPACITY_FACTOR("capacity"),
     CHUNK_SIZE("chunk-size"),
+    CHUNK_SIZE_BYTES("chunk-size-bytes"),
     CLASS("class"),
     CLUSTER("cluster"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
+    COMPRESSION("compression"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CORE_THREADS("core-threads"),
     DATA_CONTAINER("data-container"),
@@ -60,6 +64,7 @@ public enum Attribute {
     MARSHALLER_CLASS("marshaller"),
     MAX_ENTRIES("max-entries"),
     MAX_IDLE("max-idle"),
+    MAX_IN_FLIGHT_CHUNKS("max-in-flight-chunks"),
     MAX_THREADS("max-threads"),
     MBEAN_SERVER_LOOKUP("mbean-server-lookup"),
     MODE("mode"),
@@ -67,6 +72,7 @@ public enum Attribute {
     MODIFICATION_QUEUE_SIZE("modification-queue-size"),
     MODULE("module"),
     NAME("name"),
+    OFF_HEAP("off-heap"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
     PATH("path"),
@@ -96,6 +102,7 @@ public enum Attribute {
     SHUTDOWN_HOOK("shutdown-hook"),
     SHUTDOWN_TIMEOUT("shutdown-timeout"),
     SINGLETON("singleton"),
+    SIZE("size"),
     SITE("site"),
     SPIN_DURATION("deadlock-detection-spin"),
     STATISTICS("statistics"),
@@ -116,6 +123,7 @@ public enum Attribute {
     TOTAL_ORDER_EXECUTOR("total-order-executor"),
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
+    TYPE("type"),
     UNRELIABLE_RETURN_VALUES("unreliable-return-values"),
     USE_TWO_PHASE_COMMIT("two-phase-commit"),
     VALUE("value"),
@@ -23,6 +23,7 @@
 import org.infinispan.distribution.group.Grouper;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.jmx.MBeanServerLookup;
@@ -831,6 +832,14 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                backup.failurePolicyClass(value);
                break;
             }
+            case BATCH_SIZE: {
+               backup.batchSize(Integer.parseInt(value));
+               break;
+            }
+            case BATCH_INTERVAL: {
+               backup.batchInterval(Long.parseLong(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -892,6 +901,9 @@ private void parseXSiteStateTransfer(XMLExtendedStreamReader reader, BackupConfi
             case TIMEOUT:
                backup.stateTransfer().timeout(Long.parseLong(value));
                break;
+            case MAX_IN_FLIGHT_CHUNKS:
+               backup.stateTransfer().maxInFlightChunks(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedElement(reader);
          }
@@ -1046,6 +1058,9 @@ private void parseDataContainer(final XMLExtendedStreamReader reader, final Conf
             case VALUE_EQUIVALENCE:
                builder.dataContainer().valueEquivalence(Util.<Equivalence>getInstance(value, holder.getClassLoader()));
                break;
+            case OFF_HEAP:
+               builder.dataContainer().offHeap(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1274,6 +1289,14 @@ protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.eviction().threadPolicy(EvictionThreadPolicy.valueOf(value));
                break;
             }
+            case TYPE: {
+               builder.eviction().type(EvictionType.valueOf(value));
+               break;
+            }
+            case SIZE: {
+               builder.eviction().size(Long.parseLong(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1405,6 +1428,18 @@ private void parseStateTransfer(XMLExtendedStreamReader reader, ConfigurationBui
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
             }
+            case CHUNK_SIZE_BYTES: {
+               builder.clustering().stateTransfer().chunkSizeBytes(Long.parseLong(value));
+               break;
+            }
+            case MAX_IN_FLIGHT_CHUNKS: {
+               builder.clustering().stateTransfer().maxInFlightChunks(Integer.parseInt(value));
+               break;
+            }
+            case COMPRESSION: {
+               builder.clustering().stateTransfer().compression(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -10,10 +10,12 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.eviction.PassivationManager;
+import org.infinispan.eviction.impl.InternalCacheEntrySizeCalculator;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.persistence.manager.PersistenceManager;
@@ -26,9 +28,11 @@
 
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -53,6 +57,7 @@
    private final ConcurrentMap<K, InternalCacheEntry<K, V>> entries;
    private final DefaultEvictionListener evictionListener;
    private final ExtendedMap<K, V> extendedMap;
+   private final ExpirationIndex<K> expirationIndex;
    protected InternalEntryFactory entryFactory;
    private EvictionManager evictionManager;
    private PassivationManager passivator;
@@ -65,6 +70,7 @@ public DefaultDataContainer(int concurrencyLevel) {
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel);
       evictionListener = null;
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(AnyEquivalence.getInstance());
    }
 
    public DefaultDataContainer(int concurrencyLevel,
@@ -73,38 +79,56 @@ public DefaultDataContainer(int concurrencyLevel,
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel, keyEq, AnyEquivalence.getInstance());
       evictionListener = null;
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = createExpirationIndex(keyEq);
    }
 
    protected DefaultDataContainer(int concurrencyLevel, int maxEntries,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence<? super K> keyEquivalence) {
+      evictionListener = createEvictionListener(strategy, policy);
+      entries = new BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>(maxEntries, concurrencyLevel, toEviction(strategy), evictionListener,
+                                                                          keyEquivalence, AnyEquivalence.getInstance());
+      extendedMap = new BoundedConcurrentExtendedMap();
+      expirationIndex = createExpirationIndex(keyEquivalence);
+   }
+
+   protected DefaultDataContainer(int concurrencyLevel, long maxSize,
+         EvictionStrategy strategy, EvictionThreadPolicy policy,
+         Equivalence<? super K> keyEquivalence,
+         EntrySizeCalculator<? super K, ? super InternalCacheEntry<K, V>> sizeCalculator) {
+      evictionListener = createEvictionListener(strategy, policy);
+      entries = new BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>(maxSize, concurrencyLevel, toEviction(strategy), evictionListener,
+                                                                          sizeCalculator, keyEquivalence, AnyEquivalence.getInstance());
+      extendedMap = new BoundedConcurrentExtendedMap();
+      expirationIndex = createExpirationIndex(keyEquivalence);
+   }
+
+   private static <K> ExpirationIndex<K> createExpirationIndex(Equivalence<? super K> keyEquivalence) {
+      return new ExpirationIndex<K>(keyEquivalence != null ? keyEquivalence : AnyEquivalence.getInstance());
+   }
+
+   private DefaultEvictionListener createEvictionListener(EvictionStrategy strategy, EvictionThreadPolicy policy) {
       // translate eviction policy and strategy
       switch (policy) {
          case PIGGYBACK:
          case DEFAULT:
-            evictionListener = new DefaultEvictionListener();
-            break;
+            return new DefaultEvictionListener();
          default:
             throw new IllegalArgumentException("No such eviction thread policy " + strategy);
       }
+   }
 
-      Eviction eviction;
+   private static Eviction toEviction(EvictionStrategy strategy) {
       switch (strategy) {
          case FIFO:
          case UNORDERED:
          case LRU:
-            eviction = Eviction.LRU;
-            break;
+            return Eviction.LRU;
          case LIRS:
-            eviction = Eviction.LIRS;
-            break;
+            return Eviction.LIRS;
          default:
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
-
-      entries = new BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>(maxEntries, concurrencyLevel, eviction, evictionListener,
-                                                                          keyEquivalence, AnyEquivalence.getInstance());
-      extendedMap = new BoundedConcurrentExtendedMap();
    }
 
    @Inject
@@ -125,6 +149,19 @@ public static <K, V> DataContainer<K, V> boundedDataContainer(int concurrencyLev
             policy, keyEquivalence);
    }
 
+   /**
+    * Creates a data container bounded by the estimated memory taken by its entries, see
+    * {@link InternalCacheEntrySizeCalculator}.
+    *
+    * @param maxSize the maximum size of the entries, in bytes
+    */
+   public static <K, V> DataContainer<K, V> memoryBoundedDataContainer(int concurrencyLevel, long maxSize,
+            EvictionStrategy strategy, EvictionThreadPolicy policy,
+            Equivalence<? super K> keyEquivalence) {
+      return new DefaultDataContainer(concurrencyLevel, maxSize, strategy,
+            policy, keyEquivalence, new InternalCacheEntrySizeCalculator());
+   }
+
    public static <K, V> DataContainer<K, V> unBoundedDataContainer(int concurrencyLevel,
          Equivalence<? super K> keyEquivalence) {
       return new DefaultDataContainer(concurrencyLevel, keyEquivalence);
@@ -146,6 +183,7 @@ public InternalCacheEntry<K, V> get(Object k) {
          long currentTimeMillis = timeService.wallClockTime();
          if (e.isExpired(currentTimeMillis)) {
             entries.remove(k);
+            expirationIndex.remove(k);
             e = null;
          } else {
             e.touch(currentTimeMillis);
@@ -157,6 +195,8 @@ public InternalCacheEntry<K, V> get(Object k) {
    @Override
    public void put(K k, V v, Metadata metadata) {
       InternalCacheEntry<K, V> e = entries.get(k);
+      // The factory may update the existing entry in place
+      boolean wasIndexed = e != null && e.canExpire();
 
       if (trace) {
          log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, v);
@@ -172,6 +212,14 @@ public void put(K k, V v, Metadata metadata) {
          log.tracef("Store %s in container", e);
 
       extendedMap.putAndActivate(e);
+      indexExpiration(e, wasIndexed);
+   }
+
+   private void indexExpiration(InternalCacheEntry<K, V> e, boolean wasIndexed) {
+      if (e.canExpire())
+         expirationIndex.add(e.getKey(), e.getExpiryTime());
+      else if (wasIndexed)
+         expirationIndex.remove(e.getKey());
    }
 
    @Override
@@ -179,6 +227,7 @@ public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
       if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
          entries.remove(k);
+         expirationIndex.remove(k);
          ice = null;
       }
       return ice != null;
@@ -187,6 +236,8 @@ public boolean containsKey(Object k) {
    @Override
    public InternalCacheEntry<K, V> remove(Object k) {
       InternalCacheEntry<K, V> e = entries.remove(k);
+      if (e != null && e.canExpire())
+         expirationIndex.remove(k);
       return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
    }
 
@@ -198,6 +249,7 @@ public int size() {
    @Override
    public void clear() {
       entries.clear();
+      expirationIndex.clear();
    }
 
    @Override
@@ -217,18 +269,50 @@ public Set<InternalCacheEntry<K, V>> entrySet() {
 
    @Override
    public void purgeExpired() {
+      purgeExpiredEntries();
+   }
+
+   /**
+    * Purges the expired entries, only visiting the entries whose expiry time is due according to the
+    * {@link ExpirationIndex}.  Entries which have been touched since they were indexed are indexed again with their
+    * current expiry time.
+    *
+    * @return the number of expired entries that were purged
+    */
+   public int purgeExpiredEntries() {
       long currentTimeMillis = timeService.wallClockTime();
-      for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = entries.values().iterator(); purgeCandidates.hasNext();) {
-         InternalCacheEntry e = purgeCandidates.next();
-         if (e.isExpired(currentTimeMillis)) {
-            purgeCandidates.remove();
+      int purged = 0;
+      List<InternalCacheEntry<K, V>> notExpired = null;
+      Set<K> dueKeys;
+      while ((dueKeys = expirationIndex.pollDue(currentTimeMillis)) != null) {
+         for (K key : dueKeys) {
+            InternalCacheEntry<K, V> e = entries.get(key);
+            if (e == null || !e.canExpire())
+               continue;
+            if (e.isExpired(currentTimeMillis)) {
+               if (entries.remove(key, e))
+                  purged++;
+            } else {
+               if (notExpired == null)
+                  notExpired = new ArrayList<InternalCacheEntry<K, V>>();
+               notExpired.add(e);
+            }
          }
       }
+      // Indexed after polling, as they may go back to a bucket which is due
+      if (notExpired != null) {
+         for (InternalCacheEntry<K, V> e : notExpired)
+            indexExpiration(e, false);
+      }
+      if (trace)
+         log.tracef("Purged %d expired entries", purged);
+      return purged;
    }
 
    @Override
    public void evict(K key) {
       extendedMap.evict(key);
+      expirationIndex.remove(key);
    }
 
    @Override
@@ -245,6 +329,10 @@ private final class DefaultEvictionListener implements EvictionListener<K, Inter
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         for (InternalCacheEntry<K, V> e : evicted.values()) {
+            if (e.canExpire())
+               expirationIndex.remove(e.getKey());
+         }
          evictionManager.onEntryEviction(evicted);
       }
 
@@ -427,10 +515,13 @@ public void compute(K key, final ComputeAction<K, V> action) {
                .compute(key, new EquivalentConcurrentHashMapV8.BiFun<K, InternalCacheEntry<K, V>, InternalCacheEntry<K, V>>() {
                   @Override
                   public InternalCacheEntry<K, V> apply(K key, InternalCacheEntry<K, V> oldEntry) {
+                     boolean wasIndexed = oldEntry != null && oldEntry.canExpire();
                      InternalCacheEntry<K, V> newEntry = action.compute(key, oldEntry, entryFactory);
                      if (newEntry == oldEntry) {
                         return oldEntry;
                      } else if (newEntry == null) {
+                        if (wasIndexed)
+                           expirationIndex.remove(key);
                         return null;
                      }
                      if (oldEntry == null) {
@@ -439,6 +530,7 @@ public InternalCacheEntry<K, V> apply(K key, InternalCacheEntry<K, V> oldEntry)
                      }
                      if (trace)
                         log.tracef("Store %s in container", newEntry);
+                     indexExpiration(newEntry, wasIndexed);
                      return newEntry;
                   }
                });
@@ -474,17 +566,21 @@ public void compute(K key, final ComputeAction<K, V> action) {
          boundedMap.lock(key);
          try {
             InternalCacheEntry<K, V> oldEntry = boundedMap.get(key);
+            boolean wasIndexed = oldEntry != null && oldEntry.canExpire();
             InternalCacheEntry<K, V> newEntry = action.compute(key, oldEntry, entryFactory);
             if (oldEntry == newEntry) {
                return;
             } else if (newEntry == null) {
                boundedMap.remove(key);
+               if (wasIndexed)
+                  expirationIndex.remove(key);
                return;
             }
             if (trace)
                log.tracef("Store %s in container", newEntry);
             //put already activate the entry if it is new.
             boundedMap.put(key, newEntry);
+            indexExpiration(newEntry, wasIndexed);
          } finally {
             boundedMap.unlock(key);
          }
@@ -0,0 +1,128 @@
+package org.infinispan.container;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of the keys of the entries that can expire, grouped in time-ordered buckets by expiry time, so that purging the
+ * expired entries only visits the entries which are due instead of the whole data container.
+ * <p/>
+ * Each key is in a single bucket: the index remembers the bucket of every key, so a key is moved when its entry is
+ * written again with a different expiry time, and removed when its entry is removed, evicted or replaced by an
+ * immortal one.  The index is not updated when a transient entry is touched, so the purging thread checks the current
+ * entry of every key polled from the index and adds the keys of the entries which are not expired yet back with their
+ * current expiry time.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+final class ExpirationIndex<K> {
+
+   /**
+    * The time span covered by one bucket, in milliseconds.
+    */
+   static final long DEFAULT_RESOLUTION = 1000;
+
+   private final ConcurrentNavigableMap<Long, ConcurrentMap<K, Boolean>> buckets =
+         new ConcurrentSkipListMap<Long, ConcurrentMap<K, Boolean>>();
+   private final ConcurrentMap<K, Long> slots;
+   private final Equivalence<? super K> keyEquivalence;
+   private final long resolution;
+
+   ExpirationIndex(Equivalence<? super K> keyEquivalence) {
+      this(keyEquivalence, DEFAULT_RESOLUTION);
+   }
+
+   ExpirationIndex(Equivalence<? super K> keyEquivalence, long resolution) {
+      this.keyEquivalence = keyEquivalence;
+      this.resolution = resolution;
+      this.slots = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.<Long>getInstance());
+   }
+
+   /**
+    * Adds a key to the bucket of the given expiry time, removing it from its previous bucket if needed.
+    */
+   void add(K key, long expiryTime) {
+      Long slot = expiryTime / resolution;
+      Long previous = slots.put(key, slot);
+      if (previous != null && !previous.equals(slot)) {
+         removeFromBucket(key, previous);
+      }
+      addToBucket(key, slot);
+   }
+
+   /**
+    * Removes a key from the index.
+    */
+   void remove(Object key) {
+      Long previous = slots.remove(key);
+      if (previous != null) {
+         removeFromBucket(key, previous);
+      }
+   }
+
+   private void addToBucket(K key, Long slot) {
+      while (true) {
+         ConcurrentMap<K, Boolean> bucket = buckets.get(slot);
+         if (bucket == null) {
+            ConcurrentMap<K, Boolean> newBucket = CollectionFactory.makeConcurrentMap(
+                  8, keyEquivalence, AnyEquivalence.getInstance());
+            bucket = buckets.putIfAbsent(slot, newBucket);
+            if (bucket == null) bucket = newBucket;
+         }
+         bucket.put(key, Boolean.TRUE);
+         // If the bucket was polled in the meantime, the key may have been missed: add it to a new bucket
+         if (buckets.get(slot) == bucket) return;
+      }
+   }
+
+   private void removeFromBucket(Object key, Long slot) {
+      ConcurrentMap<K, Boolean> bucket = buckets.get(slot);
+      // Empty buckets are only dropped once due, as a key may be added to the bucket concurrently
+      if (bucket != null) {
+         bucket.remove(key);
+      }
+   }
+
+   /**
+    * Removes the first bucket containing keys which may have expired at the given time.  The keys of the bucket are
+    * removed from the index, unless they were moved to another bucket in the meantime.
+    *
+    * @return the keys of the bucket, or {@code null} if no bucket is due
+    */
+   Set<K> pollDue(long currentTimeMillis) {
+      long currentSlot = currentTimeMillis / resolution;
+      while (true) {
+         Map.Entry<Long, ConcurrentMap<K, Boolean>> first = buckets.firstEntry();
+         if (first == null || first.getKey() > currentSlot)
+            return null;
+         if (buckets.remove(first.getKey(), first.getValue())) {
+            Set<K> keys = first.getValue().keySet();
+            for (K key : keys) {
+               slots.remove(key, first.getKey());
+            }
+            return keys;
+         }
+      }
+   }
+
+   /**
+    * @return the number of indexed keys
+    */
+   int size() {
+      return slots.size();
+   }
+
+   void clear() {
+      buckets.clear();
+      slots.clear();
+   }
+}
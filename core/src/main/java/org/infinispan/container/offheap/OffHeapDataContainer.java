@@ -0,0 +1,1017 @@
+package org.infinispan.container.offheap;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
+/**
+ * A {@link DataContainer} that keeps its entries outside of the Java heap, so that very large caches don't make the
+ * garbage collector scan millions of entry objects.
+ * <p>
+ * Each entry is stored in its own block of off-heap memory holding the marshalled key, metadata and value along
+ * with the expiration timestamps. Blocks are found through an off-heap hash index keyed by the hash of the
+ * marshalled key, and keys are compared by their marshalled bytes, as {@link ByteArrayEquivalence} would, so keys
+ * must always marshall to the same bytes. {@link InternalCacheEntry} instances are only created, and the key and
+ * value unmarshalled, when an entry is read.
+ * <p>
+ * The container may be bounded by number of entries or by memory, in which case entries are evicted in least
+ * recently used order whatever the configured eviction strategy.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // Layout of an entry block
+   private static final int NEXT = 0;
+   private static final int LRU_PREVIOUS = 8;
+   private static final int LRU_NEXT = 16;
+   private static final int HASH = 24;
+   private static final int KEY_LENGTH = 28;
+   private static final int METADATA_LENGTH = 32;
+   private static final int VALUE_LENGTH = 36;
+   private static final int CREATED = 40;
+   private static final int LAST_USED = 48;
+   private static final int LIFESPAN = 56;
+   private static final int MAX_IDLE = 64;
+   private static final int HEADER_SIZE = 72;
+
+   private static final int INITIAL_BUCKETS = 1 << 10;
+   private static final int MAXIMUM_BUCKETS = 1 << 30;
+   private static final float LOAD_FACTOR = 0.75f;
+
+   /**
+    * Stripe i guards the buckets whose index is i modulo the number of stripes. There are never more stripes than
+    * buckets, so all the entries of a bucket are guarded by the same stripe.
+    */
+   private final ReentrantReadWriteLock[] locks;
+   private final int lockMask;
+   private final EvictionType evictionType;
+   private final long maxSize;
+
+   /**
+    * Guards the LRU list linking the entries of a bounded container, always acquired after the bucket lock.
+    */
+   private final Lock lruLock = new ReentrantLock();
+   private long lruHead;
+   private long lruTail;
+
+   private volatile long table;
+   private volatile int buckets;
+   private final AtomicInteger count = new AtomicInteger();
+   private final AtomicLong memory = new AtomicLong();
+
+   private StreamingMarshaller marshaller;
+   private InternalEntryFactory entryFactory;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private PersistenceManager pm;
+   private TimeService timeService;
+
+   /**
+    * Creates an unbounded off-heap container.
+    */
+   public OffHeapDataContainer(int concurrencyLevel) {
+      this(concurrencyLevel, null, -1);
+   }
+
+   /**
+    * Creates an off-heap container bounded by number of entries or by memory.
+    *
+    * @param evictionType how the container is bounded, or null if it is unbounded
+    * @param maxSize the maximum number of entries or number of bytes taken by the entries
+    */
+   public OffHeapDataContainer(int concurrencyLevel, EvictionType evictionType, long maxSize) {
+      if (evictionType != null && maxSize <= 0)
+         throw new IllegalArgumentException("Maximum size has to be positive for a bounded container");
+      int stripes = 1;
+      while (stripes < concurrencyLevel && stripes < INITIAL_BUCKETS) {
+         stripes <<= 1;
+      }
+      locks = new ReentrantReadWriteLock[stripes];
+      for (int i = 0; i < stripes; i++) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      lockMask = stripes - 1;
+      this.evictionType = evictionType;
+      this.maxSize = maxSize;
+      allocateTable();
+   }
+
+   @Inject
+   public void initialize(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
+                          EvictionManager evictionManager, PassivationManager passivator,
+                          InternalEntryFactory entryFactory, ActivationManager activator, PersistenceManager pm,
+                          TimeService timeService) {
+      this.marshaller = marshaller;
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.pm = pm;
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void start() {
+      if (table == 0) {
+         allocateTable();
+      }
+   }
+
+   /**
+    * Releases all the off-heap memory held by the container.
+    */
+   @Stop(priority = 1000)
+   public void stop() {
+      lockAll();
+      try {
+         if (table != 0) {
+            freeEntries();
+            OffHeapMemory.free(table);
+            table = 0;
+         }
+      } finally {
+         unlockAll();
+      }
+   }
+
+   private void allocateTable() {
+      table = OffHeapMemory.allocateZeroed((long) INITIAL_BUCKETS << 3);
+      buckets = INITIAL_BUCKETS;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      Lock lock = readLock(hash);
+      lock.lock();
+      try {
+         long address = find(hash, key);
+         if (address == 0) {
+            return null;
+         }
+         if (canExpire(address)) {
+            long now = timeService.wallClockTime();
+            if (isExpired(address, now)) {
+               address = 0;
+            } else {
+               // a racy update of the timestamp is as good as any
+               OffHeapMemory.putLong(address, LAST_USED, now);
+            }
+         }
+         if (address != 0) {
+            touch(address);
+            return toEntry(address, k);
+         }
+      } finally {
+         lock.unlock();
+      }
+      removeExpired(hash, key);
+      return null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      Lock lock = readLock(hash);
+      lock.lock();
+      try {
+         long address = find(hash, key);
+         return address == 0 ? null : toEntry(address, k);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      InternalCacheEntry<K, V> ice = entryFactory.create(k, v, metadata);
+      if (trace)
+         log.tracef("Store %s in container", ice);
+
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      long address = allocateEntry(hash, key, ice);
+      Lock lock = writeLock(hash);
+      lock.lock();
+      try {
+         if (link(hash, key, address)) {
+            activator.activate(k);
+         }
+      } finally {
+         lock.unlock();
+      }
+      afterInsert();
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      Lock lock = readLock(hash);
+      lock.lock();
+      try {
+         long address = find(hash, key);
+         if (address == 0) {
+            return false;
+         }
+         if (!canExpire(address) || !isExpired(address, timeService.wallClockTime())) {
+            return true;
+         }
+      } finally {
+         lock.unlock();
+      }
+      removeExpired(hash, key);
+      return false;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      InternalCacheEntry<K, V> ice;
+      Lock lock = writeLock(hash);
+      lock.lock();
+      try {
+         long address = unlink(hash, key);
+         if (address == 0) {
+            return null;
+         }
+         ice = toEntry(address, k);
+         release(address);
+      } finally {
+         lock.unlock();
+      }
+      if (isBounded() && pm != null) {
+         // same as the bounded DefaultDataContainer, removing (and not evicting) removes from the stores too
+         pm.deleteFromAllStores(k, false);
+      }
+      return ice.canExpire() && ice.isExpired(timeService.wallClockTime()) ? null : ice;
+   }
+
+   @Override
+   public int size() {
+      return count.get();
+   }
+
+   /**
+    * Returns the number of bytes of off-heap memory taken by the entries.
+    */
+   public long memoryUsed() {
+      return memory.get();
+   }
+
+   @Override
+   public void clear() {
+      lockAll();
+      try {
+         if (table != 0) {
+            freeEntries();
+         }
+      } finally {
+         unlockAll();
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      long now = timeService.wallClockTime();
+      for (int bucket = 0; bucket < buckets; bucket++) {
+         Lock lock = locks[bucket & lockMask].writeLock();
+         lock.lock();
+         try {
+            if (bucket >= buckets) {
+               break;
+            }
+            long bucketOffset = (long) bucket << 3;
+            long previous = 0;
+            long address = OffHeapMemory.getLong(table, bucketOffset);
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address, NEXT);
+               if (canExpire(address) && isExpired(address, now)) {
+                  if (previous == 0) {
+                     OffHeapMemory.putLong(table, bucketOffset, next);
+                  } else {
+                     OffHeapMemory.putLong(previous, NEXT, next);
+                  }
+                  release(address);
+               } else {
+                  previous = address;
+               }
+               address = next;
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   @Override
+   public void evict(K k) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      Lock lock = writeLock(hash);
+      lock.lock();
+      try {
+         long address = unlink(hash, key);
+         if (address != 0) {
+            passivator.passivate(toEntry(address, k));
+            release(address);
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public void compute(K k, ComputeAction<K, V> action) {
+      byte[] key = marshall(k);
+      int hash = hash(key);
+      Lock lock = writeLock(hash);
+      lock.lock();
+      try {
+         long address = find(hash, key);
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : toEntry(address, k);
+         InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
+         if (newEntry == null) {
+            if (oldEntry != null) {
+               release(unlink(hash, key));
+            }
+            return;
+         }
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         // the action may have updated the old entry in place, so it is always written back
+         if (link(hash, key, allocateEntry(hash, key, newEntry))) {
+            activator.activate(k);
+         }
+      } finally {
+         lock.unlock();
+      }
+      afterInsert();
+   }
+
+   @Override
+   public void executeTask(AdvancedCacheLoader.KeyFilter<? super K> filter,
+                           ParallelIterableMap.KeyValueAction<? super K, InternalCacheEntry<? super K, ? super V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         if (filter.shouldLoadKey(entry.getKey())) {
+            action.apply(entry.getKey(), entry);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator();
+   }
+
+   private boolean isBounded() {
+      return evictionType != null;
+   }
+
+   private Lock readLock(int hash) {
+      return locks[hash & lockMask].readLock();
+   }
+
+   private Lock writeLock(int hash) {
+      return locks[hash & lockMask].writeLock();
+   }
+
+   private void lockAll() {
+      for (ReentrantReadWriteLock lock : locks) {
+         lock.writeLock().lock();
+      }
+   }
+
+   private void unlockAll() {
+      for (int i = locks.length - 1; i >= 0; i--) {
+         locks[i].writeLock().unlock();
+      }
+   }
+
+   private static int hash(byte[] key) {
+      int h = ByteArrayEquivalence.INSTANCE.hashCode(key);
+      return h ^ (h >>> 16);
+   }
+
+   private long bucketOffset(int hash) {
+      return (long) (hash & (buckets - 1)) << 3;
+   }
+
+   /**
+    * Returns the address of the entry with the given key, or 0 if there is none. Call only while holding a lock.
+    */
+   private long find(int hash, byte[] key) {
+      long address = OffHeapMemory.getLong(table, bucketOffset(hash));
+      while (address != 0) {
+         if (matches(address, hash, key)) {
+            return address;
+         }
+         address = OffHeapMemory.getLong(address, NEXT);
+      }
+      return 0;
+   }
+
+   private static boolean matches(long address, int hash, byte[] key) {
+      return OffHeapMemory.getInt(address, HASH) == hash
+            && OffHeapMemory.getInt(address, KEY_LENGTH) == key.length
+            && OffHeapMemory.equals(address, HEADER_SIZE, key);
+   }
+
+   /**
+    * Links a new entry in its bucket, replacing and releasing any entry with the same key. Call only while holding
+    * the write lock.
+    *
+    * @return true if there was no entry with the same key
+    */
+   private boolean link(int hash, byte[] key, long newAddress) {
+      long bucketOffset = bucketOffset(hash);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(table, bucketOffset);
+      while (address != 0) {
+         if (matches(address, hash, key)) {
+            OffHeapMemory.putLong(newAddress, NEXT, OffHeapMemory.getLong(address, NEXT));
+            if (previous == 0) {
+               OffHeapMemory.putLong(table, bucketOffset, newAddress);
+            } else {
+               OffHeapMemory.putLong(previous, NEXT, newAddress);
+            }
+            addToLru(newAddress);
+            release(address);
+            count.incrementAndGet();
+            return false;
+         }
+         previous = address;
+         address = OffHeapMemory.getLong(address, NEXT);
+      }
+      OffHeapMemory.putLong(newAddress, NEXT, OffHeapMemory.getLong(table, bucketOffset));
+      OffHeapMemory.putLong(table, bucketOffset, newAddress);
+      addToLru(newAddress);
+      count.incrementAndGet();
+      return true;
+   }
+
+   /**
+    * Unlinks the entry with the given key from its bucket, without releasing it. Call only while holding the write
+    * lock.
+    *
+    * @return the address of the unlinked entry, or 0 if there was none
+    */
+   private long unlink(int hash, byte[] key) {
+      long bucketOffset = bucketOffset(hash);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(table, bucketOffset);
+      while (address != 0) {
+         if (matches(address, hash, key)) {
+            unlinkAfter(bucketOffset, previous, address);
+            return address;
+         }
+         previous = address;
+         address = OffHeapMemory.getLong(address, NEXT);
+      }
+      return 0;
+   }
+
+   private boolean unlink(int hash, long target) {
+      long bucketOffset = bucketOffset(hash);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(table, bucketOffset);
+      while (address != 0) {
+         if (address == target) {
+            unlinkAfter(bucketOffset, previous, address);
+            return true;
+         }
+         previous = address;
+         address = OffHeapMemory.getLong(address, NEXT);
+      }
+      return false;
+   }
+
+   private void unlinkAfter(long bucketOffset, long previous, long address) {
+      long next = OffHeapMemory.getLong(address, NEXT);
+      if (previous == 0) {
+         OffHeapMemory.putLong(table, bucketOffset, next);
+      } else {
+         OffHeapMemory.putLong(previous, NEXT, next);
+      }
+   }
+
+   private long allocateEntry(int hash, byte[] key, InternalCacheEntry<K, V> ice) {
+      byte[] metadata = ice instanceof MetadataAware ? marshall(ice.getMetadata()) : null;
+      byte[] value = marshall(ice.getValue());
+      int metadataLength = metadata == null ? 0 : metadata.length;
+      long size = (long) HEADER_SIZE + key.length + metadataLength + value.length;
+      long address = OffHeapMemory.allocate(size);
+      memory.addAndGet(size);
+      OffHeapMemory.putLong(address, NEXT, 0);
+      OffHeapMemory.putLong(address, LRU_PREVIOUS, 0);
+      OffHeapMemory.putLong(address, LRU_NEXT, 0);
+      OffHeapMemory.putInt(address, HASH, hash);
+      OffHeapMemory.putInt(address, KEY_LENGTH, key.length);
+      OffHeapMemory.putInt(address, METADATA_LENGTH, metadata == null ? -1 : metadata.length);
+      OffHeapMemory.putInt(address, VALUE_LENGTH, value.length);
+      OffHeapMemory.putLong(address, CREATED, ice.getCreated());
+      OffHeapMemory.putLong(address, LAST_USED, ice.getLastUsed());
+      OffHeapMemory.putLong(address, LIFESPAN, ice.getLifespan());
+      OffHeapMemory.putLong(address, MAX_IDLE, ice.getMaxIdle());
+      OffHeapMemory.putBytes(address, HEADER_SIZE, key);
+      if (metadata != null) {
+         OffHeapMemory.putBytes(address, HEADER_SIZE + key.length, metadata);
+      }
+      OffHeapMemory.putBytes(address, HEADER_SIZE + key.length + metadataLength, value);
+      return address;
+   }
+
+   private static long entrySize(long address) {
+      return (long) HEADER_SIZE + OffHeapMemory.getInt(address, KEY_LENGTH)
+            + Math.max(OffHeapMemory.getInt(address, METADATA_LENGTH), 0) + OffHeapMemory.getInt(address, VALUE_LENGTH);
+   }
+
+   /**
+    * Frees an entry that has been unlinked from its bucket. Call only while holding the write lock.
+    */
+   private void release(long address) {
+      removeFromLru(address);
+      count.decrementAndGet();
+      memory.addAndGet(-entrySize(address));
+      OffHeapMemory.free(address);
+   }
+
+   /**
+    * Frees all entries. Call only while holding all the write locks.
+    */
+   private void freeEntries() {
+      for (int bucket = 0; bucket < buckets; bucket++) {
+         long address = OffHeapMemory.getLong(table, (long) bucket << 3);
+         while (address != 0) {
+            long next = OffHeapMemory.getLong(address, NEXT);
+            count.decrementAndGet();
+            memory.addAndGet(-entrySize(address));
+            OffHeapMemory.free(address);
+            address = next;
+         }
+         OffHeapMemory.putLong(table, (long) bucket << 3, 0);
+      }
+      lruLock.lock();
+      try {
+         lruHead = 0;
+         lruTail = 0;
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private InternalCacheEntry<K, V> toEntry(long address, Object key) {
+      int keyLength = OffHeapMemory.getInt(address, KEY_LENGTH);
+      int metadataLength = OffHeapMemory.getInt(address, METADATA_LENGTH);
+      int valueLength = OffHeapMemory.getInt(address, VALUE_LENGTH);
+      if (key == null) {
+         key = unmarshall(OffHeapMemory.getBytes(address, HEADER_SIZE, keyLength));
+      }
+      Metadata metadata = null;
+      if (metadataLength >= 0) {
+         metadata = (Metadata) unmarshall(OffHeapMemory.getBytes(address, HEADER_SIZE + keyLength, metadataLength));
+      }
+      Object value = unmarshall(OffHeapMemory.getBytes(address,
+            HEADER_SIZE + keyLength + Math.max(metadataLength, 0), valueLength));
+      return entryFactory.create(key, value, metadata, OffHeapMemory.getLong(address, CREATED),
+            OffHeapMemory.getLong(address, LIFESPAN), OffHeapMemory.getLong(address, LAST_USED),
+            OffHeapMemory.getLong(address, MAX_IDLE));
+   }
+
+   private static boolean canExpire(long address) {
+      return OffHeapMemory.getLong(address, LIFESPAN) > -1 || OffHeapMemory.getLong(address, MAX_IDLE) > -1;
+   }
+
+   private static boolean isExpired(long address, long now) {
+      return ExpiryHelper.isExpiredTransientMortal(OffHeapMemory.getLong(address, MAX_IDLE),
+            OffHeapMemory.getLong(address, LAST_USED), OffHeapMemory.getLong(address, LIFESPAN),
+            OffHeapMemory.getLong(address, CREATED), now);
+   }
+
+   private void removeExpired(int hash, byte[] key) {
+      Lock lock = writeLock(hash);
+      lock.lock();
+      try {
+         long address = find(hash, key);
+         if (address != 0 && canExpire(address) && isExpired(address, timeService.wallClockTime())) {
+            release(unlink(hash, key));
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private void addToLru(long address) {
+      if (!isBounded())
+         return;
+      lruLock.lock();
+      try {
+         linkLruHead(address);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private void touch(long address) {
+      if (!isBounded())
+         return;
+      lruLock.lock();
+      try {
+         if (lruHead != address) {
+            unlinkLru(address);
+            linkLruHead(address);
+         }
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private void removeFromLru(long address) {
+      if (!isBounded())
+         return;
+      lruLock.lock();
+      try {
+         unlinkLru(address);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private void linkLruHead(long address) {
+      OffHeapMemory.putLong(address, LRU_PREVIOUS, 0);
+      OffHeapMemory.putLong(address, LRU_NEXT, lruHead);
+      if (lruHead != 0) {
+         OffHeapMemory.putLong(lruHead, LRU_PREVIOUS, address);
+      }
+      lruHead = address;
+      if (lruTail == 0) {
+         lruTail = address;
+      }
+   }
+
+   private void unlinkLru(long address) {
+      long previous = OffHeapMemory.getLong(address, LRU_PREVIOUS);
+      long next = OffHeapMemory.getLong(address, LRU_NEXT);
+      if (previous == 0) {
+         lruHead = next;
+      } else {
+         OffHeapMemory.putLong(previous, LRU_NEXT, next);
+      }
+      if (next == 0) {
+         lruTail = previous;
+      } else {
+         OffHeapMemory.putLong(next, LRU_PREVIOUS, previous);
+      }
+      OffHeapMemory.putLong(address, LRU_PREVIOUS, 0);
+      OffHeapMemory.putLong(address, LRU_NEXT, 0);
+   }
+
+   private boolean isOverCapacity() {
+      if (evictionType == EvictionType.MEMORY) {
+         return memory.get() > maxSize;
+      }
+      return evictionType == EvictionType.COUNT && count.get() > maxSize;
+   }
+
+   /**
+    * Grows the hash index or evicts entries after an insertion. Call without holding any lock.
+    */
+   private void afterInsert() {
+      int currentBuckets = buckets;
+      if (count.get() > currentBuckets * LOAD_FACTOR && currentBuckets < MAXIMUM_BUCKETS) {
+         resize(currentBuckets);
+      }
+      if (isOverCapacity()) {
+         evictLeastRecentlyUsed();
+      }
+   }
+
+   private void resize(int expectedBuckets) {
+      lockAll();
+      try {
+         if (buckets != expectedBuckets || table == 0) {
+            // resized or stopped by another thread
+            return;
+         }
+         int newBuckets = expectedBuckets << 1;
+         long newTable = OffHeapMemory.allocateZeroed((long) newBuckets << 3);
+         for (int bucket = 0; bucket < expectedBuckets; bucket++) {
+            long address = OffHeapMemory.getLong(table, (long) bucket << 3);
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address, NEXT);
+               long newBucketOffset = (long) (OffHeapMemory.getInt(address, HASH) & (newBuckets - 1)) << 3;
+               OffHeapMemory.putLong(address, NEXT, OffHeapMemory.getLong(newTable, newBucketOffset));
+               OffHeapMemory.putLong(newTable, newBucketOffset, address);
+               address = next;
+            }
+         }
+         OffHeapMemory.free(table);
+         table = newTable;
+         buckets = newBuckets;
+      } finally {
+         unlockAll();
+      }
+   }
+
+   private void evictLeastRecentlyUsed() {
+      Map<K, InternalCacheEntry<K, V>> evicted = null;
+      while (isOverCapacity()) {
+         long candidate;
+         int hash;
+         lruLock.lock();
+         try {
+            candidate = lruTail;
+            if (candidate == 0) {
+               break;
+            }
+            hash = OffHeapMemory.getInt(candidate, HASH);
+         } finally {
+            lruLock.unlock();
+         }
+         Lock lock = writeLock(hash);
+         lock.lock();
+         try {
+            // the candidate may have been removed, or even reallocated, since it was picked
+            if (table == 0 || !unlink(hash, candidate)) {
+               continue;
+            }
+            InternalCacheEntry<K, V> ice = toEntry(candidate, null);
+            passivator.passivate(ice);
+            release(candidate);
+            if (evicted == null) {
+               evicted = new HashMap<K, InternalCacheEntry<K, V>>();
+            }
+            evicted.put(ice.getKey(), ice);
+         } finally {
+            lock.unlock();
+         }
+      }
+      if (evicted != null) {
+         evictionManager.onEntryEviction(evicted);
+      }
+   }
+
+   private byte[] marshall(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o, e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException("Interrupted while marshalling " + o, e);
+      }
+   }
+
+   private Object unmarshall(byte[] bytes) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (IOException e) {
+         throw new CacheException("Unable to unmarshall off-heap entry", e);
+      } catch (ClassNotFoundException e) {
+         throw new CacheException("Unable to unmarshall off-heap entry", e);
+      }
+   }
+
+   /**
+    * Reads the entries of one bucket at a time, so only the entries of a single bucket are materialized at once.
+    */
+   private class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+      private int bucket;
+      private Iterator<InternalCacheEntry<K, V>> current = InfinispanCollections.<InternalCacheEntry<K, V>>emptyList().iterator();
+
+      @Override
+      public boolean hasNext() {
+         while (!current.hasNext() && bucket < buckets) {
+            current = readBucket(bucket++).iterator();
+         }
+         return current.hasNext();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext())
+            throw new NoSuchElementException();
+         return current.next();
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+
+      private List<InternalCacheEntry<K, V>> readBucket(int bucket) {
+         Lock lock = locks[bucket & lockMask].readLock();
+         lock.lock();
+         try {
+            if (bucket >= buckets || table == 0) {
+               return InfinispanCollections.emptyList();
+            }
+            long address = OffHeapMemory.getLong(table, (long) bucket << 3);
+            if (address == 0) {
+               return InfinispanCollections.emptyList();
+            }
+            List<InternalCacheEntry<K, V>> entries = new ArrayList<InternalCacheEntry<K, V>>(2);
+            while (address != 0) {
+               entries.add(toEntry(address, null));
+               address = OffHeapMemory.getLong(address, NEXT);
+            }
+            return entries;
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         @SuppressWarnings("rawtypes")
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         if (ice == null) {
+            return false;
+         }
+         return ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator();
+         return new Iterator<InternalCacheEntry<K, V>>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public InternalCacheEntry<K, V> next() {
+               return CoreImmutables.immutableInternalCacheEntry(it.next());
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return count.get();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator();
+         return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return it.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return count.get();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<V> {
+
+      @Override
+      public Iterator<V> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator();
+         return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public V next() {
+               return it.next().getValue();
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return count.get();
+      }
+   }
+}
@@ -0,0 +1,94 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.commons.CacheException;
+
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * Thin wrapper around {@link sun.misc.Unsafe} to allocate, free and access memory outside of the Java heap. Callers
+ * are responsible for only accessing addresses they allocated and haven't freed yet.
+ *
+ * @since 7.0
+ */
+final class OffHeapMemory {
+
+   private static final sun.misc.Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+   private OffHeapMemory() {
+   }
+
+   static long allocate(long bytes) {
+      return UNSAFE.allocateMemory(bytes);
+   }
+
+   static long allocateZeroed(long bytes) {
+      long address = UNSAFE.allocateMemory(bytes);
+      UNSAFE.setMemory(address, bytes, (byte) 0);
+      return address;
+   }
+
+   static void free(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static long getLong(long address, long offset) {
+      return UNSAFE.getLong(address + offset);
+   }
+
+   static void putLong(long address, long offset, long value) {
+      UNSAFE.putLong(address + offset, value);
+   }
+
+   static int getInt(long address, long offset) {
+      return UNSAFE.getInt(address + offset);
+   }
+
+   static void putInt(long address, long offset, int value) {
+      UNSAFE.putInt(address + offset, value);
+   }
+
+   static void putBytes(long address, long offset, byte[] bytes) {
+      UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE_OFFSET, null, address + offset, bytes.length);
+   }
+
+   static byte[] getBytes(long address, long offset, int length) {
+      byte[] bytes = new byte[length];
+      UNSAFE.copyMemory(null, address + offset, bytes, BYTE_ARRAY_BASE_OFFSET, length);
+      return bytes;
+   }
+
+   /**
+    * Compares the given bytes with the ones stored at the given address, which must hold at least as many bytes.
+    */
+   static boolean equals(long address, long offset, byte[] bytes) {
+      long start = address + offset;
+      int i = 0;
+      for (; i + 8 <= bytes.length; i += 8) {
+         if (UNSAFE.getLong(start + i) != UNSAFE.getLong(bytes, BYTE_ARRAY_BASE_OFFSET + i))
+            return false;
+      }
+      for (; i < bytes.length; i++) {
+         if (UNSAFE.getByte(start + i) != bytes[i])
+            return false;
+      }
+      return true;
+   }
+
+   private static sun.misc.Unsafe getUnsafe() {
+      try {
+         return AccessController.doPrivileged(new PrivilegedExceptionAction<sun.misc.Unsafe>() {
+            @Override
+            public sun.misc.Unsafe run() throws Exception {
+               Field f = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+               f.setAccessible(true);
+               return (sun.misc.Unsafe) f.get(null);
+            }
+         });
+      } catch (Exception e) {
+         throw new CacheException("Off-heap memory is not available on this JVM", e);
+      }
+   }
+}
@@ -3,11 +3,11 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.remoting.transport.Address;
 
@@ -26,11 +26,15 @@ public interface MapReduceManager {
    /**
     * Invoked when MapCombineCommand arrives to a target Infinispan node and returns set of
     * intermediate keys that needs to be reduced.
+    * <p>
+    * Implementations should shuffle the intermediate values to the nodes owning them in the
+    * intermediate cache, batched with {@link ShuffleCommand}s.
     * 
     * @param mcc MapCombineCommand sent from MapReduceTask
-    * @return a set of intermediate keys to be reduced distributively 
+    * @return the set of intermediate keys to be reduced distributively, and the number of bytes
+    *         shuffled
     */
-   <KIn, VIn, KOut, VOut> Set<KOut> mapAndCombineForDistributedReduction(
+   <KIn, VIn, KOut, VOut> ShuffledKeys<KOut> mapAndCombineForDistributedReduction(
             MapCombineCommand<KIn, VIn, KOut, VOut> mcc) throws InterruptedException;
 
    /**
@@ -57,6 +61,15 @@ <KIn, VIn, KOut, VOut> Map<KOut, List<VOut>> mapAndCombineForLocalReduction(
     * @return map of reduced output keys and values returned to MapReduceTask
     */
    <KOut, VOut> Map<KOut, VOut> reduce(ReduceCommand<KOut, VOut> reducer) throws InterruptedException;
+
+   /**
+    * Invoked when ShuffleCommand arrives to a target Infinispan node. Implementations should merge
+    * the shipped intermediate values with the values of the same keys already stored in the
+    * intermediate cache.
+    *
+    * @param shuffleCommand ShuffleCommand sent from a node executing the map phase
+    */
+   void mergeIntermediateValues(ShuffleCommand shuffleCommand) throws InterruptedException;
    
    /**
     * Invoked when ReduceCommand arrives to a target Infinispan node. However, instead of returning
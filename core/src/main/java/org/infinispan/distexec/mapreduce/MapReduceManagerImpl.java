@@ -1,12 +1,17 @@
 package org.infinispan.distexec.mapreduce;
 
+import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.atomic.Delta;
 import org.infinispan.atomic.DeltaAware;
+import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.ParallelIterableMap;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
@@ -21,15 +26,16 @@
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.PrimaryOwnerFilter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
-import org.infinispan.persistence.spi.AdvancedCacheLoader.TaskContext;
 import org.infinispan.manager.EmbeddedCacheManager;
-import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,11 +48,12 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 
 /**
  * Default implementation of {@link MapReduceManager}.
@@ -60,11 +67,14 @@
 public class MapReduceManagerImpl implements MapReduceManager {
 
    private static final Log log = LogFactory.getLog(MapReduceManagerImpl.class);
+   // Maximum number of ShuffleCommands awaiting their response while the intermediate values are shuffled
+   private static final int MAX_SHUFFLES_IN_FLIGHT = 8;
    private ClusteringDependentLogic cdl;
    private EmbeddedCacheManager cacheManager;
    private PersistenceManager persistenceManager;
    private ExecutorService executorService;
    private TimeService timeService;
+   private StreamingMarshaller marshaller;
    private int chunkSize;
 
    MapReduceManagerImpl() {
@@ -73,12 +83,14 @@ public class MapReduceManagerImpl implements MapReduceManager {
    @Inject
    public void init(EmbeddedCacheManager cacheManager, PersistenceManager persistenceManager,
             @ComponentName(ASYNC_TRANSPORT_EXECUTOR) ExecutorService asyncTransportExecutor,
-            ClusteringDependentLogic cdl, TimeService timeService, Configuration configuration) {
+            ClusteringDependentLogic cdl, TimeService timeService, Configuration configuration,
+            @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
       this.cacheManager = cacheManager;
       this.persistenceManager = persistenceManager;
       this.cdl = cdl;
       this.executorService = asyncTransportExecutor;
       this.timeService = timeService;
+      this.marshaller = marshaller;
       int size = configuration.clustering().stateTransfer().chunkSize();
       this.chunkSize = size > 0 ? size : 512;
    }
@@ -91,13 +103,23 @@ public ExecutorService getExecutorService() {
    @Override
    public <KIn, VIn, KOut, VOut> Map<KOut, List<VOut>> mapAndCombineForLocalReduction(
             MapCombineCommand<KIn, VIn, KOut, VOut> mcc) throws InterruptedException {
-      CollectableCollector<KOut, VOut> collector = map(mcc);
-      Map<KOut, List<VOut>> collectedValues = collector.removeCollectedValues();
-      return combine(mcc, collectedValues);
+      SpillingCollector<KOut, VOut> collector = map(mcc);
+      final Map<KOut, List<VOut>> combinedValues = new HashMap<KOut, List<VOut>>();
+      try {
+         collector.drainTo(new SpillingCollector.ValuesSink<KOut, VOut>() {
+            @Override
+            public void accept(KOut key, List<VOut> values) {
+               combinedValues.put(key, values);
+            }
+         });
+      } finally {
+         collector.close();
+      }
+      return combinedValues;
    }
 
    @Override
-   public <KIn, VIn, KOut, VOut> Set<KOut> mapAndCombineForDistributedReduction(
+   public <KIn, VIn, KOut, VOut> ShuffledKeys<KOut> mapAndCombineForDistributedReduction(
             MapCombineCommand<KIn, VIn, KOut, VOut> mcc) throws InterruptedException {
       try {
          return mapAndCombine(mcc);
@@ -181,7 +203,7 @@ public void apply(Object k, InternalCacheEntry v) {
    }
 
    @SuppressWarnings("unchecked")
-   protected <KIn, VIn, KOut, VOut> CollectableCollector<KOut, VOut> map(
+   protected <KIn, VIn, KOut, VOut> SpillingCollector<KOut, VOut> map(
             MapCombineCommand<KIn, VIn, KOut, VOut> mcc) throws InterruptedException {
       final Cache<KIn, VIn> cache = cacheManager.getCache(mcc.getCacheName());
       Set<KIn> keys = mcc.getKeys();
@@ -190,7 +212,7 @@ protected <KIn, VIn, KOut, VOut> CollectableCollector<KOut, VOut> map(
 
       // hook map function into lifecycle and execute it
       MapReduceTaskLifecycleService taskLifecycleService = MapReduceTaskLifecycleService.getInstance();
-      final DefaultCollector<KOut, VOut> collector = new DefaultCollector<KOut, VOut>(!inputKeysSpecified);
+      final SpillingCollector<KOut, VOut> collector = newCollector(mcc, !inputKeysSpecified);
       DataContainer dc = cache.getAdvancedCache().getDataContainer();
       log.tracef("For m/r task %s invoking %s with input keys %s",  mcc.getTaskId(), mcc, keys);
       long start = log.isTraceEnabled() ? timeService.time() : 0;
@@ -220,6 +242,9 @@ public void apply(Object key , InternalCacheEntry v) {
                persistenceManager.processOnAllStores(keyFilter, new MapReduceCacheLoaderTask(mapper, collector),
                      true, false);
          }
+      } catch (RuntimeException e) {
+         collector.close();
+         throw e;
       } finally {
          if (log.isTraceEnabled()) {
             log.tracef("Map phase for task %s took %s milliseconds",
@@ -230,66 +255,34 @@ public void apply(Object key , InternalCacheEntry v) {
       return collector;
    }
 
-   @SuppressWarnings("unchecked")
-   protected <KIn, VIn, KOut, VOut> Set<KOut> mapAndCombine(final MapCombineCommand<KIn, VIn, KOut, VOut> mcc)
+   protected <KIn, VIn, KOut, VOut> ShuffledKeys<KOut> mapAndCombine(final MapCombineCommand<KIn, VIn, KOut, VOut> mcc)
          throws Exception {
-
-      final Cache<KIn, VIn> cache = cacheManager.getCache(mcc.getCacheName());
-      Set<KIn> keys = mcc.getKeys();
-      int maxCSize = mcc.getMaxCollectorSize();
-      final Mapper<KIn, VIn, KOut, VOut> mapper = mcc.getMapper();
-      final boolean inputKeysSpecified = keys != null && !keys.isEmpty();
-      // hook map function into lifecycle and execute it
-      MapReduceTaskLifecycleService taskLifecycleService = MapReduceTaskLifecycleService.getInstance();
-      final DefaultCollector<KOut, VOut> c = new DefaultCollector<KOut, VOut>(maxCSize, !inputKeysSpecified);
-      DataContainer dc = cache.getAdvancedCache().getDataContainer();
-      log.tracef("For m/r task %s invoking %s with input keys %s", mcc.getTaskId(), mcc, mcc.getKeys());
+      SpillingCollector<KOut, VOut> collector = map(mcc);
+      Shuffle<KIn, VIn, KOut, VOut> shuffle = new Shuffle<KIn, VIn, KOut, VOut>(mcc);
       long start = log.isTraceEnabled() ? timeService.time() : 0;
-      final Set<KOut> intermediateKeys = Collections.synchronizedSet(new HashSet<KOut>());
       try {
-         taskLifecycleService.onPreExecute(mapper, cache);
-         if (inputKeysSpecified) {
-            for (KIn key : keys) {
-               VIn value = cache.get(key);
-               mapper.map(key, value, c);
-            }
-            Map<KOut, List<VOut>> combinedValues = combine(mcc, c.removeCollectedValues());
-            Set<KOut> s = migrateIntermediateKeysAndValues(mcc, combinedValues);
-            intermediateKeys.addAll(s);
-         } else {
-            MapCombineTask<KIn, VIn, KOut, VOut> task = new MapCombineTask<KIn, VIn, KOut, VOut>(c, mcc, maxCSize);
-            dc.executeTask(new PrimaryOwnerFilter(cdl), task);
-            intermediateKeys.addAll(task.getIntermediateKeys());
-
-            //the remaining last chunk from collector
-            Map<KOut, List<VOut>> combinedValues = combine(mcc, c.removeCollectedValues());
-            Set<KOut> lastOne = migrateIntermediateKeysAndValues(mcc, combinedValues);
-            intermediateKeys.addAll(lastOne);
-         }
-
-         // in case we have stores, we have to process key/values from there as well
-         if (persistenceManager != null && !inputKeysSpecified) {
-            final DefaultCollector<KOut, VOut> pmc = new DefaultCollector<KOut, VOut>(maxCSize, true);
-            AdvancedCacheLoader.KeyFilter<?> keyFilter = new CompositeFilter(new PrimaryOwnerFilter(cdl),
-                  new CollectionKeyFilter(dc.keySet()));
-
-            MapCombineTask<KIn, VIn, KOut, VOut> task = new MapCombineTask<KIn, VIn, KOut, VOut>(pmc, mcc, maxCSize);
-            persistenceManager.processOnAllStores(keyFilter, task, true, false);
-            intermediateKeys.addAll(task.getIntermediateKeys());
-
-            //the remaining last chunk from store collector
-            Map<KOut, List<VOut>> combinedValues = combine(mcc, pmc.removeCollectedValues());
-            Set<KOut> lastOne = migrateIntermediateKeysAndValues(mcc, combinedValues);
-            intermediateKeys.addAll(lastOne);
-         }
+         collector.drainTo(shuffle);
+         shuffle.finish();
       } finally {
+         collector.close();
          if (log.isTraceEnabled()) {
-            log.tracef("Map phase for task %s took %s milliseconds", mcc.getTaskId(),
-                  timeService.timeDuration(start, TimeUnit.MILLISECONDS));
+            log.tracef("Shuffling keys for task %s took %s milliseconds (Shuffled %s keys, %s bytes)",
+                  mcc.getTaskId(), timeService.timeDuration(start, TimeUnit.MILLISECONDS),
+                  shuffle.keys.size(), shuffle.bytesShuffled);
          }
-         taskLifecycleService.onPostExecute(mapper);
       }
-      return intermediateKeys;
+      return new ShuffledKeys<KOut>(shuffle.keys, shuffle.bytesShuffled);
+   }
+
+   private <KIn, VIn, KOut, VOut> SpillingCollector<KOut, VOut> newCollector(
+         final MapCombineCommand<KIn, VIn, KOut, VOut> mcc, boolean atomicEmit) {
+      return new SpillingCollector<KOut, VOut>(marshaller, mcc.getTaskId(), mcc.getMaxCollectorSize(), atomicEmit,
+            mcc.hasCombiner()) {
+         @Override
+         protected Map<KOut, List<VOut>> combine(Map<KOut, List<VOut>> values) {
+            return MapReduceManagerImpl.this.combine(mcc, values);
+         }
+      };
    }
 
    protected <KIn, VIn, KOut, VOut> Map<KOut, List<VOut>> combine(MapCombineCommand<KIn, VIn, KOut, VOut> mcc,
@@ -330,53 +323,27 @@ protected <KIn, VIn, KOut, VOut> Map<KOut, List<VOut>> combine(MapCombineCommand
       return combinedMap;
    }
 
-   private <KIn, VIn, KOut, VOut> Set<KOut> migrateIntermediateKeysAndValues(
-         MapCombineCommand<KIn, VIn, KOut, VOut> mcc, Map<KOut, List<VOut>> collectedValues) {
-
-      String taskId =  mcc.getTaskId();
-      String tmpCacheName = mcc.getIntermediateCacheName();
-      Cache<Object, DeltaAwareList<VOut>> tmpCache = cacheManager.getCache(tmpCacheName);
-      if (tmpCache == null) {
-         throw new IllegalStateException("Temporary cache for MapReduceTask " + taskId
-                  + " named " + tmpCacheName + " not found on " + cdl.getAddress());
+   @Override
+   @SuppressWarnings("unchecked")
+   public void mergeIntermediateValues(ShuffleCommand shuffleCommand) throws InterruptedException {
+      List<Object> intermediateValues;
+      try {
+         intermediateValues = (List<Object>) marshaller.objectFromByteBuffer(shuffleCommand.getIntermediateValues());
+      } catch (Exception e) {
+         throw new CacheException("Could not read intermediate keys/values for M/R task " + shuffleCommand.getTaskId(), e);
       }
+      Cache<Object, DeltaAwareList<Object>> tmpCache = cacheManager.getCache(shuffleCommand.getCacheName());
+      log.tracef("For m/r task %s merging %s intermediate keys at %s", shuffleCommand.getTaskId(),
+            intermediateValues.size() / 2, cdl.getAddress());
+      mergeIntermediateValues(tmpCache, intermediateValues);
+   }
 
-      Set<KOut> mapPhaseKeys = new HashSet<KOut>();
-      DistributionManager dm = tmpCache.getAdvancedCache().getDistributionManager();
-      boolean emitCompositeIntermediateKeys = mcc.isEmitCompositeIntermediateKeys();
-      Map<Address, List<KOut>> keysToNodes = mapKeysToNodes(dm, taskId, collectedValues.keySet(),
-            emitCompositeIntermediateKeys);
-      long start = log.isTraceEnabled() ? timeService.time() : 0;
-      try {
-         for (Entry<Address, List<KOut>> entry : keysToNodes.entrySet()) {
-            List<KOut> keysHashedToAddress = entry.getValue();
-            try {
-               log.tracef("For m/r task %s migrating intermediate keys %s to %s", taskId, keysHashedToAddress, entry.getKey());
-               for (KOut key : keysHashedToAddress) {
-                  List<VOut> values = collectedValues.get(key);
-                  int entryTransferCount = chunkSize;
-                  for (int i = 0; i < values.size(); i += entryTransferCount) {
-                     List<VOut> chunk = values.subList(i, Math.min(values.size(), i + entryTransferCount));
-                     DeltaAwareList<VOut> delta = new DeltaAwareList<VOut>(chunk);
-                     if (emitCompositeIntermediateKeys) {
-                        tmpCache.put(new IntermediateCompositeKey<KOut>(taskId, key), delta);
-                     } else {
-                        tmpCache.put(key, delta);
-                     }
-                  }
-                  mapPhaseKeys.add(key);
-               }
-            } catch (Exception e) {
-               throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId, e);
-            }
-         }
-      } finally {
-         if (log.isTraceEnabled()) {
-            log.tracef("Migrating keys for task %s took %s milliseconds (Migrated %s keys)",
-                  mcc.getTaskId(), timeService.timeDuration(start, TimeUnit.MILLISECONDS), mapPhaseKeys.size());
-         }
+   @SuppressWarnings("unchecked")
+   private <V> void mergeIntermediateValues(Cache<Object, DeltaAwareList<V>> tmpCache, List<Object> intermediateValues) {
+      for (int i = 0; i < intermediateValues.size(); i += 2) {
+         // DeltaAwareList values are merged with the values already stored for the key
+         tmpCache.put(intermediateValues.get(i), new DeltaAwareList<V>((List<V>) intermediateValues.get(i + 1)));
       }
-      return mapPhaseKeys;
    }
 
    @Override
@@ -427,87 +394,132 @@ V getValue(InternalCacheEntry entry){
    }
 
    /**
-    * This is the parallel staggered map/combine algorithm. Threads from the default fork/join pool
-    * traverse container and store key/value pairs in parallel. As one of the threads hits the
-    * maxCollectorSize threshold, it takes the snapshot of the current state of the collector and
-    * invokes combine on it all while others threads continue to fill up collector up to the point
-    * where the threshold is reached again. The thread that broke the collector threshold invokes
-    * combine and the algorithm repeats. The benefit of staggered parallel map/combine is manyfold.
-    * First, we never exhaust working memory of a node as we batch map/combine execution all while
-    * traversal of key/value pairs is in progress. Second, such a staggered combine execution does
-    * not cause underlying transport to be completely saturated by intermediate cache put commands;
-    * intermediate key/value pairs of map/reduce algorithm are transferred across the cluster
-    * smoothly as parallel traversal of container's key/value pairs is progress.
-    *
+    * Ships the intermediate keys and values drained from the collector of the map phase to the primary owners of the
+    * keys in the intermediate cache. The values are batched per owner, up to chunkSize values per batch, and each
+    * batch is shipped with a single ShuffleCommand, whose size is added to the bytes shuffled. At most
+    * MAX_SHUFFLES_IN_FLIGHT commands wait for their response at a time, so the batches are pipelined without using
+    * more memory than that. The batches owned by the local node are merged directly.
     */
-   private class MapCombineTask<K,V, KOut,VOut> extends DataContainerTask<K, V> implements AdvancedCacheLoader.CacheLoaderTask {
-
-      DefaultCollector<KOut, VOut> collector;
-      MapCombineCommand<K, V, KOut, VOut> mcc;
-      Set<KOut> intermediateKeys;
-      int maxCollectorSize;
-
-      public MapCombineTask(DefaultCollector<KOut, VOut> collector,
-            MapCombineCommand<K, V, KOut, VOut> mcc, int maxCollectorSize) {
-         super();
-         this.collector = collector;
-         this.mcc = mcc;
-         this.intermediateKeys = Collections.synchronizedSet(new HashSet<KOut>());
-         this.maxCollectorSize = maxCollectorSize;
-      }
-
-      public Set<KOut> getIntermediateKeys() {
-         return intermediateKeys;
+   private class Shuffle<KIn, VIn, KOut, VOut> implements SpillingCollector.ValuesSink<KOut, VOut> {
+
+      final String taskId;
+      final boolean emitCompositeIntermediateKeys;
+      final Cache<Object, DeltaAwareList<VOut>> tmpCache;
+      final DistributionManager dm;
+      final RpcManager rpc;
+      final CommandsFactory commandsFactory;
+      final Map<Address, Batch> batches = new HashMap<Address, Batch>();
+      final LinkedList<Shipment> inFlight = new LinkedList<Shipment>();
+      final Set<KOut> keys = new HashSet<KOut>();
+      long bytesShuffled;
+
+      Shuffle(MapCombineCommand<KIn, VIn, KOut, VOut> mcc) {
+         taskId = mcc.getTaskId();
+         emitCompositeIntermediateKeys = mcc.isEmitCompositeIntermediateKeys();
+         String tmpCacheName = mcc.getIntermediateCacheName();
+         tmpCache = cacheManager.getCache(tmpCacheName);
+         if (tmpCache == null) {
+            throw new IllegalStateException("Temporary cache for MapReduceTask " + taskId
+                  + " named " + tmpCacheName + " not found on " + cdl.getAddress());
+         }
+         AdvancedCache<Object, DeltaAwareList<VOut>> advancedCache = tmpCache.getAdvancedCache();
+         dm = SecurityActions.getCacheDistributionManager(advancedCache);
+         rpc = SecurityActions.getCacheRpcManager(advancedCache);
+         commandsFactory = SecurityActions.getCacheComponentRegistry(advancedCache).getComponent(CommandsFactory.class);
       }
 
-      V getValue(InternalCacheEntry entry){
-         if (entry != null) {
-            Object value = entry.getValue();
-            if (value instanceof MarshalledValue) {
-               value = ((MarshalledValue) value).get();
+      @Override
+      public void accept(KOut key, List<VOut> values) {
+         Object intermediateKey = emitCompositeIntermediateKeys ? new IntermediateCompositeKey<KOut>(taskId, key) : key;
+         Address owner = dm.getPrimaryLocation(intermediateKey);
+         int i = 0;
+         while (i < values.size()) {
+            Batch batch = batches.get(owner);
+            if (batch == null) {
+               batch = new Batch();
+               batches.put(owner, batch);
+            }
+            int count = Math.min(values.size() - i, chunkSize - batch.size);
+            batch.keysAndValues.add(intermediateKey);
+            batch.keysAndValues.add(new ArrayList<VOut>(values.subList(i, i + count)));
+            batch.size += count;
+            i += count;
+            if (batch.size >= chunkSize) {
+               batches.remove(owner);
+               ship(owner, batch);
             }
-            return  (V)value;
-         } else {
-            return null;
          }
+         keys.add(key);
       }
 
-      @Override
-      public void apply(Object key, InternalCacheEntry v) {
-         V value = getValue(v);
-         if (value != null) {
-            mcc.getMapper().map((K) key, value, collector);
+      void finish() {
+         for (Entry<Address, Batch> e : batches.entrySet()) {
+            ship(e.getKey(), e.getValue());
+         }
+         batches.clear();
+         while (!inFlight.isEmpty()) {
+            inFlight.removeFirst().await();
          }
-         combineAndMigrate();
       }
 
-      protected void combineAndMigrate() throws CacheException {
-         if (collector.size() > maxCollectorSize) {
-            final Map<KOut, List<VOut>> batch = collector.removeCollectedValues();
-            if (!batch.isEmpty()) {
-               Map<KOut, List<VOut>> combinedValues = combine(mcc, batch);
-               Set<KOut> migratedKeys = migrateIntermediateKeysAndValues(mcc, combinedValues);
-               intermediateKeys.addAll(migratedKeys);
-            }
+      private void ship(Address owner, Batch batch) {
+         if (owner.equals(cdl.getAddress())) {
+            mergeIntermediateValues(tmpCache, batch.keysAndValues);
+            return;
+         }
+         byte[] bytes;
+         try {
+            bytes = marshaller.objectToByteBuffer(batch.keysAndValues);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId, e);
+         } catch (IOException e) {
+            throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId, e);
+         }
+         bytesShuffled += bytes.length;
+         log.tracef("For m/r task %s shuffling %s intermediate values (%s bytes) to %s", taskId, batch.size,
+               bytes.length, owner);
+         ShuffleCommand command = commandsFactory.buildShuffleCommand(taskId, bytes);
+         inFlight.add(new Shipment(owner, rpc.invokeRemotelyAsync(Collections.singleton(owner), command,
+               rpc.getDefaultRpcOptions(true))));
+         if (inFlight.size() > MAX_SHUFFLES_IN_FLIGHT) {
+            inFlight.removeFirst().await();
          }
       }
 
-      @Override
-      public void processEntry(MarshalledEntry marshalledEntry, TaskContext taskContext) throws InterruptedException {
-         mcc.getMapper().map((K)marshalledEntry.getKey(), (V)getValue(marshalledEntry), collector);
-         combineAndMigrate();
-      }
+      private class Shipment {
+         final Address owner;
+         final NotifyingFuture<Map<Address, Response>> future;
 
-      private Object getValue(MarshalledEntry marshalledEntry) {
-         Object loadedValue = marshalledEntry.getValue();
-         if (loadedValue instanceof MarshalledValue) {
-            return  ((MarshalledValue) loadedValue).get();
-         } else {
-            return loadedValue;
+         Shipment(Address owner, NotifyingFuture<Map<Address, Response>> future) {
+            this.owner = owner;
+            this.future = future;
+         }
+
+         void await() {
+            Map<Address, Response> responses;
+            try {
+               responses = future.get();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId, e);
+            } catch (ExecutionException e) {
+               throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId, e.getCause());
+            }
+            Response response = responses == null ? null : responses.get(owner);
+            if (response == null || !response.isSuccessful()) {
+               throw new CacheException("Could not move intermediate keys/values for M/R task " + taskId + " to "
+                     + owner + ", received response " + response);
+            }
          }
       }
    }
 
+   private static class Batch {
+      final List<Object> keysAndValues = new ArrayList<Object>();
+      int size;
+   }
+
    public class IntermediateKeyFilter<T> implements AdvancedCacheLoader.KeyFilter<IntermediateCompositeKey<T>> {
 
       private final String taskId;
@@ -529,69 +541,6 @@ public boolean shouldLoadKey(IntermediateCompositeKey<T> key) {
       }
    }
 
-   /**
-    * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
-    * @author Dan Berindei
-    * @author William Burns
-    * @author Vladimir Blagojevic
-    */
-   private static class DefaultCollector<KOut, VOut> implements CollectableCollector<KOut, VOut> {
-
-      private final boolean atomicEmit;
-      private Map<KOut, List<VOut>> store;
-      private final AtomicInteger emitCount;
-
-      public DefaultCollector(int size, boolean atomicEmit) {
-         this.atomicEmit = atomicEmit;
-         store = CollectionFactory.makeConcurrentMap(size);
-         emitCount = new AtomicInteger();
-      }
-
-      public DefaultCollector(boolean atomicEmit) {
-         this(128, atomicEmit);
-      }
-
-      @Override
-      public void emit(KOut key, VOut value) {
-         if (atomicEmit) {
-            synchronized (this) {
-               emitHelper(key, value);
-            }
-         } else {
-            emitHelper(key, value);
-         }
-      }
-
-      protected void emitHelper(KOut key, VOut value) {
-         List<VOut> list = store.get(key);
-         if (list == null) {
-            list = new LinkedList<VOut>();
-            store.put(key, list);
-         }
-         list.add(value);
-         emitCount.incrementAndGet();
-      }
-
-      @Override
-      public Map<KOut, List<VOut>> removeCollectedValues() {
-         HashMap<KOut, List<VOut>> values;
-         synchronized (this) {
-            values = new HashMap<KOut, List<VOut>>(store);
-            store.clear();
-            emitCount.set(0);
-         }
-         return values;
-      }
-
-      public int size() {
-         return emitCount.get();
-      }
-   }
-
-   private interface CollectableCollector<K,V> extends Collector<K, V>{
-      Map<K, List<V>> removeCollectedValues();
-   }
-
    private static class DeltaAwareList<E> extends LinkedList<E> implements DeltaAware, Delta{
 
 
@@ -7,6 +7,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,7 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -157,10 +159,15 @@
    protected final UUID taskId;
    protected final ClusteringDependentLogic clusteringDependentLogic;
    protected final boolean isLocalOnly;
+   protected final TimeService timeService;
    protected RpcOptionsBuilder rpcOptionsBuilder;
    protected String customIntermediateCacheName;
    protected String intermediateCacheConfigurationName = DEFAULT_TMP_CACHE_CONFIGURATION_NAME;
    private int maxCollectorSize = 1024;
+   private volatile long mapPhaseDuration = -1;
+   private volatile long reducePhaseDuration = -1;
+   private volatile int intermediateKeyCount = -1;
+   private volatile long bytesShuffled = -1;
 
    /**
     * Create a new MapReduceTask given a master cache node. All distributed task executions will be
@@ -228,6 +235,7 @@ public MapReduceTask(Cache<KIn, VIn> masterCacheNode, boolean distributeReducePh
       this.useIntermediateSharedCache = useIntermediateSharedCache;
       this.cancellableTasks = Collections.synchronizedList(new ArrayList<CancellableTaskPart>());
       this.clusteringDependentLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      this.timeService = componentRegistry.getTimeService();
       this.isLocalOnly = SecurityActions.getCacheRpcManager(cache) == null;
       this.rpcOptionsBuilder = isLocalOnly ? null : new RpcOptionsBuilder(SecurityActions.getCacheRpcManager(cache).getDefaultRpcOptions(true));
    }
@@ -402,12 +410,14 @@ public MapReduceTask<KIn, VIn, KOut, VOut> usingSharedIntermediateCache(String c
     * <p>
     * During execution of map/combine phase, number of intermediate keys/values collected in
     * Collector could potentially become very large. By limiting size of collector intermediate
-    * key/values are transferred to intermediate cache in batches before reduce phase is executed.
+    * key/values are combined, if a combiner is set, and spilled to disk in sorted runs, which are
+    * merged once the map phase is done. The master node also spills the intermediate key/values
+    * it receives when the reduce phase is not distributed.
     * <p>
     * The default value for max collector size is 1024.
     *
     * @param size
-    *           the number of key/value pairs for one batch transfer
+    *           the number of key/value pairs kept in memory
     *
     * @see Mapper#map(Object, Object, Collector)
     */
@@ -417,6 +427,63 @@ public void setMaxCollectorSize(int size) {
       maxCollectorSize = size;
    }
 
+   /**
+    * Returns the duration of the map phase of the last execution of this task, from the invocation of the mappers
+    * until all nodes have combined their intermediate results and, if the reduce phase is distributed, migrated them
+    * to the intermediate cache.
+    *
+    * @param unit
+    *           the unit of the returned duration
+    * @return the duration of the map phase, or -1 if the task has not completed its map phase
+    *
+    * @since 7.0
+    */
+   public long getMapPhaseDuration(TimeUnit unit) {
+      long duration = mapPhaseDuration;
+      return duration < 0 ? -1 : unit.convert(duration, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * Returns the duration of the reduce phase of the last execution of this task.
+    *
+    * @param unit
+    *           the unit of the returned duration
+    * @return the duration of the reduce phase, or -1 if the task has not completed its reduce phase
+    *
+    * @since 7.0
+    */
+   public long getReducePhaseDuration(TimeUnit unit) {
+      long duration = reducePhaseDuration;
+      return duration < 0 ? -1 : unit.convert(duration, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * Returns the number of distinct intermediate keys emitted by the map phase of the last execution of this task,
+    * i.e. the number of keys whose combined values were shuffled to the reducers.
+    *
+    * @return the number of intermediate keys, or -1 if the task has not completed its map phase
+    *
+    * @since 7.0
+    */
+   public int getIntermediateKeyCount() {
+      return intermediateKeyCount;
+   }
+
+   /**
+    * Returns the number of bytes of intermediate keys and values shuffled between nodes by the map phase of the last
+    * execution of this task, counted from the marshalled size of the batches shipped to the owners of the
+    * intermediate keys. Only the map phase of a task with a distributed reduce phase shuffles its intermediate values
+    * to other nodes.
+    *
+    * @return the number of bytes shuffled, or -1 if the task has not completed its map phase or its reduce phase is
+    *         not distributed
+    *
+    * @since 7.0
+    */
+   public long getBytesShuffled() {
+      return bytesShuffled;
+   }
+
    /**
     * Executes this task across Infinispan cluster nodes.
     *
@@ -475,6 +542,10 @@ protected Map<KOut, VOut> executeHelper(String resultCache) throws NullPointerEx
       if (reducer == null)
          throw new NullPointerException("A valid reference of Reducer is not set " + reducer);
 
+      mapPhaseDuration = -1;
+      reducePhaseDuration = -1;
+      intermediateKeyCount = -1;
+      bytesShuffled = -1;
       Map<KOut,VOut> result = null;
       if(!isLocalOnly && distributeReducePhase()){
          boolean useCompositeKeys = useIntermediateSharedCache();
@@ -488,10 +559,15 @@ protected Map<KOut, VOut> executeHelper(String resultCache) throws NullPointerEx
 
          try {
             // map
+            long start = timeService.time();
             Set<KOut> allMapPhasesResponses = executeMapPhase(useCompositeKeys);
+            mapPhaseCompleted(start);
+            intermediateKeyCount = allMapPhasesResponses.size();
 
             // reduce
+            start = timeService.time();
             result = executeReducePhase(resultCache, allMapPhasesResponses, useCompositeKeys);
+            reducePhaseCompleted(start);
          }
          catch (Exception cause){
             throw new CacheException(cause);
@@ -572,7 +648,7 @@ protected Set<KOut> executeMapPhase(boolean useCompositeKeys) throws Interrupted
       RpcManager rpc = cache.getRpcManager();
       MapCombineCommand<KIn, VIn, KOut, VOut> cmd = null;
       Set<KOut> mapPhasesResult = new HashSet<KOut>();
-      List<MapTaskPart<Set<KOut>>> futures = new ArrayList<MapTaskPart<Set<KOut>>>();
+      List<MapTaskPart<ShuffledKeys<KOut>>> futures = new ArrayList<MapTaskPart<ShuffledKeys<KOut>>>();
       if (inputTaskKeysEmpty()) {
          for (Address target : rpc.getMembers()) {
             if (target.equals(rpc.getAddress())) {
@@ -582,7 +658,7 @@ protected Set<KOut> executeMapPhase(boolean useCompositeKeys) throws Interrupted
                cmd = buildMapCombineCommand(taskId.toString(), mapper, combiner, getIntermediateCacheName(), null,
                      true, useCompositeKeys);
             }
-            MapTaskPart<Set<KOut>> part = createTaskMapPart(cmd, target, true);
+            MapTaskPart<ShuffledKeys<KOut>> part = createTaskMapPart(cmd, target, true);
             part.execute();
             futures.add(part);
          }
@@ -598,14 +674,15 @@ protected Set<KOut> executeMapPhase(boolean useCompositeKeys) throws Interrupted
                cmd = buildMapCombineCommand(taskId.toString(), mapper, combiner, getIntermediateCacheName(), keys,
                      true, useCompositeKeys);
             }
-            MapTaskPart<Set<KOut>> part = createTaskMapPart(cmd, address, true);
+            MapTaskPart<ShuffledKeys<KOut>> part = createTaskMapPart(cmd, address, true);
             part.execute();
             futures.add(part);
          }
       }
       try {
-         for (MapTaskPart<Set<KOut>> mapTaskPart : futures) {
-            Set<KOut> result = null;
+         long bytes = 0;
+         for (MapTaskPart<ShuffledKeys<KOut>> mapTaskPart : futures) {
+            ShuffledKeys<KOut> result = null;
             try {
                result = mapTaskPart.get();
             } catch (ExecutionException ee) {
@@ -618,19 +695,24 @@ protected Set<KOut> executeMapPhase(boolean useCompositeKeys) throws Interrupted
                   throw ee;
                }
             }
-            mapPhasesResult.addAll(result);
+            mapPhasesResult.addAll(result.getKeys());
+            bytes += result.getBytesShuffled();
          }
+         bytesShuffled = bytes;
       } finally {
          cancellableTasks.clear();
       }
       return mapPhasesResult;
    }
 
-   protected void executeMapPhaseWithLocalReduction(Map<KOut, VOut> reducedResult) throws InterruptedException,
+   protected void executeMapPhaseWithLocalReduction(final Map<KOut, VOut> reducedResult) throws InterruptedException,
             ExecutionException {
       RpcManager rpc = SecurityActions.getCacheRpcManager(cache);
+      long start = timeService.time();
       MapCombineCommand<KIn, VIn, KOut, VOut> cmd = null;
-      Map<KOut, List<VOut>> mapPhasesResult = new HashMap<KOut, List<VOut>>();
+      // the responses are spilled to disk past maxCollectorSize values, and merged back key by key to be reduced
+      SpillingCollector<KOut, VOut> mapPhasesResult = new SpillingCollector<KOut, VOut>(marshaller, taskId.toString(),
+            maxCollectorSize, false, false);
       List<MapTaskPart<Map<KOut, List<VOut>>>> futures = new ArrayList<MapTaskPart<Map<KOut, List<VOut>>>>();
       Address localAddress = clusteringDependentLogic.getAddress();
       if (inputTaskKeysEmpty()) {
@@ -670,41 +752,68 @@ protected void executeMapPhaseWithLocalReduction(Map<KOut, VOut> reducedResult)
          }
       }
       try {
-         for (MapTaskPart<Map<KOut, List<VOut>>> mapTaskPart : futures) {
-            Map<KOut, List<VOut>> result = null;
-            try {
-               result = mapTaskPart.get();
-            } catch (ExecutionException ee) {
-               Throwable cause = ee.getCause();
-               if (cause instanceof org.infinispan.util.concurrent.TimeoutException) {
-                  throw new ExecutionException("Map phase executing at " + mapTaskPart.getAddress()
-                        + " did not complete within " + rpcOptionsBuilder.timeout(TimeUnit.SECONDS) + " sec timeout",
-                        cause);
-               } else {
-                  throw ee;
+         try {
+            for (Iterator<MapTaskPart<Map<KOut, List<VOut>>>> i = futures.iterator(); i.hasNext(); ) {
+               MapTaskPart<Map<KOut, List<VOut>>> mapTaskPart = i.next();
+               Map<KOut, List<VOut>> result = null;
+               try {
+                  result = mapTaskPart.get();
+               } catch (ExecutionException ee) {
+                  Throwable cause = ee.getCause();
+                  if (cause instanceof org.infinispan.util.concurrent.TimeoutException) {
+                     throw new ExecutionException("Map phase executing at " + mapTaskPart.getAddress()
+                           + " did not complete within " + rpcOptionsBuilder.timeout(TimeUnit.SECONDS) + " sec timeout",
+                           cause);
+                  } else {
+                     throw ee;
+                  }
+               }
+               for (Entry<KOut, List<VOut>> e : result.entrySet()) {
+                  mapPhasesResult.emitAll(e.getKey(), e.getValue());
                }
+               // let the response be collected
+               i.remove();
+               cancellableTasks.remove(mapTaskPart);
             }
-            mergeResponse(mapPhasesResult, result);
+         } finally {
+            cancellableTasks.clear();
          }
-      } finally {
-         cancellableTasks.clear();
-      }
+         mapPhaseCompleted(start);
 
-      // hook into lifecycle
-      MapReduceTaskLifecycleService taskLifecycleService = MapReduceTaskLifecycleService
-               .getInstance();
-      log.tracef("For m/r task %s invoking %s locally", taskId, reducer);
-      try {
-         taskLifecycleService.onPreExecute(reducer, cache);
-         for (Entry<KOut, List<VOut>> e : mapPhasesResult.entrySet()) {
-            // TODO in parallel with futures
-            reducedResult.put(e.getKey(), reducer.reduce(e.getKey(), e.getValue().iterator()));
+         // hook into lifecycle
+         MapReduceTaskLifecycleService taskLifecycleService = MapReduceTaskLifecycleService
+                  .getInstance();
+         log.tracef("For m/r task %s invoking %s locally", taskId, reducer);
+         start = timeService.time();
+         try {
+            taskLifecycleService.onPreExecute(reducer, cache);
+            intermediateKeyCount = mapPhasesResult.drainTo(new SpillingCollector.ValuesSink<KOut, VOut>() {
+               @Override
+               public void accept(KOut key, List<VOut> values) {
+                  reducedResult.put(key, reducer.reduce(key, values.iterator()));
+               }
+            });
+         } finally {
+            taskLifecycleService.onPostExecute(reducer);
          }
+         reducePhaseCompleted(start);
       } finally {
-         taskLifecycleService.onPostExecute(reducer);
+         mapPhasesResult.close();
       }
    }
 
+   private void mapPhaseCompleted(long start) {
+      mapPhaseDuration = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      log.tracef("Map phase for m/r task %s took %s milliseconds", taskId,
+            TimeUnit.NANOSECONDS.toMillis(mapPhaseDuration));
+   }
+
+   private void reducePhaseCompleted(long start) {
+      reducePhaseDuration = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      log.tracef("Reduce phase for m/r task %s took %s milliseconds", taskId,
+            TimeUnit.NANOSECONDS.toMillis(reducePhaseDuration));
+   }
+
    protected <V> MapTaskPart<V> createTaskMapPart(MapCombineCommand<KIn, VIn, KOut, VOut> cmd,
             Address target, boolean distributedReduce) {
       MapTaskPart<V> mapTaskPart = new MapTaskPart<V>(target, cmd, distributedReduce);
@@ -767,21 +876,6 @@ protected <V> ReduceTaskPart<V> createReducePart(ReduceCommand<KOut, VOut> cmd,
       return part;
    }
 
-   private <K, V> void mergeResponse(Map<K, List<V>> result, Map<K, List<V>> m) {
-      for (Entry<K, List<V>> entry : m.entrySet()) {
-         synchronized (result) {
-            List<V> list = result.get(entry.getKey());
-            if (list != null) {
-               list.addAll(entry.getValue());
-            } else {
-               list = new ArrayList<V>();
-               list.addAll(entry.getValue());
-            }
-            result.put(entry.getKey(), list);
-         }
-      }
-   }
-
    private MapCombineCommand<KIn, VIn, KOut, VOut> buildMapCombineCommand(
             String taskId, Mapper<KIn, VIn, KOut, VOut> m, Reducer<KOut, VOut> r, String intermediateCacheName,
             Collection<KIn> keys, boolean reducePhaseDistributed, boolean emitCompositeIntermediateKeys){
@@ -1130,7 +1224,7 @@ public void execute() {
 
                   @Override
                   public Map<Address, ? extends Response> call() throws Exception {
-                     Set<KOut> result = invokeMapCombineLocally();
+                     ShuffledKeys<KOut> result = invokeMapCombineLocally();
                      return Collections.singletonMap(getAddress(),
                               SuccessfulResponse.create(result));
                   }
@@ -1176,7 +1270,7 @@ private Map<KOut, List<VOut>> invokeMapCombineLocallyForLocalReduction() throws
          }
       }
 
-      private Set<KOut> invokeMapCombineLocally() throws InterruptedException {
+      private ShuffledKeys<KOut> invokeMapCombineLocally() throws InterruptedException {
          log.debugf("Invoking %s locally", mcc);
          try {
             cancellationService.register(Thread.currentThread(), mcc.getUUID());
@@ -0,0 +1,43 @@
+package org.infinispan.distexec.mapreduce;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * ShuffledKeys is the result of the map phase of a MapReduceTask executed on a node when the reduce
+ * phase is distributed: the intermediate keys the node shuffled to the intermediate cache, and the
+ * number of bytes it shipped to the other nodes doing so.
+ * <p>
+ * This is an internal class, not intended to be used by clients.
+ *
+ * @since 7.0
+ */
+public final class ShuffledKeys<KOut> implements Serializable {
+
+   /** The serialVersionUID */
+   private static final long serialVersionUID = -1489208377429925434L;
+
+   private final Set<KOut> keys;
+   private final long bytesShuffled;
+
+   public ShuffledKeys(Set<KOut> keys, long bytesShuffled) {
+      this.keys = keys;
+      this.bytesShuffled = bytesShuffled;
+   }
+
+   public Set<KOut> getKeys() {
+      return keys;
+   }
+
+   /**
+    * @return the marshalled size of the intermediate keys and values shipped to the other nodes
+    */
+   public long getBytesShuffled() {
+      return bytesShuffled;
+   }
+
+   @Override
+   public String toString() {
+      return "ShuffledKeys [keys=" + keys + ", bytesShuffled=" + bytesShuffled + "]";
+   }
+}
@@ -0,0 +1,427 @@
+package org.infinispan.distexec.mapreduce;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+
+/**
+ * Collector of the intermediate keys and values of a MapReduceTask which keeps at most maxCollectorSize values in
+ * memory.
+ * <p>
+ * As one of the emitting threads hits the maxCollectorSize threshold, it takes the collected values, combines them if
+ * the task has a combiner, and spills them to a run file sorted by the hash code of the intermediate keys, all while
+ * the other threads continue to fill up the collector. Combined values which shrank to half the threshold or less are
+ * put back in the collector instead, to be combined again with the next values. Whenever {@link #MAX_RUNS} runs are
+ * spilled, they are merged into a single run, so the number of run files stays bounded.
+ * <p>
+ * {@link #drainTo(ValuesSink)} merges the runs with the values still in memory, and hands over each intermediate key
+ * with all its values, combined once more if the task has a combiner.
+ * <p>
+ * This is an internal class, not intended to be used by clients.
+ *
+ * @since 7.0
+ */
+class SpillingCollector<KOut, VOut> implements Collector<KOut, VOut> {
+
+   private static final Log log = LogFactory.getLog(SpillingCollector.class);
+
+   static final int MAX_RUNS = 32;
+
+   private final Marshaller marshaller;
+   private final String taskId;
+   private final int maxCollectorSize;
+   private final boolean atomicEmit;
+   private final boolean combining;
+   private final List<File> runs = new ArrayList<File>();
+   private Map<KOut, List<VOut>> store = new HashMap<KOut, List<VOut>>();
+   private int size;
+   private int spilledRuns;
+
+   /**
+    * @param marshaller marshaller of the intermediate keys and values spilled to disk
+    * @param taskId id of the MapReduceTask, used to name the run files
+    * @param maxCollectorSize maximum number of values kept in memory
+    * @param atomicEmit whether values are emitted by several threads concurrently
+    * @param combining whether {@link #combine(java.util.Map)} combines the values of each key
+    */
+   SpillingCollector(Marshaller marshaller, String taskId, int maxCollectorSize, boolean atomicEmit,
+                     boolean combining) {
+      this.marshaller = marshaller;
+      this.taskId = taskId;
+      this.maxCollectorSize = maxCollectorSize;
+      this.atomicEmit = atomicEmit;
+      this.combining = combining;
+   }
+
+   /**
+    * Combines the values of each intermediate key, when the collector is combining.
+    *
+    * @param values the intermediate keys and their values
+    * @return the intermediate keys and their combined values
+    */
+   protected Map<KOut, List<VOut>> combine(Map<KOut, List<VOut>> values) {
+      return values;
+   }
+
+   @Override
+   public void emit(KOut key, VOut value) {
+      emitAll(key, Collections.singletonList(value));
+   }
+
+   /**
+    * Collects several values of an intermediate key at once.
+    */
+   public void emitAll(KOut key, Collection<VOut> values) {
+      Map<KOut, List<VOut>> batch;
+      if (atomicEmit) {
+         synchronized (this) {
+            batch = emitHelper(key, values);
+         }
+      } else {
+         batch = emitHelper(key, values);
+      }
+      if (batch != null) {
+         spill(batch);
+      }
+   }
+
+   private Map<KOut, List<VOut>> emitHelper(KOut key, Collection<VOut> values) {
+      List<VOut> list = store.get(key);
+      if (list == null) {
+         list = new ArrayList<VOut>(values.size());
+         store.put(key, list);
+      }
+      list.addAll(values);
+      size += values.size();
+      if (size <= maxCollectorSize) {
+         return null;
+      }
+      Map<KOut, List<VOut>> batch = store;
+      store = new HashMap<KOut, List<VOut>>();
+      size = 0;
+      return batch;
+   }
+
+   private void spill(Map<KOut, List<VOut>> batch) {
+      if (combining) {
+         batch = combine(batch);
+         if (countValues(batch) <= maxCollectorSize / 2) {
+            // combining shrank the batch: keep combining it in memory with the next values
+            for (Entry<KOut, List<VOut>> e : batch.entrySet()) {
+               emitAll(e.getKey(), e.getValue());
+            }
+            return;
+         }
+      }
+      RunWriter writer = new RunWriter();
+      try {
+         for (Entry<KOut, List<VOut>> e : sortByHash(batch)) {
+            writer.accept(e.getKey(), e.getValue());
+         }
+      } finally {
+         writer.close();
+      }
+      addRun(writer.file);
+   }
+
+   private void addRun(File run) {
+      List<File> toMerge = null;
+      synchronized (runs) {
+         runs.add(run);
+         spilledRuns++;
+         if (runs.size() >= MAX_RUNS) {
+            toMerge = new ArrayList<File>(runs);
+            runs.clear();
+         }
+      }
+      if (toMerge != null) {
+         RunWriter writer = new RunWriter();
+         try {
+            merge(toMerge, writer);
+         } finally {
+            writer.close();
+         }
+         addRun(writer.file);
+      }
+   }
+
+   /**
+    * Hands over each intermediate key with all its values, merged from the spilled runs and the values in memory, in
+    * the order of the hash codes of the keys. The collector is empty afterwards.
+    * <p>
+    * Must not be invoked while values are emitted.
+    *
+    * @param sink receives each intermediate key with its values
+    * @return the number of intermediate keys handed over
+    */
+   public int drainTo(ValuesSink<KOut, VOut> sink) {
+      Map<KOut, List<VOut>> batch = store;
+      store = new HashMap<KOut, List<VOut>>();
+      size = 0;
+      List<File> toMerge;
+      synchronized (runs) {
+         if (runs.isEmpty()) {
+            return handOver(batch, sink);
+         }
+         toMerge = new ArrayList<File>(runs);
+         runs.clear();
+      }
+      if (!batch.isEmpty()) {
+         RunWriter writer = new RunWriter();
+         try {
+            for (Entry<KOut, List<VOut>> e : sortByHash(batch)) {
+               writer.accept(e.getKey(), e.getValue());
+            }
+         } finally {
+            writer.close();
+         }
+         toMerge.add(writer.file);
+      }
+      CountingSink<KOut, VOut> counter = new CountingSink<KOut, VOut>(sink);
+      merge(toMerge, counter);
+      return counter.count;
+   }
+
+   /**
+    * Deletes the run files which were not merged yet.
+    */
+   public void close() {
+      synchronized (runs) {
+         for (File run : runs) {
+            delete(run);
+         }
+         runs.clear();
+      }
+   }
+
+   /**
+    * @return the number of runs spilled so far, including the runs merged from other runs
+    */
+   int getSpilledRunCount() {
+      synchronized (runs) {
+         return spilledRuns;
+      }
+   }
+
+   private int handOver(Map<KOut, List<VOut>> values, ValuesSink<KOut, VOut> sink) {
+      if (combining) {
+         values = combine(values);
+      }
+      for (Entry<KOut, List<VOut>> e : sortByHash(values)) {
+         sink.accept(e.getKey(), e.getValue());
+      }
+      return values.size();
+   }
+
+   private void merge(List<File> files, ValuesSink<KOut, VOut> sink) {
+      log.tracef("For m/r task %s merging %s runs", taskId, files.size());
+      PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(files.size(), new Comparator<RunReader>() {
+         @Override
+         public int compare(RunReader r1, RunReader r2) {
+            return r1.hash < r2.hash ? -1 : (r1.hash == r2.hash ? 0 : 1);
+         }
+      });
+      List<RunReader> readers = new ArrayList<RunReader>(files.size());
+      try {
+         for (File file : files) {
+            RunReader reader = new RunReader(file);
+            readers.add(reader);
+            if (reader.advance()) {
+               queue.add(reader);
+            }
+         }
+         // Keys with the same hash code are merged together, and handed over once maxCollectorSize keys are merged
+         Map<KOut, List<VOut>> merged = new LinkedHashMap<KOut, List<VOut>>();
+         while (!queue.isEmpty()) {
+            int hash = queue.peek().hash;
+            do {
+               RunReader reader = queue.poll();
+               List<VOut> values = merged.get(reader.key);
+               if (values == null) {
+                  merged.put(reader.key, reader.values);
+               } else {
+                  values.addAll(reader.values);
+               }
+               if (reader.advance()) {
+                  queue.add(reader);
+               }
+            } while (!queue.isEmpty() && queue.peek().hash == hash);
+            if (merged.size() >= maxCollectorSize) {
+               handOver(merged, sink);
+               merged = new LinkedHashMap<KOut, List<VOut>>();
+            }
+         }
+         handOver(merged, sink);
+      } finally {
+         for (RunReader reader : readers) {
+            reader.close();
+         }
+         for (File file : files) {
+            delete(file);
+         }
+      }
+   }
+
+   private List<Entry<KOut, List<VOut>>> sortByHash(Map<KOut, List<VOut>> values) {
+      List<Entry<KOut, List<VOut>>> entries = new ArrayList<Entry<KOut, List<VOut>>>(values.entrySet());
+      Collections.sort(entries, new Comparator<Entry<KOut, List<VOut>>>() {
+         @Override
+         public int compare(Entry<KOut, List<VOut>> e1, Entry<KOut, List<VOut>> e2) {
+            int h1 = e1.getKey().hashCode();
+            int h2 = e2.getKey().hashCode();
+            return h1 < h2 ? -1 : (h1 == h2 ? 0 : 1);
+         }
+      });
+      return entries;
+   }
+
+   private static <K, V> int countValues(Map<K, List<V>> values) {
+      int count = 0;
+      for (List<V> list : values.values()) {
+         count += list.size();
+      }
+      return count;
+   }
+
+   private void delete(File file) {
+      if (!file.delete() && file.exists()) {
+         log.debugf("Could not delete run file %s of m/r task %s", file, taskId);
+      }
+   }
+
+   private CacheException spillFailed(Exception e) {
+      return new CacheException("Could not spill intermediate keys/values for M/R task " + taskId, e);
+   }
+
+   /**
+    * Receives the intermediate keys and values drained from a {@link SpillingCollector}.
+    */
+   interface ValuesSink<K, V> {
+      void accept(K key, List<V> values);
+   }
+
+   private static class CountingSink<K, V> implements ValuesSink<K, V> {
+      final ValuesSink<K, V> sink;
+      int count;
+
+      CountingSink(ValuesSink<K, V> sink) {
+         this.sink = sink;
+      }
+
+      @Override
+      public void accept(K key, List<V> values) {
+         count++;
+         sink.accept(key, values);
+      }
+   }
+
+   /**
+    * Writes each key and its values as the hash code of the key followed by the length and the bytes of the
+    * marshalled key and values. Each record is marshalled on its own, so the marshaller doesn't keep track of the
+    * objects written to the whole run.
+    */
+   private class RunWriter implements ValuesSink<KOut, VOut> {
+      final File file;
+      final DataOutputStream out;
+
+      RunWriter() {
+         try {
+            file = File.createTempFile("mapreduce-" + taskId + "-", ".run");
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+         } catch (IOException e) {
+            throw spillFailed(e);
+         }
+      }
+
+      @Override
+      public void accept(KOut key, List<VOut> values) {
+         try {
+            byte[] bytes = marshaller.objectToByteBuffer(new Object[]{key, new ArrayList<VOut>(values)});
+            out.writeInt(key.hashCode());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw spillFailed(e);
+         } catch (IOException e) {
+            throw spillFailed(e);
+         }
+      }
+
+      void close() {
+         try {
+            out.close();
+         } catch (IOException e) {
+            throw spillFailed(e);
+         }
+      }
+   }
+
+   private class RunReader {
+      final DataInputStream in;
+      byte[] buffer = new byte[256];
+      int hash;
+      KOut key;
+      List<VOut> values;
+
+      RunReader(File file) {
+         try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+         } catch (IOException e) {
+            throw spillFailed(e);
+         }
+      }
+
+      @SuppressWarnings("unchecked")
+      boolean advance() {
+         try {
+            try {
+               hash = in.readInt();
+            } catch (EOFException e) {
+               key = null;
+               values = null;
+               return false;
+            }
+            int length = in.readInt();
+            if (buffer.length < length) {
+               buffer = new byte[length];
+            }
+            in.readFully(buffer, 0, length);
+            Object[] record = (Object[]) marshaller.objectFromByteBuffer(buffer, 0, length);
+            key = (KOut) record[0];
+            values = (List<VOut>) record[1];
+            return true;
+         } catch (IOException e) {
+            throw spillFailed(e);
+         } catch (ClassNotFoundException e) {
+            throw spillFailed(e);
+         }
+      }
+
+      void close() {
+         Util.close(in);
+      }
+   }
+}
@@ -0,0 +1,20 @@
+package org.infinispan.eviction;
+
+/**
+ * Estimates the amount of memory taken by an entry, used to bound a data container by memory rather than by number
+ * of entries.
+ *
+ * @see EvictionType#MEMORY
+ * @since 7.0
+ */
+public interface EntrySizeCalculator<K, V> {
+
+   /**
+    * Returns the estimated number of bytes taken by the given entry, including its key.
+    *
+    * @param key the key of the entry
+    * @param value the value stored under the key
+    * @return the estimated size, in bytes
+    */
+   long calculateSize(K key, V value);
+}
@@ -0,0 +1,17 @@
+package org.infinispan.eviction;
+
+/**
+ * Supported ways of bounding the size of a cache
+ *
+ * @since 7.0
+ */
+public enum EvictionType {
+   /**
+    * The cache is bounded by the number of entries it holds.
+    */
+   COUNT,
+   /**
+    * The cache is bounded by the estimated amount of memory taken by its entries, in bytes.
+    */
+   MEMORY
+}
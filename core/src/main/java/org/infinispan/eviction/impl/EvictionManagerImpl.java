@@ -6,6 +6,7 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DefaultDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.ImmutableContext;
@@ -15,6 +16,12 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.util.TimeService;
@@ -25,8 +32,10 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ThreadSafe
+@MBean(objectName = "Expiration", description = "Component that periodically purges the expired entries")
 public class EvictionManagerImpl<K, V> implements EvictionManager<K, V> {
    private static final Log log = LogFactory.getLog(EvictionManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -41,6 +50,9 @@
    private TimeService timeService;
    private boolean enabled;
    private String cacheName;
+   private volatile long lastPurgeDuration;
+   private volatile int lastPurgeExpiredEntries;
+   private final AtomicLong expiredEntries = new AtomicLong(0);
 
    @Inject
    public void initialize(@ComponentName(KnownComponentNames.EVICTION_SCHEDULED_EXECUTOR)
@@ -82,17 +94,18 @@ public void start() {
 
    @Override
    public void processEviction() {
-      long start = 0;
       if (!Thread.currentThread().isInterrupted()) {
          try {
+            if (trace) log.trace("Purging data container of expired entries");
+            long start = timeService.time();
+            int expired = purgeDataContainer();
+            long duration = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            lastPurgeDuration = duration;
+            lastPurgeExpiredEntries = expired;
+            expiredEntries.addAndGet(expired);
             if (trace) {
-               log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            dataContainer.purgeExpired();
-            if (trace) {
-               log.tracef("Purging data container completed in %s",
-                          Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
+               log.tracef("Purging data container completed in %s, %d entries expired",
+                          Util.prettyPrintTime(duration), expired);
             }
          } catch (Exception e) {
             log.exceptionPurgingDataContainer(e);
@@ -104,11 +117,63 @@ public void processEviction() {
       }
    }
 
+   /**
+    * @return the number of expired entries purged, only known for the {@link DefaultDataContainer}
+    */
+   private int purgeDataContainer() {
+      if (dataContainer instanceof DefaultDataContainer) {
+         return ((DefaultDataContainer) dataContainer).purgeExpiredEntries();
+      }
+      dataContainer.purgeExpired();
+      return 0;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
    }
 
+   @ManagedAttribute(
+         description = "Duration of the last purge of the expired entries from the data container",
+         displayName = "Last purge duration",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getLastPurgeDuration() {
+      return lastPurgeDuration;
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed from the data container by the last purge, " +
+               "only counted for the default data container",
+         displayName = "Entries expired by the last purge",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getLastPurgeExpiredEntries() {
+      return lastPurgeExpiredEntries;
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed from the data container by the purges, " +
+               "only counted for the default data container",
+         displayName = "Number of entries expired by the purges",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getExpiredEntries() {
+      return expiredEntries.get();
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      lastPurgeDuration = 0;
+      lastPurgeExpiredEntries = 0;
+      expiredEntries.set(0);
+   }
+
    @Stop(priority = 5)
    public void stop() {
       if (evictionTask != null) {
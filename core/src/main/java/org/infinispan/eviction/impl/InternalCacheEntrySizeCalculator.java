@@ -0,0 +1,71 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EntrySizeCalculator;
+import org.infinispan.io.MarshalledValueByteStream;
+import org.infinispan.marshall.core.MarshalledValue;
+
+/**
+ * Estimates the memory taken by the entries of a data container. The estimate is exact for keys and values stored in
+ * binary form, i.e. as <tt>byte[]</tt> (remote protocols) or {@link MarshalledValue} (store as binary), and for
+ * strings; any other object is assumed to take {@link #DEFAULT_OBJECT_SIZE} bytes. Sizes assume a 64 bit JVM with
+ * compressed references.
+ *
+ * @since 7.0
+ */
+public class InternalCacheEntrySizeCalculator implements EntrySizeCalculator<Object, InternalCacheEntry> {
+
+   /**
+    * The size assumed for objects whose size can't be computed.
+    */
+   public static final int DEFAULT_OBJECT_SIZE = 64;
+
+   private static final int OBJECT_HEADER = 12;
+   private static final int ARRAY_HEADER = 16;
+   private static final int REFERENCE = 4;
+
+   /**
+    * The container's hash entry and the eviction policy's node.
+    */
+   private static final int CONTAINER_ENTRY_OVERHEAD = 88;
+
+   /**
+    * The internal cache entry itself, with its expiration fields.
+    */
+   private static final int INTERNAL_ENTRY_OVERHEAD = 40;
+
+   private static final int MARSHALLED_VALUE_OVERHEAD = align(OBJECT_HEADER + 2 * REFERENCE + 8);
+   private static final int BYTE_STREAM_OVERHEAD = align(OBJECT_HEADER + REFERENCE + 4);
+   private static final int STRING_OVERHEAD = align(OBJECT_HEADER + REFERENCE + 8);
+
+   @Override
+   public long calculateSize(Object key, InternalCacheEntry ice) {
+      return CONTAINER_ENTRY_OVERHEAD + INTERNAL_ENTRY_OVERHEAD + objectSize(key) + objectSize(ice.getValue());
+   }
+
+   static long objectSize(Object o) {
+      if (o == null) {
+         return 0;
+      } else if (o instanceof byte[]) {
+         return byteArraySize(((byte[]) o).length);
+      } else if (o instanceof MarshalledValue) {
+         MarshalledValueByteStream raw = ((MarshalledValue) o).getRaw();
+         return MARSHALLED_VALUE_OVERHEAD + BYTE_STREAM_OVERHEAD + byteArraySize(raw.getRaw().length);
+      } else if (o instanceof String) {
+         return STRING_OVERHEAD + align(ARRAY_HEADER + 2L * ((String) o).length());
+      }
+      return DEFAULT_OBJECT_SIZE;
+   }
+
+   private static long byteArraySize(int length) {
+      return align(ARRAY_HEADER + (long) length);
+   }
+
+   private static int align(int size) {
+      return (size + 7) & ~7;
+   }
+
+   private static long align(long size) {
+      return (size + 7) & ~7L;
+   }
+}
@@ -5,8 +5,10 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 
 /**
@@ -25,6 +27,8 @@ public class DataContainerFactory extends AbstractNamedCacheComponentFactory imp
    public <T> T construct(Class<T> componentType) {
       if (configuration.dataContainer().dataContainer() != null) {
          return (T) configuration.dataContainer().dataContainer();
+      } else if (configuration.dataContainer().offHeap()) {
+         return (T) constructOffHeap();
       } else {
          EvictionStrategy st = configuration.eviction().strategy();
          int level = configuration.locking().concurrencyLevel();
@@ -38,6 +42,10 @@ public <T> T construct(Class<T> componentType) {
             case LRU:
             case FIFO:
             case LIRS:
+               if (configuration.eviction().type() == EvictionType.MEMORY) {
+                  return (T) DefaultDataContainer.memoryBoundedDataContainer(
+                     level, configuration.eviction().size(), st, configuration.eviction().threadPolicy(), keyEquivalence);
+               }
                int maxEntries = configuration.eviction().maxEntries();
                //handle case when < 0 value signifies unbounded container 
                if(maxEntries < 0) {
@@ -55,4 +63,17 @@ public <T> T construct(Class<T> componentType) {
          }
       }
    }
+
+   private OffHeapDataContainer constructOffHeap() {
+      int level = configuration.locking().concurrencyLevel();
+      // all eviction strategies evict the least recently used entries off-heap
+      if (configuration.eviction().strategy() == EvictionStrategy.NONE) {
+         return new OffHeapDataContainer(level);
+      } else if (configuration.eviction().type() == EvictionType.MEMORY) {
+         return new OffHeapDataContainer(level, EvictionType.MEMORY, configuration.eviction().size());
+      } else if (configuration.eviction().maxEntries() < 0) {
+         return new OffHeapDataContainer(level);
+      }
+      return new OffHeapDataContainer(level, EvictionType.COUNT, configuration.eviction().maxEntries());
+   }
 }
@@ -0,0 +1,30 @@
+package org.infinispan.functional;
+
+/**
+ * A function applied to a single cache entry, on the node owning the entry and while holding its lock.  It is used by
+ * {@link org.infinispan.AdvancedCache#eval(Object, EntryFunction)} and the related methods in order to read and update
+ * an entry without moving its value over the network.
+ * <p/>
+ * In clustered caches the function is marshalled and sent to the primary owner of the key, so implementations must be
+ * marshallable, either {@link java.io.Serializable} or with an {@link org.infinispan.commons.marshall.Externalizer}.
+ * Only the outcome of the function, i.e. the new value or the removal of the entry, is replicated to the backup owners.
+ * If the primary owner changes while the function is executing, the function might be executed again on the new
+ * primary owner, so it should not have side effects other than on the entry itself.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @param <R> the type of the result of the function
+ * @since 7.0
+ */
+public interface EntryFunction<K, V, R> {
+
+   /**
+    * Applies the function.
+    *
+    * @param entry a view of the entry, which can be updated or removed. The entry must not be used after this method
+    *              returned.
+    * @return the result of the function, which is returned to the caller; it must be marshallable too.
+    */
+   R apply(MutableEntry<K, V> entry);
+
+}
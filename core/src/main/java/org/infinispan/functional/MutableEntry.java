@@ -0,0 +1,40 @@
+package org.infinispan.functional;
+
+/**
+ * A view of a cache entry passed to an {@link EntryFunction}. The changes made through it are applied to the cache
+ * once the function returns.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the value
+ * @since 7.0
+ */
+public interface MutableEntry<K, V> {
+
+   K getKey();
+
+   /**
+    * @return the current value of the entry, or {@code null} if the entry doesn't exist
+    * @throws IllegalStateException if the function was submitted as write-only, as the current value is not
+    *                               retrieved in that case
+    */
+   V getValue();
+
+   /**
+    * @return {@code true} if the entry exists
+    * @throws IllegalStateException if the function was submitted as write-only
+    */
+   boolean isPresent();
+
+   /**
+    * Sets the value of the entry, creating it if needed.
+    *
+    * @throws NullPointerException if the value is null
+    */
+   void setValue(V value);
+
+   /**
+    * Removes the entry.
+    */
+   void remove();
+
+}
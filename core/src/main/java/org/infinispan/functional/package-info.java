@@ -0,0 +1,6 @@
+/**
+ * Functions executed against cache entries on the node owning them.
+ *
+ * @since 7.0
+ */
+package org.infinispan.functional;
@@ -3,11 +3,13 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.LocalFlagAffectedCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -114,6 +116,16 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return invokeNextInterceptor(ctx, command);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (enabled) {
+         for (Object key : command.getKeys()) {
+            loadIfNeededAndUpdateStats(ctx, key, true, command);
+         }
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
    @Override
    public Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) throws Throwable {
       if (enabled) {
@@ -149,6 +161,15 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return invokeNextInterceptor(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      // A write-only function never reads the previous value
+      if (enabled && !command.isWriteOnly()) {
+         loadIfNeededAndUpdateStats(ctx, command.getKey(), false, command);
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
    @Override
    public Object visitSizeCommand(InvocationContext ctx, SizeCommand command) throws Throwable {
       int totalSize = 0;
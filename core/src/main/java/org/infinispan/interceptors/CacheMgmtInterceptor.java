@@ -1,6 +1,7 @@
 package org.infinispan.interceptors;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -107,6 +108,51 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return retval;
    }
 
+   /**
+    * Records a local read that was served without going through the interceptor chain, e.g. straight from the data
+    * container by a server endpoint. Does nothing if the statistics are disabled.
+    *
+    * @param hit                  whether the key was found
+    * @param intervalMilliseconds the duration of the read
+    */
+   public void recordRead(boolean hit, long intervalMilliseconds) {
+      if (!getStatisticsEnabled())
+         return;
+      if (hit) {
+         hitTimes.add(intervalMilliseconds);
+         hits.increment();
+      } else {
+         missTimes.add(intervalMilliseconds);
+         misses.increment();
+      }
+   }
+
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      long start = 0;
+      boolean statisticsEnabled = getStatisticsEnabled(command);
+      if (statisticsEnabled)
+         start = timeService.time();
+
+      final Map<?, ?> retval = (Map<?, ?>) invokeNextInterceptor(ctx, command);
+
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         final long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         final int requests = command.getKeys().size();
+         if (requests > 0) {
+            // the time of a multi-key read is split among the hits and the misses
+            final int requestsHit = retval.size();
+            final int requestsMiss = requests - requestsHit;
+            hitTimes.add(intervalMilliseconds * requestsHit / requests);
+            hits.add(requestsHit);
+            missTimes.add(intervalMilliseconds * requestsMiss / requests);
+            misses.add(requestsMiss);
+         }
+      }
+
+      return retval;
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       long start = 0;
@@ -27,6 +27,7 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -39,8 +40,13 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
@@ -183,17 +189,36 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return returnValue;
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!isStoreEnabled(command) || ctx.isInTxScope() || !command.isSuccessful()) return returnValue;
+      if (!isProperWriter(ctx, command, command.getKey())) return returnValue;
+
+      Object key = command.getKey();
+      if (command.isRemoval()) {
+         boolean resp = persistenceManager.deleteFromAllStores(key, false);
+         if (getLog().isTraceEnabled()) getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+      } else {
+         storeEntry(ctx, key, command);
+         if (getStatisticsEnabled()) cacheStores.incrementAndGet();
+      }
+      return returnValue;
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       Object returnValue = invokeNextInterceptor(ctx, command);
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<Object>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return returnValue;
    }
@@ -213,6 +238,7 @@ protected final void store(TxInvocationContext ctx) throws Throwable {
             cacheCommand.acceptVisitor(ctx, modsBuilder);
          }
       }
+      modsBuilder.flush();
       if (getStatisticsEnabled() && modsBuilder.putCount > 0) {
          cacheStores.getAndAdd(modsBuilder.putCount);
       }
@@ -237,15 +263,58 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
       return true;
    }
 
+   /**
+    * Applies the modifications of a transaction to the stores. Consecutive writes (and consecutive removes) are
+    * buffered per key and sent to the stores as a single batch, so the relative order of writes and removes is
+    * preserved.
+    */
    public class Updater extends AbstractVisitor {
 
       protected final boolean generateStatistics;
       int putCount;
+      private final Map<Object, MarshalledEntry> pendingWrites = new LinkedHashMap<Object, MarshalledEntry>();
+      private boolean pendingWritesSkipShared;
+      private final Set<Object> pendingRemoves = new LinkedHashSet<Object>();
 
       public Updater(boolean generateStatistics) {
          this.generateStatistics = generateStatistics;
       }
 
+      /**
+       * Sends the buffered modifications to the stores. Must be invoked after visiting the last modification.
+       */
+      public void flush() {
+         flushWrites();
+         flushRemoves();
+      }
+
+      private void flushWrites() {
+         if (!pendingWrites.isEmpty()) {
+            persistenceManager.writeBatchToAllStores(pendingWrites.values(), pendingWritesSkipShared);
+            pendingWrites.clear();
+         }
+      }
+
+      private void flushRemoves() {
+         if (!pendingRemoves.isEmpty()) {
+            persistenceManager.deleteBatchFromAllStores(pendingRemoves, false);
+            pendingRemoves.clear();
+         }
+      }
+
+      private void write(MarshalledEntry marshalledEntry, boolean skipSharedStores) {
+         flushRemoves();
+         if (skipSharedStores != pendingWritesSkipShared)
+            flushWrites();
+         pendingWritesSkipShared = skipSharedStores;
+         pendingWrites.put(marshalledEntry.getKey(), marshalledEntry);
+      }
+
+      private void remove(Object key) {
+         flushWrites();
+         pendingRemoves.add(key);
+      }
+
       @Override
       public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
          return visitSingleStore(ctx, command, command.getKey());
@@ -266,7 +335,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
                ice = entryFactory.create(entry);
             }
             MarshalledEntryImpl marshalledEntry = new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), marshaller);
-            persistenceManager.writeToAllStores(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
+            write(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
@@ -276,6 +345,18 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
          return visitSingleStore(ctx, command, command.getKey());
       }
 
+      @Override
+      public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+         Object key = command.getKey();
+         if (!command.isRemoval()) {
+            return visitSingleStore(ctx, command, key);
+         }
+         if (isProperWriter(ctx, command, key)) {
+            remove(key);
+         }
+         return null;
+      }
+
       @Override
       public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
          Map<Object, Object> map = command.getMap();
@@ -288,13 +369,14 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
          Object key = command.getKey();
          if (isProperWriter(ctx, command, key)) {
-            persistenceManager.deleteFromAllStores(key, false);
+            remove(key);
          }
          return null;
       }
 
       @Override
       public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         flush();
          persistenceManager.clearAllStores(ctx.isOriginLocal());
          return null;
       }
@@ -304,7 +386,7 @@ protected Object visitSingleStore(InvocationContext ctx, FlagAffectedCommand com
             if (generateStatistics) putCount++;
             InternalCacheValue sv = getStoredValue(key, ctx);
             MarshalledEntryImpl me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
-            persistenceManager.writeToAllStores(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
+            write(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
@@ -335,6 +417,29 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (getLog().isTraceEnabled()) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Writes the entries for the given keys to the stores with at most two batches, one for the entries that
+    * must skip the shared stores and one for the rest.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>(keys.size());
+      List<MarshalledEntry> skipSharedEntries = new ArrayList<MarshalledEntry>();
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            skipSharedEntries.add(me);
+         } else {
+            entries.add(me);
+         }
+      }
+      if (!entries.isEmpty())
+         persistenceManager.writeBatchToAllStores(entries, false);
+      if (!skipSharedEntries.isEmpty())
+         persistenceManager.writeBatchToAllStores(skipSharedEntries, true);
+      if (getLog().isTraceEnabled()) getLog().tracef("Stored %d entries", keys.size());
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -3,6 +3,7 @@
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
@@ -61,6 +62,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return handleDataCommand(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleDataCommand(ctx, command);
+   }
+
    @Override
    public Object visitLockControlCommand(TxInvocationContext ctx, LockControlCommand command) throws Throwable {
       DldGlobalTransaction globalTransaction = (DldGlobalTransaction) ctx.getGlobalTransaction();
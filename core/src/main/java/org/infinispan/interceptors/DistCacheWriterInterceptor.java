@@ -1,6 +1,7 @@
 package org.infinispan.interceptors;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -16,6 +17,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -82,7 +85,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
-      int count = 0;
+      List<Object> keys = new ArrayList<Object>(map.size());
       for (Object key : map.keySet()) {
          // In non-tx mode, a node may receive the same forwarded PutMapCommand many times - but each time
          // it must write only the keys locked on the primary owner that forwarded the command
@@ -90,11 +93,11 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
             continue;
 
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
-            count++;
+            keys.add(key);
          }
       }
-      if (getStatisticsEnabled()) cacheStores.getAndAdd(count);
+      storeEntries(ctx, keys, command);
+      if (getStatisticsEnabled()) cacheStores.getAndAdd(keys.size());
       return returnValue;
    }
 
@@ -124,6 +127,23 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return returnValue;
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      Object key = command.getKey();
+      if (!isStoreEnabled(command) || ctx.isInTxScope() || !command.isSuccessful()) return returnValue;
+      if (!isProperWriter(ctx, command, key)) return returnValue;
+
+      if (command.isRemoval()) {
+         boolean resp = persistenceManager.deleteFromAllStores(key, skipSharedStores(ctx, key, command));
+         log.tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+      } else {
+         storeEntry(ctx, key, command);
+         if (getStatisticsEnabled()) cacheStores.incrementAndGet();
+      }
+      return returnValue;
+   }
+
    @Override
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !cdl.localNodeIsPrimaryOwner(key) || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
@@ -4,6 +4,7 @@
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.DataCommand;
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
@@ -11,6 +12,7 @@
 import org.infinispan.commands.write.ClearCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -131,6 +133,28 @@ public final Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCo
       }
    }
 
+   @Override
+   public final Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         for (Object key : command.getKeys()) {
+            entryFactory.wrapEntryForReading(ctx, key);
+         }
+         return invokeNextInterceptor(ctx, command);
+      } finally {
+         //needed because entries might be added in L1
+         if (!ctx.isInTxScope())
+            commitContextEntries(ctx, command, null);
+         else {
+            for (Object key : command.getKeys()) {
+               CacheEntry entry = ctx.lookupEntry(key);
+               if (entry != null) {
+                  entry.setSkipLookup(true);
+               }
+            }
+         }
+      }
+   }
+
    @Override
    public final Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) throws Throwable {
       if (command.getKeys() != null) {
@@ -254,6 +278,15 @@ private void wrapEntryForReplaceIfNeeded(InvocationContext ctx, ReplaceCommand c
       }
    }
 
+   @Override
+   public final Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      if (shouldWrap(command.getKey(), ctx, command)) {
+         // the function might create the entry, and a write-only function never reads it
+         entryFactory.wrapEntryForPut(ctx, command.getKey(), null, false, command, command.isWriteOnly());
+      }
+      return setSkipRemoteGetsAndInvokeNextForDataCommand(ctx, command, command.getMetadata());
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       for (Object key : command.getMap().keySet()) {
@@ -533,6 +566,15 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
          }
          return null;
       }
+
+      @Override
+      public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+         if (cdl.localNodeIsOwner(command.getKey())) {
+            entryFactory.wrapEntryForPut(ctx, command.getKey(), null, false, command, command.isWriteOnly());
+            invokeNextInterceptor(ctx, command);
+         }
+         return null;
+      }
    }
 
    private boolean commitEntryIfNeeded(final InvocationContext ctx, final FlagAffectedCommand command,
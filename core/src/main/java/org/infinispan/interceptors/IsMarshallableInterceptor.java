@@ -2,7 +2,9 @@
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -74,6 +76,16 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return super.visitGetKeyValueCommand(ctx, command);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      boolean storeAsBinary = isStoreAsBinary();
+      for (Object key : command.getKeys()) {
+         if (storeAsBinary || getMightGoRemote(ctx, key, command))
+            checkMarshallable(key);
+      }
+      return super.visitGetAllCommand(ctx, command);
+   }
+
    @Override
    public Object visitLockControlCommand(TxInvocationContext ctx, LockControlCommand command) throws Throwable {
       if (isStoreAsBinary() || isClusterInvocation(ctx, command))
@@ -109,6 +121,16 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return super.visitReplaceCommand(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      if (isStoreAsBinary() || isClusterInvocation(ctx, command) || isStoreInvocation(command))
+         checkMarshallable(command.getKey());
+      // The function is shipped to the primary owner
+      if (isClusterInvocation(ctx, command))
+         checkMarshallable(command.getFunction());
+      return super.visitEvalCommand(ctx, command);
+   }
+
    private boolean isClusterInvocation(InvocationContext ctx, FlagAffectedCommand command) {
       // If the cache is local, the interceptor should only be enabled in case
       // of lazy deserialization or when an async store is in place. So, if
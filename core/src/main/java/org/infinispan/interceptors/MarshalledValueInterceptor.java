@@ -2,9 +2,11 @@
 
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -29,6 +31,7 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -126,6 +129,16 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
       return processRetVal(retVal, ctx);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      // Only the key is wrapped, the function works with the values as they are stored
+      if (wrapKeys && !isTypeExcluded(command.getKey().getClass())) {
+         command.setKey(createMarshalledValue(command.getKey(), ctx));
+      }
+      Object retVal = invokeNextInterceptor(ctx, command);
+      return processRetVal(retVal, ctx);
+   }
+
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
       MarshalledValue value;
@@ -165,6 +178,27 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return processRetVal(retVal, ctx);
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (wrapKeys) {
+         List<Object> keys = new ArrayList<Object>(command.getKeys().size());
+         for (Object key : command.getKeys()) {
+            keys.add(isTypeExcluded(key.getClass()) ? key : createMarshalledValue(key, ctx));
+         }
+         command.setKeys(keys);
+      }
+      Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      if (!ctx.isOriginLocal()) {
+         return map;
+      }
+      Map<Object, Object> copy = new HashMap<Object, Object>(map.size());
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+         copy.put(processRetVal(entry.getKey(), ctx), processRetVal(entry.getValue(), ctx));
+      }
+      return copy;
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public Object visitKeySetCommand(InvocationContext ctx, KeySetCommand command) throws Throwable {
@@ -2,8 +2,10 @@
 
 import org.infinispan.commands.MetadataAwareCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
@@ -20,7 +22,11 @@
 import org.infinispan.metadata.Metadata;
 import org.infinispan.util.TimeService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -95,6 +101,42 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       return null;
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      TypeConverter<Object, Object, Object, Object> converter =
+            determineTypeConverter(command.getFlags());
+      if (ctx.isOriginLocal()) {
+         List<Object> keys = new ArrayList<Object>(command.getKeys().size());
+         for (Object key : command.getKeys()) {
+            keys.add(converter.boxKey(key));
+         }
+         command.setKeys(keys);
+      }
+      Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      if (!ctx.isOriginLocal()) {
+         return map;
+      }
+      Map<Object, InternalCacheEntry> remotelyFetched = command.getRemotelyFetched();
+      Map<Object, Object> unboxed = new HashMap<Object, Object>(map.size());
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+         Object key = entry.getKey();
+         boolean fetchedRemotely = remotelyFetched != null && remotelyFetched.containsKey(key);
+         Object value;
+         if (command.isReturnEntries()) {
+            CacheEntry cacheEntry = (CacheEntry) entry.getValue();
+            Object returnValue = fetchedRemotely ? cacheEntry.getValue() : converter.unboxValue(cacheEntry.getValue());
+            // Create a copy of the entry to avoid modifying the internal entry
+            value = entryFactory.create(converter.unboxKey(key), returnValue, cacheEntry.getMetadata(),
+                                        cacheEntry.getLifespan(), cacheEntry.getMaxIdle());
+         } else {
+            value = fetchedRemotely ? entry.getValue() : converter.unboxValue(entry.getValue());
+         }
+         unboxed.put(converter.unboxKey(key), value);
+      }
+      return unboxed;
+   }
+
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
       Object key = command.getKey();
@@ -149,6 +191,19 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
       return ctx.isOriginLocal() ? converter.unboxValue(ret) : ret;
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      TypeConverter<Object, Object, Object, Object> converter =
+            determineTypeConverter(command.getFlags());
+      if (ctx.isOriginLocal()) {
+         command.setKey(converter.boxKey(command.getKey()));
+      }
+      // The function reads and writes the entry wherever it is executed, so the converter is needed on
+      // the primary owner too. The result is computed from the unboxed values, it doesn't need converting.
+      command.setTypeConverter(converter);
+      return invokeNextInterceptor(ctx, command);
+   }
+
    @Override
    public Object visitEntrySetCommand(InvocationContext ctx, EntrySetCommand command) throws Throwable {
       Set<CacheEntry> set = (Set<CacheEntry>) super.visitEntrySetCommand(ctx, command);
@@ -1,17 +1,25 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.ValueMatcher;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.RemoteValueRetrievedListener;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.ClusteringInterceptor;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
@@ -37,9 +45,11 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Base class for distribution of entries across a cluster.
@@ -157,6 +167,110 @@ private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets
       return null;
    }
 
+   /**
+    * Retrieves several keys from their owners. The keys are grouped by their primary owner in the read consistent hash
+    * and a single {@link ClusteredGetAllCommand} is sent to each owner, the RPCs to the different owners being issued
+    * in parallel, without a thread waiting for each of them. The keys for which an owner cannot give a definite answer
+    * (e.g. because it is affected by a rehash, or because the owner left the cluster) are then retrieved one by one with
+    * {@link #retrieveFromRemoteSource(Object, InvocationContext, boolean, FlagAffectedCommand, boolean)}.
+    *
+    * @return the entries found, keyed by the requested key. Keys that were not found are not present in the map.
+    */
+   protected final Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Collection<?> keys, InvocationContext ctx,
+                                                                            GetAllCommand command) throws Throwable {
+      ConsistentHash ch = stateTransferManager.getCacheTopology().getReadConsistentHash();
+      Map<Address, List<Object>> keysByOwner = new HashMap<Address, List<Object>>();
+      for (Object key : keys) {
+         Address owner = ch.locatePrimaryOwner(key);
+         List<Object> ownerKeys = keysByOwner.get(owner);
+         if (ownerKeys == null) {
+            ownerKeys = new ArrayList<Object>();
+            keysByOwner.put(owner, ownerKeys);
+         }
+         ownerKeys.add(key);
+      }
+      if (trace) log.tracef("Perform remote get for keys %s, grouped by owner: %s", keys, keysByOwner);
+
+      RpcOptions rpcOptions = rpcManager.getDefaultRpcOptions(true);
+      Map<Address, NotifyingFuture<Map<Address, Response>>> futures =
+            new HashMap<Address, NotifyingFuture<Map<Address, Response>>>(keysByOwner.size());
+      for (Map.Entry<Address, List<Object>> e : keysByOwner.entrySet()) {
+         ClusteredGetAllCommand get = cf.buildClusteredGetAllCommand(e.getValue(), command.getFlags());
+         futures.put(e.getKey(), rpcManager.invokeRemotelyAsync(Collections.singleton(e.getKey()), get, rpcOptions));
+      }
+
+      Map<Object, InternalCacheEntry> entries = CollectionFactory.makeMap(keys.size(), command.getKeyEquivalence(),
+                                                                          AnyEquivalence.getInstance());
+      List<Object> retryKeys = new ArrayList<Object>();
+      for (Map.Entry<Address, NotifyingFuture<Map<Address, Response>>> e : futures.entrySet()) {
+         Map<Address, Response> responses = null;
+         try {
+            responses = e.getValue().get();
+         } catch (ExecutionException ee) {
+            if (!(ee.getCause() instanceof SuspectException)) {
+               throw ee.getCause();
+            }
+            if (trace) log.tracef("Owner %s was suspected, retrying its keys one by one", e.getKey());
+         }
+         processClusteredGetAllResponse(e.getKey(), keysByOwner.get(e.getKey()), responses, entries, retryKeys);
+      }
+
+      for (Object key : retryKeys) {
+         InternalCacheEntry ice = retrieveFromRemoteSource(key, ctx, false, command, false);
+         if (ice != null) {
+            entries.put(key, ice);
+         }
+      }
+      return entries;
+   }
+
+   /**
+    * Returns the keys of a {@link GetAllCommand} that were not found locally and need to be fetched from their remote
+    * owners.
+    */
+   protected final List<Object> keysForRemoteGet(InvocationContext ctx, GetAllCommand command, Map<?, ?> found) {
+      if (!ctx.isOriginLocal() || command.hasFlag(Flag.CACHE_MODE_LOCAL)
+            || command.hasFlag(Flag.SKIP_REMOTE_LOOKUP)
+            || command.hasFlag(Flag.IGNORE_RETURN_VALUES)) {
+         return Collections.emptyList();
+      }
+      ConsistentHash ch = stateTransferManager.getCacheTopology().getReadConsistentHash();
+      List<Object> remoteKeys = new ArrayList<Object>();
+      for (Object key : command.getKeys()) {
+         if (found.containsKey(key)) continue;
+         CacheEntry entry = ctx.lookupEntry(key);
+         boolean skipRemoteGet = entry != null && (entry.skipLookup() || !entry.isNull());
+         if (!skipRemoteGet && !ctx.isEntryRemovedInContext(key) && !isValueAvailableLocally(ch, key)) {
+            remoteKeys.add(key);
+         }
+      }
+      return remoteKeys;
+   }
+
+   private void processClusteredGetAllResponse(Address owner, List<Object> keys, Map<Address, Response> responses,
+                                               Map<Object, InternalCacheEntry> entries, List<Object> retryKeys) {
+      Response response = responses == null ? null : responses.get(owner);
+      if (!(response instanceof SuccessfulResponse)) {
+         if (trace) log.tracef("Unsure or missing response %s from %s, retrying keys %s", response, owner, keys);
+         retryKeys.addAll(keys);
+         return;
+      }
+      List<?> values = (List<?>) ((SuccessfulResponse) response).getResponseValue();
+      for (int i = 0; i < keys.size(); i++) {
+         Object key = keys.get(i);
+         InternalCacheValue value = (InternalCacheValue) values.get(i);
+         if (value != null) {
+            InternalCacheEntry ice = value.toInternalCacheEntry(key);
+            if (rvrl != null) {
+               rvrl.remoteValueFound(ice);
+            }
+            entries.put(key, ice);
+         } else if (rvrl != null) {
+            rvrl.remoteValueNotFound(key);
+         }
+      }
+   }
+
    protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
       if (ctx.isInTxScope()) {
          throw new CacheException("Attempted execution of non-transactional write command in a transactional invocation context");
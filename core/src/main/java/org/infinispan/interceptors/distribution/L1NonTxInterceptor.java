@@ -6,6 +6,7 @@
 import org.infinispan.commands.LocalFlagAffectedCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -209,6 +210,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return handleDataWriteCommand(ctx, command, true);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleDataWriteCommand(ctx, command, false);
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       Future<Object> invalidationFuture = null;
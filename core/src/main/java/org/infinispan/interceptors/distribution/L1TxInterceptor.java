@@ -3,6 +3,7 @@
 import org.infinispan.commands.LocalFlagAffectedCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -39,6 +40,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return performCommandWithL1WriteIfAble(ctx, command, true, true);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return performCommandWithL1WriteIfAble(ctx, command, true, !command.isWriteOnly());
+   }
+
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
       return performCommandWithL1WriteIfAble(ctx, command, true, false);
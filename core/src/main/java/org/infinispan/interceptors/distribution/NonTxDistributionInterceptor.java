@@ -1,8 +1,10 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -60,6 +62,29 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      List<Object> remoteKeys = keysForRemoteGet(ctx, command, map);
+      if (remoteKeys.isEmpty()) {
+         return map;
+      }
+      Map<Object, InternalCacheEntry> remoteEntries = retrieveFromRemoteSources(remoteKeys, ctx, command);
+      command.setRemotelyFetched(remoteEntries);
+      for (Object key : remoteKeys) {
+         InternalCacheEntry ice = remoteEntries.get(key);
+         if (ice == null && isValueAvailableLocally(dm.getReadConsistentHash(), key)) {
+            // the topology changed and the key is local now
+            ice = localGetCacheEntry(ctx, key, false, command);
+         }
+         if (ice != null) {
+            map.put(key, command.isReturnEntries() ? ice : ice.getValue());
+         }
+      }
+      return map;
+   }
+
    private Object computeGetReturn(InternalCacheEntry entry, GetKeyValueCommand command) {
       if (!command.isReturnEntry() && entry != null)
          return entry.getValue();
@@ -115,6 +140,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return handleNonTxWriteCommand(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleNonTxWriteCommand(ctx, command);
+   }
+
    /**
     * Don't forward in the case of clear commands, just acquire local locks and broadcast.
     */
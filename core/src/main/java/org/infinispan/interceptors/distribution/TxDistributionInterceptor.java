@@ -4,11 +4,13 @@
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -32,6 +34,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKey;
@@ -76,6 +79,12 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       }
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      // A write-only function doesn't need the previous value
+      return handleTxWriteCommand(ctx, command, new SingleKeyRecipientGenerator(command.getKey()), command.isWriteOnly());
+   }
+
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
       try {
@@ -157,6 +166,39 @@ private Object visitGetCommand(InvocationContext ctx, GetKeyValueCommand command
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      Map<Object, Object> map = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      List<Object> remoteKeys = keysForRemoteGet(ctx, command, map);
+      if (remoteKeys.isEmpty()) {
+         return map;
+      }
+      Map<Object, InternalCacheEntry> remoteEntries = retrieveFromRemoteSources(remoteKeys, ctx, command);
+      command.setRemotelyFetched(remoteEntries);
+      for (Object key : remoteKeys) {
+         InternalCacheEntry ice = remoteEntries.get(key);
+         if (ice != null) {
+            if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
+               ((TxInvocationContext) ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+            }
+            if (!ctx.replaceValue(key, ice)) {
+               ctx.putLookedUpEntry(key, ice);
+               if (ctx.isInTxScope()) {
+                  ((TxInvocationContext) ctx).getCacheTransaction().replaceVersionRead(key, ice.getMetadata().version());
+               }
+            }
+            map.put(key, command.isReturnEntries() ? ice : ice.getValue());
+         } else {
+            Object localValue = localGet(ctx, key, false, command, command.isReturnEntries());
+            if (localValue != null) {
+               map.put(key, localValue);
+            }
+         }
+      }
+      return map;
+   }
+
    protected void lockAndWrap(InvocationContext ctx, Object key, InternalCacheEntry ice, FlagAffectedCommand command) throws InterruptedException {
       boolean skipLocking = hasSkipLocking(command);
       long lockTimeout = getLockAcquisitionTimeout(command, skipLocking);
@@ -1,8 +1,10 @@
 package org.infinispan.interceptors.locking;
 
 import org.infinispan.InvalidCacheUsageException;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
@@ -35,6 +37,16 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       }
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      assertNonTransactional(ctx);
+      try {
+         return invokeNextInterceptor(ctx, command);
+      } finally {
+         lockManager.unlockAll(ctx);//possibly needed because of L1 locks being acquired
+      }
+   }
+
    @Override
    public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
       assertNonTransactional(ctx);
@@ -104,6 +116,22 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       }
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      assertNonTransactional(ctx);
+      try {
+         if (!shouldLock(command.getKey(), command))
+            return invokeNextInterceptor(ctx, command);
+         lockKey(ctx, command);
+         return invokeNextInterceptor(ctx, command);
+      } catch (Throwable te) {
+         throw cleanLocksAndRethrow(ctx, te);
+      }
+      finally {
+         lockManager.unlockAll(ctx);
+      }
+   }
+
    private void assertNonTransactional(InvocationContext ctx) {
       //this only happens if the cache is used in a transaction's scope
       if (ctx.isInTxScope()) {
@@ -5,10 +5,12 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -107,6 +109,17 @@ public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand
       markKeyAsRead(ctx, command, true);
       return super.visitGetKeyValueCommand(ctx, command);
    }
+
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (needToMarkReads && ctx.isInTxScope()) {
+         TxInvocationContext tctx = (TxInvocationContext) ctx;
+         for (Object key : command.getKeys()) {
+            tctx.getCacheTransaction().addReadKey(key);
+         }
+      }
+      return super.visitGetAllCommand(ctx, command);
+   }
    
    @Override
    public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand command) throws Throwable {
@@ -148,6 +161,16 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       }
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      try {
+         markKeyAsRead(ctx, command, command.isConditional());
+         return invokeNextInterceptor(ctx, command);
+      } catch (Throwable te) {
+         throw cleanLocksAndRethrow(ctx, te);
+      }
+   }
+
    @Override
    public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
       try {
@@ -233,6 +256,11 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
       public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
          return visitSingleKeyCommand(ctx, command);
       }
+
+      @Override
+      public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+         return visitSingleKeyCommand(ctx, command);
+      }
    }
    
    private class LocalWriteSkewCheckingLockAcquisitionVisitor extends LockAcquisitionVisitor {
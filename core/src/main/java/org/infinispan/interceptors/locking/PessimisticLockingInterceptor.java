@@ -4,11 +4,14 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.recovery.TxCompletionNotificationCommand;
 import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.AbstractDataWriteCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -78,6 +81,28 @@ public final Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCo
       }
    }
 
+   @Override
+   public final Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         if (command.hasFlag(Flag.FORCE_WRITE_LOCK) && ctx.isInTxScope()) {
+            boolean skipLocking = hasSkipLocking(command);
+            if (!skipLocking) {
+               acquireRemoteIfNeeded(ctx, new HashSet<Object>(command.getKeys()), command);
+            }
+            long lockTimeout = getLockAcquisitionTimeout(command, skipLocking);
+            for (Object key : command.getKeys()) {
+               lockKeyAndCheckOwnership(ctx, key, lockTimeout, skipLocking);
+            }
+         }
+         return invokeNextInterceptor(ctx, command);
+      } catch (Throwable t) {
+         releaseLocksOnFailureBeforePrepare(ctx);
+         throw t;
+      } finally {
+         if (!ctx.isInTxScope()) lockManager.unlockAll(ctx);
+      }
+   }
+
    @Override
    public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
       return invokeNextAndCommitIf1Pc(ctx, command);
@@ -170,6 +195,15 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
 
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
+      return handleSingleKeyWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleSingleKeyWriteCommand(ctx, command);
+   }
+
+   private Object handleSingleKeyWriteCommand(InvocationContext ctx, AbstractDataWriteCommand command) throws Throwable {
       try {
          final boolean localNodeOwnsLock = cdl.localNodeIsPrimaryOwner(command.getKey());
          acquireRemoteIfNeeded(ctx, command, localNodeOwnsLock);
@@ -3,6 +3,7 @@
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.ClearCommand;
 import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -45,6 +46,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return handleSingleKeyWriteCommand(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleSingleKeyWriteCommand(ctx, command);
+   }
+
    @Override
    public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
       return handleMultipleKeysWriteCommand(ctx, command);
@@ -85,6 +91,13 @@ private WriteCommand transform(DataWriteCommand command) {
                                                         command.getMetadata(), command.getFlags());
       } else if (command instanceof RemoveCommand) {
          return commandsFactory.buildRemoveCommand(command.getKey(), null, command.getFlags());
+      } else if (command instanceof EvalCommand) {
+         EvalCommand evalCommand = (EvalCommand) command;
+         if (evalCommand.isRemoval()) {
+            return commandsFactory.buildRemoveCommand(command.getKey(), null, command.getFlags());
+         }
+         return commandsFactory.buildPutKeyValueCommand(evalCommand.getKey(), evalCommand.getNewValue(),
+                                                        command.getMetadata(), command.getFlags());
       }
       throw new IllegalArgumentException("Command " + command + " is not valid!");
    }
@@ -0,0 +1,18 @@
+package org.infinispan.notifications;
+
+/**
+ * Creates {@link KeyValueFilter} instances for listeners registered remotely, e.g. by Hot Rod clients, which can
+ * only refer to a filter by the name its factory was deployed with.
+ * <p>
+ * The filters of clustered listeners are sent to the other nodes, so they need to be marshallable.
+ *
+ * @since 7.0
+ */
+public interface KeyValueFilterFactory {
+
+   /**
+    * @param params the parameters sent by the client, which are left in their marshalled form
+    * @return the filter to use for a new listener
+    */
+   <K, V> KeyValueFilter<K, V> getKeyValueFilter(Object[] params);
+}
@@ -230,4 +230,49 @@
     * <b>Currently this is not supported!</b>
     **/
    boolean includeCurrentState() default false;
+
+   /**
+    * Specifies whether the listener is notified before the operation is applied, after it, or both. The events are
+    * not even built for a phase that no listener observes, so listeners interested in a single phase should say so.
+    * Only applies to the events which have a pre and a post phase, see {@link org.infinispan.notifications.cachelistener.event.Event#isPre()}.
+    * Defaults to {@link Observation#BOTH}.
+    *
+    * @since 7.0
+    */
+   Observation observation() default Observation.BOTH;
+
+   /**
+    * Enumerates the phases of an operation a listener can be notified of.
+    */
+   enum Observation {
+      /**
+       * Only the events fired before the operation is applied are received.
+       */
+      PRE {
+         @Override
+         public boolean shouldInvoke(boolean pre) {
+            return pre;
+         }
+      },
+      /**
+       * Only the events fired after the operation is applied are received.
+       */
+      POST {
+         @Override
+         public boolean shouldInvoke(boolean pre) {
+            return !pre;
+         }
+      },
+      /**
+       * The events of both phases are received.
+       */
+      BOTH {
+         @Override
+         public boolean shouldInvoke(boolean pre) {
+            return true;
+         }
+      };
+
+      public abstract boolean shouldInvoke(boolean pre);
+   }
 }
@@ -218,7 +218,7 @@ protected final void resumeIfNeeded(Transaction transaction) {
    @Override
    public void notifyCacheEntryCreated(K key, V value, boolean pre,
          InvocationContext ctx, FlagAffectedCommand command) {
-      if (!cacheEntryCreatedListeners.isEmpty()) {
+      if (hasListenerForPhase(cacheEntryCreatedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_CREATED);
          configureEvent(e, key, value, pre, ctx, command);
          boolean isLocalNodePrimaryOwner = clusteringDependentLogic.localNodeIsPrimaryOwner(key);
@@ -230,7 +230,7 @@ public void notifyCacheEntryCreated(K key, V value, boolean pre,
    public void notifyCacheEntryModified(K key, V value,
          boolean created, boolean pre, InvocationContext ctx,
          FlagAffectedCommand command) {
-      if (!cacheEntryModifiedListeners.isEmpty()) {
+      if (hasListenerForPhase(cacheEntryModifiedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_MODIFIED);
          configureEvent(e, key, value, pre, ctx, command);
          // Even if CacheEntryCreatedEvent.getValue() has been added, to
@@ -249,7 +249,7 @@ public void notifyCacheEntryModified(K key, V value,
    @Override
    public void notifyCacheEntryRemoved(K key, V value, V oldValue,
          boolean pre, InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryRemovedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryRemovedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_REMOVED);
          configureEvent(e, key, value, pre, ctx, command);
          e.setOldValue(oldValue);
@@ -280,7 +280,7 @@ private void configureEvent(EventImpl<K, V> e, K key, V value, boolean pre,
 
    @Override
    public void notifyCacheEntryVisited(K key, V value, boolean pre, InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryVisitedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryVisitedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_VISITED);
          e.setPre(pre);
          e.setKey(key);
@@ -360,7 +360,7 @@ public void notifyCacheEntryEvicted(K key, V value,
    @Override
    public void notifyCacheEntryInvalidated(final K key, V value, final boolean pre,
          InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryInvalidatedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryInvalidatedListeners, pre)) {
          final boolean originLocal = ctx.isOriginLocal();
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_INVALIDATED);
          e.setOriginLocal(originLocal);
@@ -376,7 +376,7 @@ public void notifyCacheEntryInvalidated(final K key, V value, final boolean pre,
    @Override
    public void notifyCacheEntryLoaded(K key, V value, boolean pre,
          InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryLoadedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryLoadedListeners, pre)) {
          boolean originLocal = ctx.isOriginLocal();
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_LOADED);
          e.setOriginLocal(originLocal);
@@ -391,7 +391,7 @@ public void notifyCacheEntryLoaded(K key, V value, boolean pre,
 
    @Override
    public void notifyCacheEntryActivated(K key, V value, boolean pre, InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryActivatedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryActivatedListeners, pre)) {
          boolean originLocal = ctx.isOriginLocal();
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_ACTIVATED);
          e.setOriginLocal(originLocal);
@@ -413,7 +413,7 @@ private void setTx(InvocationContext ctx, EventImpl<K, V> e) {
 
    @Override
    public void notifyCacheEntryPassivated(K key, V value, boolean pre, InvocationContext ctx, FlagAffectedCommand command) {
-      if (isNotificationAllowed(command, cacheEntryPassivatedListeners)) {
+      if (isNotificationAllowed(command, cacheEntryPassivatedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, CACHE_ENTRY_PASSIVATED);
          e.setPre(pre);
          e.setKey(key);
@@ -447,7 +447,7 @@ public void notifyTransactionRegistered(GlobalTransaction globalTransaction, boo
 
    @Override
    public void notifyDataRehashed(ConsistentHash oldCH, ConsistentHash newCH, int newTopologyId, boolean pre) {
-      if (!dataRehashedListeners.isEmpty()) {
+      if (hasListenerForPhase(dataRehashedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, DATA_REHASHED);
          e.setPre(pre);
          e.setConsistentHashAtStart(oldCH);
@@ -459,7 +459,7 @@ public void notifyDataRehashed(ConsistentHash oldCH, ConsistentHash newCH, int n
 
    @Override
    public void notifyTopologyChanged(ConsistentHash oldConsistentHash, ConsistentHash newConsistentHash, int newTopologyId, boolean pre) {
-      if (!topologyChangedListeners.isEmpty()) {
+      if (hasListenerForPhase(topologyChangedListeners, pre)) {
          EventImpl<K, V> e = EventImpl.createEvent(cache, TOPOLOGY_CHANGED);
          e.setPre(pre);
          e.setConsistentHashAtStart(oldConsistentHash);
@@ -554,6 +554,16 @@ public boolean isNotificationAllowed(
             && !listeners.isEmpty();
    }
 
+   /**
+    * Same as {@link #isNotificationAllowed(FlagAffectedCommand, List)}, but also checks that at least one of the
+    * listeners observes the phase of the event, so that no event is built for nobody.
+    */
+   public boolean isNotificationAllowed(
+         FlagAffectedCommand cmd, List<ListenerInvocation> listeners, boolean pre) {
+      return (cmd == null || !cmd.hasFlag(Flag.SKIP_LISTENER_NOTIFICATION))
+            && hasListenerForPhase(listeners, pre);
+   }
+
    @Override
    public void addListener(Object listener, KeyFilter<? super K> filter, ClassLoader classLoader) {
       validateAndAddListenerInvocation(listener, new KeyFilterAsKeyValueFilter<K, V>(filter), null, classLoader);
@@ -643,7 +653,7 @@ protected ListenerInvocation createListenerInvocation(Object listener, Method m,
       // If we are dealing with clustered events that forces the cluster listener to only use primary only else we would
       // have duplicate events
       return new ListenerInvocation(listener, m, l.sync(), l.clustered() ? true : l.primaryOnly(), l.clustered(),
-                                    filter, converter, classLoader, generatedId, subject);
+                                    l.observation(), filter, converter, classLoader, generatedId, subject);
    }
 
    @Override
@@ -114,6 +114,10 @@ public K getKey() {
       return key;
    }
 
+   public Metadata getMetadata() {
+      return metadata;
+   }
+
    @Override
    public GlobalTransaction getGlobalTransaction() {
       return transaction;
@@ -118,7 +118,7 @@ public Set<Object> getListeners() {
 
    /**
     * Loops through all valid methods on the object passed in, and caches the relevant methods as {@link
-    * ListenerInvocation} for invocation by reflection.
+    * ListenerInvocation}s, each with the {@link ListenerInvoker} created for the method.
     *
     * @param listener object to be considered as a listener.
     */
@@ -158,8 +158,8 @@ protected <C> void validateAndAddListenerInvocation(Object listener, KeyValueFil
    protected <C> ListenerInvocation createListenerInvocation(Object listener, Method m, Listener l,
                                                              KeyValueFilter<? super K, ? super V> filter,
                                                          Converter<? super K, ? super V, C> converter, ClassLoader classLoader, UUID generatedId, Subject subject) {
-      return new ListenerInvocation(listener, m, l.sync(), l.primaryOnly(), l.clustered(), filter, converter,
-                                    classLoader, generatedId, subject);
+      return new ListenerInvocation(listener, m, l.sync(), l.primaryOnly(), l.clustered(), l.observation(), filter,
+                                    converter, classLoader, generatedId, subject);
    }
 
    protected <C> void addedListener(Object listener, UUID generatedId, boolean hasClusteredMethods, KeyValueFilter<? super K, ? super V> filter,
@@ -196,16 +196,29 @@ protected static void testListenerMethodValidity(Method m, Class<?> allowedParam
 
    protected abstract void resumeIfNeeded(Transaction transaction);
 
+   /**
+    * Tells whether any of the listeners may be invoked with an event of the given phase, so that the event doesn't
+    * need to be built when none of them would receive it.
+    */
+   protected boolean hasListenerForPhase(List<ListenerInvocation> listeners, boolean pre) {
+      for (ListenerInvocation listener : listeners) {
+         if (listener.acceptsPhase(pre)) return true;
+      }
+      return false;
+   }
+
    /**
     * Class that encapsulates a valid invocation for a given registered listener - containing a reference to the method
-    * to be invoked as well as the target object.
+    * to be invoked, the {@link ListenerInvoker} used to invoke it, as well as the target object.
     */
    protected class ListenerInvocation {
       public final Object target;
       public final Method method;
+      public final ListenerInvoker invoker;
       public final boolean sync;
       public final boolean onlyPrimary;
       public final boolean clustered;
+      public final Listener.Observation observation;
       public final WeakReference<ClassLoader> classLoader;
       public final KeyValueFilter<? super K, ? super V> filter;
       public final Converter<? super K, ? super V, ?> converter;
@@ -213,13 +226,16 @@ protected class ListenerInvocation {
       public final Subject subject;
 
       public ListenerInvocation(Object target, Method method, boolean sync, boolean onlyPrimary, boolean clustered,
-                                KeyValueFilter<? super K, ? super V> filter, Converter<? super K, ? super V, ?> converter, ClassLoader classLoader,
+                                Listener.Observation observation, KeyValueFilter<? super K, ? super V> filter,
+                                Converter<? super K, ? super V, ?> converter, ClassLoader classLoader,
                                 UUID generatedId, Subject subject) {
          this.target = target;
          this.method = method;
+         this.invoker = ListenerInvokerFactory.create(method);
          this.sync = sync;
          this.onlyPrimary = onlyPrimary;
          this.clustered = clustered;
+         this.observation = observation;
          this.filter = filter;
          this.converter = converter;
          this.classLoader = new WeakReference<ClassLoader>(classLoader);
@@ -236,7 +252,7 @@ public void invoke(final T event, boolean isLocalNodePrimaryOwner) {
       }
 
       public void invoke(final T event, boolean isLocalNodePrimaryOwner, final boolean unKeyed) {
-         if (unKeyed || shouldInvoke(event, isLocalNodePrimaryOwner)) {
+         if (unKeyed ? isObserved(event) : shouldInvoke(event, isLocalNodePrimaryOwner)) {
             Runnable r = new Runnable() {
 
                @Override
@@ -264,7 +280,7 @@ public void run() {
                            Subject.doAs(subject, new PrivilegedExceptionAction<Void>() {
                               @Override
                               public Void run() throws Exception {
-                                 method.invoke(target, event);
+                                 invoker.invoke(target, event);
                                  return null;
                               }
                            });
@@ -279,7 +295,7 @@ public Void run() throws Exception {
                            }
                         }
                      } else {
-                        method.invoke(target, event);
+                        invoker.invoke(target, event);
                      }
                   } catch (InvocationTargetException exception) {
                      Throwable cause = getRealException(exception);
@@ -312,12 +328,24 @@ private boolean shouldInvoke(T event, boolean isLocalNodePrimaryOwner) {
          if (onlyPrimary && !isLocalNodePrimaryOwner) return false;
          if (event instanceof  EventImpl) {
             EventImpl<K, V> eventImpl = (EventImpl<K, V>)event;
-            // Cluster listeners only get post events
-            if (eventImpl.isPre() && clustered) return false;
+            if (!acceptsPhase(eventImpl.isPre())) return false;
             if (filter != null && !filter.accept(eventImpl.getKey(), eventImpl.getValue(), eventImpl.getMetadata())) return false;
          }
          return true;
       }
+
+      private boolean isObserved(T event) {
+         return !(event instanceof EventImpl) || observation.shouldInvoke(((EventImpl<?, ?>) event).isPre());
+      }
+
+      /**
+       * Tells whether the listener is interested in the events of the given phase.
+       */
+      public boolean acceptsPhase(boolean pre) {
+         // Cluster listeners only get post events
+         if (pre && clustered) return false;
+         return observation.shouldInvoke(pre);
+      }
    }
 
    private Throwable getRealException(Throwable re) {
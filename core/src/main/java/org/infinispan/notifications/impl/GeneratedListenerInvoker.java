@@ -0,0 +1,33 @@
+package org.infinispan.notifications.impl;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Base class of the {@link ListenerInvoker}s generated by the {@link ListenerInvokerFactory}.  The generated subclass
+ * only implements {@link #doInvoke(Object, Object)} with a direct call of the listener method, while this class keeps
+ * the exception contract of {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+ * <p/>
+ * This class is public because the generated subclasses are defined in their own class loader.
+ *
+ * @since 7.0
+ */
+public abstract class GeneratedListenerInvoker implements ListenerInvoker {
+
+   protected GeneratedListenerInvoker() {
+   }
+
+   @Override
+   public final void invoke(Object target, Object event) throws InvocationTargetException {
+      try {
+         doInvoke(target, event);
+      } catch (Throwable t) {
+         throw new InvocationTargetException(t);
+      }
+   }
+
+   /**
+    * Casts the target and the event to the types of the listener method and invokes it.
+    */
+   protected abstract void doInvoke(Object target, Object event);
+
+}
@@ -0,0 +1,23 @@
+package org.infinispan.notifications.impl;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Invokes a single listener method with an event.  Implementations are created once, when the listener is registered,
+ * by the {@link ListenerInvokerFactory}.
+ *
+ * @since 7.0
+ */
+public interface ListenerInvoker {
+
+   /**
+    * Invokes the listener method on the given target.
+    *
+    * @param target the listener instance
+    * @param event the event passed as the only argument of the listener method
+    * @throws InvocationTargetException wrapping any exception thrown by the listener method
+    * @throws IllegalAccessException if the listener method is not accessible
+    */
+   void invoke(Object target, Object event) throws InvocationTargetException, IllegalAccessException;
+
+}
@@ -0,0 +1,278 @@
+package org.infinispan.notifications.impl;
+
+import org.infinispan.commons.util.concurrent.ConcurrentWeakKeyHashMap;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the {@link ListenerInvoker} of a listener method.
+ * <p/>
+ * Whenever possible, a small class extending {@link GeneratedListenerInvoker} is generated, which casts the target and
+ * the event and calls the listener method directly, so that the notifications don't go through reflection.  The class
+ * is defined in its own class loader, which only sees the listener and event types, so it can be unloaded together with
+ * the listener.  The generated class is shared by all the registrations of the same listener method, only a new instance
+ * is created for each of them.
+ * <p/>
+ * The invoker falls back to {@link ReflectionListenerInvoker} when the method or the types it references are not
+ * public, or when the class can't be defined (e.g. because a security manager denies the creation of class loaders).
+ *
+ * @since 7.0
+ */
+public class ListenerInvokerFactory {
+
+   private static final Log log = LogFactory.getLog(ListenerInvokerFactory.class);
+
+   private static final String GENERATED_CLASS_PREFIX = "org.infinispan.notifications.impl.generated.ListenerInvoker$";
+   private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+   private static final AtomicInteger counter = new AtomicInteger();
+
+   // declaring class -> Method.toString() -> generated invoker class. Neither the keys nor the values strongly
+   // reference the declaring class, so the class and its generated invokers can be unloaded with the listener.
+   private static final ConcurrentMap<Class<?>, ConcurrentMap<String, WeakReference<Class<?>>>> invokerClasses =
+         new ConcurrentWeakKeyHashMap<Class<?>, ConcurrentMap<String, WeakReference<Class<?>>>>();
+
+   // class file constants
+   private static final int MAGIC = 0xCAFEBABE;
+   private static final int CLASS_FILE_VERSION = 49;
+   private static final int CONSTANT_UTF8 = 1;
+   private static final int CONSTANT_CLASS = 7;
+   private static final int CONSTANT_METHODREF = 10;
+   private static final int CONSTANT_INTERFACE_METHODREF = 11;
+   private static final int CONSTANT_NAME_AND_TYPE = 12;
+   private static final int ACC_PUBLIC = 0x0001;
+   private static final int ACC_FINAL = 0x0010;
+   private static final int ACC_SUPER = 0x0020;
+   private static final int ALOAD_0 = 0x2a;
+   private static final int ALOAD_1 = 0x2b;
+   private static final int ALOAD_2 = 0x2c;
+   private static final int CHECKCAST = 0xc0;
+   private static final int INVOKEVIRTUAL = 0xb6;
+   private static final int INVOKESPECIAL = 0xb7;
+   private static final int INVOKEINTERFACE = 0xb9;
+   private static final int RETURN = 0xb1;
+
+   // constant pool indexes, see writeConstantPool
+   private static final int THIS_CLASS = 2;
+   private static final int SUPER_CLASS = 4;
+   private static final int INIT_NAME = 5;
+   private static final int VOID_DESCRIPTOR = 6;
+   private static final int SUPER_INIT = 8;
+   private static final int TARGET_CLASS = 10;
+   private static final int EVENT_CLASS = 12;
+   private static final int LISTENER_METHOD = 16;
+   private static final int DO_INVOKE_NAME = 17;
+   private static final int DO_INVOKE_DESCRIPTOR = 18;
+   private static final int CODE = 19;
+   private static final int CONSTANT_POOL_COUNT = 20;
+
+   private ListenerInvokerFactory() {
+   }
+
+   /**
+    * Returns an invoker for the given listener method, which must be an instance method accepting a single parameter.
+    */
+   public static ListenerInvoker create(Method method) {
+      if (canGenerate(method)) {
+         try {
+            return (ListenerInvoker) getInvokerClass(method).newInstance();
+         } catch (Exception e) {
+            if (log.isTraceEnabled()) log.tracef(e, "Unable to generate an invoker for listener method %s", method);
+         } catch (LinkageError e) {
+            if (log.isTraceEnabled()) log.tracef(e, "Unable to generate an invoker for listener method %s", method);
+         }
+      }
+      return new ReflectionListenerInvoker(method);
+   }
+
+   private static boolean canGenerate(Method method) {
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      int modifiers = method.getModifiers();
+      return parameterTypes.length == 1
+            && Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+            && isPublicType(method.getDeclaringClass()) && isPublicType(parameterTypes[0]);
+   }
+
+   private static boolean isPublicType(Class<?> type) {
+      return !type.isPrimitive() && !type.isArray() && Modifier.isPublic(type.getModifiers());
+   }
+
+   static Class<?> getInvokerClass(Method method) throws IOException {
+      Class<?> targetType = method.getDeclaringClass();
+      ConcurrentMap<String, WeakReference<Class<?>>> classes = invokerClasses.get(targetType);
+      if (classes == null) {
+         classes = new ConcurrentHashMap<String, WeakReference<Class<?>>>(4);
+         ConcurrentMap<String, WeakReference<Class<?>>> existing = invokerClasses.putIfAbsent(targetType, classes);
+         if (existing != null) {
+            classes = existing;
+         }
+      }
+      String signature = method.toString();
+      WeakReference<Class<?>> ref = classes.get(signature);
+      Class<?> invokerClass = ref != null ? ref.get() : null;
+      if (invokerClass == null) {
+         // two threads may generate the same invoker concurrently, but the classes are equivalent
+         invokerClass = generate(method);
+         classes.put(signature, new WeakReference<Class<?>>(invokerClass));
+      }
+      return invokerClass;
+   }
+
+   private static Class<?> generate(Method method) throws IOException {
+      String className = GENERATED_CLASS_PREFIX + counter.incrementAndGet();
+      Class<?> targetType = method.getDeclaringClass();
+      Class<?> eventType = method.getParameterTypes()[0];
+      InvokerClassLoader classLoader = new InvokerClassLoader(targetType.getClassLoader());
+      classLoader.expose(GeneratedListenerInvoker.class);
+      classLoader.expose(targetType);
+      classLoader.expose(eventType);
+      byte[] bytes = generateClassFile(className, method);
+      return classLoader.define(className, bytes);
+   }
+
+   static byte[] generateClassFile(String className, Method method) throws IOException {
+      Class<?> targetType = method.getDeclaringClass();
+      Class<?> eventType = method.getParameterTypes()[0];
+      boolean isInterface = targetType.isInterface();
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeShort(0);
+      out.writeShort(CLASS_FILE_VERSION);
+
+      out.writeShort(CONSTANT_POOL_COUNT);
+      writeUtf8(out, internalName(className));                                      // 1
+      writeClass(out, 1);                                                           // 2
+      writeUtf8(out, internalName(GeneratedListenerInvoker.class.getName()));       // 3
+      writeClass(out, 3);                                                           // 4
+      writeUtf8(out, "<init>");                                                     // 5
+      writeUtf8(out, "()V");                                                        // 6
+      writeNameAndType(out, INIT_NAME, VOID_DESCRIPTOR);                            // 7
+      writeMethodRef(out, CONSTANT_METHODREF, SUPER_CLASS, 7);                      // 8
+      writeUtf8(out, internalName(targetType.getName()));                           // 9
+      writeClass(out, 9);                                                           // 10
+      writeUtf8(out, internalName(eventType.getName()));                            // 11
+      writeClass(out, 11);                                                          // 12
+      writeUtf8(out, method.getName());                                             // 13
+      writeUtf8(out, "(L" + internalName(eventType.getName()) + ";)V");             // 14
+      writeNameAndType(out, 13, 14);                                                // 15
+      writeMethodRef(out, isInterface ? CONSTANT_INTERFACE_METHODREF : CONSTANT_METHODREF,
+                     TARGET_CLASS, 15);                                             // 16
+      writeUtf8(out, "doInvoke");                                                   // 17
+      writeUtf8(out, "(" + OBJECT_DESCRIPTOR + OBJECT_DESCRIPTOR + ")V");           // 18
+      writeUtf8(out, "Code");                                                       // 19
+
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(THIS_CLASS);
+      out.writeShort(SUPER_CLASS);
+      out.writeShort(0); // interfaces
+      out.writeShort(0); // fields
+      out.writeShort(2); // methods
+
+      // public <init>() { super(); }
+      writeMethod(out, INIT_NAME, VOID_DESCRIPTOR, 1, 1, new byte[] {
+            (byte) ALOAD_0,
+            (byte) INVOKESPECIAL, 0, SUPER_INIT,
+            (byte) RETURN
+      });
+
+      // public void doInvoke(Object target, Object event) { ((TargetType) target).method((EventType) event); }
+      byte[] invoke = isInterface
+            ? new byte[] {(byte) INVOKEINTERFACE, 0, LISTENER_METHOD, 2, 0}
+            : new byte[] {(byte) INVOKEVIRTUAL, 0, LISTENER_METHOD};
+      ByteArrayOutputStream code = new ByteArrayOutputStream(16);
+      code.write(new byte[] {
+            (byte) ALOAD_1,
+            (byte) CHECKCAST, 0, TARGET_CLASS,
+            (byte) ALOAD_2,
+            (byte) CHECKCAST, 0, EVENT_CLASS
+      });
+      code.write(invoke);
+      code.write(RETURN);
+      writeMethod(out, DO_INVOKE_NAME, DO_INVOKE_DESCRIPTOR, 2, 3, code.toByteArray());
+
+      out.writeShort(0); // attributes
+      out.flush();
+      return bytes.toByteArray();
+   }
+
+   private static String internalName(String className) {
+      return className.replace('.', '/');
+   }
+
+   private static void writeUtf8(DataOutputStream out, String value) throws IOException {
+      out.writeByte(CONSTANT_UTF8);
+      out.writeUTF(value);
+   }
+
+   private static void writeClass(DataOutputStream out, int nameIndex) throws IOException {
+      out.writeByte(CONSTANT_CLASS);
+      out.writeShort(nameIndex);
+   }
+
+   private static void writeNameAndType(DataOutputStream out, int nameIndex, int descriptorIndex) throws IOException {
+      out.writeByte(CONSTANT_NAME_AND_TYPE);
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+   }
+
+   private static void writeMethodRef(DataOutputStream out, int tag, int classIndex, int nameAndTypeIndex) throws IOException {
+      out.writeByte(tag);
+      out.writeShort(classIndex);
+      out.writeShort(nameAndTypeIndex);
+   }
+
+   private static void writeMethod(DataOutputStream out, int nameIndex, int descriptorIndex, int maxStack,
+                                   int maxLocals, byte[] code) throws IOException {
+      out.writeShort(ACC_PUBLIC);
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+      out.writeShort(1); // attributes
+      out.writeShort(CODE);
+      out.writeInt(12 + code.length);
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(code.length);
+      out.write(code);
+      out.writeShort(0); // exception table
+      out.writeShort(0); // attributes
+   }
+
+   /**
+    * Class loader defining a single invoker class.  The types referenced by the invoker are resolved to the exact classes
+    * of the listener method, whatever class loader they come from.
+    */
+   private static class InvokerClassLoader extends ClassLoader {
+      private final Map<String, Class<?>> exposed = new HashMap<String, Class<?>>(4);
+
+      InvokerClassLoader(ClassLoader parent) {
+         super(parent);
+      }
+
+      void expose(Class<?> type) {
+         exposed.put(type.getName(), type);
+      }
+
+      Class<?> define(String name, byte[] bytes) {
+         return defineClass(name, bytes, 0, bytes.length);
+      }
+
+      @Override
+      protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+         Class<?> type = exposed.get(name);
+         return type != null ? type : super.loadClass(name, resolve);
+      }
+   }
+}
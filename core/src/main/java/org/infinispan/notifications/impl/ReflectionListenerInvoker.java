@@ -0,0 +1,29 @@
+package org.infinispan.notifications.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * {@link ListenerInvoker} calling the listener method through reflection.  Used when no invoker class can be
+ * generated for the method.
+ *
+ * @since 7.0
+ */
+public class ReflectionListenerInvoker implements ListenerInvoker {
+
+   private final Method method;
+
+   public ReflectionListenerInvoker(Method method) {
+      this.method = method;
+   }
+
+   @Override
+   public void invoke(Object target, Object event) throws InvocationTargetException, IllegalAccessException {
+      method.invoke(target, event);
+   }
+
+   @Override
+   public String toString() {
+      return "ReflectionListenerInvoker{method=" + method + '}';
+   }
+}
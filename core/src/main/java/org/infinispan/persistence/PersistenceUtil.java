@@ -1,12 +1,18 @@
 package org.infinispan.persistence;
 
+import org.infinispan.Cache;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.metadata.InternalMetadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
+import org.infinispan.persistence.spi.CacheWriter;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -14,6 +20,7 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -76,4 +83,56 @@ public static InternalMetadata internalMetadata(InternalCacheEntry ice) {
    public static InternalMetadata internalMetadata(InternalCacheValue icv) {
       return icv.getMetadata() == null ? null : new InternalMetadataImpl(icv.getMetadata(), icv.getCreated(), icv.getLastUsed());
    }
+
+   /**
+    * Writes the entries using {@link BatchingCacheWriter#writeBatch(Iterable)} if the writer supports it, or one at a
+    * time otherwise.
+    */
+   public static void writeBatch(CacheWriter writer, Iterable<MarshalledEntry> entries) {
+      if (writer instanceof BatchingCacheWriter) {
+         ((BatchingCacheWriter) writer).writeBatch(entries);
+      } else {
+         for (MarshalledEntry entry : entries)
+            writer.write(entry);
+      }
+   }
+
+   /**
+    * Deletes the keys using {@link BatchingCacheWriter#deleteBatch(Iterable)} if the writer supports it, or one at a
+    * time otherwise.
+    */
+   public static void deleteBatch(CacheWriter writer, Iterable<Object> keys) {
+      if (writer instanceof BatchingCacheWriter) {
+         ((BatchingCacheWriter) writer).deleteBatch(keys);
+      } else {
+         for (Object key : keys)
+            writer.delete(key);
+      }
+   }
+
+   /**
+    * Returns the consistent hash mapping the keys of the cache to segments, or {@code null} if the cache doesn't have
+    * one, e.g. because it is local or it didn't join the cluster yet.
+    */
+   public static ConsistentHash getReadConsistentHash(Cache<?, ?> cache) {
+      StateTransferManager stateTransferManager = cache.getAdvancedCache().getComponentRegistry()
+            .getComponent(StateTransferManager.class);
+      if (stateTransferManager == null)
+         return null;
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      return cacheTopology == null ? null : cacheTopology.getReadConsistentHash();
+   }
+
+   /**
+    * Processes the entries of the given segments, by adding a {@link SegmentKeyFilter} to the given filter. The loader
+    * still goes through all its keys; whether the values of the other segments are read depends on the loader applying
+    * the filter before reading them.
+    */
+   public static void processSegments(AdvancedCacheLoader acl, ConsistentHash consistentHash, Set<Integer> segments,
+                                      AdvancedCacheLoader.KeyFilter filter, AdvancedCacheLoader.CacheLoaderTask task,
+                                      Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      AdvancedCacheLoader.KeyFilter segmentFilter = new SegmentKeyFilter(consistentHash, segments);
+      acl.process(filter == null ? segmentFilter : new CompositeFilter(segmentFilter, filter), task, executor,
+                  fetchValue, fetchMetadata);
+   }
 }
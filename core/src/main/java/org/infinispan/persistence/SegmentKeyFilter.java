@@ -0,0 +1,28 @@
+package org.infinispan.persistence;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+
+import java.util.Set;
+
+/**
+ * Filter accepting the keys that map to one of the supplied segments. If there is no consistent hash all the keys are
+ * in segment 0.
+ *
+ * @since 7.0
+ */
+public class SegmentKeyFilter implements AdvancedCacheLoader.KeyFilter {
+
+   private final ConsistentHash consistentHash;
+   private final Set<Integer> segments;
+
+   public SegmentKeyFilter(ConsistentHash consistentHash, Set<Integer> segments) {
+      this.consistentHash = consistentHash;
+      this.segments = segments;
+   }
+
+   @Override
+   public boolean shouldLoadKey(Object key) {
+      return segments.contains(consistentHash == null ? 0 : consistentHash.getSegment(key));
+   }
+}
@@ -5,8 +5,10 @@
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.modifications.Modification;
+import org.infinispan.persistence.modifications.ModificationsList;
 import org.infinispan.persistence.modifications.Remove;
 import org.infinispan.persistence.modifications.Store;
 import org.infinispan.commons.util.CollectionFactory;
@@ -147,19 +149,49 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         mods.add(new Store(entry.getKey(), entry));
+      }
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object key : keys)
+         mods.add(new Remove(key));
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
+   /**
+    * Applies the modifications to the underlying store, using a single write batch and a single delete batch if the
+    * store supports them. Modifications of one state are coalesced per key, so their relative order doesn't matter.
+    */
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      List<MarshalledEntry> stores = new ArrayList<MarshalledEntry>(mods.size());
+      List<Object> removes = new ArrayList<Object>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               stores.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               removes.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!stores.isEmpty())
+         PersistenceUtil.writeBatch(actual, stores);
+      if (!removes.isEmpty())
+         PersistenceUtil.deleteBatch(actual, removes);
    }
 
 
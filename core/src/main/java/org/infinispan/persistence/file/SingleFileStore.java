@@ -11,8 +11,10 @@
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.SegmentKeyFilter;
 import org.infinispan.persistence.TaskContextImpl;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.logging.Log;
@@ -67,7 +69,7 @@
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore implements AdvancedLoadWriteStore {
+public class SingleFileStore implements SegmentedAdvancedLoadWriteStore, BatchingCacheWriter {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -274,55 +276,85 @@ private void free(FileEntry fe) throws IOException {
 
    @Override
    public void write(MarshalledEntry marshalledEntry) {
+      resizeLock.readLock().lock();
       try {
-         // serialize cache value
-         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
-         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
-         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
-
-         // allocate file entry and store in cache file
-         int metadataLength = metadata == null ? 0 : metadata.getLength();
-         int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
-         FileEntry fe = null;
-         resizeLock.readLock().lock();
-         try {
-            fe = allocate(len);
-            long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
-            fe = new FileEntry(fe, key.getLength(), data.getLength(), metadataLength, expiryTime);
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(fe.size);
-            buf.putInt(fe.keyLen);
-            buf.putInt(fe.dataLen);
-            buf.putInt(fe.metadataLen);
-            buf.putLong(fe.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, fe.offset);
-            if (trace) log.tracef("Wrote entry %s at %d:%d", marshalledEntry.getKey(), fe.offset, len);
-
-            // add the new entry to in-memory index
-            fe = entries.put(marshalledEntry.getKey(), fe);
-
-            // if we added an entry, check if we need to evict something
-            if (fe == null)
-               fe = evict();
-         } finally {
-            // in case we replaced or evicted an entry, add to freeList
-            try {
-               free(fe);
-            } finally {
-               resizeLock.readLock().unlock();
-            }
+         writeEntry(marshalledEntry, null);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Writes all the entries while holding the {@code resizeLock} only once, reusing the same buffer for all of them.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      resizeLock.readLock().lock();
+      try {
+         ByteBuffer buf = null;
+         for (Object entry : entries) {
+            buf = writeEntry((MarshalledEntry) entry, buf);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
       }
    }
 
+   /**
+    * Stores the entry in the cache file and updates the in-memory index.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    *
+    * @param buf a buffer that may be reused for serializing the entry, or null
+    * @return the buffer used for serializing the entry
+    */
+   private ByteBuffer writeEntry(MarshalledEntry marshalledEntry, ByteBuffer buf) throws IOException {
+      // serialize cache value
+      org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+
+      // allocate file entry and store in cache file
+      int metadataLength = metadata == null ? 0 : metadata.getLength();
+      int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+      FileEntry fe = allocate(len);
+      try {
+         long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+         fe = new FileEntry(fe, key.getLength(), data.getLength(), metadataLength, expiryTime);
+
+         if (buf == null || buf.capacity() < len)
+            buf = ByteBuffer.allocate(len);
+         buf.clear();
+         buf.putInt(fe.size);
+         buf.putInt(fe.keyLen);
+         buf.putInt(fe.dataLen);
+         buf.putInt(fe.metadataLen);
+         buf.putLong(fe.expiryTime);
+         buf.put(key.getBuf(), key.getOffset(), key.getLength());
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+         buf.flip();
+         channel.write(buf, fe.offset);
+         if (trace) log.tracef("Wrote entry %s at %d:%d", marshalledEntry.getKey(), fe.offset, len);
+
+         // add the new entry to in-memory index
+         fe = entries.put(marshalledEntry.getKey(), fe);
+
+         // if we added an entry, check if we need to evict something
+         if (fe == null)
+            fe = evict();
+      } finally {
+         // in case we replaced or evicted an entry, add to freeList
+         free(fe);
+      }
+      return buf;
+   }
+
    /**
     * Try to evict an entry if the capacity of the cache store is reached.
     *
@@ -386,6 +418,20 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      resizeLock.readLock().lock();
+      try {
+         for (Object key : keys) {
+            free(entries.remove(key));
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key) {
       return _load(key, true, true);
@@ -493,6 +539,32 @@ public Void call() throws Exception {
       }
    }
 
+   @Override
+   public void clear(Set segments) {
+      // the keys are not partitioned by segment, so this goes through all the keys of the in-memory index
+      KeyFilter segmentFilter = new SegmentKeyFilter(PersistenceUtil.getReadConsistentHash(ctx.getCache()), segments);
+      resizeLock.readLock().lock();
+      try {
+         List<FileEntry> entriesToFree = new ArrayList<FileEntry>();
+         synchronized (entries) {
+            for (Iterator<Map.Entry<Object, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+               Map.Entry<Object, FileEntry> next = it.next();
+               if (segmentFilter.shouldLoadKey(next.getKey())) {
+                  it.remove();
+                  entriesToFree.add(next.getValue());
+               }
+            }
+         }
+         for (FileEntry fe : entriesToFree) {
+            free(fe);
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
 
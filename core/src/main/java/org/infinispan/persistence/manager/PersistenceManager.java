@@ -4,6 +4,7 @@
 import java.util.Set;
 
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.lifecycle.Lifecycle;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -54,6 +55,40 @@ public interface PersistenceManager extends Lifecycle {
 
    void writeToAllStores(MarshalledEntry marshalledEntry, boolean skipSharedStores);
 
+   /**
+    * Writes all the entries to every store, using a single batch for the stores that implement
+    * {@link org.infinispan.persistence.spi.BatchingCacheWriter}.
+    *
+    * @since 7.0
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, boolean skipSharedStores);
+
+   /**
+    * Deletes all the keys from every store, using a single batch for the stores that implement
+    * {@link org.infinispan.persistence.spi.BatchingCacheWriter}.
+    *
+    * @since 7.0
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, boolean skipSharedStores);
+
+   /**
+    * Processes the entries of the given segments of every store, filtering the keys of all their entries with the
+    * consistent hash.
+    *
+    * @since 7.0
+    */
+   void processOnAllStores(Set<Integer> segments, ConsistentHash consistentHash, AdvancedCacheLoader.KeyFilter keyFilter,
+                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata,
+                           boolean skipSharedStore);
+
+   /**
+    * Removes the entries of the given segments from the stores that implement
+    * {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore}. The other stores are not modified.
+    *
+    * @since 7.0
+    */
+   void clearSegmentsFromAllStores(Set<Integer> segments, boolean skipSharedStores);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
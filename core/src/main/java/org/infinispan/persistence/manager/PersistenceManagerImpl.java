@@ -13,6 +13,8 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -21,12 +23,18 @@
 import org.infinispan.interceptors.CacheWriterInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -38,12 +46,12 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
 import org.infinispan.util.TimeService;
-import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -55,6 +63,7 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -64,6 +73,7 @@
 import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 
+@MBean(objectName = "PersistenceManager", description = "Component that manages the cache loaders and writers")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -89,6 +99,11 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
 
+   private final AtomicLong preloadedEntries = new AtomicLong(0);
+   private volatile boolean preloading;
+   private volatile long preloadStart;
+   private volatile long preloadEnd;
+
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
                       Configuration configuration, TransactionManager transactionManager,
@@ -208,25 +223,63 @@ public void preload() {
       if (preloadCl == null)
          return;
 
-      long start = timeService.time();
+      preloadedEntries.set(0);
+      preloadStart = timeService.time();
+      preloading = true;
+      try {
+         final int maxEntries = getMaxEntries();
+         final AtomicInteger loadedEntries = new AtomicInteger(0);
+         final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
+         // the stores split the iteration in batches submitted to the persistence executor, so the entries are
+         // unmarshalled and inserted in the data container by several threads
+         preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+               if (loadedEntries.getAndIncrement() >= maxEntries) {
+                  taskContext.stop();
+                  return;
+               }
+               Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
+               preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
+               preloadedEntries.incrementAndGet();
+            }
+         }, persistenceExecutor, true, true);
+      } finally {
+         preloadEnd = timeService.time();
+         preloading = false;
+      }
 
+      log.debugf("Preloaded %s keys in %s", preloadedEntries.get(), Util.prettyPrintTime(getPreloadTime()));
+   }
 
-      final int maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
-         @Override
-         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
-               taskContext.stop();
-               return;
-            }
-            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
-            preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-         }
-      }, new WithinThreadExecutor(), true, true);
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the cache stores so far",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Whether the cache is being preloaded from the cache stores",
+         displayName = "Preload in progress",
+         dataType = DataType.TRAIT
+   )
+   public boolean isPreloading() {
+      return preloading;
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   @ManagedAttribute(
+         description = "Time spent preloading the cache from the cache stores, up to now if the preload is in progress",
+         displayName = "Preload time",
+         units = Units.MILLISECONDS
+   )
+   public long getPreloadTime() {
+      long start = preloadStart;
+      if (start == 0)
+         return 0;
+      return timeService.timeDuration(start, preloading ? timeService.time() : preloadEnd, MILLISECONDS);
    }
 
    @Override
@@ -473,6 +526,70 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, boolean skipShared
       }
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, boolean skipSharedStores) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (skipSharedStores && configMap.get(w).shared())
+               continue;
+            PersistenceUtil.writeBatch(w, marshalledEntries);
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, boolean skipSharedStores) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (skipSharedStores && configMap.get(w).shared())
+               continue;
+            PersistenceUtil.deleteBatch(w, keys);
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void processOnAllStores(Set<Integer> segments, ConsistentHash consistentHash, AdvancedCacheLoader.KeyFilter keyFilter,
+                                  AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata,
+                                  boolean skipSharedStore) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (skipSharedStore && configMap.get(loader).shared())
+               continue;
+
+            if (loader instanceof AdvancedCacheLoader) {
+               PersistenceUtil.processSegments((AdvancedCacheLoader) loader, consistentHash, segments, keyFilter, task,
+                                               persistenceExecutor, fetchValue, fetchMetadata);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void clearSegmentsFromAllStores(Set<Integer> segments, boolean skipSharedStores) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (w instanceof SegmentedAdvancedLoadWriteStore) {
+               if (skipSharedStores && configMap.get(w).shared())
+                  continue;
+               ((SegmentedAdvancedLoadWriteStore) w).clear(segments);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -616,7 +733,9 @@ private boolean localIndexingEnabled() {
 
    private int getMaxEntries() {
       int ne = Integer.MAX_VALUE;
-      if (configuration.eviction().strategy().isEnabled()) ne = configuration.eviction().maxEntries();
+      // a memory bounded container evicts whatever doesn't fit while preloading
+      if (configuration.eviction().strategy().isEnabled() && configuration.eviction().type() == EvictionType.COUNT)
+         ne = configuration.eviction().maxEntries();
       return ne;
    }
 
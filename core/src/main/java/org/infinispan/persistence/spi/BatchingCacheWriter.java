@@ -0,0 +1,33 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * Optional extension of {@link CacheWriter} for stores that can apply several modifications more efficiently than one
+ * at a time, e.g. by using a single JDBC batch or a single storage-level write batch. The
+ * {@link org.infinispan.persistence.manager.PersistenceManager} and the async write-behind store use these methods
+ * whenever several modifications are flushed together; stores that don't implement this interface are written
+ * entry by entry.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public interface BatchingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists all the given entries to the storage. The entries have distinct keys.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @see #write(org.infinispan.marshall.core.MarshalledEntry)
+    */
+   void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries);
+
+   /**
+    * Removes the entries with the given keys from the storage. Keys that are not present are ignored.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @see #delete(Object)
+    */
+   void deleteBatch(Iterable<Object> keys);
+}
@@ -0,0 +1,26 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Set;
+
+/**
+ * Optional extension of {@link AdvancedLoadWriteStore} for stores that can remove the entries of a set of segments.
+ * The segments are the ones of the cache's consistent hash, as returned by
+ * {@link org.infinispan.persistence.PersistenceUtil#getReadConsistentHash(org.infinispan.Cache)}; in caches without a
+ * consistent hash all the keys are in segment 0. State transfer uses it to remove the segments that are no longer
+ * owned by the local node from its non-shared stores. The stores that don't implement this interface keep the entries
+ * of those segments.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public interface SegmentedAdvancedLoadWriteStore<K, V> extends AdvancedLoadWriteStore<K, V> {
+
+   /**
+    * Removes all the entries that map to one of the given segments.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void clear(Set<Integer> segments);
+}
@@ -5,12 +5,15 @@
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.factories.annotations.Inject;
 
+import java.util.List;
+
 /**
  * A response generator for the DIST cache mode
  *
@@ -32,6 +35,15 @@ public Response getResponse(CacheRpcCommand command, Object returnValue) {
          if (returnValue == null && distributionManager.isAffectedByRehash(clusteredGet.getKey()))
             return UnsureResponse.INSTANCE;
          return SuccessfulResponse.create(returnValue);
+      } else if (command.getCommandId() == ClusteredGetAllCommand.COMMAND_ID) {
+         ClusteredGetAllCommand clusteredGetAll = (ClusteredGetAllCommand) command;
+         List<?> values = (List<?>) returnValue;
+         List<?> keys = clusteredGetAll.getKeys();
+         for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) == null && distributionManager.isAffectedByRehash(keys.get(i)))
+               return UnsureResponse.INSTANCE;
+         }
+         return SuccessfulResponse.create(returnValue);
       } else if (command instanceof SingleRpcCommand) {
          SingleRpcCommand src = (SingleRpcCommand) command;
          ReplicableCommand c = src.getCommand();
@@ -5,6 +5,7 @@
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.Transport;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 
 import java.util.Collection;
@@ -216,8 +217,24 @@ void invokeRemotelyInFuture(Collection<Address> recipients, ReplicableCommand rp
 
    /**
     * The same as {@link #invokeRemotely(java.util.Collection, org.infinispan.commands.ReplicableCommand, RpcOptions)}
-    * except that the task is passed to the transport executor and a Future is returned.  The transport always deals
-    * with this synchronously.
+    * except that no thread waits for the responses: the returned future is completed by the transport thread receiving
+    * them, so the listeners attached to it must not block.
+    *
+    * @param recipients recipients to invoke remote call on. If this is {@code null}, the call is broadcast to the
+    *                   entire cluster.
+    * @param rpc        command to execute remotely.
+    * @param options    it configures the invocation, like in {@link #invokeRemotely(java.util.Collection,
+    *                   org.infinispan.commands.ReplicableCommand, RpcOptions)}.
+    * @return a future of the map of responses from each member contacted. It is completed with {@code null} if the
+    *         command was added to the replication queue.
+    */
+   NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc,
+                                                               RpcOptions options);
+
+   /**
+    * The same as {@link #invokeRemotely(java.util.Collection, org.infinispan.commands.ReplicableCommand, RpcOptions)}
+    * except that a Future is returned. The future is completed by the transport thread receiving the responses, as
+    * with {@link #invokeRemotelyAsync(java.util.Collection, org.infinispan.commands.ReplicableCommand, RpcOptions)}.
     *
     * @param recipients recipients to invoke remote call on. If this is {@code null}, the call is broadcast to the
     *                   entire cluster.
@@ -1,13 +1,12 @@
 package org.infinispan.remoting.rpc;
 
-import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
-
 import java.text.NumberFormat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -17,9 +16,11 @@
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.configuration.cache.Configuration;
-import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.jmx.annotations.DataType;
@@ -67,7 +68,6 @@ public class RpcManagerImpl implements RpcManager {
    private boolean statisticsEnabled = false; // by default, don't gather statistics.
    private Configuration configuration;
    private ReplicationQueue replicationQueue;
-   private ExecutorService asyncExecutor;
    private CommandsFactory cf;
    private LocalTopologyManager localTopologyManager;
    private StateTransferManager stateTransferManager;
@@ -77,14 +77,12 @@ public class RpcManagerImpl implements RpcManager {
    @Inject
    public void injectDependencies(Transport t, Cache cache, Configuration cfg,
                                   ReplicationQueue replicationQueue, CommandsFactory cf,
-                                  @ComponentName(ASYNC_TRANSPORT_EXECUTOR) ExecutorService e,
                                   LocalTopologyManager localTopologyManager,
                                   StateTransferManager stateTransferManager, TimeService timeService) {
       this.t = t;
       this.cacheName = cache.getName();
       this.configuration = cfg;
       this.replicationQueue = replicationQueue;
-      this.asyncExecutor = e;
       this.cf = cf;
       this.localTopologyManager = localTopologyManager;
       this.stateTransferManager = stateTransferManager;
@@ -206,24 +204,10 @@ public final void invokeRemotelyInFuture(final Collection<Address> recipients, f
    public void invokeRemotelyInFuture(final Collection<Address> recipients, final ReplicableCommand rpc,
                                       final boolean usePriorityQueue, final NotifyingNotifiableFuture<Object> future,
                                       final long timeout, final boolean ignoreLeavers) {
-      if (trace) log.tracef("%s invoking in future call %s to recipient list %s", t.getAddress(), rpc, recipients);
       final ResponseMode responseMode = ignoreLeavers ? ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS : ResponseMode.SYNCHRONOUS;
-      Callable<Object> c = new Callable<Object>() {
-         @Override
-         public Object call() throws Exception {
-            Object result = null;
-            try {
-               result = invokeRemotely(recipients, rpc, true, usePriorityQueue, timeout, responseMode);
-               future.notifyDone(result);
-               return result;
-            } catch (RuntimeException e) {
-               future.notifyException(e);
-               throw e;
-            }
-         }
-      };
-      // NotifyingNotifiableFuture must be internally synchronized
-      future.setFuture(asyncExecutor.submit(c));
+      RpcOptions options = getRpcOptionsBuilder(responseMode, !usePriorityQueue)
+            .timeout(timeout, TimeUnit.MILLISECONDS).build();
+      invokeRemotelyInFuture(recipients, rpc, options, future);
    }
 
    @Override
@@ -239,22 +223,7 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
          replicationQueue.add(rpc);
          return null;
       }
-      if (!configuration.clustering().cacheMode().isClustered())
-         throw new IllegalStateException("Trying to invoke a remote command but the cache is not clustered");
-
-      // Set the topology id of the command, in case we don't have it yet
-      if (rpc instanceof TopologyAffectedCommand) {
-         TopologyAffectedCommand topologyAffectedCommand = (TopologyAffectedCommand) rpc;
-         if (topologyAffectedCommand.getTopologyId() == -1) {
-            int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
-            if (trace) log.tracef("Topology id missing on command %s, setting it to %d", rpc, currentTopologyId);
-            topologyAffectedCommand.setTopologyId(currentTopologyId);
-         }
-      }
-
-      if (!(rpc instanceof CacheRpcCommand)) {
-         rpc = cf.buildSingleRpcCommand(rpc);
-      }
+      rpc = prepareCommand(rpc);
 
       long startTimeNanos = 0;
       if (statisticsEnabled) startTimeNanos = timeService.time();
@@ -299,26 +268,117 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
       }
    }
 
+   /**
+    * Sets the topology id of the command, if missing, and wraps it in a {@link CacheRpcCommand}.
+    */
+   private ReplicableCommand prepareCommand(ReplicableCommand rpc) {
+      if (!configuration.clustering().cacheMode().isClustered())
+         throw new IllegalStateException("Trying to invoke a remote command but the cache is not clustered");
+
+      // Set the topology id of the command, in case we don't have it yet
+      if (rpc instanceof TopologyAffectedCommand) {
+         TopologyAffectedCommand topologyAffectedCommand = (TopologyAffectedCommand) rpc;
+         if (topologyAffectedCommand.getTopologyId() == -1) {
+            int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
+            if (trace) log.tracef("Topology id missing on command %s, setting it to %d", rpc, currentTopologyId);
+            topologyAffectedCommand.setTopologyId(currentTopologyId);
+         }
+      }
+
+      if (!(rpc instanceof CacheRpcCommand)) {
+         rpc = cf.buildSingleRpcCommand(rpc);
+      }
+      return rpc;
+   }
+
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc,
+                                                                      RpcOptions options) {
+      if (trace) log.tracef("%s invoking %s to recipient list %s with options %s without waiting", t.getAddress(), rpc,
+                            recipients, options);
+
+      if (!options.skipReplicationQueue() && useReplicationQueue(options.responseMode().isSynchronous())) {
+         if (trace) {
+            log.tracef("Using replication queue for command [%s]", rpc);
+         }
+         replicationQueue.add(rpc);
+         return CompletableNotifyingFuture.completed(null);
+      }
+      final ReplicableCommand command;
+      try {
+         command = prepareCommand(rpc);
+      } catch (RuntimeException e) {
+         return CompletableNotifyingFuture.failed(e);
+      }
+
+      final long startTimeNanos = statisticsEnabled ? timeService.time() : 0;
+      final CompletableNotifyingFuture<Map<Address, Response>> result = new CompletableNotifyingFuture<Map<Address, Response>>();
+      NotifyingFuture<Map<Address, Response>> responses = t.invokeRemotelyAsync(recipients, command, options.responseMode(),
+            options.timeUnit().toMillis(options.timeout()), !options.fifoOrder(), options.responseFilter(),
+            options.totalOrder(), configuration.clustering().cacheMode().isDistributed());
+      result.dependsOn(responses);
+      responses.attachListener(new FutureListener<Map<Address, Response>>() {
+         @Override
+         public void futureDone(Future<Map<Address, Response>> future) {
+            try {
+               Map<Address, Response> rsps = future.get();
+               if (statisticsEnabled) replicationCount.incrementAndGet();
+               if (trace) log.tracef("Response(s) to %s is %s", command, rsps);
+               result.notifyDone(rsps);
+            } catch (CancellationException e) {
+               // the result has been cancelled first
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+               Throwable cause = e.getCause();
+               if (statisticsEnabled) replicationFailures.incrementAndGet();
+               if (cause instanceof CacheException) {
+                  log.trace("replication exception: ", cause);
+                  result.notifyException(cause);
+               } else {
+                  log.unexpectedErrorReplicating(cause);
+                  result.notifyException(new CacheException(cause));
+               }
+            } finally {
+               if (statisticsEnabled) {
+                  long timeTaken = timeService.timeDuration(startTimeNanos, TimeUnit.MILLISECONDS);
+                  totalReplicationTime.getAndAdd(timeTaken);
+               }
+            }
+         }
+      });
+      return result;
+   }
+
    @Override
    public void invokeRemotelyInFuture(final Collection<Address> recipients, final ReplicableCommand rpc,
                                       final RpcOptions options, final NotifyingNotifiableFuture<Object> future) {
       if (trace) log.tracef("%s invoking in future call %s to recipient list %s with options %s", t.getAddress(),
                             rpc, recipients, options);
-      Callable<Object> c = new Callable<Object>() {
+      // The future passed by the caller only returns its result once the future it wraps is done, so the latter is
+      // completed after notifying the former
+      final CompletableNotifyingFuture<Object> done = new CompletableNotifyingFuture<Object>();
+      // NotifyingNotifiableFuture must be internally synchronized
+      future.setFuture(done);
+      NotifyingFuture<Map<Address, Response>> responses = invokeRemotelyAsync(recipients, rpc, options);
+      done.dependsOn(responses);
+      responses.attachListener(new FutureListener<Map<Address, Response>>() {
          @Override
-         public Object call() throws Exception {
-            Object result = null;
+         public void futureDone(Future<Map<Address, Response>> f) {
             try {
-               result = invokeRemotely(recipients, rpc, options);
+               Object result = f.get();
                future.notifyDone(result);
-               return result;
-            } catch (RuntimeException e) {
-               future.notifyException(e);
-               throw e;
+               done.notifyDone(result);
+            } catch (CancellationException e) {
+               // the caller's future has been cancelled
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+               future.notifyException(e.getCause());
+               done.notifyException(e.getCause());
             }
          }
-      };
-      future.setFuture(asyncExecutor.submit(c));
+      });
    }
 
    @Override
@@ -1,14 +1,20 @@
 package org.infinispan.remoting.transport;
 
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.ResponseFilter;
+import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -27,6 +33,22 @@ public void setConfiguration(GlobalConfiguration globalConfiguration) {
       this.configuration = globalConfiguration;
    }
 
+   /**
+    * Invokes the command synchronously, for the transports that cannot send it without waiting for the responses.
+    */
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                                      ResponseMode mode, long timeout, boolean usePriorityQueue,
+                                                                      ResponseFilter responseFilter, boolean totalOrder,
+                                                                      boolean anycast) {
+      try {
+         return CompletableNotifyingFuture.completed(invokeRemotely(recipients, rpcCommand, mode, timeout, usePriorityQueue,
+                                                                    responseFilter, totalOrder, anycast));
+      } catch (Exception e) {
+         return CompletableNotifyingFuture.failed(e);
+      }
+   }
+
    public final boolean checkResponse(Object responseObject, Address sender) throws Exception {
       Log log = getLog();
       if (responseObject instanceof Response) {
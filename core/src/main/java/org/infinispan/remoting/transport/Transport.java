@@ -1,6 +1,7 @@
 package org.infinispan.remoting.transport;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.scopes.Scope;
@@ -50,6 +51,23 @@ Map<Address, Response> invokeRemotely(Collection<Address> recipients, Replicable
                                  boolean usePriorityQueue, ResponseFilter responseFilter, boolean totalOrder,
                                  boolean anycast) throws Exception;
 
+   /**
+    * The same as {@link #invokeRemotely(java.util.Collection, org.infinispan.commands.ReplicableCommand,
+    * org.infinispan.remoting.rpc.ResponseMode, long, boolean, org.infinispan.remoting.rpc.ResponseFilter, boolean,
+    * boolean)} except that it does not wait for the responses. The returned future is completed by the thread
+    * receiving the last response needed, or by the timeout, so the listeners attached to it must not block.
+    * <p>
+    * Implementations that cannot send the command without waiting for the responses may invoke it synchronously and
+    * return a completed future.
+    *
+    * @return a future of the map of responses from each member contacted. The exceptions are reported by the future
+    *         instead of being thrown.
+    */
+   NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                               ResponseMode mode, long timeout, boolean usePriorityQueue,
+                                                               ResponseFilter responseFilter, boolean totalOrder,
+                                                               boolean anycast);
+
 
    BackupResponse backupRemotely(Collection<XSiteBackup> backups, XSiteReplicateCommand rpcCommand) throws Exception;
 
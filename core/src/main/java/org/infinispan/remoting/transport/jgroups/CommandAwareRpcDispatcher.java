@@ -6,6 +6,7 @@
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.remoting.responses.SuccessfulResponse;
@@ -26,6 +27,7 @@
 import org.jgroups.Message;
 import org.jgroups.SuspectedException;
 import org.jgroups.UpHandler;
+import org.jgroups.blocks.GroupRequest;
 import org.jgroups.blocks.RequestOptions;
 import org.jgroups.blocks.ResponseMode;
 import org.jgroups.blocks.RpcDispatcher;
@@ -37,8 +39,10 @@
 import org.jgroups.util.NotifyingFuture;
 import org.jgroups.util.Rsp;
 import org.jgroups.util.RspList;
+import org.jgroups.util.TimeScheduler;
 
 import java.io.NotSerializableException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -185,6 +189,63 @@ public RspList<Object> broadcastRemoteCommands(ReplicableCommand command, Respon
       return invokeRemoteCommands(null, command, mode, timeout, oob, filter, asyncMarshalling, ignoreLeavers, totalOrder);
    }
 
+   /**
+    * The same as {@link #invokeRemoteCommands(java.util.List, org.infinispan.commands.ReplicableCommand,
+    * org.jgroups.blocks.ResponseMode, long, boolean, org.jgroups.blocks.RspFilter, boolean, boolean, boolean)} with
+    * a synchronous response mode, except that the calling thread does not wait for the responses. The returned future
+    * is completed by the JGroups thread receiving the last response needed, or by the JGroups timer when the timeout
+    * expires.
+    *
+    * @param recipients Must <b>not</b> contain self. If {@code null}, the command is broadcast.
+    * @return the future of the responses, that may not all have been received if the timeout expired
+    */
+   public CompletableNotifyingFuture<RspList<Object>> invokeRemoteCommandsAsync(List<Address> recipients, ReplicableCommand command,
+                                                                      ResponseMode mode, long timeout, boolean oob,
+                                                                      RspFilter filter, boolean ignoreLeavers,
+                                                                      boolean totalOrder) {
+      if (trace) log.tracef("Replication task sending %s to addresses %s with response mode %s without waiting", command, recipients, mode);
+      CompletableNotifyingFuture<RspList<Object>> result = new CompletableNotifyingFuture<RspList<Object>>();
+      if (recipients != null && recipients.isEmpty()) {
+         result.notifyDone(new RspList<Object>());
+         return result;
+      }
+      try {
+         boolean rsvp = isRsvpCommand(command);
+         Buffer buf = marshallCall(req_marshaller, command);
+         if (totalOrder || recipients == null || FORCE_MCAST) {
+            Message message;
+            RequestOptions opts = new RequestOptions(mode, timeout, false, filter);
+            if (totalOrder) {
+               message = constructMessage(buf, null, oob, mode, rsvp, true);
+               message.setDest(new AnycastAddress(recipients));
+            } else {
+               message = constructMessage(buf, null, oob, mode, rsvp, false);
+               opts.setExclusionList(getChannel().getAddress());
+            }
+            CastCollator collator = new CastCollator(result);
+            collator.scheduleTimeout(getTimer(), timeout);
+            collator.watchRequest(castMessageWithFuture(recipients, message, opts, collator));
+         } else {
+            RequestOptions opts = new RequestOptions(mode, timeout);
+            opts.setExclusionList(getChannel().getAddress());
+            AsyncFutureCollator collator = new AsyncFutureCollator(result, filter, recipients, timeout, ignoreLeavers);
+            collator.scheduleTimeout(getTimer(), timeout);
+            for (Address a : recipients) {
+               NotifyingFuture<Object> f = sendMessageWithFuture(constructMessage(buf, a, oob, mode, rsvp, false), opts,
+                                                                 collator.listenerFor(a));
+               collator.watchFuture(f);
+            }
+         }
+      } catch (Exception e) {
+         result.notifyException(rewrapAsCacheException(e));
+      }
+      return result;
+   }
+
+   private TimeScheduler getTimer() {
+      return getChannel().getProtocolStack().getTransport().getTimer();
+   }
+
    private boolean containsOnlyNulls(RspList<Object> l) {
       for (Rsp<Object> r : l.values()) {
          if (r.getValue() != null || !r.wasReceived() || r.wasSuspected()) return false;
@@ -579,5 +640,226 @@ else if (e.getCause() instanceof Exception)
          }
       }
    }
-}
 
+   /**
+    * Completes the future of a command sent with {@link #invokeRemoteCommandsAsync} with the responses of the
+    * individual unicasts, like {@link FutureCollator} does for a blocking invocation.
+    */
+   final static class AsyncFutureCollator implements Runnable {
+      final CompletableNotifyingFuture<RspList<Object>> result;
+      final RspFilter filter;
+      final List<Address> recipients;
+      final long timeout;
+      final boolean ignoreLeavers;
+      final List<Future<Object>> futures;
+      @GuardedBy("this")
+      private final RspList<Object> responses = new RspList<Object>();
+      @GuardedBy("this")
+      private Exception exception;
+      @GuardedBy("this")
+      private int expectedResponses;
+      private volatile Future<?> timeoutTask;
+
+      AsyncFutureCollator(CompletableNotifyingFuture<RspList<Object>> result, RspFilter filter, List<Address> recipients,
+                          long timeout, boolean ignoreLeavers) {
+         this.result = result;
+         this.filter = filter;
+         this.recipients = recipients;
+         this.timeout = timeout;
+         this.ignoreLeavers = ignoreLeavers;
+         this.futures = new ArrayList<Future<Object>>(recipients.size());
+         this.expectedResponses = recipients.size();
+      }
+
+      void scheduleTimeout(TimeScheduler timer, long timeout) {
+         timeoutTask = timer.schedule(this, timeout, MILLISECONDS);
+      }
+
+      synchronized void watchFuture(Future<Object> future) {
+         futures.add(future);
+      }
+
+      FutureListener<Object> listenerFor(final Address sender) {
+         return new FutureListener<Object>() {
+            @Override
+            public void futureDone(Future<Object> future) {
+               responseReceived(sender, future);
+            }
+         };
+      }
+
+      private void responseReceived(Address sender, Future<Object> future) {
+         RspList<Object> completed = null;
+         Exception failure = null;
+         synchronized (this) {
+            if (result.isDone() || responses.containsKey(sender)) {
+               if (trace) log.tracef("Skipping response from %s since the request has already completed", sender);
+               return;
+            }
+            expectedResponses--;
+            try {
+               Object response = future.get();
+               if (trace) log.tracef("Received response: %s from %s", response, sender);
+               responses.addRsp(sender, response);
+               if (filter != null) {
+                  filter.isAcceptable(response, sender);
+                  if (!filter.needMoreResponses()) {
+                     completed = new RspList<Object>(Collections.singleton(new Rsp<Object>(sender, response)));
+                  }
+               }
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+               Throwable cause = e.getCause();
+               if (cause instanceof SuspectedException) {
+                  Rsp<Object> rsp = new Rsp<Object>(sender);
+                  rsp.setSuspected();
+                  responses.put(sender, rsp);
+                  if (filter == null && !ignoreLeavers) {
+                     failure = new SuspectException("One of the nodes " + recipients + " was suspected", cause);
+                  } else if (trace) {
+                     log.tracef("Ignoring node %s that left during the remote call", sender);
+                  }
+               } else {
+                  responses.put(sender, new Rsp<Object>(sender, cause));
+                  exception = rewrapAsCacheException(cause);
+                  if (filter == null) {
+                     failure = exception;
+                  } else if (log.isDebugEnabled()) {
+                     log.debugf("Caught exception %s from sender %s.  Will skip this response.", exception.getClass().getName(), sender);
+                  }
+               }
+            }
+            if (completed == null && failure == null && expectedResponses == 0) {
+               if (filter == null) {
+                  completed = responses;
+               } else if (exception != null) {
+                  failure = exception;
+               } else {
+                  failure = new RpcException(format("No more valid responses.  Received invalid responses from all of %s", recipients));
+               }
+            }
+         }
+         if (completed != null) {
+            complete(completed, null);
+         } else if (failure != null) {
+            complete(null, failure);
+         }
+      }
+
+      /**
+       * Invoked by the timer when the timeout expires.
+       */
+      @Override
+      public void run() {
+         if (result.isDone()) {
+            return;
+         }
+         String message;
+         List<Future<Object>> pending;
+         synchronized (this) {
+            pending = new ArrayList<Future<Object>>(futures);
+            List<Address> missing = new ArrayList<Address>(recipients);
+            missing.removeAll(responses.keySet());
+            message = filter == null ?
+                  formatString("Timed out after %s waiting for a response from %s", prettyPrintTime(timeout), missing) :
+                  format("Timed out waiting for %s for valid responses from any of %s.", prettyPrintTime(timeout), recipients);
+         }
+         if (complete(null, new TimeoutException(message))) {
+            for (Future<Object> future : pending) {
+               future.cancel(true);
+            }
+         }
+      }
+
+      private boolean complete(RspList<Object> rsps, Exception exception) {
+         if (result.isDone()) {
+            return false;
+         }
+         Future<?> task = timeoutTask;
+         if (task != null) {
+            task.cancel(false);
+         }
+         if (exception != null) {
+            result.notifyException(exception);
+         } else {
+            result.notifyDone(rsps);
+         }
+         return true;
+      }
+   }
+
+   /**
+    * Completes the future of a command multicast by {@link #invokeRemoteCommandsAsync}. When the timeout expires, the
+    * future is completed with the responses received so far.
+    */
+   final static class CastCollator implements FutureListener<Object>, Runnable {
+      final CompletableNotifyingFuture<RspList<Object>> result;
+      private volatile Future<?> request;
+      private volatile Future<?> timeoutTask;
+
+      CastCollator(CompletableNotifyingFuture<RspList<Object>> result) {
+         this.result = result;
+      }
+
+      void scheduleTimeout(TimeScheduler timer, long timeout) {
+         timeoutTask = timer.schedule(this, timeout, MILLISECONDS);
+      }
+
+      void watchRequest(Future<?> request) {
+         this.request = request;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void futureDone(Future<Object> future) {
+         try {
+            complete(((Future<RspList<Object>>) (Future<?>) future).get(), null);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } catch (ExecutionException e) {
+            complete(null, rewrapAsCacheException(e.getCause()));
+         }
+      }
+
+      /**
+       * Invoked by the timer when the timeout expires.
+       */
+      @Override
+      @SuppressWarnings("unchecked")
+      public void run() {
+         Future<?> pending = request;
+         if (result.isDone() || pending == null) {
+            return;
+         }
+         if (pending instanceof GroupRequest) {
+            RspList<Object> results = ((GroupRequest<Object>) pending).getResults();
+            RspList<Object> copy;
+            synchronized (results) {
+               copy = new RspList<Object>(results.values());
+            }
+            if (complete(copy, null)) {
+               pending.cancel(true);
+            }
+         } else if (complete(null, new TimeoutException("Timed out waiting for the responses"))) {
+            pending.cancel(true);
+         }
+      }
+
+      private boolean complete(RspList<Object> rsps, Exception exception) {
+         if (result.isDone()) {
+            return false;
+         }
+         Future<?> task = timeoutTask;
+         if (task != null) {
+            task.cancel(false);
+         }
+         if (exception != null) {
+            result.notifyException(exception);
+         } else {
+            result.notifyDone(rsps);
+         }
+         return true;
+      }
+   }
+}
@@ -15,6 +15,9 @@
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.notifications.cachemanagerlistener.CacheManagerNotifier;
 import org.infinispan.remoting.InboundInvocationHandler;
 import org.infinispan.remoting.responses.Response;
@@ -63,6 +66,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
@@ -543,19 +547,91 @@ usePriorityQueue, toJGroupsFilter(responseFilter),
             responses = Collections.singletonMap(fromJGroupsAddress(singleJGAddress), singleResponse);
          }
       } else {
-         Map<Address, Response> retval = new HashMap<Address, Response>(rsps.size());
+         responses = parseResponses(rsps, responseFilter != null, ignoreLeavers);
+      }
+      return responses;
+   }
+
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                                      ResponseMode mode, long timeout, boolean usePriorityQueue,
+                                                                      final ResponseFilter responseFilter, boolean totalOrder,
+                                                                      boolean anycast) {
+      if (mode.isAsynchronous()) {
+         // The command is sent without waiting for the responses anyway
+         return super.invokeRemotelyAsync(recipients, rpcCommand, mode, timeout, usePriorityQueue, responseFilter,
+                                          totalOrder, anycast);
+      }
+      if (recipients != null && recipients.isEmpty()) {
+         log.trace("Destination list is empty: no need to send message");
+         return CompletableNotifyingFuture.completed(InfinispanCollections.<Address, Response>emptyMap());
+      }
 
-         boolean noValidResponses = true;
-         for (Rsp<Object> rsp : rsps.values()) {
-            noValidResponses &= parseResponseAndAddToResponseList(rsp.getValue(), rsp.getException(), retval, rsp.wasSuspected(), rsp.wasReceived(), fromJGroupsAddress(rsp.getSender()),
-                  responseFilter != null, ignoreLeavers);
+      if (trace)
+         log.tracef("dests=%s, command=%s, mode=%s, timeout=%s, without waiting", recipients, rpcCommand, mode, timeout);
+      final boolean ignoreLeavers = mode == ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS || mode == ResponseMode.WAIT_FOR_VALID_RESPONSE;
+      if (recipients != null && !getMembers().containsAll(recipients)) {
+         if (ignoreLeavers) {
+            recipients = new HashSet<Address>(recipients);
+            recipients.retainAll(getMembers());
+         } else {
+            return CompletableNotifyingFuture.failed(new SuspectException(
+                  "One or more nodes have left the cluster while replicating command " + rpcCommand));
          }
+      }
+      if (!usePriorityQueue && (ResponseMode.SYNCHRONOUS == mode || ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS == mode))
+         usePriorityQueue = true;
 
-         if (noValidResponses)
-            throw new TimeoutException("Timed out waiting for valid responses!");
-         responses = retval;
+      // Same choice between a multicast and unicasts as invokeRemotely()
+      List<org.jgroups.Address> jgAddressList = toJGroupsAddressListExcludingSelf(recipients, totalOrder);
+      int membersSize = members.size();
+      boolean broadcast = jgAddressList == null || recipients.size() == membersSize;
+      if (!totalOrder && (membersSize < 3 || (jgAddressList != null && jgAddressList.size() < 2))) broadcast = false;
+      List<org.jgroups.Address> targets;
+      if (broadcast || (totalOrder && !anycast)) {
+         targets = null;
+      } else if (jgAddressList == null) {
+         ArrayList<Address> others = new ArrayList<Address>(members);
+         others.remove(getAddress());
+         targets = toJGroupsAddressListExcludingSelf(others, false);
+      } else {
+         targets = jgAddressList;
       }
-      return responses;
+
+      final CompletableNotifyingFuture<Map<Address, Response>> result = new CompletableNotifyingFuture<Map<Address, Response>>();
+      NotifyingFuture<RspList<Object>> rsps = dispatcher.invokeRemoteCommandsAsync(targets, rpcCommand, toJGroupsMode(mode),
+            timeout, usePriorityQueue, toJGroupsFilter(responseFilter), ignoreLeavers, totalOrder);
+      result.dependsOn(rsps);
+      rsps.attachListener(new FutureListener<RspList<Object>>() {
+         @Override
+         public void futureDone(Future<RspList<Object>> future) {
+            try {
+               result.notifyDone(parseResponses(future.get(), responseFilter != null, ignoreLeavers));
+            } catch (ExecutionException e) {
+               result.notifyException(e.getCause());
+            } catch (Throwable t) {
+               result.notifyException(t);
+            }
+         }
+      });
+      return result;
+   }
+
+   private Map<Address, Response> parseResponses(RspList<Object> rsps, boolean usedResponseFilter, boolean ignoreLeavers) throws Exception {
+      if (rsps.isEmpty()) {
+         return InfinispanCollections.emptyMap();
+      }
+      Map<Address, Response> retval = new HashMap<Address, Response>(rsps.size());
+
+      boolean noValidResponses = true;
+      for (Rsp<Object> rsp : rsps.values()) {
+         noValidResponses &= parseResponseAndAddToResponseList(rsp.getValue(), rsp.getException(), retval, rsp.wasSuspected(), rsp.wasReceived(), fromJGroupsAddress(rsp.getSender()),
+               usedResponseFilter, ignoreLeavers);
+      }
+
+      if (noValidResponses)
+         throw new TimeoutException("Timed out waiting for valid responses!");
+      return retval;
    }
 
    @Override
@@ -3,6 +3,7 @@
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.Principal;
+import java.util.Collection;
 import java.util.Set;
 
 import javax.security.auth.Subject;
@@ -51,20 +52,23 @@ public static void checkPermission(GlobalSecurityConfiguration globalConfigurati
 
    public static int computeSubjectRoleMask(Subject subject, GlobalSecurityConfiguration globalConfiguration,
          AuthorizationConfiguration configuration) {
+      return subject == null ? 0 : computeRoleMask(subject.getPrincipals(), globalConfiguration, configuration);
+   }
+
+   public static int computeRoleMask(Collection<Principal> principals, GlobalSecurityConfiguration globalConfiguration,
+         AuthorizationConfiguration configuration) {
       PrincipalRoleMapper roleMapper = globalConfiguration.authorization().principalRoleMapper();
       int mask = 0;
-      if (subject != null) {
-         for (Principal principal : subject.getPrincipals()) {
-            Set<String> roleNames = roleMapper.principalToRoles(principal);
-            if (roleNames != null) {
-               for (String roleName : roleNames) {
-                  // Skip roles not defined for this cache
-                  if (configuration != null && !configuration.roles().contains(roleName))
-                     continue;
-                  Role role = globalConfiguration.authorization().roles().get(roleName);
-                  if (role != null) {
-                     mask |= role.getMask();
-                  }
+      for (Principal principal : principals) {
+         Set<String> roleNames = roleMapper.principalToRoles(principal);
+         if (roleNames != null) {
+            for (String roleName : roleNames) {
+               // Skip roles not defined for this cache
+               if (configuration != null && !configuration.roles().contains(roleName))
+                  continue;
+               Role role = globalConfiguration.authorization().roles().get(roleName);
+               if (role != null) {
+                  mask |= role.getMask();
                }
             }
          }
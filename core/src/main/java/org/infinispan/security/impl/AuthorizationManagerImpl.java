@@ -5,15 +5,19 @@
 
 import javax.security.auth.Subject;
 
-import org.infinispan.Cache;
 import org.infinispan.configuration.cache.AuthorizationConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.GlobalSecurityConfiguration;
 import org.infinispan.factories.annotations.Inject;
-import org.infinispan.registry.ClusterRegistry;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.util.TimeService;
 
 /**
  * AuthorizationManagerImpl. An implementation of the {@link AuthorizationManager} interface. In
@@ -23,32 +27,84 @@
  * @author Tristan Tarrant
  * @since 7.0
  */
+@MBean(objectName = "AuthorizationManager", description = "Component that verifies the permissions of the subjects accessing the cache")
 public class AuthorizationManagerImpl implements AuthorizationManager {
    private GlobalSecurityConfiguration globalConfiguration;
    private AuthorizationConfiguration configuration;
-   private ClusterRegistry<String, Subject, Integer> subjectRoleMaskCache;
-   private String authCacheScope;
+   private SubjectRoleMaskCache subjectRoleMaskCache;
 
    public AuthorizationManagerImpl() {
    }
 
    @Inject
-   public void init(Cache<?, ?> cache, GlobalConfiguration globalConfiguration, Configuration configuration,
-         ClusterRegistry<String, Subject, Integer> clusterRegistry) {
+   public void init(GlobalConfiguration globalConfiguration, Configuration configuration, TimeService timeService) {
       this.globalConfiguration = globalConfiguration.security();
       this.configuration = configuration.security().authorization();
-      this.subjectRoleMaskCache = clusterRegistry;
-      authCacheScope = String.format("%s_%s", AuthorizationManager.class.getName(), cache.getName());
+      this.subjectRoleMaskCache = new SubjectRoleMaskCache(this.globalConfiguration.securityCacheSize(),
+            this.globalConfiguration.securityCacheTimeout(), timeService);
    }
 
    @Override
    public void checkPermission(AuthorizationPermission perm) {
       Subject subject = Subject.getSubject(AccessController.getContext());
-      Integer subjectMask = (subject == null) ? Integer.valueOf(0) : null; //ISPN-4056 subjectRoleMaskCache.get(authCacheScope, subject);
-      if (subjectMask == null) {
-         subjectMask = AuthorizationHelper.computeSubjectRoleMask(subject, globalConfiguration, configuration);
-         //ISPN-4056 subjectRoleMaskCache.put(authCacheScope, subject, subjectMask, globalConfiguration.securityCacheTimeout(), TimeUnit.MILLISECONDS);
-      }
+      int subjectMask = (subject == null) ? 0
+            : subjectRoleMaskCache.getRoleMask(subject, globalConfiguration, configuration);
       AuthorizationHelper.checkPermission(subject, subjectMask, perm);
    }
+
+   @ManagedAttribute(
+         description = "Number of permission checks which used a cached role mask",
+         displayName = "Role mask cache hits",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getRoleMaskCacheHits() {
+      return subjectRoleMaskCache.getHits();
+   }
+
+   @ManagedAttribute(
+         description = "Number of permission checks which computed the role mask of the subject",
+         displayName = "Role mask cache misses",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getRoleMaskCacheMisses() {
+      return subjectRoleMaskCache.getMisses();
+   }
+
+   @ManagedAttribute(
+         description = "Percentage hit/(hit+miss) of the role mask cache",
+         displayName = "Role mask cache hit ratio",
+         displayType = DisplayType.SUMMARY
+   )
+   public double getRoleMaskCacheHitRatio() {
+      long hits = subjectRoleMaskCache.getHits();
+      long total = hits + subjectRoleMaskCache.getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+   }
+
+   @ManagedAttribute(
+         description = "Number of subjects whose role mask is cached",
+         displayName = "Role mask cache size",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getRoleMaskCacheSize() {
+      return subjectRoleMaskCache.size();
+   }
+
+   @ManagedOperation(
+         description = "Discards the cached role masks, so that the roles of the subjects are computed again",
+         displayName = "Invalidate the role mask cache"
+   )
+   public void invalidateRoleMaskCache() {
+      subjectRoleMaskCache.invalidate();
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      subjectRoleMaskCache.resetStatistics();
+   }
 }
@@ -21,6 +21,7 @@
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.manager.EmbeddedCacheManager;
@@ -562,6 +563,12 @@ public V put(K key, V value, Metadata metadata) {
       return delegate.put(key, value, metadata);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      delegate.putAll(map, metadata);
+   }
+
    @Override
    public void putAll(Map<? extends K, ? extends V> m) {
       authzManager.checkPermission(AuthorizationPermission.WRITE);
@@ -604,6 +611,42 @@ public CacheEntry getCacheEntry(K key) {
       return delegate.getCacheEntry(key);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      authzManager.checkPermission(AuthorizationPermission.READ);
+      return delegate.getAll(keys);
+   }
+
+   @Override
+   public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
+      authzManager.checkPermission(AuthorizationPermission.READ);
+      return delegate.getAllCacheEntries(keys);
+   }
+
+   @Override
+   public <R> R eval(K key, EntryFunction<K, V, R> function) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.eval(key, function);
+   }
+
+   @Override
+   public <R> Map<K, R> evalMany(Set<? extends K> keys, EntryFunction<K, V, R> function) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.evalMany(keys, function);
+   }
+
+   @Override
+   public void evalWriteOnly(K key, EntryFunction<K, V, ?> function) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      delegate.evalWriteOnly(key, function);
+   }
+
+   @Override
+   public void evalManyWriteOnly(Set<? extends K> keys, EntryFunction<K, V, ?> function) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      delegate.evalManyWriteOnly(keys, function);
+   }
+
    @Override
    public boolean equals(Object o) {
       return delegate.equals(o);
@@ -0,0 +1,150 @@
+package org.infinispan.security.impl;
+
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.Subject;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.configuration.cache.AuthorizationConfiguration;
+import org.infinispan.configuration.global.GlobalSecurityConfiguration;
+import org.infinispan.security.PrincipalRoleMapper;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+
+/**
+ * SubjectRoleMaskCache. A bounded cache of the role masks computed for {@link Subject}s, so that the principals of a
+ * subject are not mapped to roles on every permission check.
+ * <p>
+ * The subjects are looked up by identity, as {@link Subject#hashCode()} and {@link Subject#equals(Object)} go through
+ * the principals and the credentials of the subject. A cached mask is only used while it hasn't expired, while the
+ * subject still has the principals it was computed from, and while the {@link PrincipalRoleMapper} and the
+ * {@link AuthorizationConfiguration} are the ones it was computed with.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public class SubjectRoleMaskCache {
+   private final BoundedConcurrentHashMap<Subject, RoleMask> masks;
+   private final long timeoutNanos;
+   private final TimeService timeService;
+   private final AtomicLong hits = new AtomicLong(0);
+   private final AtomicLong misses = new AtomicLong(0);
+
+   /**
+    * @param maxEntries the maximum number of subjects to cache, zero disables the cache
+    * @param timeout the time in milliseconds after which a cached mask is computed again, zero disables the cache
+    */
+   public SubjectRoleMaskCache(int maxEntries, long timeout, TimeService timeService) {
+      this.masks = maxEntries > 0 && timeout > 0
+            ? new BoundedConcurrentHashMap<Subject, RoleMask>(maxEntries, 16, BoundedConcurrentHashMap.Eviction.LRU,
+                                                             IdentityEquivalence.INSTANCE, AnyEquivalence.getInstance())
+            : null;
+      this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+      this.timeService = timeService;
+   }
+
+   public int getRoleMask(Subject subject, GlobalSecurityConfiguration globalConfiguration,
+         AuthorizationConfiguration configuration) {
+      if (masks == null)
+         return AuthorizationHelper.computeSubjectRoleMask(subject, globalConfiguration, configuration);
+
+      PrincipalRoleMapper roleMapper = globalConfiguration.authorization().principalRoleMapper();
+      long now = timeService.time();
+      RoleMask cached = masks.get(subject);
+      if (cached != null && cached.isValid(subject, roleMapper, configuration, now)) {
+         hits.incrementAndGet();
+         return cached.mask;
+      }
+      misses.incrementAndGet();
+      // Read-only subjects can't change their principals, so they don't need to be compared on later lookups
+      boolean readOnly = subject.isReadOnly();
+      Set<Principal> principals = new HashSet<Principal>(subject.getPrincipals());
+      int mask = AuthorizationHelper.computeRoleMask(principals, globalConfiguration, configuration);
+      masks.put(subject, new RoleMask(mask, readOnly ? null : principals, roleMapper, configuration, now + timeoutNanos));
+      return mask;
+   }
+
+   /**
+    * Discards all the cached masks, e.g. because the roles of the principals have changed.
+    */
+   public void invalidate() {
+      if (masks != null)
+         masks.clear();
+   }
+
+   public long getHits() {
+      return hits.get();
+   }
+
+   public long getMisses() {
+      return misses.get();
+   }
+
+   public int size() {
+      return masks == null ? 0 : masks.size();
+   }
+
+   public void resetStatistics() {
+      hits.set(0);
+      misses.set(0);
+   }
+
+   private static final class RoleMask {
+      final int mask;
+      final Set<Principal> principals;
+      final PrincipalRoleMapper roleMapper;
+      final AuthorizationConfiguration configuration;
+      final long expiryTime;
+
+      RoleMask(int mask, Set<Principal> principals, PrincipalRoleMapper roleMapper,
+            AuthorizationConfiguration configuration, long expiryTime) {
+         this.mask = mask;
+         this.principals = principals;
+         this.roleMapper = roleMapper;
+         this.configuration = configuration;
+         this.expiryTime = expiryTime;
+      }
+
+      boolean isValid(Subject subject, PrincipalRoleMapper roleMapper, AuthorizationConfiguration configuration,
+            long now) {
+         return now - expiryTime < 0 && this.roleMapper == roleMapper && this.configuration == configuration
+               && (principals == null || principals.equals(subject.getPrincipals()));
+      }
+   }
+
+   private static final class IdentityEquivalence implements Equivalence<Subject> {
+      static final IdentityEquivalence INSTANCE = new IdentityEquivalence();
+
+      @Override
+      public int hashCode(Object obj) {
+         return System.identityHashCode(obj);
+      }
+
+      @Override
+      public boolean equals(Subject obj, Object otherObj) {
+         return obj == otherObj;
+      }
+
+      @Override
+      public String toString(Object obj) {
+         return String.valueOf(obj);
+      }
+
+      @Override
+      public boolean isComparable(Object obj) {
+         return false;
+      }
+
+      @Override
+      public int compare(Subject obj, Subject otherObj) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
@@ -2,16 +2,21 @@
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.persistence.CollectionKeyFilter;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
@@ -22,16 +27,27 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p>
+ * If {@link org.infinispan.configuration.cache.StateTransferConfiguration#chunkSizeBytes()} is positive or compression
+ * is enabled, the entries are marshalled (and compressed) by this task and a chunk is also sent when the size of the
+ * marshalled entries reaches the configured number of bytes. Up to
+ * {@link org.infinispan.configuration.cache.StateTransferConfiguration#maxInFlightChunks()} chunks are sent without
+ * waiting for the previous ones to be applied by the destination, except for the last chunk, which is only sent after
+ * all the others were applied.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -69,10 +85,36 @@ public class OutboundTransferTask implements Runnable {
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = CollectionFactory.makeConcurrentMap();
 
    /**
-    * The total number of entries from all segments accumulated in entriesBySegment.
+    * Used instead of entriesBySegment when the entries are marshalled by this task.
+    */
+   private final Map<Integer, StateChunkBuilder> chunkBuildersBySegment = CollectionFactory.makeConcurrentMap();
+
+   /**
+    * The total number of entries from all segments accumulated in entriesBySegment or chunkBuildersBySegment.
     */
    private int accumulatedEntries;
 
+   /**
+    * The total size of the entries accumulated in chunkBuildersBySegment, before compression.
+    */
+   private long accumulatedBytes;
+
+   private final StreamingMarshaller marshaller;
+
+   private final long chunkSizeBytes;
+
+   private final boolean compress;
+
+   private final int maxInFlightChunks;
+
+   /**
+    * Permits for the chunks sent but not yet applied by the destination, or {@code null} if the chunks are sent
+    * synchronously.
+    */
+   private final Semaphore inFlightChunks;
+
+   private final TransferStatistics statistics;
+
    /**
     * The Future obtained from submitting this task to an executor service. This is used for cancellation.
     */
@@ -86,6 +128,16 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
                                int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
                                PersistenceManager persistenceManager, RpcManager rpcManager,
                                CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName) {
+      this(destination, segments, stateTransferChunkSize, topologyId, readCh, stateProvider, dataContainer,
+           persistenceManager, rpcManager, commandsFactory, ef, timeout, cacheName, null, 0, false, 1, null);
+   }
+
+   public OutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
+                               int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
+                               PersistenceManager persistenceManager, RpcManager rpcManager,
+                               CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName,
+                               StreamingMarshaller marshaller, long chunkSizeBytes, boolean compress,
+                               int maxInFlightChunks, TransferStatistics statistics) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -95,6 +147,12 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       if (stateTransferChunkSize <= 0) {
          throw new IllegalArgumentException("stateTransferChunkSize must be greater than 0");
       }
+      if (maxInFlightChunks < 1) {
+         throw new IllegalArgumentException("maxInFlightChunks must be greater than 0");
+      }
+      if ((chunkSizeBytes > 0 || compress) && marshaller == null) {
+         throw new IllegalArgumentException("A marshaller is required to send marshalled chunks");
+      }
       this.stateProvider = stateProvider;
       this.destination = destination;
       this.segments.addAll(segments);
@@ -108,6 +166,12 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       this.commandsFactory = commandsFactory;
       this.timeout = timeout;
       this.cacheName = cacheName;
+      this.marshaller = chunkSizeBytes > 0 || compress ? marshaller : null;
+      this.chunkSizeBytes = chunkSizeBytes;
+      this.compress = compress;
+      this.maxInFlightChunks = maxInFlightChunks;
+      this.inFlightChunks = maxInFlightChunks > 1 ? new Semaphore(maxInFlightChunks) : null;
+      this.statistics = statistics;
       //the rpc options does not change in runtime. re-use the same instance
       this.rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
             .timeout(timeout, TimeUnit.MILLISECONDS).build();
@@ -155,16 +219,18 @@ public void run() {
                   public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                         int segmentId = readCh.getSegment(me.getKey());
                         if (segments.contains(segmentId)) {
+                           InternalCacheEntry icv;
                            try {
-                              InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
-                              sendEntry(icv, segmentId);
+                              icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
                            } catch (CacheException e) {
                               log.failedLoadingValueFromCacheStore(me.getKey(), e);
+                              return;
                            }
+                           sendEntry(icv, segmentId);
                         }
                      }
                   };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               PersistenceUtil.processSegments(stProvider, readCh, segments, filter, task, new WithinThreadExecutor(), true, true);
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -183,11 +249,27 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
       }
    }
 
-   private void sendEntry(InternalCacheEntry ice, int segmentId) {
+   private void sendEntry(InternalCacheEntry ice, int segmentId) throws InterruptedException {
       // send if we have a full chunk
-      if (accumulatedEntries >= stateTransferChunkSize) {
+      if (accumulatedEntries >= stateTransferChunkSize || (chunkSizeBytes > 0 && accumulatedBytes >= chunkSizeBytes)) {
          sendEntries(false);
          accumulatedEntries = 0;
+         accumulatedBytes = 0;
+      }
+
+      if (marshaller != null) {
+         StateChunkBuilder chunkBuilder = chunkBuildersBySegment.get(segmentId);
+         if (chunkBuilder == null) {
+            chunkBuilder = new StateChunkBuilder(segmentId, marshaller, compress);
+            chunkBuildersBySegment.put(segmentId, chunkBuilder);
+         }
+         try {
+            accumulatedBytes += chunkBuilder.addEntry(ice);
+         } catch (IOException e) {
+            throw new CacheException("Failed to marshall entry " + ice.getKey(), e);
+         }
+         accumulatedEntries++;
+         return;
       }
 
       List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
@@ -199,8 +281,9 @@ private void sendEntry(InternalCacheEntry ice, int segmentId) {
       accumulatedEntries++;
    }
 
-   private void sendEntries(boolean isLast) {
+   private void sendEntries(boolean isLast) throws InterruptedException {
       List<StateChunk> chunks = new ArrayList<StateChunk>();
+      int chunkBytes = 0;
       for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
          List<InternalCacheEntry> entries = e.getValue();
          if (!entries.isEmpty() || isLast) {
@@ -208,11 +291,19 @@ private void sendEntries(boolean isLast) {
             entries.clear();
          }
       }
+      for (StateChunkBuilder chunkBuilder : chunkBuildersBySegment.values()) {
+         if (!chunkBuilder.isEmpty()) {
+            StateChunk chunk = chunkBuilder.build(isLast);
+            chunkBytes += chunk.getPayloadSize();
+            chunks.add(chunk);
+         }
+      }
 
       if (isLast) {
          for (int segmentId : segments) {
             List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
-            if (entries == null) {
+            StateChunkBuilder chunkBuilder = chunkBuildersBySegment.get(segmentId);
+            if (entries == null && (chunkBuilder == null || chunkBuilder.isEmpty())) {
                chunks.add(new StateChunk(segmentId, InfinispanCollections.<InternalCacheEntry>emptyList(), true));
             }
          }
@@ -228,18 +319,69 @@ private void sendEntries(boolean isLast) {
          }
 
          StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
+         if (inFlightChunks != null && !isLast) {
+            sendEntriesAsync(cmd, chunkBytes);
+            return;
+         }
+         if (inFlightChunks != null) {
+            // wait for all the other chunks to be applied
+            inFlightChunks.acquire(maxInFlightChunks);
+         }
          // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
          try {
             rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+            chunksSent(chunkBytes);
          } catch (SuspectException e) {
             log.errorf(e, "Node %s left cache %s: %s", destination, cacheName, e.getMessage());
             cancel();
          } catch (Exception e) {
             log.errorf(e, "Failed to send entries to node %s : %s", destination, e.getMessage());
+         } finally {
+            if (inFlightChunks != null) {
+               inFlightChunks.release(maxInFlightChunks);
+            }
          }
       }
    }
 
+   private void sendEntriesAsync(StateResponseCommand cmd, final int chunkBytes) throws InterruptedException {
+      inFlightChunks.acquire();
+      try {
+         NotifyingFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(Collections.singleton(destination), cmd, rpcOptions);
+         future.attachListener(new FutureListener<Map<Address, Response>>() {
+            @Override
+            public void futureDone(Future<Map<Address, Response>> future) {
+               try {
+                  future.get();
+                  chunksSent(chunkBytes);
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+               } catch (ExecutionException e) {
+                  Throwable cause = e.getCause();
+                  if (cause instanceof SuspectException) {
+                     log.errorf(cause, "Node %s left cache %s: %s", destination, cacheName, cause.getMessage());
+                     cancel();
+                  } else {
+                     log.errorf(cause, "Failed to send entries to node %s : %s", destination, cause.getMessage());
+                  }
+               } finally {
+                  inFlightChunks.release();
+               }
+            }
+         });
+      } catch (RuntimeException e) {
+         inFlightChunks.release();
+         throw e;
+      }
+   }
+
+   private void chunksSent(int chunkBytes) {
+      // Only the marshalled chunks have a known size, the plain ones are marshalled by the transport
+      if (statistics != null && chunkBytes > 0) {
+         statistics.chunkTransferred(chunkBytes);
+      }
+   }
+
    /**
     * Cancel some of the segments. If all segments get cancelled then the whole task will be cancelled.
     *
@@ -250,6 +392,7 @@ public void cancelSegments(Set<Integer> cancelledSegments) {
          log.tracef("Cancelling outbound transfer of segments %s of cache %s to node %s", cancelledSegments, cacheName, destination);
       }
       if (segments.removeAll(cancelledSegments)) {
+         chunkBuildersBySegment.keySet().removeAll(cancelledSegments);
          entriesBySegment.keySet().removeAll(cancelledSegments);  // here we do not update accumulatedEntries but this inaccuracy does not cause any harm
          if (segments.isEmpty()) {
             cancel();
@@ -277,6 +420,9 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", stateTransferChunkSize=" + stateTransferChunkSize +
+            ", chunkSizeBytes=" + chunkSizeBytes +
+            ", maxInFlightChunks=" + maxInFlightChunks +
+            ", compress=" + compress +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
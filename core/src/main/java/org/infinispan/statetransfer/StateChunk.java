@@ -2,18 +2,27 @@
 
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.marshall.core.Ids;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 /**
  * Encapsulates a chunk of cache entries that belong to the same segment. This representation is suitable for sending it
  * to another cache during state transfer.
+ * <p>
+ * The entries are either kept as objects, and marshalled with the command, or already marshalled by the sender (and
+ * possibly compressed) with a {@link StateChunkBuilder}, in which case {@link #getCacheEntries(StreamingMarshaller)}
+ * must be used to read them.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -35,9 +44,33 @@ public class StateChunk {
     */
    private final boolean isLastChunk;
 
+   /**
+    * The marshalled cache entries, each one preceded by its length, or {@code null} if the entries are not marshalled.
+    */
+   private final byte[] payload;
+
+   /**
+    * The length of the payload before compression.
+    */
+   private final int payloadLength;
+
+   private final boolean compressed;
+
    public StateChunk(int segmentId, Collection<InternalCacheEntry> cacheEntries, boolean isLastChunk) {
+      this(segmentId, cacheEntries, null, 0, false, isLastChunk);
+   }
+
+   public StateChunk(int segmentId, byte[] payload, int payloadLength, boolean compressed, boolean isLastChunk) {
+      this(segmentId, null, payload, payloadLength, compressed, isLastChunk);
+   }
+
+   private StateChunk(int segmentId, Collection<InternalCacheEntry> cacheEntries, byte[] payload, int payloadLength,
+                      boolean compressed, boolean isLastChunk) {
       this.segmentId = segmentId;
       this.cacheEntries = cacheEntries;
+      this.payload = payload;
+      this.payloadLength = payloadLength;
+      this.compressed = compressed;
       this.isLastChunk = isLastChunk;
    }
 
@@ -49,21 +82,83 @@ public Collection<InternalCacheEntry> getCacheEntries() {
       return cacheEntries;
    }
 
+   /**
+    * Returns the cache entries, unmarshalling them if they were marshalled by the sender.
+    */
+   public Collection<InternalCacheEntry> getCacheEntries(StreamingMarshaller marshaller) throws IOException, ClassNotFoundException {
+      if (payload == null) {
+         return cacheEntries;
+      }
+      byte[] bytes = compressed ? inflate(payload, payloadLength) : payload;
+      List<InternalCacheEntry> entries = new ArrayList<InternalCacheEntry>();
+      int position = 0;
+      while (position < payloadLength) {
+         int length = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+               | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+         position += 4;
+         entries.add((InternalCacheEntry) marshaller.objectFromByteBuffer(bytes, position, length));
+         position += length;
+      }
+      return entries;
+   }
+
+   /**
+    * @return {@code true} if the entries were marshalled by the sender
+    */
+   public boolean isMarshalled() {
+      return payload != null;
+   }
+
+   /**
+    * @return the number of bytes of marshalled entries sent in this chunk, after compression
+    */
+   public int getPayloadSize() {
+      return payload == null ? 0 : payload.length;
+   }
+
    public boolean isLastChunk() {
       return isLastChunk;
    }
 
+   private static byte[] inflate(byte[] compressed, int length) throws IOException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(compressed);
+         byte[] bytes = new byte[length];
+         int position = 0;
+         while (position < length && !inflater.finished()) {
+            int inflated = inflater.inflate(bytes, position, length - position);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+               break;
+            }
+            position += inflated;
+         }
+         if (position != length) {
+            throw new IOException("Truncated state chunk: expected " + length + " bytes but got " + position);
+         }
+         return bytes;
+      } catch (DataFormatException e) {
+         throw new IOException(e);
+      } finally {
+         inflater.end();
+      }
+   }
+
    @Override
    public String toString() {
       return "StateChunk{" +
             "segmentId=" + segmentId +
-            ", cacheEntries=" + cacheEntries +
+            ", cacheEntries=" + (payload == null ? cacheEntries : payload.length + " bytes" + (compressed ? " compressed" : "")) +
             ", isLastChunk=" + isLastChunk +
             '}';
    }
 
    public static class Externalizer extends AbstractExternalizer<StateChunk> {
 
+      private static final byte ENTRIES = 0;
+      private static final byte PAYLOAD = 1;
+      private static final byte COMPRESSED_PAYLOAD = 2;
+
       @Override
       public Integer getId() {
          return Ids.STATE_CHUNK;
@@ -77,17 +172,32 @@ public Set<Class<? extends StateChunk>> getTypeClasses() {
       @Override
       public void writeObject(ObjectOutput output, StateChunk object) throws IOException {
          output.writeInt(object.segmentId);
-         output.writeObject(object.cacheEntries);
          output.writeBoolean(object.isLastChunk);
+         if (object.payload == null) {
+            output.writeByte(ENTRIES);
+            output.writeObject(object.cacheEntries);
+         } else {
+            output.writeByte(object.compressed ? COMPRESSED_PAYLOAD : PAYLOAD);
+            output.writeInt(object.payloadLength);
+            output.writeInt(object.payload.length);
+            output.write(object.payload);
+         }
       }
 
       @Override
       @SuppressWarnings("unchecked")
       public StateChunk readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          int segmentId = input.readInt();
-         Collection<InternalCacheEntry> cacheEntries = (Collection<InternalCacheEntry>) input.readObject();
          boolean isLastChunk = input.readBoolean();
-         return new StateChunk(segmentId, cacheEntries, isLastChunk);
+         byte type = input.readByte();
+         if (type == ENTRIES) {
+            Collection<InternalCacheEntry> cacheEntries = (Collection<InternalCacheEntry>) input.readObject();
+            return new StateChunk(segmentId, cacheEntries, isLastChunk);
+         }
+         int payloadLength = input.readInt();
+         byte[] payload = new byte[input.readInt()];
+         input.readFully(payload);
+         return new StateChunk(segmentId, payload, payloadLength, type == COMPRESSED_PAYLOAD, isLastChunk);
       }
    }
 }
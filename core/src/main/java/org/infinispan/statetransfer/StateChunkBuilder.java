@@ -0,0 +1,77 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ExposedByteArrayOutputStream;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Accumulates the marshalled cache entries of a segment and builds the {@link StateChunk}s carrying them, optionally
+ * compressed with Deflate. Not thread safe.
+ *
+ * @since 7.0
+ */
+public class StateChunkBuilder {
+
+   private final int segmentId;
+   private final StreamingMarshaller marshaller;
+   private final boolean compress;
+   private ExposedByteArrayOutputStream payload = new ExposedByteArrayOutputStream();
+
+   public StateChunkBuilder(int segmentId, StreamingMarshaller marshaller, boolean compress) {
+      this.segmentId = segmentId;
+      this.marshaller = marshaller;
+      this.compress = compress;
+   }
+
+   /**
+    * Marshalls the entry and appends it to the payload of the next chunk.
+    *
+    * @return the number of bytes added to the payload
+    */
+   public int addEntry(InternalCacheEntry entry) throws IOException, InterruptedException {
+      ByteBuffer buffer = marshaller.objectToBuffer(entry);
+      int length = buffer.getLength();
+      payload.write(length >>> 24);
+      payload.write(length >>> 16);
+      payload.write(length >>> 8);
+      payload.write(length);
+      payload.write(buffer.getBuf(), buffer.getOffset(), length);
+      return length + 4;
+   }
+
+   public boolean isEmpty() {
+      return payload.size() == 0;
+   }
+
+   /**
+    * Builds a chunk with the entries added since the previous call and starts a new, empty payload.
+    */
+   public StateChunk build(boolean isLastChunk) {
+      int length = payload.size();
+      byte[] bytes = compress ? deflate(payload.getRawBuffer(), length) : Arrays.copyOf(payload.getRawBuffer(), length);
+      payload = new ExposedByteArrayOutputStream();
+      return new StateChunk(segmentId, bytes, length, compress, isLastChunk);
+   }
+
+   private static byte[] deflate(byte[] bytes, int length) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         deflater.setInput(bytes, 0, length);
+         deflater.finish();
+         ExposedByteArrayOutputStream out = new ExposedByteArrayOutputStream(Math.max(64, length / 2));
+         byte[] buffer = new byte[Math.max(64, Math.min(length, 8192))];
+         while (!deflater.finished()) {
+            int count = deflater.deflate(buffer);
+            out.write(buffer, 0, count);
+         }
+         return Arrays.copyOf(out.getRawBuffer(), out.size());
+      } finally {
+         deflater.end();
+      }
+   }
+}
@@ -20,6 +20,17 @@ public interface StateConsumer {
 
    boolean isStateTransferInProgress();
 
+   /**
+    * @return the statistics of the marshalled chunks received since the start of the last inbound state transfer, only
+    *         collected when chunkSizeBytes or compression is enabled
+    */
+   TransferStatistics getInboundStatistics();
+
+   /**
+    * @return the number of segments requested from other nodes that were not fully received yet
+    */
+   int getInboundSegmentsRemaining();
+
    boolean isStateTransferInProgressForKey(Object key);
 
    /**
@@ -7,6 +7,7 @@
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
@@ -43,6 +44,7 @@
 import org.infinispan.transaction.xa.CacheTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.ReadOnlyDataContainerBackedKeySet;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.ConcurrentHashSet;
 import org.infinispan.util.logging.Log;
@@ -50,6 +52,7 @@
 
 import javax.transaction.TransactionManager;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ExecutorService;
@@ -59,6 +62,7 @@
 
 import static org.infinispan.context.Flag.*;
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 
 /**
  * {@link StateConsumer} implementation.
@@ -85,6 +89,8 @@ public class StateConsumerImpl implements StateConsumer {
    private InterceptorChain interceptorChain;
    private InvocationContextFactory icf;
    private StateTransferLock stateTransferLock;
+   private StreamingMarshaller marshaller;
+   private TransferStatistics inboundStatistics;
    private CacheNotifier cacheNotifier;
    private TotalOrderManager totalOrderManager;
    private BlockingTaskAwareExecutorService remoteCommandsExecutor;
@@ -172,7 +178,7 @@ public void init(Cache cache,
                     CacheNotifier cacheNotifier,
                     TotalOrderManager totalOrderManager,
                     @ComponentName(KnownComponentNames.REMOTE_COMMAND_EXECUTOR) BlockingTaskAwareExecutorService remoteCommandsExecutor,
-                    L1Manager l1Manager, CommitManager commitManager) {
+                    L1Manager l1Manager, CommitManager commitManager, TimeService timeService) {
       this.cache = cache;
       this.cacheName = cache.getName();
       this.executorService = executorService;
@@ -192,6 +198,7 @@ public void init(Cache cache,
       this.remoteCommandsExecutor = remoteCommandsExecutor;
       this.l1Manager = l1Manager;
       this.commitManager = commitManager;
+      this.inboundStatistics = new TransferStatistics(timeService);
 
       isInvalidationMode = configuration.clustering().cacheMode().isInvalidation();
 
@@ -202,6 +209,11 @@ public void init(Cache cache,
       timeout = configuration.clustering().stateTransfer().timeout();
    }
 
+   @Inject
+   public void injectMarshaller(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
    public boolean hasActiveTransfers() {
       synchronized (transferMapsLock) {
          return !transfersBySource.isEmpty();
@@ -213,6 +225,24 @@ public boolean isStateTransferInProgress() {
       return rebalanceInProgress.get();
    }
 
+   @Override
+   public TransferStatistics getInboundStatistics() {
+      return inboundStatistics;
+   }
+
+   @Override
+   public int getInboundSegmentsRemaining() {
+      int segments = 0;
+      synchronized (transferMapsLock) {
+         for (List<InboundTransferTask> inboundTransfers : transfersBySource.values()) {
+            for (InboundTransferTask inboundTransfer : inboundTransfers) {
+               segments += inboundTransfer.getUnfinishedSegments().size();
+            }
+         }
+      }
+      return segments;
+   }
+
    @Override
    public boolean isStateTransferInProgressForKey(Object key) {
       if (isInvalidationMode) {
@@ -427,6 +457,7 @@ public void applyState(Address sender, int topologyId, Collection<StateChunk> st
          log.tracef("Before applying the received state the data container of cache %s has %d keys", cacheName, dataContainer.size());
       }
 
+      int payloadSize = 0;
       for (StateChunk stateChunk : stateChunks) {
          // it's possible to receive a late message so we must be prepared to ignore segments we no longer own
          //todo [anistor] this check should be based on topologyId
@@ -441,8 +472,17 @@ public void applyState(Address sender, int topologyId, Collection<StateChunk> st
             inboundTransfer = transfersBySegment.get(stateChunk.getSegmentId());
          }
          if (inboundTransfer != null) {
-            if (stateChunk.getCacheEntries() != null) {
-               doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+            Collection<InternalCacheEntry> cacheEntries;
+            try {
+               cacheEntries = stateChunk.getCacheEntries(marshaller);
+            } catch (IOException e) {
+               throw new CacheException("Failed to unmarshall the state received from node " + sender, e);
+            } catch (ClassNotFoundException e) {
+               throw new CacheException("Failed to unmarshall the state received from node " + sender, e);
+            }
+            payloadSize += stateChunk.getPayloadSize();
+            if (cacheEntries != null) {
+               doApplyState(sender, stateChunk.getSegmentId(), cacheEntries);
             }
 
             inboundTransfer.onStateReceived(stateChunk.getSegmentId(), stateChunk.isLastChunk());
@@ -451,6 +491,10 @@ public void applyState(Address sender, int topologyId, Collection<StateChunk> st
          }
       }
 
+      if (payloadSize > 0) {
+         inboundStatistics.chunkTransferred(payloadSize);
+      }
+
       if (trace) {
          log.tracef("After applying the received state the data container of cache %s has %d keys", cacheName, dataContainer.size());
          synchronized (transferMapsLock) {
@@ -871,10 +915,15 @@ private void invalidateSegments(final Set<Integer> newSegments, final Set<Intege
       }
 
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
-      //todo [anistor] extend CacheStore interface to be able to specify a filter when loading keys (ie. keys should belong to desired segments)
+      final Set<Integer> lostSegments = new HashSet<Integer>();
+      for (int segment = 0; segment < newCH.getNumSegments(); segment++) {
+         if (!newSegments.contains(segment)) {
+            lostSegments.add(segment);
+         }
+      }
       try {
          CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
-         persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
+         persistenceManager.processOnAllStores(lostSegments, newCH, filter, new AdvancedCacheLoader.CacheLoaderTask() {
             @Override
             public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                Object key = marshalledEntry.getKey();
@@ -921,6 +970,13 @@ public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.Ta
             log.failedToInvalidateKeys(e);
          }
       }
+
+      // the new owners already received the entries of these segments, so they can be removed from the local stores
+      try {
+         persistenceManager.clearSegmentsFromAllStores(lostSegments, true);
+      } catch (CacheException e) {
+         log.failedToClearSegmentsFromCacheStores(lostSegments, e);
+      }
    }
 
    /**
@@ -968,6 +1024,9 @@ private InboundTransferTask addTransfer(Address source, Set<Integer> segmentsFro
          log.tracef("Adding transfer from %s for segments %s", source, segmentsFromSource);
          segmentsFromSource.removeAll(transfersBySegment.keySet());  // already in progress segments are excluded
          if (!segmentsFromSource.isEmpty()) {
+            if (transfersBySegment.isEmpty()) {
+               inboundStatistics.reset();
+            }
             InboundTransferTask inboundTransfer = new InboundTransferTask(segmentsFromSource, source,
                   cacheTopology.getTopologyId(), this, rpcManager, commandsFactory, timeout, cacheName);
             for (int segmentId : segmentsFromSource) {
@@ -21,6 +21,12 @@ public interface StateProvider {
 
    boolean isStateTransferInProgress();
 
+   /**
+    * @return the statistics of the marshalled chunks sent since the start of the last outbound state transfer, only
+    *         collected when chunkSizeBytes or compression is enabled
+    */
+   TransferStatistics getOutboundStatistics();
+
    /**
     * Receive notification of topology changes. Cancels all outbound transfers to destinations that are no longer members.
     * The other outbound transfers remain unaffected.
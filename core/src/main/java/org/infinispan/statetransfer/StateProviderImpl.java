@@ -3,7 +3,9 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.distexec.DistributedCallable;
@@ -25,6 +27,7 @@
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.CacheTransaction;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -34,6 +37,7 @@
 import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 
 /**
  * {@link StateProvider} implementation.
@@ -60,6 +64,11 @@ public class StateProviderImpl implements StateProvider {
    private InternalEntryFactory entryFactory;
    private long timeout;
    private int chunkSize;
+   private long chunkSizeBytes;
+   private int maxInFlightChunks;
+   private boolean compression;
+   private StreamingMarshaller marshaller;
+   private TransferStatistics outboundStatistics;
 
    private StateConsumer stateConsumer;
 
@@ -83,7 +92,7 @@ public void init(Cache cache,
                     DataContainer dataContainer,
                     TransactionTable transactionTable,
                     StateTransferLock stateTransferLock,
-                    StateConsumer stateConsumer, InternalEntryFactory entryFactory) {
+                    StateConsumer stateConsumer, InternalEntryFactory entryFactory, TimeService timeService) {
       this.cacheName = cache.getName();
       this.executorService = executorService;
       this.configuration = configuration;
@@ -96,12 +105,23 @@ public void init(Cache cache,
       this.stateTransferLock = stateTransferLock;
       this.stateConsumer = stateConsumer;
       this.entryFactory = entryFactory;
+      this.outboundStatistics = new TransferStatistics(timeService);
 
       timeout = configuration.clustering().stateTransfer().timeout();
 
       // ignore chunk sizes <= 0
       int chunkSize = configuration.clustering().stateTransfer().chunkSize();
       this.chunkSize = chunkSize > 0 ? chunkSize : Integer.MAX_VALUE;
+
+      StateTransferConfiguration stateTransferConfiguration = configuration.clustering().stateTransfer();
+      chunkSizeBytes = stateTransferConfiguration.chunkSizeBytes();
+      maxInFlightChunks = stateTransferConfiguration.maxInFlightChunks();
+      compression = stateTransferConfiguration.compression();
+   }
+
+   @Inject
+   public void injectMarshaller(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
    }
 
    public boolean isStateTransferInProgress() {
@@ -110,6 +130,11 @@ public boolean isStateTransferInProgress() {
       }
    }
 
+   @Override
+   public TransferStatistics getOutboundStatistics() {
+      return outboundStatistics;
+   }
+
    @TopologyChanged
    @SuppressWarnings("unused")
    public void onTopologyChange(TopologyChangedEvent<?, ?> tce) {
@@ -284,7 +309,8 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, Se
 
       // the destination node must already have an InboundTransferTask waiting for these segments
       OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, cacheTopology.getTopologyId(),
-            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
+            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName,
+            marshaller, chunkSizeBytes, compression, maxInFlightChunks, outboundStatistics);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
@@ -294,6 +320,9 @@ private void addTransfer(OutboundTransferTask transferTask) {
          log.tracef("Adding outbound transfer of segments %s to %s", transferTask.getSegments(), transferTask.getDestination());
       }
       synchronized (transfersByDestination) {
+         if (transfersByDestination.isEmpty()) {
+            outboundStatistics.reset();
+         }
          List<OutboundTransferTask> transfers = transfersByDestination.get(transferTask.getDestination());
          if (transfers == null) {
             transfers = new ArrayList<OutboundTransferTask>();
@@ -162,6 +162,11 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return handleNonTxWriteCommand(ctx, command);
    }
 
+   @Override
+   public Object visitEvalCommand(InvocationContext ctx, EvalCommand command) throws Throwable {
+      return handleNonTxWriteCommand(ctx, command);
+   }
+
    @Override
    public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
       return handleNonTxWriteCommand(ctx, command);
@@ -35,6 +35,24 @@ public interface StateTransferManager {
    @ManagedAttribute(description = "Checks whether there is a pending inbound state transfer on this cluster member.", displayName = "Is state transfer in progress?", dataType = DataType.TRAIT)
    boolean isStateTransferInProgress();
 
+   /**
+    * Returns the number of segments requested by this node that were not fully received yet.
+    */
+   @ManagedAttribute(description = "Number of segments of the pending inbound state transfers that were not fully received yet", displayName = "Inbound segments remaining")
+   int getInboundSegmentsRemaining();
+
+   /**
+    * Returns the bytes of marshalled state received per second during the last inbound state transfer.
+    */
+   @ManagedAttribute(description = "Bytes of marshalled state received per second during the last inbound state transfer", displayName = "Inbound bytes per second")
+   long getInboundBytesPerSecond();
+
+   /**
+    * Returns the bytes of marshalled state sent per second during the last outbound state transfer.
+    */
+   @ManagedAttribute(description = "Bytes of marshalled state sent per second during the last outbound state transfer", displayName = "Outbound bytes per second")
+   long getOutboundBytesPerSecond();
+
    /**
     * Checks if an inbound state transfer is in progress for a given key.
     *
@@ -235,6 +235,21 @@ public boolean isStateTransferInProgress() {
       return stateConsumer.isStateTransferInProgress();
    }
 
+   @Override
+   public int getInboundSegmentsRemaining() {
+      return stateConsumer.getInboundSegmentsRemaining();
+   }
+
+   @Override
+   public long getInboundBytesPerSecond() {
+      return stateConsumer.getInboundStatistics().getBytesPerSecond();
+   }
+
+   @Override
+   public long getOutboundBytesPerSecond() {
+      return stateProvider.getOutboundStatistics().getBytesPerSecond();
+   }
+
    @Override
    public boolean isStateTransferInProgressForKey(Object key) {
       return stateConsumer.isStateTransferInProgressForKey(key);
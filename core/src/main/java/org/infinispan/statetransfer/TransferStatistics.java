@@ -0,0 +1,65 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.util.TimeService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the state sent or received by a node since the start of the last state transfer, counted in
+ * {@link StateResponseCommand}s and bytes of marshalled payload.
+ * <p>
+ * The entries are only marshalled by the sender when
+ * {@link org.infinispan.configuration.cache.StateTransferConfiguration#chunkSizeBytes()} or
+ * {@link org.infinispan.configuration.cache.StateTransferConfiguration#compression()} is enabled, so the statistics
+ * are only collected then. Otherwise the chunks are not counted and the statistics stay at 0.
+ *
+ * @since 7.0
+ */
+public class TransferStatistics {
+
+   private final TimeService timeService;
+   private final AtomicLong bytes = new AtomicLong();
+   private final AtomicLong chunks = new AtomicLong();
+   private volatile long startTime;
+   private volatile long lastTime;
+
+   public TransferStatistics(TimeService timeService) {
+      this.timeService = timeService;
+      this.startTime = timeService.time();
+      this.lastTime = startTime;
+   }
+
+   /**
+    * Resets the statistics at the start of a state transfer.
+    */
+   public void reset() {
+      bytes.set(0);
+      chunks.set(0);
+      startTime = timeService.time();
+      lastTime = startTime;
+   }
+
+   public void chunkTransferred(int chunkBytes) {
+      bytes.addAndGet(chunkBytes);
+      chunks.incrementAndGet();
+      lastTime = timeService.time();
+   }
+
+   public long getBytes() {
+      return bytes.get();
+   }
+
+   public long getChunks() {
+      return chunks.get();
+   }
+
+   /**
+    * @return the bytes transferred per second between the start of the state transfer and the last chunk
+    */
+   public long getBytesPerSecond() {
+      // nanosecond precision, a small state can be transferred in less than a millisecond
+      long nanos = timeService.timeDuration(startTime, lastTime, TimeUnit.NANOSECONDS);
+      return nanos <= 0 ? 0 : (long) (bytes.get() * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+   }
+}
@@ -15,6 +15,7 @@
 import org.infinispan.commons.util.concurrent.ParallelIterableMap;
 import org.infinispan.commons.util.concurrent.jdk8backported.ForkJoinPool;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -142,6 +143,11 @@
     */
    static final int MAX_SEGMENTS = 1 << 16; // slightly conservative
 
+   /**
+    * The weight (usually in bytes) of an average entry, used to size the segment tables of a map bounded by memory.
+    */
+   static final int ESTIMATED_ENTRY_WEIGHT = 128;
+
    /**
     * Number of unsynchronized retries in size and containsValue
     * methods before resorting to locking. This is used to avoid
@@ -179,7 +185,18 @@
    private transient final Equivalence<? super V> valueEquivalence;
    private transient final EvictionListener<? super K, ? super V> evictionListener;
    private final int evictCap;
-   
+
+   /**
+    * Estimates the weight of each entry when the map is bounded by memory rather than by number of entries;
+    * null when the map is bounded by number of entries.
+    */
+   private transient final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
+
+   /**
+    * The maximum weight of each segment, unbounded unless the map is bounded by memory.
+    */
+   private final long evictWeight;
+
    private final ExecutorService executor;
 
    /* ---------------- Small Utilities -------------- */
@@ -202,6 +219,14 @@ private static int hash(int h) {
       return h ^ h >>> 16;
    }
 
+   /**
+    * Returns the weight of an entry, as estimated by the size calculator of a map bounded by memory.
+    */
+   int weigh(K key, V value) {
+      long size = sizeCalculator.calculateSize(key, value);
+      return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+   }
+
    /**
     * Returns the segment that should be used for key with given hash
     * @param hash the hash code for the key
@@ -230,6 +255,10 @@ final Segment<K,V> segmentFor(int hash) {
       final int hash;
       volatile V value;
       final HashEntry<K, V> next;
+      /**
+       * The weight of this entry, always 1 unless the map is bounded by memory. Guarded by the segment lock.
+       */
+      int weight = 1;
 
       HashEntry(K key, int hash, HashEntry<K, V> next, V value) {
          this.key = key;
@@ -238,6 +267,13 @@ final Segment<K,V> segmentFor(int hash) {
          this.value = value;
       }
 
+      /**
+       * Updates the weight of this entry after its value has been replaced. Called while holding the segment lock.
+       */
+      void reweigh(int newWeight) {
+         weight = newWeight;
+      }
+
       @Override
       public int hashCode() {
          int result = 17;
@@ -275,21 +311,43 @@ public enum Eviction {
          public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
             return new NullEvictionPolicy<K, V>();
          }
+
+         @Override
+         <K, V> EvictionPolicy<K, V> makeWeighted(Segment<K, V> s, int initialCapacity, long maxWeight, float lf) {
+            return new NullEvictionPolicy<K, V>();
+         }
       },
       LRU {
          @Override
          public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
             return new LRU<K, V>(s,capacity,lf,capacity*10,lf);
          }
+
+         @Override
+         <K, V> EvictionPolicy<K, V> makeWeighted(Segment<K, V> s, int initialCapacity, long maxWeight, float lf) {
+            return new LRU<K, V>(s,initialCapacity,Integer.MAX_VALUE,lf,EvictionPolicy.MAX_BATCH_SIZE,lf);
+         }
       },
       LIRS {
          @Override
          public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
             return new LIRS<K,V>(s,capacity,capacity*10,lf);
          }
+
+         @Override
+         <K, V> EvictionPolicy<K, V> makeWeighted(Segment<K, V> s, int initialCapacity, long maxWeight, float lf) {
+            // hot entries may take up to L_LIRS of the weight budget, the segment evicts the rest
+            return new LIRS<K,V>(s,Long.MAX_VALUE,BoundedConcurrentHashMap.LIRS.calculateLIRSize(maxWeight),EvictionPolicy.MAX_BATCH_SIZE,lf);
+         }
       };
 
       abstract <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf);
+
+      /**
+       * Creates a policy that never evicts because of the number of entries, leaving it to the segment to evict
+       * the {@link EvictionPolicy#evictionCandidate() candidates} while it is over its weight budget.
+       */
+      abstract <K, V> EvictionPolicy<K, V> makeWeighted(Segment<K, V> s, int initialCapacity, long maxWeight, float lf);
    }
 
    public interface EvictionListener<K, V> {
@@ -393,6 +451,13 @@ public void onEntryRemoved(Object key) {
        * @return true if batching threshold has expired, false otherwise.
        */
       boolean thresholdExpired();
+
+      /**
+       * Returns the entry that should be evicted next when the Segment is over its weight budget.
+       *
+       * @return the next entry to evict or null if there are no entries to evict
+       */
+      HashEntry<K, V> evictionCandidate();
    }
 
    static class NullEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
@@ -432,6 +497,11 @@ public Eviction strategy() {
          return Eviction.NONE;
       }
       
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         return null;
+      }
+
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
          return new HashEntry<K, V>(key, hash, next, value);
@@ -452,7 +522,11 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       private final AtomicInteger accessQueueSize = new AtomicInteger(0);
 
       public LRU(final Segment<K,V> s, int capacity, float lf, int maxBatchSize, float batchThresholdFactor) {
-         super(capacity, lf, IterationOrder.ACCESS_ORDER, new Equivalence<HashEntry<K, V>>() {
+         this(s, capacity, capacity, lf, maxBatchSize, batchThresholdFactor);
+      }
+
+      LRU(final Segment<K,V> s, int initialCapacity, int trimDownSize, float lf, int maxBatchSize, float batchThresholdFactor) {
+         super(initialCapacity, lf, IterationOrder.ACCESS_ORDER, new Equivalence<HashEntry<K, V>>() {
             @Override
             public int hashCode(Object obj) {
                if (obj instanceof HashEntry<?, ?>) {
@@ -488,7 +562,7 @@ public int compare(HashEntry<K, V> obj, HashEntry<K, V> otherObj) {
             }
          }, s.map.valueEquivalence);
          this.segment = s;
-         this.trimDownSize = capacity;
+         this.trimDownSize = trimDownSize;
          this.maxBatchQueueSize = maxBatchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : maxBatchSize;
          this.batchQueueSizeThreshold = batchThresholdFactor * this.maxBatchQueueSize;
          this.accessQueue = new ConcurrentLinkedQueue<HashEntry<K, V>>();
@@ -575,6 +649,12 @@ protected boolean removeEldestEntry(Map.Entry<HashEntry<K,V>,V> eldest) {
          return aboveThreshold;
       }
 
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         // iteration follows access order, so the first entry is the least recently used one
+         return isEmpty() ? null : keySet().iterator().next();
+      }
+
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
          return new HashEntry<K, V>(key, hash, next, value);
@@ -733,7 +813,7 @@ private Set<HashEntry<K, V>> miss() {
         }
 
         // now the missed item is in the cache
-        owner.size++;
+        owner.size += weight;
         return evicted;
       }
 
@@ -790,7 +870,7 @@ private void fullMiss(Set<HashEntry<K, V>> evicted) {
        */
       private void hot() {
         if (state != Recency.LIR_RESIDENT) {
-          owner.hotSize++;
+          owner.hotSize += weight;
         }
         state = Recency.LIR_RESIDENT;
       }
@@ -800,7 +880,7 @@ private void hot() {
        */
       private void cold() {
         if (state == Recency.LIR_RESIDENT) {
-          owner.hotSize--;
+          owner.hotSize -= weight;
         }
         state = Recency.HIR_RESIDENT;
         moveToQueueEnd();
@@ -813,15 +893,30 @@ private void cold() {
       private void nonResident() {
         switch (state) {
           case LIR_RESIDENT:
-            owner.hotSize--;
+            owner.hotSize -= weight;
             // fallthrough
           case HIR_RESIDENT:
-            owner.size--;
+            owner.size -= weight;
             break;
         }
         state = Recency.HIR_NONRESIDENT;
       }
       
+      @Override
+      void reweigh(int newWeight) {
+        if (owner != null) {
+          switch (state) {
+            case LIR_RESIDENT:
+              owner.hotSize += newWeight - weight;
+              // fallthrough
+            case HIR_RESIDENT:
+              owner.size += newWeight - weight;
+              break;
+          }
+        }
+        weight = newWeight;
+      }
+
       /**
        * Returns true if this entry is resident in the cache, false otherwise.
        */
@@ -1006,8 +1101,8 @@ private V remove() {
        * */
       private final int maxBatchQueueSize;     
       
-      /** The number of LIRS entries in a segment */
-      private int size;
+      /** The total weight of the resident LIRS entries in a segment, i.e. their number unless bounded by memory */
+      private long size;
       
       private final float batchQueueSizeThreshold;
       
@@ -1032,28 +1127,32 @@ private V remove() {
        */
       private final LIRSHashEntry<K,V> header = new LIRSHashEntry<K,V>(null, null,0,null,null);
 
-      /** The maximum number of hot entries (L_lirs in the paper). */
-      private final int maximumHotSize;
+      /** The maximum weight of hot entries (L_lirs in the paper). */
+      private final long maximumHotSize;
 
-      /** The maximum number of resident entries (L in the paper). */
-      private final int maximumSize ;
+      /** The maximum weight of resident entries (L in the paper). */
+      private final long maximumSize ;
 
-      /** The actual number of hot entries. */
-      private int hotSize = 0;
+      /** The actual weight of hot entries. */
+      private long hotSize = 0;
 
             
 
       public LIRS(Segment<K,V> s, int capacity, int maxBatchSize, float batchThresholdFactor) {
+         this(s, capacity, calculateLIRSize(capacity), maxBatchSize, batchThresholdFactor);
+      }
+
+      LIRS(Segment<K,V> s, long maximumSize, long maximumHotSize, int maxBatchSize, float batchThresholdFactor) {
          this.segment = s;
-         this.maximumSize = capacity;
-         this.maximumHotSize = calculateLIRSize(capacity);
+         this.maximumSize = maximumSize;
+         this.maximumHotSize = maximumHotSize;
          this.maxBatchQueueSize = maxBatchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : maxBatchSize;
          this.batchQueueSizeThreshold = batchThresholdFactor * this.maxBatchQueueSize;
          this.accessQueue = new ConcurrentLinkedQueue<LIRSHashEntry<K, V>>();                         
       }
       
-      private static int calculateLIRSize(int maximumSize) {
-         int result = (int) (L_LIRS * maximumSize);
+      private static long calculateLIRSize(long maximumSize) {
+         long result = (long) (L_LIRS * maximumSize);
          return (result == maximumSize) ? maximumSize - 1 : result;
        }
 
@@ -1180,6 +1279,16 @@ private LIRSHashEntry<K, V> queueEnd() {
       }
 
       
+      @Override
+      public HashEntry<K, V> evictionCandidate() {
+         // cold entries go first, then the least recently used hot entry
+         LIRSHashEntry<K, V> candidate = queueFront();
+         if (candidate == null) {
+            candidate = stackBottom();
+         }
+         return candidate;
+      }
+
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
          return new LIRSHashEntry<K, V>(this,key, hash, next, value);
@@ -1266,6 +1375,12 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
        */
       final float loadFactor;
 
+      /**
+       * The total weight of the entries in this segment, i.e. their number unless the map is bounded by memory.
+       * Guarded by the segment lock.
+       */
+      transient long weight;
+
       transient final EvictionPolicy<K, V> eviction;
 
       transient final BoundedConcurrentHashMap map;
@@ -1273,7 +1388,11 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       Segment(int cap, float lf, Eviction es, BoundedConcurrentHashMap map) {
          this.map = map;
          loadFactor = lf;
-         eviction = es.make(this, map.evictCap, lf);
+         if (map.sizeCalculator != null) {
+            eviction = es.makeWeighted(this, cap, map.evictWeight, lf);
+         } else {
+            eviction = es.make(this, map.evictCap, lf);
+         }
          setTable(HashEntry.<K, V> newArray(cap));
       }
 
@@ -1399,6 +1518,7 @@ boolean replace(K key, int hash, V oldValue, V newValue) {
                if (eviction.onEntryHit(e)) {
                   evicted = attemptEviction(true);
                }
+               evicted = updateWeight(e, newValue, evicted);
             }
             return replaced;
          } finally {
@@ -1423,6 +1543,7 @@ V replace(K key, int hash, V newValue) {
                if (eviction.onEntryHit(e)) {
                   evicted = attemptEviction(true);
                }
+               evicted = updateWeight(e, newValue, evicted);
             }
             return oldValue;
          } finally {
@@ -1453,6 +1574,7 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                if (!onlyIfAbsent) {
                   e.value = value;
                   eviction.onEntryHit(e);
+                  evicted = updateWeight(e, value, evicted);
                }
             } else {
                oldValue = null;
@@ -1466,9 +1588,14 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                      first = tab[index];
                   }
                   // add a new entry
-                  tab[index] = eviction.createNewEntry(key, hash, first, value);
+                  HashEntry<K, V> newEntry = eviction.createNewEntry(key, hash, first, value);
+                  if (map.sizeCalculator != null) {
+                     newEntry.weight = map.weigh(key, value);
+                  }
+                  weight += newEntry.weight;
+                  tab[index] = newEntry;
                   // notify a miss
-                  Set<HashEntry<K, V>> newlyEvicted = eviction.onEntryMiss(tab[index]);
+                  Set<HashEntry<K, V>> newlyEvicted = eviction.onEntryMiss(newEntry);
                   if (!newlyEvicted.isEmpty()) {
                      if (evicted != null) {
                         evicted.addAll(newlyEvicted);
@@ -1476,8 +1603,12 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                         evicted = newlyEvicted;
                      }
                   }
+                  if (weight > map.evictWeight) {
+                     evicted = evictOverweight(evicted);
+                  }
                } else {
                   tab[index] = eviction.createNewEntry(key, hash, first, value);
+                  weight++;
                }
                // When entry not present, attempt to activate if necessary
                map.evictionListener.onEntryActivated(key);
@@ -1545,6 +1676,7 @@ void rehash() {
                      int k = p.hash & sizeMask;
                      HashEntry<K,V> n = newTable[k];
                      newTable[k] = eviction.createNewEntry(p.key, p.hash, n, p.value);
+                     newTable[k].weight = p.weight;
                   }
                }
             }
@@ -1585,6 +1717,7 @@ V remove(Object key, int hash, Object value, boolean isEvict) {
 
                   // e was removed
                   eviction.onEntryRemove(e);
+                  weight -= e.weight;
 
                   HashEntry<K, V> newFirst = e.next;
                   for (HashEntry<K, V> p = first; p != e; p = p.next) {
@@ -1592,6 +1725,7 @@ V remove(Object key, int hash, Object value, boolean isEvict) {
                      // allow p to be GC-ed
                      eviction.onEntryRemove(p);
                      newFirst = eviction.createNewEntry(p.key, p.hash, newFirst, p.value);
+                     newFirst.weight = p.weight;
                      // and notify eviction algorithm about new hash entries
                      eviction.onEntryMiss(newFirst);
                   }
@@ -1630,6 +1764,7 @@ void clear() {
                }
                ++modCount;
                eviction.clear();
+               weight = 0;
                count = 0; // write-volatile
             } finally {
                unlock();
@@ -1637,6 +1772,43 @@ void clear() {
          }
       }
 
+      /**
+       * Recomputes the weight of an entry whose value has been replaced and evicts entries if the segment went over
+       * its weight budget. Call only while holding lock.
+       */
+      private Set<HashEntry<K, V>> updateWeight(HashEntry<K, V> e, V value, Set<HashEntry<K, V>> evicted) {
+         if (map.sizeCalculator == null) {
+            return evicted;
+         }
+         int newWeight = map.weigh(e.key, value);
+         weight += newWeight - e.weight;
+         e.reweigh(newWeight);
+         return weight > map.evictWeight ? evictOverweight(evicted) : evicted;
+      }
+
+      /**
+       * Evicts the candidates chosen by the eviction policy until the segment is back under its weight budget.
+       * Call only while holding lock.
+       */
+      private Set<HashEntry<K, V>> evictOverweight(Set<HashEntry<K, V>> evicted) {
+         while (weight > map.evictWeight) {
+            HashEntry<K, V> candidate = eviction.evictionCandidate();
+            if (candidate == null) {
+               break;
+            }
+            if (remove(candidate.key, candidate.hash, null, true) == null) {
+               // the policy held on to an entry no longer in the segment, make sure it is not picked again
+               eviction.onEntryRemove(candidate);
+               continue;
+            }
+            if (evicted == null) {
+               evicted = new HashSet<HashEntry<K, V>>();
+            }
+            evicted.add(candidate);
+         }
+         return evicted;
+      }
+
       private Set<HashEntry<K, V>> attemptEviction(boolean lockedAlready) {
          boolean shouldAttemptEvict = lockedAlready || tryLock();
 
@@ -1712,19 +1884,65 @@ private void notifyEvictionListener(Set<HashEntry<K, V>> evicted) {
    public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
          Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
          Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence) {
+      this(capacity, -1, concurrencyLevel, evictionStrategy, evictionListener, null, keyEquivalence, valueEquivalence);
+   }
+
+   /**
+    * Creates a new, empty map bounded by the total weight of its entries rather than by their number, with the
+    * specified concurrency level and eviction strategy. Each segment evicts entries, in the order chosen by the
+    * eviction strategy, while the weight of its entries is over its share of the maximum weight.
+    *
+    * @param maxWeight
+    *            is the upper bound for the total weight of the entries in this map, as estimated by the size
+    *            calculator (usually in bytes)
+    *
+    * @param concurrencyLevel
+    *            the estimated number of concurrently updating threads. The implementation performs
+    *            internal sizing to try to accommodate this many threads.
+    *
+    * @param evictionStrategy
+    *            the algorithm used to evict elements from this map
+    *
+    * @param evictionListener
+    *            the evicton listener callback to be notified about evicted elements
+    *
+    * @param sizeCalculator
+    *            estimates the weight of each entry
+    *
+    * @throws IllegalArgumentException
+    *             if the maximum weight or concurrencyLevel are nonpositive or the eviction strategy is
+    *             {@link Eviction#NONE}.
+    */
+   public BoundedConcurrentHashMap(long maxWeight, int concurrencyLevel,
+         Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
+         EntrySizeCalculator<? super K, ? super V> sizeCalculator,
+         Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence) {
+      this((int) Math.min(maxWeight / ESTIMATED_ENTRY_WEIGHT, MAXIMUM_CAPACITY), maxWeight, concurrencyLevel,
+           evictionStrategy, evictionListener, sizeCalculator, keyEquivalence, valueEquivalence);
+   }
+
+   private BoundedConcurrentHashMap(int capacity, long maxWeight, int concurrencyLevel,
+         Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
+         EntrySizeCalculator<? super K, ? super V> sizeCalculator,
+         Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence) {
       this.keyEquivalence = keyEquivalence;
       this.valueEquivalence = valueEquivalence;
+      this.sizeCalculator = sizeCalculator;
 
       if (capacity < 0 || concurrencyLevel <= 0) {
          throw new IllegalArgumentException();
       }
 
-      concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
-      concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
+      if (sizeCalculator == null) {
+         concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
+         concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
 
-      // minimum two elements per segment
-      if (capacity < concurrencyLevel * 2 && capacity != 1) {
-         throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         // minimum two elements per segment
+         if (capacity < concurrencyLevel * 2 && capacity != 1) {
+            throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         }
+      } else if (maxWeight <= 0 || evictionStrategy == Eviction.NONE) {
+         throw new IllegalArgumentException("Maximum weight has to be positive and an eviction strategy is required");
       }
 
       if (evictionStrategy == null || evictionListener == null) {
@@ -1759,7 +1977,14 @@ public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
          cap <<= 1;
       }
 
-      this.evictCap = c;
+      if (sizeCalculator == null) {
+         this.evictCap = c;
+         this.evictWeight = Long.MAX_VALUE;
+      } else {
+         // segments only evict based on their weight
+         this.evictCap = Integer.MAX_VALUE;
+         this.evictWeight = Math.max(maxWeight / ssize, 1);
+      }
 
       for (int i = 0; i < this.segments.length; ++i) {
          this.segments[i] = new Segment<K, V>(cap, DEFAULT_LOAD_FACTOR, evictionStrategy, this);
@@ -1106,4 +1106,12 @@ void asyncStoreShutdownTimeoutTooHigh(long configuredAsyncStopTimeout,
 
    @Message(value = "Unable to acquire lock after %s for key %s and requestor %s. Lock is held by %s, while request came from %s", id = 299)
    TimeoutException unableToAcquireLock(String timeout, Object key, Object requestor, Object owner, Address origin);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to remove the segments %s, which are no longer owned, from the cache stores", id = 300)
+   void failedToClearSegmentsFromCacheStores(Object segments, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "The queue of the asynchronous backups of cache %s to site %s is full, the write of key %s is not backed up", id = 301)
+   void asyncBackupQueueFull(String cacheName, String site, Object key);
 }
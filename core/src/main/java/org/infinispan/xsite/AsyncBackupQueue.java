@@ -0,0 +1,173 @@
+package org.infinispan.xsite;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.util.TimeService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the writes waiting to be backed up asynchronously to a site. Only the last write of each key is kept, and a
+ * clear discards all the writes queued before it.
+ * <p/>
+ * The queue is bounded: once it holds {@code capacity} writes, the writes of keys not queued yet wait for the flushing
+ * thread to drain a batch.
+ * <p/>
+ * Thread safety: the queue is updated by the writing threads and drained by the flushing thread, so the access to it is
+ * synchronized by object's intrinsic lock.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public class AsyncBackupQueue {
+
+   private final XSiteBackup backup;
+   private final int batchSize;
+   private final int capacity;
+   private final TimeService timeService;
+   private final Map<Object, WriteCommand> writes = new LinkedHashMap<Object, WriteCommand>();
+   private ClearCommand clear;
+   private long firstWriteTime;
+   private long coalescedWrites;
+
+   public AsyncBackupQueue(XSiteBackup backup, int batchSize, int capacity, TimeService timeService) {
+      this.backup = backup;
+      this.batchSize = batchSize;
+      this.capacity = capacity;
+      this.timeService = timeService;
+   }
+
+   /**
+    * @return the backup the queued writes are sent to
+    */
+   public XSiteBackup getBackup() {
+      return backup;
+   }
+
+   /**
+    * Queues the write of a key, replacing any write of the same key still in the queue. If the queue is full, waits
+    * until a batch is drained or the timeout elapses.
+    *
+    * @return {@code false} if the queue was still full when the timeout elapsed, and the write was not queued
+    */
+   public synchronized boolean add(Object key, WriteCommand command, long timeout, TimeUnit unit) throws InterruptedException {
+      if (size() >= capacity && !writes.containsKey(key)) {
+         long remainingNanos = unit.toNanos(timeout);
+         long endNanos = timeService.expectedEndTime(timeout, unit);
+         while (size() >= capacity && !writes.containsKey(key)) {
+            if (remainingNanos <= 0) {
+               return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            remainingNanos = timeService.remainingTime(endNanos, TimeUnit.NANOSECONDS);
+         }
+      }
+      if (isEmpty()) {
+         firstWriteTime = timeService.time();
+      }
+      if (writes.remove(key) != null) {
+         coalescedWrites++;
+      }
+      writes.put(key, command);
+      return true;
+   }
+
+   /**
+    * @return {@code true} if the queue holds at least a batch of writes
+    */
+   public synchronized boolean hasFullBatch() {
+      return size() >= batchSize;
+   }
+
+   /**
+    * Queues a clear, discarding the writes queued before it.
+    */
+   public synchronized void clear(ClearCommand command) {
+      if (isEmpty()) {
+         firstWriteTime = timeService.time();
+      }
+      coalescedWrites += writes.size();
+      writes.clear();
+      clear = command;
+   }
+
+   /**
+    * Removes at most a batch of writes from the queue, in the order they must be applied.
+    */
+   public synchronized List<WriteCommand> drain() {
+      if (isEmpty()) {
+         return Collections.emptyList();
+      }
+      List<WriteCommand> batch = new ArrayList<WriteCommand>(Math.min(size(), batchSize));
+      if (clear != null) {
+         batch.add(clear);
+         clear = null;
+      }
+      for (Iterator<WriteCommand> it = writes.values().iterator(); it.hasNext() && batch.size() < batchSize; ) {
+         batch.add(it.next());
+         it.remove();
+      }
+      if (!isEmpty()) {
+         // the remaining writes are only sent with the next batch
+         firstWriteTime = timeService.time();
+      }
+      notifyAll();
+      return batch;
+   }
+
+   /**
+    * Removes all the writes from the queue.
+    *
+    * @return the number of writes removed
+    */
+   public synchronized int discard() {
+      int size = size();
+      writes.clear();
+      clear = null;
+      notifyAll();
+      return size;
+   }
+
+   /**
+    * @return the number of writes waiting to be sent
+    */
+   public synchronized int size() {
+      return writes.size() + (clear == null ? 0 : 1);
+   }
+
+   /**
+    * @return the milliseconds since the oldest write in the queue was added, or 0 if the queue is empty
+    */
+   public synchronized long getLag() {
+      return isEmpty() ? 0 : timeService.timeDuration(firstWriteTime, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * @return the number of writes that were replaced by a later write before being sent
+    */
+   public synchronized long getCoalescedWrites() {
+      return coalescedWrites;
+   }
+
+   private boolean isEmpty() {
+      return clear == null && writes.isEmpty();
+   }
+
+   @Override
+   public synchronized String toString() {
+      return "AsyncBackupQueue{" +
+            "backup=" + backup +
+            ", batchSize=" + batchSize +
+            ", capacity=" + capacity +
+            ", size=" + size() +
+            ", coalescedWrites=" + coalescedWrites +
+            '}';
+   }
+}
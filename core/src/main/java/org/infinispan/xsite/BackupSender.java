@@ -41,6 +41,14 @@ public interface BackupSender {
 
    OfflineStatus getOfflineStatus(String siteName);
 
+   /**
+    * Returns the queue of the writes waiting to be backed up to the given site, or {@code null} if the writes to the
+    * site are not batched.
+    *
+    * @see org.infinispan.configuration.cache.BackupConfiguration#batchSize()
+    */
+   AsyncBackupQueue getAsyncBackupQueue(String siteName);
+
    /**
     * Returns a Map having as entries the site names and as value Boolean.TRUE if the site is online and Boolean.FALSE
     * if it is offline.
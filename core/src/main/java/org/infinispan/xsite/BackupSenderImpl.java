@@ -8,6 +8,8 @@
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.EvalCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -24,11 +26,14 @@
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.impl.TransactionTable;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -40,10 +45,17 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Mircea Markus
@@ -53,6 +65,10 @@ public class BackupSenderImpl implements BackupSender {
 
    private static Log log = LogFactory.getLog(BackupSenderImpl.class);
    private static final BackupResponse EMPTY_RESPONSE = new EmptyBackupResponse();
+   /**
+    * The number of batches an asynchronous backup queue holds before the writers have to wait for the flusher.
+    */
+   private static final int ASYNC_BACKUP_QUEUE_BATCHES = 16;
 
    private Cache cache;
    private Transport transport;
@@ -62,6 +78,7 @@ public class BackupSenderImpl implements BackupSender {
    private CommandsFactory commandsFactory;
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<String, CustomFailurePolicy>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
+   private final ConcurrentMap<String, AsyncBackupFlusher> asyncBackupFlushers = CollectionFactory.makeConcurrentMap();
 
 
    private final String localSiteName;
@@ -100,7 +117,29 @@ public void start() {
          }
          OfflineStatus offline = new OfflineStatus(bc.takeOffline(), timeService);
          offlineStatus.put(bc.site(), offline);
+         if (bc.isBatchingEnabled() && !bc.site().equals(localSiteName)) {
+            // the batches are sent synchronously by the flusher, so that the communication failures are detected
+            XSiteBackup backup = new XSiteBackup(bc.site(), true, bc.replicationTimeout());
+            AsyncBackupQueue queue = new AsyncBackupQueue(backup, bc.batchSize(),
+                                                          bc.batchSize() * ASYNC_BACKUP_QUEUE_BATCHES, timeService);
+            AsyncBackupFlusher flusher = new AsyncBackupFlusher(queue, bc.site());
+            flusher.executor.scheduleWithFixedDelay(flusher, bc.batchInterval(), bc.batchInterval(), TimeUnit.MILLISECONDS);
+            asyncBackupFlushers.put(bc.site(), flusher);
+         }
+      }
+   }
+
+   @Stop
+   public void stop() {
+      for (AsyncBackupFlusher flusher : asyncBackupFlushers.values()) {
+         flusher.executor.shutdown();
+         try {
+            flusher.run();
+         } catch (Exception e) {
+            log.debug("Unable to perform final flush of the asynchronous backups before shutting down", e);
+         }
       }
+      asyncBackupFlushers.clear();
    }
 
    @Override
@@ -150,9 +189,94 @@ private void updateOfflineSites(BackupResponse backupResponse) {
    @Override
    public BackupResponse backupWrite(WriteCommand command) throws Exception {
       List<XSiteBackup> xSiteBackups = calculateBackupInfo(BackupFilter.KEEP_ALL);
+      if (!asyncBackupFlushers.isEmpty()) {
+         for (Iterator<XSiteBackup> it = xSiteBackups.iterator(); it.hasNext(); ) {
+            AsyncBackupFlusher flusher = asyncBackupFlushers.get(it.next().getSiteName());
+            if (flusher != null && enqueue(flusher, command)) {
+               it.remove();
+            }
+         }
+         if (xSiteBackups.isEmpty()) {
+            return EMPTY_RESPONSE;
+         }
+      }
       return backupCommand(command, xSiteBackups);
    }
 
+   /**
+    * Adds the write to the queue of an asynchronous backup. If the queue is full, the writer waits for the flusher
+    * to send a batch, at most for the replication timeout of the backup. The write is then discarded, like the
+    * asynchronous backups failing to be sent.
+    *
+    * @return {@code false} if the command can't be queued and must be sent on its own
+    */
+   private boolean enqueue(AsyncBackupFlusher flusher, WriteCommand command) throws InterruptedException {
+      AsyncBackupQueue queue = flusher.queue;
+      long timeout = queue.getBackup().getTimeout();
+      if (command instanceof DataWriteCommand) {
+         Object key = ((DataWriteCommand) command).getKey();
+         addToQueue(flusher, key, command, timeout);
+      } else if (command instanceof PutMapCommand) {
+         PutMapCommand putMap = (PutMapCommand) command;
+         for (Map.Entry<Object, Object> entry : putMap.getMap().entrySet()) {
+            addToQueue(flusher, entry.getKey(), commandsFactory.buildPutKeyValueCommand(entry.getKey(),
+                  entry.getValue(), putMap.getMetadata(), putMap.getFlags()), timeout);
+         }
+      } else if (command instanceof ClearCommand) {
+         queue.clear((ClearCommand) command);
+      } else {
+         return false;
+      }
+      return true;
+   }
+
+   private void addToQueue(AsyncBackupFlusher flusher, Object key, WriteCommand command, long timeout) throws InterruptedException {
+      AsyncBackupQueue queue = flusher.queue;
+      if (!queue.add(key, command, timeout, TimeUnit.MILLISECONDS)) {
+         log.asyncBackupQueueFull(cacheName, queue.getBackup().getSiteName(), key);
+      }
+      if (queue.hasFullBatch()) {
+         flusher.flushNow();
+      }
+   }
+
+   /**
+    * Sends the queued writes to the site, in batches. The batches are sent as one phase {@link PrepareCommand}s, which
+    * the backup site applies without a transaction if the backup cache is not transactional.
+    */
+   private void flushAsyncBackups(AsyncBackupQueue queue) {
+      String site = queue.getBackup().getSiteName();
+      OfflineStatus status = offlineStatus.get(site);
+      List<WriteCommand> batch;
+      while (!(batch = queue.drain()).isEmpty()) {
+         if (status != null && status.isOffline()) {
+            int discarded = batch.size() + queue.discard();
+            log.tracef("The site '%s' is offline, discarding %d queued writes", site, discarded);
+            return;
+         }
+         GlobalTransaction gtx = TransactionFactory.TxFactoryEnum.NODLD_NORECOVERY_XA.newGlobalTransaction(
+               transport.getAddress(), false, null, false);
+         PrepareCommand prepare = commandsFactory.buildPrepareCommand(gtx, batch, true);
+         try {
+            BackupResponse response = backupCommand(prepare, Collections.singletonList(queue.getBackup()));
+            response.waitForBackupToFinish();
+            if (status != null && status.isEnabled()) {
+               if (response.getCommunicationErrors().contains(site)) {
+                  status.updateOnCommunicationFailure(response.getSendTimeMillis());
+                  log.tracef("OfflineStatus updated %s", status);
+               } else if (!status.isOffline()) {
+                  status.reset();
+               }
+            }
+            for (Map.Entry<String, Throwable> failure : response.getFailedBackups().entrySet()) {
+               log.warnXsiteBackupFailed(cacheName, failure.getKey(), failure.getValue());
+            }
+         } catch (Exception e) {
+            log.warnXsiteBackupFailed(cacheName, site, e);
+         }
+      }
+   }
+
    @Override
    public BackupResponse backupCommit(CommitCommand command) throws Exception {
       //we have a 2PC: we didn't backup the 1PC stuff during prepare, we need to do it now.
@@ -294,6 +418,13 @@ private List<WriteCommand> filterModifications(Collection<WriteCommand> modifica
          } else if (writeCommand instanceof RemoveCommand && writeCommand.isConditional()) {
             filteredCommand = commandsFactory.buildRemoveCommand(((RemoveCommand) writeCommand).getKey(), null,
                                                                  writeCommand.getFlags());
+         } else if (writeCommand instanceof EvalCommand) {
+            // The backup site applies the outcome of the function
+            EvalCommand evalCommand = (EvalCommand) writeCommand;
+            filteredCommand = evalCommand.isRemoval() ?
+                  commandsFactory.buildRemoveCommand(evalCommand.getKey(), null, writeCommand.getFlags()) :
+                  commandsFactory.buildPutKeyValueCommand(evalCommand.getKey(), evalCommand.getNewValue(),
+                                                          writeCommand.getMetadata(), writeCommand.getFlags());
          }
          filtered.add(filteredCommand);
       }
@@ -371,6 +502,12 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public AsyncBackupQueue getAsyncBackupQueue(String siteName) {
+      AsyncBackupFlusher flusher = asyncBackupFlushers.get(siteName);
+      return flusher == null ? null : flusher.queue;
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<String, Boolean>(offlineStatus.size());
@@ -380,6 +517,50 @@ public Map<String, Boolean> status() {
       return result;
    }
 
+   /**
+    * Sends the writes queued for a site on its own thread, so that a slow site doesn't delay the other sites or the
+    * other users of a shared executor.
+    */
+   private class AsyncBackupFlusher implements Runnable {
+
+      private final AsyncBackupQueue queue;
+      private final ScheduledExecutorService executor;
+      private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+      private AsyncBackupFlusher(AsyncBackupQueue queue, final String site) {
+         this.queue = queue;
+         this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+               Thread th = new Thread(r, "XSiteBackupFlusher," + cacheName + "," + site);
+               th.setDaemon(true);
+               return th;
+            }
+         });
+      }
+
+      /**
+       * Flushes the queue without waiting for the batch interval, unless a flush is already requested.
+       */
+      private void flushNow() {
+         if (flushRequested.compareAndSet(false, true)) {
+            try {
+               executor.execute(this);
+            } catch (RejectedExecutionException e) {
+               flushRequested.set(false);
+               log.tracef("Unable to flush the asynchronous backups to site %s, the batch will be sent later", queue.getBackup().getSiteName());
+            }
+         }
+      }
+
+      @Override
+      public synchronized void run() {
+         // synchronized, so that the batches are sent in order
+         flushRequested.set(false);
+         flushAsyncBackups(queue);
+      }
+   }
+
    private static class EmptyBackupResponse implements BackupResponse {
 
       @Override
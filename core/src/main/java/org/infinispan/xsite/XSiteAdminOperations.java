@@ -11,6 +11,8 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.infinispan.xsite.statetransfer.XSiteStatePushProgress;
+import org.infinispan.xsite.statetransfer.XSiteStateProvider;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferManager;
 
 import java.util.ArrayList;
@@ -38,6 +40,7 @@ public class XSiteAdminOperations {
 
    private volatile BackupSender backupSender;
    private XSiteStateTransferManager stateTransferManager;
+   private XSiteStateProvider stateProvider;
 
    @Inject
    public void init(RpcManager rpcManager, BackupSender backupSender, Cache cache,
@@ -49,6 +52,11 @@ public void init(RpcManager rpcManager, BackupSender backupSender, Cache cache,
       this.stateTransferManager = stateTransferManager;
    }
 
+   @Inject
+   public void injectStateProvider(XSiteStateProvider stateProvider) {
+      this.stateProvider = stateProvider;
+   }
+
    @ManagedOperation(description = "Check whether the given backup site is offline or not.", displayName = "Check whether the given backup site is offline or not.")
    public String siteStatus(@Parameter(name = "site", description = "The name of the backup site") String site) {
       //also consider local node
@@ -205,6 +213,20 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the number of writes waiting to be backed up to the given site by this node.", displayName = "Returns the number of writes waiting to be backed up to the given site by this node.")
+   public String getAsyncBackupQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      return String.valueOf(queue == null ? 0 : queue.size());
+   }
+
+   @ManagedOperation(description = "Returns the milliseconds since the oldest write waiting to be backed up to the given site by this node was queued.", displayName = "Returns the lag of the writes waiting to be backed up to the given site by this node.")
+   public String getAsyncBackupQueueLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      return String.valueOf(queue == null ? 0 : queue.getLag());
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -238,6 +260,47 @@ public final String pushState(@Parameter(description = "The destination site nam
       return SUCCESS;
    }
 
+   @ManagedOperation(displayName = "Resume push state to site",
+                     description = "Resumes pushing the state of this cache to the remote site, skipping the " +
+                           "segments already sent by the previous push. The remote site will be bring back online",
+                     name = "resumePushState")
+   public final String resumePushState(@Parameter(description = "The destination site name", name = "SiteName") String siteName) {
+      String status = bringSiteOnline(siteName);
+      if (!SUCCESS.equals(status)) {
+         return String.format("Unable to resume pushState to '%s'. %s", siteName, status);
+      }
+      try {
+         stateTransferManager.resumePushState(siteName);
+      } catch (Throwable throwable) {
+         log.debugf(throwable, "Unable to resume pushState to '%s'.", siteName);
+         return String.format("Unable to resume pushState to '%s'. %s", siteName, throwable.getLocalizedMessage());
+      }
+      return SUCCESS;
+   }
+
+   @ManagedOperation(displayName = "Cancel push state to site",
+                     description = "Cancels the push of the state of this cache to the remote site. " +
+                           "It can be resumed later with resumePushState",
+                     name = "cancelPushState")
+   public final String cancelPushState(@Parameter(description = "The destination site name", name = "SiteName") String siteName) {
+      try {
+         stateTransferManager.cancelPushState(siteName);
+      } catch (Throwable throwable) {
+         log.debugf(throwable, "Unable to cancel pushState to '%s'.", siteName);
+         return String.format("Unable to cancel pushState to '%s'. %s", siteName, throwable.getLocalizedMessage());
+      }
+      return SUCCESS;
+   }
+
+   @ManagedOperation(displayName = "Push state progress",
+                     description = "Shows the progress of the state pushed by this node to the remote site.",
+                     name = "pushStateProgress")
+   public final String getPushStateProgress(@Parameter(description = "The destination site name", name = "SiteName") String siteName) {
+      if (backupSender.getOfflineStatus(siteName) == null) return incorrectSiteName(siteName);
+      XSiteStatePushProgress progress = stateProvider.getStatePushProgress(siteName);
+      return progress == null ? "Not started" : progress.toString();
+   }
+
    @ManagedOperation(displayName = "Running State Transfer",
                      description = "Shows a list of sites to where this cache is pushing state.",
                      name = "RunningStateTransfer")
@@ -25,6 +25,15 @@ public interface XSiteStateProvider {
     */
    public void startStateTransfer(String siteName, Address requestor);
 
+   /**
+    * It notifies this node to resume the state transfer to the remote site, sending only the segments not completed by
+    * the previous state transfer. If no previous state transfer exists, all the segments are sent.
+    *
+    * @param siteName  the remote site name.
+    * @param requestor the requestor.
+    */
+   public void resumeStateTransfer(String siteName, Address requestor);
+
    /**
     * It cancels the state transfer for the remote site. If no state transfer is available, it should do nothing.
     *
@@ -36,4 +45,11 @@ public interface XSiteStateProvider {
     * @return a site name collection with the sites in which this cache is sending state.
     */
    public Collection<String> getCurrentStateSending();
+
+   /**
+    * @param siteName the remote site name.
+    * @return the progress of the last state transfer started by this node to the remote site, or {@code null} if none
+    *         was started.
+    */
+   public XSiteStatePushProgress getStatePushProgress(String siteName);
 }
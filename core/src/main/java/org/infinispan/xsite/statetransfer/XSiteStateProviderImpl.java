@@ -1,18 +1,22 @@
 package org.infinispan.xsite.statetransfer;
 
+import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.BackupConfiguration;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.XSiteStateTransferConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.CollectionKeyFilter;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -29,9 +33,12 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
@@ -50,12 +57,15 @@
 public class XSiteStateProviderImpl implements XSiteStateProvider {
 
    private static final int DEFAULT_CHUNK_SIZE = 1024;
+   //each pass iterates the whole DataContainer, so more segments per pass is cheaper but a resume re-sends more keys
+   private static final int SEGMENTS_PER_PASS = 16;
    private static final ExecutorService EXECUTOR_SERVICE = new WithinThreadExecutor();
    private static final Log log = LogFactory.getLog(XSiteStateProviderImpl.class);
    private static final boolean trace = log.isTraceEnabled();
    private static final boolean debug = log.isDebugEnabled();
 
    private final ConcurrentMap<String, StateProviderRunnable> runningStateTransfer;
+   private final ConcurrentMap<String, XSiteStatePushProgress> pushProgress;
 
    private DataContainer<Object, Object> dataContainer;
    private PersistenceManager persistenceManager;
@@ -65,9 +75,11 @@ public class XSiteStateProviderImpl implements XSiteStateProvider {
    private ExecutorService executorService;
    private Configuration configuration;
    private XSiteStateTransferManager stateTransferManager;
+   private Cache<Object, Object> cache;
 
    public XSiteStateProviderImpl() {
       runningStateTransfer = CollectionFactory.makeConcurrentMap();
+      pushProgress = CollectionFactory.makeConcurrentMap();
    }
 
    @Inject
@@ -85,50 +97,69 @@ public void inject(DataContainer dataContainer, PersistenceManager persistenceMa
       this.stateTransferManager = stateTransferManager;
    }
 
+   @Inject
+   public void injectCache(Cache<Object, Object> cache) {
+      this.cache = cache;
+   }
+
    @Override
    public void startStateTransfer(String siteName, Address origin) {
-      int chunkSize = 0;
-      long timeout = 0;
-      boolean found = false;
+      startStateTransfer(siteName, origin, false);
+   }
+
+   @Override
+   public void resumeStateTransfer(String siteName, Address origin) {
+      startStateTransfer(siteName, origin, true);
+   }
+
+   @Override
+   public void cancelStateTransfer(String siteName) {
+      StateProviderRunnable runnable = runningStateTransfer.remove(siteName);
+      if (runnable != null) {
+         runnable.canceled.set(true);
+         runnable.progress.finished(XSiteStatePushProgress.Status.CANCELED);
+      }
+   }
+
+   @Override
+   public XSiteStatePushProgress getStatePushProgress(String siteName) {
+      return pushProgress.get(siteName);
+   }
+
+   @Override
+   public Collection<String> getCurrentStateSending() {
+      return new ArrayList<String>(runningStateTransfer.keySet());
+   }
+
+   private void startStateTransfer(String siteName, Address origin, boolean resume) {
+      XSiteStateTransferConfiguration stateTransferConfiguration = null;
       for (BackupConfiguration backupConfiguration : configuration.sites().allBackups()) {
          if (backupConfiguration.site().equals(siteName)) {
-            chunkSize = backupConfiguration.stateTransfer().chunkSize();
-            timeout = backupConfiguration.stateTransfer().timeout();
-            found = true;
+            stateTransferConfiguration = backupConfiguration.stateTransfer();
             break;
          }
       }
 
-      if (!found) {
+      if (stateTransferConfiguration == null) {
          throw new CacheException("Unable to start X-Site State Transfer! Backup configuration not found for " +
                                         siteName + "!");
       }
-      StateProviderRunnable runnable = new StateProviderRunnable(siteName, chunkSize, timeout, origin);
+      StateProviderRunnable runnable = new StateProviderRunnable(siteName, stateTransferConfiguration, origin,
+                                                                 resume ? pushProgress.get(siteName) : null);
       if (runningStateTransfer.putIfAbsent(siteName, runnable) == null) {
          if (debug) {
-            log.debugf("Starting state transfer to site '%s'", siteName);
+            log.debugf("Starting state transfer to site '%s'. Resume=%s", siteName, resume);
          }
+         pushProgress.put(siteName, runnable.progress);
          executorService.execute(runnable);
       } else if (debug) {
          log.debugf("Do not start state transfer to site '%s'. It has already started!", siteName);
       }
    }
 
-   @Override
-   public void cancelStateTransfer(String siteName) {
-      StateProviderRunnable runnable = runningStateTransfer.remove(siteName);
-      if (runnable != null) {
-         runnable.canceled.set(true);
-      }
-   }
-
-   @Override
-   public Collection<String> getCurrentStateSending() {
-      return new ArrayList<String>(runningStateTransfer.keySet());
-   }
-
-   private void notifyStateTransferEnd(final String siteName, final Address origin) {
-      runningStateTransfer.remove(siteName);
+   private void notifyStateTransferEnd(StateProviderRunnable runnable, final Address origin) {
+      final String siteName = runnable.xSiteBackup.getSiteName();
+      runningStateTransfer.remove(siteName, runnable);
       if (rpcManager.getAddress().equals(origin)) {
          executorService.submit(new Callable<Void>() {
             @Override
@@ -151,22 +182,18 @@ private boolean shouldSendKey(Object key) {
       return clusteringDependentLogic.localNodeIsPrimaryOwner(key);
    }
 
-   private void sendFromSharedBuffer(XSiteBackup xSiteBackup, List<XSiteState> sharedBuffer,
-                                     Collection<BackupResponse> responses) throws Exception {
-      if (sharedBuffer.size() == 0) {
-         return;
+   private Set<Integer> primarySegments(ConsistentHash consistentHash) {
+      if (consistentHash == null) {
+         //no segments, all the keys are in segment 0 (see SegmentKeyFilter)
+         return Collections.singleton(0);
       }
-      XSiteState[] privateBuffer = sharedBuffer.toArray(new XSiteState[sharedBuffer.size()]);
-
-      if (debug) {
-         log.debugf("Sending chunk to site '%s'. Chunk has %s keys.", xSiteBackup.getSiteName(), privateBuffer.length);
-      } else if (trace) {
-         log.debugf("Sending chunk to site '%s'. Chunk contains %s", xSiteBackup.getSiteName(),
-                    Arrays.toString(privateBuffer));
+      Set<Integer> segments = new HashSet<Integer>();
+      for (int segment = 0; segment < consistentHash.getNumSegments(); segment++) {
+         if (rpcManager.getAddress().equals(consistentHash.locatePrimaryOwnerForSegment(segment))) {
+            segments.add(segment);
+         }
       }
-
-      XSiteStatePushCommand command = commandsFactory.buildXSiteStatePushCommand(privateBuffer);
-      responses.add(invokeRemotelyInRemoteSite(command, xSiteBackup));
+      return segments;
    }
 
    private BackupResponse invokeRemotelyInRemoteSite(XSiteReplicateCommand command, XSiteBackup xSiteBackup) throws Exception {
@@ -177,160 +204,205 @@ private class StateProviderRunnable implements Runnable {
 
       private final XSiteBackup xSiteBackup;
       private final int chunkSize;
+      private final int maxInFlightChunks;
       private final Address origin;
+      private final XSiteStatePushProgress progress;
+      private final XSiteStatePushProgress resumeFrom;
       private final AtomicBoolean canceled;
+      private final List<XSiteState> chunk;
+      private final Queue<BackupResponse> inFlightChunks;
 
-      private StateProviderRunnable(String siteName, int chunkSize, long timeout, Address origin) {
-         this.chunkSize = chunkSize;
+      private StateProviderRunnable(String siteName, XSiteStateTransferConfiguration configuration, Address origin,
+                                    XSiteStatePushProgress resumeFrom) {
+         this.chunkSize = configuration.chunkSize();
+         this.maxInFlightChunks = configuration.maxInFlightChunks();
          this.origin = origin;
-         this.xSiteBackup = new XSiteBackup(siteName, true, timeout);
+         this.progress = new XSiteStatePushProgress();
+         this.resumeFrom = resumeFrom;
+         this.xSiteBackup = new XSiteBackup(siteName, true, configuration.timeout());
          this.canceled = new AtomicBoolean(false);
+         this.chunk = new ArrayList<XSiteState>(chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize);
+         this.inFlightChunks = new LinkedList<BackupResponse>();
       }
 
       @Override
       public void run() {
+         XSiteStatePushProgress.Status status = XSiteStatePushProgress.Status.FAILED;
          try {
-            final List<XSiteState> chunk = new ArrayList<XSiteState>(chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize);
-            final Queue<BackupResponse> backupResponseQueue = new LinkedList<BackupResponse>();
-
+            ConsistentHash consistentHash = PersistenceUtil.getReadConsistentHash(cache);
+            List<Integer> segments = progress.start(primarySegments(consistentHash), resumeFrom);
             if (debug) {
-               log.debugf("[X-Site State Transfer - %s] start DataContainer iteration", xSiteBackup.getSiteName());
+               log.debugf("[X-Site State Transfer - %s] sending %s segments. Progress is %s", xSiteBackup.getSiteName(),
+                          segments.size(), progress);
             }
-
-            for (InternalCacheEntry ice : dataContainer) {
-               if (canceled.get()) {
+            for (int i = 0; i < segments.size(); i += SEGMENTS_PER_PASS) {
+               Set<Integer> pass = new HashSet<Integer>(segments.subList(i, Math.min(segments.size(),
+                                                                                    i + SEGMENTS_PER_PASS)));
+               if (!sendSegments(consistentHash, pass)) {
                   return;
                }
-               if (chunkSize > 0 && chunk.size() == chunkSize) {
-                  try {
-                     sendFromSharedBuffer(xSiteBackup, chunk, backupResponseQueue);
-                  } catch (Exception e) {
-                     log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
-                     return;
-                  }
-                  chunk.clear();
-               }
-               if (shouldSendKey(ice.getKey())) {
-                  chunk.add(XSiteState.fromDataContainer(ice));
-               }
+               progress.segmentsCompleted(pass);
             }
-
+            status = XSiteStatePushProgress.Status.FINISHED;
+         } finally {
             if (canceled.get()) {
-               return;
+               status = XSiteStatePushProgress.Status.CANCELED;
             }
-            if (chunk.size() > 0) {
-               try {
-                  sendFromSharedBuffer(xSiteBackup, chunk, backupResponseQueue);
-               } catch (Exception e) {
-                  log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
-                  return;
+            progress.finished(status);
+            if (status == XSiteStatePushProgress.Status.CANCELED) {
+               //the canceller already ended the state transfer and a new one may have started
+               runningStateTransfer.remove(xSiteBackup.getSiteName(), this);
+            } else {
+               notifyStateTransferEnd(this, origin);
+            }
+         }
+      }
+
+      /**
+       * Sends the keys of the segments stored in the DataContainer and in the persistence and waits until they are
+       * applied in the remote site.
+       *
+       * @return {@code false} if the state transfer is canceled or failed.
+       */
+      private boolean sendSegments(ConsistentHash consistentHash, Set<Integer> segments) {
+         if (debug) {
+            log.debugf("[X-Site State Transfer - %s] start DataContainer iteration for segments %s",
+                       xSiteBackup.getSiteName(), segments);
+         }
+         try {
+            for (InternalCacheEntry ice : dataContainer) {
+               if (canceled.get()) {
+                  return false;
+               }
+               Object key = ice.getKey();
+               if (segments.contains(consistentHash == null ? 0 : consistentHash.getSegment(key)) &&
+                     shouldSendKey(key)) {
+                  addToChunk(XSiteState.fromDataContainer(ice));
                }
             }
+            if (!canceled.get()) {
+               sendChunk();
+            }
+         } catch (Exception e) {
+            log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
+            return false;
+         }
 
+         @SuppressWarnings("unchecked")
+         AdvancedCacheLoader<Object, Object> stProvider = persistenceManager.getStateTransferProvider();
+         if (stProvider != null && !canceled.get()) {
             if (debug) {
-               log.debugf("[X-Site State Transfer - %s] finish DataContainer iteration", xSiteBackup.getSiteName());
+               log.debugf("[X-Site State Transfer - %s] start Persistence iteration", xSiteBackup.getSiteName());
             }
-
-            @SuppressWarnings("unchecked")
-            AdvancedCacheLoader<Object, Object> stProvider = persistenceManager.getStateTransferProvider();
-            if (stProvider != null) {
-               if (debug) {
-                  log.debugf("[X-Site State Transfer - %s] start Persistence iteration", xSiteBackup.getSiteName());
-               }
-               KeyFilter<Object> filter = new CacheLoaderFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
-               StateTransferCacheLoaderTask task = new StateTransferCacheLoaderTask(xSiteBackup, chunk, chunkSize,
-                                                                                    backupResponseQueue, canceled);
-               try {
-                  stProvider.process(filter, task, EXECUTOR_SERVICE, true, true);
-                  if (canceled.get()) {
-                     return;
-                  }
-                  task.sendRemainingState();
-               } catch (CacheException e) {
-                  log.failedLoadingKeysFromCacheStore(e);
-               } catch (Exception e) {
-                  log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
+            KeyFilter<Object> filter = new CacheLoaderFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
+            StateTransferCacheLoaderTask task = new StateTransferCacheLoaderTask();
+            try {
+               PersistenceUtil.processSegments(stProvider, consistentHash, segments, filter, task, EXECUTOR_SERVICE,
+                                               true, true);
+               if (task.failed) {
+                  return false;
                }
-               if (debug) {
-                  log.debugf("[X-Site State Transfer - %s] finish Persistence iteration", xSiteBackup.getSiteName());
+               if (!canceled.get()) {
+                  sendChunk();
                }
-            } else if (debug) {
-               log.debugf("[X-Site State Transfer - %s] skip Persistence iteration", xSiteBackup.getSiteName());
+            } catch (CacheException e) {
+               log.failedLoadingKeysFromCacheStore(e);
+               return false;
+            } catch (Exception e) {
+               log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
+               return false;
             }
+         }
 
-            BackupResponse response = backupResponseQueue.poll();
-            while (response != null) {
-               if (canceled.get()) {
-                  return;
-               }
-               try {
-                  response.waitForBackupToFinish();
-               } catch (Exception e) {
-                  log.unableToWaitForXSiteStateAcks(xSiteBackup.getSiteName(), e);
-                  return;
-               }
-               response = backupResponseQueue.poll();
+         while (!inFlightChunks.isEmpty()) {
+            if (canceled.get()) {
+               return false;
+            }
+            try {
+               awaitOldestChunk();
+            } catch (Exception e) {
+               log.unableToWaitForXSiteStateAcks(xSiteBackup.getSiteName(), e);
+               return false;
             }
-         } finally {
-            notifyStateTransferEnd(xSiteBackup.getSiteName(), origin);
          }
+         return !canceled.get();
       }
 
-   }
+      private void addToChunk(XSiteState state) throws Exception {
+         chunk.add(state);
+         if (chunkSize > 0 && chunk.size() == chunkSize) {
+            sendChunk();
+         }
+      }
 
-   private class CacheLoaderFilter extends CollectionKeyFilter {
+      /**
+       * Sends the keys in the chunk, after waiting for the oldest chunk if {@code maxInFlightChunks} are already
+       * waiting to be applied in the remote site.
+       */
+      private void sendChunk() throws Exception {
+         if (chunk.isEmpty()) {
+            return;
+         }
+         while (maxInFlightChunks > 0 && inFlightChunks.size() >= maxInFlightChunks) {
+            awaitOldestChunk();
+         }
+         XSiteState[] privateBuffer = chunk.toArray(new XSiteState[chunk.size()]);
+         chunk.clear();
 
-      public CacheLoaderFilter(Collection rejectedKeys) {
-         super(rejectedKeys);
-      }
+         if (debug) {
+            log.debugf("Sending chunk to site '%s'. Chunk has %s keys.", xSiteBackup.getSiteName(), privateBuffer.length);
+         } else if (trace) {
+            log.debugf("Sending chunk to site '%s'. Chunk contains %s", xSiteBackup.getSiteName(),
+                       Arrays.toString(privateBuffer));
+         }
 
-      @Override
-      public boolean shouldLoadKey(Object key) {
-         return shouldSendKey(key) && super.shouldLoadKey(key);
+         XSiteStatePushCommand command = commandsFactory.buildXSiteStatePushCommand(privateBuffer);
+         inFlightChunks.add(invokeRemotelyInRemoteSite(command, xSiteBackup));
+         progress.chunkSent(privateBuffer.length);
       }
-   }
 
-   private class StateTransferCacheLoaderTask implements CacheLoaderTask<Object, Object> {
+      private void awaitOldestChunk() throws Exception {
+         BackupResponse response = inFlightChunks.remove();
+         response.waitForBackupToFinish();
+         Map<String, Throwable> failedBackups = response.getFailedBackups();
+         if (failedBackups != null && !failedBackups.isEmpty()) {
+            throw new CacheException(failedBackups.get(xSiteBackup.getSiteName()));
+         }
+      }
 
-      private final List<XSiteState> chunk;
-      private final XSiteBackup xSiteBackup;
-      private final Collection<BackupResponse> responses;
-      private final AtomicBoolean canceled;
-      private final int chunkSize;
+      private class StateTransferCacheLoaderTask implements CacheLoaderTask<Object, Object> {
 
-      private StateTransferCacheLoaderTask(XSiteBackup xSiteBackup, List<XSiteState> chunk, int chunkSize,
-                                           Collection<BackupResponse> responses, AtomicBoolean canceled) {
-         this.xSiteBackup = xSiteBackup;
-         this.chunk = chunk;
-         this.chunkSize = chunkSize;
-         this.responses = responses;
-         this.canceled = canceled;
-      }
+         private volatile boolean failed;
 
-      @Override
-      public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, TaskContext taskContext)
-            throws InterruptedException {
-         if (canceled.get()) {
-            taskContext.stop();
-            return;
-         }
-         if (chunkSize > 0 && chunk.size() == chunkSize) {
+         @Override
+         public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, TaskContext taskContext)
+               throws InterruptedException {
+            if (canceled.get() || failed) {
+               taskContext.stop();
+               return;
+            }
             try {
-               sendFromSharedBuffer(xSiteBackup, chunk, responses);
+               addToChunk(XSiteState.fromCacheLoader(marshalledEntry));
+            } catch (InterruptedException e) {
+               throw e;
             } catch (Exception e) {
                log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
+               failed = true;
                taskContext.stop();
             }
-            chunk.clear();
          }
+      }
+   }
 
-         chunk.add(XSiteState.fromCacheLoader(marshalledEntry));
+   private class CacheLoaderFilter extends CollectionKeyFilter {
+
+      public CacheLoaderFilter(Collection rejectedKeys) {
+         super(rejectedKeys);
       }
 
-      public void sendRemainingState() throws Exception {
-         if (chunk.size() > 0) {
-            sendFromSharedBuffer(xSiteBackup, chunk, responses);
-         }
+      @Override
+      public boolean shouldLoadKey(Object key) {
+         return shouldSendKey(key) && super.shouldLoadKey(key);
       }
    }
 }
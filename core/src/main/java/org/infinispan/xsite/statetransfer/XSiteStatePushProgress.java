@@ -0,0 +1,98 @@
+package org.infinispan.xsite.statetransfer;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of the state pushed by this node to a remote site. The segments are marked completed after all its keys
+ * were applied by the remote site, so a push canceled or failed can be resumed from the segments not completed.
+ *
+ * @since 7.0
+ */
+@ThreadSafe
+public class XSiteStatePushProgress {
+
+   public static enum Status {
+      RUNNING, FINISHED, CANCELED, FAILED
+   }
+
+   private final Set<Integer> completedSegments = new HashSet<Integer>();
+   private final AtomicLong keysSent = new AtomicLong();
+   private final AtomicLong chunksSent = new AtomicLong();
+   private volatile int totalSegments;
+   private volatile Status status = Status.RUNNING;
+
+   /**
+    * Starts the push of the given segments.
+    *
+    * @param segments   the segments owned by this node.
+    * @param resumeFrom if not {@code null}, the progress of a previous push to the same site. The segments it completed
+    *                   are not sent again.
+    * @return the segments to send, in ascending order.
+    */
+   public synchronized List<Integer> start(Collection<Integer> segments, XSiteStatePushProgress resumeFrom) {
+      if (resumeFrom != null) {
+         synchronized (resumeFrom) {
+            completedSegments.addAll(resumeFrom.completedSegments);
+         }
+         keysSent.set(resumeFrom.getKeysSent());
+         chunksSent.set(resumeFrom.getChunksSent());
+         completedSegments.retainAll(segments);
+      }
+      totalSegments = segments.size();
+      List<Integer> pending = new ArrayList<Integer>(segments.size());
+      for (Integer segment : segments) {
+         if (!completedSegments.contains(segment)) {
+            pending.add(segment);
+         }
+      }
+      Collections.sort(pending);
+      return pending;
+   }
+
+   public void chunkSent(int keys) {
+      keysSent.addAndGet(keys);
+      chunksSent.incrementAndGet();
+   }
+
+   public synchronized void segmentsCompleted(Collection<Integer> segments) {
+      completedSegments.addAll(segments);
+   }
+
+   public void finished(Status status) {
+      this.status = status;
+   }
+
+   public Status getStatus() {
+      return status;
+   }
+
+   public synchronized int getCompletedSegments() {
+      return completedSegments.size();
+   }
+
+   public int getTotalSegments() {
+      return totalSegments;
+   }
+
+   public long getKeysSent() {
+      return keysSent.get();
+   }
+
+   public long getChunksSent() {
+      return chunksSent.get();
+   }
+
+   @Override
+   public String toString() {
+      return status + ": " + getCompletedSegments() + "/" + totalSegments + " segments, " + keysSent.get() +
+            " keys sent in " + chunksSent.get() + " chunks";
+   }
+}
@@ -65,6 +65,9 @@ public Object perform(InvocationContext ctx) throws Throwable {
          case CANCEL_SEND:
             provider.cancelStateTransfer(siteName);
             break;
+         case RESUME_SEND:
+            provider.resumeStateTransfer(siteName, getOrigin());
+            break;
       }
       return null;
    }
@@ -99,6 +102,7 @@ public static enum StateTransferControl {
       START_RECEIVE,
       FINISH_SEND,
       FINISH_RECEIVE,
-      CANCEL_SEND
+      CANCEL_SEND,
+      RESUME_SEND
    }
 }
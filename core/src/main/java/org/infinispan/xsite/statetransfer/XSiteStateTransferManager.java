@@ -29,6 +29,24 @@ public interface XSiteStateTransferManager {
     */
    public void startPushState(String siteName) throws Throwable;
 
+   /**
+    * It notifies all nodes from local site to resume the state transfer to the remote site, skipping the segments each
+    * node already sent in the previous state transfer.
+    *
+    * @param siteName the remote site name
+    * @throws Throwable If some unexpected behavior occurs.
+    */
+   public void resumePushState(String siteName) throws Throwable;
+
+   /**
+    * It cancels the state transfer to the remote site in all nodes from local site. The state transfer can be resumed
+    * later with {@link #resumePushState(String)}.
+    *
+    * @param siteName the remote site name
+    * @throws Throwable If some unexpected behavior occurs.
+    */
+   public void cancelPushState(String siteName) throws Throwable;
+
    /**
     * @return a list of site names in which this cache is pushing state.
     */
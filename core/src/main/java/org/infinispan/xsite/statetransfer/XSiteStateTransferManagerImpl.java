@@ -78,6 +78,27 @@ public void notifyStatePushFinished(String siteName, Address node) throws Throwa
 
    @Override
    public final void startPushState(String siteName) throws Throwable {
+      pushState(siteName, StateTransferControl.START_SEND);
+   }
+
+   @Override
+   public final void resumePushState(String siteName) throws Throwable {
+      pushState(siteName, StateTransferControl.RESUME_SEND);
+   }
+
+   @Override
+   public void cancelPushState(String siteName) throws Throwable {
+      final XSiteBackup xSiteBackup = findSite(siteName);
+      if (xSiteBackup == null) {
+         throw new IllegalArgumentException("Site " + siteName + " not found!");
+      }
+      if (!siteCollector.containsKey(siteName)) {
+         throw new Exception(format("X-Site state transfer to '%s' is not running!", siteName));
+      }
+      handleFailure(xSiteBackup);
+   }
+
+   private void pushState(String siteName, StateTransferControl control) throws Throwable {
       //check site name first
       if (siteName == null) {
          throw new NullPointerException("Site name cannot be null!");
@@ -93,7 +114,7 @@ public final void startPushState(String siteName) throws Throwable {
 
       try {
          controlStateTransferOnRemoteSite(xSiteBackup, StateTransferControl.START_RECEIVE);
-         controlStateTransferOnLocalSite(StateTransferControl.START_SEND, siteName);
+         controlStateTransferOnLocalSite(control, siteName);
       } catch (Throwable throwable) {
          handleFailure(xSiteBackup);
          throw new Exception(throwable);
@@ -106,6 +127,8 @@ public List<String> getRunningStateTransfers() {
    }
 
    private void handleFailure(XSiteBackup xSiteBackup) {
+      //the canceled nodes do not notify the end of the state transfer
+      siteCollector.remove(xSiteBackup.getSiteName());
       try {
          controlStateTransferOnLocalSite(StateTransferControl.CANCEL_SEND, xSiteBackup.getSiteName());
       } catch (Exception e) {
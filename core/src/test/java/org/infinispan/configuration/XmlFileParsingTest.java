@@ -508,6 +508,9 @@ private void assertNamedCacheFile(EmbeddedCacheManager cm, boolean deprecated) {
       assertTrue(c.clustering().stateTransfer().fetchInMemoryState());
       assertEquals(120000, c.clustering().stateTransfer().timeout());
       assertEquals(1000, c.clustering().stateTransfer().chunkSize());
+      assertEquals(1048576, c.clustering().stateTransfer().chunkSizeBytes());
+      assertEquals(4, c.clustering().stateTransfer().maxInFlightChunks());
+      assertTrue(c.clustering().stateTransfer().compression());
 
       c = cm.getCacheConfiguration("cacheWithCustomInterceptors");
       assertTrue(!c.customInterceptors().interceptors().isEmpty());
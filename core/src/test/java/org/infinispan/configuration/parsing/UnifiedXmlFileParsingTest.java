@@ -255,6 +255,9 @@ public void call() {
             assertEquals(BackupConfiguration.BackupStrategy.SYNC, backup.strategy());
             assertEquals(12500, backup.replicationTimeout());
             assertFalse(backup.enabled());
+            assertEquals(600, backup.stateTransfer().chunkSize());
+            assertEquals(2400000, backup.stateTransfer().timeout());
+            assertEquals(8, backup.stateTransfer().maxInFlightChunks());
             backup = c.sites().allBackups().get(1);
             assertEquals("SFO", backup.site());
             assertEquals(BackupFailurePolicy.IGNORE, backup.backupFailurePolicy());
@@ -0,0 +1,178 @@
+package org.infinispan.container;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that {@link DefaultDataContainer#purgeExpiredEntries()} finds the expired entries through its {@link ExpirationIndex}.
+ *
+ * @since 7.0
+ */
+@Test(groups = "unit", testName = "container.ExpirationIndexTest")
+public class ExpirationIndexTest extends AbstractInfinispanTest {
+
+   private ControlledTimeService timeService;
+   private DefaultDataContainer<Object, Object> dc;
+
+   @BeforeMethod
+   public void setUp() {
+      timeService = new ControlledTimeService();
+      dc = new DefaultDataContainer<Object, Object>(16, AnyEquivalence.getInstance());
+      InternalEntryFactoryImpl entryFactory = new InternalEntryFactoryImpl();
+      entryFactory.injectTimeService(timeService);
+      dc.initialize(null, mock(PassivationManager.class), entryFactory, mock(ActivationManager.class), null, timeService);
+   }
+
+   public void testOnlyDueEntriesArePurged() {
+      for (int i = 0; i < 100; i++) {
+         dc.put("immortal" + i, "v", new EmbeddedMetadata.Builder().build());
+      }
+      dc.put("k1", "v", lifespan(1));
+      dc.put("k5", "v", lifespan(5));
+      dc.put("k60", "v", lifespan(60));
+
+      assertEquals(0, dc.purgeExpiredEntries());
+
+      timeService.advance(2000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertNull(dc.peek("k1"));
+      assertEquals(102, dc.size());
+
+      timeService.advance(10000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertNull(dc.peek("k5"));
+      assertNotNull(dc.peek("k60"));
+      assertEquals(101, dc.size());
+   }
+
+   public void testTouchedEntryIsIndexedAgain() {
+      dc.put("k", "v", maxIdle(2));
+
+      timeService.advance(1000);
+      assertNotNull(dc.get("k"));
+      timeService.advance(1000);
+      assertEquals(0, dc.purgeExpiredEntries());
+      assertNotNull(dc.peek("k"));
+
+      timeService.advance(2000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertNull(dc.peek("k"));
+   }
+
+   public void testUpdatedEntries() {
+      dc.put("immortal", "v", lifespan(1));
+      dc.put("immortal", "v2", new EmbeddedMetadata.Builder().build());
+      dc.put("longer", "v", lifespan(1));
+      dc.put("longer", "v2", lifespan(10));
+      dc.put("shorter", "v", lifespan(10));
+      dc.put("shorter", "v2", lifespan(1));
+
+      timeService.advance(2000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertNull(dc.peek("shorter"));
+      assertEquals("v2", dc.peek("immortal").getValue());
+      assertEquals("v2", dc.peek("longer").getValue());
+
+      timeService.advance(10000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertNull(dc.peek("longer"));
+      assertNotNull(dc.peek("immortal"));
+   }
+
+   public void testComputedAndRemovedEntries() {
+      dc.put("removed", "v", lifespan(1));
+      dc.remove("removed");
+      dc.compute("computed", new DataContainer.ComputeAction<Object, Object>() {
+         @Override
+         public InternalCacheEntry<Object, Object> compute(Object key, InternalCacheEntry<Object, Object> oldEntry,
+                                                           InternalEntryFactory factory) {
+            return factory.create(key, "v", lifespan(1));
+         }
+      });
+
+      timeService.advance(2000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertEquals(0, dc.size());
+   }
+
+   public void testIndexOnlyHoldsExpirableEntries() {
+      dc.put("removed", "v", lifespan(1));
+      dc.put("evicted", "v", lifespan(1));
+      dc.put("immortal", "v", lifespan(1));
+      dc.put("moved", "v", lifespan(1));
+      dc.put("moved", "v", lifespan(10));
+      dc.compute("computed", new DataContainer.ComputeAction<Object, Object>() {
+         @Override
+         public InternalCacheEntry<Object, Object> compute(Object key, InternalCacheEntry<Object, Object> oldEntry,
+                                                           InternalEntryFactory factory) {
+            return factory.create(key, "v", lifespan(1));
+         }
+      });
+      assertEquals(5, index().size());
+
+      dc.remove("removed");
+      dc.evict("evicted");
+      dc.put("immortal", "v2", new EmbeddedMetadata.Builder().build());
+      dc.compute("computed", new DataContainer.ComputeAction<Object, Object>() {
+         @Override
+         public InternalCacheEntry<Object, Object> compute(Object key, InternalCacheEntry<Object, Object> oldEntry,
+                                                           InternalEntryFactory factory) {
+            return null;
+         }
+      });
+      assertEquals(1, index().size());
+
+      timeService.advance(2000);
+      assertEquals(0, dc.purgeExpiredEntries());
+      assertEquals(1, index().size());
+      timeService.advance(10000);
+      assertEquals(1, dc.purgeExpiredEntries());
+      assertEquals(0, index().size());
+   }
+
+   public void testKeysAreMovedBetweenBuckets() {
+      ExpirationIndex<Object> index = new ExpirationIndex<Object>(AnyEquivalence.getInstance(), 1000);
+      index.add("k", 1500);
+      index.add("k", 5500);
+      assertEquals(1, index.size());
+      assertEquals(0, index.pollDue(2000).size());
+      assertEquals(1, index.size());
+      assertEquals(1, index.pollDue(6000).size());
+      assertEquals(0, index.size());
+
+      index.add("k", 1500);
+      index.remove("k");
+      assertEquals(0, index.size());
+      assertEquals(0, index.pollDue(2000).size());
+      assertNull(index.pollDue(2000));
+   }
+
+   @SuppressWarnings("unchecked")
+   private ExpirationIndex<Object> index() {
+      return (ExpirationIndex<Object>) TestingUtil.extractField(dc, "expirationIndex");
+   }
+
+   private static Metadata lifespan(long seconds) {
+      return new EmbeddedMetadata.Builder().lifespan(seconds, TimeUnit.SECONDS).build();
+   }
+
+   private static Metadata maxIdle(long seconds) {
+      return new EmbeddedMetadata.Builder().maxIdle(seconds, TimeUnit.SECONDS).build();
+   }
+}
@@ -0,0 +1,132 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests caches storing their entries with the {@link OffHeapDataContainer}.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapDataContainerFunctionalTest")
+public class OffHeapDataContainerFunctionalTest extends SingleCacheManagerTest {
+
+   private static final int MAX_ENTRIES = 100;
+   private static final long MAX_SIZE = 64 * 1024;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.dataContainer().offHeap(true);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      builder.eviction().strategy(EvictionStrategy.LRU).maxEntries(MAX_ENTRIES);
+      cm.defineConfiguration("count", builder.build());
+      builder.eviction().strategy(EvictionStrategy.LIRS).type(EvictionType.MEMORY).size(MAX_SIZE);
+      cm.defineConfiguration("memory", builder.build());
+      return cm;
+   }
+
+   public void testContainerType() {
+      assertTrue(cache.getAdvancedCache().getDataContainer() instanceof OffHeapDataContainer);
+   }
+
+   public void testPutGetRemove() {
+      for (int i = 0; i < 5000; i++) {
+         cache.put("key-" + i, "value-" + i);
+      }
+      assertEquals(5000, cache.size());
+      for (int i = 0; i < 5000; i++) {
+         assertEquals("value-" + i, cache.get("key-" + i));
+      }
+      assertEquals("value-1", cache.put("key-1", "other"));
+      assertEquals("other", cache.get("key-1"));
+      assertEquals("other", cache.remove("key-1"));
+      assertNull(cache.get("key-1"));
+      assertFalse(cache.containsKey("key-1"));
+      assertTrue(cache.containsKey("key-2"));
+
+      Set<Object> keys = new HashSet<Object>(cache.keySet());
+      assertEquals(4999, keys.size());
+      assertTrue(keys.contains("key-4999"));
+      assertTrue(cache.values().contains("value-4999"));
+
+      cache.clear();
+      assertEquals(0, cache.size());
+      assertEquals(0, ((OffHeapDataContainer) cache.getAdvancedCache().getDataContainer()).memoryUsed());
+   }
+
+   public void testByteArrayKeys() {
+      Cache<byte[], byte[]> cache = cacheManager.getCache();
+      cache.put(new byte[]{1, 2, 3}, new byte[]{4, 5, 6});
+      assertEquals(6, cache.get(new byte[]{1, 2, 3})[2]);
+      assertNull(cache.get(new byte[]{1, 2, 4}));
+   }
+
+   public void testExpiration() {
+      cache.put("mortal", "value", 50, TimeUnit.MILLISECONDS);
+      cache.put("transient", "value", -1, TimeUnit.MILLISECONDS, 50, TimeUnit.MILLISECONDS);
+      cache.put("immortal", "value");
+      assertEquals("value", cache.get("mortal"));
+      assertEquals("value", cache.get("transient"));
+      TestingUtil.sleepThread(100);
+      assertNull(cache.get("mortal"));
+      assertNull(cache.get("transient"));
+      assertEquals("value", cache.get("immortal"));
+
+      cache.put("mortal", "value", 50, TimeUnit.MILLISECONDS);
+      TestingUtil.sleepThread(100);
+      cache.getAdvancedCache().getDataContainer().purgeExpired();
+      assertEquals(1, cache.getAdvancedCache().getDataContainer().size());
+   }
+
+   public void testEvictionByCount() {
+      Cache<String, String> cache = cacheManager.getCache("count");
+      for (int i = 0; i < MAX_ENTRIES * 10; i++) {
+         cache.put("key-" + i, "value-" + i);
+         if (i % 10 == 0) {
+            // keep this one recently used
+            assertEquals("value-0", cache.get("key-0"));
+         }
+      }
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertTrue(dataContainer.size() <= MAX_ENTRIES);
+      assertEquals("value-0", cache.get("key-0"));
+      assertEquals("value-" + (MAX_ENTRIES * 10 - 1), cache.get("key-" + (MAX_ENTRIES * 10 - 1)));
+      assertNull(cache.get("key-1"));
+   }
+
+   public void testEvictionBySize() {
+      Cache<String, byte[]> cache = cacheManager.getCache("memory");
+      OffHeapDataContainer dataContainer = (OffHeapDataContainer) cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < 1000; i++) {
+         cache.put("key-" + i, new byte[1024]);
+      }
+      assertTrue("Container too big: " + dataContainer.memoryUsed(), dataContainer.memoryUsed() <= MAX_SIZE);
+      assertTrue(dataContainer.size() < 1000);
+      assertEquals(1024, cache.get("key-999").length);
+
+      int entries = dataContainer.size();
+      for (int i = 0; i < 1000; i++) {
+         cache.put("key-" + i, new byte[4096]);
+      }
+      assertTrue("Container too big: " + dataContainer.memoryUsed(), dataContainer.memoryUsed() <= MAX_SIZE);
+      assertTrue(dataContainer.size() < entries);
+   }
+}
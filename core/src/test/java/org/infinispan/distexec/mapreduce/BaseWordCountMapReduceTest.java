@@ -15,6 +15,7 @@
 import java.util.Map.Entry;
 import java.util.StringTokenizer;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -202,6 +203,27 @@ public void testCombinerDoesNotChangeResult() throws Exception {
       AssertJUnit.assertEquals(mapReduce2.get("RedHat"), mapReduce.get("RedHat"));
    }
    
+   public void testCombinerWithSmallCollector() throws Exception {
+      MapReduceTask<String,String,String,Integer> task = invokeMapReduce(null, true);
+      // combine and spill the intermediate values while mapping
+      task.setMaxCollectorSize(4);
+      assertEquals(-1, task.getMapPhaseDuration(TimeUnit.NANOSECONDS));
+      Map<String, Integer> mapReduce = task.execute();
+      verifyResults(mapReduce);
+      assertTrue(task.getMapPhaseDuration(TimeUnit.NANOSECONDS) >= 0);
+      assertTrue(task.getReducePhaseDuration(TimeUnit.NANOSECONDS) >= 0);
+      assertEquals(mapReduce.size(), task.getIntermediateKeyCount());
+   }
+
+   public void testSmallCollectorWithoutCombiner() throws Exception {
+      MapReduceTask<String,String,String,Integer> task = invokeMapReduce(null, false);
+      // spill the intermediate values while mapping, and on the master if the reduce phase is not distributed
+      task.setMaxCollectorSize(4);
+      Map<String, Integer> mapReduce = task.execute();
+      verifyResults(mapReduce);
+      assertEquals(mapReduce.size(), task.getIntermediateKeyCount());
+   }
+
    /**
     * Tests isolation as mapper and reducer get invoked across the cluster
     * https://issues.jboss.org/browse/ISPN-1041
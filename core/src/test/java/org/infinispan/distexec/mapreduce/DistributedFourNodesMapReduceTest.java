@@ -4,6 +4,11 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.testng.annotations.Test;
 
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
 
 /**
  * DistributedFourNodesMapReduceTest tests Map/Reduce functionality using four Infinispan nodes,
@@ -27,4 +32,12 @@ protected MapReduceTask<String, String, String, Integer> createMapReduceTask(Cac
       //run distributed reduce with per task cache
       return new MapReduceTask<String, String, String, Integer>(c, true, false);
    }
+
+   public void testBytesShuffled() throws Exception {
+      MapReduceTask<String, String, String, Integer> task = invokeMapReduce(null);
+      assertEquals(-1, task.getBytesShuffled());
+      Map<String, Integer> mapReduce = task.execute();
+      verifyResults(mapReduce);
+      assertTrue(task.getBytesShuffled() > 0);
+   }
 }
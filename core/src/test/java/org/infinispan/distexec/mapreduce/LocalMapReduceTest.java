@@ -7,6 +7,8 @@
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.Test;
 
+import static org.testng.AssertJUnit.assertEquals;
+
 /**
  * ReplicatedFourNodesMapReduceTest tests Map/Reduce functionality using four Infinispan nodes,
  * replicated reduce and individual per task intermediate key/value cache
@@ -58,6 +60,14 @@ public void testInvokeMapReduceOnAllKeysWithResultCache() throws Exception {
       }
    }
 
+   @Override
+   public void testBytesShuffled() throws Exception {
+      MapReduceTask<String, String, String, Integer> task = invokeMapReduce(null);
+      verifyResults(task.execute());
+      // the reduce phase is never distributed in a local cache
+      assertEquals(-1, task.getBytesShuffled());
+   }
+
    @Override
    /**
     * Method is overridden so that there is 1 cache for what the test may think are different managers
@@ -0,0 +1,187 @@
+package org.infinispan.distexec.mapreduce;
+
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that {@link SpillingCollector} spills the collected values past the threshold and merges them back.
+ *
+ * @since 7.0
+ */
+@Test(groups = "unit", testName = "distexec.mapreduce.SpillingCollectorTest")
+public class SpillingCollectorTest extends AbstractInfinispanTest {
+
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterClass
+   public void tearDown() {
+      marshaller.stop();
+   }
+
+   public void testValuesBelowThresholdAreNotSpilled() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 100, false);
+      emit(collector, 10, 5);
+      Map<String, List<Integer>> drained = drain(collector, 10);
+      assertEquals(0, collector.getSpilledRunCount());
+      assertValues(drained, 10, 5);
+   }
+
+   public void testSpillWithoutCombiner() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 16, false);
+      emit(collector, 20, 10);
+      assertTrue(collector.getSpilledRunCount() > 0);
+      assertTrue(runFiles(taskId).length > 0);
+      Map<String, List<Integer>> drained = drain(collector, 20);
+      assertValues(drained, 20, 10);
+      assertEquals(0, runFiles(taskId).length);
+   }
+
+   public void testSpilledRunsAreMerged() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 4, false);
+      emit(collector, 50, 10);
+      // more runs were spilled than MAX_RUNS, but they were merged as they were spilled
+      assertTrue(collector.getSpilledRunCount() > SpillingCollector.MAX_RUNS);
+      assertTrue(runFiles(taskId).length < SpillingCollector.MAX_RUNS);
+      Map<String, List<Integer>> drained = drain(collector, 50);
+      assertValues(drained, 50, 10);
+      assertEquals(0, runFiles(taskId).length);
+   }
+
+   public void testSpillWithCombiner() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 16, true);
+      emit(collector, 40, 10);
+      assertTrue(collector.getSpilledRunCount() > 0);
+      Map<String, List<Integer>> drained = drain(collector, 40);
+      assertEquals(40, drained.size());
+      for (List<Integer> values : drained.values()) {
+         assertEquals(Collections.singletonList(10), values);
+      }
+   }
+
+   public void testCombinedValuesKeptInMemory() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 16, true);
+      // 4 keys combine to 4 values, less than half the threshold
+      emit(collector, 4, 100);
+      assertEquals(0, collector.getSpilledRunCount());
+      Map<String, List<Integer>> drained = drain(collector, 4);
+      for (List<Integer> values : drained.values()) {
+         assertEquals(Collections.singletonList(100), values);
+      }
+   }
+
+   public void testConcurrentEmit() throws Exception {
+      String taskId = UUID.randomUUID().toString();
+      final SpillingCollector<String, Integer> collector = new SpillingCollector<String, Integer>(marshaller, taskId,
+            8, true, false);
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int t = 0; t < 4; t++) {
+         futures.add(fork(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               emit(collector, 30, 5);
+               return null;
+            }
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get();
+      }
+      Map<String, List<Integer>> drained = drain(collector, 30);
+      assertValues(drained, 30, 20);
+      assertEquals(0, runFiles(taskId).length);
+   }
+
+   public void testCloseDeletesRuns() {
+      String taskId = UUID.randomUUID().toString();
+      SpillingCollector<String, Integer> collector = newCollector(taskId, 4, false);
+      emit(collector, 10, 2);
+      assertTrue(runFiles(taskId).length > 0);
+      collector.close();
+      assertEquals(0, runFiles(taskId).length);
+   }
+
+   private SpillingCollector<String, Integer> newCollector(String taskId, int maxCollectorSize, boolean combining) {
+      return new SpillingCollector<String, Integer>(marshaller, taskId, maxCollectorSize, false, combining) {
+         @Override
+         protected Map<String, List<Integer>> combine(Map<String, List<Integer>> values) {
+            Map<String, List<Integer>> combined = new HashMap<String, List<Integer>>();
+            for (Entry<String, List<Integer>> e : values.entrySet()) {
+               int sum = 0;
+               for (Integer value : e.getValue()) {
+                  sum += value;
+               }
+               combined.put(e.getKey(), new ArrayList<Integer>(Collections.singletonList(sum)));
+            }
+            return combined;
+         }
+      };
+   }
+
+   private void emit(SpillingCollector<String, Integer> collector, int keys, int valuesPerKey) {
+      for (int v = 0; v < valuesPerKey; v++) {
+         for (int k = 0; k < keys; k++) {
+            collector.emit("k" + k, 1);
+         }
+      }
+   }
+
+   private Map<String, List<Integer>> drain(SpillingCollector<String, Integer> collector, int expectedKeys) {
+      final Map<String, List<Integer>> drained = new HashMap<String, List<Integer>>();
+      final int[] lastHash = {Integer.MIN_VALUE};
+      int keys = collector.drainTo(new SpillingCollector.ValuesSink<String, Integer>() {
+         @Override
+         public void accept(String key, List<Integer> values) {
+            assertTrue(key.hashCode() >= lastHash[0]);
+            lastHash[0] = key.hashCode();
+            assertEquals(null, drained.put(key, values));
+         }
+      });
+      assertEquals(expectedKeys, keys);
+      assertEquals(expectedKeys, drained.size());
+      return drained;
+   }
+
+   private void assertValues(Map<String, List<Integer>> drained, int keys, int valuesPerKey) {
+      assertEquals(keys, drained.size());
+      for (List<Integer> values : drained.values()) {
+         assertEquals(valuesPerKey, values.size());
+      }
+   }
+
+   private File[] runFiles(final String taskId) {
+      return new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+         @Override
+         public boolean accept(File dir, String name) {
+            return name.startsWith("mapreduce-" + taskId);
+         }
+      });
+   }
+}
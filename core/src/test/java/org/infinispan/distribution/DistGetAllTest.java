@@ -0,0 +1,110 @@
+package org.infinispan.distribution;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link AdvancedCache#getAll(java.util.Set)} on a distributed cache, with keys owned by several nodes.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTest")
+public class DistGetAllTest extends MultipleCacheManagersTest {
+
+   protected boolean tx = false;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, tx);
+      builder.clustering().hash().numOwners(1).l1().disable();
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testGetAllLocalAndRemoteKeys() throws Exception {
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(1));
+      MagicKey k2 = new MagicKey("k2", cache(2));
+      MagicKey k3 = new MagicKey("k3", cache(2));
+      cache(0).put(k0, "v0");
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      cache(0).put(k3, "v3");
+
+      for (int i = 0; i < 3; i++) {
+         Map<Object, Object> map = getAll(advancedCache(i), k0, k1, k2, k3);
+         assertEquals(4, map.size());
+         assertEquals("v0", map.get(k0));
+         assertEquals("v1", map.get(k1));
+         assertEquals("v2", map.get(k2));
+         assertEquals("v3", map.get(k3));
+      }
+   }
+
+   public void testGetAllMissingKeys() throws Exception {
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(1));
+      MagicKey missing = new MagicKey("missing", cache(2));
+      cache(1).put(k0, "v0");
+      cache(1).put(k1, "v1");
+
+      Map<Object, Object> map = getAll(advancedCache(0), k0, k1, missing);
+      assertEquals(2, map.size());
+      assertEquals("v0", map.get(k0));
+      assertEquals("v1", map.get(k1));
+      assertFalse(map.containsKey(missing));
+
+      assertTrue(getAll(advancedCache(0), new MagicKey("other", cache(1))).isEmpty());
+      assertTrue(advancedCache(0).getAll(Collections.emptySet()).isEmpty());
+   }
+
+   public void testGetAllSkipRemoteLookup() throws Exception {
+      MagicKey local = new MagicKey("local", cache(0));
+      MagicKey remote = new MagicKey("remote", cache(1));
+      cache(0).put(local, "v0");
+      cache(0).put(remote, "v1");
+
+      Map<Object, Object> map = getAll(advancedCache(0).withFlags(Flag.SKIP_REMOTE_LOOKUP), local, remote);
+      assertEquals(Collections.singletonMap(local, "v0"), map);
+   }
+
+   public void testGetAllCacheEntries() throws Exception {
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(1));
+      MagicKey missing = new MagicKey("missing", cache(2));
+      cache(0).put(k0, "v0");
+      cache(0).put(k1, "v1");
+
+      Set<Object> keySet = new HashSet<Object>();
+      Collections.addAll(keySet, k0, k1, missing);
+      Map<Object, CacheEntry<Object, Object>> map = this.<Object, Object>advancedCache(0).getAllCacheEntries(keySet);
+      assertEquals(2, map.size());
+      assertEquals(k0, map.get(k0).getKey());
+      assertEquals("v0", map.get(k0).getValue());
+      assertEquals(k1, map.get(k1).getKey());
+      assertEquals("v1", map.get(k1).getValue());
+      assertFalse(map.containsKey(missing));
+   }
+
+   @SuppressWarnings("unchecked")
+   protected Map<Object, Object> getAll(AdvancedCache<?, ?> cache, Object... keys) {
+      Set<Object> keySet = new HashSet<Object>();
+      Collections.addAll(keySet, keys);
+      return ((AdvancedCache<Object, Object>) cache).getAll(keySet);
+   }
+}
@@ -0,0 +1,37 @@
+package org.infinispan.distribution;
+
+import org.testng.annotations.Test;
+
+import javax.transaction.TransactionManager;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTxTest")
+public class DistGetAllTxTest extends DistGetAllTest {
+
+   public DistGetAllTxTest() {
+      tx = true;
+   }
+
+   public void testGetAllSeesOwnWrites() throws Exception {
+      MagicKey k0 = new MagicKey("k0", cache(1));
+      MagicKey k1 = new MagicKey("k1", cache(2));
+      cache(0).put(k0, "v0");
+
+      TransactionManager tm = tm(0);
+      tm.begin();
+      try {
+         cache(0).put(k1, "v1");
+         cache(0).remove(k0);
+         Map<Object, Object> map = getAll(advancedCache(0), k0, k1);
+         assertEquals(Collections.singletonMap(k1, "v1"), map);
+      } finally {
+         tm.rollback();
+      }
+   }
+}
@@ -0,0 +1,77 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests eviction of a cache bounded by the memory taken by its entries.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "eviction.MemoryBasedEvictionFunctionalTest")
+public class MemoryBasedEvictionFunctionalTest extends SingleCacheManagerTest {
+
+   private static final long MAX_SIZE = 256 * 1024;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().type(EvictionType.MEMORY).size(MAX_SIZE);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      cm.defineConfiguration("lru", builder.eviction().strategy(EvictionStrategy.LRU).build());
+      return cm;
+   }
+
+   public void testDefaultsToLirs() {
+      assertEquals(EvictionStrategy.LIRS, cache.getCacheConfiguration().eviction().strategy());
+   }
+
+   public void testLirsEvictionBySize() {
+      evictionBySize(cacheManager.<String, byte[]>getCache());
+   }
+
+   public void testLruEvictionBySize() {
+      evictionBySize(cacheManager.<String, byte[]>getCache("lru"));
+   }
+
+   private void evictionBySize(Cache<String, byte[]> cache) {
+      for (int i = 0; i < 1000; i++) {
+         cache.put("key-" + i, new byte[1024]);
+      }
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      long size = size(dataContainer);
+      assertTrue("Container too big: " + size, size <= MAX_SIZE);
+      assertTrue(dataContainer.size() < 1000);
+      assertEquals(1024, cache.get("key-999").length);
+
+      // bigger values leave room for fewer entries
+      int entries = dataContainer.size();
+      for (int i = 0; i < 1000; i++) {
+         cache.put("key-" + i, new byte[4096]);
+      }
+      size = size(dataContainer);
+      assertTrue("Container too big: " + size, size <= MAX_SIZE);
+      assertTrue(dataContainer.size() < entries);
+   }
+
+   private long size(DataContainer dataContainer) {
+      InternalCacheEntrySizeCalculator calculator = new InternalCacheEntrySizeCalculator();
+      long size = 0;
+      for (Object o : dataContainer) {
+         InternalCacheEntry ice = (InternalCacheEntry) o;
+         size += calculator.calculateSize(ice.getKey(), ice);
+      }
+      return size;
+   }
+}
@@ -0,0 +1,216 @@
+package org.infinispan.functional;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.CountingRpcManager;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests {@link AdvancedCache#eval(Object, EntryFunction)} and the related methods on a distributed cache.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "functional.DistEvalTest")
+public class DistEvalTest extends MultipleCacheManagersTest {
+
+   private static final AtomicInteger executions = new AtomicInteger();
+
+   protected boolean tx = false;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, tx);
+      builder.clustering().hash().numOwners(2).l1().disable();
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   @BeforeMethod
+   public void resetExecutions() {
+      executions.set(0);
+   }
+
+   public void testEvalFromNonOwner() {
+      MagicKey key = new MagicKey("k", cache(1), cache(2));
+      cache(0).put(key, 1);
+
+      assertEquals(1, eval(0, key, new Increment()));
+      assertEquals(1, executions.get());
+      assertStoredValue(key, 2, cache(1), cache(2));
+      assertEquals(2, cache(0).get(key));
+
+      assertEquals(2, eval(2, key, new Increment()));
+      assertStoredValue(key, 3, cache(1), cache(2));
+   }
+
+   public void testEvalCreatesAndRemoves() {
+      MagicKey key = new MagicKey("k", cache(0), cache(1));
+
+      assertNull(eval(2, key, new Increment()));
+      assertStoredValue(key, 1, cache(0), cache(1));
+
+      assertEquals(Boolean.FALSE, eval(1, key, new RemoveIfEquals(5)));
+      assertStoredValue(key, 1, cache(0), cache(1));
+
+      assertEquals(Boolean.TRUE, eval(1, key, new RemoveIfEquals(1)));
+      for (Cache<Object, Object> c : caches()) {
+         assertNull(c.getAdvancedCache().getDataContainer().get(key));
+         assertNull(c.get(key));
+      }
+   }
+
+   public void testEvalWriteOnly() {
+      MagicKey key = new MagicKey("k", cache(1), cache(2));
+      cache(0).put(key, 1);
+
+      advancedCache(0).evalWriteOnly(key, new SetValue(10));
+      assertStoredValue(key, 10, cache(1), cache(2));
+
+      try {
+         advancedCache(0).evalWriteOnly(key, new Increment());
+         fail("A write-only function must not read the value");
+      } catch (Exception e) {
+         assertEquals(IllegalStateException.class, rootCause(e).getClass());
+      }
+      assertStoredValue(key, 10, cache(1), cache(2));
+   }
+
+   public void testEvalMany() {
+      MagicKey k0 = new MagicKey("k0", cache(0));
+      MagicKey k1 = new MagicKey("k1", cache(1));
+      MagicKey k2 = new MagicKey("k2", cache(2));
+      cache(0).put(k0, 10);
+      cache(0).put(k1, 20);
+
+      Set<Object> keys = new HashSet<Object>();
+      Collections.addAll(keys, k0, k1, k2);
+      Map<Object, Integer> results = this.<Object, Object>advancedCache(1).evalMany(keys, new Increment());
+      assertEquals(3, results.size());
+      assertEquals(Integer.valueOf(10), results.get(k0));
+      assertEquals(Integer.valueOf(20), results.get(k1));
+      assertNull(results.get(k2));
+      assertEquals(11, cache(2).get(k0));
+      assertEquals(21, cache(2).get(k1));
+      assertEquals(1, cache(2).get(k2));
+
+      advancedCache(2).evalManyWriteOnly(keys, new SetValue(0));
+      for (Object key : keys) {
+         assertEquals(0, cache(0).get(key));
+      }
+   }
+
+   public void testEvalManyGroupedByOwner() {
+      MagicKey k1a = new MagicKey("k1a", cache(1), cache(2));
+      MagicKey k1b = new MagicKey("k1b", cache(1), cache(0));
+      MagicKey k2a = new MagicKey("k2a", cache(2), cache(1));
+      MagicKey k2b = new MagicKey("k2b", cache(2), cache(0));
+      Set<Object> keys = new HashSet<Object>();
+      Collections.addAll(keys, k1a, k1b, k2a, k2b);
+      for (Object key : keys) {
+         cache(0).put(key, 5);
+      }
+
+      RpcManager rpcManager = advancedCache(0).getRpcManager();
+      CountingRpcManager counter = CountingRpcManager.replaceRpcManager(cache(0));
+      try {
+         Map<Object, Integer> results = this.<Object, Object>advancedCache(0).evalMany(keys, new Increment());
+         assertEquals(4, results.size());
+         for (Object key : keys) {
+            assertEquals(Integer.valueOf(5), results.get(key));
+            assertEquals(6, cache(0).get(key));
+         }
+         assertEquals(4, executions.get());
+         if (!tx) {
+            // A single RPC to each primary owner
+            assertEquals(2, counter.otherCount);
+         }
+
+         counter.resetStats();
+         this.<Object, Object>advancedCache(0).evalManyWriteOnly(keys, new SetValue(1));
+         for (Object key : keys) {
+            assertEquals(1, cache(1).get(key));
+         }
+         if (!tx) {
+            assertEquals(2, counter.otherCount);
+         }
+      } finally {
+         TestingUtil.replaceComponent(cache(0), RpcManager.class, rpcManager, true);
+      }
+   }
+
+   protected Object eval(int index, Object key, EntryFunction<Object, Object, ?> function) {
+      return this.<Object, Object>advancedCache(index).eval(key, function);
+   }
+
+   private void assertStoredValue(Object key, Object value, Cache<?, ?>... owners) {
+      for (Cache<?, ?> owner : owners) {
+         InternalCacheEntry entry = owner.getAdvancedCache().getDataContainer().get(key);
+         assertEquals(value, entry == null ? null : entry.getValue());
+      }
+   }
+
+   private static Throwable rootCause(Throwable t) {
+      while (t.getCause() != null) t = t.getCause();
+      return t;
+   }
+
+   static class Increment implements EntryFunction<Object, Object, Integer>, Serializable {
+      @Override
+      public Integer apply(MutableEntry<Object, Object> entry) {
+         executions.incrementAndGet();
+         Integer value = (Integer) entry.getValue();
+         entry.setValue(value == null ? 1 : value + 1);
+         return value;
+      }
+   }
+
+   static class RemoveIfEquals implements EntryFunction<Object, Object, Boolean>, Serializable {
+      private final Object expected;
+
+      RemoveIfEquals(Object expected) {
+         this.expected = expected;
+      }
+
+      @Override
+      public Boolean apply(MutableEntry<Object, Object> entry) {
+         if (expected.equals(entry.getValue())) {
+            entry.remove();
+            return true;
+         }
+         return false;
+      }
+   }
+
+   static class SetValue implements EntryFunction<Object, Object, Void>, Serializable {
+      private final Object value;
+
+      SetValue(Object value) {
+         this.value = value;
+      }
+
+      @Override
+      public Void apply(MutableEntry<Object, Object> entry) {
+         entry.setValue(value);
+         return null;
+      }
+   }
+}
@@ -0,0 +1,42 @@
+package org.infinispan.functional;
+
+import org.infinispan.distribution.MagicKey;
+import org.testng.annotations.Test;
+
+import javax.transaction.TransactionManager;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "functional.DistEvalTxTest")
+public class DistEvalTxTest extends DistEvalTest {
+
+   public DistEvalTxTest() {
+      tx = true;
+   }
+
+   public void testEvalInTransaction() throws Exception {
+      MagicKey key = new MagicKey("k", cache(1), cache(2));
+      cache(0).put(key, 1);
+
+      TransactionManager tm = tm(0);
+      tm.begin();
+      try {
+         assertEquals(1, eval(0, key, new Increment()));
+         assertEquals(2, eval(0, key, new Increment()));
+         assertEquals(3, cache(0).get(key));
+      } finally {
+         tm.rollback();
+      }
+      assertEquals(1, cache(1).get(key));
+
+      tm.begin();
+      cache(0).put(key, 5);
+      assertEquals(Boolean.TRUE, eval(0, key, new RemoveIfEquals(5)));
+      tm.commit();
+      assertNull(cache(2).get(key));
+   }
+}
@@ -7,6 +7,9 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.NonTxInvocationContext;
@@ -19,7 +22,9 @@
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Matchers.any;
@@ -274,4 +279,48 @@ public void testNotifyTransactionRegistered() {
       assert cl.getEvents().get(1).getType() == Event.Type.TRANSACTION_REGISTERED;
       assert ((TransactionRegisteredEvent) cl.getEvents().get(1)).getGlobalTransaction() == tx;
    }
+
+   public void testObservation() {
+      n.removeListener(cl);
+      PhaseListener preListener = new PreListener();
+      PhaseListener postListener = new PostListener();
+      n.addListener(preListener);
+
+      assert n.isNotificationAllowed(null, n.cacheEntryCreatedListeners, true);
+      assert !n.isNotificationAllowed(null, n.cacheEntryCreatedListeners, false);
+      n.notifyCacheEntryCreated("k", null, true, ctx, null);
+      n.notifyCacheEntryCreated("k", "v", false, ctx, null);
+      n.notifyCacheEntryModified("k", "v", true, true, ctx, null);
+      n.notifyCacheEntryModified("k", "v", true, false, ctx, null);
+      assert preListener.events.size() == 2;
+      assert preListener.events.get(0).isPre();
+      assert preListener.events.get(1).isPre();
+
+      n.addListener(postListener);
+      assert n.isNotificationAllowed(null, n.cacheEntryCreatedListeners, false);
+      n.notifyCacheEntryCreated("k2", null, true, ctx, null);
+      n.notifyCacheEntryCreated("k2", "v", false, ctx, null);
+      assert preListener.events.size() == 3;
+      assert postListener.events.size() == 1;
+      assert !postListener.events.get(0).isPre();
+      assert ((CacheEntryCreatedEvent) postListener.events.get(0)).getKey().equals("k2");
+   }
+
+   public abstract static class PhaseListener {
+      final List<Event> events = new ArrayList<Event>();
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public void handle(Event e) {
+         events.add(e);
+      }
+   }
+
+   @Listener(observation = Listener.Observation.PRE)
+   public static class PreListener extends PhaseListener {
+   }
+
+   @Listener(observation = Listener.Observation.POST)
+   public static class PostListener extends PhaseListener {
+   }
 }
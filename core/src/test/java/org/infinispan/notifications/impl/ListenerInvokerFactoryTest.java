@@ -0,0 +1,102 @@
+package org.infinispan.notifications.impl;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the invokers created for the listener methods.
+ *
+ * @since 7.0
+ */
+@Test(groups = "unit", testName = "notifications.impl.ListenerInvokerFactoryTest")
+public class ListenerInvokerFactoryTest extends AbstractInfinispanTest {
+
+   public void testGeneratedInvoker() throws Exception {
+      PublicListener listener = new PublicListener();
+      ListenerInvoker invoker = ListenerInvokerFactory.create(PublicListener.class.getMethod("onEvent", CharSequence.class));
+      assertTrue(invoker instanceof GeneratedListenerInvoker);
+      invoker.invoke(listener, "e1");
+      invoker.invoke(listener, new StringBuilder("e2"));
+      assertEquals(2, listener.events.size());
+      assertEquals("e1", listener.events.get(0));
+      assertEquals("e2", listener.events.get(1).toString());
+   }
+
+   public void testInvokerClassIsShared() throws Exception {
+      ListenerInvoker first = ListenerInvokerFactory.create(PublicListener.class.getMethod("onEvent", CharSequence.class));
+      ListenerInvoker second = ListenerInvokerFactory.create(PublicListener.class.getMethod("onEvent", CharSequence.class));
+      ListenerInvoker other = ListenerInvokerFactory.create(PublicListener.class.getMethod("onFailure", Object.class));
+      assertNotSame(first, second);
+      assertSame(first.getClass(), second.getClass());
+      assertNotSame(first.getClass(), other.getClass());
+   }
+
+   public void testGeneratedInvokerForInterfaceMethod() throws Exception {
+      final List<Object> events = new ArrayList<Object>();
+      Object event = new Object();
+      ListenerInvoker invoker = ListenerInvokerFactory.create(EventHandler.class.getMethod("handle", Object.class));
+      assertTrue(invoker instanceof GeneratedListenerInvoker);
+      invoker.invoke(new EventHandler() {
+         @Override
+         public void handle(Object event) {
+            events.add(event);
+         }
+      }, event);
+      assertEquals(1, events.size());
+      assertSame(event, events.get(0));
+   }
+
+   public void testExceptionIsWrapped() throws Exception {
+      ListenerInvoker invoker = ListenerInvokerFactory.create(PublicListener.class.getMethod("onFailure", Object.class));
+      assertTrue(invoker instanceof GeneratedListenerInvoker);
+      IllegalStateException exception = new IllegalStateException();
+      try {
+         invoker.invoke(new PublicListener(), exception);
+         fail("Expected InvocationTargetException");
+      } catch (InvocationTargetException e) {
+         assertSame(exception, e.getCause());
+      }
+   }
+
+   public void testReflectionFallback() throws Exception {
+      PrivateListener listener = new PrivateListener();
+      ListenerInvoker invoker = ListenerInvokerFactory.create(PrivateListener.class.getMethod("onEvent", Object.class));
+      assertTrue(invoker instanceof ReflectionListenerInvoker);
+      invoker.invoke(listener, "e1");
+      assertEquals(1, listener.events.size());
+   }
+
+   public static class PublicListener {
+      final List<CharSequence> events = new ArrayList<CharSequence>();
+
+      public void onEvent(CharSequence event) {
+         events.add(event);
+      }
+
+      public void onFailure(Object event) {
+         throw (RuntimeException) event;
+      }
+   }
+
+   public interface EventHandler {
+      void handle(Object event);
+   }
+
+   private static class PrivateListener {
+      final List<Object> events = new ArrayList<Object>();
+
+      public void onEvent(Object event) {
+         events.add(event);
+      }
+   }
+}
@@ -31,8 +31,10 @@
 import org.testng.annotations.Test;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static java.util.Collections.emptySet;
@@ -335,6 +337,32 @@ public void testStoreAndRemove() throws PersistenceException {
       assert expected.isEmpty();
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      cl.write(new MarshalledEntryImpl("k0", wrap("k0", "old"), null, getMarshaller()));
+
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>();
+      for (int i = 0; i < 300; i++) {
+         String key = "k" + i;
+         entries.add(new MarshalledEntryImpl(key, wrap(key, "v" + i), null, getMarshaller()));
+      }
+      PersistenceUtil.writeBatch(cl, entries);
+
+      assertEquals(300, allEntries(cl).size());
+      assertEquals("v0", unwrap(cl.load("k0").getValue()));
+      assertEquals("v299", unwrap(cl.load("k299").getValue()));
+
+      List<Object> keys = new ArrayList<Object>();
+      for (int i = 0; i < 300; i += 2) {
+         keys.add("k" + i);
+      }
+      keys.add("missing");
+      PersistenceUtil.deleteBatch(cl, keys);
+
+      assertEquals(150, allEntries(cl).size());
+      assertFalse(cl.contains("k0"));
+      assertEquals("v1", unwrap(cl.load("k1").getValue()));
+   }
+
    public void testPurgeExpired() throws Exception {
       // Increased lifespan and idle timeouts to accommodate slower cache stores
       long lifespan = 6000;
@@ -0,0 +1,68 @@
+package org.infinispan.persistence;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.jmx.PerThreadMBeanServerLookup;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.infinispan.test.TestingUtil.getCacheObjectName;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+/**
+ * Tests that the entries preloaded in parallel from a store are all inserted in the data container, and that the
+ * progress of the preload is exposed through JMX.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+public class ParallelPreloadTest extends SingleCacheManagerTest {
+
+   private static final String JMX_DOMAIN = ParallelPreloadTest.class.getName();
+   private static final int NUM_ENTRIES = 1000;
+   private String location;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      location = TestingUtil.tmpDirectory(this.getClass());
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.jmxStatistics().enable()
+            .persistence().addSingleFileStore().location(location).preload(true);
+      cacheManager = TestCacheManagerFactory.createCacheManagerEnforceJmxDomain(JMX_DOMAIN);
+      cacheManager.defineConfiguration("test", builder.build());
+      cache = cacheManager.getCache("test");
+      return cacheManager;
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      TestingUtil.recursiveFileRemove(location);
+   }
+
+   public void testPreload() throws Exception {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      cache.stop();
+      cache.start();
+
+      assertEquals(NUM_ENTRIES, cache.getAdvancedCache().getDataContainer().size());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         assertEquals("v" + i, cache.getAdvancedCache().getDataContainer().get("k" + i).getValue());
+      }
+
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      ObjectName persistenceManager = getCacheObjectName(JMX_DOMAIN, "test(local)", "PersistenceManager");
+      assertEquals((long) NUM_ENTRIES, mBeanServer.getAttribute(persistenceManager, "preloadedEntries"));
+      assertFalse((Boolean) mBeanServer.getAttribute(persistenceManager, "preloading"));
+   }
+}
@@ -38,6 +38,7 @@
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
@@ -101,6 +102,39 @@ public void testPutRemove() throws Exception {
       doTestRemove(number, key);
    }
 
+   @Test(timeOut=30000)
+   public void testBatchPutRemove() throws Exception {
+      TestCacheManagerFactory.backgroundTestStarted(this);
+      createStore();
+
+      final int number = 1000;
+      final String key = "testBatchPutRemove-k-";
+      String value = "testBatchPutRemove-v-";
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>(number);
+      List<Object> keys = new ArrayList<Object>(number);
+      for (int i = 0; i < number; i++) {
+         entries.add(new MarshalledEntryImpl(key + i, value + i, null, marshaller()));
+         keys.add(key + i);
+      }
+      writer.writeBatch(entries);
+      for (int i = 0; i < number; i++) {
+         MarshalledEntry me = loader.load(key + i);
+         assert me != null && (value + i).equals(me.getValue());
+      }
+
+      writer.deleteBatch(keys);
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            for (int i = 0; i < number; i++) {
+               if (loader.load(key + i) != null)
+                  return false;
+            }
+            return true;
+         }
+      });
+   }
+
    @Test(timeOut=30000, groups = "unstable")
    public void testPutClearPut() throws Exception {
       TestCacheManagerFactory.backgroundTestStarted(this);
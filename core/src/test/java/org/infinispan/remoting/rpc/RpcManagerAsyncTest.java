@@ -0,0 +1,156 @@
+package org.infinispan.remoting.rpc;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests {@link RpcManager#invokeRemotelyAsync(java.util.Collection, org.infinispan.commands.ReplicableCommand, RpcOptions)},
+ * whose future is completed by the transport when the responses are received.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "remoting.rpc.RpcManagerAsyncTest")
+public class RpcManagerAsyncTest extends MultipleCacheManagersTest {
+
+   private static final String CACHE_NAME = "_cache_name_";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false);
+      createClusteredCaches(4, CACHE_NAME, builder);
+      waitForClusterToForm(CACHE_NAME);
+   }
+
+   public void testUnicasts() throws Exception {
+      RpcManager rpcManager = rpcManager();
+      List<Address> recipients = rpcManager.getMembers().subList(1, 4);
+      Map<Address, Response> responses = rpcManager.invokeRemotelyAsync(recipients,
+            new CustomCacheRpcCommand(CACHE_NAME, "unicast"), syncOptions()).get(10, TimeUnit.SECONDS);
+      assertResponses(recipients, "unicast", responses);
+   }
+
+   public void testBroadcast() throws Exception {
+      RpcManager rpcManager = rpcManager();
+      Map<Address, Response> responses = rpcManager.invokeRemotelyAsync(null,
+            new CustomCacheRpcCommand(CACHE_NAME, "broadcast"), syncOptions()).get(10, TimeUnit.SECONDS);
+      assertResponses(rpcManager.getMembers().subList(1, 4), "broadcast", responses);
+   }
+
+   public void testFirstValidResponse() throws Exception {
+      RpcManager rpcManager = rpcManager();
+      List<Address> recipients = rpcManager.getMembers().subList(1, 4);
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.WAIT_FOR_VALID_RESPONSE)
+            .responseFilter(new ResponseFilter() {
+               private volatile boolean received;
+
+               @Override
+               public boolean isAcceptable(Response response, Address sender) {
+                  received = true;
+                  return true;
+               }
+
+               @Override
+               public boolean needMoreResponses() {
+                  return !received;
+               }
+            }).build();
+      Map<Address, Response> responses = rpcManager.invokeRemotelyAsync(recipients,
+            new CustomCacheRpcCommand(CACHE_NAME, "first"), options).get(10, TimeUnit.SECONDS);
+      assertEquals(1, responses.size());
+      assertTrue(recipients.containsAll(responses.keySet()));
+   }
+
+   public void testRemoteException() throws Exception {
+      RpcManager rpcManager = rpcManager();
+      NotifyingFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
+            rpcManager.getMembers().subList(1, 3), new CustomCacheRpcCommand(CACHE_NAME, new IllegalStateException("expected")),
+            syncOptions());
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail("The remote exception wasn't reported");
+      } catch (ExecutionException e) {
+         assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof CacheException);
+      }
+   }
+
+   public void testTimeoutWithUnicasts() throws Exception {
+      doTestTimeout(rpcManager().getMembers().subList(2, 4));
+   }
+
+   public void testTimeoutWithBroadcast() throws Exception {
+      doTestTimeout(null);
+   }
+
+   public void testInvokeRemotelyInFuture() throws Exception {
+      RpcManager rpcManager = rpcManager();
+      List<Address> recipients = rpcManager.getMembers().subList(1, 4);
+      NotifyingFutureImpl<Object> future = new NotifyingFutureImpl<Object>();
+      final CountDownLatch notified = new CountDownLatch(1);
+      future.attachListener(new FutureListener<Object>() {
+         @Override
+         public void futureDone(Future<Object> future) {
+            notified.countDown();
+         }
+      });
+      rpcManager.invokeRemotelyInFuture(recipients, new CustomCacheRpcCommand(CACHE_NAME, "future"), syncOptions(), future);
+      @SuppressWarnings("unchecked")
+      Map<Address, Response> responses = (Map<Address, Response>) future.get(10, TimeUnit.SECONDS);
+      assertResponses(recipients, "future", responses);
+      assertTrue(notified.await(10, TimeUnit.SECONDS));
+   }
+
+   private void doTestTimeout(List<Address> recipients) throws Exception {
+      RpcManager rpcManager = rpcManager();
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
+            .timeout(1000, TimeUnit.MILLISECONDS).build();
+      NotifyingFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(recipients,
+            new SleepingCacheRpcCommand(CACHE_NAME, 5000), options);
+      // The calling thread does not wait for the responses
+      assertFalse(future.isDone());
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail("Timeout exception wasn't reported");
+      } catch (ExecutionException e) {
+         assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof TimeoutException);
+      }
+   }
+
+   private RpcManager rpcManager() {
+      return advancedCache(0, CACHE_NAME).getRpcManager();
+   }
+
+   private RpcOptions syncOptions() {
+      return rpcManager().getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS).build();
+   }
+
+   private void assertResponses(List<Address> recipients, Object expected, Map<Address, Response> responses) {
+      assertEquals(recipients.size(), responses.size());
+      for (Address recipient : recipients) {
+         Response response = responses.get(recipient);
+         assertTrue(String.valueOf(response), response instanceof SuccessfulResponse);
+         assertEquals(expected, ((SuccessfulResponse) response).getResponseValue());
+      }
+   }
+}
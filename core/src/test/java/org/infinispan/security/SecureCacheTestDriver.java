@@ -10,6 +10,8 @@
 import org.infinispan.atomic.DeltaAware;
 import org.infinispan.container.versioning.EntryVersion;
 import org.infinispan.context.Flag;
+import org.infinispan.functional.EntryFunction;
+import org.infinispan.functional.MutableEntry;
 import org.infinispan.interceptors.InvocationContextInterceptor;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.metadata.Metadata;
@@ -26,6 +28,7 @@ public class SecureCacheTestDriver {
    private KeyFilter<String> keyFilter;
    private Converter<String, String, String> converter;
    private KeyValueFilter<String, String> keyValueFilter;
+   private EntryFunction<String, String, Void> entryFunction;
 
    public SecureCacheTestDriver() {
       interceptor = new CommandInterceptor() {
@@ -48,6 +51,13 @@ public String convert(String key, String value, Metadata metadata) {
             return value;
          }
       };
+      entryFunction = new EntryFunction<String, String, Void>() {
+         @Override
+         public Void apply(MutableEntry<String, String> entry) {
+            entry.setValue("a");
+            return null;
+         }
+      };
       listener = new NullListener();
       metadata = new Metadata() {
 
@@ -580,6 +590,41 @@ public void testAddInterceptorBefore_CommandInterceptor_Class(SecureCache<String
       cache.removeInterceptor(interceptor.getClass());
    }
 
+   @TestCachePermission(AuthorizationPermission.READ)
+   public void testGetAll_Set(SecureCache<String, String> cache) {
+      cache.getAll(Collections.singleton("a"));
+   }
+
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testPutAll_Map_Metadata(SecureCache<String, String> cache) {
+      cache.putAll(Collections.singletonMap("a", "a"), metadata);
+   }
+
+   @TestCachePermission(AuthorizationPermission.READ)
+   public void testGetAllCacheEntries_Set(SecureCache<String, String> cache) {
+      cache.getAllCacheEntries(Collections.singleton("a"));
+   }
+
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testEval_Object_EntryFunction(SecureCache<String, String> cache) {
+      cache.eval("a", entryFunction);
+   }
+
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testEvalMany_Set_EntryFunction(SecureCache<String, String> cache) {
+      cache.evalMany(Collections.singleton("a"), entryFunction);
+   }
+
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testEvalWriteOnly_Object_EntryFunction(SecureCache<String, String> cache) {
+      cache.evalWriteOnly("a", entryFunction);
+   }
+
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testEvalManyWriteOnly_Set_EntryFunction(SecureCache<String, String> cache) {
+      cache.evalManyWriteOnly(Collections.singleton("a"), entryFunction);
+   }
+
    @Listener
    public static class NullListener {
 
@@ -0,0 +1,136 @@
+package org.infinispan.security;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.security.auth.Subject;
+
+import org.infinispan.configuration.cache.AuthorizationConfiguration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalSecurityConfiguration;
+import org.infinispan.security.impl.SubjectRoleMaskCache;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the caching and the invalidation of the role masks computed for the subjects.
+ *
+ * @since 7.0
+ */
+@Test(groups = "unit", testName = "security.SubjectRoleMaskCacheTest")
+public class SubjectRoleMaskCacheTest extends AbstractInfinispanTest {
+   private static final int READ = AuthorizationPermission.READ.getMask();
+   private static final int WRITE = AuthorizationPermission.WRITE.getMask();
+
+   private CountingRoleMapper roleMapper;
+   private GlobalSecurityConfiguration globalConfiguration;
+   private AuthorizationConfiguration configuration;
+   private ControlledTimeService timeService;
+
+   @BeforeMethod
+   public void setUp() {
+      roleMapper = new CountingRoleMapper();
+      globalConfiguration = globalConfiguration(roleMapper);
+      configuration = authorizationConfiguration();
+      timeService = new ControlledTimeService();
+   }
+
+   public void testMaskIsCached() {
+      SubjectRoleMaskCache cache = new SubjectRoleMaskCache(100, 1000, timeService);
+      Subject subject = TestingUtil.makeSubject("reader");
+
+      assertEquals(READ, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(READ, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(1, roleMapper.calls.get());
+      assertEquals(1, cache.getHits());
+      assertEquals(1, cache.getMisses());
+      assertEquals(1, cache.size());
+   }
+
+   public void testMaskIsComputedAgainWhenPrincipalsChange() {
+      SubjectRoleMaskCache cache = new SubjectRoleMaskCache(100, 1000, timeService);
+      Subject subject = new Subject();
+      subject.getPrincipals().add(new TestingUtil.TestPrincipal("reader"));
+
+      assertEquals(READ, cache.getRoleMask(subject, globalConfiguration, configuration));
+      subject.getPrincipals().add(new TestingUtil.TestPrincipal("writer"));
+      assertEquals(READ | WRITE, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(READ | WRITE, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(1, cache.getHits());
+      assertEquals(2, cache.getMisses());
+   }
+
+   public void testMaskExpires() {
+      SubjectRoleMaskCache cache = new SubjectRoleMaskCache(100, 1000, timeService);
+      Subject subject = TestingUtil.makeSubject("reader");
+
+      cache.getRoleMask(subject, globalConfiguration, configuration);
+      timeService.advance(999);
+      cache.getRoleMask(subject, globalConfiguration, configuration);
+      assertEquals(1, roleMapper.calls.get());
+      timeService.advance(1);
+      cache.getRoleMask(subject, globalConfiguration, configuration);
+      assertEquals(2, roleMapper.calls.get());
+   }
+
+   public void testInvalidation() {
+      SubjectRoleMaskCache cache = new SubjectRoleMaskCache(100, 1000, timeService);
+      Subject subject = TestingUtil.makeSubject("reader");
+
+      cache.getRoleMask(subject, globalConfiguration, configuration);
+      cache.invalidate();
+      assertEquals(0, cache.size());
+      cache.getRoleMask(subject, globalConfiguration, configuration);
+      assertEquals(2, roleMapper.calls.get());
+
+      // A new role mapper or authorization configuration doesn't use the masks computed with the previous ones
+      cache.getRoleMask(subject, globalConfiguration, authorizationConfiguration());
+      assertEquals(3, roleMapper.calls.get());
+      CountingRoleMapper otherRoleMapper = new CountingRoleMapper();
+      cache.getRoleMask(subject, globalConfiguration(otherRoleMapper), configuration);
+      assertEquals(1, otherRoleMapper.calls.get());
+      assertEquals(0, cache.getHits());
+   }
+
+   public void testDisabledCache() {
+      SubjectRoleMaskCache cache = new SubjectRoleMaskCache(0, 1000, timeService);
+      Subject subject = TestingUtil.makeSubject("reader");
+
+      assertEquals(READ, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(READ, cache.getRoleMask(subject, globalConfiguration, configuration));
+      assertEquals(2, roleMapper.calls.get());
+      assertEquals(0, cache.size());
+   }
+
+   private static GlobalSecurityConfiguration globalConfiguration(PrincipalRoleMapper roleMapper) {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.security().authorization().enable().principalRoleMapper(roleMapper)
+            .role("reader").permission(AuthorizationPermission.READ)
+            .role("writer").permission(AuthorizationPermission.WRITE);
+      return global.build().security();
+   }
+
+   private static AuthorizationConfiguration authorizationConfiguration() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.security().authorization().enable().role("reader").role("writer");
+      return builder.build().security().authorization();
+   }
+
+   private static class CountingRoleMapper implements PrincipalRoleMapper {
+      final AtomicInteger calls = new AtomicInteger();
+
+      @Override
+      public Set<String> principalToRoles(Principal principal) {
+         calls.incrementAndGet();
+         return Collections.singleton(principal.getName());
+      }
+   }
+}
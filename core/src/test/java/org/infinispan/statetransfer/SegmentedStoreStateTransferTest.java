@@ -0,0 +1,105 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the entries of the requested segments are read from a store, and that state transfer removes the
+ * segments that are no longer owned from a {@link SegmentedAdvancedLoadWriteStore}.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "statetransfer.SegmentedStoreStateTransferTest")
+public class SegmentedStoreStateTransferTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 200;
+   private File tmpDir;
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() {
+      tmpDir = new File(TestingUtil.tmpDirectory(this.getClass()));
+      TestingUtil.recursiveFileRemove(tmpDir);
+
+      builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(20)
+            .stateTransfer().fetchInMemoryState(true)
+            .persistence().passivation(false).addSingleFileStore().location(new File(tmpDir, "store0").getAbsolutePath())
+            .fetchPersistentState(true);
+
+      createCluster(builder, 1);
+      waitForClusterToForm();
+   }
+
+   @AfterClass
+   protected void clearTempDir() {
+      TestingUtil.recursiveFileRemove(tmpDir);
+   }
+
+   public void testSegmentsTransferredAndRemoved() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+      // only the store has the entries, so they must be read from it by the outbound transfers
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).evict("k" + i);
+      }
+
+      SegmentedAdvancedLoadWriteStore store0 = (SegmentedAdvancedLoadWriteStore) TestingUtil.getFirstLoader(cache(0));
+      assertEquals(NUM_KEYS, PersistenceUtil.toKeySet(store0, null).size());
+      ConsistentHash ch = PersistenceUtil.getReadConsistentHash(cache(0));
+      Set<Integer> firstSegment = Collections.singleton(0);
+      final Set<Object> keysInFirstSegment = new HashSet<Object>();
+      PersistenceUtil.processSegments(store0, ch, firstSegment, null, new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            keysInFirstSegment.add(marshalledEntry.getKey());
+         }
+      }, new WithinThreadExecutor(), false, false);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         assertEquals(ch.getSegment(key) == 0, keysInFirstSegment.contains(key));
+      }
+
+      builder.persistence().clearStores().addSingleFileStore().location(new File(tmpDir, "store1").getAbsolutePath())
+            .fetchPersistentState(true);
+      addClusterEnabledCacheManager(builder);
+      waitForClusterToForm();
+
+      ch = PersistenceUtil.getReadConsistentHash(cache(0));
+      Address address0 = address(0);
+      Set<Object> keys0 = PersistenceUtil.toKeySet(store0, null);
+      Set<Integer> segments1 = ch.getSegmentsForOwner(address(1));
+      assertFalse(segments1.isEmpty());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         assertEquals("v" + i, cache(1).get(key));
+         if (ch.locatePrimaryOwner(key).equals(address0)) {
+            assertTrue(keys0.contains(key));
+         } else {
+            assertTrue(segments1.contains(ch.getSegment(key)));
+            assertFalse("Key " + key + " wasn't removed from the store of the previous owner", keys0.contains(key));
+         }
+      }
+   }
+}
@@ -29,6 +29,7 @@
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.impl.RemoteTransaction;
 import org.infinispan.transaction.impl.TransactionTable;
+import org.infinispan.util.DefaultTimeService;
 import org.infinispan.util.concurrent.IsolationLevel;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.util.logging.Log;
@@ -156,7 +157,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, new DefaultTimeService());
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -265,7 +266,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, new DefaultTimeService());
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -0,0 +1,98 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the state transfer of chunks marshalled and compressed by the sender, limited by size in bytes and sent
+ * several at a time.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferCompressionTest")
+public class StateTransferCompressionTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 500;
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(20)
+            .stateTransfer().fetchInMemoryState(true).chunkSize(1000).chunkSizeBytes(1024).maxInFlightChunks(4).compression(true);
+      createCluster(builder, 1);
+      waitForClusterToForm();
+   }
+
+   public void testStateChunkBuilder() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractCacheMarshaller(cache(0));
+      List<InternalCacheEntry> entries = new ArrayList<InternalCacheEntry>();
+      for (boolean compress : new boolean[]{false, true}) {
+         StateChunkBuilder chunkBuilder = new StateChunkBuilder(3, marshaller, compress);
+         entries.clear();
+         for (int i = 0; i < 100; i++) {
+            InternalCacheEntry entry = new ImmortalCacheEntry("key" + i, "value" + i);
+            entries.add(entry);
+            chunkBuilder.addEntry(entry);
+         }
+         StateChunk chunk = chunkBuilder.build(true);
+         assertTrue(chunkBuilder.isEmpty());
+         assertTrue(chunk.isMarshalled());
+
+         StateChunk copy = (StateChunk) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(chunk));
+         assertEquals(3, copy.getSegmentId());
+         assertTrue(copy.isLastChunk());
+         assertEquals(chunk.getPayloadSize(), copy.getPayloadSize());
+         Collection<InternalCacheEntry> received = copy.getCacheEntries(marshaller);
+         assertEquals(entries.size(), received.size());
+         int i = 0;
+         for (InternalCacheEntry entry : received) {
+            assertEquals(entries.get(i).getKey(), entry.getKey());
+            assertEquals(entries.get(i).getValue(), entry.getValue());
+            i++;
+         }
+      }
+   }
+
+   public void testJoinerReceivesCompressedState() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "value-" + i + "-0123456789012345678901234567890123456789");
+      }
+
+      addClusterEnabledCacheManager(builder);
+      waitForClusterToForm();
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value-" + i + "-0123456789012345678901234567890123456789", cache(1).get("k" + i));
+      }
+
+      final StateTransferManager stm0 = TestingUtil.extractComponent(cache(0), StateTransferManager.class);
+      final StateTransferManager stm1 = TestingUtil.extractComponent(cache(1), StateTransferManager.class);
+      final TransferStatistics outbound = TestingUtil.extractComponent(cache(0), StateProvider.class).getOutboundStatistics();
+      final TransferStatistics inbound = TestingUtil.extractComponent(cache(1), StateConsumer.class).getInboundStatistics();
+      // The sender counts a chunk once the receiver has acknowledged it
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            // 1024 bytes are reached before 1000 entries, so the entries must have been split in several chunks
+            return outbound.getChunks() > 1 && outbound.getBytes() > 0
+                  && outbound.getChunks() == inbound.getChunks() && outbound.getBytes() == inbound.getBytes()
+                  && stm0.getOutboundBytesPerSecond() > 0 && stm1.getInboundBytesPerSecond() > 0;
+         }
+      });
+      assertEquals(0, stm1.getInboundSegmentsRemaining());
+   }
+}
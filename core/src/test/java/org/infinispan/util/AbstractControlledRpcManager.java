@@ -1,6 +1,7 @@
 package org.infinispan.util;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.remoting.RpcException;
 import org.infinispan.remoting.responses.Response;
@@ -145,6 +146,15 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
       return afterInvokeRemotely(rpc, responses);
    }
 
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc, RpcOptions options) {
+      log.trace("ControlledRpcManager.invokeRemotelyAsync");
+      beforeInvokeRemotely(rpc);
+      NotifyingFuture<Map<Address, Response>> future = realOne.invokeRemotelyAsync(recipients, rpc, options);
+      afterInvokeRemotely(rpc, null);
+      return future;
+   }
+
    @Override
    public void invokeRemotelyInFuture(Collection<Address> recipients, ReplicableCommand rpc, RpcOptions options, NotifyingNotifiableFuture<Object> future) {
       log.trace("ControlledRpcManager.invokeRemotelyInFuture5");
@@ -0,0 +1,36 @@
+package org.infinispan.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TimeService} whose time only moves when the test advances it, so that expiration and timeouts can be tested
+ * without sleeping. Both the wall clock time and the relative time move together.
+ *
+ * @since 7.0
+ */
+public class ControlledTimeService extends DefaultTimeService {
+
+   private volatile long currentMillis;
+
+   public ControlledTimeService() {
+      this(System.currentTimeMillis());
+   }
+
+   public ControlledTimeService(long currentMillis) {
+      this.currentMillis = currentMillis;
+   }
+
+   @Override
+   public long wallClockTime() {
+      return currentMillis;
+   }
+
+   @Override
+   public long time() {
+      return TimeUnit.MILLISECONDS.toNanos(currentMillis);
+   }
+
+   public synchronized void advance(long millis) {
+      currentMillis += millis;
+   }
+}
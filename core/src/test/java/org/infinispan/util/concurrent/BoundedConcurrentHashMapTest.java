@@ -1,9 +1,11 @@
 package org.infinispan.util.concurrent;
 
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.util.EquivalentHashMapTest;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -86,6 +88,55 @@ protected void byteArrayPutIfAbsentFail(
          assertNull(previous);
    }
 
+   public void testMemoryBoundedLRU() {
+      memoryBoundedEviction(BoundedConcurrentHashMap.Eviction.LRU);
+   }
+
+   public void testMemoryBoundedLIRS() {
+      memoryBoundedEviction(BoundedConcurrentHashMap.Eviction.LIRS);
+   }
+
+   protected void memoryBoundedEviction(BoundedConcurrentHashMap.Eviction eviction) {
+      int maxWeight = 16 * 1024;
+      BoundedConcurrentHashMap<byte[], byte[]> map = new BoundedConcurrentHashMap<byte[], byte[]>(
+            maxWeight, 1, eviction, new BoundedConcurrentHashMap.NullEvictionListener<byte[], byte[]>(),
+            new ByteArraySizeCalculator(), EQUIVALENCE, EQUIVALENCE);
+      for (int i = 0; i < 100; i++) {
+         map.put(new byte[]{(byte) i}, new byte[1000 + i]);
+         assertTrue("Weight over budget: " + weight(map), weight(map) <= maxWeight);
+      }
+      assertEquals(1099, map.get(new byte[]{99}).length);
+
+      // growing a value evicts other entries
+      int sizeBefore = map.size();
+      map.put(new byte[]{99}, new byte[8000]);
+      assertTrue("Weight over budget: " + weight(map), weight(map) <= maxWeight);
+      assertTrue(map.size() < sizeBefore);
+      assertEquals(8000, map.get(new byte[]{99}).length);
+
+      // an entry bigger than the budget doesn't stay
+      map.put(new byte[]{100}, new byte[maxWeight + 1]);
+      assertNull(map.get(new byte[]{100}));
+      assertTrue("Weight over budget: " + weight(map), weight(map) <= maxWeight);
+
+      map.clear();
+      assertEquals(0, weight(map));
+   }
+
+   private static long weight(Map<byte[], byte[]> map) {
+      long weight = 0;
+      for (Map.Entry<byte[], byte[]> e : map.entrySet())
+         weight += e.getKey().length + e.getValue().length;
+      return weight;
+   }
+
+   private static class ByteArraySizeCalculator implements EntrySizeCalculator<byte[], byte[]> {
+      @Override
+      public long calculateSize(byte[] key, byte[] value) {
+         return key.length + value.length;
+      }
+   }
+
    protected ConcurrentMap<byte[], byte[]> createStandardConcurrentMap() {
       return new ConcurrentHashMap<byte[], byte[]>();
    }
@@ -11,12 +11,16 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
+import org.infinispan.commands.remote.ClusteredEvalManyCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -34,6 +38,7 @@
 import org.infinispan.distexec.mapreduce.Mapper;
 import org.infinispan.distexec.mapreduce.Reducer;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.EntryFunction;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.statetransfer.StateChunk;
@@ -154,6 +159,11 @@ public ReplaceCommand buildReplaceCommand(Object key, Object oldValue, Object ne
       return actual.buildReplaceCommand(key, oldValue, newValue, metadata, flags);
    }
 
+   @Override
+   public EvalCommand buildEvalCommand(Object key, EntryFunction function, boolean writeOnly, Metadata metadata, Set<Flag> flags) {
+      return actual.buildEvalCommand(key, function, writeOnly, metadata, flags);
+   }
+
    @Override
    public SizeCommand buildSizeCommand(Set<Flag> flags) {
       return actual.buildSizeCommand(flags);
@@ -164,6 +174,11 @@ public GetKeyValueCommand buildGetKeyValueCommand(Object key, Set<Flag> flags, b
       return actual.buildGetKeyValueCommand(key, flags, returnEntry);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return actual.buildGetAllCommand(keys, flags, returnEntries);
+   }
+
    @Override
    public KeySetCommand buildKeySetCommand(Set<Flag> flags) {
       return actual.buildKeySetCommand(flags);
@@ -234,6 +249,17 @@ public ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags,
       return actual.buildClusteredGetCommand(key, flags, acquireRemoteLock, gtx);
    }
 
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags) {
+      return actual.buildClusteredGetAllCommand(keys, flags);
+   }
+
+   @Override
+   public ClusteredEvalManyCommand buildClusteredEvalManyCommand(List<?> keys, EntryFunction function, boolean writeOnly,
+                                                                Metadata metadata, Set<Flag> flags) {
+      return actual.buildClusteredEvalManyCommand(keys, function, writeOnly, metadata, flags);
+   }
+
    @Override
    public LockControlCommand buildLockControlCommand(Collection<Object> keys, Set<Flag> flags, GlobalTransaction gtx) {
       return actual.buildLockControlCommand(keys, flags, gtx);
@@ -289,6 +315,11 @@ public <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
       return actual.buildReduceCommand(taskId, destinationCache, r, keys);
    }
 
+   @Override
+   public ShuffleCommand buildShuffleCommand(String taskId, byte[] intermediateValues) {
+      return actual.buildShuffleCommand(taskId, intermediateValues);
+   }
+
    @Override
    public GetInDoubtTxInfoCommand buildGetInDoubtTxInfoCommand() {
       return actual.buildGetInDoubtTxInfoCommand();
@@ -31,7 +31,7 @@
 @Test(groups = "xsite", testName = "xsite.NonTxAsyncBackupTest")
 public class NonTxAsyncBackupTest extends AbstractTwoSitesTest {
 
-   private BlockingInterceptor blockingInterceptor;
+   protected BlockingInterceptor blockingInterceptor;
 
    public NonTxAsyncBackupTest() {
       super.lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
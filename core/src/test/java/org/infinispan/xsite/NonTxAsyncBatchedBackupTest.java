@@ -0,0 +1,85 @@
+package org.infinispan.xsite;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.DefaultTimeService;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Runs the {@link NonTxAsyncBackupTest} tests with the writes to the backup site queued and sent in batches.
+ *
+ * @since 7.0
+ */
+@Test(groups = "xsite", testName = "xsite.NonTxAsyncBatchedBackupTest")
+public class NonTxAsyncBatchedBackupTest extends NonTxAsyncBackupTest {
+
+   public NonTxAsyncBatchedBackupTest() {
+      super.lonBatchSize = 100;
+      super.lonBatchInterval = 500;
+   }
+
+   public void testQueueCoalescesWrites() throws InterruptedException {
+      CommandsFactory commandsFactory = TestingUtil.extractCommandsFactory(cache("LON", 0));
+      AsyncBackupQueue queue = new AsyncBackupQueue(new XSiteBackup("NYC", true, 1000), 2, 3, new DefaultTimeService());
+      assertTrue(queue.add("k1", commandsFactory.buildPutKeyValueCommand("k1", "v1", null, null), 0, TimeUnit.MILLISECONDS));
+      assertTrue(queue.add("k1", commandsFactory.buildPutKeyValueCommand("k1", "v2", null, null), 0, TimeUnit.MILLISECONDS));
+      assertTrue(!queue.hasFullBatch());
+      assertEquals(1, queue.size());
+      assertEquals(1, queue.getCoalescedWrites());
+
+      ClearCommand clear = commandsFactory.buildClearCommand(null);
+      queue.clear(clear);
+      assertTrue(queue.add("k2", commandsFactory.buildPutKeyValueCommand("k2", "v1", null, null), 0, TimeUnit.MILLISECONDS));
+      assertTrue(queue.hasFullBatch());
+      assertTrue(queue.add("k3", commandsFactory.buildPutKeyValueCommand("k3", "v1", null, null), 0, TimeUnit.MILLISECONDS));
+      assertEquals(3, queue.size());
+      // the queue is full, only the writes of the queued keys are accepted
+      assertTrue(!queue.add("k4", commandsFactory.buildPutKeyValueCommand("k4", "v1", null, null), 10, TimeUnit.MILLISECONDS));
+      assertTrue(queue.add("k3", commandsFactory.buildPutKeyValueCommand("k3", "v2", null, null), 0, TimeUnit.MILLISECONDS));
+      assertEquals(3, queue.size());
+      assertEquals(3, queue.getCoalescedWrites());
+
+      List<WriteCommand> batch = queue.drain();
+      assertEquals(2, batch.size());
+      assertTrue(batch.get(0) == clear);
+      assertEquals(1, queue.size());
+      assertTrue(queue.add("k4", commandsFactory.buildPutKeyValueCommand("k4", "v1", null, null), 0, TimeUnit.MILLISECONDS));
+      assertEquals(2, queue.drain().size());
+      assertEquals(0, queue.size());
+      assertEquals(0, queue.getLag());
+   }
+
+   public void testRepeatedWritesAreCoalesced() throws Exception {
+      blockingInterceptor.isActive = false;
+      try {
+         for (int i = 0; i < 100; i++) {
+            cache("LON", 0).put("coalesced", "v" + i);
+         }
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return "v99".equals(backup("LON").get("coalesced"));
+            }
+         });
+      } finally {
+         blockingInterceptor.isActive = true;
+      }
+      long coalesced = 0;
+      for (int i = 0; i < 2; i++) {
+         AsyncBackupQueue queue = TestingUtil.extractComponent(cache("LON", i), BackupSender.class).getAsyncBackupQueue("NYC");
+         coalesced += queue.getCoalescedWrites();
+      }
+      assertTrue(coalesced > 0);
+      XSiteAdminOperations adminOperations = TestingUtil.extractComponent(cache("LON", 0), XSiteAdminOperations.class);
+      assertEquals("0", adminOperations.getAsyncBackupQueueSize("NYC"));
+      assertEquals("0", adminOperations.getAsyncBackupQueueLag("NYC"));
+   }
+}
@@ -76,6 +76,15 @@ public void testCustomBackupPolicy() {
       assertEquals(dcc.sites().backupFor().remoteCache(), null);
    }
 
+   public void testBatchedBackup() {
+      Configuration dcc = cacheManager.getCacheConfiguration("batchedBackup");
+      assertEquals(dcc.sites().allBackups().size(), 1);
+      BackupConfiguration backup = dcc.sites().allBackups().get(0);
+      assertEquals(backup.batchSize(), 500);
+      assertEquals(backup.batchInterval(), 50);
+      assertTrue(backup.isBatchingEnabled());
+   }
+
    private void testDefault(Configuration dcc) {
       assertEquals(dcc.sites().allBackups().size(), 2);
       assertTrue(dcc.sites().allBackups().contains(new BackupConfiguration("NYC", BackupConfiguration.BackupStrategy.SYNC,
@@ -24,6 +24,11 @@ public void startStateTransfer(String siteName, Address requestor) {
       xSiteStateProvider.startStateTransfer(siteName, requestor);
    }
 
+   @Override
+   public void resumeStateTransfer(String siteName, Address requestor) {
+      xSiteStateProvider.resumeStateTransfer(siteName, requestor);
+   }
+
    @Override
    public void cancelStateTransfer(String siteName) {
       xSiteStateProvider.cancelStateTransfer(siteName);
@@ -33,4 +38,9 @@ public void cancelStateTransfer(String siteName) {
    public Collection<String> getCurrentStateSending() {
       return xSiteStateProvider.getCurrentStateSending();
    }
+
+   @Override
+   public XSiteStatePushProgress getStatePushProgress(String siteName) {
+      return xSiteStateProvider.getStatePushProgress(siteName);
+   }
 }
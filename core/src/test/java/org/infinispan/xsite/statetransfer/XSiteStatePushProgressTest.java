@@ -0,0 +1,212 @@
+package org.infinispan.xsite.statetransfer;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.remoting.transport.jgroups.CommandAwareRpcDispatcher;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.xsite.AbstractTwoSitesTest;
+import org.infinispan.xsite.BackupReceiver;
+import org.infinispan.xsite.BackupReceiverDelegator;
+import org.infinispan.xsite.BackupReceiverRepository;
+import org.infinispan.xsite.BackupReceiverRepositoryDelegator;
+import org.infinispan.xsite.XSiteAdminOperations;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.infinispan.test.TestingUtil.*;
+import static org.testng.AssertJUnit.*;
+
+/**
+ * Tests the progress, the throttling, the cancellation and the resume of the state pushed to a remote site.
+ *
+ * @since 7.0
+ */
+@Test(groups = "xsite", testName = "xsite.statetransfer.XSiteStatePushProgressTest")
+public class XSiteStatePushProgressTest extends AbstractTwoSitesTest {
+
+   private static final String LON = "LON";
+   private static final String NYC = "NYC";
+   private static final int NUM_KEYS = 400;
+
+   public XSiteStatePushProgressTest() {
+      this.cleanup = CleanupPhase.AFTER_METHOD;
+      this.implicitBackupCache = true;
+      this.lonStateTransferChunkSize = 10;
+      this.lonStateTransferMaxInFlightChunks = 1;
+   }
+
+   @Override
+   protected ConfigurationBuilder getNycActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      //more segments than pushed in a single pass
+      builder.clustering().hash().numSegments(60);
+      return builder;
+   }
+
+   public void testPushProgress() {
+      putKeysWithSiteOffline();
+      assertEquals("Not started", adminOperations(0).getPushStateProgress(NYC));
+
+      assertEquals(XSiteAdminOperations.SUCCESS, adminOperations(0).pushState(NYC));
+      awaitStatePushed();
+
+      long keysSent = 0;
+      int segments = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         XSiteStatePushProgress progress = extractComponent(cache, XSiteStateProvider.class).getStatePushProgress(NYC);
+         assertEquals(XSiteStatePushProgress.Status.FINISHED, progress.getStatus());
+         assertEquals(progress.getTotalSegments(), progress.getCompletedSegments());
+         assertTrue(progress.getChunksSent() >= progress.getKeysSent() / 10);
+         keysSent += progress.getKeysSent();
+         segments += progress.getTotalSegments();
+      }
+      //each key is sent by its primary owner only
+      assertEquals(NUM_KEYS, keysSent);
+      assertEquals(60, segments);
+      assertTrue(adminOperations(0).getPushStateProgress(NYC).startsWith("FINISHED"));
+      assertAllKeysInNyc();
+   }
+
+   public void testCancelAndResume() throws Exception {
+      putKeysWithSiteOffline();
+      final BlockingStateListener listener = new BlockingStateListener();
+      for (CacheContainer cacheContainer : site(NYC).cacheManagers()) {
+         BlockingBackupReceiverRepository.replaceInCache(cacheContainer, listener);
+      }
+
+      assertEquals(XSiteAdminOperations.SUCCESS, adminOperations(0).pushState(NYC));
+      assertTrue(listener.blocked.await(30, TimeUnit.SECONDS));
+      //a single chunk in flight for each node: the nodes wait for the acknowledgement before sending more
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            for (Cache<?, ?> cache : caches(LON)) {
+               if (extractComponent(cache, XSiteStateProvider.class).getStatePushProgress(NYC).getChunksSent() == 0) {
+                  return false;
+               }
+            }
+            return true;
+         }
+      });
+      for (Cache<?, ?> cache : caches(LON)) {
+         assertEquals(1, extractComponent(cache, XSiteStateProvider.class).getStatePushProgress(NYC).getChunksSent());
+      }
+      assertTrue(listener.received.get() <= caches(LON).size());
+
+      assertEquals(XSiteAdminOperations.SUCCESS, adminOperations(0).cancelPushState(NYC));
+      assertTrue(adminOperations(0).getRunningStateTransfer().isEmpty());
+      listener.release.countDown();
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            for (Cache<?, ?> cache : caches(LON)) {
+               if (!extractComponent(cache, XSiteStateProvider.class).getCurrentStateSending().isEmpty()) {
+                  return false;
+               }
+            }
+            return true;
+         }
+      });
+      for (Cache<?, ?> cache : caches(LON)) {
+         XSiteStatePushProgress progress = extractComponent(cache, XSiteStateProvider.class).getStatePushProgress(NYC);
+         assertEquals(XSiteStatePushProgress.Status.CANCELED, progress.getStatus());
+         assertTrue(progress.getCompletedSegments() < progress.getTotalSegments());
+      }
+
+      assertEquals(XSiteAdminOperations.SUCCESS, adminOperations(0).resumePushState(NYC));
+      awaitStatePushed();
+      for (Cache<?, ?> cache : caches(LON)) {
+         XSiteStatePushProgress progress = extractComponent(cache, XSiteStateProvider.class).getStatePushProgress(NYC);
+         assertEquals(XSiteStatePushProgress.Status.FINISHED, progress.getStatus());
+         assertEquals(progress.getTotalSegments(), progress.getCompletedSegments());
+      }
+      assertAllKeysInNyc();
+   }
+
+   public void testCancelNotRunning() {
+      assertTrue(adminOperations(0).cancelPushState(NYC).startsWith("Unable to cancel pushState to 'NYC'."));
+   }
+
+   private void putKeysWithSiteOffline() {
+      assertEquals(XSiteAdminOperations.SUCCESS, adminOperations(0).takeSiteOffline(NYC));
+      for (int i = 0; i < NUM_KEYS; ++i) {
+         cache(LON, 0).put("key-" + i, "value-" + i);
+      }
+      assertTrue(cache(NYC, 0).isEmpty());
+   }
+
+   private void awaitStatePushed() {
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return adminOperations(0).getRunningStateTransfer().isEmpty();
+         }
+      }, TimeUnit.SECONDS.toMillis(30));
+   }
+
+   private void assertAllKeysInNyc() {
+      for (Cache<Object, Object> cache : this.<Object, Object>caches(NYC)) {
+         for (int i = 0; i < NUM_KEYS; ++i) {
+            assertEquals("value-" + i, cache.get("key-" + i));
+         }
+      }
+   }
+
+   private XSiteAdminOperations adminOperations(int index) {
+      return extractComponent(cache(LON, index), XSiteAdminOperations.class);
+   }
+
+   private static class BlockingStateListener {
+
+      private final CountDownLatch blocked = new CountDownLatch(1);
+      private final CountDownLatch release = new CountDownLatch(1);
+      private final AtomicInteger received = new AtomicInteger();
+
+      void beforeState() throws InterruptedException {
+         received.incrementAndGet();
+         blocked.countDown();
+         release.await(30, TimeUnit.SECONDS);
+      }
+   }
+
+   private static class BlockingBackupReceiverRepository extends BackupReceiverRepositoryDelegator {
+
+      private final BlockingStateListener listener;
+
+      private BlockingBackupReceiverRepository(BackupReceiverRepository delegate, BlockingStateListener listener) {
+         super(delegate);
+         this.listener = listener;
+      }
+
+      @Override
+      public BackupReceiver getBackupReceiver(String originSiteName, String cacheName) {
+         return new BackupReceiverDelegator(super.getBackupReceiver(originSiteName, cacheName)) {
+            @Override
+            public void handleStateTransferState(XSiteStatePushCommand cmd) throws Exception {
+               listener.beforeState();
+               super.handleStateTransferState(cmd);
+            }
+         };
+      }
+
+      public static void replaceInCache(CacheContainer cacheContainer, BlockingStateListener listener) {
+         BackupReceiverRepository delegate = extractGlobalComponent(cacheContainer, BackupReceiverRepository.class);
+         BlockingBackupReceiverRepository wrapper = new BlockingBackupReceiverRepository(delegate, listener);
+         replaceComponent(cacheContainer, BackupReceiverRepository.class, wrapper, true);
+         JGroupsTransport t = (JGroupsTransport) extractGlobalComponent(cacheContainer, Transport.class);
+         CommandAwareRpcDispatcher card = t.getCommandAwareRpcDispatcher();
+         replaceField(wrapper, "backupReceiverRepository", card, CommandAwareRpcDispatcher.class);
+      }
+   }
+}
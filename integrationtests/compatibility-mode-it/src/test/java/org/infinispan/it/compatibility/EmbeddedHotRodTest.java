@@ -5,6 +5,8 @@
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.VersionedValue;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.functional.EntryFunction;
+import org.infinispan.functional.MutableEntry;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -156,4 +158,22 @@ public void testHotRodRemoveConditionalEmbeddedGet() {
       assertEquals(null, embedded.get(key));
    }
 
+   public void testHotRodPutEmbeddedEval() {
+      final Integer key = 13;
+      Cache<Integer, String> embedded = cacheFactory.getEmbeddedCache();
+      RemoteCache<Integer, String> remote = cacheFactory.getHotRodCache();
+      remote.put(key, "v1");
+      String previous = embedded.getAdvancedCache().eval(key, new EntryFunction<Integer, String, String>() {
+         @Override
+         public String apply(MutableEntry<Integer, String> entry) {
+            assertEquals(key, entry.getKey());
+            String value = entry.getValue();
+            entry.setValue(value + "-evaluated");
+            return value;
+         }
+      });
+      assertEquals("v1", previous);
+      assertEquals("v1-evaluated", remote.get(key));
+   }
+
 }
@@ -28,6 +28,38 @@ public interface BuildContext {
     */
    BuildContext chunkSize(int bytes);
 
+   /**
+    * Sets the number of chunks read ahead asynchronously while an IndexInput reads a file sequentially, so that reading
+    * the next chunks doesn't wait for a remote get. Read ahead chunks are kept in the node-local chunk cache, which is
+    * enlarged to hold at least twice this number of chunks. Disabled by default.
+    *
+    * @param chunks the number of chunks following the current one to read ahead, or zero to disable read-ahead
+    * @return the same building context to eventually create the Directory instance
+    * @see #localChunkCacheSize(int)
+    */
+   BuildContext readAheadChunks(int chunks);
+
+   /**
+    * Sets the maximum number of chunks kept in a node-local cache shared by the IndexInputs of the Directory. Segment
+    * files are immutable, so reading again a cached chunk doesn't need a remote get; the cache is bounded and evicts the
+    * least recently used chunks. Disabled by default.
+    *
+    * @param chunks the maximum number of chunks cached locally, or zero to disable the local cache
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext localChunkCacheSize(int chunks);
+
+   /**
+    * Enables asynchronous writes of the chunks by the IndexOutputs: instead of waiting for each chunk to be stored, up to
+    * the given number of chunk writes are kept in flight. The file is added to the index only when it is closed and all
+    * its chunks are stored, so readers never see a partially written file. Disabled by default.
+    *
+    * @param maxInFlight the maximum number of chunk writes in flight for each IndexOutput, or zero to store each chunk
+    *        synchronously
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext asyncChunkWrites(int maxInFlight);
+
    /**
     * Overrides the default SegmentReadLocker. In some cases you might be able to provide more efficient implementations than
     * the default one by controlling the IndexReader's lifecycle
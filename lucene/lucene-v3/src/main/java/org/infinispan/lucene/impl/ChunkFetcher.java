@@ -0,0 +1,173 @@
+package org.infinispan.lucene.impl;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.lucene.ChunkCacheKey;
+import org.infinispan.lucene.FileMetadata;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Reads the chunks of the index files for the IndexInputs of a Directory.
+ * <p>
+ * Segment files are never modified once written, so their chunks can be kept in a bounded node-local cache, shared by
+ * all the IndexInputs and their clones: reading a chunk again doesn't need a remote get in distributed mode. A cached
+ * chunk is only used as long as the size and the last modification time of the file are the ones it was read with, so
+ * a file deleted and created again with the same name is read again from the chunks cache. Files fitting in a single
+ * chunk, like segments.gen which Lucene overwrites, are not read through this class.
+ * <p>
+ * When reading sequentially, the following chunks of the file can be read ahead asynchronously; they are put in the
+ * local cache once received.
+ *
+ * @since 7.0
+ */
+final class ChunkFetcher {
+
+   private static final Log log = LogFactory.getLog(ChunkFetcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final AdvancedCache<ChunkCacheKey, Object> chunksCache;
+   private final int readAheadChunks;
+   private final BoundedConcurrentHashMap<ChunkCacheKey, CachedChunk> localChunks;
+   private final ConcurrentMap<ChunkCacheKey, Future<Object>> pendingReads;
+
+   /**
+    * @param readAheadChunks the number of chunks to read ahead, or zero to disable the read-ahead
+    * @param localCacheSize the maximum number of chunks kept in the local cache, or zero to disable it. The local cache
+    *        holds at least twice the number of chunks read ahead.
+    */
+   ChunkFetcher(AdvancedCache<ChunkCacheKey, Object> chunksCache, int readAheadChunks, int localCacheSize) {
+      this.chunksCache = chunksCache;
+      this.readAheadChunks = readAheadChunks;
+      int capacity = Math.max(localCacheSize, 2 * readAheadChunks);
+      // Each segment evicts on its own: keep enough room in each one for the chunks read ahead
+      int concurrencyLevel = Integer.highestOneBit(Math.max(1, Math.min(16, capacity / Math.max(1, 2 * readAheadChunks))));
+      this.localChunks = capacity > 0 ? new BoundedConcurrentHashMap<ChunkCacheKey, CachedChunk>(capacity, concurrencyLevel,
+            AnyEquivalence.<ChunkCacheKey>getInstance(), AnyEquivalence.<CachedChunk>getInstance()) : null;
+      this.pendingReads = readAheadChunks > 0
+            ? CollectionFactory.<ChunkCacheKey, Future<Object>>makeConcurrentMap(AnyEquivalence.getInstance(), AnyEquivalence.getInstance())
+            : null;
+   }
+
+   /**
+    * @return the content of the chunk, or null if the chunk doesn't exist
+    */
+   byte[] getChunk(ChunkCacheKey key, FileMetadata fileMetadata) {
+      if (localChunks == null) {
+         return (byte[]) chunksCache.get(key);
+      }
+      CachedChunk cached = localChunks.get(key);
+      if (cached != null && cached.isValidFor(fileMetadata)) {
+         return cached.buffer;
+      }
+      Object value = null;
+      Future<Object> pending = pendingReads != null ? pendingReads.remove(key) : null;
+      if (pending != null) {
+         try {
+            value = pending.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } catch (ExecutionException e) {
+            if (trace) log.tracef(e, "Read ahead of chunk %s failed, reading it again", key);
+         }
+      }
+      if (value == null) {
+         value = chunksCache.get(key);
+      }
+      byte[] buffer = (byte[]) value;
+      if (buffer != null) {
+         localChunks.put(key, new CachedChunk(buffer, fileMetadata));
+      }
+      return buffer;
+   }
+
+   /**
+    * Starts reading asynchronously the chunks following the given one, unless they are cached or being read already.
+    */
+   void readAhead(ChunkCacheKey key, FileMetadata fileMetadata) {
+      if (readAheadChunks <= 0) {
+         return;
+      }
+      int lastChunk = (int) ((fileMetadata.getSize() - 1) / fileMetadata.getBufferSize());
+      int toChunk = Math.min(key.getChunkId() + readAheadChunks, lastChunk);
+      for (int chunkId = key.getChunkId() + 1; chunkId <= toChunk; chunkId++) {
+         final ChunkCacheKey nextKey = new ChunkCacheKey(key.getIndexName(), key.getFileName(), chunkId, key.getBufferSize());
+         if (pendingReads.containsKey(nextKey)) {
+            continue;
+         }
+         CachedChunk cached = localChunks.get(nextKey);
+         if (cached != null && cached.isValidFor(fileMetadata)) {
+            continue;
+         }
+         final NotifyingFuture<Object> future = chunksCache.getAsync(nextKey);
+         if (pendingReads.putIfAbsent(nextKey, future) != null) {
+            continue;
+         }
+         final CachedChunk metadataHolder = new CachedChunk(null, fileMetadata);
+         future.attachListener(new FutureListener<Object>() {
+            @Override
+            public void futureDone(Future<Object> done) {
+               // Only cache the chunk if no reader consumed the pending read in the meantime. The chunk is cached
+               // before the pending read is removed, so a reader always finds it in one or the other.
+               if (pendingReads.get(nextKey) == future) {
+                  try {
+                     byte[] buffer = (byte[]) done.get();
+                     if (buffer != null) {
+                        localChunks.put(nextKey, new CachedChunk(buffer, metadataHolder));
+                     }
+                  } catch (Exception e) {
+                     if (trace) log.tracef(e, "Read ahead of chunk %s failed", nextKey);
+                  }
+                  pendingReads.remove(nextKey, future);
+               }
+            }
+         });
+      }
+   }
+
+   /**
+    * Removes the chunks of the given file from the local cache.
+    */
+   void invalidate(String indexName, String fileName) {
+      if (localChunks == null) {
+         return;
+      }
+      for (Iterator<ChunkCacheKey> it = localChunks.keySet().iterator(); it.hasNext(); ) {
+         ChunkCacheKey key = it.next();
+         if (key.getFileName().equals(fileName) && key.getIndexName().equals(indexName)) {
+            it.remove();
+         }
+      }
+   }
+
+   private static final class CachedChunk {
+      final byte[] buffer;
+      final long fileSize;
+      final long fileLastModified;
+
+      CachedChunk(byte[] buffer, FileMetadata fileMetadata) {
+         this.buffer = buffer;
+         this.fileSize = fileMetadata.getSize();
+         this.fileLastModified = fileMetadata.getLastModified();
+      }
+
+      CachedChunk(byte[] buffer, CachedChunk metadata) {
+         this.buffer = buffer;
+         this.fileSize = metadata.fileSize;
+         this.fileLastModified = metadata.fileLastModified;
+      }
+
+      boolean isValidFor(FileMetadata fileMetadata) {
+         return fileSize == fileMetadata.getSize() && fileLastModified == fileMetadata.getLastModified();
+      }
+   }
+}
@@ -38,6 +38,9 @@ public class DirectoryBuilderImpl implements BuildContext {
    private int chunkSize = DEFAULT_BUFFER_SIZE;
    private SegmentReadLocker srl = null;
    private LockFactory lockFactory = null;
+   private int readAheadChunks = 0;
+   private int localChunkCacheSize = 0;
+   private int asyncWriteWindow = 0;
 
    public DirectoryBuilderImpl(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName) {
       this.metadataCache = checkValidConfiguration(checkNotNull(metadataCache, "metadataCache"), indexName);
@@ -56,16 +59,16 @@ public Directory create() {
          srl = makeDefaultSegmentReadLocker(metadataCache, chunksCache, distLocksCache, indexName);
       }
       if (LuceneVersionDetector.VERSION == 3) {
-         return new DirectoryLuceneV3(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl);
+         return new DirectoryLuceneV3(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, readAheadChunks, localChunkCacheSize, asyncWriteWindow);
       }
       else {
-         Class<?>[] ctorType = new Class[]{ Cache.class, Cache.class, String.class, LockFactory.class, int.class, SegmentReadLocker.class };
+         Class<?>[] ctorType = new Class[]{ Cache.class, Cache.class, String.class, LockFactory.class, int.class, SegmentReadLocker.class, int.class, int.class, int.class };
          Directory d;
          try {
             d = (Directory) DirectoryBuilderImpl.class.getClassLoader()
                .loadClass("org.infinispan.lucene.impl.DirectoryLuceneV4")
                .getConstructor(ctorType)
-               .newInstance(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl);
+               .newInstance(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, readAheadChunks, localChunkCacheSize, asyncWriteWindow);
          }
          catch (Exception e) {
             throw log.failedToCreateLucene4Directory(e);
@@ -82,6 +85,30 @@ public BuildContext chunkSize(int bytes) {
       return this;
    }
 
+   @Override
+   public BuildContext readAheadChunks(int chunks) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("readAheadChunks must not be negative");
+      this.readAheadChunks = chunks;
+      return this;
+   }
+
+   @Override
+   public BuildContext localChunkCacheSize(int chunks) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("localChunkCacheSize must not be negative");
+      this.localChunkCacheSize = chunks;
+      return this;
+   }
+
+   @Override
+   public BuildContext asyncChunkWrites(int maxInFlight) {
+      if (maxInFlight < 0)
+         throw new IllegalArgumentException("asyncChunkWrites must not be negative");
+      this.asyncWriteWindow = maxInFlight;
+      return this;
+   }
+
    @Override
    public BuildContext overrideSegmentReadLocker(SegmentReadLocker srl) {
       checkNotNull(srl, "srl");
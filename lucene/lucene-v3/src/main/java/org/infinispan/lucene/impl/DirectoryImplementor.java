@@ -39,15 +39,30 @@ final class DirectoryImplementor {
     private final FileListOperations fileOps;
     private final SegmentReadLocker readLocks;
 
-    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker) {
+    // reads the chunks for the IndexInputs, caching them locally if enabled
+    private final ChunkFetcher chunkFetcher;
+
+    // maximum number of asynchronous chunk writes in flight for each IndexOutput, zero to write synchronously
+    private final int asyncWriteWindow;
+
+    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker,
+          int readAheadChunks, int localChunkCacheSize, int asyncWriteWindow) {
         if (chunkSize <= 0)
            throw new IllegalArgumentException("chunkSize must be a positive integer");
+        if (readAheadChunks < 0)
+           throw new IllegalArgumentException("readAheadChunks must not be negative");
+        if (localChunkCacheSize < 0)
+           throw new IllegalArgumentException("localChunkCacheSize must not be negative");
+        if (asyncWriteWindow < 0)
+           throw new IllegalArgumentException("asyncWriteWindow must not be negative");
         this.metadataCache = (AdvancedCache<FileCacheKey, FileMetadata>) metadataCache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING);
         this.chunksCache = (AdvancedCache<ChunkCacheKey, Object>) chunksCache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING);
         this.indexName = indexName;
         this.chunkSize = chunkSize;
         this.fileOps = new FileListOperations(this.metadataCache, indexName);
         this.readLocks = readLocker;
+        this.chunkFetcher = new ChunkFetcher(this.chunksCache, readAheadChunks, localChunkCacheSize);
+        this.asyncWriteWindow = asyncWriteWindow;
      }
 
     String[] list() {
@@ -92,6 +107,7 @@ void touchFile(final String fileName) {
     void deleteFile(final String name) {
        fileOps.deleteFileName(name);
        readLocks.deleteOrReleaseReadLock(name);
+       chunkFetcher.invalidate(indexName, name);
        if (log.isDebugEnabled()) {
           log.debugf("Removed file: %s from index: %s", name, indexName);
        }
@@ -121,6 +137,7 @@ void renameFile(final String from, final String to) {
 
        // now trigger deletion of old file chunks:
        readLocks.deleteOrReleaseReadLock(from);
+       chunkFetcher.invalidate(indexName, from);
        if (log.isTraceEnabled()) {
           log.tracef("Renamed file from: %s to: %s in index %s", from, to, indexName);
        }
@@ -138,8 +155,9 @@ long fileLength(final String name) {
 
     IndexOutput createOutput(final String name) {
        final FileCacheKey key = new FileCacheKey(indexName, name);
+       chunkFetcher.invalidate(indexName, name);
        // creating new file, metadata is added on flush() or close() of IndexOutPut
-       return new InfinispanIndexOutput(metadataCache, chunksCache, key, chunkSize, fileOps);
+       return new InfinispanIndexOutput(metadataCache, chunksCache, key, chunkSize, fileOps, asyncWriteWindow);
     }
 
     IndexInputContext openInput(final String name) throws IOException {
@@ -150,7 +168,7 @@ IndexInputContext openInput(final String name) throws IOException {
        }
        else if (fileMetadata.getSize() <= fileMetadata.getBufferSize()) {
           //files smaller than chunkSize don't need a readLock
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, null);
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, null, chunkFetcher);
        }
        else {
           boolean locked = readLocks.acquireReadLock(name);
@@ -158,7 +176,7 @@ else if (fileMetadata.getSize() <= fileMetadata.getBufferSize()) {
              // safest reaction is to tell this file doesn't exist anymore.
              throw new FileNotFoundException("Error loading metadata for index file: " + fileKey);
           }
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks);
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks, chunkFetcher);
        }
     }
 
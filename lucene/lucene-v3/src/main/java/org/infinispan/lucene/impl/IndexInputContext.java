@@ -12,13 +12,20 @@ public final class IndexInputContext {
    final FileCacheKey fileKey;
    final FileMetadata fileMetadata;
    final SegmentReadLocker readLocks;
+   final ChunkFetcher chunkFetcher;
 
    public IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
          SegmentReadLocker readLocks) {
+            this(chunksCache, fileKey, fileMetadata, readLocks, new ChunkFetcher(chunksCache, 0, 0));
+   }
+
+   IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
+         SegmentReadLocker readLocks, ChunkFetcher chunkFetcher) {
             this.chunksCache = chunksCache;
             this.fileKey = fileKey;
             this.fileMetadata = fileMetadata;
             this.readLocks = readLocks;
+            this.chunkFetcher = chunkFetcher;
    }
 
 }
@@ -3,9 +3,9 @@
 import java.io.IOException;
 
 import org.apache.lucene.store.IndexInput;
-import org.infinispan.Cache;
 import org.infinispan.lucene.ChunkCacheKey;
 import org.infinispan.lucene.FileCacheKey;
+import org.infinispan.lucene.FileMetadata;
 import org.infinispan.lucene.readlocks.SegmentReadLocker;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -27,8 +27,9 @@ abstract class InfinispanIndexInput extends IndexInput {
 
    protected boolean isClone;
 
-   private final Cache<ChunkCacheKey, Object> chunksCache;
+   private final ChunkFetcher chunkFetcher;
    private final FileCacheKey fileKey;
+   private final FileMetadata fileMetadata;
    private final int chunkSize;
    private final SegmentReadLocker readLocks;
    private final String filename;
@@ -41,8 +42,9 @@ abstract class InfinispanIndexInput extends IndexInput {
 
    public InfinispanIndexInput(final IndexInputContext ctx) {
       super(ctx.fileKey.getFileName());
-      this.chunksCache = ctx.chunksCache;
+      this.chunkFetcher = ctx.chunkFetcher;
       this.fileKey = ctx.fileKey;
+      this.fileMetadata = ctx.fileMetadata;
       this.chunkSize = ctx.fileMetadata.getBufferSize();
       this.fileLength = ctx.fileMetadata.getSize();
       this.readLocks = ctx.readLocks;
@@ -109,23 +111,26 @@ public void seek(final long pos) {
 
    private void nextChunk() throws IOException {
       currentLoadedChunk++;
-      setBufferToCurrentChunk();
+      ChunkCacheKey key = setBufferToCurrentChunk();
+      // reading sequentially: fetch the following chunks while this one is consumed
+      chunkFetcher.readAhead(key, fileMetadata);
    }
 
-   private void setBufferToCurrentChunk() throws IOException {
+   private ChunkCacheKey setBufferToCurrentChunk() throws IOException {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = chunkFetcher.getChunk(key, fileMetadata);
       if (buffer == null) {
          throw new IOException("Read past EOF: Chunk value could not be found for key " + key);
       }
       currentBufferSize = buffer.length;
+      return key;
    }
 
    // Lucene might try seek(pos) using an illegal pos value
    // RAMDirectory teaches to position the cursor to the end of previous chunk in this case
    private void setBufferToCurrentChunkIfPossible() {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = chunkFetcher.getChunk(key, fileMetadata);
       if (buffer == null) {
          currentLoadedChunk--;
          bufferPosition = chunkSize;
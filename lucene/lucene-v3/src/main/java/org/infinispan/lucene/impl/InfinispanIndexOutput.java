@@ -1,6 +1,12 @@
 package org.infinispan.lucene.impl;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.lucene.store.IndexOutput;
 import org.infinispan.AdvancedCache;
@@ -35,6 +41,16 @@ public final class InfinispanIndexOutput extends IndexOutput {
    private final FileCacheKey fileKey;
    private final FileListOperations fileOps;
 
+   /**
+    * Maximum number of chunk writes in flight when storing the chunks asynchronously, or zero to store them synchronously
+    */
+   private final int asyncWriteWindow;
+
+   /**
+    * The asynchronous chunk writes not acknowledged yet, in the order they were issued
+    */
+   private final Map<ChunkCacheKey, Future<Object>> pendingWrites;
+
    private byte[] buffer;
 
    /**
@@ -47,12 +63,22 @@ public final class InfinispanIndexOutput extends IndexOutput {
    private int currentChunkNumber = 0;
 
    public InfinispanIndexOutput(final AdvancedCache<FileCacheKey, FileMetadata> metadataCache, final AdvancedCache<ChunkCacheKey, Object> chunksCache, final FileCacheKey fileKey, final int bufferSize, final FileListOperations fileList) {
+      this(metadataCache, chunksCache, fileKey, bufferSize, fileList, 0);
+   }
+
+   /**
+    * @param asyncWriteWindow when positive, the chunks are stored asynchronously with at most this number of writes in
+    *        flight; the file is added to the index only once all its chunks are stored.
+    */
+   public InfinispanIndexOutput(final AdvancedCache<FileCacheKey, FileMetadata> metadataCache, final AdvancedCache<ChunkCacheKey, Object> chunksCache, final FileCacheKey fileKey, final int bufferSize, final FileListOperations fileList, final int asyncWriteWindow) {
       this.metadataCache = metadataCache;
       this.chunksCache = chunksCache;
       this.chunksCacheForStorage = chunksCache.withFlags(Flag.IGNORE_RETURN_VALUES);
       this.fileKey = fileKey;
       this.bufferSize = bufferSize;
       this.fileOps = fileList;
+      this.asyncWriteWindow = asyncWriteWindow;
+      this.pendingWrites = asyncWriteWindow > 0 ? new LinkedHashMap<ChunkCacheKey, Future<Object>>() : null;
       this.buffer = new byte[this.bufferSize];
       this.firstChunkBuffer = buffer;
       this.file = new FileMetadata(bufferSize);
@@ -61,11 +87,13 @@ public InfinispanIndexOutput(final AdvancedCache<FileCacheKey, FileMetadata> met
       }
    }
 
-   private byte[] getChunkById(FileCacheKey fileKey, int chunkNumber, int bufferSize) {
+   private byte[] getChunkById(FileCacheKey fileKey, int chunkNumber, int bufferSize) throws IOException {
       if (file.getNumberOfChunks() <= chunkNumber) {
          return new byte[bufferSize];
       }
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), fileKey.getFileName(), chunkNumber, bufferSize);
+      // make sure we read back the last version written of the chunk
+      awaitPendingWrite(key);
       byte[] readBuffer = (byte[]) chunksCache.get(key);
       if (readBuffer==null) {
          return new byte[bufferSize];
@@ -88,7 +116,7 @@ private static int getChunkNumberFromPosition(final long pos, final int bufferSi
       return (int) ((pos) / (bufferSize));
    }
 
-   private void newChunk() {
+   private void newChunk() throws IOException {
       storeCurrentBuffer(false);// save data first
       currentChunkNumber++;
       // check if we have to create new chunk, or get already existing in cache for modification
@@ -97,7 +125,7 @@ private void newChunk() {
    }
 
    @Override
-   public final void writeByte(final byte b) {
+   public final void writeByte(final byte b) throws IOException {
       if (isNewChunkNeeded()) {
          newChunk();
       }
@@ -106,7 +134,7 @@ public final void writeByte(final byte b) {
    }
 
    @Override
-   public final void writeBytes(final byte[] b, final int offset, final int length) {
+   public final void writeBytes(final byte[] b, final int offset, final int length) throws IOException {
       int writtenBytes = 0;
       while (writtenBytes < length) {
          if (isNewChunkNeeded()) {
@@ -125,11 +153,12 @@ private boolean isNewChunkNeeded() {
    }
 
    @Override
-   public void flush() {
+   public void flush() throws IOException {
       storeCurrentBuffer(false);
+      awaitPendingWrites();
    }
 
-   protected void storeCurrentBuffer(final boolean isClose) {
+   protected void storeCurrentBuffer(final boolean isClose) throws IOException {
       if (currentChunkNumber == 0 && ! isClose) {
          //we don't store the first chunk until the close operation: this way
          //we guarantee each chunk is written only once an minimize locking needs.
@@ -157,10 +186,52 @@ protected void storeCurrentBuffer(final boolean isClose) {
     * @param bufferToFlush
     * @param chunkNumber
     */
-   private void storeBufferAsChunk(final byte[] bufferToFlush, final int chunkNumber) {
+   private void storeBufferAsChunk(final byte[] bufferToFlush, final int chunkNumber) throws IOException {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), fileKey.getFileName(), chunkNumber, bufferSize);
       if (trace) log.tracef("Storing segment chunk: %s", key);
-      chunksCacheForStorage.put(key, bufferToFlush);
+      if (pendingWrites == null) {
+         chunksCacheForStorage.put(key, bufferToFlush);
+         return;
+      }
+      // writes of the same chunk must not be reordered
+      awaitPendingWrite(key);
+      while (pendingWrites.size() >= asyncWriteWindow) {
+         Iterator<Map.Entry<ChunkCacheKey, Future<Object>>> eldest = pendingWrites.entrySet().iterator();
+         Map.Entry<ChunkCacheKey, Future<Object>> entry = eldest.next();
+         eldest.remove();
+         awaitWrite(entry.getKey(), entry.getValue());
+      }
+      pendingWrites.put(key, chunksCacheForStorage.putAsync(key, bufferToFlush));
+   }
+
+   private void awaitPendingWrite(final ChunkCacheKey key) throws IOException {
+      if (pendingWrites != null) {
+         Future<Object> pending = pendingWrites.remove(key);
+         if (pending != null) {
+            awaitWrite(key, pending);
+         }
+      }
+   }
+
+   private void awaitPendingWrites() throws IOException {
+      if (pendingWrites != null) {
+         for (Iterator<Map.Entry<ChunkCacheKey, Future<Object>>> it = pendingWrites.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<ChunkCacheKey, Future<Object>> entry = it.next();
+            it.remove();
+            awaitWrite(entry.getKey(), entry.getValue());
+         }
+      }
+   }
+
+   private static void awaitWrite(final ChunkCacheKey key, final Future<Object> write) throws IOException {
+      try {
+         write.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while storing segment chunk " + key);
+      } catch (ExecutionException e) {
+         throw new IOException("Failed to store segment chunk " + key, e.getCause());
+      }
    }
 
    private void resizeFileIfNeeded() {
@@ -170,7 +241,7 @@ private void resizeFileIfNeeded() {
    }
 
    @Override
-   public void close() {
+   public void close() throws IOException {
       if (currentChunkNumber==0) {
          //store current chunk, possibly resizing it
          storeCurrentBuffer(true);
@@ -182,6 +253,8 @@ public void close() {
       }
       buffer = null;
       firstChunkBuffer = null;
+      // the file must not be visible before all its chunks are stored
+      awaitPendingWrites();
       // override existing file header with updated accesstime
       file.touch();
       metadataCache.withFlags(Flag.IGNORE_RETURN_VALUES).put(fileKey, file);
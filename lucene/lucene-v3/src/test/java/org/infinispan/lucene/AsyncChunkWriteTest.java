@@ -0,0 +1,209 @@
+package org.infinispan.lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.infinispan.Cache;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.lucene.testutils.RepeatableLongByteSequence;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the IndexOutputs storing the chunks asynchronously.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "lucene.AsyncChunkWriteTest", singleThreaded = true)
+public class AsyncChunkWriteTest extends AbstractInfinispanTest {
+
+   private static final String INDEXNAME = "index";
+   private static final String CHUNKS_CACHE = "chunks";
+   private static final int CHUNK_SIZE = 64;
+   private static final int FILE_SIZE = 1501;
+
+   private CacheContainer cacheManager;
+
+   @BeforeTest(alwaysRun = true)
+   public void prepareCacheManager() {
+      cacheManager = CacheTestSupport.createTestCacheManager();
+   }
+
+   @AfterTest(alwaysRun = true)
+   public void killCacheManager() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearCache() {
+      if (cacheManager != null) {
+         cacheManager.getCache().clear();
+         cacheManager.getCache(CHUNKS_CACHE).clear();
+      }
+   }
+
+   public void testFileVisibleOnlyAfterClose() throws IOException {
+      Directory dir = createDirectory(2);
+      IndexOutput io = dir.createOutput("Async.txt");
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      for (int i = 0; i < FILE_SIZE; i++) {
+         io.writeByte(bytesGenerator.nextByte());
+      }
+      AssertJUnit.assertFalse(Arrays.asList(dir.listAll()).contains("Async.txt"));
+      io.close();
+      AssertJUnit.assertTrue(Arrays.asList(dir.listAll()).contains("Async.txt"));
+
+      IndexInput input = dir.openInput("Async.txt");
+      bytesGenerator = new RepeatableLongByteSequence();
+      AssertJUnit.assertEquals(FILE_SIZE, input.length());
+      for (int i = 0; i < FILE_SIZE; i++) {
+         AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+      }
+      input.close();
+      dir.close();
+   }
+
+   public void testCloseWaitsForPendingWrites() throws Exception {
+      Cache cache = cacheManager.getCache();
+      Cache chunksCache = cacheManager.getCache(CHUNKS_CACHE);
+      // the window is larger than the file, so all its chunks are still in flight when the output is closed
+      final Directory dir = DirectoryBuilder.newDirectoryInstance(cache, chunksCache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).asyncChunkWrites(FILE_SIZE / CHUNK_SIZE + 1).create();
+      final BlockingChunkWritesInterceptor interceptor = new BlockingChunkWritesInterceptor(-1);
+      chunksCache.getAdvancedCache().addInterceptor(interceptor, 0);
+      try {
+         final IndexOutput io = dir.createOutput("Blocked.txt");
+         writeBytes(io);
+         Future<Void> close = fork(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               io.close();
+               return null;
+            }
+         });
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return interceptor.blocked.get() > 0;
+            }
+         });
+         AssertJUnit.assertFalse(close.isDone());
+         AssertJUnit.assertNull(cache.get(new FileCacheKey(INDEXNAME, "Blocked.txt")));
+         AssertJUnit.assertFalse(Arrays.asList(dir.listAll()).contains("Blocked.txt"));
+
+         interceptor.release.countDown();
+         close.get(10, TimeUnit.SECONDS);
+         AssertJUnit.assertNotNull(cache.get(new FileCacheKey(INDEXNAME, "Blocked.txt")));
+         AssertJUnit.assertTrue(Arrays.asList(dir.listAll()).contains("Blocked.txt"));
+      } finally {
+         interceptor.release.countDown();
+         chunksCache.getAdvancedCache().removeInterceptor(BlockingChunkWritesInterceptor.class);
+      }
+      dir.close();
+   }
+
+   public void testFailedWriteSurfacesOnClose() throws IOException {
+      Cache cache = cacheManager.getCache();
+      Cache chunksCache = cacheManager.getCache(CHUNKS_CACHE);
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, chunksCache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).asyncChunkWrites(FILE_SIZE / CHUNK_SIZE + 1).create();
+      BlockingChunkWritesInterceptor interceptor = new BlockingChunkWritesInterceptor(3);
+      interceptor.release.countDown();
+      chunksCache.getAdvancedCache().addInterceptor(interceptor, 0);
+      try {
+         IndexOutput io = dir.createOutput("Failed.txt");
+         writeBytes(io);
+         try {
+            io.close();
+            AssertJUnit.fail("The failed write of chunk 3 should have been reported");
+         } catch (IOException e) {
+            AssertJUnit.assertTrue(e.getMessage(), e.getMessage().contains("Failed to store segment chunk"));
+         }
+         AssertJUnit.assertNull(cache.get(new FileCacheKey(INDEXNAME, "Failed.txt")));
+         AssertJUnit.assertFalse(Arrays.asList(dir.listAll()).contains("Failed.txt"));
+      } finally {
+         chunksCache.getAdvancedCache().removeInterceptor(BlockingChunkWritesInterceptor.class);
+      }
+      dir.close();
+   }
+
+   public void testRewriteChunksUsingSeek() throws IOException {
+      Directory dir = createDirectory(3);
+      IndexOutput io = dir.createOutput("Rewritten.txt");
+      byte[] bytes = new byte[FILE_SIZE];
+      new RepeatableLongByteSequence().nextBytes(bytes);
+      io.writeBytes(bytes, bytes.length);
+      // rewrite some bytes of chunks which may still be in flight
+      for (int pos = CHUNK_SIZE + 5; pos < FILE_SIZE; pos += 3 * CHUNK_SIZE) {
+         io.seek(pos);
+         io.writeByte((byte) 7);
+         bytes[pos] = 7;
+      }
+      io.seek(FILE_SIZE);
+      io.close();
+
+      IndexInput input = dir.openInput("Rewritten.txt");
+      byte[] read = new byte[FILE_SIZE];
+      input.readBytes(read, 0, FILE_SIZE);
+      AssertJUnit.assertTrue(Arrays.equals(bytes, read));
+      input.close();
+      dir.close();
+   }
+
+   private static void writeBytes(IndexOutput io) throws IOException {
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      for (int i = 0; i < FILE_SIZE; i++) {
+         io.writeByte(bytesGenerator.nextByte());
+      }
+   }
+
+   /**
+    * Holds the writes of the chunks until released, and fails the write of the given chunk.
+    */
+   private static class BlockingChunkWritesInterceptor extends CommandInterceptor {
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger blocked = new AtomicInteger();
+      private final int failedChunkId;
+
+      BlockingChunkWritesInterceptor(int failedChunkId) {
+         this.failedChunkId = failedChunkId;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         if (command.getKey() instanceof ChunkCacheKey) {
+            blocked.incrementAndGet();
+            if (!release.await(10, TimeUnit.SECONDS)) {
+               throw new IllegalStateException("The chunk writes were not released");
+            }
+            if (((ChunkCacheKey) command.getKey()).getChunkId() == failedChunkId) {
+               throw new IllegalStateException("Failing the write of " + command.getKey());
+            }
+         }
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   private Directory createDirectory(int maxInFlight) {
+      Cache cache = cacheManager.getCache();
+      return DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).asyncChunkWrites(maxInFlight).create();
+   }
+}
@@ -0,0 +1,176 @@
+package org.infinispan.lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.infinispan.Cache;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.lucene.readlocks.DistributedSegmentReadLocker;
+import org.infinispan.lucene.testutils.RepeatableLongByteSequence;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the read-ahead and the node-local chunk cache of the IndexInputs.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "lucene.ChunkReadAheadTest", singleThreaded = true)
+public class ChunkReadAheadTest extends AbstractInfinispanTest {
+
+   private static final String INDEXNAME = "index";
+   private static final int CHUNK_SIZE = 64;
+   private static final int FILE_SIZE = 1501;
+
+   private CacheContainer cacheManager;
+
+   @BeforeTest(alwaysRun = true)
+   public void prepareCacheManager() {
+      cacheManager = CacheTestSupport.createTestCacheManager();
+   }
+
+   @AfterTest(alwaysRun = true)
+   public void killCacheManager() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearCache() {
+      if (cacheManager != null) {
+         cacheManager.getCache().clear();
+      }
+   }
+
+   public void testSequentialReadWithReadAhead() throws IOException {
+      Cache cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).readAheadChunks(4).create();
+      writeFile(dir, "ReadAhead.txt", 0);
+
+      final ChunkReadsInterceptor chunkReads = new ChunkReadsInterceptor();
+      cache.getAdvancedCache().addInterceptor(chunkReads, 0);
+      try {
+         IndexInput input = dir.openInput("ReadAhead.txt");
+         RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+         // Moving to chunk 1 reads chunks 2 to 5 ahead
+         for (int i = 0; i <= CHUNK_SIZE; i++) {
+            AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+         }
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return chunkReads.chunkIds.containsAll(Arrays.asList(2, 3, 4, 5));
+            }
+         });
+
+         // The chunks read ahead are served by the ChunkFetcher, not by the chunks cache
+         for (int i = 2; i <= 5; i++) {
+            AssertJUnit.assertNotNull(cache.remove(new ChunkCacheKey(INDEXNAME, "ReadAhead.txt", i, CHUNK_SIZE)));
+         }
+         for (int i = CHUNK_SIZE + 1; i < FILE_SIZE; i++) {
+            AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+         }
+         input.close();
+      } finally {
+         cache.getAdvancedCache().removeInterceptor(ChunkReadsInterceptor.class);
+      }
+      dir.close();
+   }
+
+   public void testChunksReadFromLocalCache() throws IOException {
+      Cache cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).localChunkCacheSize(100).create();
+      writeFile(dir, "Cached.txt", 0);
+
+      IndexInput input = dir.openInput("Cached.txt");
+      assertFileContent(input, 0);
+      input.close();
+
+      // The chunks read once are served by the local cache
+      removeChunks(cache, "Cached.txt");
+      input = dir.openInput("Cached.txt");
+      assertFileContent(input, 0);
+      input.close();
+      dir.close();
+   }
+
+   public void testLocalCacheInvalidatedOnDelete() throws IOException {
+      Cache cache = cacheManager.getCache();
+      // Deleting synchronously, otherwise the chunks of the deleted file could be removed after the new file is written
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE).readAheadChunks(2).localChunkCacheSize(100)
+            .overrideSegmentReadLocker(new DistributedSegmentReadLocker(cache, cache, cache, INDEXNAME, true))
+            .create();
+      writeFile(dir, "Recreated.txt", 0);
+      IndexInput input = dir.openInput("Recreated.txt");
+      assertFileContent(input, 0);
+      input.close();
+
+      dir.deleteFile("Recreated.txt");
+      writeFile(dir, "Recreated.txt", 1);
+      input = dir.openInput("Recreated.txt");
+      assertFileContent(input, 1);
+      input.close();
+      dir.close();
+   }
+
+   private static void writeFile(Directory dir, String fileName, int skip) throws IOException {
+      IndexOutput io = dir.createOutput(fileName);
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      for (int i = 0; i < skip; i++) {
+         bytesGenerator.nextByte();
+      }
+      for (int i = 0; i < FILE_SIZE; i++) {
+         io.writeByte(bytesGenerator.nextByte());
+      }
+      io.close();
+   }
+
+   private static void assertFileContent(IndexInput input, int skip) throws IOException {
+      AssertJUnit.assertEquals(FILE_SIZE, input.length());
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      for (int i = 0; i < skip; i++) {
+         bytesGenerator.nextByte();
+      }
+      for (int i = 0; i < FILE_SIZE; i++) {
+         AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+      }
+   }
+
+   /**
+    * Records the ids of the chunks read from the chunks cache.
+    */
+   private static class ChunkReadsInterceptor extends CommandInterceptor {
+      final Set<Integer> chunkIds = new ConcurrentHashSet<Integer>();
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         Object value = invokeNextInterceptor(ctx, command);
+         if (value != null && command.getKey() instanceof ChunkCacheKey) {
+            chunkIds.add(((ChunkCacheKey) command.getKey()).getChunkId());
+         }
+         return value;
+      }
+   }
+
+   private static void removeChunks(Cache cache, String fileName) {
+      for (int i = 0; i <= FILE_SIZE / CHUNK_SIZE; i++) {
+         AssertJUnit.assertNotNull(cache.remove(new ChunkCacheKey(INDEXNAME, fileName, i, CHUNK_SIZE)));
+      }
+   }
+}
@@ -46,6 +46,7 @@ public class TableManipulation implements Cloneable {
    private String loadAllRowsSql;
    private String countRowsSql;
    private String loadAllNonExpiredRowsSql;
+   private String loadAllNonExpiredKeysAndRowsSql;
    private String deleteAllRows;
    private String selectExpiredRowsSql;
    private String deleteExpiredRowsSql;
@@ -255,6 +256,18 @@ public String getLoadNonExpiredAllRowsSql() {
       return loadAllNonExpiredRowsSql;
    }
 
+   /**
+    * Same as {@link #getLoadNonExpiredAllRowsSql()}, but the id column comes first, so that the key of a row can be
+    * read and filtered before its data column.
+    */
+   public String getLoadNonExpiredAllKeysAndRowsSql() {
+      if (loadAllNonExpiredKeysAndRowsSql == null) {
+         loadAllNonExpiredKeysAndRowsSql = "SELECT " + config.idColumnName() + "," + config.dataColumnName() + " FROM " + getTableName() + " WHERE " +
+               config.timestampColumnName() + " > ? OR " + config.timestampColumnName() + " < 0";
+      }
+      return loadAllNonExpiredKeysAndRowsSql;
+   }
+
    public String getLoadAllRowsSql() {
       if (loadAllRowsSql == null) {
          loadAllRowsSql = "SELECT " + config.dataColumnName() + "," + config.idColumnName() + " FROM " + getTableName();
@@ -17,6 +17,7 @@
 import org.infinispan.persistence.jdbc.connectionfactory.ManagedConnectionFactory;
 import org.infinispan.persistence.jdbc.logging.Log;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.support.Bucket;
 import org.infinispan.util.concurrent.locks.StripedLock;
@@ -28,10 +29,13 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -55,7 +59,7 @@
  * @see org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore
  */
 @ConfiguredBy(JdbcBinaryStoreConfiguration.class)
-public class JdbcBinaryStore implements AdvancedLoadWriteStore {
+public class JdbcBinaryStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcBinaryStore.class, Log.class);
 
@@ -128,6 +132,57 @@ public final void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Groups the entries by bucket, so that every affected bucket is loaded and stored only once.
+    */
+   @Override
+   public final void writeBatch(Iterable entries) {
+      Map<Integer, List<MarshalledEntry>> entriesByBucket = new HashMap<Integer, List<MarshalledEntry>>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         Integer bucketId = getBuckedId(entry.getKey());
+         List<MarshalledEntry> bucketEntries = entriesByBucket.get(bucketId);
+         if (bucketEntries == null) {
+            bucketEntries = new ArrayList<MarshalledEntry>();
+            entriesByBucket.put(bucketId, bucketEntries);
+         }
+         bucketEntries.add(entry);
+      }
+      log.tracef("writeBatch(%d buckets)", entriesByBucket.size());
+      long now = ctx.getTimeService().wallClockTime();
+      for (Map.Entry<Integer, List<MarshalledEntry>> e : entriesByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            boolean exists = bucket != null;
+            if (!exists) {
+               bucket = new Bucket(keyEquivalence);
+               bucket.setBucketId(bucketId);
+            }
+            boolean modified = false;
+            for (MarshalledEntry me : e.getValue()) {
+               InternalMetadata m = me.getMetadata();
+               if (m != null && m.isExpired(now)) {
+                  modified |= bucket.removeEntry(me.getKey());
+               } else {
+                  bucket.addEntry(me.getKey(), me);
+                  modified = true;
+               }
+            }
+            if (modified) {
+               if (exists) {
+                  updateBucket(bucket);
+               } else {
+                  insertBucket(bucket);
+               }
+            }
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
    @Override
    public final MarshalledEntry load(Object key) {
       Integer bucketId = getBuckedId(key);
@@ -168,6 +223,42 @@ public final boolean delete(Object key) {
       }
    }
 
+   /**
+    * Groups the keys by bucket, so that every affected bucket is loaded and stored only once.
+    */
+   @Override
+   public final void deleteBatch(Iterable keys) {
+      Map<Integer, List<Object>> keysByBucket = new HashMap<Integer, List<Object>>();
+      for (Object key : keys) {
+         Integer bucketId = getBuckedId(key);
+         List<Object> bucketKeys = keysByBucket.get(bucketId);
+         if (bucketKeys == null) {
+            bucketKeys = new ArrayList<Object>();
+            keysByBucket.put(bucketId, bucketKeys);
+         }
+         bucketKeys.add(key);
+      }
+      log.tracef("deleteBatch(%d buckets)", keysByBucket.size());
+      for (Map.Entry<Integer, List<Object>> e : keysByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            if (bucket == null)
+               continue;
+            boolean modified = false;
+            for (Object key : e.getValue()) {
+               modified |= bucket.removeEntry(key);
+            }
+            if (modified) {
+               updateBucket(bucket);
+            }
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
       Connection conn = null;
@@ -13,11 +13,14 @@
 import org.infinispan.persistence.jdbc.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 /**
@@ -45,7 +48,7 @@
  * @see org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore
  */
 @ConfiguredBy(JdbcMixedStoreConfiguration.class)
-public class JdbcMixedStore implements AdvancedLoadWriteStore {
+public class JdbcMixedStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcMixedStore.class);
 
@@ -128,6 +131,41 @@ public boolean delete(Object key) {
       return getStore(key).delete(key);
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<MarshalledEntry> stringEntries = new ArrayList<MarshalledEntry>();
+      List<MarshalledEntry> binaryEntries = new ArrayList<MarshalledEntry>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         if (getStore(entry.getKey()) == stringStore) {
+            stringEntries.add(entry);
+         } else {
+            binaryEntries.add(entry);
+         }
+      }
+      if (!stringEntries.isEmpty())
+         stringStore.writeBatch(stringEntries);
+      if (!binaryEntries.isEmpty())
+         binaryStore.writeBatch(binaryEntries);
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Object> stringKeys = new ArrayList<Object>();
+      List<Object> binaryKeys = new ArrayList<Object>();
+      for (Object key : keys) {
+         if (getStore(key) == stringStore) {
+            stringKeys.add(key);
+         } else {
+            binaryKeys.add(key);
+         }
+      }
+      if (!stringKeys.isEmpty())
+         stringStore.deleteBatch(stringKeys);
+      if (!binaryKeys.isEmpty())
+         binaryStore.deleteBatch(binaryKeys);
+   }
+
    @Override
    public int size() {
       return stringStore.size() + binaryStore.size();
@@ -2,6 +2,8 @@
 
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.TaskContextImpl;
@@ -15,16 +17,21 @@
 import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
 import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.logging.LogFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -68,7 +75,7 @@
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
+public class JdbcStringBasedStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
 
@@ -180,6 +187,94 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Stores the entries in chunks of {@link TableManipulation#getBatchSize()} rows. Every chunk is first applied with a
+    * single batch of UPDATE statements, and the rows that didn't exist yet are then inserted with a single batch of
+    * INSERT statements, so a chunk needs two round-trips to the database instead of two per entry.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      Connection connection = null;
+      PreparedStatement updatePs = null;
+      PreparedStatement insertPs = null;
+      PreparedStatement selectPs = null;
+      try {
+         connection = connectionFactory.getConnection();
+         updatePs = connection.prepareStatement(tableManipulation.getUpdateRowSql());
+         insertPs = connection.prepareStatement(tableManipulation.getInsertRowSql());
+         selectPs = connection.prepareStatement(tableManipulation.getSelectIdRowSql());
+         int batchSize = tableManipulation.getBatchSize();
+         List<MarshalledEntry> chunk = new ArrayList<MarshalledEntry>(batchSize);
+         for (Object entry : entries) {
+            chunk.add((MarshalledEntry) entry);
+            if (chunk.size() == batchSize) {
+               writeChunk(chunk, updatePs, insertPs, selectPs);
+               chunk.clear();
+            }
+         }
+         if (!chunk.isEmpty())
+            writeChunk(chunk, updatePs, insertPs, selectPs);
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("SQL Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (log.isTraceEnabled()) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         JdbcUtil.safeClose(selectPs);
+         JdbcUtil.safeClose(insertPs);
+         JdbcUtil.safeClose(updatePs);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   private void writeChunk(List<MarshalledEntry> chunk, PreparedStatement updatePs, PreparedStatement insertPs,
+                           PreparedStatement selectPs) throws SQLException, InterruptedException {
+      String[] keys = new String[chunk.size()];
+      ByteBuffer[] values = new ByteBuffer[chunk.size()];
+      for (int i = 0; i < keys.length; i++) {
+         MarshalledEntry entry = chunk.get(i);
+         keys[i] = key2Str(entry.getKey());
+         values[i] = marshall(entry);
+         setStatementParameters(updatePs, entry, values[i], keys[i]);
+         updatePs.addBatch();
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Running sql '%s' for a batch of %d keys", tableManipulation.getUpdateRowSql(), keys.length);
+      }
+      int[] updateCounts = updatePs.executeBatch();
+
+      int inserts = 0;
+      for (int i = 0; i < keys.length; i++) {
+         boolean missing;
+         if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+            // the driver doesn't report the number of updated rows, so check whether the row exists
+            selectPs.setString(1, keys[i]);
+            ResultSet rs = selectPs.executeQuery();
+            try {
+               missing = !rs.next();
+            } finally {
+               JdbcUtil.safeClose(rs);
+            }
+         } else {
+            missing = updateCounts[i] == 0;
+         }
+         if (missing) {
+            setStatementParameters(insertPs, chunk.get(i), values[i], keys[i]);
+            insertPs.addBatch();
+            inserts++;
+         }
+      }
+      if (inserts > 0) {
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql '%s' for a batch of %d keys", tableManipulation.getInsertRowSql(), inserts);
+         }
+         insertPs.executeBatch();
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key) {
       String lockingKey = key2Str(key);
@@ -238,6 +333,42 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManipulation.getDeleteRowSql();
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batchSize = tableManipulation.getBatchSize();
+         int pending = 0;
+         for (Object key : keys) {
+            ps.setString(1, key2Str(key));
+            ps.addBatch();
+            if (++pending == batchSize) {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Running sql '%s' for a batch of %d keys", sql, pending);
+               }
+               ps.executeBatch();
+               pending = 0;
+            }
+         }
+         if (pending > 0) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Running sql '%s' for a batch of %d keys", sql, pending);
+            }
+            ps.executeBatch();
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       Connection conn = null;
@@ -306,61 +437,80 @@ public boolean contains(Object key) {
 
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      // the rows are read and their keys filtered sequentially, but each batch of rows is unmarshalled and processed on
+      // the executor
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      final TaskContext taskContext = new TaskContextImpl();
+      final boolean fetchData = fetchValue || fetchMetadata;
+      int batchSize = Math.max(tableManipulation.getFetchSize(), 1);
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         String sql = tableManipulation.getLoadNonExpiredAllKeysAndRowsSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql %s", sql);
+         }
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql);
+         ps.setLong(1, ctx.getTimeService().wallClockTime());
+         rs = ps.executeQuery();
+         rs.setFetchSize(tableManipulation.getFetchSize());
 
-      ExecutorCompletionService<Void> ecs = new ExecutorCompletionService<Void>(executor);
-      Future<Void> future = ecs.submit(new Callable<Void>() {
+         TwoWayKey2StringMapper mapper = (TwoWayKey2StringMapper) key2StringMapper;
+         List<KeyValuePair<Object, byte[]>> batch = new ArrayList<KeyValuePair<Object, byte[]>>(batchSize);
+         while (rs.next() && !taskContext.isStopped() && !eacs.isExceptionThrown()) {
+            Object key = mapper.getKeyMapping(rs.getString(1));
+            // don't read the data of the rows filtered out
+            if (filter != null && !filter.shouldLoadKey(key))
+               continue;
+            byte[] data = fetchData ? Util.readStream(rs.getBinaryStream(2)) : null;
+            batch.add(new KeyValuePair<Object, byte[]>(key, data));
+            if (batch.size() == batchSize) {
+               submitProcessTask(eacs, batch, task, taskContext, fetchData);
+               batch = new ArrayList<KeyValuePair<Object, byte[]>>(batchSize);
+            }
+         }
+         if (!batch.isEmpty()) {
+            submitProcessTask(eacs, batch, task, taskContext, fetchData);
+         }
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new PersistenceException("SQL error while fetching all StoredEntries", e);
+      } catch (IOException e) {
+         throw new PersistenceException("I/O error while fetching all StoredEntries", e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+         eacs.waitUntilAllCompleted();
+      }
+      if (eacs.isExceptionThrown()) {
+         log.errorExecutingParallelStoreTask(eacs.getFirstException());
+         throw new PersistenceException(eacs.getFirstException());
+      }
+   }
+
+   private void submitProcessTask(ExecutorAllCompletionService eacs, final List<KeyValuePair<Object, byte[]>> batch,
+                                  final CacheLoaderTask task, final TaskContext taskContext, final boolean fetchData) {
+      eacs.submit(new Callable<Void>() {
          @Override
          public Void call() throws Exception {
-            Connection conn = null;
-            PreparedStatement ps = null;
-            ResultSet rs = null;
-            try {
-               String sql = tableManipulation.getLoadNonExpiredAllRowsSql();
-               if (log.isTraceEnabled()) {
-                  log.tracef("Running sql %s", sql);
+            for (KeyValuePair<Object, byte[]> row : batch) {
+               if (taskContext.isStopped()) break;
+               Object key = row.getKey();
+               MarshalledEntry entry;
+               if (fetchData) {
+                  KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), new ByteArrayInputStream(row.getValue()));
+                  entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, kvp.getKey(), kvp.getValue());
+               } else {
+                  entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
                }
-               conn = connectionFactory.getConnection();
-               ps = conn.prepareStatement(sql);
-               ps.setLong(1, ctx.getTimeService().wallClockTime());
-               rs = ps.executeQuery();
-               rs.setFetchSize(tableManipulation.getFetchSize());
-
-               TaskContext taskContext = new TaskContextImpl();
-               while (rs.next()) {
-                  String keyStr = rs.getString(2);
-                  Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
-                  if (taskContext.isStopped()) break;
-                  if (filter != null && !filter.shouldLoadKey(key))
-                     continue;
-                  InputStream inputStream = rs.getBinaryStream(1);
-                  MarshalledEntry entry;
-                  if (fetchValue || fetchMetadata) {
-                     KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), inputStream);
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, kvp.getKey(), kvp.getValue());
-                  } else {
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
-                  }
-                  task.processEntry(entry, taskContext);
-               }
-               return null;
-            } catch (SQLException e) {
-               log.sqlFailureFetchingAllStoredEntries(e);
-               throw new PersistenceException("SQL error while fetching all StoredEntries", e);
-            } finally {
-               JdbcUtil.safeClose(rs);
-               JdbcUtil.safeClose(ps);
-               connectionFactory.releaseConnection(conn);
+               task.processEntry(entry, taskContext);
             }
+            return null;
          }
       });
-      try {
-         future.get();
-      } catch (InterruptedException e) {
-         Thread.currentThread().interrupt();
-      } catch (ExecutionException e) {
-         log.errorExecutingParallelStoreTask(e);
-         throw new PersistenceException(e);
-      }
    }
 
    @Override
@@ -386,7 +536,14 @@ public int size() {
    }
 
    private void updateStatement(MarshalledEntry entry, String key, PreparedStatement ps) throws InterruptedException, SQLException {
-      ByteBuffer byteBuffer = JdbcUtil.marshall(ctx.getMarshaller(), new KeyValuePair(entry.getValueBytes(), entry.getMetadataBytes()));
+      setStatementParameters(ps, entry, marshall(entry), key);
+   }
+
+   private ByteBuffer marshall(MarshalledEntry entry) throws InterruptedException {
+      return JdbcUtil.marshall(ctx.getMarshaller(), new KeyValuePair(entry.getValueBytes(), entry.getMetadataBytes()));
+   }
+
+   private void setStatementParameters(PreparedStatement ps, MarshalledEntry entry, ByteBuffer byteBuffer, String key) throws SQLException {
       ps.setBinaryStream(1, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
       ps.setLong(2, getExpiryTime(entry.getMetadata()));
       ps.setString(3, key);
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.persistence.ParallelIterationTest;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
 import org.infinispan.test.fwk.UnitTestDatabaseManager;
@@ -15,7 +16,7 @@ public class JdbcStringParallelIterationTest extends ParallelIterationTest {
 
    @Override
    protected int numThreads() {
-      return 1;
+      return KnownComponentNames.getDefaultThreads(KnownComponentNames.PERSISTENCE_EXECUTOR) + 1 /** caller's thread */;
    }
 
    @Override
@@ -12,6 +12,7 @@
 import org.infinispan.persistence.leveldb.configuration.LevelDBStoreConfiguration;
 import org.infinispan.persistence.leveldb.logging.Log;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.logging.LogFactory;
 import org.iq80.leveldb.CompressionType;
@@ -21,6 +22,7 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
 
 import java.io.File;
 import java.io.IOException;
@@ -35,7 +37,7 @@
 import java.util.concurrent.LinkedBlockingQueue;
 
 @ConfiguredBy(LevelDBStoreConfiguration.class)
-public class LevelDBStore implements AdvancedLoadWriteStore {
+public class LevelDBStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
    private static final Log log = LogFactory.getLog(LevelDBStore.class, Log.class);
 
    private static final String JNI_DB_FACTORY_CLASS_NAME = "org.fusesource.leveldbjni.JniDBFactory";
@@ -333,6 +335,48 @@ public void write(MarshalledEntry me)  {
       }
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         WriteBatch batch = db.createWriteBatch();
+         try {
+            for (Object o : entries) {
+               MarshalledEntry me = (MarshalledEntry) o;
+               batch.put(marshall(me.getKey()), marshall(me));
+            }
+            db.write(batch);
+         } finally {
+            batch.close();
+         }
+         for (Object o : entries) {
+            MarshalledEntry me = (MarshalledEntry) o;
+            InternalMetadata meta = me.getMetadata();
+            if (meta != null && meta.expiryTime() > -1) {
+               addNewExpiry(me);
+            }
+         }
+      } catch (Exception e) {
+         throw new DBException(e);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         WriteBatch batch = db.createWriteBatch();
+         try {
+            for (Object key : keys) {
+               batch.delete(marshall(key));
+            }
+            db.write(batch);
+         } finally {
+            batch.close();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key)  {
       try {
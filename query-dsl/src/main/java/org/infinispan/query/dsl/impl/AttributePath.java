@@ -0,0 +1,195 @@
+package org.infinispan.query.dsl.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dot separated path of attributes, like {@code address.street}, that can be read from plain Java objects by
+ * reflection. Each attribute is read with its getter if there is one (including {@code isXxx} getters of booleans),
+ * or otherwise directly from the field. Collections, arrays and map values found along the path are flattened, so
+ * that the path may yield several values.
+ *
+ * @since 7.0
+ */
+public final class AttributePath implements Serializable {
+
+   private static final long serialVersionUID = 5384216542618474361L;
+
+   private final String path;
+
+   private final String[] attributes;
+
+   /**
+    * The last class and member used for each attribute, as most of the time all the instances have the same type.
+    */
+   private transient volatile CachedMember[] cachedMembers;
+
+   public AttributePath(String path) {
+      if (path == null || path.isEmpty()) {
+         throw new IllegalArgumentException("Attribute path cannot be null or empty");
+      }
+      this.path = path;
+      this.attributes = path.split("\\.");
+   }
+
+   public String getPath() {
+      return path;
+   }
+
+   /**
+    * Returns all the non-null values found at the end of this path, never {@code null}.
+    */
+   public List<Object> getValues(Object instance) {
+      List<Object> current = Collections.singletonList(instance);
+      for (int i = 0; i < attributes.length; i++) {
+         List<Object> next = new ArrayList<Object>(current.size());
+         for (Object o : current) {
+            flatten(readAttribute(o, i), next);
+         }
+         if (next.isEmpty()) {
+            return next;
+         }
+         current = next;
+      }
+      return current;
+   }
+
+   /**
+    * Returns the value found at the end of this path without flattening it, or {@code null} if the path can't be
+    * followed to its end. When a collection is found along the path, only its first element is followed.
+    */
+   public Object getValue(Object instance) {
+      Object current = instance;
+      for (int i = 0; i < attributes.length && current != null; i++) {
+         if (i > 0) {
+            current = first(current);
+         }
+         if (current != null) {
+            current = readAttribute(current, i);
+         }
+      }
+      return current;
+   }
+
+   private static Object first(Object o) {
+      if (o instanceof Collection) {
+         Collection c = (Collection) o;
+         return c.isEmpty() ? null : c.iterator().next();
+      }
+      if (o instanceof Object[]) {
+         Object[] array = (Object[]) o;
+         return array.length == 0 ? null : array[0];
+      }
+      return o;
+   }
+
+   private static void flatten(Object value, List<Object> result) {
+      if (value == null) {
+         return;
+      }
+      if (value instanceof Collection) {
+         for (Object o : (Collection) value) {
+            flatten(o, result);
+         }
+      } else if (value instanceof Map) {
+         for (Object o : ((Map) value).values()) {
+            flatten(o, result);
+         }
+      } else if (value instanceof Object[]) {
+         for (Object o : (Object[]) value) {
+            flatten(o, result);
+         }
+      } else {
+         result.add(value);
+      }
+   }
+
+   private Object readAttribute(Object instance, int index) {
+      Class<?> type = instance.getClass();
+      CachedMember[] members = cachedMembers;
+      if (members == null) {
+         members = new CachedMember[attributes.length];
+         cachedMembers = members;
+      }
+      CachedMember cached = members[index];
+      if (cached == null || cached.type != type) {
+         cached = new CachedMember(type, findMember(type, attributes[index]));
+         members[index] = cached;
+      }
+      try {
+         if (cached.member instanceof Method) {
+            return ((Method) cached.member).invoke(instance);
+         }
+         return ((Field) cached.member).get(instance);
+      } catch (IllegalAccessException e) {
+         throw new IllegalStateException("Cannot read attribute '" + attributes[index] + "' of " + type.getName(), e);
+      } catch (InvocationTargetException e) {
+         throw new IllegalStateException("Cannot read attribute '" + attributes[index] + "' of " + type.getName(), e.getCause());
+      }
+   }
+
+   private Member findMember(Class<?> type, String attribute) {
+      String suffix = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+      for (String getterName : Arrays.asList("get" + suffix, "is" + suffix, attribute)) {
+         Method getter = findGetter(type, getterName);
+         if (getter != null) {
+            return makeAccessible(getter);
+         }
+      }
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+         try {
+            return makeAccessible(c.getDeclaredField(attribute));
+         } catch (NoSuchFieldException e) {
+            // try the super class
+         }
+      }
+      throw new IllegalArgumentException("No attribute '" + attribute + "' found in " + type.getName()
+                                               + " for attribute path '" + path + "'");
+   }
+
+   private static Method findGetter(Class<?> type, String name) {
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+         try {
+            Method method = c.getDeclaredMethod(name);
+            if (method.getReturnType() != void.class) {
+               return method;
+            }
+         } catch (NoSuchMethodException e) {
+            // try the super class
+         }
+      }
+      return null;
+   }
+
+   private static <T extends AccessibleObject & Member> T makeAccessible(T member) {
+      member.setAccessible(true);
+      return member;
+   }
+
+   @Override
+   public String toString() {
+      return path;
+   }
+
+   private static final class CachedMember {
+
+      final Class<?> type;
+
+      final Member member;
+
+      CachedMember(Class<?> type, Member member) {
+         this.type = type;
+         this.member = member;
+      }
+   }
+}
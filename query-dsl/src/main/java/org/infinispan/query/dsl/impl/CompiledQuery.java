@@ -0,0 +1,168 @@
+package org.infinispan.query.dsl.impl;
+
+import org.infinispan.query.dsl.SortOrder;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A query compiled to be evaluated directly against Java objects, without an index: the root type and condition
+ * selecting the matching objects, the projection, the sort criteria and the pagination. It is serializable so that it
+ * can be evaluated on other nodes.
+ *
+ * @since 7.0
+ */
+public final class CompiledQuery implements Serializable {
+
+   private static final long serialVersionUID = -2876431538613247685L;
+
+   private final Class<?> rootType;
+
+   private final ObjectPredicate predicate;
+
+   private final AttributePath[] projection;
+
+   private final AttributePath[] sortPaths;
+
+   private final boolean[] sortDescending;
+
+   private final long startOffset;
+
+   private final int maxResults;
+
+   private CompiledQuery(Class<?> rootType, ObjectPredicate predicate, AttributePath[] projection,
+                         AttributePath[] sortPaths, boolean[] sortDescending, long startOffset, int maxResults) {
+      this.rootType = rootType;
+      this.predicate = predicate;
+      this.projection = projection;
+      this.sortPaths = sortPaths;
+      this.sortDescending = sortDescending;
+      this.startOffset = startOffset;
+      this.maxResults = maxResults;
+   }
+
+   public static CompiledQuery compile(BaseQueryBuilder<?> builder) {
+      ObjectPredicate predicate = builder.accept(new PredicateGenerator());
+
+      AttributePath[] projection = null;
+      if (builder.getProjection() != null && builder.getProjection().length != 0) {
+         projection = new AttributePath[builder.getProjection().length];
+         for (int i = 0; i < projection.length; i++) {
+            projection[i] = new AttributePath(builder.getProjection()[i]);
+         }
+      }
+
+      List<SortCriteria> sortCriteria = builder.getSortCriteria();
+      AttributePath[] sortPaths = null;
+      boolean[] sortDescending = null;
+      if (sortCriteria != null && !sortCriteria.isEmpty()) {
+         sortPaths = new AttributePath[sortCriteria.size()];
+         sortDescending = new boolean[sortCriteria.size()];
+         for (int i = 0; i < sortPaths.length; i++) {
+            sortPaths[i] = new AttributePath(sortCriteria.get(i).getAttributePath());
+            sortDescending[i] = sortCriteria.get(i).getSortOrder() == SortOrder.DESC;
+         }
+      }
+
+      return new CompiledQuery(builder.getRootType(), predicate, projection, sortPaths, sortDescending,
+                               builder.startOffset, builder.maxResults);
+   }
+
+   /**
+    * Returns true if the given object is an instance of the root type that satisfies the condition.
+    */
+   public boolean matches(Object instance) {
+      return rootType.isInstance(instance) && predicate.matches(instance);
+   }
+
+   /**
+    * Returns the result row for a matching object: the object itself, or an {@code Object[]} with the values of the
+    * projected attributes.
+    */
+   public Object project(Object instance) {
+      if (projection == null) {
+         return instance;
+      }
+      Object[] row = new Object[projection.length];
+      for (int i = 0; i < projection.length; i++) {
+         row[i] = projection[i].getValue(instance);
+      }
+      return row;
+   }
+
+   public boolean isSorted() {
+      return sortPaths != null;
+   }
+
+   /**
+    * Returns the values of the sort attributes of a matching object, or {@code null} if the query is not sorted.
+    */
+   public Object[] getSortKeys(Object instance) {
+      if (sortPaths == null) {
+         return null;
+      }
+      Object[] keys = new Object[sortPaths.length];
+      for (int i = 0; i < sortPaths.length; i++) {
+         keys[i] = sortPaths[i].getValue(instance);
+      }
+      return keys;
+   }
+
+   /**
+    * Returns the comparator ordering the sort keys of the results. Null values are sorted last in ascending order.
+    */
+   public Comparator<Object[]> getSortKeysComparator() {
+      return new Comparator<Object[]>() {
+         @Override
+         public int compare(Object[] keys1, Object[] keys2) {
+            for (int i = 0; i < sortPaths.length; i++) {
+               int comparison;
+               if (keys1[i] == null) {
+                  comparison = keys2[i] == null ? 0 : 1;
+               } else if (keys2[i] == null) {
+                  comparison = -1;
+               } else {
+                  comparison = ObjectPredicate.compare(keys1[i], keys2[i]);
+               }
+               if (comparison != 0) {
+                  return sortDescending[i] ? -comparison : comparison;
+               }
+            }
+            return 0;
+         }
+      };
+   }
+
+   public long getStartOffset() {
+      return startOffset < 0 ? 0 : startOffset;
+   }
+
+   /**
+    * Returns the maximum number of results, or -1 if unlimited.
+    */
+   public int getMaxResults() {
+      return maxResults < 0 ? -1 : maxResults;
+   }
+
+   /**
+    * Returns the number of first results needed to produce the requested page, or -1 if all are needed.
+    */
+   public long getResultsNeeded() {
+      return maxResults < 0 ? -1 : getStartOffset() + maxResults;
+   }
+
+   @Override
+   public String toString() {
+      return "CompiledQuery{" +
+            "rootType=" + rootType.getName() +
+            ", predicate=" + predicate +
+            ", projection=" + Arrays.toString(projection) +
+            ", sortPaths=" + Arrays.toString(sortPaths) +
+            ", sortDescending=" + Arrays.toString(sortDescending) +
+            ", startOffset=" + startOffset +
+            ", maxResults=" + maxResults +
+            '}';
+   }
+}
@@ -0,0 +1,409 @@
+package org.infinispan.query.dsl.impl;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A condition of a query compiled to be evaluated directly against Java objects, without an index. Predicates are
+ * serializable so that they can be evaluated on other nodes.
+ *
+ * @since 7.0
+ * @see PredicateGenerator
+ */
+public abstract class ObjectPredicate implements Serializable {
+
+   private static final long serialVersionUID = -4398526519325843025L;
+
+   /**
+    * The predicate matching all objects, used when a query has no condition.
+    */
+   public static final ObjectPredicate ALL = new All();
+
+   /**
+    * Evaluates the predicate.
+    *
+    * @param instance the object to test, never {@code null}
+    * @return true if the object satisfies the condition
+    */
+   public abstract boolean matches(Object instance);
+
+   /**
+    * Compares two attribute values. Numbers of different types are compared by value and other values must be
+    * {@link Comparable}.
+    *
+    * @throws IllegalArgumentException if the values can't be compared
+    */
+   @SuppressWarnings("unchecked")
+   public static int compare(Object value1, Object value2) {
+      if (value1 instanceof Number && value2 instanceof Number && value1.getClass() != value2.getClass()) {
+         return compareNumbers((Number) value1, (Number) value2);
+      }
+      if (value1 instanceof Comparable) {
+         try {
+            return ((Comparable) value1).compareTo(value2);
+         } catch (ClassCastException e) {
+            // fall through
+         }
+      }
+      throw new IllegalArgumentException("Cannot compare " + value1 + " and " + value2);
+   }
+
+   private static int compareNumbers(Number n1, Number n2) {
+      if (isIntegral(n1) && isIntegral(n2)) {
+         long l1 = n1.longValue();
+         long l2 = n2.longValue();
+         return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+      }
+      if (n1 instanceof BigDecimal || n2 instanceof BigDecimal || n1 instanceof BigInteger || n2 instanceof BigInteger) {
+         return new BigDecimal(n1.toString()).compareTo(new BigDecimal(n2.toString()));
+      }
+      return Double.compare(n1.doubleValue(), n2.doubleValue());
+   }
+
+   private static boolean isIntegral(Number n) {
+      return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+   }
+
+   static boolean areEqual(Object value1, Object value2) {
+      if (value1 instanceof Number && value2 instanceof Number && value1.getClass() != value2.getClass()) {
+         return compareNumbers((Number) value1, (Number) value2) == 0;
+      }
+      return value1.equals(value2);
+   }
+
+   static List<Object> toList(Object argument) {
+      if (argument instanceof Collection) {
+         return new ArrayList<Object>((Collection<?>) argument);
+      }
+      if (argument instanceof Object[]) {
+         return Arrays.asList((Object[]) argument);
+      }
+      throw new IllegalArgumentException("Expecting a Collection or an array of Object");
+   }
+
+   private static final class All extends ObjectPredicate {
+
+      private static final long serialVersionUID = 2254374126434125325L;
+
+      @Override
+      public boolean matches(Object instance) {
+         return true;
+      }
+
+      private Object readResolve() {
+         return ALL;
+      }
+
+      @Override
+      public String toString() {
+         return "ALL";
+      }
+   }
+
+   static final class And extends ObjectPredicate {
+
+      private static final long serialVersionUID = -6152961446543624547L;
+
+      private final ObjectPredicate first;
+
+      private final ObjectPredicate second;
+
+      And(ObjectPredicate first, ObjectPredicate second) {
+         this.first = first;
+         this.second = second;
+      }
+
+      @Override
+      public boolean matches(Object instance) {
+         return first.matches(instance) && second.matches(instance);
+      }
+
+      @Override
+      public String toString() {
+         return "(" + first + ") AND (" + second + ")";
+      }
+   }
+
+   static final class Or extends ObjectPredicate {
+
+      private static final long serialVersionUID = 8719232617446152383L;
+
+      private final ObjectPredicate first;
+
+      private final ObjectPredicate second;
+
+      Or(ObjectPredicate first, ObjectPredicate second) {
+         this.first = first;
+         this.second = second;
+      }
+
+      @Override
+      public boolean matches(Object instance) {
+         return first.matches(instance) || second.matches(instance);
+      }
+
+      @Override
+      public String toString() {
+         return "(" + first + ") OR (" + second + ")";
+      }
+   }
+
+   static final class Not extends ObjectPredicate {
+
+      private static final long serialVersionUID = 1376547361324652462L;
+
+      private final ObjectPredicate predicate;
+
+      Not(ObjectPredicate predicate) {
+         this.predicate = predicate;
+      }
+
+      @Override
+      public boolean matches(Object instance) {
+         return !predicate.matches(instance);
+      }
+
+      @Override
+      public String toString() {
+         return "NOT (" + predicate + ")";
+      }
+   }
+
+   /**
+    * Tests the values of an attribute. The attribute matches if any of its values matches, which gives the expected
+    * result for collection attributes.
+    */
+   abstract static class AttributePredicate extends ObjectPredicate {
+
+      private static final long serialVersionUID = 7425633454837422534L;
+
+      private final AttributePath path;
+
+      private final boolean isNegated;
+
+      AttributePredicate(AttributePath path, boolean isNegated) {
+         this.path = path;
+         this.isNegated = isNegated;
+      }
+
+      @Override
+      public boolean matches(Object instance) {
+         return matchesValues(path.getValues(instance)) != isNegated;
+      }
+
+      boolean matchesValues(List<Object> values) {
+         for (Object value : values) {
+            if (matchesValue(value)) {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      abstract boolean matchesValue(Object value);
+
+      @Override
+      public String toString() {
+         return (isNegated ? "NOT " : "") + path + " " + getClass().getSimpleName();
+      }
+   }
+
+   static final class Equal extends AttributePredicate {
+
+      private static final long serialVersionUID = -2658478534174635285L;
+
+      private final Object argument;
+
+      Equal(AttributePath path, boolean isNegated, Object argument) {
+         super(path, isNegated);
+         this.argument = argument;
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         return areEqual(value, argument);
+      }
+   }
+
+   static final class Comparison extends AttributePredicate {
+
+      private static final long serialVersionUID = 3573842186241234854L;
+
+      private final Object argument;
+
+      private final boolean matchesLess;
+
+      private final boolean matchesEqual;
+
+      /**
+       * @param matchesLess true to match values lower than the argument, false to match higher values
+       * @param matchesEqual true to also match values equal to the argument
+       */
+      Comparison(AttributePath path, boolean isNegated, Object argument, boolean matchesLess, boolean matchesEqual) {
+         super(path, isNegated);
+         this.argument = argument;
+         this.matchesLess = matchesLess;
+         this.matchesEqual = matchesEqual;
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         int comparison = compare(value, argument);
+         return comparison == 0 ? matchesEqual : (comparison < 0) == matchesLess;
+      }
+   }
+
+   static final class Between extends AttributePredicate {
+
+      private static final long serialVersionUID = -6471257365823486218L;
+
+      private final Object from;
+
+      private final Object to;
+
+      private final boolean includeLower;
+
+      private final boolean includeUpper;
+
+      Between(AttributePath path, boolean isNegated, ValueRange range) {
+         super(path, isNegated);
+         this.from = range.getFrom();
+         this.to = range.getTo();
+         this.includeLower = range.isIncludeLower();
+         this.includeUpper = range.isIncludeUpper();
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         int lower = compare(value, from);
+         int upper = compare(value, to);
+         return (lower > 0 || lower == 0 && includeLower) && (upper < 0 || upper == 0 && includeUpper);
+      }
+   }
+
+   static final class Like extends AttributePredicate {
+
+      private static final long serialVersionUID = 5724386542781254387L;
+
+      private final Pattern pattern;
+
+      Like(AttributePath path, boolean isNegated, String likePattern) {
+         super(path, isNegated);
+         this.pattern = Pattern.compile(toRegex(likePattern), Pattern.DOTALL);
+      }
+
+      /**
+       * Translates a pattern where '%' matches any sequence of characters and '_' any single character.
+       */
+      private static String toRegex(String likePattern) {
+         StringBuilder regex = new StringBuilder(likePattern.length() + 8);
+         int literalStart = 0;
+         for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (c == '%' || c == '_') {
+               if (literalStart < i) {
+                  regex.append(Pattern.quote(likePattern.substring(literalStart, i)));
+               }
+               regex.append(c == '%' ? ".*" : ".");
+               literalStart = i + 1;
+            }
+         }
+         if (literalStart < likePattern.length()) {
+            regex.append(Pattern.quote(likePattern.substring(literalStart)));
+         }
+         return regex.toString();
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         return pattern.matcher(value.toString()).matches();
+      }
+   }
+
+   static final class IsNull extends AttributePredicate {
+
+      private static final long serialVersionUID = -1632548215476843224L;
+
+      IsNull(AttributePath path, boolean isNegated) {
+         super(path, isNegated);
+      }
+
+      @Override
+      boolean matchesValues(List<Object> values) {
+         return values.isEmpty();
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         return false;
+      }
+   }
+
+   /**
+    * Matches if any value of the attribute is equal to any of the arguments.
+    */
+   static final class In extends AttributePredicate {
+
+      private static final long serialVersionUID = 4263174527845327434L;
+
+      private final List<Object> arguments;
+
+      In(AttributePath path, boolean isNegated, Object arguments) {
+         super(path, isNegated);
+         this.arguments = toList(arguments);
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         for (Object argument : arguments) {
+            if (areEqual(value, argument)) {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+
+   /**
+    * Matches if each of the arguments is equal to some value of the attribute.
+    */
+   static final class ContainsAll extends AttributePredicate {
+
+      private static final long serialVersionUID = -3725477356825746125L;
+
+      private final List<Object> arguments;
+
+      ContainsAll(AttributePath path, boolean isNegated, Object arguments) {
+         super(path, isNegated);
+         this.arguments = toList(arguments);
+      }
+
+      @Override
+      boolean matchesValues(List<Object> values) {
+         for (Object argument : arguments) {
+            boolean found = false;
+            for (Object value : values) {
+               if (areEqual(value, argument)) {
+                  found = true;
+                  break;
+               }
+            }
+            if (!found) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      @Override
+      boolean matchesValue(Object value) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
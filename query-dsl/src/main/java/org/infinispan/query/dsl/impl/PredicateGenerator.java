@@ -0,0 +1,114 @@
+package org.infinispan.query.dsl.impl;
+
+import org.infinispan.query.dsl.Query;
+
+/**
+ * Compiles the condition created with the builder into an {@link ObjectPredicate} that can be evaluated directly
+ * against the objects of the cache.
+ *
+ * @since 7.0
+ */
+public class PredicateGenerator implements Visitor<ObjectPredicate> {
+
+   @Override
+   public <T extends Query> ObjectPredicate visit(BaseQueryBuilder<T> baseQueryBuilder) {
+      if (baseQueryBuilder.getFilterCondition() == null) {
+         return ObjectPredicate.ALL;
+      }
+      return baseQueryBuilder.getFilterCondition().getRoot().accept(this);
+   }
+
+   @Override
+   public ObjectPredicate visit(AndCondition booleanCondition) {
+      return new ObjectPredicate.And(booleanCondition.getFirstCondition().accept(this),
+                                     booleanCondition.getSecondCondition().accept(this));
+   }
+
+   @Override
+   public ObjectPredicate visit(OrCondition booleanCondition) {
+      return new ObjectPredicate.Or(booleanCondition.getFirstCondition().accept(this),
+                                    booleanCondition.getSecondCondition().accept(this));
+   }
+
+   @Override
+   public ObjectPredicate visit(NotCondition notCondition) {
+      return new ObjectPredicate.Not(notCondition.getFirstCondition().accept(this));
+   }
+
+   @Override
+   public ObjectPredicate visit(AttributeCondition attributeCondition) {
+      if (attributeCondition.getAttributePath() == null || attributeCondition.getOperatorAndArgument() == null) {
+         throw new IllegalStateException("Incomplete sentence. Missing attribute path or operator.");
+      }
+
+      return attributeCondition.getOperatorAndArgument().accept(this);
+   }
+
+   @Override
+   public ObjectPredicate visit(EqOperator operator) {
+      return new ObjectPredicate.Equal(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(GtOperator operator) {
+      return new ObjectPredicate.Comparison(path(operator), isNegated(operator), operator.getArgument(), false, false);
+   }
+
+   @Override
+   public ObjectPredicate visit(GteOperator operator) {
+      return new ObjectPredicate.Comparison(path(operator), isNegated(operator), operator.getArgument(), false, true);
+   }
+
+   @Override
+   public ObjectPredicate visit(LtOperator operator) {
+      return new ObjectPredicate.Comparison(path(operator), isNegated(operator), operator.getArgument(), true, false);
+   }
+
+   @Override
+   public ObjectPredicate visit(LteOperator operator) {
+      return new ObjectPredicate.Comparison(path(operator), isNegated(operator), operator.getArgument(), true, true);
+   }
+
+   @Override
+   public ObjectPredicate visit(BetweenOperator operator) {
+      return new ObjectPredicate.Between(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(LikeOperator operator) {
+      return new ObjectPredicate.Like(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(IsNullOperator operator) {
+      return new ObjectPredicate.IsNull(path(operator), isNegated(operator));
+   }
+
+   @Override
+   public ObjectPredicate visit(InOperator operator) {
+      return new ObjectPredicate.In(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(ContainsOperator operator) {
+      return new ObjectPredicate.Equal(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(ContainsAllOperator operator) {
+      return new ObjectPredicate.ContainsAll(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   @Override
+   public ObjectPredicate visit(ContainsAnyOperator operator) {
+      return new ObjectPredicate.In(path(operator), isNegated(operator), operator.getArgument());
+   }
+
+   private static AttributePath path(OperatorAndArgument operator) {
+      return new AttributePath(operator.getAttributeCondition().getAttributePath());
+   }
+
+   private static boolean isNegated(OperatorAndArgument operator) {
+      return operator.getAttributeCondition().isNegated();
+   }
+}
@@ -2,6 +2,8 @@
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.query.dsl.QueryFactory;
+import org.infinispan.query.dsl.embedded.impl.NonIndexedQueryFactory;
 import org.infinispan.query.impl.SearchManagerImpl;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
@@ -21,6 +23,19 @@ public static SearchManager getSearchManager(Cache<?, ?> cache) {
       return new SearchManagerImpl(cache.getAdvancedCache());
    }
 
+   /**
+    * Returns a factory of DSL queries that are evaluated by scanning the entries in memory on each node, rather than
+    * by searching an index. The cache doesn't need to be indexed, but each query reads all the entries, so this is
+    * only suitable for occasional queries. Entries that are only in a cache store are not seen.
+    */
+   public static QueryFactory getNonIndexedQueryFactory(Cache<?, ?> cache) {
+      if (cache == null || cache.getAdvancedCache() == null) {
+         throw new IllegalArgumentException("cache parameter shall not be null");
+      }
+      ensureAccessPermissions(cache.getAdvancedCache());
+      return new NonIndexedQueryFactory(cache.getAdvancedCache());
+   }
+
    private static void ensureAccessPermissions(final AdvancedCache<?, ?> cache) {
       AuthorizationManager authorizationManager = SecurityActions.getCacheAuthorizationManager(cache);
       if (authorizationManager != null) {
@@ -0,0 +1,107 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.distexec.DefaultExecutorService;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.impl.CompiledQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A query evaluated by scanning the entries of the cache. In a clustered cache the query is evaluated on all the nodes
+ * with the distributed executor, and the first rows of each node are merged to produce the requested page.
+ *
+ * @since 7.0
+ */
+class NonIndexedQuery implements Query {
+
+   private final AdvancedCache<?, ?> cache;
+
+   private final CompiledQuery query;
+
+   private List<Object> results;
+
+   private int resultSize;
+
+   public NonIndexedQuery(AdvancedCache<?, ?> cache, CompiledQuery query) {
+      this.cache = cache;
+      this.query = query;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public <T> List<T> list() {
+      execute();
+      return (List<T>) results;
+   }
+
+   @Override
+   public int getResultSize() {
+      execute();
+      return resultSize;
+   }
+
+   private void execute() {
+      if (results != null) {
+         return;
+      }
+
+      List<PartialQueryResult> partialResults;
+      if (cache.getCacheConfiguration().clustering().cacheMode().isClustered()) {
+         partialResults = executeEverywhere();
+      } else {
+         partialResults = Collections.singletonList(NonIndexedQueryCallable.evaluate(cache, query));
+      }
+
+      long matches = 0;
+      List<PartialQueryResult.Row> rows = new ArrayList<PartialQueryResult.Row>();
+      for (PartialQueryResult partialResult : partialResults) {
+         matches += partialResult.getMatches();
+         rows.addAll(partialResult.getRows());
+      }
+      if (query.isSorted() && partialResults.size() > 1) {
+         // each partial result is already sorted
+         Collections.sort(rows, PartialQueryResult.rowComparator(query));
+      }
+
+      long start = Math.min(query.getStartOffset(), rows.size());
+      long end = query.getMaxResults() < 0 ? rows.size() : Math.min(start + query.getMaxResults(), rows.size());
+      List<Object> page = new ArrayList<Object>((int) (end - start));
+      for (PartialQueryResult.Row row : rows.subList((int) start, (int) end)) {
+         page.add(row.value);
+      }
+      resultSize = (int) matches;
+      results = Collections.unmodifiableList(page);
+   }
+
+   private List<PartialQueryResult> executeEverywhere() {
+      DefaultExecutorService executor = new DefaultExecutorService(cache);
+      try {
+         List<Future<PartialQueryResult>> futures = executor.submitEverywhere(new NonIndexedQueryCallable(query));
+         List<PartialQueryResult> partialResults = new ArrayList<PartialQueryResult>(futures.size());
+         for (Future<PartialQueryResult> future : futures) {
+            partialResults.add(future.get());
+         }
+         return partialResults;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException("Interrupted while executing query", e);
+      } catch (ExecutionException e) {
+         throw new CacheException("Failed to execute query", e.getCause());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "NonIndexedQuery{" +
+            "query=" + query +
+            '}';
+   }
+}
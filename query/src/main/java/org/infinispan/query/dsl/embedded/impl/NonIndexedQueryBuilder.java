@@ -0,0 +1,32 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.impl.BaseQueryBuilder;
+import org.infinispan.query.dsl.impl.CompiledQuery;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * @since 7.0
+ */
+class NonIndexedQueryBuilder extends BaseQueryBuilder<Query> {
+
+   private static final Log log = LogFactory.getLog(NonIndexedQueryBuilder.class, Log.class);
+
+   private final AdvancedCache<?, ?> cache;
+
+   public NonIndexedQueryBuilder(AdvancedCache<?, ?> cache, Class rootType) {
+      super(rootType);
+      this.cache = cache;
+   }
+
+   @Override
+   public Query build() {
+      CompiledQuery compiledQuery = CompiledQuery.compile(this);
+      if (log.isTraceEnabled()) {
+         log.tracef("Compiled query : %s", compiledQuery);
+      }
+      return new NonIndexedQuery(cache, compiledQuery);
+   }
+}
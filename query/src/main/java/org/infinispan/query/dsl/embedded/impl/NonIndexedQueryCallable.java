@@ -0,0 +1,80 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distexec.DistributedCallable;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.query.dsl.impl.CompiledQuery;
+import org.infinispan.util.TimeService;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Evaluates a non-indexed query against the entries held in the data container of a node, in parallel if the data
+ * container supports it. Only the entries the node is the primary owner of are considered, so that each entry is
+ * evaluated on a single node of the cluster. Entries that were passivated or only exist in a store are not seen.
+ *
+ * @since 7.0
+ */
+final class NonIndexedQueryCallable implements DistributedCallable<Object, Object, PartialQueryResult>, Serializable {
+
+   private static final long serialVersionUID = -3165438714365273523L;
+
+   private final CompiledQuery query;
+
+   private transient AdvancedCache<Object, Object> cache;
+
+   NonIndexedQueryCallable(CompiledQuery query) {
+      this.query = query;
+   }
+
+   @Override
+   public void setEnvironment(Cache<Object, Object> cache, Set<Object> inputKeys) {
+      this.cache = cache.getAdvancedCache();
+   }
+
+   @Override
+   public PartialQueryResult call() {
+      return evaluate(cache, query);
+   }
+
+   @SuppressWarnings("unchecked")
+   static PartialQueryResult evaluate(AdvancedCache<?, ?> cache, final CompiledQuery query) {
+      ComponentRegistry componentRegistry = cache.getComponentRegistry();
+      final ClusteringDependentLogic clusteringLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      final long now = componentRegistry.getComponent(TimeService.class).wallClockTime();
+      final PartialQueryResult.Collector collector = new PartialQueryResult.Collector(query);
+      try {
+         DataContainer<Object, Object> dataContainer = (DataContainer<Object, Object>) cache.getDataContainer();
+         dataContainer.executeTask(AdvancedCacheLoader.KeyFilter.LOAD_ALL_FILTER,
+               new ParallelIterableMap.KeyValueAction<Object, InternalCacheEntry<Object, Object>>() {
+            @Override
+            public void apply(Object key, InternalCacheEntry<Object, Object> entry) {
+               // L1 entries are never on their primary owner
+               if (entry.canExpire() && entry.isExpired(now) || !clusteringLogic.localNodeIsPrimaryOwner(key)) {
+                  return;
+               }
+               Object value = entry.getValue();
+               if (value instanceof MarshalledValue) {
+                  value = ((MarshalledValue) value).get();
+               }
+               if (value != null && query.matches(value)) {
+                  collector.add(query.getSortKeys(value), query.project(value));
+               }
+            }
+         });
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException("Interrupted while evaluating query", e);
+      }
+      return collector.finish();
+   }
+}
@@ -0,0 +1,26 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.QueryBuilder;
+import org.infinispan.query.dsl.impl.BaseQueryFactory;
+
+/**
+ * Builds queries that are evaluated by scanning the entries held in memory, so they don't need the cache to be
+ * indexed. Meant for occasional queries, e.g. reports, on caches whose write load makes indexing too expensive.
+ *
+ * @since 7.0
+ */
+public final class NonIndexedQueryFactory extends BaseQueryFactory<Query> {
+
+   private final AdvancedCache<?, ?> cache;
+
+   public NonIndexedQueryFactory(AdvancedCache<?, ?> cache) {
+      this.cache = cache;
+   }
+
+   @Override
+   public QueryBuilder<Query> from(Class type) {
+      return new NonIndexedQueryBuilder(cache, type);
+   }
+}
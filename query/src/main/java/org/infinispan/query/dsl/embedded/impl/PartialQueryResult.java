@@ -0,0 +1,117 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.query.dsl.impl.CompiledQuery;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The results of a non-indexed query on a single node: the number of matching entries and, for each of the first
+ * matching entries, its result row with its sort keys. Only the first rows needed to produce the requested page are
+ * kept, in order if the query is sorted, so the results of all the nodes can be merged by keeping their first rows.
+ *
+ * @since 7.0
+ */
+final class PartialQueryResult implements Serializable {
+
+   private static final long serialVersionUID = 3265461263548123564L;
+
+   private final long matches;
+
+   private final List<Row> rows;
+
+   private PartialQueryResult(long matches, List<Row> rows) {
+      this.matches = matches;
+      this.rows = rows;
+   }
+
+   long getMatches() {
+      return matches;
+   }
+
+   List<Row> getRows() {
+      return rows;
+   }
+
+   /**
+    * Returns the comparator ordering the rows of a sorted query.
+    */
+   static Comparator<Row> rowComparator(CompiledQuery query) {
+      final Comparator<Object[]> sortKeysComparator = query.getSortKeysComparator();
+      return new Comparator<Row>() {
+         @Override
+         public int compare(Row row1, Row row2) {
+            return sortKeysComparator.compare(row1.sortKeys, row2.sortKeys);
+         }
+      };
+   }
+
+   static final class Row implements Serializable {
+
+      private static final long serialVersionUID = -4125634826542713541L;
+
+      final Object[] sortKeys;
+
+      final Object value;
+
+      Row(Object[] sortKeys, Object value) {
+         this.sortKeys = sortKeys;
+         this.value = value;
+      }
+   }
+
+   /**
+    * Collects the matching rows, possibly from several threads. For a sorted query with a limited number of results
+    * only the top rows are kept in a bounded heap.
+    */
+   static final class Collector {
+
+      private final long limit;
+
+      private final Comparator<Row> comparator;
+
+      private final PriorityQueue<Row> topRows;
+
+      private final List<Row> rows;
+
+      private long matches;
+
+      Collector(CompiledQuery query) {
+         limit = query.getResultsNeeded();
+         if (query.isSorted()) {
+            comparator = rowComparator(query);
+            topRows = limit < 0 ? null : new PriorityQueue<Row>(11, Collections.reverseOrder(comparator));
+         } else {
+            comparator = null;
+            topRows = null;
+         }
+         rows = topRows == null ? new ArrayList<Row>() : null;
+      }
+
+      synchronized void add(Object[] sortKeys, Object value) {
+         matches++;
+         if (topRows != null) {
+            if (topRows.size() < limit) {
+               topRows.add(new Row(sortKeys, value));
+            } else if (limit > 0 && comparator.compare(new Row(sortKeys, null), topRows.peek()) < 0) {
+               topRows.poll();
+               topRows.add(new Row(sortKeys, value));
+            }
+         } else if (comparator != null || limit < 0 || rows.size() < limit) {
+            rows.add(new Row(sortKeys, value));
+         }
+      }
+
+      synchronized PartialQueryResult finish() {
+         List<Row> result = topRows != null ? new ArrayList<Row>(topRows) : rows;
+         if (comparator != null) {
+            Collections.sort(result, comparator);
+         }
+         return new PartialQueryResult(matches, result);
+      }
+   }
+}
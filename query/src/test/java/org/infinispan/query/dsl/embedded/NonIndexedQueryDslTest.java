@@ -0,0 +1,220 @@
+package org.infinispan.query.dsl.embedded;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.query.Search;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.QueryFactory;
+import org.infinispan.query.dsl.SortOrder;
+import org.infinispan.query.dsl.embedded.sample_domain_model.Address;
+import org.infinispan.query.dsl.embedded.sample_domain_model.Transaction;
+import org.infinispan.query.dsl.embedded.sample_domain_model.User;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the query DSL on a distributed cache that is not indexed, where the queries are evaluated by scanning the
+ * entries of each node.
+ *
+ * @since 7.0
+ */
+@Test(groups = "functional", testName = "query.dsl.embedded.NonIndexedQueryDslTest")
+public class NonIndexedQueryDslTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_TRANSACTIONS = 50;
+
+   private final DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+
+   public NonIndexedQueryDslTest() {
+      DATE_FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder cfg = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      cfg.clustering().hash().numOwners(2);
+      createClusteredCaches(3, cfg);
+   }
+
+   @BeforeMethod(alwaysRun = true)
+   protected void populateCache() throws Exception {
+      User user1 = new User();
+      user1.setId(1);
+      user1.setName("John");
+      user1.setSurname("Doe");
+      user1.setGender(User.Gender.MALE);
+      user1.setAge(22);
+      user1.setAccountIds(new HashSet<Integer>(Arrays.asList(1, 2)));
+      Address address1 = new Address();
+      address1.setStreet("Main Street");
+      address1.setPostCode("X1234");
+      user1.setAddresses(Collections.singletonList(address1));
+
+      User user2 = new User();
+      user2.setId(2);
+      user2.setName("Spider");
+      user2.setSurname("Man");
+      user2.setGender(User.Gender.MALE);
+      user2.setAccountIds(Collections.singleton(3));
+      Address address2 = new Address();
+      address2.setStreet("Old Street");
+      address2.setPostCode("Y12");
+      Address address3 = new Address();
+      address3.setStreet("Bond Street");
+      address3.setPostCode("ZZ");
+      user2.setAddresses(Arrays.asList(address2, address3));
+
+      User user3 = new User();
+      user3.setId(3);
+      user3.setName("Spider");
+      user3.setSurname("Woman");
+      user3.setGender(User.Gender.FEMALE);
+      user3.setAccountIds(Collections.<Integer>emptySet());
+
+      Cache<Object, Object> cache = cache(0);
+      cache.put("user_" + user1.getId(), user1);
+      cache.put("user_" + user2.getId(), user2);
+      cache.put("user_" + user3.getId(), user3);
+
+      for (int i = 0; i < NUM_TRANSACTIONS; i++) {
+         Transaction transaction = new Transaction();
+         transaction.setId(i);
+         transaction.setDescription("Transaction " + i);
+         transaction.setAccountId(i % 2 + 1);
+         transaction.setAmount(i * 10);
+         transaction.setDate(DATE_FORMAT.parse("2013-01-" + (i % 28 + 1)));
+         transaction.setDebit(i % 3 == 0);
+         cache.put("transaction_" + transaction.getId(), transaction);
+      }
+   }
+
+   private QueryFactory getQueryFactory(int index) {
+      return Search.getNonIndexedQueryFactory(cache(index));
+   }
+
+   public void testEq() {
+      Query q = getQueryFactory(0).from(User.class)
+            .having("name").eq("John")
+            .toBuilder().build();
+
+      List<User> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals("Doe", list.get(0).getSurname());
+      assertEquals(1, q.getResultSize());
+   }
+
+   public void testEqInNested() {
+      Query q = getQueryFactory(1).from(User.class)
+            .having("addresses.postCode").eq("ZZ")
+            .toBuilder().build();
+
+      List<User> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals(2, list.get(0).getId());
+   }
+
+   public void testEntriesAreCountedOnce() {
+      Query q = getQueryFactory(2).from(Transaction.class).build();
+
+      assertEquals(NUM_TRANSACTIONS, q.list().size());
+      assertEquals(NUM_TRANSACTIONS, q.getResultSize());
+   }
+
+   public void testConditions() {
+      Query q = getQueryFactory(0).from(Transaction.class)
+            .having("accountId").eq(1)
+            .and().having("amount").gte(200)
+            .and().not().having("isDebit").eq(true)
+            .toBuilder().build();
+
+      List<Transaction> list = q.list();
+      // even ids from 20 to 48 which are not multiples of 3
+      assertEquals(10, list.size());
+      for (Transaction t : list) {
+         assertEquals(1, t.getAccountId());
+         assertTrue(t.getAmount() >= 200);
+         assertFalse(t.isDebit());
+      }
+   }
+
+   public void testLikeAndIn() {
+      Query q = getQueryFactory(1).from(Transaction.class)
+            .having("description").like("Transaction 1%")
+            .and().having("id").in(1, 5, 10, 15, 20)
+            .toBuilder().orderBy("id", SortOrder.ASC).build();
+
+      List<Transaction> list = q.list();
+      assertEquals(3, list.size());
+      assertEquals(1, list.get(0).getId());
+      assertEquals(10, list.get(1).getId());
+      assertEquals(15, list.get(2).getId());
+   }
+
+   public void testIsNullAndContains() {
+      Query q = getQueryFactory(0).from(User.class)
+            .having("age").isNull()
+            .and().having("accountIds").contains(3)
+            .toBuilder().build();
+
+      List<User> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals(2, list.get(0).getId());
+   }
+
+   public void testSortAndPagination() {
+      Query q = getQueryFactory(2).from(Transaction.class)
+            .orderBy("amount", SortOrder.DESC)
+            .startOffset(5).maxResults(10)
+            .having("accountId").eq(2)
+            .toBuilder().build();
+
+      List<Transaction> list = q.list();
+      assertEquals(10, list.size());
+      assertEquals(25, q.getResultSize());
+      // odd ids in descending order, skipping 49 to 41
+      for (int i = 0; i < list.size(); i++) {
+         assertEquals(39 - 2 * i, list.get(i).getId());
+      }
+   }
+
+   public void testMultipleSortCriteria() {
+      Query q = getQueryFactory(0).from(User.class)
+            .orderBy("name", SortOrder.DESC)
+            .orderBy("surname", SortOrder.ASC)
+            .build();
+
+      List<User> list = q.list();
+      assertEquals(3, list.size());
+      assertEquals("Man", list.get(0).getSurname());
+      assertEquals("Woman", list.get(1).getSurname());
+      assertEquals("John", list.get(2).getName());
+   }
+
+   public void testProjection() throws Exception {
+      Query q = getQueryFactory(1).from(Transaction.class)
+            .setProjection("id", "description")
+            .orderBy("id", SortOrder.ASC)
+            .maxResults(3)
+            .having("date").between(DATE_FORMAT.parse("2013-01-02"), DATE_FORMAT.parse("2013-01-03"))
+            .toBuilder().build();
+
+      List<Object[]> list = q.list();
+      assertEquals(3, list.size());
+      assertEquals(4, q.getResultSize());
+      assertArrayEquals(new Object[]{1, "Transaction 1"}, list.get(0));
+      assertArrayEquals(new Object[]{2, "Transaction 2"}, list.get(1));
+      assertArrayEquals(new Object[]{29, "Transaction 29"}, list.get(2));
+   }
+}
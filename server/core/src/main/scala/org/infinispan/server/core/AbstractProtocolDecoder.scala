@@ -331,42 +331,9 @@ abstract class AbstractProtocolDecoder[K, V](transport: NettyTransport)
 
    protected def createServerException(e: Exception, b: ByteBuf): (Exception, Boolean)
 
-   protected def generateVersion(cache: Cache[K, V]): EntryVersion = {
-      val registry = cache.getAdvancedCache.getComponentRegistry
-      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
-      if (cacheVersionGenerator == null) {
-         // It could be null, for example when not running in compatibility mode.
-         // The reason for that is that if no other component depends on the
-         // version generator, the factory does not get invoked.
-         val newVersionGenerator = new NumericVersionGenerator()
-                 .clustered(cache.getAdvancedCache.getRpcManager != null)
-         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
-         newVersionGenerator.generateNew()
-      } else {
-         cacheVersionGenerator.generateNew()
-      }
-   }
+   protected def generateVersion(cache: Cache[K, V]): EntryVersion = AbstractProtocolDecoder.generateVersion(cache)
 
-   /**
-    * Transforms lifespan pass as seconds into milliseconds
-    * following this rule:
-    *
-    * If lifespan is bigger than number of seconds in 30 days,
-    * then it is considered unix time. After converting it to
-    * milliseconds, we substract the current time in and the
-    * result is returned.
-    *
-    * Otherwise it's just considered number of seconds from
-    * now and it's returned in milliseconds unit.
-    */
-   protected def toMillis(lifespan: Int): Long = {
-      if (lifespan > SecondsInAMonth) {
-         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
-         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
-      } else {
-         TimeUnit.SECONDS.toMillis(lifespan)
-      }
-   }
+   protected def toMillis(lifespan: Int): Long = AbstractProtocolDecoder.toMillis(lifespan)
 
   def bind(ctx: ChannelHandlerContext, localAddress: SocketAddress, promise: ChannelPromise): Unit = ctx.bind(localAddress, promise)
 
@@ -402,6 +369,43 @@ abstract class AbstractProtocolDecoder[K, V](transport: NettyTransport)
 object AbstractProtocolDecoder extends Log {
    private val SecondsInAMonth = 60 * 60 * 24 * 30
    private val DefaultTimeUnit = TimeUnit.MILLISECONDS
+
+   def generateVersion(cache: Cache[_, _]): EntryVersion = {
+      val registry = cache.getAdvancedCache.getComponentRegistry
+      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
+      if (cacheVersionGenerator == null) {
+         // It could be null, for example when not running in compatibility mode.
+         // The reason for that is that if no other component depends on the
+         // version generator, the factory does not get invoked.
+         val newVersionGenerator = new NumericVersionGenerator()
+                 .clustered(cache.getAdvancedCache.getRpcManager != null)
+         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
+         newVersionGenerator.generateNew()
+      } else {
+         cacheVersionGenerator.generateNew()
+      }
+   }
+
+   /**
+    * Transforms lifespan pass as seconds into milliseconds
+    * following this rule:
+    *
+    * If lifespan is bigger than number of seconds in 30 days,
+    * then it is considered unix time. After converting it to
+    * milliseconds, we substract the current time in and the
+    * result is returned.
+    *
+    * Otherwise it's just considered number of seconds from
+    * now and it's returned in milliseconds unit.
+    */
+   def toMillis(lifespan: Int): Long = {
+      if (lifespan > SecondsInAMonth) {
+         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
+         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
+      } else {
+         TimeUnit.SECONDS.toMillis(lifespan)
+      }
+   }
 }
 
 class RequestHeader {
@@ -64,6 +64,16 @@ abstract class AbstractVersionedDecoder {
     */
    def customReadValue(header: HotRodHeader, buffer: ByteBuf, cache: Cache): AnyRef
 
+   /**
+    * Read the given number of key/value pairs from the message, for operations that write several entries at once.
+    */
+   def readEntries(header: HotRodHeader, buffer: ByteBuf, count: Int): java.util.Map[Bytes, Bytes]
+
+   /**
+    * Create a response for a put all request.
+    */
+   def createPutAllResponse(header: HotRodHeader): AnyRef
+
    /**
     * Create a response for the stats command.
     */
@@ -0,0 +1,163 @@
+package org.infinispan.server.hotrod
+
+import logging.Log
+import OperationResponse._
+import OperationStatus._
+import java.nio.ByteBuffer
+import io.netty.buffer.ByteBuf
+import io.netty.channel.{ChannelFuture, ChannelFutureListener, Channel}
+import org.infinispan.commons.util.{Util, CollectionFactory}
+import org.infinispan.container.versioning.NumericVersion
+import org.infinispan.metadata.Metadata
+import org.infinispan.notifications.{ConverterFactory, KeyValueFilterFactory, Listener}
+import org.infinispan.notifications.cachelistener.annotation.{CacheEntryRemoved, CacheEntryModified, CacheEntryCreated}
+import org.infinispan.notifications.cachelistener.cluster.ClusterEvent
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent
+import org.infinispan.notifications.cachelistener.event.Event.Type
+import org.infinispan.notifications.cachelistener.event.impl.EventImpl
+import org.infinispan.server.core.transport.ExtendedByteBuf._
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Keeps track of the listeners registered by Hot Rod clients, and of the filter and converter factories that these
+ * listeners can refer to by name.
+ *
+ * Each client listener is a clustered listener of the cache, whose events are pushed to the client over the
+ * connection that registered it, using the message id of the request that added it. The listener is removed when
+ * the client asks for it, or when the connection is closed.
+ *
+ * @since 7.0
+ */
+class ClientListenerRegistry extends Log {
+   private val isTrace = isTraceEnabled
+   private val filterFactories = CollectionFactory.makeConcurrentMap[String, KeyValueFilterFactory](4, 0.9f, 16)
+   private val converterFactories = CollectionFactory.makeConcurrentMap[String, ConverterFactory](4, 0.9f, 16)
+   private val eventSenders = CollectionFactory.makeConcurrentMap[ByteBuffer, ClientEventSender](4, 0.9f, 16)
+
+   def addKeyValueFilterFactory(name: String, factory: KeyValueFilterFactory): Unit =
+      filterFactories.put(name, factory)
+
+   def removeKeyValueFilterFactory(name: String): Unit = filterFactories.remove(name)
+
+   def addConverterFactory(name: String, factory: ConverterFactory): Unit =
+      converterFactories.put(name, factory)
+
+   def removeConverterFactory(name: String): Unit = converterFactories.remove(name)
+
+   /**
+    * Reads the rest of an add client listener request and registers the listener. The response is written to the
+    * channel before any event, so that the client knows the listener is active when it receives an event.
+    */
+   def addClientListener(ch: Channel, h: HotRodHeader, buffer: ByteBuf, cache: Cache): Unit = {
+      // Read the whole request before doing anything, as the decoder replays it if it is incomplete
+      val listenerId = readRangedBytes(buffer)
+      val filterFactoryName = readString(buffer)
+      val filterParams = readParams(buffer)
+      val converterFactoryName = readString(buffer)
+      val converterParams = readParams(buffer)
+
+      val filter = if (filterFactoryName.isEmpty) null else {
+         val factory = filterFactories.get(filterFactoryName)
+         if (factory == null) throw log.missingKeyValueFilterFactory(filterFactoryName)
+         factory.getKeyValueFilter[Bytes, Bytes](filterParams)
+      }
+      val converter = if (converterFactoryName.isEmpty) null else {
+         val factory = converterFactories.get(converterFactoryName)
+         if (factory == null) throw log.missingConverterFactory(converterFactoryName)
+         factory.getConverter[Bytes, Bytes, Bytes](converterParams)
+      }
+
+      val sender = new ClientEventSender(ch, listenerId, h.version, h.messageId, converter != null)
+      cache.addListener(sender, filter, converter)
+      val key = ByteBuffer.wrap(listenerId)
+      eventSenders.put(key, sender)
+      ch.closeFuture().addListener(new ChannelFutureListener {
+         override def operationComplete(f: ChannelFuture): Unit = {
+            if (eventSenders.remove(key, sender)) {
+               if (isTrace) trace("Removing client listener %s as its connection was closed", sender)
+               cache.removeListener(sender)
+            }
+         }
+      })
+
+      ch.writeAndFlush(new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+         AddClientListenerResponse, Success, h.topologyId))
+      sender.activate()
+   }
+
+   def removeClientListener(h: HotRodHeader, buffer: ByteBuf, cache: Cache): Response = {
+      val listenerId = readRangedBytes(buffer)
+      val sender = eventSenders.remove(ByteBuffer.wrap(listenerId))
+      val status =
+         if (sender != null) {
+            cache.removeListener(sender)
+            Success
+         } else {
+            OperationNotExecuted
+         }
+      new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+         RemoveClientListenerResponse, status, h.topologyId)
+   }
+
+   private def readParams(buffer: ByteBuf): Array[AnyRef] = {
+      val count = buffer.readUnsignedByte
+      val params = new Array[AnyRef](count)
+      for (i <- 0 until count) params(i) = readRangedBytes(buffer)
+      params
+   }
+
+   @Listener(clustered = true)
+   private[hotrod] class ClientEventSender(ch: Channel, listenerId: Bytes, version: Byte, messageId: Long,
+           isCustom: Boolean) {
+      // Events raised while the listener is being added are held until the add response has been written
+      private var pending = new ArrayBuffer[ClientEventResponse]
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      @CacheEntryRemoved
+      def onCacheEvent(event: CacheEntryEvent[Bytes, AnyRef]) {
+         // Events that the converter turned into nothing are not worth sending
+         if (!event.isPre && (!isCustom || event.getValue != null)) {
+            val op = event.getType match {
+               case Type.CACHE_ENTRY_CREATED => CacheEntryCreatedEventResponse
+               case Type.CACHE_ENTRY_MODIFIED => CacheEntryModifiedEventResponse
+               case Type.CACHE_ENTRY_REMOVED => CacheEntryRemovedEventResponse
+            }
+            val customData = if (isCustom) Some(event.getValue.asInstanceOf[Bytes]) else None
+            send(new ClientEventResponse(version, messageId, op, listenerId, event.getKey,
+               getVersion(event), customData))
+         }
+      }
+
+      private def getVersion(event: CacheEntryEvent[Bytes, AnyRef]): Long = {
+         val metadata: Metadata = (event: AnyRef) match {
+            case e: EventImpl[_, _] => e.getMetadata
+            case e: ClusterEvent[_, _] => e.getMetadata
+            case _ => null
+         }
+         if (metadata == null) 0
+         else metadata.version() match {
+            case v: NumericVersion => v.getVersion
+            case _ => 0
+         }
+      }
+
+      private def send(event: ClientEventResponse): Unit = synchronized {
+         if (pending != null) {
+            pending += event
+         } else {
+            if (isTrace) trace("Sending %s to %s", event, ch)
+            ch.writeAndFlush(event)
+         }
+      }
+
+      private[hotrod] def activate(): Unit = synchronized {
+         pending.foreach(ch.writeAndFlush(_))
+         pending = null
+      }
+
+      override def toString: String = "ClientEventSender{listenerId=%s, channel=%s}".format(
+         Util.printArray(listenerId, false), ch)
+   }
+
+}
@@ -244,6 +244,12 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
 
    override def customReadValue(header: HotRodHeader, buffer: ByteBuf, cache: Cache): AnyRef = null
 
+   override def readEntries(header: HotRodHeader, buffer: ByteBuf, count: Int): java.util.Map[Bytes, Bytes] =
+      throw new UnsupportedOperationException("Put all is not supported in version " + header.version)
+
+   override def createPutAllResponse(header: HotRodHeader): AnyRef =
+      throw new UnsupportedOperationException("Put all is not supported in version " + header.version)
+
    override def createStatsResponse(h: HotRodHeader, cacheStats: Stats, t: NettyTransport): AnyRef = {
       val stats = mutable.Map.empty[String, String]
       stats += ("timeSinceStart" -> cacheStats.getTimeSinceStart.toString)
@@ -323,7 +329,14 @@ object OperationResponse extends Enumeration {
    val GetWithMetadataResponse = Value(0x1C)
    val BulkGetKeysResponse = Value(0x1E)
    val QueryResponse = Value(0x20)
+   val PutAllResponse = Value(0x2E)
+   val GetAllResponse = Value(0x30)
+   val AddClientListenerResponse = Value(0x26)
+   val RemoveClientListenerResponse = Value(0x28)
    val ErrorResponse = Value(0x50)
+   val CacheEntryCreatedEventResponse = Value(0x60)
+   val CacheEntryModifiedEventResponse = Value(0x61)
+   val CacheEntryRemovedEventResponse = Value(0x62)
 }
 
 object ProtocolFlag extends Enumeration {
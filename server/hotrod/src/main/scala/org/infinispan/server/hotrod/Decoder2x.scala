@@ -50,6 +50,10 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case 0x1B => (GetWithMetadataRequest, false)
          case 0x1D => (BulkGetKeysRequest, false)
          case 0x1F => (QueryRequest, false)
+         case 0x25 => (AddClientListenerRequest, false)
+         case 0x27 => (RemoveClientListenerRequest, false)
+         case 0x2D => (PutAllRequest, false)
+         case 0x2F => (GetAllRequest, false)
          case _ => throw new HotRodUnknownOperationException(
             "Unknown operation: " + streamOp, version, messageId)
       }
@@ -219,6 +223,14 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
                h.topologyId, result)
          }
+         case GetAllRequest => {
+            val count = readUnsignedInt(buffer)
+            val keys = new java.util.HashSet[Bytes](count)
+            for (i <- 0 until count) keys.add(readKey(buffer))
+            if (isTrace) trace("About to create get all response, count = %d", count)
+            new GetAllResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+               GetAllResponse, Success, h.topologyId, cache.getAll(keys))
+         }
       }
    }
 
@@ -242,6 +254,15 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
 
    override def customReadValue(header: HotRodHeader, buffer: ByteBuf, cache: Cache): AnyRef = null
 
+   override def readEntries(header: HotRodHeader, buffer: ByteBuf, count: Int): java.util.Map[Bytes, Bytes] = {
+      val entries = new java.util.HashMap[Bytes, Bytes](count)
+      for (i <- 0 until count) entries.put(readKey(buffer), readRangedBytes(buffer))
+      entries
+   }
+
+   override def createPutAllResponse(h: HotRodHeader): AnyRef =
+      new Response(h.version, h.messageId, h.cacheName, h.clientIntel, PutAllResponse, Success, h.topologyId)
+
    override def createStatsResponse(h: HotRodHeader, cacheStats: Stats, t: NettyTransport): AnyRef = {
       val stats = mutable.Map.empty[String, String]
       stats += ("timeSinceStart" -> cacheStats.getTimeSinceStart.toString)
@@ -298,6 +319,10 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case BulkGetRequest => BulkGetResponse
          case GetWithMetadataRequest => GetWithMetadataResponse
          case BulkGetKeysRequest => BulkGetKeysResponse
+         case PutAllRequest => PutAllResponse
+         case GetAllRequest => GetAllResponse
+         case AddClientListenerRequest => AddClientListenerResponse
+         case RemoveClientListenerRequest => RemoveClientListenerResponse
       }
    }
 
@@ -7,6 +7,7 @@ import org.infinispan.remoting.transport.Address
 import org.infinispan.server.core.transport.ExtendedByteBuf._
 import org.infinispan.server.hotrod.HotRodServer._
 import org.infinispan.server.hotrod.OperationStatus._
+import org.infinispan.server.hotrod.OperationResponse._
 import org.infinispan.server.hotrod.logging.Log
 import org.infinispan.server.hotrod.util.BulkUtil
 import scala.Some
@@ -209,10 +210,30 @@ object Encoder2x extends AbstractVersionedEncoder with Constants with Log {
                }
                buf.writeByte(0) // Done
             }
+         case g: GetAllResponse =>
+            if (g.status == Success) {
+               writeUnsignedInt(g.entries.size, buf)
+               for (entry <- asScalaIterator(g.entries.entrySet.iterator)) {
+                  writeRangedBytes(entry.getKey, buf)
+                  writeRangedBytes(entry.getValue, buf)
+               }
+            }
          case g: GetResponse =>
             if (g.status == Success) writeRangedBytes(g.data.get, buf)
          case q: QueryResponse =>
             writeRangedBytes(q.result, buf)
+         case e: ClientEventResponse =>
+            writeRangedBytes(e.listenerId, buf)
+            e.customData match {
+               case Some(data) =>
+                  buf.writeByte(1) // Custom event
+                  writeRangedBytes(data, buf)
+               case None =>
+                  buf.writeByte(0)
+                  writeRangedBytes(e.key, buf)
+                  if (e.operation != CacheEntryRemovedEventResponse)
+                     buf.writeLong(e.dataVersion)
+            }
          case e: ErrorResponse => writeString(e.msg, buf)
          case _ => if (buf == null)
             throw new IllegalArgumentException("Response received is unknown: " + r)
@@ -12,6 +12,7 @@ import org.infinispan.container.entries.CacheEntry
 import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
 import io.netty.buffer.ByteBuf
 import io.netty.channel.Channel
+import org.infinispan.context.Flag
 
 /**
  * Top level Hot Rod decoder that after figuring out the version, delegates the rest of the reading to the
@@ -115,14 +116,41 @@ class HotRodDecoder(cacheManager: EmbeddedCacheManager, transport: NettyTranspor
    override def createGetResponse(k: Array[Byte], entry: CacheEntry[Array[Byte], Array[Byte]]): AnyRef =
       header.decoder.createGetResponse(header, entry)
 
+   override protected def get(buffer: ByteBuf): AnyRef = {
+      val k = readKey(buffer)._1
+      val entry = server.getLocalReadPath(header.cacheName) match {
+         case Some(readPath) => readPath.getCacheEntry(k)
+         case None => cache.getCacheEntry(k)
+      }
+      createGetResponse(k, entry)
+   }
+
    override def createMultiGetResponse(pairs: Map[Array[Byte], CacheEntry[Array[Byte], Array[Byte]]]): AnyRef =
       null // Unsupported
 
    override protected def customDecodeHeader(ch: Channel, buffer: ByteBuf): AnyRef =
       writeResponse(ch, header.decoder.customReadHeader(header, buffer, cache))
 
-   override protected def customDecodeKey(ch: Channel, buffer: ByteBuf): AnyRef =
-      writeResponse(ch, header.decoder.customReadKey(header, buffer, cache, server.getQueryFacades))
+   override protected def customDecodeKey(ch: Channel, buffer: ByteBuf): AnyRef = {
+      header.op match {
+         case HotRodOperation.PutAllRequest => writeResponse(ch, putAll(ch, buffer))
+         case HotRodOperation.AddClientListenerRequest =>
+            // The response is written by the registry, ahead of the events
+            server.getClientListenerRegistry.addClientListener(ch, header, buffer, cache)
+            writeResponse(ch, null)
+         case HotRodOperation.RemoveClientListenerRequest =>
+            writeResponse(ch, server.getClientListenerRegistry.removeClientListener(header, buffer, cache))
+         case _ => writeResponse(ch, header.decoder.customReadKey(header, buffer, cache, server.getQueryFacades))
+      }
+   }
+
+   private def putAll(ch: Channel, buffer: ByteBuf): AnyRef = {
+      // Lifespan and max idle apply to all entries, the value length carries the number of entries
+      readParameters(ch, buffer)
+      val entries = header.decoder.readEntries(header, buffer, params.valueLength)
+      cache.withFlags(Flag.IGNORE_RETURN_VALUES).putAll(entries, buildMetadata())
+      header.decoder.createPutAllResponse(header)
+   }
 
    override protected def customDecodeValue(ch: Channel, buffer: ByteBuf): AnyRef =
       writeResponse(ch, header.decoder.customReadValue(header, buffer, cache))
@@ -18,4 +18,8 @@ object HotRodOperation extends Enumeration(20) {
    val GetWithMetadataRequest = Value
    val BulkGetKeysRequest = Value
    val QueryRequest = Value
+   val PutAllRequest = Value
+   val GetAllRequest = Value
+   val AddClientListenerRequest = Value
+   val RemoveClientListenerRequest = Value
 }
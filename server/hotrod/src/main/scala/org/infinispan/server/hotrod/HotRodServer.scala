@@ -14,6 +14,7 @@ import org.infinispan.upgrade.RollingUpgradeManager
 import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
 import java.util.ServiceLoader
 import org.infinispan.util.concurrent.IsolationLevel
+import org.infinispan.notifications.{ConverterFactory, KeyValueFilterFactory}
 
 /**
  * Hot Rod server, in charge of defining its encoder/decoder and, if clustered, update the topology information
@@ -34,12 +35,35 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
    private var address: ServerAddress = _
    private var addressCache: AddressCache = _
    private val knownCaches = CollectionFactory.makeConcurrentMap[String, Cache](4, 0.9f, 16)
+   private val localReadPaths = CollectionFactory.makeConcurrentMap[String, Option[LocalReadPath]](4, 0.9f, 16)
    private var queryFacades: Seq[QueryFacade] = _
+   private val clientListenerRegistry = new ClientListenerRegistry
 
    def getAddress: ServerAddress = address
 
    def getQueryFacades: Seq[QueryFacade] = queryFacades
 
+   def getClientListenerRegistry: ClientListenerRegistry = clientListenerRegistry
+
+   /**
+    * Deploys a filter factory that client listeners can refer to by name.
+    */
+   def addKeyValueFilterFactory(name: String, factory: KeyValueFilterFactory): Unit =
+      clientListenerRegistry.addKeyValueFilterFactory(name, factory)
+
+   def removeKeyValueFilterFactory(name: String): Unit =
+      clientListenerRegistry.removeKeyValueFilterFactory(name)
+
+   /**
+    * Deploys a converter factory that client listeners can refer to by name. The converters must convert the entries
+    * to byte arrays, which the clients receive as custom events. Events converted to null are not sent.
+    */
+   def addConverterFactory(name: String, factory: ConverterFactory): Unit =
+      clientListenerRegistry.addConverterFactory(name, factory)
+
+   def removeConverterFactory(name: String): Unit =
+      clientListenerRegistry.removeConverterFactory(name)
+
    override def getEncoder = new HotRodEncoder(getCacheManager, this)
 
    override def getDecoder : HotRodDecoder =
@@ -166,6 +190,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
             cache = tmpCache.getAdvancedCache
 
          knownCaches.put(cacheName, cache)
+         localReadPaths.put(cacheName, LocalReadPath(cache))
          // make sure we register a Migrator for this cache!
          tryRegisterMigrationManager(cacheName, cache)
       }
@@ -173,6 +198,15 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
       cache
    }
 
+   /**
+    * Returns the path serving the local reads of the cache without going through the interceptor chain, if the cache
+    * allows it. The cache must have been obtained with getCacheInstance first.
+    */
+   def getLocalReadPath(cacheName: String): Option[LocalReadPath] = {
+      val readPath = localReadPaths.get(cacheName)
+      if (readPath == null) None else readPath
+   }
+
    def tryRegisterMigrationManager(cacheName: String, cache: Cache) {
       val cr = cache.getComponentRegistry
       val migrationManager = cr.getComponent(classOf[RollingUpgradeManager])
@@ -0,0 +1,105 @@
+package org.infinispan.server.hotrod
+
+import logging.Log
+import org.infinispan.commons.util.Util
+import org.infinispan.configuration.cache.Configuration
+import org.infinispan.container.DataContainer
+import org.infinispan.container.entries.CacheEntry
+import org.infinispan.context.InvocationContextFactory
+import org.infinispan.factories.ComponentRegistry
+import org.infinispan.interceptors.{InterceptorChain, CacheMgmtInterceptor}
+import org.infinispan.notifications.cachelistener.CacheNotifier
+import org.infinispan.remoting.transport.Transport
+import org.infinispan.security.{AuthorizationPermission, AuthorizationManager}
+import org.infinispan.statetransfer.StateTransferManager
+import org.infinispan.util.TimeService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Serves the reads of keys owned by the local node straight from the data container, without creating an invocation
+ * context nor going through the interceptor chain.
+ *
+ * It is only used for non-transactional caches with neither cache stores, compatibility mode, storeAsBinary nor custom
+ * interceptors, where a read of a local key doesn't do anything beyond looking up the data container. The data
+ * container takes care of the expiration, and the authorization checks, the hit and miss statistics and the visited
+ * notifications are done here as in the interceptor chain. Keys which are not readable locally, e.g. because the local
+ * node doesn't own them or hasn't received them yet during a rebalance, are read through the cache as usual.
+ *
+ * @since 7.0
+ */
+class LocalReadPath private (cache: Cache, registry: ComponentRegistry) extends Log {
+   private val isTrace = isTraceEnabled
+   private val dataContainer = registry.getComponent(classOf[DataContainer[Bytes, Bytes]])
+   private val stateTransferManager = {
+      val cacheMode = cache.getCacheConfiguration.clustering().cacheMode()
+      // Local and invalidation caches only read from the local data container
+      if (cacheMode.isDistributed || cacheMode.isReplicated) registry.getComponent(classOf[StateTransferManager])
+      else null
+   }
+   private val transport = registry.getComponent(classOf[Transport])
+   private val notifier = registry.getComponent(classOf[CacheNotifier[Bytes, Bytes]])
+   private val contextFactory = registry.getComponent(classOf[InvocationContextFactory])
+   private val timeService = registry.getComponent(classOf[TimeService])
+   private val authzManager =
+      if (cache.getCacheConfiguration.security().authorization().enabled())
+         registry.getComponent(classOf[AuthorizationManager])
+      else null
+   private val cacheMgmt = {
+      val interceptors = registry.getComponent(classOf[InterceptorChain])
+            .getInterceptorsWithClass(classOf[CacheMgmtInterceptor])
+      if (interceptors.isEmpty) null else interceptors.get(0).asInstanceOf[CacheMgmtInterceptor]
+   }
+
+   def getCacheEntry(key: Bytes): CacheEntry[Bytes, Bytes] = {
+      if (!isLocallyReadable(key)) {
+         if (isTrace) trace("Key %s is not readable locally, reading it through the cache", Util.printArray(key, true))
+         return cache.getCacheEntry(key)
+      }
+
+      if (authzManager != null) authzManager.checkPermission(AuthorizationPermission.READ)
+      val statisticsEnabled = cacheMgmt != null && cacheMgmt.getStatisticsEnabled
+      val start = if (statisticsEnabled) timeService.time() else 0
+
+      val entry = dataContainer.get(key)
+      if (entry != null) {
+         val ctx = contextFactory.createSingleKeyNonTxInvocationContext()
+         notifier.notifyCacheEntryVisited(key, entry.getValue, true, ctx, null)
+         notifier.notifyCacheEntryVisited(key, entry.getValue, false, ctx, null)
+      }
+
+      if (statisticsEnabled)
+         cacheMgmt.recordRead(entry != null, timeService.timeDuration(start, TimeUnit.MILLISECONDS))
+      entry
+   }
+
+   private def isLocallyReadable(key: Bytes): Boolean = {
+      if (!registry.getStatus.allowInvocations())
+         return false
+      if (stateTransferManager == null)
+         return true
+      val topology = stateTransferManager.getCacheTopology
+      topology != null && topology.getReadConsistentHash.isKeyLocalToNode(transport.getAddress, key)
+   }
+
+}
+
+object LocalReadPath {
+
+   /**
+    * Returns the local read path for the cache, or None if its reads can't bypass the interceptor chain.
+    */
+   def apply(cache: Cache): Option[LocalReadPath] = {
+      if (isEligible(cache.getCacheConfiguration))
+         Some(new LocalReadPath(cache, cache.getComponentRegistry))
+      else
+         None
+   }
+
+   private def isEligible(cfg: Configuration): Boolean =
+      !cfg.transaction().transactionMode().isTransactional &&
+      !cfg.persistence().usingStores() &&
+      !cfg.compatibility().enabled() &&
+      !cfg.storeAsBinary().enabled() &&
+      cfg.customInterceptors().interceptors().isEmpty
+
+}
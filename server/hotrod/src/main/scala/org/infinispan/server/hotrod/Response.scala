@@ -88,6 +88,21 @@ class BulkGetKeysResponse(override val version: Byte, override val messageId: Lo
    }
 }
 
+class GetAllResponse(override val version: Byte, override val messageId: Long, override val cacheName: String, override val clientIntel: Short,
+                     override val operation: OperationResponse, override val status: OperationStatus,
+                     override val topologyId: Int, val entries: java.util.Map[Bytes, Bytes])
+      extends Response(version, messageId, cacheName, clientIntel, operation, status, topologyId) {
+   override def toString = {
+      new StringBuilder().append("GetAllResponse").append("{")
+         .append("version=").append(version)
+         .append(", messageId=").append(messageId)
+         .append(", operation=").append(operation)
+         .append(", status=").append(status)
+         .append(", entries=").append(entries.size)
+         .append("}").toString
+   }
+}
+
 class GetWithVersionResponse(override val version: Byte, override val messageId: Long, override val cacheName: String,
                              override val clientIntel: Short, override val operation: OperationResponse,
                              override val status: OperationStatus,
@@ -168,6 +183,22 @@ class QueryResponse(override val version: Byte, override val messageId: Long, ov
    }
 }
 
+class ClientEventResponse(override val version: Byte, override val messageId: Long, override val operation: OperationResponse,
+        val listenerId: Array[Byte], val key: Array[Byte], val dataVersion: Long, val customData: Option[Array[Byte]])
+      extends Response(version, messageId, "", 1, operation, Success, 0) {
+   override def toString: String = {
+      new StringBuilder().append("ClientEventResponse").append("{")
+              .append("version=").append(version)
+              .append(", messageId=").append(messageId)
+              .append(", operation=").append(operation)
+              .append(", listenerId=").append(Util.printArray(listenerId, false))
+              .append(", key=").append(Util.printArray(key, true))
+              .append(", dataVersion=").append(dataVersion)
+              .append(", customData=").append(Util.printArray(customData.getOrElse(null), true))
+              .append("}").toString
+   }
+}
+
 abstract class AbstractTopologyResponse(val topologyId: Int, val serverEndpointsMap : Map[Address, ServerAddress])
 
 abstract class AbstractHashDistAwareResponse(override val topologyId: Int,
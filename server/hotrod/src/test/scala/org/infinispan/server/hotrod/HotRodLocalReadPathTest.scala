@@ -0,0 +1,113 @@
+package org.infinispan.server.hotrod
+
+import test.HotRodTestingUtil._
+import org.testng.annotations.Test
+import org.testng.Assert._
+import org.infinispan.test.fwk.TestCacheManagerFactory
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.notifications.Listener
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited
+import org.infinispan.notifications.cachelistener.event.CacheEntryVisitedEvent
+import org.infinispan.transaction.TransactionMode
+import org.infinispan.commands.read.GetKeyValueCommand
+import org.infinispan.context.InvocationContext
+import org.infinispan.interceptors.base.CommandInterceptor
+import org.infinispan.test.TestingUtil
+import org.infinispan.util.{TimeService, ControlledTimeService}
+import java.lang.reflect.Method
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Tests that the Hot Rod server reads the local keys through the {@link LocalReadPath} while still updating the
+ * statistics, firing the visited notifications and honouring expiration. A counting interceptor, added once the read
+ * path is installed, checks that the reads don't go through the interceptor chain.
+ *
+ * @since 7.0
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodLocalReadPathTest")
+class HotRodLocalReadPathTest extends HotRodSingleNodeTest {
+
+   private val timeService = new ControlledTimeService
+
+   override def createTestCacheManager: EmbeddedCacheManager = {
+      val cfg = hotRodCacheConfiguration()
+      cfg.jmxStatistics().enable()
+      val cm = TestCacheManagerFactory.createCacheManager(cfg)
+      TestingUtil.replaceComponent(cm, classOf[TimeService], timeService, true)
+      cm
+   }
+
+   def testReadPathInstalled() {
+      assertTrue(server.getLocalReadPath(cacheName).isDefined)
+   }
+
+   def testReadsBypassInterceptorChain(m: Method) {
+      val advancedCache = cacheManager.getCache[Array[Byte], Array[Byte]](cacheName).getAdvancedCache
+      client.assertPut(m)
+      val counter = new ReadCountingInterceptor
+      advancedCache.addInterceptor(counter, 0)
+      try {
+         assertSuccess(client.assertGet(m), v(m))
+         assertKeyDoesNotExist(client.get(k(m, "k-missing-"), 0))
+         assertEquals(counter.reads.get, 0)
+         // A read through the cache is still seen by the interceptor
+         advancedCache.get(k(m))
+         assertEquals(counter.reads.get, 1)
+      } finally {
+         advancedCache.removeInterceptor(classOf[ReadCountingInterceptor])
+      }
+   }
+
+   def testStatisticsAndNotifications(m: Method) {
+      val advancedCache = cacheManager.getCache[Array[Byte], Array[Byte]](cacheName).getAdvancedCache
+      val listener = new VisitedListener
+      advancedCache.addListener(listener)
+      try {
+         val before = advancedCache.getStats
+         client.assertPut(m)
+         assertSuccess(client.assertGet(m), v(m))
+         assertKeyDoesNotExist(client.get(k(m, "k-missing-"), 0))
+         val after = advancedCache.getStats
+         assertEquals(after.getHits, before.getHits + 1)
+         assertEquals(after.getMisses, before.getMisses + 1)
+         assertEquals(listener.visited.get, 1)
+      } finally {
+         advancedCache.removeListener(listener)
+      }
+   }
+
+   def testExpiredEntryNotReturned(m: Method) {
+      client.put(k(m), 1, 0, v(m))
+      assertSuccess(client.assertGet(m), v(m))
+      timeService.advance(1001)
+      assertKeyDoesNotExist(client.assertGet(m))
+   }
+
+   def testNoReadPathForTransactionalCache() {
+      val cfg = hotRodCacheConfiguration()
+      cfg.transaction().transactionMode(TransactionMode.TRANSACTIONAL)
+      cacheManager.defineConfiguration("txCache", cfg.build())
+      val txCache = cacheManager.getCache[Array[Byte], Array[Byte]]("txCache").getAdvancedCache
+      assertTrue(LocalReadPath(txCache).isEmpty)
+   }
+
+}
+
+class ReadCountingInterceptor extends CommandInterceptor {
+   val reads = new AtomicInteger
+
+   override def visitGetKeyValueCommand(ctx: InvocationContext, command: GetKeyValueCommand): AnyRef = {
+      reads.incrementAndGet()
+      super.visitGetKeyValueCommand(ctx, command)
+   }
+}
+
+@Listener
+class VisitedListener {
+   val visited = new AtomicInteger
+
+   @CacheEntryVisited
+   def entryVisited(e: CacheEntryVisitedEvent[_, _]) {
+      if (!e.isPre) visited.incrementAndGet()
+   }
+}
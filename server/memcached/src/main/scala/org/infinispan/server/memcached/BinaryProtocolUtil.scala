@@ -0,0 +1,87 @@
+package org.infinispan.server.memcached
+
+/**
+ * Memcached binary protocol constants.
+ *
+ * @since 7.0
+ */
+object BinaryProtocolUtil {
+
+   val MAGIC_REQUEST = 0x80
+   val MAGIC_RESPONSE = 0x81
+   val HEADER_LENGTH = 24
+   val MAX_KEY_LENGTH = 250
+
+   // Opcodes
+   final val GET = 0x00
+   final val SET = 0x01
+   final val ADD = 0x02
+   final val REPLACE = 0x03
+   final val DELETE = 0x04
+   final val INCREMENT = 0x05
+   final val DECREMENT = 0x06
+   final val QUIT = 0x07
+   final val FLUSH = 0x08
+   final val GETQ = 0x09
+   final val NOOP = 0x0a
+   final val VERSION = 0x0b
+   final val GETK = 0x0c
+   final val GETKQ = 0x0d
+   final val APPEND = 0x0e
+   final val PREPEND = 0x0f
+   final val STAT = 0x10
+   final val SETQ = 0x11
+   final val ADDQ = 0x12
+   final val REPLACEQ = 0x13
+   final val DELETEQ = 0x14
+   final val INCREMENTQ = 0x15
+   final val DECREMENTQ = 0x16
+   final val QUITQ = 0x17
+   final val FLUSHQ = 0x18
+   final val APPENDQ = 0x19
+   final val PREPENDQ = 0x1a
+
+   // Response status
+   final val NO_ERROR: Short = 0x0000
+   final val KEY_NOT_FOUND: Short = 0x0001
+   final val KEY_EXISTS: Short = 0x0002
+   final val INVALID_ARGUMENTS: Short = 0x0004
+   final val ITEM_NOT_STORED: Short = 0x0005
+   final val NON_NUMERIC_VALUE: Short = 0x0006
+   final val UNKNOWN_COMMAND: Short = 0x0081
+   final val INTERNAL_ERROR: Short = 0x0084
+
+   /**
+    * Expiration sent with an increment or decrement when the counter must not be created if missing.
+    */
+   val NO_INITIAL_VALUE = 0xffffffff
+
+   val NOT_FOUND_MESSAGE = "Not found".getBytes
+   val EXISTS_MESSAGE = "Data exists for key.".getBytes
+   val NOT_STORED_MESSAGE = "Not stored.".getBytes
+   val NON_NUMERIC_MESSAGE = "Non-numeric server-side value for incr or decr".getBytes
+   val UNKNOWN_COMMAND_MESSAGE = "Unknown command".getBytes
+
+   /**
+    * Returns the opcode of the command which answers with a response in every case, given the opcode of a quiet
+    * command which only answers with a response if it failed. Any other opcode is returned as is.
+    */
+   def toLoudOpcode(opcode: Int): Int = opcode match {
+      case GETQ => GET
+      case GETKQ => GETK
+      case SETQ => SET
+      case ADDQ => ADD
+      case REPLACEQ => REPLACE
+      case DELETEQ => DELETE
+      case INCREMENTQ => INCREMENT
+      case DECREMENTQ => DECREMENT
+      case QUITQ => QUIT
+      case FLUSHQ => FLUSH
+      case APPENDQ => APPEND
+      case PREPENDQ => PREPEND
+      case _ => opcode
+   }
+
+   def isQuiet(opcode: Int): Boolean = toLoudOpcode(opcode) != opcode
+
+}
@@ -0,0 +1,479 @@
+package org.infinispan.server.memcached
+
+import io.netty.buffer.{Unpooled, ByteBuf}
+import io.netty.channel.{ChannelFuture, ChannelFutureListener, ChannelHandlerContext, Channel}
+import io.netty.handler.codec.ByteToMessageDecoder
+import io.netty.util.CharsetUtil
+import java.io.StreamCorruptedException
+import java.nio.ByteBuffer
+import java.nio.charset.{CharacterCodingException, CharsetDecoder, CodingErrorAction}
+import java.util
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit.{MILLISECONDS => MILLIS}
+import logging.Log
+import org.infinispan.{Version, AdvancedCache}
+import org.infinispan.container.entries.CacheEntry
+import org.infinispan.container.versioning.NumericVersion
+import org.infinispan.context.Flag
+import org.infinispan.metadata.Metadata
+import org.infinispan.server.core.AbstractProtocolDecoder.{generateVersion, toMillis}
+import org.infinispan.server.core.transport.NettyTransport
+import org.infinispan.server.memcached.BinaryProtocolUtil._
+
+/**
+ * A Memcached binary protocol decoder. Each request carries its lengths in a fixed size header, so the complete
+ * requests received are handled straight away and their responses are flushed together once no more complete requests
+ * are buffered.
+ *
+ * Clients pipeline multi-gets as a sequence of quiet gets (getq/getkq) closed by a loud command, typically a noop.
+ * Quiet gets are not looked up one by one: they are queued until a command of another type is received or no more
+ * complete requests are buffered, and then all their keys are looked up with a single
+ * {@link AdvancedCache#getAllCacheEntries(java.util.Set)} call. The responses are written in request order.
+ *
+ * The keys are received and written back as byte arrays, and they are stored in the cache as UTF-8 strings so that
+ * the data is shared with the text protocol endpoints. Keys that are not valid UTF-8 can't be stored losslessly as
+ * strings, so the requests using them are answered with an invalid arguments error.
+ *
+ * @since 7.0
+ */
+class MemcachedBinaryDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], scheduler: ScheduledExecutorService, transport: NettyTransport)
+      extends ByteToMessageDecoder with Log {
+
+   private val cache =
+      if (memcachedCache.getCacheConfiguration.compatibility().enabled())
+         memcachedCache.getAdvancedCache.withFlags(Flag.OPERATION_MEMCACHED)
+      else memcachedCache
+
+   private val isTrace = isTraceEnabled
+   private val defaultMaxIdleTime = cache.getCacheConfiguration.expiration().maxIdle()
+   private val pendingGets = new util.ArrayList[BinaryRequest]
+
+   override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
+      val ch = ctx.channel
+      try {
+         while (isRequestComplete(in)) {
+            val request = readRequest(in)
+            if (isTrace) trace("Decoded %s", request)
+            request.opcode match {
+               case GETQ | GETKQ if request.key.length <= MAX_KEY_LENGTH && request.isKeyValid => pendingGets.add(request)
+               case _ => {
+                  resolvePendingGets(ch)
+                  handle(ch, request)
+               }
+            }
+         }
+         resolvePendingGets(ch)
+      } finally {
+         ch.flush()
+      }
+   }
+
+   private def isRequestComplete(in: ByteBuf): Boolean = {
+      in.readableBytes >= HEADER_LENGTH &&
+            in.readableBytes - HEADER_LENGTH >= in.getInt(in.readerIndex + 8)
+   }
+
+   private def readRequest(in: ByteBuf): BinaryRequest = {
+      val magic = in.readUnsignedByte
+      if (magic != MAGIC_REQUEST)
+         throw new StreamCorruptedException("Invalid magic byte in request: " + magic)
+      val opcode = in.readUnsignedByte
+      val keyLength = in.readUnsignedShort
+      val extrasLength = in.readUnsignedByte
+      in.skipBytes(3) // data type and vbucket id
+      val bodyLength = in.readInt
+      val opaque = in.readInt
+      val cas = in.readLong
+      val valueLength = bodyLength - keyLength - extrasLength
+      if (valueLength < 0)
+         throw new StreamCorruptedException("Body length " + bodyLength + " is shorter than the key and the extras")
+      val extras = in.readSlice(extrasLength)
+      val key = new Array[Byte](keyLength)
+      in.readBytes(key)
+      val value = new Array[Byte](valueLength)
+      in.readBytes(value)
+      opcode match {
+         case SET | SETQ | ADD | ADDQ | REPLACE | REPLACEQ if extrasLength == 8 =>
+            new BinaryRequest(opcode, opaque, cas, key, value, flags = extras.readUnsignedInt, expiration = extras.readInt)
+         case INCREMENT | INCREMENTQ | DECREMENT | DECREMENTQ if extrasLength == 20 =>
+            // Named arguments are evaluated in call site order, which is the order of the extras
+            new BinaryRequest(opcode, opaque, cas, key, value, delta = extras.readLong, initial = extras.readLong,
+               expiration = extras.readInt)
+         case FLUSH | FLUSHQ if extrasLength == 4 =>
+            new BinaryRequest(opcode, opaque, cas, key, value, expiration = extras.readInt)
+         case _ => new BinaryRequest(opcode, opaque, cas, key, value)
+      }
+   }
+
+   private def handle(ch: Channel, request: BinaryRequest) {
+      try {
+         if (request.key.length > MAX_KEY_LENGTH)
+            writeError(ch, request, INVALID_ARGUMENTS, "Key length over the 250 bytes limit".getBytes)
+         else if (!request.isKeyValid)
+            writeError(ch, request, INVALID_ARGUMENTS, "Key is not valid UTF-8".getBytes)
+         else
+            toLoudOpcode(request.opcode) match {
+               case GET | GETK => get(ch, request)
+               case SET => set(ch, request)
+               case ADD => add(ch, request)
+               case REPLACE => replace(ch, request)
+               case DELETE => delete(ch, request)
+               case INCREMENT | DECREMENT => incrDecr(ch, request)
+               case APPEND | PREPEND => appendPrepend(ch, request)
+               case FLUSH => flush(ch, request)
+               case NOOP => writeResponse(ch, request)
+               case VERSION => writeResponse(ch, request, value = Version.VERSION.getBytes(CharsetUtil.UTF_8))
+               case STAT => stats(ch, request)
+               case QUIT => quit(ch, request)
+               case _ => writeError(ch, request, UNKNOWN_COMMAND, UNKNOWN_COMMAND_MESSAGE)
+            }
+      } catch {
+         case e: Exception => {
+            debug(e, "Exception handling %s", request)
+            writeError(ch, request, INTERNAL_ERROR, String.valueOf(e).getBytes(CharsetUtil.UTF_8))
+         }
+      }
+   }
+
+   private def resolvePendingGets(ch: Channel) {
+      if (pendingGets.isEmpty) return
+      try {
+         val keys = new util.HashSet[String]
+         for (i <- 0 until pendingGets.size) keys.add(pendingGets.get(i).keyAsString)
+         val entries = cache.getAllCacheEntries(keys)
+         if (isTrace) trace("Resolved %d quiet gets with %d hits", pendingGets.size, entries.size)
+         for (i <- 0 until pendingGets.size) {
+            val request = pendingGets.get(i)
+            val entry = entries.get(request.keyAsString)
+            // Quiet gets only answer hits
+            if (entry != null) writeGetResponse(ch, request, entry)
+         }
+      } catch {
+         case e: Exception => {
+            debug(e, "Exception resolving %d quiet gets", pendingGets.size)
+            val message = String.valueOf(e).getBytes(CharsetUtil.UTF_8)
+            for (i <- 0 until pendingGets.size) writeError(ch, pendingGets.get(i), INTERNAL_ERROR, message)
+         }
+      } finally {
+         pendingGets.clear()
+      }
+   }
+
+   private def get(ch: Channel, request: BinaryRequest) {
+      val entry = cache.getCacheEntry(request.keyAsString)
+      if (entry != null)
+         writeGetResponse(ch, request, entry)
+      else if (request.opcode == GETK)
+         writeResponse(ch, request, KEY_NOT_FOUND, key = request.key, value = NOT_FOUND_MESSAGE)
+      else
+         writeResponse(ch, request, KEY_NOT_FOUND, value = NOT_FOUND_MESSAGE)
+   }
+
+   private def set(ch: Channel, request: BinaryRequest) {
+      if (request.cas != 0) {
+         replaceIfUnmodified(ch, request)
+      } else {
+         val metadata = buildMetadata(request.flags, request.expiration)
+         cache.put(request.keyAsString, request.value, metadata)
+         writeStored(ch, request, metadata)
+      }
+   }
+
+   private def add(ch: Channel, request: BinaryRequest) {
+      val metadata = buildMetadata(request.flags, request.expiration)
+      val prev = cache.putIfAbsent(request.keyAsString, request.value, metadata)
+      if (prev == null)
+         writeStored(ch, request, metadata)
+      else
+         writeError(ch, request, KEY_EXISTS, EXISTS_MESSAGE)
+   }
+
+   private def replace(ch: Channel, request: BinaryRequest) {
+      if (request.cas != 0) {
+         replaceIfUnmodified(ch, request)
+      } else {
+         val metadata = buildMetadata(request.flags, request.expiration)
+         val prev = cache.replace(request.keyAsString, request.value, metadata)
+         if (prev != null)
+            writeStored(ch, request, metadata)
+         else
+            writeError(ch, request, KEY_NOT_FOUND, NOT_FOUND_MESSAGE)
+      }
+   }
+
+   private def replaceIfUnmodified(ch: Channel, request: BinaryRequest) {
+      val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.keyAsString)
+      if (entry == null) {
+         writeError(ch, request, KEY_NOT_FOUND, NOT_FOUND_MESSAGE)
+      } else if (casOf(entry) != request.cas) {
+         writeError(ch, request, KEY_EXISTS, EXISTS_MESSAGE)
+      } else {
+         val metadata = buildMetadata(request.flags, request.expiration)
+         if (cache.replace(request.keyAsString, entry.getValue, request.value, metadata))
+            writeStored(ch, request, metadata)
+         else
+            writeError(ch, request, KEY_EXISTS, EXISTS_MESSAGE)
+      }
+   }
+
+   private def delete(ch: Channel, request: BinaryRequest) {
+      val removed =
+         if (request.cas != 0) {
+            val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.keyAsString)
+            if (entry != null && casOf(entry) != request.cas) {
+               writeError(ch, request, KEY_EXISTS, EXISTS_MESSAGE)
+               return
+            }
+            entry != null && cache.remove(request.keyAsString, entry.getValue)
+         } else {
+            cache.remove(request.keyAsString) != null
+         }
+      if (removed)
+         writeSuccess(ch, request)
+      else
+         writeError(ch, request, KEY_NOT_FOUND, NOT_FOUND_MESSAGE)
+   }
+
+   private def incrDecr(ch: Channel, request: BinaryRequest) {
+      val key = request.keyAsString
+      val isIncrement = toLoudOpcode(request.opcode) == INCREMENT
+      val delta = unsigned(request.delta)
+      // Retry on concurrent modifications, the counter update must not be lost
+      while (true) {
+         val entry = cache.getCacheEntry(key)
+         if (entry == null) {
+            if (request.expiration == NO_INITIAL_VALUE) {
+               writeError(ch, request, KEY_NOT_FOUND, NOT_FOUND_MESSAGE)
+               return
+            }
+            val initial = unsigned(request.initial)
+            val metadata = buildMetadata(0, request.expiration)
+            if (cache.putIfAbsent(key, initial.toString.getBytes, metadata) == null) {
+               writeCounter(ch, request, initial, metadata)
+               return
+            }
+         } else {
+            val prevCounter =
+               try {
+                  BigInt(new String(entry.getValue, CharsetUtil.UTF_8).trim)
+               } catch {
+                  case n: NumberFormatException => {
+                     writeError(ch, request, NON_NUMERIC_VALUE, NON_NUMERIC_MESSAGE)
+                     return
+                  }
+               }
+            val newCounter =
+               if (isIncrement) {
+                  val candidateCounter = prevCounter + delta
+                  if (candidateCounter > TextProtocolUtil.MAX_UNSIGNED_LONG) BigInt(0) else candidateCounter
+               } else {
+                  val candidateCounter = prevCounter - delta
+                  if (candidateCounter < 0) BigInt(0) else candidateCounter
+               }
+            val metadata = buildMetadata(flags(entry), 0)
+            if (cache.replace(key, entry.getValue, newCounter.toString.getBytes, metadata)) {
+               writeCounter(ch, request, newCounter, metadata)
+               return
+            }
+         }
+      }
+   }
+
+   private def appendPrepend(ch: Channel, request: BinaryRequest) {
+      val key = request.keyAsString
+      val entry = cache.getCacheEntry(key)
+      if (entry == null) {
+         writeError(ch, request, ITEM_NOT_STORED, NOT_STORED_MESSAGE)
+      } else {
+         val prev = entry.getValue
+         val concatenated =
+            if (toLoudOpcode(request.opcode) == APPEND) concat(prev, request.value)
+            else concat(request.value, prev)
+         val metadata = buildMetadata(flags(entry), 0)
+         // If there's a concurrent modification on this key, treat it as we couldn't replace it
+         if (cache.replace(key, prev, concatenated, metadata))
+            writeStored(ch, request, metadata)
+         else
+            writeError(ch, request, ITEM_NOT_STORED, NOT_STORED_MESSAGE)
+      }
+   }
+
+   private def flush(ch: Channel, request: BinaryRequest) {
+      val flushFunction = (cache: AdvancedCache[String, Array[Byte]]) => cache.clear()
+      if (request.expiration == 0)
+         flushFunction(cache)
+      else
+         scheduler.schedule(new DelayedFlushAll(cache, flushFunction), toMillis(request.expiration), MILLIS)
+      writeSuccess(ch, request)
+   }
+
+   private def stats(ch: Channel, request: BinaryRequest) {
+      val stats = cache.getStats
+      writeStat(ch, request, "pid", 0)
+      writeStat(ch, request, "uptime", stats.getTimeSinceStart)
+      writeStat(ch, request, "time", MILLIS.toSeconds(System.currentTimeMillis))
+      writeStat(ch, request, "version", cache.getVersion)
+      writeStat(ch, request, "curr_items", stats.getCurrentNumberOfEntries)
+      writeStat(ch, request, "total_items", stats.getTotalNumberOfEntries)
+      writeStat(ch, request, "cmd_get", stats.getRetrievals)
+      writeStat(ch, request, "cmd_set", stats.getStores)
+      writeStat(ch, request, "get_hits", stats.getHits)
+      writeStat(ch, request, "get_misses", stats.getMisses)
+      writeStat(ch, request, "delete_misses", stats.getRemoveMisses)
+      writeStat(ch, request, "delete_hits", stats.getRemoveHits)
+      writeStat(ch, request, "evictions", stats.getEvictions)
+      writeStat(ch, request, "bytes_read", transport.getTotalBytesRead)
+      writeStat(ch, request, "bytes_written", transport.getTotalBytesWritten)
+      // An empty stat closes the list
+      writeResponse(ch, request)
+   }
+
+   private def quit(ch: Channel, request: BinaryRequest) {
+      if (request.opcode == QUIT)
+         writeResponse(ch, request).addListener(ChannelFutureListener.CLOSE)
+      else
+         ch.close()
+   }
+
+   private def buildMetadata(flags: Long, expiration: Int): Metadata = {
+      val lifespan = if (expiration == 0) -1 else toMillis(expiration)
+      MemcachedMetadata(flags, generateVersion(cache), lifespan, MILLIS, defaultMaxIdleTime, MILLIS)
+   }
+
+   private def unsigned(l: Long): BigInt = if (l >= 0) BigInt(l) else BigInt(l) + (BigInt(1) << 64)
+
+   private def casOf(entry: CacheEntry[String, Array[Byte]]): Long = casOf(entry.getMetadata)
+
+   private def casOf(metadata: Metadata): Long = metadata.version() match {
+      case v: NumericVersion => v.getVersion
+      case _ => 0
+   }
+
+   private def flags(entry: CacheEntry[String, Array[Byte]]): Long = entry.getMetadata match {
+      case meta: MemcachedMetadata => meta.flags
+      case _ => 0
+   }
+
+   private def concat(a: Array[Byte], b: Array[Byte]): Array[Byte] = {
+      val data = new Array[Byte](a.length + b.length)
+      Array.copy(a, 0, data, 0, a.length)
+      Array.copy(b, 0, data, a.length, b.length)
+      data
+   }
+
+   private def writeGetResponse(ch: Channel, request: BinaryRequest, entry: CacheEntry[String, Array[Byte]]) {
+      val extras = Unpooled.buffer(4).writeInt(flags(entry).toInt).array
+      val key = toLoudOpcode(request.opcode) match {
+         case GETK => request.key
+         case _ => Array.emptyByteArray
+      }
+      writeResponse(ch, request, NO_ERROR, extras, key, entry.getValue, casOf(entry))
+   }
+
+   private def writeStored(ch: Channel, request: BinaryRequest, metadata: Metadata) {
+      if (!isQuiet(request.opcode))
+         writeResponse(ch, request, cas = casOf(metadata))
+   }
+
+   private def writeSuccess(ch: Channel, request: BinaryRequest) {
+      if (!isQuiet(request.opcode))
+         writeResponse(ch, request)
+   }
+
+   private def writeCounter(ch: Channel, request: BinaryRequest, counter: BigInt, metadata: Metadata) {
+      if (!isQuiet(request.opcode))
+         writeResponse(ch, request, value = Unpooled.buffer(8).writeLong(counter.longValue).array, cas = casOf(metadata))
+   }
+
+   private def writeStat(ch: Channel, request: BinaryRequest, stat: String, value: Any) {
+      writeResponse(ch, request, key = stat.getBytes(CharsetUtil.UTF_8),
+         value = String.valueOf(value).getBytes(CharsetUtil.UTF_8))
+   }
+
+   /**
+    * Errors are answered even for quiet commands.
+    */
+   private def writeError(ch: Channel, request: BinaryRequest, status: Short, message: Array[Byte]) {
+      writeResponse(ch, request, status, value = message)
+   }
+
+   private def writeResponse(ch: Channel, request: BinaryRequest, status: Short = NO_ERROR,
+                             extras: Array[Byte] = Array.emptyByteArray, key: Array[Byte] = Array.emptyByteArray,
+                             value: Array[Byte] = Array.emptyByteArray, cas: Long = 0): ChannelFuture = {
+      val bodyLength = extras.length + key.length + value.length
+      val buf = ch.alloc.buffer(HEADER_LENGTH + bodyLength)
+      buf.writeByte(MAGIC_RESPONSE)
+      buf.writeByte(request.opcode)
+      buf.writeShort(key.length)
+      buf.writeByte(extras.length)
+      buf.writeByte(0) // data type
+      buf.writeShort(status)
+      buf.writeInt(bodyLength)
+      buf.writeInt(request.opaque)
+      buf.writeLong(cas)
+      buf.writeBytes(extras)
+      buf.writeBytes(key)
+      buf.writeBytes(value)
+      val readable = buf.readableBytes
+      // Responses are flushed once all the buffered requests are handled
+      ch.write(buf).addListener(new ChannelFutureListener {
+         def operationComplete(future: ChannelFuture): Unit = {
+            if (future.isSuccess) transport.updateTotalBytesWritten(readable)
+         }
+      })
+   }
+
+   override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable) {
+      // The request boundaries are lost with a corrupted header, so the connection can't be used anymore
+      debug(cause, "Exception caught, closing channel")
+      ctx.close()
+   }
+
+   override def channelActive(ctx: ChannelHandlerContext) {
+      transport.acceptedChannels.add(ctx.channel)
+      super.channelActive(ctx)
+   }
+
+   override def channelRead(ctx: ChannelHandlerContext, msg: scala.Any): Unit = {
+      transport.updateTotalBytesRead(msg.asInstanceOf[ByteBuf].readableBytes())
+      super.channelRead(ctx, msg)
+   }
+}
+
+private class BinaryRequest(val opcode: Int, val opaque: Int, val cas: Long,
+                            val key: Array[Byte], val value: Array[Byte],
+                            val flags: Long = 0, val expiration: Int = 0,
+                            val delta: Long = 0, val initial: Long = 0) {
+
+   /**
+    * The key decoded as UTF-8, or null if the key bytes are not valid UTF-8. Replacing the malformed bytes would map
+    * different keys to the same entry.
+    */
+   lazy val keyAsString: String =
+      try {
+         BinaryRequest.utf8Decoder.get.decode(ByteBuffer.wrap(key)).toString
+      } catch {
+         case e: CharacterCodingException => null
+      }
+
+   def isKeyValid: Boolean = keyAsString != null
+
+   override def toString = {
+      new java.lang.StringBuilder().append("BinaryRequest").append("{")
+         .append("opcode=0x").append(Integer.toHexString(opcode))
+         .append(", opaque=").append(opaque)
+         .append(", cas=").append(cas)
+         .append(", key=").append(if (isKeyValid) keyAsString else util.Arrays.toString(key))
+         .append(", valueLength=").append(value.length)
+         .append(", flags=").append(flags)
+         .append(", expiration=").append(expiration)
+         .append("}").toString
+   }
+}
+
+private object BinaryRequest {
+   val utf8Decoder = new ThreadLocal[CharsetDecoder] {
+      override def initialValue() = CharsetUtil.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT)
+   }
+}
@@ -14,7 +14,6 @@ import org.infinispan.server.core._
 import org.infinispan.server.core.transport.ExtendedByteBuf._
 import org.infinispan._
 import collection.mutable.ListBuffer
-import collection.{mutable, immutable}
 import transport.NettyTransport
 import DecoderState._
 import java.lang.StringBuilder
@@ -28,6 +27,7 @@ import org.infinispan.container.versioning.NumericVersion
 import org.infinispan.commons.CacheException
 import scala.Some
 import java.util
+import scala.collection.JavaConversions.mapAsScalaMap
 
 /**
  * A Memcached protocol specific decoder
@@ -104,13 +104,11 @@ class MemcachedDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], sched
    override protected def get(buffer: ByteBuf): AnyRef = {
       val keys = readKeys(buffer)
       if (keys.length > 1) {
-         val map = new mutable.HashMap[String, CacheEntry[String, Array[Byte]]]()
-         for (k <- keys) {
-            val entry = cache.getCacheEntry(checkKeyLength(k, endOfOp = true, buffer))
-            if (entry != null)
-               map += (k -> entry)
-         }
-         createMultiGetResponse(new immutable.HashMap ++ map)
+         // Look up all the keys at once, so that the remote ones are fetched with a single call per owner
+         val keySet = new util.HashSet[String]()
+         for (k <- keys)
+            keySet.add(checkKeyLength(k, endOfOp = true, buffer))
+         createMultiGetResponse(mapAsScalaMap(cache.getAllCacheEntries(keySet)).toMap)
       } else {
          val key = checkKeyLength(keys(0), endOfOp = true, buffer)
          val entry = cache.getCacheEntry(key)
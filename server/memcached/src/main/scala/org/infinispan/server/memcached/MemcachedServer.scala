@@ -3,14 +3,16 @@ package org.infinispan.server.memcached
 import org.infinispan.server.core.AbstractProtocolServer
 import java.util.concurrent.Executors
 import org.infinispan.manager.EmbeddedCacheManager
-import org.infinispan.server.memcached.configuration.MemcachedServerConfiguration
+import org.infinispan.server.memcached.configuration.{MemcachedProtocol, MemcachedServerConfiguration}
 import org.infinispan.AdvancedCache
 import org.infinispan.configuration.cache.ConfigurationBuilder
 import org.infinispan.server.memcached.logging.Log
+import io.netty.channel.ChannelInboundHandler
 
 /**
  * Memcached server defining its decoder/encoder settings. In fact, Memcached does not use an encoder since there's
- * no really common headers between protocol operations.
+ * no really common headers between protocol operations. The decoder speaks either the text or the binary protocol,
+ * as configured by {@link MemcachedServerConfiguration#protocol()}.
  *
  * @author Galder Zamarreño
  * @since 4.1
@@ -37,8 +39,10 @@ class MemcachedServer extends AbstractProtocolServer("Memcached") with Log {
 
    override def getEncoder = null
 
-   override def getDecoder: MemcachedDecoder =
-      new MemcachedDecoder(memcachedCache, scheduler, transport)
+   override def getDecoder: ChannelInboundHandler = configuration.protocol match {
+      case MemcachedProtocol.BINARY => new MemcachedBinaryDecoder(memcachedCache, scheduler, transport)
+      case _ => new MemcachedDecoder(memcachedCache, scheduler, transport)
+   }
 
    override def stop {
       super.stop
@@ -0,0 +1,17 @@
+package org.infinispan.server.memcached.configuration;
+
+/**
+ * The protocols a Memcached endpoint can speak.
+ *
+ * @since 7.0
+ */
+public enum MemcachedProtocol {
+   /**
+    * The ASCII protocol, with line based commands.
+    */
+   TEXT,
+   /**
+    * The binary protocol, with fixed size request and response headers and quiet commands which allow pipelining.
+    */
+   BINARY
+}
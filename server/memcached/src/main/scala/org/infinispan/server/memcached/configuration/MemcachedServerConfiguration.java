@@ -12,9 +12,18 @@
  */
 @BuiltBy(MemcachedServerConfigurationBuilder.class)
 public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
+   private final MemcachedProtocol protocol;
 
-   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
+   MemcachedServerConfiguration(String defaultCacheName, MemcachedProtocol protocol, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+      this.protocol = protocol;
+   }
+
+   /**
+    * The protocol spoken by the clients of this endpoint
+    */
+   public MemcachedProtocol protocol() {
+      return protocol;
    }
 
    /**
@@ -27,6 +36,6 @@ public String cache() {
 
    @Override
    public String toString() {
-      return "MemcachedServerConfiguration [" + super.toString() + "]";
+      return "MemcachedServerConfiguration [protocol=" + protocol + ", " + super.toString() + "]";
    }
 }
@@ -11,6 +11,7 @@
  */
 public class MemcachedServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<MemcachedServerConfiguration, MemcachedServerConfigurationBuilder> implements
       Builder<MemcachedServerConfiguration> {
+   private MemcachedProtocol protocol = MemcachedProtocol.TEXT;
 
    public MemcachedServerConfigurationBuilder() {
       super(11211);
@@ -31,9 +32,17 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
       return this;
    }
 
+   /**
+    * Sets the protocol spoken by the clients of this endpoint. Defaults to {@link MemcachedProtocol#TEXT}
+    */
+   public MemcachedServerConfigurationBuilder protocol(MemcachedProtocol protocol) {
+      this.protocol = protocol;
+      return this;
+   }
+
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new MemcachedServerConfiguration(defaultCacheName, protocol, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
@@ -51,6 +60,7 @@ public MemcachedServerConfiguration build() {
    @Override
    public Builder<?> read(MemcachedServerConfiguration template) {
       super.read(template);
+      this.protocol = template.protocol();
       return this;
    }
 }
@@ -0,0 +1,269 @@
+package org.infinispan.server.memcached
+
+import test.MemcachedTestingUtil._
+import BinaryProtocolUtil._
+import org.infinispan.test.SingleCacheManagerTest
+import org.infinispan.test.fwk.TestCacheManagerFactory
+import org.infinispan.manager.EmbeddedCacheManager
+import org.testng.annotations.{AfterClass, Test}
+import org.testng.Assert._
+import java.io.{DataInputStream, DataOutputStream, ByteArrayOutputStream}
+import java.lang.reflect.Method
+import java.net.Socket
+import collection.mutable.ListBuffer
+
+/**
+ * Tests the Memcached binary protocol, including the pipelining of quiet commands.
+ *
+ * @since 7.0
+ */
+@Test(groups = Array("functional"), testName = "server.memcached.MemcachedBinaryProtocolTest")
+class MemcachedBinaryProtocolTest extends SingleCacheManagerTest {
+   private var memcachedServer: MemcachedServer = _
+
+   override def createCacheManager: EmbeddedCacheManager = {
+      cacheManager = TestCacheManagerFactory.createCacheManager(false)
+      memcachedServer = startMemcachedBinaryServer(cacheManager)
+      cache = cacheManager.getCache[AnyRef, AnyRef](memcachedServer.getConfiguration.defaultCacheName)
+      cacheManager
+   }
+
+   @AfterClass(alwaysRun = true)
+   override def destroyAfterClass() {
+      super.destroyAfterClass()
+      killMemcachedServer(memcachedServer)
+   }
+
+   def testSetGet(m: Method) {
+      withConnection { c =>
+         val key = k(m)
+         val set = c.call(SET, key, v(m), extras = storageExtras(0xcafe, 0))
+         assertEquals(set.status, NO_ERROR)
+         assertTrue(set.cas != 0)
+
+         val get = c.call(GET, key)
+         assertEquals(get.status, NO_ERROR)
+         assertEquals(new String(get.value), new String(v(m)))
+         assertEquals(get.extrasInt, 0xcafe)
+         assertEquals(get.cas, set.cas)
+         assertEquals(get.key.length, 0)
+
+         val getk = c.call(GETK, key)
+         assertEquals(new String(getk.key), new String(key))
+
+         val miss = c.call(GETK, k(m, "miss-"))
+         assertEquals(miss.status, KEY_NOT_FOUND)
+         assertEquals(new String(miss.key), new String(k(m, "miss-")))
+      }
+   }
+
+   def testPipelinedQuietCommands(m: Method) {
+      withConnection { c =>
+         for (i <- 0 until 10)
+            c.send(SETQ, k(m, i + "-"), v(m, i + "-"), extras = storageExtras(i, 0), opaque = i)
+         for (i <- 0 until 15)
+            c.send(GETKQ, k(m, i + "-"), opaque = 100 + i)
+         c.send(NOOP, opaque = 1000)
+         // Quiet stores don't answer, quiet gets only answer hits, and the responses come in request order
+         val responses = c.readUntil(NOOP)
+         assertEquals(responses.size, 11)
+         for (i <- 0 until 10) {
+            val r = responses(i)
+            assertEquals(r.opcode, GETKQ)
+            assertEquals(r.opaque, 100 + i)
+            assertEquals(new String(r.key), new String(k(m, i + "-")))
+            assertEquals(new String(r.value), new String(v(m, i + "-")))
+            assertEquals(r.extrasInt, i)
+         }
+         assertEquals(responses(10).opaque, 1000)
+      }
+   }
+
+   def testQuietCommandErrors(m: Method) {
+      withConnection { c =>
+         c.send(REPLACEQ, k(m), v(m), extras = storageExtras(0, 0), opaque = 1)
+         c.send(DELETEQ, k(m), opaque = 2)
+         c.send(ADDQ, k(m), v(m), extras = storageExtras(0, 0), opaque = 3)
+         c.send(NOOP, opaque = 4)
+         val responses = c.readUntil(NOOP)
+         assertEquals(responses.map(_.opaque), List(1, 2, 4))
+         assertEquals(responses(0).status, KEY_NOT_FOUND)
+         assertEquals(responses(1).status, KEY_NOT_FOUND)
+         assertEquals(new String(c.call(GET, k(m)).value), new String(v(m)))
+      }
+   }
+
+   def testAddReplaceCas(m: Method) {
+      withConnection { c =>
+         assertEquals(c.call(REPLACE, k(m), v(m), extras = storageExtras(0, 0)).status, KEY_NOT_FOUND)
+         val added = c.call(ADD, k(m), v(m), extras = storageExtras(0, 0))
+         assertEquals(added.status, NO_ERROR)
+         assertEquals(c.call(ADD, k(m), v(m), extras = storageExtras(0, 0)).status, KEY_EXISTS)
+
+         assertEquals(c.call(SET, k(m), v(m, "v2-"), extras = storageExtras(0, 0), cas = added.cas + 1000).status, KEY_EXISTS)
+         val replaced = c.call(SET, k(m), v(m, "v2-"), extras = storageExtras(0, 0), cas = added.cas)
+         assertEquals(replaced.status, NO_ERROR)
+         assertEquals(new String(c.call(GET, k(m)).value), new String(v(m, "v2-")))
+
+         assertEquals(c.call(DELETE, k(m), cas = added.cas).status, KEY_EXISTS)
+         assertEquals(c.call(DELETE, k(m), cas = replaced.cas).status, NO_ERROR)
+         assertEquals(c.call(GET, k(m)).status, KEY_NOT_FOUND)
+      }
+   }
+
+   def testIncrDecrAppendPrepend(m: Method) {
+      withConnection { c =>
+         assertEquals(c.call(INCREMENT, k(m), extras = counterExtras(1, 0, NO_INITIAL_VALUE)).status, KEY_NOT_FOUND)
+         assertEquals(c.call(INCREMENT, k(m), extras = counterExtras(1, 10, 0)).valueLong, 10)
+         assertEquals(c.call(INCREMENT, k(m), extras = counterExtras(5, 0, 0)).valueLong, 15)
+         assertEquals(c.call(DECREMENT, k(m), extras = counterExtras(20, 0, 0)).valueLong, 0)
+         assertEquals(new String(c.call(GET, k(m)).value), "0")
+
+         assertEquals(c.call(APPEND, k(m, "missing-"), "x".getBytes).status, ITEM_NOT_STORED)
+         c.call(SET, k(m, "s-"), "b".getBytes, extras = storageExtras(7, 0))
+         assertEquals(c.call(APPEND, k(m, "s-"), "c".getBytes).status, NO_ERROR)
+         assertEquals(c.call(PREPEND, k(m, "s-"), "a".getBytes).status, NO_ERROR)
+         val get = c.call(GET, k(m, "s-"))
+         assertEquals(new String(get.value), "abc")
+         assertEquals(get.extrasInt, 7)
+
+         c.call(SET, k(m, "text-"), "abc".getBytes, extras = storageExtras(0, 0))
+         assertEquals(c.call(INCREMENT, k(m, "text-"), extras = counterExtras(1, 0, 0)).status, NON_NUMERIC_VALUE)
+      }
+   }
+
+   def testNonUtf8Keys(m: Method) {
+      withConnection { c =>
+         // Both keys would be decoded to the same string if malformed bytes were replaced
+         val key1 = k(m) ++ Array[Byte](0xff.toByte)
+         val key2 = k(m) ++ Array[Byte](0xfe.toByte)
+         assertEquals(c.call(SET, key1, v(m), extras = storageExtras(0, 0)).status, INVALID_ARGUMENTS)
+         assertEquals(c.call(GET, key2).status, INVALID_ARGUMENTS)
+         c.send(GETKQ, key2, opaque = 1)
+         c.send(NOOP, opaque = 2)
+         val responses = c.readUntil(NOOP)
+         assertEquals(responses.map(_.opaque), List(1, 2))
+         assertEquals(responses(0).status, INVALID_ARGUMENTS)
+      }
+   }
+
+   def testNoopVersionAndUnknownCommand() {
+      withConnection { c =>
+         assertEquals(c.call(NOOP, opaque = 7).opaque, 7)
+         assertEquals(new String(c.call(VERSION).value), org.infinispan.Version.VERSION)
+         assertEquals(c.call(0x1c).status, UNKNOWN_COMMAND)
+         assertEquals(c.call(NOOP).status, NO_ERROR)
+      }
+   }
+
+   def testStats() {
+      withConnection { c =>
+         c.send(STAT)
+         val stats = c.readUntil(STAT, _.key.length == 0)
+         assertTrue(stats.exists(r => new String(r.key) == "curr_items"))
+      }
+   }
+
+   def testFlush(m: Method) {
+      withConnection { c =>
+         c.call(SET, k(m), v(m), extras = storageExtras(0, 0))
+         assertEquals(c.call(FLUSH).status, NO_ERROR)
+         assertEquals(c.call(GET, k(m)).status, KEY_NOT_FOUND)
+      }
+   }
+
+   private def k(m: Method, prefix: String = "k-"): Array[Byte] = (prefix + m.getName).getBytes
+
+   private def v(m: Method, prefix: String = "v-"): Array[Byte] = (prefix + m.getName).getBytes
+
+   private def storageExtras(flags: Int, expiration: Int): Array[Byte] = {
+      val bytes = new ByteArrayOutputStream
+      val out = new DataOutputStream(bytes)
+      out.writeInt(flags)
+      out.writeInt(expiration)
+      bytes.toByteArray
+   }
+
+   private def counterExtras(delta: Long, initial: Long, expiration: Int): Array[Byte] = {
+      val bytes = new ByteArrayOutputStream
+      val out = new DataOutputStream(bytes)
+      out.writeLong(delta)
+      out.writeLong(initial)
+      out.writeInt(expiration)
+      bytes.toByteArray
+   }
+
+   private def withConnection(f: BinaryConnection => Unit) {
+      val socket = new Socket(memcachedServer.getHost, memcachedServer.getPort)
+      try {
+         f(new BinaryConnection(socket))
+      } finally {
+         socket.close()
+      }
+   }
+
+   private class BinaryResponse(val opcode: Int, val status: Short, val opaque: Int, val cas: Long,
+                                val extras: Array[Byte], val key: Array[Byte], val value: Array[Byte]) {
+      def extrasInt: Int = new DataInputStream(new java.io.ByteArrayInputStream(extras)).readInt
+      def valueLong: Long = new DataInputStream(new java.io.ByteArrayInputStream(value)).readLong
+   }
+
+   private class BinaryConnection(socket: Socket) {
+      private val out = new DataOutputStream(socket.getOutputStream)
+      private val in = new DataInputStream(socket.getInputStream)
+
+      def send(opcode: Int, key: Array[Byte] = Array.emptyByteArray, value: Array[Byte] = Array.emptyByteArray,
+               extras: Array[Byte] = Array.emptyByteArray, cas: Long = 0, opaque: Int = 0) {
+         out.writeByte(MAGIC_REQUEST)
+         out.writeByte(opcode)
+         out.writeShort(key.length)
+         out.writeByte(extras.length)
+         out.writeByte(0)
+         out.writeShort(0)
+         out.writeInt(extras.length + key.length + value.length)
+         out.writeInt(opaque)
+         out.writeLong(cas)
+         out.write(extras)
+         out.write(key)
+         out.write(value)
+         out.flush()
+      }
+
+      def read(): BinaryResponse = {
+         assertEquals(in.readUnsignedByte, MAGIC_RESPONSE)
+         val opcode = in.readUnsignedByte
+         val keyLength = in.readUnsignedShort
+         val extrasLength = in.readUnsignedByte
+         in.readByte
+         val status = in.readShort
+         val bodyLength = in.readInt
+         val opaque = in.readInt
+         val cas = in.readLong
+         val extras = new Array[Byte](extrasLength)
+         in.readFully(extras)
+         val key = new Array[Byte](keyLength)
+         in.readFully(key)
+         val value = new Array[Byte](bodyLength - keyLength - extrasLength)
+         in.readFully(value)
+         new BinaryResponse(opcode, status, opaque, cas, extras, key, value)
+      }
+
+      def call(opcode: Int, key: Array[Byte] = Array.emptyByteArray, value: Array[Byte] = Array.emptyByteArray,
+               extras: Array[Byte] = Array.emptyByteArray, cas: Long = 0, opaque: Int = 0): BinaryResponse = {
+         send(opcode, key, value, extras, cas, opaque)
+         val response = read()
+         assertEquals(response.opcode, opcode)
+         response
+      }
+
+      def readUntil(opcode: Int, last: BinaryResponse => Boolean = _ => true): List[BinaryResponse] = {
+         val responses = new ListBuffer[BinaryResponse]
+         var response: BinaryResponse = null
+         do {
+            response = read()
+            responses += response
+         } while (response.opcode != opcode || !last(response))
+         responses.toList
+      }
+   }
+}
@@ -6,7 +6,7 @@ import java.util.concurrent.atomic.AtomicInteger
 import org.infinispan.server.memcached.{MemcachedDecoder, MemcachedServer}
 import org.infinispan.manager.EmbeddedCacheManager
 import java.util
-import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder
+import org.infinispan.server.memcached.configuration.{MemcachedProtocol, MemcachedServerConfigurationBuilder}
 import org.infinispan.server.memcached.logging.Log
 
 /**
@@ -35,6 +35,13 @@ object MemcachedTestingUtil extends Log {
       server
    }
 
+   def startMemcachedBinaryServer(cacheManager: EmbeddedCacheManager): MemcachedServer = {
+      val server = new MemcachedServer
+      server.start(new MemcachedServerConfigurationBuilder().host(host).port(UniquePortThreadLocal.get.intValue)
+            .protocol(MemcachedProtocol.BINARY).build(), cacheManager)
+      server
+   }
+
    def startMemcachedTextServer(cacheManager: EmbeddedCacheManager, cacheName: String): MemcachedServer = {
       startMemcachedTextServer(cacheManager, UniquePortThreadLocal.get.intValue, cacheName)
    }
@@ -1,6 +1,7 @@
 package org.infinispan.spring.mock;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.rpc.ResponseFilter;
 import org.infinispan.remoting.rpc.ResponseMode;
@@ -24,6 +25,13 @@ public Map<Address, Response> invokeRemotely(final Collection<Address> recipient
       return null;
    }
 
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(final Collection<Address> recipients,
+                                                                      final ReplicableCommand rpcCommand, final ResponseMode mode, final long timeout,
+                                                                      final boolean usePriorityQueue, final ResponseFilter responseFilter, final boolean totalOrder, final boolean anycast) {
+      return null;
+   }
+
    @Override
    public boolean isCoordinator() {
       return false;
@@ -8,6 +8,7 @@
 import javax.net.ssl.SSLContext;
 
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.transport.Transport;
@@ -49,6 +50,16 @@ public Transport getTransport(final byte[] key, Set<SocketAddress> failedServers
       return null;
    }
 
+   @Override
+   public Transport getAddressTransport(SocketAddress server) {
+      return null;
+   }
+
+   @Override
+   public Collection<SocketAddress> getServers() {
+      return null;
+   }
+
    @Override
    public boolean isTcpNoDelay() {
       return false;
@@ -80,6 +91,11 @@ public ConsistentHashFactory getConsistentHashFactory() {
       return null;
    }
 
+   @Override
+   public ConsistentHash getConsistentHash() {
+      return null;
+   }
+
    @Override
    public SSLContext getSSLContext() {
       return null;